@@ -4,44 +4,68 @@ import com.climbassist.api.ApiConfiguration;
 import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterRegistration;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import java.util.EnumSet;
 
 /**
  * Utility to initialize the Spring MVC ClimbAssist application.
  */
 public class ClimbAssistInitializer extends AbstractAnnotationConfigDispatcherServletInitializer {
 
+    private static final EnumSet<DispatcherType> REQUEST_AND_ASYNC_DISPATCHER_TYPES =
+            EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC);
+
     @Override
     public void onStartup(ServletContext servletContext) throws ServletException {
         // These use beans that are defined with names matching the DeletingFilterProxy name.
         // These have to be registered in this order in order for the logging to occur after the response is wrapped.
+        // Filters which post-process the response also run on the ASYNC dispatch, since that's when the result of an
+        // asynchronous request is written.
 
         FilterRegistration.Dynamic dynamicFilterRegistration =
                 servletContext.addFilter("RequestIdFilter", new DelegatingFilterProxy("requestIdFilter"));
+        dynamicFilterRegistration.setAsyncSupported(true);
+        dynamicFilterRegistration.addMappingForUrlPatterns(REQUEST_AND_ASYNC_DISPATCHER_TYPES, false, "/*");
+
+        // this rejects oversized requests before anything reads their body
+        dynamicFilterRegistration =
+                servletContext.addFilter("RequestSizeLimitFilter", new DelegatingFilterProxy("requestSizeLimitFilter"));
+        dynamicFilterRegistration.setAsyncSupported(true);
+        dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
+
+        dynamicFilterRegistration =
+                servletContext.addFilter("RequestMemoFilter", new DelegatingFilterProxy("requestMemoFilter"));
+        dynamicFilterRegistration.setAsyncSupported(true);
         dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
 
         dynamicFilterRegistration = servletContext.addFilter("UserDataDecorationFilter",
                 new DelegatingFilterProxy("userDataDecorationFilter"));
+        dynamicFilterRegistration.setAsyncSupported(true);
         dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
 
         dynamicFilterRegistration = servletContext.addFilter("RequestResponseLoggingFilter",
                 new DelegatingFilterProxy("requestResponseLoggingFilter"));
-        dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
+        dynamicFilterRegistration.setAsyncSupported(true);
+        dynamicFilterRegistration.addMappingForUrlPatterns(REQUEST_AND_ASYNC_DISPATCHER_TYPES, false, "/*");
 
         dynamicFilterRegistration =
                 servletContext.addFilter("ApiResponseFilter", new DelegatingFilterProxy("apiResponseFilter"));
-        dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/" + ApiConfiguration.V1_VERSION + "/*",
-                "/" + ApiConfiguration.V2_VERSION + "/*");
+        dynamicFilterRegistration.setAsyncSupported(true);
+        dynamicFilterRegistration.addMappingForUrlPatterns(REQUEST_AND_ASYNC_DISPATCHER_TYPES, false,
+                "/" + ApiConfiguration.V1_VERSION + "/*", "/" + ApiConfiguration.V2_VERSION + "/*");
 
         dynamicFilterRegistration = servletContext.addFilter("CharacterEncodingFilter",
                 new DelegatingFilterProxy("characterEncodingFilter"));
+        dynamicFilterRegistration.setAsyncSupported(true);
         dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
 
         dynamicFilterRegistration =
                 servletContext.addFilter("MetricsFilter", new DelegatingFilterProxy("metricsFilter"));
-        dynamicFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
+        dynamicFilterRegistration.setAsyncSupported(true);
+        dynamicFilterRegistration.addMappingForUrlPatterns(REQUEST_AND_ASYNC_DISPATCHER_TYPES, false, "/*");
 
         super.onStartup(servletContext);
     }
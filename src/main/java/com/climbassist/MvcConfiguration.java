@@ -4,14 +4,20 @@ import com.climbassist.api.ApiConfiguration;
 import com.climbassist.api.contact.ContactConfiguration;
 import com.climbassist.api.recaptcha.RecaptchaConfiguration;
 import com.climbassist.api.resource.area.AreaConfiguration;
+import com.climbassist.api.resource.common.export.DataExportConfiguration;
+import com.climbassist.api.resource.common.ordering.OrderKeyMigrationConfiguration;
 import com.climbassist.api.resource.country.CountryConfiguration;
 import com.climbassist.api.resource.crag.CragConfiguration;
+import com.climbassist.api.resource.crag.bulkimport.CragImportConfiguration;
+import com.climbassist.api.resource.crag.map.MapConfiguration;
+import com.climbassist.api.resource.crag.nearby.NearbyCragConfiguration;
 import com.climbassist.api.resource.path.PathConfiguration;
 import com.climbassist.api.resource.pathpoint.PathPointConfiguration;
 import com.climbassist.api.resource.pitch.PitchConfiguration;
 import com.climbassist.api.resource.point.PointConfiguration;
 import com.climbassist.api.resource.region.RegionConfiguration;
 import com.climbassist.api.resource.route.RouteConfiguration;
+import com.climbassist.api.resource.route.search.RouteSearchConfiguration;
 import com.climbassist.api.resource.subarea.SubAreaConfiguration;
 import com.climbassist.api.resource.wall.WallConfiguration;
 import com.climbassist.api.user.UserConfiguration;
@@ -20,10 +26,13 @@ import com.climbassist.health.HealthConfiguration;
 import com.climbassist.logging.LoggingConfiguration;
 import com.climbassist.main.MainConfiguration;
 import com.climbassist.metrics.MetricsConfiguration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -32,22 +41,40 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
 @EnableWebMvc
 @Configuration
 @Import({ApiConfiguration.class, AreaConfiguration.class, ContactConfiguration.class, CountryConfiguration.class,
-        CragConfiguration.class, HealthConfiguration.class, LoggingConfiguration.class, MainConfiguration.class,
-        MetricsConfiguration.class, PathConfiguration.class, PathPointConfiguration.class, PitchConfiguration.class,
-        PointConfiguration.class, RecaptchaConfiguration.class, RegionConfiguration.class, RouteConfiguration.class,
-        SubAreaConfiguration.class, UserAuthenticationConfiguration.class, UserConfiguration.class,
-        WallConfiguration.class})
+        CragConfiguration.class, CragImportConfiguration.class, DataExportConfiguration.class,
+        HealthConfiguration.class, LoggingConfiguration.class, MainConfiguration.class, MapConfiguration.class,
+        MetricsConfiguration.class, NearbyCragConfiguration.class, OrderKeyMigrationConfiguration.class,
+        PathConfiguration.class, PathPointConfiguration.class, PitchConfiguration.class, PointConfiguration.class,
+        RecaptchaConfiguration.class, RegionConfiguration.class, RouteConfiguration.class,
+        RouteSearchConfiguration.class, SubAreaConfiguration.class, UserAuthenticationConfiguration.class,
+        UserConfiguration.class, WallConfiguration.class})
+@PropertySource("classpath:application.properties")
 public class MvcConfiguration implements WebMvcConfigurer {
 
+    @Value("${asyncRequestTimeoutMillis}")
+    private long asyncRequestTimeoutMillis;
+
+    @Value("${maxUploadBodyBytes}")
+    private long maxUploadBodyBytes;
+
+    // Requests which are still running after this will fail with an AsyncRequestTimeoutException.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer asyncSupportConfigurer) {
+        asyncSupportConfigurer.setDefaultTimeout(asyncRequestTimeoutMillis);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry resourceHandlerRegistry) {
         resourceHandlerRegistry.addResourceHandler("/static/**")
                 .addResourceLocations("/dist/static/");
     }
 
+    // uploads over the in-memory size are streamed to temporary files, so an upload's size doesn't affect the heap
     @Bean(name = "multipartResolver")
     public CommonsMultipartResolver getMultipartResolver() {
-        return new CommonsMultipartResolver();
+        CommonsMultipartResolver commonsMultipartResolver = new CommonsMultipartResolver();
+        commonsMultipartResolver.setMaxUploadSize(maxUploadBodyBytes);
+        return commonsMultipartResolver;
     }
 
     // This will allow URLs containing "." to be passed without being truncated.
@@ -1,20 +1,28 @@
 package com.climbassist.api;
 
+import com.climbassist.api.resource.common.cache.RequestMemo;
+import com.climbassist.api.resource.common.cache.ResourceCacheConfiguration;
 import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
 import com.climbassist.api.user.authorization.AuthenticatedAuthorizationHandler;
 import com.climbassist.api.user.authorization.AuthorizationHandlerFactory;
 import com.climbassist.api.user.authorization.AuthorizationInterceptor;
 import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.validation.beanvalidation.MethodValidationPostProcessor;
 import org.springframework.web.servlet.handler.MappedInterceptor;
 
 @Configuration
-@Import(CommonConfiguration.class)
+@Import({CommonConfiguration.class, MetricsConfiguration.class, ResourceCacheConfiguration.class})
+@PropertySource("classpath:application.properties")
 public class ApiConfiguration {
 
     public static final String V1_VERSION = "v1";
@@ -24,12 +32,19 @@ public class ApiConfiguration {
     static final String V2_API_PATH = "/" + V2_VERSION + "/**";
 
     @Bean
-    public ApiResponseFilter apiResponseFilter(@NonNull ObjectMapper objectMapper) {
+    public ApiResponseFilter apiResponseFilter() {
         return ApiResponseFilter.builder()
+                .build();
+    }
+
+    @Bean
+    public RequestSizeLimitFilter requestSizeLimitFilter(@NonNull ObjectMapper objectMapper,
+                                                         @Value("${maxRequestBodyBytes}") long maxRequestBodyBytes,
+                                                         @Value("${maxUploadBodyBytes}") long maxUploadBodyBytes) {
+        return RequestSizeLimitFilter.builder()
                 .objectMapper(objectMapper)
-                .apiResponseFactory(ApiResponseFactory.builder()
-                        .objectMapper(objectMapper)
-                        .build())
+                .maxBodyBytes(maxRequestBodyBytes)
+                .maxMultipartBodyBytes(maxUploadBodyBytes)
                 .build();
     }
 
@@ -40,6 +55,47 @@ public class ApiConfiguration {
                 .build();
     }
 
+    /**
+     * Runs the controller methods which return a {@link java.util.concurrent.CompletableFuture}, so that slow writes
+     * don't hold on to a servlet container thread. When it's full, requests are rejected rather than run on the
+     * container thread, and work for requests which have already timed out is stopped.
+     */
+    @Bean
+    public BoundedExecutor asyncRequestExecutor(@Value("${asyncRequestConcurrency}") int asyncRequestConcurrency,
+                                                @Value("${asyncRequestQueueCapacity}") int asyncRequestQueueCapacity,
+                                                @Value("${asyncRequestTimeoutMillis}") long asyncRequestTimeoutMillis,
+                                                @NonNull MetricsEmitter metricsEmitter,
+                                                @NonNull RequestMemo requestMemo) {
+        return BoundedExecutor.builder()
+                .name("AsyncRequestExecutor")
+                .concurrency(asyncRequestConcurrency)
+                .queueCapacity(asyncRequestQueueCapacity)
+                .metricsEmitter(metricsEmitter)
+                .taskDecorator(requestMemo::propagate)
+                .rejectWhenFull(true)
+                .taskTimeoutMillis(asyncRequestTimeoutMillis)
+                .build();
+    }
+
+    /**
+     * Runs uploads, which can take minutes for large files, so unlike {@link #asyncRequestExecutor} its tasks are never
+     * stopped. Upload requests are given their own, longer, timeout instead.
+     */
+    @Bean
+    public BoundedExecutor uploadRequestExecutor(@Value("${uploadRequestConcurrency}") int uploadRequestConcurrency,
+                                                 @Value("${uploadRequestQueueCapacity}") int uploadRequestQueueCapacity,
+                                                 @NonNull MetricsEmitter metricsEmitter,
+                                                 @NonNull RequestMemo requestMemo) {
+        return BoundedExecutor.builder()
+                .name("UploadRequestExecutor")
+                .concurrency(uploadRequestConcurrency)
+                .queueCapacity(uploadRequestQueueCapacity)
+                .metricsEmitter(metricsEmitter)
+                .taskDecorator(requestMemo::propagate)
+                .rejectWhenFull(true)
+                .build();
+    }
+
     @Bean
     public MappedInterceptor mappedAuthorizationInterceptor() {
         AuthorizationHandlerFactory authorizationHandlerFactory = new AuthorizationHandlerFactory(
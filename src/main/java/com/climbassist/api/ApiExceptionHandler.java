@@ -19,12 +19,15 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolationException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class creates an HTTP response from the exception that was thrown. Additionally, it always sets the
@@ -122,6 +125,16 @@ public class ApiExceptionHandler {
         return handleBadRequestException(errorMessage);
     }
 
+    // this is thrown for uploads without a Content-Length, since RequestSizeLimitFilter already rejected the others
+    @ExceptionHandler(value = MaxUploadSizeExceededException.class)
+    public ResponseEntity<Object> handleMaxUploadSizeExceededException(
+            MaxUploadSizeExceededException maxUploadSizeExceededException) throws JsonProcessingException {
+        log.warn(Throwables.getStackTraceAsString(maxUploadSizeExceededException));
+        return buildResponseEntity(RequestSizeLimitFilter.EXCEPTION_TYPE, String.format(
+                "Request bodies can't be larger than %d bytes.", maxUploadSizeExceededException.getMaxUploadSize()),
+                HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(value = MultipartException.class)
     public ResponseEntity<Object> handleMultipartException(MultipartException multipartException)
             throws JsonProcessingException {
@@ -140,6 +153,24 @@ public class ApiExceptionHandler {
         return handleBadRequestException(message);
     }
 
+    @ExceptionHandler(value = AsyncRequestTimeoutException.class)
+    public ResponseEntity<Object> handleAsyncRequestTimeoutException(
+            AsyncRequestTimeoutException asyncRequestTimeoutException) throws JsonProcessingException {
+        log.warn(Throwables.getStackTraceAsString(asyncRequestTimeoutException));
+        return buildResponseEntity("RequestTimeoutException",
+                "ClimbAssist took too long to process your request. Please try again later.",
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(value = RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecutionException(
+            RejectedExecutionException rejectedExecutionException) throws JsonProcessingException {
+        log.warn(Throwables.getStackTraceAsString(rejectedExecutionException));
+        return buildResponseEntity("ServiceUnavailableException",
+                "ClimbAssist is too busy to process your request. Please try again later.",
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<Object> handleException(Exception exception) throws JsonProcessingException {
         log.error(Throwables.getStackTraceAsString(exception));
@@ -1,21 +1,20 @@
 package com.climbassist.api;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonRawValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * This represents a REST API response that is returned from all APIs.
+ * This represents a REST API response that is returned from all APIs. It's written by {@link ApiResponseFilter} as a
+ * prefix and a suffix around the body the controller wrote, which is either the data or an {@link Error}:
+ *
+ * <pre>
+ * {"data": ...}
+ * {"error": {"type": ..., "message": ...}}
+ * </pre>
  */
-@AllArgsConstructor // required for @Builder, because of a bug
-@Builder
-@Data
-@NoArgsConstructor
-@JsonInclude(JsonInclude.Include.NON_NULL)
-public class ApiResponse {
+public final class ApiResponse {
 
     @AllArgsConstructor // required for @Builder, because of a bug
     @Builder
@@ -27,10 +26,12 @@ public class ApiResponse {
         private String message;
     }
 
-    public static final int EXTRA_CHARACTERS_FOR_ERROR = 10;
+    static final String DATA_PREFIX = "{\"data\":";
+    static final String ERROR_PREFIX = "{\"error\":";
+    static final String SUFFIX = "}";
 
-    @JsonRawValue // we need this because we know this string is a JSON object so we don't want Jackson to escape it
-    private String data;
-    @JsonRawValue // we need this because we know this string is a JSON object so we don't want Jackson to escape it
-    private String error;
+    public static final int EXTRA_CHARACTERS_FOR_ERROR = ERROR_PREFIX.length() + SUFFIX.length();
+
+    private ApiResponse() {
+    }
 }
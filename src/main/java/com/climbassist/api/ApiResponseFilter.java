@@ -1,13 +1,9 @@
 package com.climbassist.api;
 
-import com.climbassist.api.user.SessionUtils;
-import com.climbassist.wrapper.response.ResponseWrapper;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Builder;
-import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.MediaType;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -17,39 +13,35 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 /**
- * This class converts all API responses into JSON objects which comply with ClimbAssist REST standards
+ * This class converts all API responses into JSON objects which comply with ClimbAssist REST standards. The body is
+ * wrapped as it's written, so it's never held in memory here. Responses of asynchronous requests are finished when the
+ * request is dispatched again after the result is ready.
  */
 @Builder
 @Slf4j
 public final class ApiResponseFilter implements Filter {
 
-    @NonNull
-    private final ObjectMapper objectMapper;
-    @NonNull
-    private final ApiResponseFactory apiResponseFactory;
+    private static final String RESPONSE_WRAPPER_ATTRIBUTE_NAME =
+            ApiResponseFilter.class.getName() + ".responseWrapper";
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
-        HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
-        ResponseWrapper responseWrapper = new ResponseWrapper(httpServletResponse);
-        responseWrapper.setCustomHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        if (servletRequest.getDispatcherType() == DispatcherType.ASYNC) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            if (!servletRequest.isAsyncStarted()) {
+                ((ApiResponseWrapper) servletRequest.getAttribute(RESPONSE_WRAPPER_ATTRIBUTE_NAME)).finish();
+            }
+            return;
+        }
 
-        filterChain.doFilter(servletRequest, responseWrapper);
+        ApiResponseWrapper apiResponseWrapper = new ApiResponseWrapper((HttpServletResponse) servletResponse);
+        servletRequest.setAttribute(RESPONSE_WRAPPER_ATTRIBUTE_NAME, apiResponseWrapper);
 
-        // some of our interceptors use sessions to pass data to the controller
-        // we don't need this returned to the browser or exposed at all, so this removes the session ID cookie
-        SessionUtils.removeJSessionIdCookie(httpServletResponse);
+        filterChain.doFilter(servletRequest, apiResponseWrapper);
 
-        if (httpServletResponse.getStatus() >= 400) {
-            String error = responseWrapper.getBody();
-            servletResponse.getOutputStream()
-                    .write(objectMapper.writeValueAsBytes(apiResponseFactory.createFromError(error)));
-        }
-        else {
-            String data = responseWrapper.getBody();
-            servletResponse.getOutputStream()
-                    .write(objectMapper.writeValueAsBytes(apiResponseFactory.createFromData(data)));
+        if (!servletRequest.isAsyncStarted()) {
+            apiResponseWrapper.finish();
         }
     }
 }
@@ -0,0 +1,116 @@
+package com.climbassist.api;
+
+import com.climbassist.api.user.SessionUtils;
+import com.climbassist.wrapper.response.StreamableResponse;
+import org.springframework.lang.NonNull;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class wraps the body of an API response in an {@link ApiResponse} as the body is written, instead of holding on
+ * to the body until the controller is done. The envelope is picked when the first byte of the body is written, since
+ * the status is always set by then, and it's closed by {@link #finish()}.
+ */
+class ApiResponseWrapper extends HttpServletResponseWrapper implements StreamableResponse {
+
+    private static final byte[] DATA_PREFIX = ApiResponse.DATA_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_PREFIX = ApiResponse.ERROR_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = ApiResponse.SUFFIX.getBytes(StandardCharsets.UTF_8);
+
+    private EnvelopeOutputStream envelopeOutputStream;
+    private boolean started;
+    private boolean streaming;
+
+    ApiResponseWrapper(HttpServletResponse httpServletResponse) {
+        super(httpServletResponse);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (streaming) {
+            return getResponse().getOutputStream();
+        }
+        if (envelopeOutputStream == null) {
+            envelopeOutputStream = new EnvelopeOutputStream(getResponse().getOutputStream());
+        }
+        return envelopeOutputStream;
+    }
+
+    @Override
+    public void startStreaming() {
+        streaming = true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Closes the envelope, opening it first if the body was empty.
+     */
+    void finish() throws IOException {
+        if (streaming) {
+            return;
+        }
+        ServletOutputStream outputStream = getResponse().getOutputStream();
+        start(outputStream);
+        outputStream.write(SUFFIX);
+    }
+
+    private void start(ServletOutputStream outputStream) throws IOException {
+        if (started) {
+            return;
+        }
+        started = true;
+        // some of our interceptors use sessions to pass data to the controller
+        // we don't need this returned to the browser or exposed at all, so this removes the session ID cookie, which
+        // has to happen before the body commits the headers
+        SessionUtils.removeJSessionIdCookie((HttpServletResponse) getResponse());
+        outputStream.write(getStatus() >= 400 ? ERROR_PREFIX : DATA_PREFIX);
+    }
+
+    private class EnvelopeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream outputStream;
+
+        private EnvelopeOutputStream(ServletOutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            start(outputStream);
+            outputStream.write(b);
+        }
+
+        @Override
+        public void write(@NonNull byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            start(outputStream);
+            outputStream.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return outputStream.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            outputStream.setWriteListener(writeListener);
+        }
+    }
+}
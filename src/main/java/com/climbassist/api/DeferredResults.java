@@ -0,0 +1,33 @@
+package com.climbassist.api;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@UtilityClass
+public class DeferredResults {
+
+    /**
+     * Adapts a future for controller methods which need a different timeout than the default async request timeout,
+     * like uploads. A failed future's exception is unwrapped from its {@link CompletionException}, so that it reaches
+     * the exception handlers the same way as when a controller returns the future itself.
+     */
+    public static <T> DeferredResult<T> withTimeout(@NonNull CompletableFuture<T> completableFuture,
+                                                    long timeoutMillis) {
+        DeferredResult<T> deferredResult = new DeferredResult<>(timeoutMillis);
+        completableFuture.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                deferredResult.setResult(result);
+            }
+            else {
+                deferredResult.setErrorResult(
+                        throwable instanceof CompletionException && throwable.getCause() != null ?
+                                throwable.getCause() : throwable);
+            }
+        });
+        return deferredResult;
+    }
+}
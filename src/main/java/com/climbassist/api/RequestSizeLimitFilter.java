@@ -0,0 +1,102 @@
+package com.climbassist.api;
+
+import com.climbassist.wrapper.request.RequestBodyTooLargeException;
+import com.climbassist.wrapper.request.SizeLimitedRequestWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Throwables;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.springframework.http.MediaType;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class rejects requests whose Content-Length is over the limit before any of their body is read, so that an
+ * oversized upload fails straight away instead of after it has been buffered, spooled or parsed. Other bodies, like
+ * chunked ones, are counted as they're read, and the request is rejected the same way as soon as it passes the limit,
+ * as long as nothing has been written to the response yet. Multipart uploads have their own limit, which the multipart
+ * resolver also enforces for uploads that don't send a Content-Length. This runs before {@link ApiResponseFilter}, so
+ * it writes the whole error response itself.
+ */
+@Slf4j
+public final class RequestSizeLimitFilter implements Filter {
+
+    static final String EXCEPTION_TYPE = "RequestTooLargeException";
+
+    private final ObjectMapper objectMapper;
+    private final long maxBodyBytes;
+    private final long maxMultipartBodyBytes;
+
+    @Builder
+    private RequestSizeLimitFilter(@NonNull ObjectMapper objectMapper, long maxBodyBytes, long maxMultipartBodyBytes) {
+        if (maxBodyBytes < 0 || maxMultipartBodyBytes < 0) {
+            throw new IllegalArgumentException("Max body bytes must be greater than or equal to 0.");
+        }
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxMultipartBodyBytes = maxMultipartBodyBytes;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+            throws IOException, ServletException {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+        long maxBytes = ServletFileUpload.isMultipartContent(httpServletRequest) ? maxMultipartBodyBytes :
+                maxBodyBytes;
+        long contentLength = httpServletRequest.getContentLengthLong();
+        if (contentLength > maxBytes) {
+            log.warn(String.format("Rejecting %s %s with a body of %d bytes, which is over the limit of %d bytes.",
+                    httpServletRequest.getMethod(), httpServletRequest.getServletPath(), contentLength, maxBytes));
+            reject((HttpServletResponse) servletResponse, maxBytes);
+            return;
+        }
+        if (ServletFileUpload.isMultipartContent(httpServletRequest)) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        try {
+            filterChain.doFilter(new SizeLimitedRequestWrapper(httpServletRequest, maxBytes), servletResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            // whatever was reading the body may have wrapped the exception
+            if (!isRequestBodyTooLarge(e) || servletResponse.isCommitted()) {
+                throw e;
+            }
+            log.warn(String.format("Rejecting %s %s, whose body is over the limit of %d bytes.",
+                    httpServletRequest.getMethod(), httpServletRequest.getServletPath(), maxBytes));
+            servletResponse.resetBuffer();
+            reject((HttpServletResponse) servletResponse, maxBytes);
+        }
+    }
+
+    private static boolean isRequestBodyTooLarge(Exception exception) {
+        return Throwables.getCausalChain(exception)
+                .stream()
+                .anyMatch(throwable -> throwable instanceof RequestBodyTooLargeException);
+    }
+
+    private void reject(HttpServletResponse httpServletResponse, long maxBytes) throws IOException {
+        String error = objectMapper.writeValueAsString(ApiResponse.Error.builder()
+                .type(EXCEPTION_TYPE)
+                .message(String.format("Request bodies can't be larger than %d bytes.", maxBytes))
+                .build());
+        byte[] body = (ApiResponse.ERROR_PREFIX + error + ApiResponse.SUFFIX).getBytes(StandardCharsets.UTF_8);
+        httpServletResponse.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        httpServletResponse.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        httpServletResponse.setContentLength(body.length);
+        // the body is never read, so the connection can't be reused for another request
+        httpServletResponse.setHeader("Connection", "close");
+        httpServletResponse.getOutputStream()
+                .write(body);
+    }
+}
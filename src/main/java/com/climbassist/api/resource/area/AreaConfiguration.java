@@ -7,6 +7,8 @@ import com.climbassist.api.resource.common.ResourceNotFoundExceptionFactoryConfi
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.region.Region;
 import com.climbassist.api.resource.region.RegionNotFoundExceptionFactory;
 import com.climbassist.api.resource.region.RegionsDao;
@@ -29,7 +31,9 @@ public class AreaConfiguration {
                                          @NonNull ResourceIdGenerator resourceIdGenerator,
                                          @NonNull AreaNotFoundExceptionFactory areaNotFoundExceptionFactory,
                                          @NonNull RegionNotFoundExceptionFactory regionNotFoundExceptionFactory,
-                                         @NonNull RecursiveResourceRetriever<SubArea, Area> recursiveResourceRetriever) {
+                                         @NonNull RecursiveResourceRetriever<SubArea, Area> recursiveResourceRetriever,
+                                         @NonNull ResourceTreeLoader resourceTreeLoader,
+                                         @NonNull SubtreeSnapshotCache subtreeSnapshotCache) {
         ResourceControllerDelegate<Area, NewArea> resourceControllerDelegate =
                 ResourceControllerDelegate.<Area, NewArea>builder().resourceDao(areasDao)
                         .resourceFactory(AreaFactory.builder()
@@ -51,6 +55,8 @@ public class AreaConfiguration {
                                 .resourceNotEmptyExceptionFactory(new AreaNotEmptyExceptionFactory())
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .build())
                 .build();
     }
@@ -8,6 +8,7 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.region.Region;
 import com.climbassist.api.resource.region.ValidRegionId;
 import com.climbassist.api.user.SessionUtils;
@@ -42,12 +43,12 @@ public class AreaController {
 
     @Metrics(api = "GetArea")
     @RequestMapping(path = "/v1/areas/{areaId}", method = RequestMethod.GET)
-    public Area getResource(@ValidAreaId @NonNull @PathVariable String areaId,
-                            @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                            @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(areaId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidAreaId @NonNull @PathVariable String areaId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                       @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                       @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(areaId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListAreas")
@@ -1,17 +1,29 @@
 package com.climbassist.api.resource.common;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
 import com.climbassist.api.resource.area.AreasDao;
+import com.climbassist.api.resource.common.cache.ResourceCacheConfiguration;
+import com.climbassist.api.resource.common.cache.ResourceCacheFactory;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotConfiguration;
 import com.climbassist.api.resource.country.CountriesDao;
 import com.climbassist.api.resource.crag.CragsDao;
+import com.climbassist.api.resource.crag.map.MapIndex;
+import com.climbassist.api.resource.crag.map.MapIndexConfiguration;
+import com.climbassist.api.resource.crag.nearby.CragLocationIndex;
+import com.climbassist.api.resource.crag.nearby.CragLocationIndexConfiguration;
 import com.climbassist.api.resource.path.PathsDao;
 import com.climbassist.api.resource.pathpoint.PathPointsDao;
+import com.climbassist.api.resource.pathpoint.PathPolylineCache;
+import com.climbassist.api.resource.pathpoint.PathPolylineCacheConfiguration;
 import com.climbassist.api.resource.pitch.PitchesDao;
 import com.climbassist.api.resource.point.PointsDao;
 import com.climbassist.api.resource.region.RegionsDao;
 import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.resource.route.search.RouteSearchIndex;
+import com.climbassist.api.resource.route.search.RouteSearchIndexConfiguration;
 import com.climbassist.api.resource.subarea.SubAreasDao;
 import com.climbassist.api.resource.wall.WallsDao;
 import com.climbassist.api.user.UserConfiguration;
@@ -20,6 +32,10 @@ import com.climbassist.api.user.authentication.DeletedUsersDao;
 import com.climbassist.api.v2.ResourceFactory;
 import com.climbassist.api.v2.ResourcesDao;
 import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.dynamodb.BatchWriter;
+import com.climbassist.common.dynamodb.DynamoDbConfiguration;
+import com.google.common.collect.ImmutableList;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -27,7 +43,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({CommonConfiguration.class, UserConfiguration.class})
+@Import({CommonConfiguration.class, CragLocationIndexConfiguration.class, DynamoDbConfiguration.class,
+        MapIndexConfiguration.class, PathPolylineCacheConfiguration.class, ResourceCacheConfiguration.class,
+        RouteSearchIndexConfiguration.class, SubtreeSnapshotConfiguration.class, UserConfiguration.class})
 public class CommonDaoConfiguration {
 
     @Bean
@@ -36,161 +54,243 @@ public class CommonDaoConfiguration {
                 .withSaveBehavior(DynamoDBMapperConfig.SaveBehavior.CLOBBER);
     }
 
+    // routes and their ancestors, apart from countries which can't move, are also indexed for searching
     @Bean
-    public CountriesDao countriesDao(@NonNull String region,
+    public CompositeResourceChangeListener routeSearchResourceChangeListener(
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull RouteSearchIndex routeSearchIndex) {
+        return CompositeResourceChangeListener.builder()
+                .resourceChangeListeners(ImmutableList.of(subtreeSnapshotCache, routeSearchIndex))
+                .build();
+    }
+
+    // crags are also indexed by location and kept in memory for the map
+    @Bean
+    public CompositeResourceChangeListener cragResourceChangeListener(
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull RouteSearchIndex routeSearchIndex,
+            @NonNull CragLocationIndex cragLocationIndex, @NonNull MapIndex mapIndex) {
+        return CompositeResourceChangeListener.builder()
+                .resourceChangeListeners(
+                        ImmutableList.of(subtreeSnapshotCache, routeSearchIndex, cragLocationIndex, mapIndex))
+                .build();
+    }
+
+    // path points also drop the cached polylines of their paths
+    @Bean
+    public CompositeResourceChangeListener pathPointResourceChangeListener(
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull PathPolylineCache pathPolylineCache) {
+        return CompositeResourceChangeListener.builder()
+                .resourceChangeListeners(ImmutableList.of(subtreeSnapshotCache, pathPolylineCache))
+                .build();
+    }
+
+    @Bean
+    public CountriesDao countriesDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
             @Value("${countriesTableName}") @NonNull String countriesTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull ResourceCacheFactory resourceCacheFactory) {
         return CountriesDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(countriesTableName))
                         .build())
+                .resourceChangeListener(subtreeSnapshotCache)
+                .resourceCache(resourceCacheFactory.create("CountriesDaoCache"))
                 .build();
     }
 
     @Bean
-    public RegionsDao regionsDao(@NonNull String region, @Value("${regionsTableName}") @NonNull String regionsTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public RegionsDao regionsDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${regionsTableName}") @NonNull String regionsTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull CompositeResourceChangeListener routeSearchResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory) {
         return RegionsDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(regionsTableName))
                         .build())
+                .resourceChangeListener(routeSearchResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("RegionsDaoCache"))
                 .build();
     }
 
     @Bean
-    public AreasDao areasDao(@NonNull String region, @Value("${areasTableName}") @NonNull String areasTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public AreasDao areasDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${areasTableName}") @NonNull String areasTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull CompositeResourceChangeListener routeSearchResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory) {
         return AreasDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(areasTableName))
                         .build())
+                .resourceChangeListener(routeSearchResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("AreasDaoCache"))
                 .build();
     }
 
     @Bean
-    public SubAreasDao subAreasDao(@NonNull String region,
+    public SubAreasDao subAreasDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
             @Value("${subAreasTableName}") @NonNull String subAreasTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull CompositeResourceChangeListener routeSearchResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory) {
         return SubAreasDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(subAreasTableName))
                         .build())
+                .resourceChangeListener(routeSearchResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("SubAreasDaoCache"))
                 .build();
     }
 
     @Bean
-    public CragsDao cragsDao(@NonNull String region, @Value("${cragsTableName}") @NonNull String cragsTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder, @NonNull UserManager userManager) {
+    public CragsDao cragsDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${cragsTableName}") @NonNull String cragsTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder, @NonNull UserManager userManager,
+            @NonNull CompositeResourceChangeListener cragResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory) {
         return CragsDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(cragsTableName))
                         .build())
                 .userManager(userManager)
+                .resourceChangeListener(cragResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("CragsDaoCache"))
                 .build();
     }
 
     @Bean
-    public WallsDao wallsDao(@NonNull String region, @Value("${wallsTableName}") @NonNull String wallsTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public WallsDao wallsDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${wallsTableName}") @NonNull String wallsTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull CompositeResourceChangeListener routeSearchResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory,
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled, @NonNull BatchWriter batchWriter) {
         return WallsDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(wallsTableName))
                         .build())
+                .resourceChangeListener(routeSearchResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("WallsDaoCache"))
+                .orderKeysEnabled(orderKeysEnabled)
+                .batchWriter(batchWriter)
                 .build();
     }
 
     @Bean
-    public RoutesDao routesDao(@NonNull String region, @Value("${routesTableName}") @NonNull String routesTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public RoutesDao routesDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${routesTableName}") @NonNull String routesTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull CompositeResourceChangeListener routeSearchResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory,
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled, @NonNull BatchWriter batchWriter) {
         return RoutesDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(routesTableName))
                         .build())
+                .resourceChangeListener(routeSearchResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("RoutesDaoCache"))
+                .orderKeysEnabled(orderKeysEnabled)
+                .batchWriter(batchWriter)
                 .build();
     }
 
     @Bean
-    public PitchesDao pitchesDao(@NonNull String region, @Value("${pitchesTableName}") @NonNull String pitchesTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public PitchesDao pitchesDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${pitchesTableName}") @NonNull String pitchesTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull ResourceCacheFactory resourceCacheFactory,
+            @NonNull AmazonDynamoDB amazonDynamoDB,
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled, @NonNull BatchWriter batchWriter) {
         return PitchesDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .amazonDynamoDB(amazonDynamoDB)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(pitchesTableName))
                         .build())
+                .resourceChangeListener(subtreeSnapshotCache)
+                .resourceCache(resourceCacheFactory.create("PitchesDaoCache"))
+                .orderKeysEnabled(orderKeysEnabled)
+                .batchWriter(batchWriter)
                 .build();
     }
 
     @Bean
-    public PointsDao pointsDao(@NonNull String region, @Value("${pointsTableName}") @NonNull String pointsTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public PointsDao pointsDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${pointsTableName}") @NonNull String pointsTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull ResourceCacheFactory resourceCacheFactory,
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled, @NonNull BatchWriter batchWriter) {
         return PointsDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(pointsTableName))
                         .build())
+                .resourceChangeListener(subtreeSnapshotCache)
+                .resourceCache(resourceCacheFactory.create("PointsDaoCache"))
+                .orderKeysEnabled(orderKeysEnabled)
+                .batchWriter(batchWriter)
                 .build();
     }
 
     @Bean
-    public PathsDao pathsDao(@NonNull String region, @Value("${pathsTableName}") @NonNull String pathsTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+    public PathsDao pathsDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
+            @Value("${pathsTableName}") @NonNull String pathsTableName,
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache, @NonNull ResourceCacheFactory resourceCacheFactory) {
         return PathsDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(pathsTableName))
                         .build())
+                .resourceChangeListener(subtreeSnapshotCache)
+                .resourceCache(resourceCacheFactory.create("PathsDaoCache"))
                 .build();
     }
 
     @Bean
-    public PathPointsDao pathPointsDao(@NonNull String region,
+    public PathPointsDao pathPointsDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
             @Value("${pathPointsTableName}") @NonNull String pathPointsTableName,
-            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
+            @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder,
+            @NonNull CompositeResourceChangeListener pathPointResourceChangeListener,
+            @NonNull ResourceCacheFactory resourceCacheFactory,
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled, @NonNull BatchWriter batchWriter) {
         return PathPointsDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(pathPointsTableName))
                         .build())
+                .resourceChangeListener(pathPointResourceChangeListener)
+                .resourceCache(resourceCacheFactory.create("PathPointsDaoCache"))
+                .orderKeysEnabled(orderKeysEnabled)
+                .batchWriter(batchWriter)
                 .build();
     }
 
     @Bean
-    public DeletedUsersDao deletedUsersDao(@NonNull String region,
+    public DeletedUsersDao deletedUsersDao(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull BoundedExecutor daoExecutor,
             @Value("${deletedUsersTableName}") @NonNull String deletedUsersTableName,
             @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
         return DeletedUsersDao.builder()
-                .dynamoDBMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDBMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDBMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(deletedUsersTableName))
                         .build())
@@ -198,13 +298,13 @@ public class CommonDaoConfiguration {
     }
 
     @Bean
-    public ResourcesDao resourcesDao(@NonNull final String region,
+    public ResourcesDao resourcesDao(@NonNull final DynamoDBMapper dynamoDBMapper,
+            @NonNull final BoundedExecutor daoExecutor,
             @Value("${resourcesTableName}") @NonNull final String resourcesTableName,
             @NonNull DynamoDBMapperConfig.Builder dynamoDbMapperConfigBuilder) {
         return ResourcesDao.builder()
-                .dynamoDbMapper(new DynamoDBMapper(AmazonDynamoDBClientBuilder.standard()
-                        .withRegion(region)
-                        .build()))
+                .dynamoDbMapper(dynamoDBMapper)
+                .executor(daoExecutor)
                 .dynamoDbMapperConfig(dynamoDbMapperConfigBuilder.withTableNameOverride(
                         new DynamoDBMapperConfig.TableNameOverride(resourcesTableName))
                         .build())
@@ -0,0 +1,37 @@
+package com.climbassist.api.resource.common;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Notifies several listeners of the writes to one DAO, in order.
+ */
+@Builder
+public class CompositeResourceChangeListener implements ResourceChangeListener {
+
+    @NonNull
+    private final List<ResourceChangeListener> resourceChangeListeners;
+
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+        resourceChangeListeners.forEach(resourceChangeListener -> resourceChangeListener.onResourceSaved(resource));
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+        resourceChangeListeners.forEach(resourceChangeListener -> resourceChangeListener.onResourceDeleted(resourceId));
+    }
+
+    @Override
+    public void onResourcesSaved(@NonNull List<? extends Resource> resources) {
+        resourceChangeListeners.forEach(resourceChangeListener -> resourceChangeListener.onResourcesSaved(resources));
+    }
+
+    @Override
+    public void onResourcesDeleted(@NonNull List<String> resourceIds) {
+        resourceChangeListeners.forEach(
+                resourceChangeListener -> resourceChangeListener.onResourcesDeleted(resourceIds));
+    }
+}
@@ -0,0 +1,14 @@
+package com.climbassist.api.resource.common;
+
+import lombok.NonNull;
+
+public class NullResourceChangeListener implements ResourceChangeListener {
+
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+    }
+}
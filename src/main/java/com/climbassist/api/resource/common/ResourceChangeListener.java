@@ -0,0 +1,32 @@
+package com.climbassist.api.resource.common;
+
+import java.util.List;
+
+/**
+ * This interface is notified whenever a resource is written through a {@link ResourceDao}, so that anything derived
+ * from stored resources can be thrown away when they change.
+ */
+public interface ResourceChangeListener {
+
+    void onResourceSaved(Resource resource);
+
+    void onResourceDeleted(String resourceId);
+
+    /**
+     * Notified once for resources that were saved together, as by
+     * {@link com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao#saveResources}. Listeners
+     * that can handle a whole batch at once should override this, instead of being notified of each resource.
+     */
+    default void onResourcesSaved(List<? extends Resource> resources) {
+        resources.forEach(this::onResourceSaved);
+    }
+
+    /**
+     * Notified once for resources that were deleted together, as by
+     * {@link com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao#deleteResources}. Listeners
+     * that can handle a whole batch at once should override this, instead of being notified of each resource.
+     */
+    default void onResourcesDeleted(List<String> resourceIds) {
+        resourceIds.forEach(this::onResourceDeleted);
+    }
+}
@@ -26,9 +26,16 @@ public class ResourceControllerDelegate<Resource extends com.climbassist.api.res
     }
 
     public CreateResourceResult<Resource> createResource(@NonNull NewResource newResource) {
+        return createResourceResultFactory.create(createAndGetResource(newResource).getId());
+    }
+
+    /**
+     * Creates a resource and returns it as it was saved, including anything the DAO assigned to it, like its order key.
+     */
+    public Resource createAndGetResource(@NonNull NewResource newResource) {
         Resource resource = resourceFactory.create(newResource);
         resourceDao.saveResource(resource);
-        return createResourceResultFactory.create(resource.getId());
+        return resource;
     }
 
     public UpdateResourceResult updateResource(@NonNull Resource resource,
@@ -2,13 +2,23 @@ package com.climbassist.api.resource.common;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.climbassist.api.resource.common.cache.NullResourceCache;
+import com.climbassist.api.resource.common.cache.ResourceCache;
 import com.climbassist.api.user.UserData;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @SuperBuilder
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
@@ -18,19 +28,98 @@ public abstract class ResourceDao<Resource extends com.climbassist.api.resource.
     protected final DynamoDBMapperConfig dynamoDBMapperConfig;
     @NonNull
     protected final DynamoDBMapper dynamoDBMapper;
+    @NonNull
+    @Builder.Default
+    protected final ResourceChangeListener resourceChangeListener = new NullResourceChangeListener();
+    @NonNull
+    @Builder.Default
+    protected final ResourceCache resourceCache = new NullResourceCache();
+    // runs the asynchronous variants of the DAO methods; callers that don't set one get them run on the calling thread
+    @NonNull
+    @Builder.Default
+    protected final Executor executor = MoreExecutors.directExecutor();
 
     public Optional<Resource> getResource(@NonNull String resourceId,
                                           @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                           @NonNull Optional<UserData> maybeUserData) {
-        return Optional.ofNullable(dynamoDBMapper.load(getResourceTypeClass(), resourceId, dynamoDBMapperConfig));
+        return loadResource(resourceId);
     }
 
     public void saveResource(@NonNull Resource resource) {
         dynamoDBMapper.save(resource, dynamoDBMapperConfig);
+        resourceSaved(resource);
     }
 
     public void deleteResource(@NonNull String resourceId) {
         dynamoDBMapper.delete(buildResourceForDeletion(resourceId), dynamoDBMapperConfig);
+        resourceDeleted(resourceId);
+    }
+
+    /**
+     * Builds the write of {@link #saveResource} as an item of a transaction, for resources that have to be written
+     * together with other items. {@link #resourceSaved} has to be called once the transaction succeeds.
+     */
+    public TransactWriteItem buildSaveTransactWriteItem(@NonNull Resource resource) {
+        return new TransactWriteItem().withPut(new Put().withTableName(dynamoDBMapperConfig.getTableNameOverride()
+                .getTableName())
+                .withItem(dynamoDBMapper.getTableModel(getResourceTypeClass())
+                        .convert(resource)));
+    }
+
+    /**
+     * Builds the write of {@link #deleteResource} as an item of a transaction, for resources that have to be written
+     * together with other items. {@link #resourceDeleted} has to be called once the transaction succeeds.
+     */
+    public TransactWriteItem buildDeleteTransactWriteItem(@NonNull String resourceId) {
+        return new TransactWriteItem().withDelete(new Delete().withTableName(dynamoDBMapperConfig.getTableNameOverride()
+                .getTableName())
+                .withKey(dynamoDBMapper.getTableModel(getResourceTypeClass())
+                        .convertKey(buildResourceForDeletion(resourceId))));
+    }
+
+    /**
+     * Invalidates the cached copy of a resource and notifies the listener that it was saved, for resources written by a
+     * transaction.
+     */
+    public void resourceSaved(@NonNull Resource resource) {
+        resourceCache.invalidate(resource.getId());
+        resourceChangeListener.onResourceSaved(resource);
+    }
+
+    /**
+     * Invalidates the cached copy of a resource and notifies the listener that it was deleted, for resources deleted by
+     * a transaction.
+     */
+    public void resourceDeleted(@NonNull String resourceId) {
+        resourceCache.invalidate(resourceId);
+        resourceChangeListener.onResourceDeleted(resourceId);
+    }
+
+    public CompletableFuture<Optional<Resource>> getResourceAsync(@NonNull String resourceId,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData) {
+        return CompletableFuture.supplyAsync(() -> getResource(resourceId, maybeUserData), executor);
+    }
+
+    public CompletableFuture<Void> saveResourceAsync(@NonNull Resource resource) {
+        return CompletableFuture.runAsync(() -> saveResource(resource), executor);
+    }
+
+    public CompletableFuture<Void> deleteResourceAsync(@NonNull String resourceId) {
+        return CompletableFuture.runAsync(() -> deleteResource(resourceId), executor);
+    }
+
+    /**
+     * Loads a resource through the resource cache. Every call returns a new copy, so callers are free to modify it.
+     */
+    protected Optional<Resource> loadResource(String resourceId) {
+        return resourceCache.get(resourceId, () -> Optional.ofNullable(
+                dynamoDBMapper.load(getResourceTypeClass(), resourceId, dynamoDBMapperConfig)), this::copyResource);
+    }
+
+    private Resource copyResource(Resource resource) {
+        // round-tripping through the item is the only copy that every resource type supports
+        DynamoDBMapperTableModel<Resource> tableModel = dynamoDBMapper.getTableModel(getResourceTypeClass());
+        return tableModel.unconvert(tableModel.convert(resource));
     }
 
     protected abstract Resource buildResourceForDeletion(String resourceId);
@@ -1,11 +1,14 @@
 package com.climbassist.api.resource.common;
 
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.user.UserData;
 import lombok.Builder;
 import lombok.NonNull;
 
-import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -25,24 +28,55 @@ public class ResourceWithChildrenControllerDelegate<
             recursiveResourceRetrievers;
     @NonNull
     private final ResourceControllerDelegate<Resource, NewResource> resourceControllerDelegate;
+    @NonNull
+    private final ResourceTreeLoader resourceTreeLoader;
+    @NonNull
+    private final SubtreeSnapshotCache subtreeSnapshotCache;
 
     public Resource getResource(@NonNull String resourceId, int depth,
                                 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                 @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return getResource(resourceId, depth, maybeUserData, new HashSet<>());
+    }
+
+    /**
+     * Same as {@link #getResource(String, int, Optional)}, except that the resource is returned already serialized and
+     * is served from the {@link SubtreeSnapshotCache} when possible.
+     */
+    public SubtreeSnapshot getResourceSnapshot(@NonNull String resourceId, int depth,
+                                               @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                               @NonNull Optional<UserData> maybeUserData)
+            throws ResourceNotFoundException {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must be greater than or equal to 0.");
+        }
+        SubtreeSnapshotCache.Key key = new SubtreeSnapshotCache.Key(resourceId, depth,
+                maybeUserData.map(UserData::isAdministrator)
+                        .orElse(false));
+        Optional<SubtreeSnapshot> maybeSubtreeSnapshot = subtreeSnapshotCache.get(key);
+        if (maybeSubtreeSnapshot.isPresent()) {
+            return maybeSubtreeSnapshot.get();
+        }
+        long generation = subtreeSnapshotCache.getGeneration();
+        Set<String> resourceIds = new HashSet<>();
+        Resource resource = getResource(resourceId, depth, maybeUserData, resourceIds);
+        return subtreeSnapshotCache.put(key, resource, resourceIds, generation);
+    }
+
+    private Resource getResource(String resourceId, int depth,
+                                 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                         Optional<UserData> maybeUserData, Set<String> resourceIds)
+            throws ResourceNotFoundException {
         if (depth < 0) {
             throw new IllegalArgumentException("Depth must be greater than or equal to 0.");
         }
         Resource resource = resourceControllerDelegate.getResource(resourceId, maybeUserData);
+        resourceIds.add(resource.getId());
         if (depth == 0) {
             return resource;
         }
-        recursiveResourceRetrievers.forEach(recursiveResourceRetriever -> {
-            Collection<?> childResources = recursiveResourceRetriever.getChildrenRecursively(resourceId, depth,
-                    maybeUserData);
-            if (!childResources.isEmpty()) {
-                resource.setChildResources(childResources, recursiveResourceRetriever.getChildClass());
-            }
-        });
+        resourceIds.addAll(
+                resourceTreeLoader.loadChildren(resource, recursiveResourceRetrievers, depth, maybeUserData));
         return resource;
     }
 
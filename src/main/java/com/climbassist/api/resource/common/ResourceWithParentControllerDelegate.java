@@ -1,11 +1,13 @@
 package com.climbassist.api.resource.common;
 
 import com.climbassist.api.user.UserData;
+import com.climbassist.common.concurrent.CompletableFutures;
 import lombok.Builder;
 import lombok.NonNull;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Builder
 // @formatter:off
@@ -28,9 +30,11 @@ public class ResourceWithParentControllerDelegate<
                                                @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                                @NonNull Optional<UserData> maybeUserData)
             throws ResourceNotFoundException {
-        parentResourceDao.getResource(parentId, maybeUserData)
+        // the parent check and the child query don't depend on each other, so they're issued at the same time
+        CompletableFuture<Set<Resource>> resourcesFuture = resourceDao.getResourcesAsync(parentId, maybeUserData);
+        CompletableFutures.join(parentResourceDao.getResourceAsync(parentId, maybeUserData))
                 .orElseThrow(() -> parentResourceNotFoundExceptionFactory.create(parentId));
-        return resourceDao.getResources(parentId, maybeUserData);
+        return CompletableFutures.join(resourcesFuture);
     }
 
     public CreateResourceResult<Resource> createResource(@NonNull NewResource newResource,
@@ -42,6 +46,17 @@ public class ResourceWithParentControllerDelegate<
         return resourceControllerDelegate.createResource(newResource);
     }
 
+    /**
+     * Creates a resource and returns it as it was saved, including anything the DAO assigned to it, like its order key.
+     */
+    public Resource createAndGetResource(@NonNull NewResource newResource,
+                                         @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                         @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        parentResourceDao.getResource(newResource.getParentId(), maybeUserData)
+                .orElseThrow(() -> parentResourceNotFoundExceptionFactory.create(newResource.getParentId()));
+        return resourceControllerDelegate.createAndGetResource(newResource);
+    }
+
     public UpdateResourceResult updateResource(@NonNull Resource resource,
                                                @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                                @NonNull Optional<UserData> maybeUserData)
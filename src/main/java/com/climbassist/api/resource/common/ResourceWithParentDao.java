@@ -8,6 +8,7 @@ import lombok.experimental.SuperBuilder;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @SuperBuilder
 public abstract class ResourceWithParentDao<Resource extends ResourceWithParent<ParentResource>,
@@ -25,6 +26,11 @@ public abstract class ResourceWithParentDao<Resource extends ResourceWithParent<
                 dynamoDBMapper.query(getResourceTypeClass(), dynamoDBQueryExpression, dynamoDBMapperConfig));
     }
 
+    public CompletableFuture<Set<Resource>> getResourcesAsync(@NonNull String parentId,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData) {
+        return CompletableFuture.supplyAsync(() -> getResources(parentId, maybeUserData), executor);
+    }
+
     protected abstract Resource buildIndexHashKey(String parentId);
 
     protected abstract String getIndexName();
@@ -0,0 +1,27 @@
+package com.climbassist.api.resource.common;
+
+import org.hibernate.validator.constraints.ConstraintComposition;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@ConstraintComposition
+@Constraint(validatedBy = {})
+@Min(value = 1, message = "Limit must be between 1 and 100.")
+@Max(value = 100, message = "Limit must be between 1 and 100.")
+public @interface ValidLimit {
+
+    String message() default "";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,27 @@
+package com.climbassist.api.resource.common;
+
+import org.hibernate.validator.constraints.ConstraintComposition;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@ConstraintComposition
+@Constraint(validatedBy = {})
+@Min(value = 0, message = "Zoom must be between 0 and 25.")
+@Max(value = 25, message = "Zoom must be between 0 and 25.")
+public @interface ValidZoom {
+
+    String message() default "";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,17 @@
+package com.climbassist.api.resource.common.batch;
+
+import java.util.List;
+
+/**
+ * This interface is notified once a whole batch of resources has been created through a
+ * {@link BatchResourceWithParentControllerDelegate}, so that anything derived from the batch can be built from it
+ * directly instead of being read back from the table.
+ */
+public interface BatchCreateListener<Resource> {
+
+    /**
+     * @param resources the created resources, in order and as they were saved, including anything the DAO assigned
+     *                  to them like their order keys
+     */
+    void onResourcesCreated(String parentResourceId, List<Resource> resources);
+}
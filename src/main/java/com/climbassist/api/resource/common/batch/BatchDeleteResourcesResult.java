@@ -0,0 +1,20 @@
+package com.climbassist.api.resource.common.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class BatchDeleteResourcesResult {
+
+    private boolean successful;
+    private int deletedResourceCount;
+    // how long it took to delete the resources, not including looking up the parent
+    private long durationMillis;
+}
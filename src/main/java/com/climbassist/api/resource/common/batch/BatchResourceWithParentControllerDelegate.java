@@ -1,13 +1,12 @@
 package com.climbassist.api.resource.common.batch;
 
-import com.climbassist.api.resource.common.DeleteResourceResult;
-import com.climbassist.api.resource.common.ResourceControllerDelegate;
 import com.climbassist.api.resource.common.ResourceDao;
+import com.climbassist.api.resource.common.ResourceFactory;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceNotFoundExceptionFactory;
 import com.climbassist.api.resource.common.ResourceWithChildren;
-import com.climbassist.api.resource.common.ResourceWithParentDao;
 import com.climbassist.api.resource.common.ordering.OrderableResourceWithParent;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
 import com.climbassist.api.user.UserData;
 import lombok.Builder;
 import lombok.NonNull;
@@ -15,6 +14,7 @@ import lombok.NonNull;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Builder
 public class BatchResourceWithParentControllerDelegate<Resource extends OrderableResourceWithParent<Resource,
@@ -23,9 +23,9 @@ public class BatchResourceWithParentControllerDelegate<Resource extends Orderabl
         BatchNewResource extends com.climbassist.api.resource.common.batch.BatchNewResource<Resource, ParentResource>> {
 
     @NonNull
-    private final ResourceControllerDelegate<Resource, NewResource> resourceControllerDelegate;
+    private final ResourceFactory<Resource, NewResource> resourceFactory;
     @NonNull
-    private final ResourceWithParentDao<Resource, ParentResource> resourceDao;
+    private final OrderableResourceWithParentDao<Resource, ParentResource> resourceDao;
     @NonNull
     private final ResourceDao<ParentResource> parentResourceDao;
     @NonNull
@@ -36,7 +36,14 @@ public class BatchResourceWithParentControllerDelegate<Resource extends Orderabl
     private final BatchResourceFactory<Resource, NewResource, ParentResource, BatchNewResource> batchResourceFactory;
     @NonNull
     private final BatchCreateResourceResultFactory<Resource, ParentResource> batchCreateResourceResultFactory;
+    @NonNull
+    @Builder.Default
+    private final BatchCreateListener<Resource> batchCreateListener = new NullBatchCreateListener<>();
 
+    /**
+     * Creates a list of resources under a parent. The whole list is built before anything is written, so that it can
+     * be saved with batched writes.
+     */
     public BatchCreateResourcesResult<Resource, ParentResource> batchCreateResources(@NonNull String parentResourceId,
                                                                                      @NonNull BatchNewResources<Resource, ParentResource, BatchNewResource> batchNewResources,
                                                                                      @SuppressWarnings(
@@ -46,38 +53,48 @@ public class BatchResourceWithParentControllerDelegate<Resource extends Orderabl
         parentResourceDao.getResource(parentResourceId, maybeUserData)
                 .orElseThrow(() -> parentResourceNotFoundExceptionFactory.create(parentResourceId));
 
-        List<String> resourceIds = new LinkedList<>();
+        // built backwards, because each resource needs the ID of the one after it
+        LinkedList<Resource> resources = new LinkedList<>();
         for (int i = batchNewResources.getBatchNewResources()
                 .size() - 1; i >= 0; --i) {
             BatchNewResource batchNewResource = batchNewResources.getBatchNewResources()
                     .get(i);
             boolean first = i == 0;
             NewResource newResource;
-            if (resourceIds.size() > 0) {
+            if (resources.size() > 0) {
                 newResource = batchResourceFactory.create(parentResourceId, batchNewResource, first,
-                        resourceIds.get(0));
+                        resources.getFirst()
+                                .getId());
             }
             else {
                 newResource = batchResourceFactory.create(parentResourceId, batchNewResource, first);
             }
-
-            resourceIds.add(0, resourceControllerDelegate.createResource(newResource)
-                    .getResourceId());
+            resources.addFirst(resourceFactory.create(newResource));
         }
+        resourceDao.saveResources(resources);
 
+        List<String> resourceIds = resources.stream()
+                .map(Resource::getId)
+                .collect(Collectors.toList());
+        batchCreateListener.onResourcesCreated(parentResourceId, resources);
         return batchCreateResourceResultFactory.create(resourceIds);
     }
 
-    public DeleteResourceResult batchDeleteResources(@NonNull String parentId,
-                                                     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                                             Optional<UserData> maybeUserData)
+    /**
+     * Deletes every resource under a parent, reporting how many were deleted and how long it took.
+     */
+    public BatchDeleteResourcesResult batchDeleteResources(@NonNull String parentId,
+                                                           @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                                                   Optional<UserData> maybeUserData)
             throws ResourceNotFoundException {
         parentResourceDao.getResource(parentId, maybeUserData)
                 .orElseThrow(() -> parentResourceNotFoundExceptionFactory.create(parentId));
-        resourceDao.getResources(parentId, maybeUserData)
-                .forEach(resource -> resourceDao.deleteResource(resource.getId()));
-        return DeleteResourceResult.builder()
+        long startTime = System.currentTimeMillis();
+        int deletedResourceCount = resourceDao.deleteResources(parentId);
+        return BatchDeleteResourcesResult.builder()
                 .successful(true)
+                .deletedResourceCount(deletedResourceCount)
+                .durationMillis(System.currentTimeMillis() - startTime)
                 .build();
     }
 }
@@ -0,0 +1,12 @@
+package com.climbassist.api.resource.common.batch;
+
+import lombok.NonNull;
+
+import java.util.List;
+
+public class NullBatchCreateListener<Resource> implements BatchCreateListener<Resource> {
+
+    @Override
+    public void onResourcesCreated(@NonNull String parentResourceId, @NonNull List<Resource> resources) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.climbassist.api.resource.common.cache;
+
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class caches the resources of a single type in memory, bounded by a maximum number of resources. Loads are
+ * remembered in the {@link RequestMemo} first and the shared cache second, so a request that loads the same resource
+ * several times only reads it from the table once. Other instances of the service don't share this cache and don't
+ * invalidate it when they write, so resources also expire after a fixed amount of time. Resources that don't exist are
+ * never cached, because another instance may create them at any time.
+ * <p>
+ * The cache holds on to resources exactly as they are stored in the table. Anything that depends on who is asking, like
+ * hiding resources that aren't public, has to be applied to the copy that is handed out.
+ */
+public class BoundedResourceCache implements ResourceCache {
+
+    @Value
+    private static class MemoKey {
+
+        String name;
+        String resourceId;
+    }
+
+    private final String name;
+    private final MetricsEmitter metricsEmitter;
+    private final RequestMemo requestMemo;
+    private final Cache<String, Object> cache;
+    private final Object writeLock = new Object();
+    // incremented on every invalidation, so that resources loaded before a write are never cached after it
+    private long generation;
+
+    @Builder
+    private BoundedResourceCache(@NonNull String name, @NonNull MetricsEmitter metricsEmitter,
+                                 @NonNull RequestMemo requestMemo, long maximumSize, long expireAfterWriteSeconds) {
+        this.name = name;
+        this.metricsEmitter = metricsEmitter;
+        this.requestMemo = requestMemo;
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    @Override
+    public <Resource> Optional<Resource> get(@NonNull String resourceId, @NonNull Supplier<Optional<Resource>> loader,
+                                             @NonNull UnaryOperator<Resource> copier) {
+        Optional<Resource> maybeResource =
+                requestMemo.computeIfAbsent(new MemoKey(name, resourceId), () -> getShared(resourceId, loader));
+        return maybeResource.map(copier);
+    }
+
+    @Override
+    public void invalidate(@NonNull String resourceId) {
+        synchronized (writeLock) {
+            generation++;
+            cache.invalidate(resourceId);
+        }
+        requestMemo.remove(new MemoKey(name, resourceId));
+    }
+
+    @Override
+    public void invalidateAll(@NonNull Collection<String> resourceIds) {
+        synchronized (writeLock) {
+            generation++;
+            cache.invalidateAll(resourceIds);
+        }
+        resourceIds.forEach(resourceId -> requestMemo.remove(new MemoKey(name, resourceId)));
+    }
+
+    private <Resource> Optional<Resource> getShared(String resourceId, Supplier<Optional<Resource>> loader) {
+        //noinspection unchecked
+        Resource cachedResource = (Resource) cache.getIfPresent(resourceId);
+        boolean hit = cachedResource != null;
+        metricsEmitter.emitCacheLookupMetrics(name, hit);
+        if (hit) {
+            return Optional.of(cachedResource);
+        }
+        long loadGeneration;
+        synchronized (writeLock) {
+            loadGeneration = generation;
+        }
+        Optional<Resource> maybeResource = loader.get();
+        maybeResource.ifPresent(resource -> {
+            synchronized (writeLock) {
+                if (generation == loadGeneration) {
+                    cache.put(resourceId, resource);
+                }
+            }
+        });
+        return maybeResource;
+    }
+
+    private void onRemoval(RemovalNotification<String, Object> removalNotification) {
+        if (removalNotification.wasEvicted()) {
+            metricsEmitter.emitComponentCountMetric(name, "evictionCount", 1);
+        }
+        else {
+            metricsEmitter.emitComponentCountMetric(name, "invalidationCount", 1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.climbassist.api.resource.common.cache;
+
+import lombok.NonNull;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+public class NullResourceCache implements ResourceCache {
+
+    @Override
+    public <Resource> Optional<Resource> get(@NonNull String resourceId, @NonNull Supplier<Optional<Resource>> loader,
+                                             @NonNull UnaryOperator<Resource> copier) {
+        return loader.get();
+    }
+
+    @Override
+    public void invalidate(@NonNull String resourceId) {
+    }
+}
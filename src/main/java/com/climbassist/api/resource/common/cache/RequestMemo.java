@@ -0,0 +1,100 @@
+package com.climbassist.api.resource.common.cache;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * This class remembers values for the duration of a single request, so that loading the same thing several times while
+ * handling a request only does the work once. Values are remembered on the thread that opened the memo until it is
+ * closed, and on any thread running a task wrapped with {@link #propagate(Runnable)} by that thread, so that work handed
+ * to an executor shares the memo of the request it belongs to. Outside of a request everything passes straight through
+ * to the supplier.
+ * <p>
+ * Missing values, null or {@link Optional#empty()}, are never remembered, because the request may create them later.
+ */
+public class RequestMemo {
+
+    private static class Values {
+
+        private final Map<Object, Object> values = new ConcurrentHashMap<>();
+        // incremented on every removal, so that values loaded before a write are never remembered after it
+        private long generation;
+    }
+
+    private final ThreadLocal<Values> memo = new ThreadLocal<>();
+
+    public void open() {
+        memo.set(new Values());
+    }
+
+    public void close() {
+        memo.remove();
+    }
+
+    public <T> T computeIfAbsent(@NonNull Object key, @NonNull Supplier<T> supplier) {
+        Values values = memo.get();
+        if (values == null) {
+            return supplier.get();
+        }
+        //noinspection unchecked
+        T memoizedValue = (T) values.values.get(key);
+        if (memoizedValue != null) {
+            return memoizedValue;
+        }
+        long loadGeneration;
+        synchronized (values) {
+            loadGeneration = values.generation;
+        }
+        T value = supplier.get();
+        if (value != null && !Optional.empty()
+                .equals(value)) {
+            synchronized (values) {
+                if (values.generation == loadGeneration) {
+                    values.values.putIfAbsent(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public void remove(@NonNull Object key) {
+        Values values = memo.get();
+        if (values != null) {
+            synchronized (values) {
+                values.generation++;
+                values.values.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Wraps a task so that it runs with the memo of the current thread, whichever thread it ends up running on. This is
+     * meant to be used as the task decorator of the executors which do work on behalf of a request.
+     */
+    public Runnable propagate(@NonNull Runnable runnable) {
+        Values submitterValues = memo.get();
+        return () -> {
+            // the task may run on the submitting thread, so whatever was there before has to be put back after
+            Values workerValues = memo.get();
+            setValues(submitterValues);
+            try {
+                runnable.run();
+            } finally {
+                setValues(workerValues);
+            }
+        };
+    }
+
+    private void setValues(Values values) {
+        if (values == null) {
+            memo.remove();
+        }
+        else {
+            memo.set(values);
+        }
+    }
+}
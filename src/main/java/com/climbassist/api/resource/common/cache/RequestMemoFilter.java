@@ -0,0 +1,32 @@
+package com.climbassist.api.resource.common.cache;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+/**
+ * This class opens a {@link RequestMemo} for every request and closes it once the request has been handled.
+ */
+@Builder
+public class RequestMemoFilter implements Filter {
+
+    @NonNull
+    private final RequestMemo requestMemo;
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+            throws IOException, ServletException {
+        requestMemo.open();
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+        } finally {
+            requestMemo.close();
+        }
+    }
+}
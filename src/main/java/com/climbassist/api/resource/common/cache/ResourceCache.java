@@ -0,0 +1,27 @@
+package com.climbassist.api.resource.common.cache;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * This interface caches resources loaded by a {@link com.climbassist.api.resource.common.ResourceDao}. Resources are
+ * mutable, so implementations must never hand out an instance they hold on to and copy it with the given copier
+ * instead.
+ */
+public interface ResourceCache {
+
+    <Resource> Optional<Resource> get(String resourceId, Supplier<Optional<Resource>> loader,
+                                      UnaryOperator<Resource> copier);
+
+    void invalidate(String resourceId);
+
+    /**
+     * Invalidates resources that were written together. Implementations that can drop them all at once should override
+     * this, instead of invalidating each resource.
+     */
+    default void invalidateAll(Collection<String> resourceIds) {
+        resourceIds.forEach(this::invalidate);
+    }
+}
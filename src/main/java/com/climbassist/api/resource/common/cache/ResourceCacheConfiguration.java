@@ -0,0 +1,40 @@
+package com.climbassist.api.resource.common.cache;
+
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import(MetricsConfiguration.class)
+@PropertySource("classpath:application.properties")
+public class ResourceCacheConfiguration {
+
+    @Bean
+    public RequestMemo requestMemo() {
+        return new RequestMemo();
+    }
+
+    @Bean
+    public RequestMemoFilter requestMemoFilter(@NonNull RequestMemo requestMemo) {
+        return RequestMemoFilter.builder()
+                .requestMemo(requestMemo)
+                .build();
+    }
+
+    @Bean
+    public ResourceCacheFactory resourceCacheFactory(@NonNull MetricsEmitter metricsEmitter,
+            @NonNull RequestMemo requestMemo, @Value("${resourceCacheMaximumSize}") long resourceCacheMaximumSize,
+            @Value("${resourceCacheExpireAfterWriteSeconds}") long resourceCacheExpireAfterWriteSeconds) {
+        return ResourceCacheFactory.builder()
+                .metricsEmitter(metricsEmitter)
+                .requestMemo(requestMemo)
+                .maximumSize(resourceCacheMaximumSize)
+                .expireAfterWriteSeconds(resourceCacheExpireAfterWriteSeconds)
+                .build();
+    }
+}
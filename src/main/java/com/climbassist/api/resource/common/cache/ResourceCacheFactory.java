@@ -0,0 +1,30 @@
+package com.climbassist.api.resource.common.cache;
+
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * This class builds a separate {@link BoundedResourceCache} for every resource type, all sharing the same limits and
+ * {@link RequestMemo}.
+ */
+@Builder
+public class ResourceCacheFactory {
+
+    @NonNull
+    private final MetricsEmitter metricsEmitter;
+    @NonNull
+    private final RequestMemo requestMemo;
+    private final long maximumSize;
+    private final long expireAfterWriteSeconds;
+
+    public ResourceCache create(@NonNull String name) {
+        return BoundedResourceCache.builder()
+                .name(name)
+                .metricsEmitter(metricsEmitter)
+                .requestMemo(requestMemo)
+                .maximumSize(maximumSize)
+                .expireAfterWriteSeconds(expireAfterWriteSeconds)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.climbassist.api.resource.common.export;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.dynamodb.DynamoDbConfiguration;
+import com.climbassist.common.dynamodb.ParallelScanner;
+import com.climbassist.metrics.MetricsEmitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import({CommonConfiguration.class, DynamoDbConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class DataExportConfiguration {
+
+    @Bean
+    public ParallelScanner exportParallelScanner(@NonNull AmazonDynamoDB amazonDynamoDB,
+                                                 @NonNull MetricsEmitter metricsEmitter,
+                                                 @Value("${exportScanSegmentCount}") int exportScanSegmentCount,
+                                                 @Value("${exportScanPageSize}") int exportScanPageSize,
+                                                 @Value("${exportReadCapacityUnitsPerSecond}")
+                                                         double exportReadCapacityUnitsPerSecond) {
+        return ParallelScanner.builder()
+                .amazonDynamoDB(amazonDynamoDB)
+                .metricsEmitter(metricsEmitter)
+                .segmentCount(exportScanSegmentCount)
+                .pageSize(exportScanPageSize)
+                .readCapacityUnitsPerSecond(exportReadCapacityUnitsPerSecond)
+                .build();
+    }
+
+    // parents are exported before their children, so the export can be imported in order
+    @Bean
+    public DataExporter dataExporter(@NonNull ObjectMapper objectMapper,
+                                     @NonNull ParallelScanner exportParallelScanner,
+                                     @Value("${countriesTableName}") @NonNull String countriesTableName,
+                                     @Value("${regionsTableName}") @NonNull String regionsTableName,
+                                     @Value("${areasTableName}") @NonNull String areasTableName,
+                                     @Value("${subAreasTableName}") @NonNull String subAreasTableName,
+                                     @Value("${cragsTableName}") @NonNull String cragsTableName,
+                                     @Value("${wallsTableName}") @NonNull String wallsTableName,
+                                     @Value("${routesTableName}") @NonNull String routesTableName,
+                                     @Value("${pitchesTableName}") @NonNull String pitchesTableName,
+                                     @Value("${pointsTableName}") @NonNull String pointsTableName,
+                                     @Value("${pathsTableName}") @NonNull String pathsTableName,
+                                     @Value("${pathPointsTableName}") @NonNull String pathPointsTableName,
+                                     @Value("${resourcesTableName}") @NonNull String resourcesTableName) {
+        return DataExporter.builder()
+                .objectMapper(objectMapper)
+                .parallelScanner(exportParallelScanner)
+                .tableNames(ImmutableMap.<String, String>builder()
+                        .put("countries", countriesTableName)
+                        .put("regions", regionsTableName)
+                        .put("areas", areasTableName)
+                        .put("subAreas", subAreasTableName)
+                        .put("crags", cragsTableName)
+                        .put("walls", wallsTableName)
+                        .put("routes", routesTableName)
+                        .put("pitches", pitchesTableName)
+                        .put("points", pointsTableName)
+                        .put("paths", pathsTableName)
+                        .put("pathPoints", pathPointsTableName)
+                        .put("resources", resourcesTableName)
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public DataExportController dataExportController(@NonNull DataExporter dataExporter) {
+        return DataExportController.builder()
+                .dataExporter(dataExporter)
+                .build();
+    }
+}
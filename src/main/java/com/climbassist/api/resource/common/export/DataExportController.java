@@ -0,0 +1,35 @@
+package com.climbassist.api.resource.common.export;
+
+import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
+import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.metrics.Metrics;
+import com.climbassist.wrapper.response.ResponseWrapper;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Builder
+@RestController
+public class DataExportController {
+
+    static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    @NonNull
+    private final DataExporter dataExporter;
+
+    // the export is streamed to the client as it's scanned, so it isn't wrapped in an API response
+    @Metrics(api = "ExportData")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/export", method = RequestMethod.GET)
+    public void exportData(@NonNull HttpServletResponse httpServletResponse) throws IOException {
+        ResponseWrapper.startStreaming(httpServletResponse);
+        httpServletResponse.setContentType(NDJSON_CONTENT_TYPE);
+        httpServletResponse.setCharacterEncoding("UTF-8");
+        dataExporter.export(httpServletResponse.getOutputStream());
+    }
+}
@@ -0,0 +1,150 @@
+package com.climbassist.api.resource.common.export;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.climbassist.common.dynamodb.ParallelScanner;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class writes every item in the resource tables as newline-delimited JSON, one item per line:
+ *
+ * <pre>
+ * {"type": "crags", "item": {"cragId": "crag-...", "name": "...", ...}}
+ * </pre>
+ *
+ * Items are written exactly as they're stored rather than as resources, so the export includes attributes that the
+ * APIs don't return. Each table is scanned in parallel, and the items are written as the pages arrive, so the export
+ * never holds more than a few pages in memory.
+ */
+@Builder
+@Slf4j
+public class DataExporter {
+
+    private static final String TYPE_FIELD_NAME = "type";
+    private static final String ITEM_FIELD_NAME = "item";
+
+    @NonNull
+    private final ObjectMapper objectMapper;
+    @NonNull
+    private final ParallelScanner parallelScanner;
+    // resource types, in the order they're exported, and the tables they're stored in
+    @NonNull
+    private final Map<String, String> tableNames;
+
+    /**
+     * Writes every item to the output stream, which is flushed but not closed.
+     *
+     * @return the number of items written of each resource type
+     */
+    public Map<String, Long> export(@NonNull OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Map<String, Long> itemCounts = new LinkedHashMap<>();
+        try (JsonGenerator jsonGenerator = objectMapper.getFactory()
+                .createGenerator(outputStream, JsonEncoding.UTF8)
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)) {
+            // each item is followed by a newline instead of the default space between root values
+            jsonGenerator.setRootValueSeparator(null);
+            for (Map.Entry<String, String> entry : tableNames.entrySet()) {
+                String type = entry.getKey();
+                long itemCount = parallelScanner.scan(entry.getValue(),
+                        items -> writeItems(jsonGenerator, type, items));
+                itemCounts.put(type, itemCount);
+            }
+        }
+        log.info(String.format("Exported %s in %d ms.", itemCounts, System.currentTimeMillis() - startTime));
+        return itemCounts;
+    }
+
+    private static void writeItems(JsonGenerator jsonGenerator, String type, List<Map<String, AttributeValue>> items)
+            throws IOException {
+        for (Map<String, AttributeValue> item : items) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField(TYPE_FIELD_NAME, type);
+            jsonGenerator.writeFieldName(ITEM_FIELD_NAME);
+            writeMap(jsonGenerator, item);
+            jsonGenerator.writeEndObject();
+            jsonGenerator.writeRaw('\n');
+        }
+        // hands each page to the output stream, so the client receives it while the next one is being scanned
+        jsonGenerator.flush();
+    }
+
+    private static void writeMap(JsonGenerator jsonGenerator, Map<String, AttributeValue> map) throws IOException {
+        jsonGenerator.writeStartObject();
+        for (Map.Entry<String, AttributeValue> entry : map.entrySet()) {
+            jsonGenerator.writeFieldName(entry.getKey());
+            writeAttributeValue(jsonGenerator, entry.getValue());
+        }
+        jsonGenerator.writeEndObject();
+    }
+
+    // numbers are written as they're stored instead of being parsed, and binary values are written as base64
+    private static void writeAttributeValue(JsonGenerator jsonGenerator, AttributeValue attributeValue)
+            throws IOException {
+        if (attributeValue.getS() != null) {
+            jsonGenerator.writeString(attributeValue.getS());
+        }
+        else if (attributeValue.getN() != null) {
+            jsonGenerator.writeNumber(attributeValue.getN());
+        }
+        else if (attributeValue.getBOOL() != null) {
+            jsonGenerator.writeBoolean(attributeValue.getBOOL());
+        }
+        else if (attributeValue.getB() != null) {
+            writeBinary(jsonGenerator, attributeValue.getB());
+        }
+        else if (attributeValue.getM() != null) {
+            writeMap(jsonGenerator, attributeValue.getM());
+        }
+        else if (attributeValue.getL() != null) {
+            jsonGenerator.writeStartArray();
+            for (AttributeValue element : attributeValue.getL()) {
+                writeAttributeValue(jsonGenerator, element);
+            }
+            jsonGenerator.writeEndArray();
+        }
+        else if (attributeValue.getSS() != null) {
+            jsonGenerator.writeStartArray();
+            for (String element : attributeValue.getSS()) {
+                jsonGenerator.writeString(element);
+            }
+            jsonGenerator.writeEndArray();
+        }
+        else if (attributeValue.getNS() != null) {
+            jsonGenerator.writeStartArray();
+            for (String element : attributeValue.getNS()) {
+                jsonGenerator.writeNumber(element);
+            }
+            jsonGenerator.writeEndArray();
+        }
+        else if (attributeValue.getBS() != null) {
+            jsonGenerator.writeStartArray();
+            for (ByteBuffer element : attributeValue.getBS()) {
+                writeBinary(jsonGenerator, element);
+            }
+            jsonGenerator.writeEndArray();
+        }
+        else {
+            jsonGenerator.writeNull();
+        }
+    }
+
+    private static void writeBinary(JsonGenerator jsonGenerator, ByteBuffer byteBuffer) throws IOException {
+        // duplicated so that reading it doesn't move the position of the item's buffer
+        ByteBuffer duplicate = byteBuffer.duplicate();
+        byte[] bytes = new byte[duplicate.remaining()];
+        duplicate.get(bytes);
+        jsonGenerator.writeBinary(bytes);
+    }
+}
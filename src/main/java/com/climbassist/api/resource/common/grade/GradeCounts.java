@@ -0,0 +1,91 @@
+package com.climbassist.api.resource.common.grade;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.climbassist.api.resource.common.GenericTypeConverter;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * This class counts how many pitches of a route have each grade, grade modifier and danger, so that the grade of the
+ * route can be kept up to date as pitches change without reloading all of them. Pitches without a grade modifier are
+ * counted under the empty string. Sorted maps are used so that the stored form of equal counts is always the same,
+ * which lets it be used as the condition of an update.
+ */
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+public class GradeCounts {
+
+    public static class TypeConverter implements DynamoDBTypeConverter<String, GradeCounts> {
+
+        @Override
+        public String convert(GradeCounts gradeCounts) {
+            return GenericTypeConverter.convert(gradeCounts);
+        }
+
+        @Override
+        public GradeCounts unconvert(String gradeCounts) {
+            return GenericTypeConverter.unconvert(gradeCounts, new TypeReference<GradeCounts>() {});
+        }
+    }
+
+    @NonNull
+    private SortedMap<Integer, SortedMap<String, Integer>> grades = new TreeMap<>();
+    @NonNull
+    private SortedMap<String, Integer> dangers = new TreeMap<>();
+
+    public static GradeCounts fromPitches(@NonNull Collection<Pitch> pitches) {
+        GradeCounts gradeCounts = new GradeCounts();
+        pitches.forEach(gradeCounts::addPitch);
+        return gradeCounts;
+    }
+
+    public GradeCounts copy() {
+        GradeCounts gradeCounts = new GradeCounts();
+        grades.forEach((grade, modifiers) -> gradeCounts.grades.put(grade, new TreeMap<>(modifiers)));
+        gradeCounts.dangers.putAll(dangers);
+        return gradeCounts;
+    }
+
+    public void addPitch(@NonNull Pitch pitch) {
+        if (pitch.getGrade() != null) {
+            grades.computeIfAbsent(pitch.getGrade(), grade -> new TreeMap<>())
+                    .merge(getModifier(pitch), 1, Integer::sum);
+        }
+        if (pitch.getDanger() != null) {
+            dangers.merge(pitch.getDanger(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Stops counting a pitch. Counts never go below zero, so removing a pitch which was never added has no effect.
+     */
+    public void removePitch(@NonNull Pitch pitch) {
+        if (pitch.getGrade() != null && grades.containsKey(pitch.getGrade())) {
+            SortedMap<String, Integer> modifiers = grades.get(pitch.getGrade());
+            decrement(modifiers, getModifier(pitch));
+            if (modifiers.isEmpty()) {
+                grades.remove(pitch.getGrade());
+            }
+        }
+        if (pitch.getDanger() != null) {
+            decrement(dangers, pitch.getDanger());
+        }
+    }
+
+    private static String getModifier(Pitch pitch) {
+        return pitch.getGradeModifier() == null ? "" : pitch.getGradeModifier();
+    }
+
+    private static void decrement(SortedMap<String, Integer> counts, String key) {
+        counts.computeIfPresent(key, (ignored, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,253 @@
+package com.climbassist.api.resource.common.grade;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class packs the style, grade, grade modifier and danger of a route or pitch into a single int, so that grades
+ * can be compared without looking anything up and stored as a sortable number. From the most significant bits down, a
+ * key holds the style, the grade plus one (zero when there is no grade), the rank of the grade modifier for that style
+ * and the rank of the danger. Keys of the same style therefore sort by grade, then grade modifier, then danger.
+ * <p>
+ * Every field is checked against its width when packing, so a value which doesn't fit never spills into the field above
+ * it. Keys read back from storage are checked the same way, see {@link #isValid(int)}.
+ */
+@UtilityClass
+public class GradeKey {
+
+    private static final int DANGER_BITS = 4;
+    private static final int GRADE_MODIFIER_BITS = 4;
+    private static final int GRADE_BITS = 8;
+    private static final int GRADE_MODIFIER_SHIFT = DANGER_BITS;
+    private static final int GRADE_SHIFT = GRADE_MODIFIER_SHIFT + GRADE_MODIFIER_BITS;
+    private static final int STYLE_SHIFT = GRADE_SHIFT + GRADE_BITS;
+    // the grade is stored plus one, so the highest grade has to leave room for that
+    private static final int MAX_GRADE = mask(GRADE_BITS) - 1;
+
+    // ranks are the index of each value, lowest first
+    private static final List<String> STYLES = ImmutableList.of("", "sport", "trad", "boulder");
+    private static final List<String> ROPED_GRADE_MODIFIERS = ImmutableList.of("", "a", "a/b", "b", "b/c", "c", "c/d",
+            "d");
+    private static final List<String> BOULDER_GRADE_MODIFIERS = ImmutableList.of("-", "", "+");
+    private static final List<String> DANGERS = ImmutableList.of("", "PG13", "R", "X");
+
+    private static final Map<String, Integer> STYLE_RANKS = buildRanks(STYLES);
+    private static final Map<String, Integer> ROPED_GRADE_MODIFIER_RANKS = buildRanks(ROPED_GRADE_MODIFIERS);
+    private static final Map<String, Integer> BOULDER_GRADE_MODIFIER_RANKS = buildRanks(BOULDER_GRADE_MODIFIERS);
+    private static final Map<String, Integer> DANGER_RANKS = buildRanks(DANGERS);
+
+    /**
+     * @throws GradeSortingException if the style is unknown, the grade is out of range, or the grade modifier or danger
+     *                               isn't valid for the style
+     */
+    public static int pack(@NonNull String style, @Nullable Integer grade, @Nullable String gradeModifier,
+                           @Nullable String danger) {
+        int styleRank = getStyleRank(style);
+        if (grade != null) {
+            checkGrade(grade);
+        }
+        return styleRank << STYLE_SHIFT | (grade == null ? 0 : grade + 1) << GRADE_SHIFT |
+                getGradeModifierRank(styleRank, gradeModifier) << GRADE_MODIFIER_SHIFT | getDangerRank(danger);
+    }
+
+    /**
+     * Same as {@link #pack(String, Integer, String, String)}, but returns empty instead of throwing for routes whose
+     * grade can't be sorted.
+     */
+    public static Optional<Integer> packIfValid(@Nullable String style, @Nullable Integer grade,
+                                                @Nullable String gradeModifier, @Nullable String danger) {
+        if (style == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(pack(style, grade, gradeModifier, danger));
+        } catch (GradeSortingException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the lowest key of the style with a grade of at least the given one
+     * @throws GradeSortingException if the style is unknown or the grade is out of range
+     */
+    public static int lowerBound(@NonNull String style, int grade) {
+        return lowerBound(style, grade, null);
+    }
+
+    /**
+     * @return the lowest key of the style with a grade of at least the given one and, if there is a grade modifier, a
+     * grade modifier of at least the given one within that grade
+     * @throws GradeSortingException if the style is unknown, the grade is out of range or the grade modifier isn't
+     *                               valid for the style
+     */
+    public static int lowerBound(@NonNull String style, int grade, @Nullable String gradeModifier) {
+        int styleRank = getStyleRank(style);
+        checkGrade(grade);
+        int gradeLowerBound = styleRank << STYLE_SHIFT | (grade + 1) << GRADE_SHIFT;
+        return gradeModifier == null ? gradeLowerBound :
+                gradeLowerBound | getGradeModifierRank(styleRank, gradeModifier) << GRADE_MODIFIER_SHIFT;
+    }
+
+    /**
+     * @return the highest key of the style with a grade of at most the given one
+     * @throws GradeSortingException if the style is unknown or the grade is out of range
+     */
+    public static int upperBound(@NonNull String style, int grade) {
+        return upperBound(style, grade, null);
+    }
+
+    /**
+     * @return the highest key of the style with a grade of at most the given one and, if there is a grade modifier, a
+     * grade modifier of at most the given one within that grade
+     * @throws GradeSortingException if the style is unknown, the grade is out of range or the grade modifier isn't
+     *                               valid for the style
+     */
+    public static int upperBound(@NonNull String style, int grade, @Nullable String gradeModifier) {
+        int styleRank = getStyleRank(style);
+        checkGrade(grade);
+        if (gradeModifier == null) {
+            // for the highest grade this carries into the style, which is exactly the first key of the next style
+            return (styleRank << STYLE_SHIFT) + ((grade + 2) << GRADE_SHIFT) - 1;
+        }
+        return (styleRank << STYLE_SHIFT | (grade + 1) << GRADE_SHIFT) +
+                ((getGradeModifierRank(styleRank, gradeModifier) + 1) << GRADE_MODIFIER_SHIFT) - 1;
+    }
+
+    /**
+     * @return whether the grade modifier is one of the grade modifiers of the style
+     * @throws GradeSortingException if the style is unknown
+     */
+    public static boolean isValidGradeModifier(@NonNull String style, @NonNull String gradeModifier) {
+        return getGradeModifiers(getStyleRank(style)).contains(gradeModifier);
+    }
+
+    /**
+     * @return whether every field of the key holds a value which {@link #pack(String, Integer, String, String)} could
+     * have written, meaning the key can be unpacked without throwing
+     */
+    public static boolean isValid(int gradeKey) {
+        int styleRank = gradeKey >>> STYLE_SHIFT;
+        return styleRank > 0 && styleRank < STYLES.size() &&
+                (gradeKey >>> GRADE_MODIFIER_SHIFT & mask(GRADE_MODIFIER_BITS)) < getGradeModifiers(styleRank).size() &&
+                (gradeKey & mask(DANGER_BITS)) < DANGERS.size();
+    }
+
+    public static boolean hasStyle(int gradeKey, @NonNull String style) {
+        return gradeKey >>> STYLE_SHIFT == getStyleRank(style);
+    }
+
+    public static Optional<Integer> getGrade(int gradeKey) {
+        int grade = gradeKey >>> GRADE_SHIFT & mask(GRADE_BITS);
+        return grade == 0 ? Optional.empty() : Optional.of(grade - 1);
+    }
+
+    /**
+     * @throws GradeSortingException if the key doesn't hold a valid grade modifier
+     */
+    public static Optional<String> getGradeModifier(int gradeKey) {
+        List<String> gradeModifiers = getGradeModifiers(gradeKey >>> STYLE_SHIFT);
+        int gradeModifierRank = gradeKey >>> GRADE_MODIFIER_SHIFT & mask(GRADE_MODIFIER_BITS);
+        if (gradeModifierRank >= gradeModifiers.size()) {
+            throw new GradeSortingException(
+                    String.format("Grade key %d has grade modifier rank %d, which is not valid.", gradeKey,
+                            gradeModifierRank));
+        }
+        String gradeModifier = gradeModifiers.get(gradeModifierRank);
+        return gradeModifier.isEmpty() ? Optional.empty() : Optional.of(gradeModifier);
+    }
+
+    /**
+     * @throws GradeSortingException if the key doesn't hold a valid danger
+     */
+    public static Optional<String> getDanger(int gradeKey) {
+        return getDangerForRank(gradeKey & mask(DANGER_BITS));
+    }
+
+    /**
+     * Ranks a danger on its own, for comparing dangers separately from grades.
+     *
+     * @throws GradeSortingException if the danger isn't valid
+     */
+    public static int getDangerRank(@Nullable String danger) {
+        if (danger == null) {
+            return 0;
+        }
+        if (!DANGER_RANKS.containsKey(danger)) {
+            throw new GradeSortingException(String.format("Danger %s is not valid.", danger));
+        }
+        return DANGER_RANKS.get(danger);
+    }
+
+    /**
+     * @throws GradeSortingException if the rank isn't the rank of any danger
+     */
+    public static Optional<String> getDangerForRank(int dangerRank) {
+        if (dangerRank < 0 || dangerRank >= DANGERS.size()) {
+            throw new GradeSortingException(String.format("Danger rank %d is not valid.", dangerRank));
+        }
+        String danger = DANGERS.get(dangerRank);
+        return danger.isEmpty() ? Optional.empty() : Optional.of(danger);
+    }
+
+    /**
+     * Ranks a grade modifier on its own, for comparing grade modifiers of the same grade.
+     *
+     * @throws GradeSortingException if the style is unknown or the grade modifier isn't valid for it
+     */
+    public static int getGradeModifierRank(@NonNull String style, @Nullable String gradeModifier) {
+        return getGradeModifierRank(getStyleRank(style), gradeModifier);
+    }
+
+    private static void checkGrade(int grade) {
+        if (grade < 0 || grade > MAX_GRADE) {
+            throw new GradeSortingException(
+                    String.format("Grade %d is not valid, it must be between 0 and %d.", grade, MAX_GRADE));
+        }
+    }
+
+    private static int getStyleRank(String style) {
+        if (style.isEmpty() || !STYLE_RANKS.containsKey(style)) {
+            throw new GradeSortingException(String.format("Style %s is not valid.", style));
+        }
+        return STYLE_RANKS.get(style);
+    }
+
+    private static int getGradeModifierRank(int styleRank, @Nullable String gradeModifier) {
+        Map<String, Integer> gradeModifierRanks =
+                isRopedClimb(styleRank) ? ROPED_GRADE_MODIFIER_RANKS : BOULDER_GRADE_MODIFIER_RANKS;
+        gradeModifier = gradeModifier == null ? "" : gradeModifier;
+        if (!gradeModifierRanks.containsKey(gradeModifier)) {
+            throw new GradeSortingException(
+                    String.format("Grade modifier %s is not valid for a %s route.", gradeModifier,
+                            isRopedClimb(styleRank) ? "roped" : "boulder"));
+        }
+        return gradeModifierRanks.get(gradeModifier);
+    }
+
+    private static List<String> getGradeModifiers(int styleRank) {
+        return isRopedClimb(styleRank) ? ROPED_GRADE_MODIFIERS : BOULDER_GRADE_MODIFIERS;
+    }
+
+    private static boolean isRopedClimb(int styleRank) {
+        return styleRank != STYLE_RANKS.get("boulder");
+    }
+
+    private static int mask(int bits) {
+        return (1 << bits) - 1;
+    }
+
+    private static Map<String, Integer> buildRanks(List<String> values) {
+        ImmutableMap.Builder<String, Integer> ranks = ImmutableMap.builder();
+        for (int i = 0; i < values.size(); i++) {
+            ranks.put(values.get(i), i);
+        }
+        return ranks.build();
+    }
+}
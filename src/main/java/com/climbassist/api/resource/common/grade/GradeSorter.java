@@ -2,99 +2,100 @@ package com.climbassist.api.resource.common.grade;
 
 import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.route.Route;
-import com.google.common.collect.ImmutableMap;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
-import java.util.Comparator;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 
+/**
+ * Grades are compared through their {@link GradeKey}, so each pitch is ranked once and the comparisons themselves are
+ * plain int comparisons.
+ */
 @UtilityClass
 public class GradeSorter {
 
-    private static final Map<String, Integer> ROPED_GRADE_MODIFIER_RANKS = ImmutableMap.<String, Integer>builder().put(
-            "", 0)
-            .put("a", 1)
-            .put("a/b", 2)
-            .put("b", 3)
-            .put("b/c", 4)
-            .put("c", 5)
-            .put("c/d", 6)
-            .put("d", 7)
-            .build();
-    private static final Map<String, Integer> BOULDER_GRADE_MODIFIER_RANKS =
-            ImmutableMap.<String, Integer>builder().put("-", 0)
-                    .put("", 1)
-                    .put("+", 2)
-                    .build();
-    private static final Map<String, Integer> DANGER_RANKS = ImmutableMap.<String, Integer>builder().put("", 0)
-            .put("PG13", 1)
-            .put("R", 2)
-            .put("X", 3)
-            .build();
-
     public static Grade getHighestGrade(@NonNull Route route, @NonNull Set<Pitch> pitches) {
-        if (pitches.isEmpty()) {
+        OptionalInt highestGradeKey = pitches.stream()
+                .filter(pitch -> pitch.getGrade() != null)
+                .mapToInt(pitch -> getGradeKey(route, pitch))
+                .max();
+        if (!highestGradeKey.isPresent()) {
             return buildEmptyGrade();
         }
-        return pitches.stream()
-                .filter(pitch -> pitch.getGrade() != null)
-                .max((pitch1, pitch2) -> {
-                    if (pitch1.getGrade()
-                            .equals(pitch2.getGrade())) {
-                        boolean isRopedClimb = isRopedClimb(route.getStyle());
-                        return getGradeModifierRank(isRopedClimb, pitch1.getGradeModifier(),
-                                route.getRouteId()).compareTo(
-                                getGradeModifierRank(isRopedClimb, pitch2.getGradeModifier(), route.getRouteId()));
-                    }
-                    return pitch1.getGrade()
-                            .compareTo(pitch2.getGrade());
-                })
-                .map(pitch -> Grade.builder()
-                        .value(Optional.of(pitch.getGrade()))
-                        .modifier(Optional.ofNullable(pitch.getGradeModifier()))
-                        .build())
-                .orElse(buildEmptyGrade());
+        return Grade.builder()
+                .value(GradeKey.getGrade(highestGradeKey.getAsInt()))
+                .modifier(GradeKey.getGradeModifier(highestGradeKey.getAsInt()))
+                .build();
     }
 
     public static Optional<String> getHighestDanger(@NonNull Route route, @NonNull Set<Pitch> pitches) {
-        if (pitches.isEmpty()) {
-            return Optional.empty();
-        }
-        return pitches.stream()
+        OptionalInt highestDangerRank = pitches.stream()
                 .map(Pitch::getDanger)
                 .filter(Objects::nonNull)
-                .filter(danger -> {
-                    if (!DANGER_RANKS.containsKey(danger)) {
-                        throw new GradeSortingException(
-                                String.format("Danger %s is not valid route %s.", danger, route.getRouteId()));
-                    }
-                    return true;
-                })
-                .max(Comparator.comparing(GradeSorter::getDangerRank));
+                .mapToInt(danger -> getDangerRank(route, danger))
+                .max();
+        return highestDangerRank.isPresent() ? GradeKey.getDangerForRank(highestDangerRank.getAsInt()) :
+                Optional.empty();
     }
 
-    private static Integer getGradeModifierRank(boolean isRopedClimb, String gradeModifier, String routeId) {
-        Map<String, Integer> gradeModifierRanks =
-                isRopedClimb ? ROPED_GRADE_MODIFIER_RANKS : BOULDER_GRADE_MODIFIER_RANKS;
-        gradeModifier = gradeModifier == null ? "" : gradeModifier;
-        if (!gradeModifierRanks.containsKey(gradeModifier)) {
-            throw new GradeSortingException(
-                    String.format("Grade modifier %s is not valid for a %s route %s.", gradeModifier,
-                            isRopedClimb ? "roped" : "boulder", routeId));
+    public static Grade getHighestGrade(@NonNull Route route, @NonNull GradeCounts gradeCounts) {
+        if (gradeCounts.getGrades()
+                .isEmpty()) {
+            return buildEmptyGrade();
         }
-        return gradeModifierRanks.get(gradeModifier);
+        Integer highestGrade = gradeCounts.getGrades()
+                .lastKey();
+        int highestGradeKey = gradeCounts.getGrades()
+                .get(highestGrade)
+                .keySet()
+                .stream()
+                .mapToInt(gradeModifier -> pack(route, highestGrade, gradeModifier, null))
+                .max()
+                .orElseGet(() -> pack(route, highestGrade, null, null));
+        return Grade.builder()
+                .value(Optional.of(highestGrade))
+                .modifier(GradeKey.getGradeModifier(highestGradeKey))
+                .build();
     }
 
-    private static Integer getDangerRank(String danger) {
-        return DANGER_RANKS.get(danger);
+    public static Optional<String> getHighestDanger(@NonNull Route route, @NonNull GradeCounts gradeCounts) {
+        OptionalInt highestDangerRank = gradeCounts.getDangers()
+                .keySet()
+                .stream()
+                .mapToInt(danger -> getDangerRank(route, danger))
+                .max();
+        return highestDangerRank.isPresent() ? GradeKey.getDangerForRank(highestDangerRank.getAsInt()) :
+                Optional.empty();
     }
 
-    private static boolean isRopedClimb(String style) {
-        return style.equals("sport") || style.equals("trad");
+    // pitches written through the API store their key, but it has to be recomputed if the route's style has changed or
+    // the stored key can't be unpacked. The danger doesn't matter for the grade, so it's left out of recomputed keys
+    // rather than failing on dangers which can't be ranked.
+    private static int getGradeKey(Route route, Pitch pitch) {
+        if (pitch.getGradeKey() != null && GradeKey.isValid(pitch.getGradeKey()) && GradeKey.hasStyle(
+                pitch.getGradeKey(), route.getStyle())) {
+            return pitch.getGradeKey();
+        }
+        return pack(route, pitch.getGrade(), pitch.getGradeModifier(), null);
+    }
+
+    private static int pack(Route route, Integer grade, String gradeModifier, String danger) {
+        try {
+            return GradeKey.pack(route.getStyle(), grade, gradeModifier, danger);
+        } catch (GradeSortingException e) {
+            throw new GradeSortingException(String.format("%s Route is %s.", e.getMessage(), route.getRouteId()));
+        }
+    }
+
+    private static int getDangerRank(Route route, String danger) {
+        try {
+            return GradeKey.getDangerRank(danger);
+        } catch (GradeSortingException e) {
+            throw new GradeSortingException(String.format("%s Route is %s.", e.getMessage(), route.getRouteId()));
+        }
     }
 
     private static Grade buildEmptyGrade() {
@@ -103,5 +104,4 @@ public class GradeSorter {
                 .modifier(Optional.empty())
                 .build();
     }
-
 }
@@ -7,6 +7,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundExceptionFactory;
 import com.climbassist.api.resource.common.image.webpconverter.WebpConverter;
 import com.climbassist.api.resource.common.image.webpconverter.WebpConverterException;
 import com.climbassist.api.user.UserData;
+import com.climbassist.common.concurrent.CompletableFutures;
 import com.climbassist.common.s3.AmazonS3UriBuilder;
 import com.climbassist.common.s3.S3Proxy;
 import lombok.Builder;
@@ -15,6 +16,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Builder
 public class ResourceWithImageControllerDelegate<Resource extends ResourceWithImage> {
@@ -34,9 +37,21 @@ public class ResourceWithImageControllerDelegate<Resource extends ResourceWithIm
     private final ResourceWithImageFactory<Resource> resourceFactory;
     @NonNull
     private final WebpConverter webpConverter;
+    @NonNull
+    private final Executor executor;
+
+    /**
+     * Converting the image is a synchronous Lambda invocation which can take several seconds, so uploads run on the
+     * executor instead of holding on to a servlet thread.
+     */
+    public CompletableFuture<UploadImageResult> uploadImage(@NonNull String resourceId, @NonNull MultipartFile image,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData) {
+        return CompletableFutures.supplyAsync(() -> uploadImageAndUpdateResource(resourceId, image, maybeUserData),
+                executor);
+    }
 
-    public UploadImageResult uploadImage(@NonNull String resourceId, @NonNull MultipartFile image,
-            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData)
+    private UploadImageResult uploadImageAndUpdateResource(String resourceId, MultipartFile image,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<UserData> maybeUserData)
             throws ResourceNotFoundException, IOException, WebpConverterException {
         Resource resource = resourceDao.getResource(resourceId, maybeUserData)
                 .orElseThrow(() -> resourceNotFoundExceptionFactory.create(resourceId));
@@ -0,0 +1,30 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import com.climbassist.api.resource.pathpoint.PathPointsDao;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.resource.point.PointsDao;
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.resource.wall.WallsDao;
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import(CommonDaoConfiguration.class)
+public class OrderKeyMigrationConfiguration {
+
+    @Bean
+    public OrderKeyMigrationController orderKeyMigrationController(@NonNull WallsDao wallsDao,
+                                                                   @NonNull RoutesDao routesDao,
+                                                                   @NonNull PitchesDao pitchesDao,
+                                                                   @NonNull PointsDao pointsDao,
+                                                                   @NonNull PathPointsDao pathPointsDao) {
+        return OrderKeyMigrationController.builder()
+                .orderableResourceDaos(ImmutableMap.of("walls", wallsDao, "routes", routesDao, "pitches", pitchesDao,
+                        "points", pointsDao, "pathPoints", pathPointsDao))
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.climbassist.api.resource.common.ValidLimit;
+import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
+import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.metrics.Metrics;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Nullable;
+import javax.validation.constraints.Pattern;
+import java.util.Map;
+
+/**
+ * Gives orderable resources order keys that match their current positions, one page of a table at a time. This has to
+ * be run over every table before order keys are enabled, and can be run again safely because siblings that are already
+ * in order aren't written.
+ */
+@Builder
+@RestController
+@Validated
+public class OrderKeyMigrationController {
+
+    static final String RESOURCE_TYPE_PATTERN = "walls|routes|pitches|points|pathPoints";
+
+    @NonNull
+    private final Map<String, OrderableResourceWithParentDao<?, ?>> orderableResourceDaos;
+
+    @Metrics(api = "MigrateOrderKeys")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/order-keys/migrate/{resourceType}", method = RequestMethod.POST)
+    public OrderKeyMigrationResult migrateOrderKeys(
+            @NonNull @Pattern(regexp = RESOURCE_TYPE_PATTERN, message = "Resource type must be one of " +
+                    RESOURCE_TYPE_PATTERN + ".") @PathVariable String resourceType,
+            @Nullable @RequestParam(required = false) String startAfter,
+            @ValidLimit @RequestParam(required = false, defaultValue = "100") int limit) {
+        return orderableResourceDaos.get(resourceType)
+                .migrateOrderKeys(startAfter, limit);
+    }
+}
@@ -0,0 +1,24 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class OrderKeyMigrationResult {
+
+    // the number of resources that were given a new order key
+    private int updatedResourceCount;
+    // the parents whose children couldn't be put in order by their first and next attributes, which were left alone
+    private Set<String> invalidParentIds;
+    // the ID to start the next page after, or null once every resource has been scanned
+    private String nextStartAfter;
+}
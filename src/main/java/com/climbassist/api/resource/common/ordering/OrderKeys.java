@@ -0,0 +1,129 @@
+package com.climbassist.api.resource.common.ordering;
+
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates order keys, which put siblings in order when they're sorted as strings. A key is a fraction between 0 and
+ * 1 written in base 62, without the leading "0.", using the digits 0-9, A-Z and a-z, which sort in the same order as
+ * their values in ASCII and UTF-8. A key never ends with 0, so there's always another key between any two keys, and a
+ * resource can be moved or inserted between its neighbors by giving it a new key, without changing theirs.
+ */
+public final class OrderKeys {
+
+    public static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    public static final String PATTERN = "[0-9A-Za-z]*[1-9A-Za-z]";
+    public static final int MAX_LENGTH = 100;
+
+    private static final int BASE = DIGITS.length();
+
+    private OrderKeys() {
+    }
+
+    /**
+     * Returns the shortest key that sorts after one key and before another.
+     *
+     * @param before the key to sort after, or null for the start of the list
+     * @param after  the key to sort before, or null for the end of the list
+     * @throws IllegalArgumentException if either key is invalid or before doesn't sort before after
+     */
+    public static String between(@Nullable String before, @Nullable String after) {
+        if (before != null && !isValid(before)) {
+            throw new IllegalArgumentException(String.format("Order key %s is invalid.", before));
+        }
+        if (after != null && !isValid(after)) {
+            throw new IllegalArgumentException(String.format("Order key %s is invalid.", after));
+        }
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Order key %s must sort before order key %s.", before, after));
+        }
+        return midpoint(before == null ? "" : before, after);
+    }
+
+    /**
+     * Returns keys for a list of resources, in order and evenly spaced, so that there's room to insert more resources
+     * between any two of them.
+     */
+    public static List<String> spaced(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be greater than or equal to 0.");
+        }
+        // at least one spare digit between neighbors
+        int length = 1;
+        long range = BASE;
+        while (range / BASE <= count) {
+            length++;
+            range *= BASE;
+        }
+        long step = range / (count + 1);
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(encode(step * i, length));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns keys for resources added to the end of a list, in order and evenly spaced like {@link #spaced}.
+     *
+     * @param last the key of the last resource in the list, or null if the list is empty
+     * @throws IllegalArgumentException if the last key is invalid
+     */
+    public static List<String> after(@Nullable String last, int count) {
+        // every key that starts with a key after the last one also sorts after it
+        String prefix = last == null ? "" : between(last, null);
+        List<String> keys = new ArrayList<>(count);
+        spaced(count).forEach(key -> keys.add(prefix + key));
+        return keys;
+    }
+
+    public static boolean isValid(@NonNull String key) {
+        return key.length() <= MAX_LENGTH && key.matches(PATTERN);
+    }
+
+    // before is "" for 0 and after is null for 1
+    private static String midpoint(String before, @Nullable String after) {
+        if (after != null) {
+            // the digits both keys share can be copied, with missing digits of before read as 0
+            int commonLength = 0;
+            while (commonLength < after.length() && digitAt(before, commonLength) == digitAt(after, commonLength)) {
+                commonLength++;
+            }
+            if (commonLength > 0) {
+                return after.substring(0, commonLength) + midpoint(
+                        before.substring(Math.min(commonLength, before.length())), after.substring(commonLength));
+            }
+        }
+        int beforeDigit = digitAt(before, 0);
+        int afterDigit = after == null ? BASE : digitAt(after, 0);
+        if (afterDigit - beforeDigit > 1) {
+            return String.valueOf(DIGITS.charAt((beforeDigit + afterDigit) / 2));
+        }
+        // the first digits are adjacent, so the key has to be longer than one of them
+        if (after != null && after.length() > 1) {
+            return after.substring(0, 1);
+        }
+        return DIGITS.charAt(beforeDigit) + midpoint(before.isEmpty() ? "" : before.substring(1), null);
+    }
+
+    private static int digitAt(String key, int index) {
+        return index < key.length() ? DIGITS.indexOf(key.charAt(index)) : 0;
+    }
+
+    private static String encode(long value, int length) {
+        char[] digits = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int end = length;
+        while (digits[end - 1] == DIGITS.charAt(0)) {
+            end--;
+        }
+        return new String(digits, 0, end);
+    }
+}
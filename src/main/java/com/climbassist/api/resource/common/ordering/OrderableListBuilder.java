@@ -4,7 +4,9 @@ import com.climbassist.api.resource.common.ResourceWithChildren;
 import com.google.common.collect.Sets;
 import lombok.NonNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -15,6 +17,17 @@ import java.util.stream.Collectors;
 public class OrderableListBuilder<Resource extends OrderableResourceWithParent<Resource, ParentResource>,
         ParentResource extends ResourceWithChildren<ParentResource>> {
 
+    // if this is true, resources are sorted by their order keys instead of following their first and next attributes
+    private final boolean orderKeysEnabled;
+
+    public OrderableListBuilder() {
+        this(false);
+    }
+
+    public OrderableListBuilder(boolean orderKeysEnabled) {
+        this.orderKeysEnabled = orderKeysEnabled;
+    }
+
     public List<Resource> buildList(@NonNull Set<Resource> resources) throws InvalidOrderingException {
         List<Resource> resourcesInOrder = new LinkedList<>();
 
@@ -27,6 +40,10 @@ public class OrderableListBuilder<Resource extends OrderableResourceWithParent<R
                 .get()
                 .getParentId();
 
+        if (orderKeysEnabled) {
+            return sortByOrderKey(parentResourceId, resources);
+        }
+
         Collection<Resource> firsts = resources.stream()
                 .filter(OrderableResourceWithParent::isFirst)
                 .collect(Collectors.toSet());
@@ -80,6 +97,23 @@ public class OrderableListBuilder<Resource extends OrderableResourceWithParent<R
         return resourcesInOrder;
     }
 
+    private List<Resource> sortByOrderKey(String parentResourceId, Set<Resource> resources)
+            throws InvalidOrderingException {
+        Collection<Resource> resourcesWithoutOrderKeys = resources.stream()
+                .filter(resource -> resource.getOrderKey() == null)
+                .collect(Collectors.toSet());
+        if (!resourcesWithoutOrderKeys.isEmpty()) {
+            throw new InvalidOrderingException(parentResourceId,
+                    String.format("The following resources do not have an order key: %s.",
+                            getIds(resourcesWithoutOrderKeys)));
+        }
+        // resources from the order index are already sorted, which takes a single pass to check
+        List<Resource> resourcesInOrder = new ArrayList<>(resources);
+        resourcesInOrder.sort(Comparator.comparing(Resource::getOrderKey)
+                .thenComparing(Resource::getId));
+        return resourcesInOrder;
+    }
+
     private Set<String> getIds(Collection<Resource> resources) {
         return resources.stream()
                 .map(OrderableResourceWithParent::getId)
@@ -7,34 +7,42 @@ import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.point.Point;
 import com.climbassist.api.resource.route.Route;
 import com.climbassist.api.resource.wall.Wall;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
 
 @Configuration
+@PropertySource("classpath:application.properties")
 public class OrderableListBuilderConfiguration {
 
     @Bean
-    public OrderableListBuilder<Wall, Crag> wallOrderableListBuilder() {
-        return new OrderableListBuilder<>();
+    public OrderableListBuilder<Wall, Crag> wallOrderableListBuilder(
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled) {
+        return new OrderableListBuilder<>(orderKeysEnabled);
     }
 
     @Bean
-    public OrderableListBuilder<Route, Wall> routeOrderableListBuilder() {
-        return new OrderableListBuilder<>();
+    public OrderableListBuilder<Route, Wall> routeOrderableListBuilder(
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled) {
+        return new OrderableListBuilder<>(orderKeysEnabled);
     }
 
     @Bean
-    public OrderableListBuilder<Pitch, Route> pitchOrderableListBuilder() {
-        return new OrderableListBuilder<>();
+    public OrderableListBuilder<Pitch, Route> pitchOrderableListBuilder(
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled) {
+        return new OrderableListBuilder<>(orderKeysEnabled);
     }
 
     @Bean
-    public OrderableListBuilder<Point, Pitch> pointOrderableListBuilder() {
-        return new OrderableListBuilder<>();
+    public OrderableListBuilder<Point, Pitch> pointOrderableListBuilder(
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled) {
+        return new OrderableListBuilder<>(orderKeysEnabled);
     }
 
     @Bean
-    public OrderableListBuilder<PathPoint, Path> pathPointOrderableListBuilder() {
-        return new OrderableListBuilder<>();
+    public OrderableListBuilder<PathPoint, Path> pathPointOrderableListBuilder(
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled) {
+        return new OrderableListBuilder<>(orderKeysEnabled);
     }
 }
@@ -10,4 +10,11 @@ public interface OrderableResourceWithParent<Resource extends OrderableResourceW
     boolean isFirst();
 
     String getNext();
+
+    /**
+     * @see OrderKeys
+     */
+    String getOrderKey();
+
+    void setOrderKey(String orderKey);
 }
@@ -0,0 +1,322 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.climbassist.api.resource.common.ResourceWithChildren;
+import com.climbassist.api.resource.common.ResourceWithParentDao;
+import com.climbassist.api.user.UserData;
+import com.climbassist.common.dynamodb.BatchWriter;
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * A DAO for resources that are kept in order under their parent. When order keys are enabled, siblings are queried from
+ * an index whose sort key is their order key, so DynamoDB returns them in order, and a resource that's saved without an
+ * order key is given one. Otherwise siblings are queried from the parent index and put in order by their first and next
+ * attributes.
+ */
+@Slf4j
+@SuperBuilder
+public abstract class OrderableResourceWithParentDao<Resource extends OrderableResourceWithParent<Resource,
+        ParentResource>, ParentResource extends ResourceWithChildren<ParentResource>>
+        extends ResourceWithParentDao<Resource, ParentResource> {
+
+    static final String ORDER_KEY_ATTRIBUTE_NAME = "orderKey";
+
+    // if this is false, order keys are neither queried nor assigned, and are only written by the migration
+    private final boolean orderKeysEnabled;
+    // if this is null, resources saved together are saved one at a time
+    @Nullable
+    private final BatchWriter batchWriter;
+
+    /**
+     * Returns the children of a parent. When order keys are enabled, the set iterates over them in order.
+     */
+    @Override
+    public Set<Resource> getResources(@NonNull String parentId, @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    @NonNull Optional<UserData> maybeUserData) {
+        if (!orderKeysEnabled) {
+            return super.getResources(parentId, maybeUserData);
+        }
+        DynamoDBQueryExpression<Resource> dynamoDBQueryExpression =
+                new DynamoDBQueryExpression<Resource>().withHashKeyValues(buildIndexHashKey(parentId))
+                        .withConsistentRead(false)
+                        .withIndexName(getOrderIndexName());
+        return new LinkedHashSet<>(
+                dynamoDBMapper.query(getResourceTypeClass(), dynamoDBQueryExpression, dynamoDBMapperConfig));
+    }
+
+    /**
+     * Saves a resource. When order keys are enabled and the resource doesn't have one, it keeps the order key it was
+     * saved with before. If it's new, it's put just before its next resource, or at the start of the list if it's
+     * marked as first, or at the end of the list otherwise. Either way, only the resource itself is written.
+     */
+    @Override
+    public void saveResource(@NonNull Resource resource) {
+        if (orderKeysEnabled && resource.getOrderKey() == null) {
+            resource.setOrderKey(assignOrderKey(resource));
+        }
+        super.saveResource(resource);
+    }
+
+    /**
+     * Builds the write of {@link #saveResource} as an item of a transaction, assigning the resource an order key the
+     * same way.
+     */
+    @Override
+    public TransactWriteItem buildSaveTransactWriteItem(@NonNull Resource resource) {
+        if (orderKeysEnabled && resource.getOrderKey() == null) {
+            resource.setOrderKey(assignOrderKey(resource));
+        }
+        return super.buildSaveTransactWriteItem(resource);
+    }
+
+    /**
+     * Saves new resources with batched writes rather than one write each. When order keys are enabled, the resources
+     * that don't have one are put at the end of the list, in the order they're given. If this throws, some of the
+     * resources may have been saved.
+     */
+    public void saveResources(@NonNull List<Resource> resources) {
+        if (batchWriter == null) {
+            resources.forEach(this::saveResource);
+            return;
+        }
+        if (orderKeysEnabled) {
+            assignOrderKeys(resources);
+        }
+        DynamoDBMapperTableModel<Resource> tableModel = dynamoDBMapper.getTableModel(getResourceTypeClass());
+        batchWriter.write(dynamoDBMapperConfig.getTableNameOverride()
+                .getTableName(), resources.stream()
+                .map(resource -> new WriteRequest(new PutRequest(tableModel.convert(resource))))
+                .collect(Collectors.toList()));
+        resourceCache.invalidateAll(resources.stream()
+                .map(Resource::getId)
+                .collect(Collectors.toList()));
+        resourceChangeListener.onResourcesSaved(resources);
+    }
+
+    /**
+     * Deletes every child of a parent. With a batch writer, the IDs are streamed from the parent index, and each page
+     * of them is deleted with batched writes while the next page is being queried. If this throws, some of the
+     * children may have been deleted.
+     *
+     * @return the number of children deleted
+     */
+    public int deleteResources(@NonNull String parentId) {
+        if (batchWriter == null) {
+            Set<Resource> resources = getResources(parentId, Optional.empty());
+            resources.forEach(resource -> deleteResource(resource.getId()));
+            return resources.size();
+        }
+        DynamoDBMapperTableModel<Resource> tableModel = dynamoDBMapper.getTableModel(getResourceTypeClass());
+        // only the key is needed to delete a resource
+        DynamoDBQueryExpression<Resource> dynamoDBQueryExpression =
+                new DynamoDBQueryExpression<Resource>().withHashKeyValues(buildIndexHashKey(parentId))
+                        .withConsistentRead(false)
+                        .withIndexName(getIndexName())
+                        .withProjectionExpression(tableModel.hashKey()
+                                .name());
+        List<String> deletedResourceIds = new ArrayList<>();
+        try {
+            return batchWriter.write(dynamoDBMapperConfig.getTableNameOverride()
+                    .getTableName(), dynamoDBMapper.query(getResourceTypeClass(), dynamoDBQueryExpression,
+                    dynamoDBMapperConfig)
+                    .stream()
+                    .map(resource -> {
+                        deletedResourceIds.add(resource.getId());
+                        return new WriteRequest(new DeleteRequest(tableModel.convertKey(resource)));
+                    })
+                    .iterator());
+        } finally {
+            // some of the children may have been deleted even if the write failed
+            if (!deletedResourceIds.isEmpty()) {
+                resourceCache.invalidateAll(deletedResourceIds);
+                resourceChangeListener.onResourcesDeleted(deletedResourceIds);
+            }
+        }
+    }
+
+    /**
+     * Gives the resources in one page of the table, and all of their siblings, the order keys of their positions in the
+     * lists built from the first and next attributes of the siblings. This has to be run over the whole table before
+     * order keys are enabled. Each call scans at most limit resources, so the migration is a series of short calls,
+     * each starting after the last resource the previous one scanned, and can be resumed from the last call that
+     * succeeded. Siblings that are already in order aren't written, which also skips parents that an earlier page
+     * already migrated, and only the order key of a resource is written, so it can be run more than once while the
+     * resources are in use.
+     *
+     * @param startAfter the ID of the last resource scanned by the previous call, or null to start from the beginning
+     */
+    public OrderKeyMigrationResult migrateOrderKeys(@Nullable String startAfter, int limit) {
+        String hashKeyName = dynamoDBMapper.getTableModel(getResourceTypeClass())
+                .hashKey()
+                .name();
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression().withLimit(limit);
+        if (startAfter != null) {
+            dynamoDBScanExpression.setExclusiveStartKey(ImmutableMap.of(hashKeyName, new AttributeValue(startAfter)));
+        }
+        ScanResultPage<Resource> scanResultPage =
+                dynamoDBMapper.scanPage(getResourceTypeClass(), dynamoDBScanExpression, dynamoDBMapperConfig);
+        Set<String> parentIds = scanResultPage.getResults()
+                .stream()
+                .map(Resource::getParentId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        OrderableListBuilder<Resource, ParentResource> orderableListBuilder = new OrderableListBuilder<>();
+        int updatedResourceCount = 0;
+        Set<String> invalidParentIds = new TreeSet<>();
+        for (String parentId : parentIds) {
+            List<Resource> resources;
+            try {
+                // siblings are queried from the parent index, because the order index only has resources with keys
+                resources = orderableListBuilder.buildList(super.getResources(parentId, Optional.empty()));
+            } catch (InvalidOrderingException e) {
+                log.warn(String.format("Not migrating the order of the children of %s.", parentId), e);
+                invalidParentIds.add(parentId);
+                continue;
+            }
+            if (isInOrder(resources)) {
+                continue;
+            }
+            List<String> orderKeys = OrderKeys.spaced(resources.size());
+            for (int i = 0; i < resources.size(); i++) {
+                if (!orderKeys.get(i)
+                        .equals(resources.get(i)
+                                .getOrderKey())) {
+                    updateOrderKey(resources.get(i), orderKeys.get(i));
+                    updatedResourceCount++;
+                }
+            }
+        }
+        Map<String, AttributeValue> lastEvaluatedKey = scanResultPage.getLastEvaluatedKey();
+        String nextStartAfter = lastEvaluatedKey == null ? null : lastEvaluatedKey.get(hashKeyName)
+                .getS();
+        log.info(String.format("Migrated the order keys of %d %s resources under %d parents, continuing after %s.",
+                updatedResourceCount, getResourceTypeClass().getSimpleName(), parentIds.size(), nextStartAfter));
+        return OrderKeyMigrationResult.builder()
+                .updatedResourceCount(updatedResourceCount)
+                .invalidParentIds(invalidParentIds)
+                .nextStartAfter(nextStartAfter)
+                .build();
+    }
+
+    private String assignOrderKey(Resource resource) {
+        Optional<String> maybeExistingOrderKey = loadResource(resource.getId()).map(Resource::getOrderKey);
+        if (maybeExistingOrderKey.isPresent()) {
+            return maybeExistingOrderKey.get();
+        }
+        if (resource.getNext() != null) {
+            Optional<String> maybeNextOrderKey = loadResource(resource.getNext()).filter(
+                    next -> resource.getParentId()
+                            .equals(next.getParentId()))
+                    .map(Resource::getOrderKey);
+            if (maybeNextOrderKey.isPresent()) {
+                return OrderKeys.between(getAdjacentOrderKey(resource.getParentId(), maybeNextOrderKey.get()),
+                        maybeNextOrderKey.get());
+            }
+        }
+        if (resource.isFirst()) {
+            return OrderKeys.between(null, getEndOrderKey(resource.getParentId(), true));
+        }
+        return OrderKeys.between(getEndOrderKey(resource.getParentId(), false), null);
+    }
+
+    private void assignOrderKeys(List<Resource> resources) {
+        Map<String, List<Resource>> resourcesWithoutOrderKeysByParentId = resources.stream()
+                .filter(resource -> resource.getOrderKey() == null)
+                .collect(Collectors.groupingBy(Resource::getParentId, LinkedHashMap::new, Collectors.toList()));
+        resourcesWithoutOrderKeysByParentId.forEach((parentId, siblings) -> {
+            List<String> orderKeys = OrderKeys.after(getEndOrderKey(parentId, false), siblings.size());
+            for (int i = 0; i < siblings.size(); i++) {
+                siblings.get(i)
+                        .setOrderKey(orderKeys.get(i));
+            }
+        });
+    }
+
+    // the key of the sibling just before the given key
+    @Nullable
+    private String getAdjacentOrderKey(String parentId, String orderKey) {
+        return queryOneOrderKey(new DynamoDBQueryExpression<Resource>().withRangeKeyCondition(ORDER_KEY_ATTRIBUTE_NAME,
+                new Condition().withComparisonOperator(ComparisonOperator.LT)
+                        .withAttributeValueList(new AttributeValue(orderKey)))
+                .withScanIndexForward(false), parentId);
+    }
+
+    // the key of the first or last sibling
+    @Nullable
+    private String getEndOrderKey(String parentId, boolean first) {
+        return queryOneOrderKey(new DynamoDBQueryExpression<Resource>().withScanIndexForward(first), parentId);
+    }
+
+    @Nullable
+    private String queryOneOrderKey(DynamoDBQueryExpression<Resource> dynamoDBQueryExpression, String parentId) {
+        return dynamoDBMapper.queryPage(getResourceTypeClass(),
+                dynamoDBQueryExpression.withHashKeyValues(buildIndexHashKey(parentId))
+                        .withConsistentRead(false)
+                        .withIndexName(getOrderIndexName())
+                        .withLimit(1), dynamoDBMapperConfig)
+                .getResults()
+                .stream()
+                .findFirst()
+                .map(Resource::getOrderKey)
+                .orElse(null);
+    }
+
+    private void updateOrderKey(Resource resource, String orderKey) {
+        // only the key and the order key are set, and the other attributes are left alone
+        Resource update = buildResourceForDeletion(resource.getId());
+        update.setOrderKey(orderKey);
+        String hashKeyName = dynamoDBMapper.getTableModel(getResourceTypeClass())
+                .hashKey()
+                .name();
+        dynamoDBMapper.save(update, new DynamoDBSaveExpression().withExpectedEntry(hashKeyName,
+                new ExpectedAttributeValue(new AttributeValue(resource.getId()))), DynamoDBMapperConfig.builder()
+                .withTableNameOverride(dynamoDBMapperConfig.getTableNameOverride())
+                .withSaveBehavior(DynamoDBMapperConfig.SaveBehavior.UPDATE_SKIP_NULL_ATTRIBUTES)
+                .build());
+        resource.setOrderKey(orderKey);
+        resourceCache.invalidate(resource.getId());
+        resourceChangeListener.onResourceSaved(resource);
+    }
+
+    private static boolean isInOrder(List<? extends OrderableResourceWithParent<?, ?>> resources) {
+        String previousOrderKey = null;
+        for (OrderableResourceWithParent<?, ?> resource : resources) {
+            String orderKey = resource.getOrderKey();
+            if (orderKey == null || !OrderKeys.isValid(orderKey) ||
+                    (previousOrderKey != null && orderKey.compareTo(previousOrderKey) <= 0)) {
+                return false;
+            }
+            previousOrderKey = orderKey;
+        }
+        return true;
+    }
+
+    protected abstract String getOrderIndexName();
+}
@@ -10,7 +10,6 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -26,6 +25,7 @@ public class RecursiveOrderableResourceWithChildrenRetriever<
     @NonNull
     private final ResourceWithParentDao<Resource, ParentResource> resourceDao;
     @NonNull
+    @Getter
     private final Set<RecursiveResourceRetriever<? extends ResourceWithParent<Resource>, Resource>>
             recursiveResourceRetrievers;
     @NonNull
@@ -35,23 +35,7 @@ public class RecursiveOrderableResourceWithChildrenRetriever<
     private final Class<Resource> childClass;
 
     @Override
-    public List<Resource> getChildrenRecursively(@NonNull String parentId, int depth,
-                                                 @NonNull Optional<UserData> maybeUserData) {
-        if (depth < 1) {
-            throw new IllegalArgumentException("Depth must be greater than or equal to 1.");
-        }
-        List<Resource> resources = orderableListBuilder.buildList(resourceDao.getResources(parentId, maybeUserData));
-        if (depth > 1) {
-            resources.forEach(resource -> {
-                recursiveResourceRetrievers.forEach(recursiveResourceRetriever -> {
-                    Collection<?> childResources = recursiveResourceRetriever.getChildrenRecursively(resource.getId(),
-                            depth - 1, maybeUserData);
-                    if (!childResources.isEmpty()) {
-                        resource.setChildResources(childResources, recursiveResourceRetriever.getChildClass());
-                    }
-                });
-            });
-        }
-        return resources;
+    public List<Resource> getChildren(@NonNull String parentId, @NonNull Optional<UserData> maybeUserData) {
+        return orderableListBuilder.buildList(resourceDao.getResources(parentId, maybeUserData));
     }
 }
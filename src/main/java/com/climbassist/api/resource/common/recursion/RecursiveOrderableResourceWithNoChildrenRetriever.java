@@ -4,12 +4,14 @@ import com.climbassist.api.resource.common.ResourceWithChildren;
 import com.climbassist.api.resource.common.ResourceWithParentDao;
 import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
 import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableSet;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 // @formatter:off
 @Builder
@@ -28,11 +30,12 @@ public class RecursiveOrderableResourceWithNoChildrenRetriever<
     private final Class<Resource> childClass;
 
     @Override
-    public List<Resource> getChildrenRecursively(@NonNull String parentId, int depth,
-                                                 @NonNull Optional<UserData> maybeUserData) {
-        if (depth < 1) {
-            throw new IllegalArgumentException("Depth must be greater than or equal to 1.");
-        }
+    public List<Resource> getChildren(@NonNull String parentId, @NonNull Optional<UserData> maybeUserData) {
         return orderableListBuilder.buildList(resourceDao.getResources(parentId, maybeUserData));
     }
+
+    @Override
+    public Set<RecursiveResourceRetriever<?, ?>> getRecursiveResourceRetrievers() {
+        return ImmutableSet.of();
+    }
 }
@@ -5,15 +5,26 @@ import com.climbassist.api.user.UserData;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 // @formatter:off
 public interface RecursiveResourceRetriever<Resource extends com.climbassist.api.resource.common.ResourceWithParent<
         ParentResource>, ParentResource extends ResourceWithChildren<ParentResource>> {
 // @formatter:on
 
-    Collection<Resource> getChildrenRecursively(String parentId, int depth,
-                                                @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                                        Optional<UserData> maybeUserData);
+    /**
+     * Retrieves only the direct children of the parent. {@link ResourceTreeLoader} descends through the tree by calling
+     * this for every parent on a level.
+     */
+    Collection<Resource> getChildren(String parentId,
+                                     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                             Optional<UserData> maybeUserData);
+
+    /**
+     * Returns the retrievers for the children of the resources returned by this retriever, or an empty set if those
+     * resources have no children.
+     */
+    Set<? extends RecursiveResourceRetriever<?, ?>> getRecursiveResourceRetrievers();
 
     Class<Resource> getChildClass();
 }
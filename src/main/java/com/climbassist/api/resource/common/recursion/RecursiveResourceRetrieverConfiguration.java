@@ -3,6 +3,7 @@ package com.climbassist.api.resource.common.recursion;
 import com.climbassist.api.resource.area.Area;
 import com.climbassist.api.resource.area.AreasDao;
 import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import com.climbassist.api.resource.common.cache.RequestMemo;
 import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
 import com.climbassist.api.resource.common.ordering.OrderableListBuilderConfiguration;
 import com.climbassist.api.resource.country.Country;
@@ -14,6 +15,9 @@ import com.climbassist.api.resource.pathpoint.PathPoint;
 import com.climbassist.api.resource.pathpoint.PathPointsDao;
 import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.resource.point.PackedPointRetriever;
+import com.climbassist.api.resource.point.PackedPointStore;
+import com.climbassist.api.resource.point.PackedPointStoreConfiguration;
 import com.climbassist.api.resource.point.Point;
 import com.climbassist.api.resource.point.PointsDao;
 import com.climbassist.api.resource.region.Region;
@@ -24,16 +28,46 @@ import com.climbassist.api.resource.subarea.SubArea;
 import com.climbassist.api.resource.subarea.SubAreasDao;
 import com.climbassist.api.resource.wall.Wall;
 import com.climbassist.api.resource.wall.WallsDao;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
 import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
 
 @Configuration
-@Import({CommonDaoConfiguration.class, OrderableListBuilderConfiguration.class})
+@Import({CommonDaoConfiguration.class, MetricsConfiguration.class, OrderableListBuilderConfiguration.class,
+        PackedPointStoreConfiguration.class})
+@PropertySource("classpath:application.properties")
 public class RecursiveResourceRetrieverConfiguration {
 
+    @Bean
+    public BoundedExecutor resourceTreeLoaderExecutor(
+            @Value("${resourceTreeLoaderConcurrency}") int resourceTreeLoaderConcurrency,
+            @Value("${resourceTreeLoaderQueueCapacity}") int resourceTreeLoaderQueueCapacity,
+            @NonNull MetricsEmitter metricsEmitter, @NonNull RequestMemo requestMemo) {
+        return BoundedExecutor.builder()
+                .name("ResourceTreeLoaderExecutor")
+                .concurrency(resourceTreeLoaderConcurrency)
+                .queueCapacity(resourceTreeLoaderQueueCapacity)
+                .metricsEmitter(metricsEmitter)
+                .taskDecorator(requestMemo::propagate)
+                .build();
+    }
+
+    @Bean
+    public ResourceTreeLoader resourceTreeLoader(@NonNull BoundedExecutor resourceTreeLoaderExecutor,
+                                                 @NonNull MetricsEmitter metricsEmitter) {
+        return ResourceTreeLoader.builder()
+                .executor(resourceTreeLoaderExecutor)
+                .metricsEmitter(metricsEmitter)
+                .build();
+    }
+
     @Bean
     public RecursiveResourceRetriever<Region, Country> recursiveRegionRetriever(@NonNull RegionsDao regionsDao,
                                                                                 @NonNull RecursiveResourceRetriever<Area, Region> recursiveAreaRetriever) {
@@ -113,10 +147,15 @@ public class RecursiveResourceRetrieverConfiguration {
     @Bean
     public RecursiveResourceRetriever<Point, Pitch> recursivePointRetriever(@NonNull PointsDao pointsDao,
                                                                             @NonNull OrderableListBuilder<Point,
-                                                                                    Pitch> pointOrderableListBuilder) {
-        return RecursiveOrderableResourceWithNoChildrenRetriever.<Point, Pitch>builder().resourceDao(pointsDao)
-                .orderableListBuilder(pointOrderableListBuilder)
-                .childClass(Point.class)
+                                                                                    Pitch> pointOrderableListBuilder,
+                                                                            @NonNull PackedPointStore packedPointStore) {
+        return PackedPointRetriever.builder()
+                .packedPointStore(packedPointStore)
+                .recursiveResourceRetriever(
+                        RecursiveOrderableResourceWithNoChildrenRetriever.<Point, Pitch>builder().resourceDao(pointsDao)
+                                .orderableListBuilder(pointOrderableListBuilder)
+                                .childClass(Point.class)
+                                .build())
                 .build();
     }
 
@@ -9,7 +9,6 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -24,6 +23,7 @@ class RecursiveResourceWithChildrenRetriever<
     @NonNull
     private final ResourceWithParentDao<Resource, ParentResource> resourceDao;
     @NonNull
+    @Getter
     private final Set<RecursiveResourceRetriever<? extends ResourceWithParent<Resource>, Resource>>
             recursiveResourceRetrievers;
     @NonNull
@@ -31,21 +31,7 @@ class RecursiveResourceWithChildrenRetriever<
     private final Class<Resource> childClass;
 
     @Override
-    public Set<Resource> getChildrenRecursively(@NonNull String parentId, int depth,
-                                                @NonNull Optional<UserData> maybeUserData) {
-        if (depth < 1) {
-            throw new IllegalArgumentException("Depth must be greater than or equal to 1.");
-        }
-        Set<Resource> resources = resourceDao.getResources(parentId, maybeUserData);
-        if (depth > 1) {
-            resources.forEach(resource -> recursiveResourceRetrievers.forEach(recursiveResourceRetriever -> {
-                Collection<?> childResources = recursiveResourceRetriever.getChildrenRecursively(resource.getId(),
-                        depth - 1, maybeUserData);
-                if (!childResources.isEmpty()) {
-                    resource.setChildResources(childResources, recursiveResourceRetriever.getChildClass());
-                }
-            }));
-        }
-        return resources;
+    public Set<Resource> getChildren(@NonNull String parentId, @NonNull Optional<UserData> maybeUserData) {
+        return resourceDao.getResources(parentId, maybeUserData);
     }
 }
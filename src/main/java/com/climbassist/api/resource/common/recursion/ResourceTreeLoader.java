@@ -0,0 +1,152 @@
+package com.climbassist.api.resource.common.recursion;
+
+import com.climbassist.api.resource.common.ResourceWithChildren;
+import com.climbassist.api.resource.common.ResourceWithParent;
+import com.climbassist.api.user.UserData;
+import com.climbassist.common.concurrent.CompletableFutures;
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * This class loads the descendants of a resource one level of the hierarchy at a time. All of the child queries for a
+ * level are issued concurrently, so the number of sequential round trips grows with the height of the tree instead of
+ * with the number of resources in it.
+ */
+@Builder
+@Slf4j
+public class ResourceTreeLoader {
+
+    private static final String METRICS_COMPONENT = "ResourceTreeLoader";
+
+    @Value
+    private static class ChildQuery {
+
+        ResourceWithChildren<?> parentResource;
+        RecursiveResourceRetriever<?, ?> recursiveResourceRetriever;
+    }
+
+    @Value
+    private static class ChildQueryResult {
+
+        ChildQuery childQuery;
+        Collection<?> childResources;
+    }
+
+    @NonNull
+    private final Executor executor;
+    @NonNull
+    private final MetricsEmitter metricsEmitter;
+
+    /**
+     * Loads the descendants of a resource and attaches them to it.
+     *
+     * @return IDs of every descendant that was loaded
+     */
+    public <Resource extends ResourceWithChildren<Resource>> Set<String> loadChildren(@NonNull Resource resource,
+            @NonNull Set<? extends RecursiveResourceRetriever<? extends ResourceWithParent<Resource>, Resource>>
+                    recursiveResourceRetrievers, int depth,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be greater than or equal to 1.");
+        }
+        List<ChildQuery> level = recursiveResourceRetrievers.stream()
+                .map(recursiveResourceRetriever -> new ChildQuery(resource, recursiveResourceRetriever))
+                .collect(Collectors.toList());
+        Deque<List<ChildQueryResult>> loadedLevels = new ArrayDeque<>();
+        Set<String> loadedResourceIds = new HashSet<>();
+        for (int currentDepth = 1; currentDepth <= depth && !level.isEmpty(); currentDepth++) {
+            List<ChildQueryResult> childQueryResults = queryLevel(level, maybeUserData);
+            loadedLevels.push(childQueryResults);
+            childQueryResults.forEach(childQueryResult -> childQueryResult.getChildResources()
+                    .forEach(childResource -> loadedResourceIds.add(
+                            ((com.climbassist.api.resource.common.Resource) childResource).getId())));
+            level = currentDepth < depth ? buildNextLevel(childQueryResults) : new ArrayList<>();
+        }
+        // Children are attached deepest level first so that every resource is complete before it is copied into its
+        // parent's child collection.
+        while (!loadedLevels.isEmpty()) {
+            loadedLevels.pop()
+                    .forEach(ResourceTreeLoader::attachChildResources);
+        }
+        return loadedResourceIds;
+    }
+
+    private List<ChildQueryResult> queryLevel(List<ChildQuery> level,
+                                              @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                                      Optional<UserData> maybeUserData) {
+        long startTime = System.currentTimeMillis();
+        List<ChildQueryResult> childQueryResults;
+        if (level.size() == 1) {
+            // there's nothing to run in parallel, so don't pay for the hand-off to another thread
+            childQueryResults = level.stream()
+                    .map(childQuery -> query(childQuery, maybeUserData))
+                    .collect(Collectors.toList());
+        }
+        else {
+            List<CompletableFuture<ChildQueryResult>> futures = level.stream()
+                    .map(childQuery -> CompletableFuture.supplyAsync(() -> query(childQuery, maybeUserData),
+                            executor))
+                    .collect(Collectors.toList());
+            childQueryResults = futures.stream()
+                    .map(CompletableFutures::join)
+                    .collect(Collectors.toList());
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        log.debug(String.format("Loaded %d child queries in %d ms.", level.size(), duration));
+        metricsEmitter.emitComponentCountMetric(METRICS_COMPONENT, "levelQueryCount", level.size());
+        metricsEmitter.emitComponentDurationMetric(METRICS_COMPONENT, "levelDuration", duration);
+        return childQueryResults;
+    }
+
+    private static ChildQueryResult query(ChildQuery childQuery,
+                                          @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                                  Optional<UserData> maybeUserData) {
+        return new ChildQueryResult(childQuery, childQuery.getRecursiveResourceRetriever()
+                .getChildren(childQuery.getParentResource()
+                        .getId(), maybeUserData));
+    }
+
+    private static List<ChildQuery> buildNextLevel(List<ChildQueryResult> childQueryResults) {
+        List<ChildQuery> nextLevel = new ArrayList<>();
+        childQueryResults.forEach(childQueryResult -> {
+            Set<? extends RecursiveResourceRetriever<?, ?>> recursiveResourceRetrievers =
+                    childQueryResult.getChildQuery()
+                            .getRecursiveResourceRetriever()
+                            .getRecursiveResourceRetrievers();
+            // retrievers are only ever configured for children of resources that have children, so this cast is safe
+            childQueryResult.getChildResources()
+                    .forEach(childResource -> recursiveResourceRetrievers.forEach(
+                            recursiveResourceRetriever -> nextLevel.add(
+                                    new ChildQuery((ResourceWithChildren<?>) childResource,
+                                            recursiveResourceRetriever))));
+        });
+        return nextLevel;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void attachChildResources(ChildQueryResult childQueryResult) {
+        if (!childQueryResult.getChildResources()
+                .isEmpty()) {
+            ((ResourceWithChildren) childQueryResult.getChildQuery()
+                    .getParentResource()).setChildResources(childQueryResult.getChildResources(),
+                    childQueryResult.getChildQuery()
+                            .getRecursiveResourceRetriever()
+                            .getChildClass());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.climbassist.api.resource.common.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * This is the serialized JSON of a resource and all of its loaded descendants. It is written into responses as-is, so a
+ * cached snapshot costs a single copy of its bytes instead of another serialization of the whole tree.
+ */
+public final class SubtreeSnapshot implements JsonSerializable {
+
+    private final SerializedString json;
+    @Getter(AccessLevel.PACKAGE)
+    private final Set<String> resourceIds;
+    @Getter(AccessLevel.PACKAGE)
+    private final int size;
+
+    public SubtreeSnapshot(@NonNull String json, @NonNull Set<String> resourceIds) {
+        this.json = new SerializedString(json);
+        this.resourceIds = ImmutableSet.copyOf(resourceIds);
+        // encodes the JSON once up front, so that every response after this reuses the same bytes
+        size = this.json.asUnquotedUTF8().length + json.length() * Character.BYTES;
+    }
+
+    public String getJson() {
+        return json.getValue();
+    }
+
+    boolean containsAnyOf(Set<String> resourceIds) {
+        return resourceIds.stream()
+                .anyMatch(this.resourceIds::contains);
+    }
+
+    @Override
+    public void serialize(JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+        jsonGenerator.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator jsonGenerator, SerializerProvider serializerProvider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(jsonGenerator, serializerProvider);
+    }
+}
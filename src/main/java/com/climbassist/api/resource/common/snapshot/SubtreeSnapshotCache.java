@@ -0,0 +1,157 @@
+package com.climbassist.api.resource.common.snapshot;
+
+import com.climbassist.api.resource.common.Resource;
+import com.climbassist.api.resource.common.ResourceChangeListener;
+import com.climbassist.api.resource.common.ResourceWithParent;
+import com.climbassist.metrics.MetricsEmitter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class caches serialized resource trees, keyed by the root resource, the depth of the tree and whether it was
+ * loaded for an administrator. A snapshot is dropped whenever a resource in it, or a new child of a resource in it, is
+ * written through a {@link com.climbassist.api.resource.common.ResourceDao}. Other instances of the service don't share
+ * this cache and don't notify it about their writes, so snapshots also expire after a fixed amount of time.
+ */
+@Slf4j
+public class SubtreeSnapshotCache implements ResourceChangeListener {
+
+    private static final String METRICS_COMPONENT = "SubtreeSnapshotCache";
+
+    @Value
+    public static class Key {
+
+        @NonNull
+        String resourceId;
+        int depth;
+        boolean administratorView;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MetricsEmitter metricsEmitter;
+    private final Cache<Key, SubtreeSnapshot> cache;
+    private final Object writeLock = new Object();
+    // incremented on every invalidation, so that trees loaded before a write are never cached after it
+    private long generation;
+
+    @Builder
+    private SubtreeSnapshotCache(@NonNull ObjectMapper objectMapper, @NonNull MetricsEmitter metricsEmitter,
+                                 long maximumSizeBytes, long expireAfterWriteSeconds) {
+        this.objectMapper = objectMapper;
+        this.metricsEmitter = metricsEmitter;
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumSizeBytes)
+                .<Key, SubtreeSnapshot>weigher((key, subtreeSnapshot) -> subtreeSnapshot.getSize())
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    public Optional<SubtreeSnapshot> get(@NonNull Key key) {
+        Optional<SubtreeSnapshot> maybeSubtreeSnapshot = Optional.ofNullable(cache.getIfPresent(key));
+        metricsEmitter.emitCacheLookupMetrics(METRICS_COMPONENT, maybeSubtreeSnapshot.isPresent());
+        return maybeSubtreeSnapshot;
+    }
+
+    /**
+     * Returns a token which must be read before loading a tree and passed to {@link #put}.
+     */
+    public long getGeneration() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Serializes a loaded tree and caches it, unless any resource has been written since the given generation.
+     *
+     * @param key         key to cache the snapshot under
+     * @param resource    root of the loaded tree
+     * @param resourceIds IDs of every resource in the loaded tree, including the root
+     * @param generation  value of {@link #getGeneration()} from before the tree started loading
+     * @return the snapshot, whether or not it was cached
+     */
+    public SubtreeSnapshot put(@NonNull Key key, @NonNull Object resource, @NonNull Set<String> resourceIds,
+                               long generation) {
+        SubtreeSnapshot subtreeSnapshot;
+        try {
+            subtreeSnapshot = new SubtreeSnapshot(objectMapper.writeValueAsString(resource), resourceIds);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (writeLock) {
+            if (this.generation == generation) {
+                cache.put(key, subtreeSnapshot);
+            }
+            else {
+                log.debug(String.format("Not caching %s because resources were written while it was loading.", key));
+            }
+        }
+        return subtreeSnapshot;
+    }
+
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+        invalidate(getAffectedResourceIds(resource));
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+        invalidate(ImmutableSet.of(resourceId));
+    }
+
+    // Each snapshot is checked once against the whole batch, instead of once for every resource in it.
+    @Override
+    public void onResourcesSaved(@NonNull List<? extends Resource> resources) {
+        Set<String> resourceIds = new HashSet<>();
+        resources.forEach(resource -> resourceIds.addAll(getAffectedResourceIds(resource)));
+        invalidate(resourceIds);
+    }
+
+    @Override
+    public void onResourcesDeleted(@NonNull List<String> resourceIds) {
+        invalidate(ImmutableSet.copyOf(resourceIds));
+    }
+
+    // a new or moved resource changes the tree of its parent as well as every tree it was already part of
+    private static Set<String> getAffectedResourceIds(Resource resource) {
+        if (resource instanceof ResourceWithParent) {
+            return ImmutableSet.of(resource.getId(), ((ResourceWithParent<?>) resource).getParentId());
+        }
+        return ImmutableSet.of(resource.getId());
+    }
+
+    private void invalidate(Set<String> resourceIds) {
+        // writes are rare compared to reads, so scanning every snapshot is cheaper than maintaining a reverse index
+        synchronized (writeLock) {
+            generation++;
+            cache.asMap()
+                    .values()
+                    .removeIf(subtreeSnapshot -> subtreeSnapshot.containsAnyOf(resourceIds));
+        }
+    }
+
+    private void onRemoval(RemovalNotification<Key, SubtreeSnapshot> removalNotification) {
+        if (removalNotification.wasEvicted()) {
+            metricsEmitter.emitComponentCountMetric(METRICS_COMPONENT, "evictionCount", 1);
+        }
+        else {
+            metricsEmitter.emitComponentCountMetric(METRICS_COMPONENT, "invalidationCount", 1);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.climbassist.api.resource.common.snapshot;
+
+import com.climbassist.common.CommonConfiguration;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import({CommonConfiguration.class, MetricsConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class SubtreeSnapshotConfiguration {
+
+    @Bean
+    public SubtreeSnapshotCache subtreeSnapshotCache(@NonNull ObjectMapper objectMapper,
+            @NonNull MetricsEmitter metricsEmitter,
+            @Value("${subtreeSnapshotCacheMaximumSizeBytes}") long subtreeSnapshotCacheMaximumSizeBytes,
+            @Value("${subtreeSnapshotCacheExpireAfterWriteSeconds}") long subtreeSnapshotCacheExpireAfterWriteSeconds) {
+        return SubtreeSnapshotCache.builder()
+                .objectMapper(objectMapper)
+                .metricsEmitter(metricsEmitter)
+                .maximumSizeBytes(subtreeSnapshotCacheMaximumSizeBytes)
+                .expireAfterWriteSeconds(subtreeSnapshotCacheExpireAfterWriteSeconds)
+                .build();
+    }
+}
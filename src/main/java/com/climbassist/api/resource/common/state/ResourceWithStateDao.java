@@ -27,8 +27,8 @@ public abstract class ResourceWithStateDao<Resource extends ResourceWithParent<P
 
     @Override
     public Optional<Resource> getResource(@NonNull String resourceId, @NonNull Optional<UserData> maybeUserData) {
-        Optional<Resource> maybeResource = Optional.ofNullable(
-                dynamoDBMapper.load(getResourceTypeClass(), resourceId, dynamoDBMapperConfig));
+        // the cache holds the resource as it is stored, so hiding it from non-administrators has to happen here
+        Optional<Resource> maybeResource = loadResource(resourceId);
         if (!maybeResource.isPresent() || maybeResource.get()
                 .getState()
                 .equals(State.PUBLIC.toString()) || maybeUserData.isPresent() && maybeUserData.get()
@@ -6,6 +6,8 @@ import com.climbassist.api.resource.common.ResourceIdGenerator;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.region.Region;
 import com.climbassist.api.resource.region.RegionsDao;
 import com.climbassist.api.v2.ResourcesDao;
@@ -24,7 +26,9 @@ public class CountryConfiguration {
     public CountryController countryController(@NonNull CountriesDao countriesDao, @NonNull RegionsDao regionsDao,
             @NonNull ResourceIdGenerator resourceIdGenerator,
             @NonNull CountryNotFoundExceptionFactory countryNotFoundExceptionFactory,
-            @NonNull RecursiveResourceRetriever<Region, Country> recursiveResourceRetriever) {
+            @NonNull RecursiveResourceRetriever<Region, Country> recursiveResourceRetriever,
+            @NonNull ResourceTreeLoader resourceTreeLoader,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache) {
         ResourceControllerDelegate<Country, NewCountry> resourceControllerDelegate =
                 ResourceControllerDelegate.<Country, NewCountry>builder().resourceDao(countriesDao)
                         .resourceFactory(CountryFactory.builder()
@@ -41,6 +45,8 @@ public class CountryConfiguration {
                                 .resourceNotEmptyExceptionFactory(new CountryNotEmptyExceptionFactory())
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .build())
                 .countriesDao(countriesDao)
                 .build();
@@ -8,6 +8,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.user.SessionUtils;
 import com.climbassist.api.user.UserData;
 import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
@@ -43,11 +44,11 @@ public class CountryController {
 
     @Metrics(api = "GetCountry")
     @RequestMapping(path = "/v1/countries/{countryId}", method = RequestMethod.GET)
-    public Country getResource(@ValidCountryId @NonNull @PathVariable String countryId,
-                               @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                               @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                           @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(countryId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidCountryId @NonNull @PathVariable String countryId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                                   @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(countryId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListCountries")
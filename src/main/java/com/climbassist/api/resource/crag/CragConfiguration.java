@@ -1,11 +1,14 @@
 package com.climbassist.api.resource.crag;
 
+import com.climbassist.api.ApiConfiguration;
 import com.climbassist.api.resource.common.*;
 import com.climbassist.api.resource.common.image.ResourceWithImageControllerDelegate;
 import com.climbassist.api.resource.common.image.webpconverter.WebpConverter;
 import com.climbassist.api.resource.common.image.webpconverter.WebpConverterConfiguration;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.path.Path;
 import com.climbassist.api.resource.path.PathsDao;
 import com.climbassist.api.resource.subarea.SubArea;
@@ -14,6 +17,8 @@ import com.climbassist.api.resource.subarea.SubAreasDao;
 import com.climbassist.api.resource.wall.Wall;
 import com.climbassist.api.resource.wall.WallsDao;
 import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.s3.S3Configuration;
 import com.climbassist.common.s3.S3Proxy;
 import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
@@ -25,8 +30,8 @@ import org.springframework.context.annotation.PropertySource;
 
 @Configuration
 @PropertySource("classpath:application.properties")
-@Import({CommonConfiguration.class, CommonDaoConfiguration.class, RecursiveResourceRetrieverConfiguration.class,
-        WebpConverterConfiguration.class})
+@Import({ApiConfiguration.class, CommonConfiguration.class, CommonDaoConfiguration.class,
+        RecursiveResourceRetrieverConfiguration.class, S3Configuration.class, WebpConverterConfiguration.class})
 public class CragConfiguration {
 
     @Bean
@@ -38,7 +43,11 @@ public class CragConfiguration {
             @NonNull SubAreaNotFoundExceptionFactory subAreaNotFoundExceptionFactory,
             @NonNull RecursiveResourceRetriever<Wall, Crag> recursiveWallRetriever,
             @NonNull RecursiveResourceRetriever<Path, Crag> recursivePathRetriever,
-            @NonNull WebpConverter webpConverter) {
+            @NonNull WebpConverter webpConverter,
+            @NonNull ResourceTreeLoader resourceTreeLoader,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache,
+            @NonNull BoundedExecutor uploadRequestExecutor,
+            @Value("${uploadRequestTimeoutMillis}") long uploadRequestTimeoutMillis) {
         CragFactory cragFactory = CragFactory.builder()
                 .resourceIdGenerator(resourceIdGenerator)
                 .build();
@@ -62,6 +71,8 @@ public class CragConfiguration {
                                 .resourceNotEmptyExceptionFactory(cragNotEmptyExceptionFactory)
                                 .recursiveResourceRetrievers(
                                         ImmutableSet.of(recursiveWallRetriever, recursivePathRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .build())
                 .resourceWithImageControllerDelegate(
@@ -71,6 +82,7 @@ public class CragConfiguration {
                                 .imagesBucketName(imagesBucketName)
                                 .resourceFactory(cragFactory)
                                 .webpConverter(webpConverter)
+                                .executor(uploadRequestExecutor)
                                 .build())
                 .cragsDao(cragsDao)
                 .s3Proxy(s3Proxy)
@@ -79,6 +91,8 @@ public class CragConfiguration {
                 .wallsDao(wallsDao)
                 .pathsDao(pathsDao)
                 .cragNotEmptyExceptionFactory(cragNotEmptyExceptionFactory)
+                .executor(uploadRequestExecutor)
+                .uploadTimeoutMillis(uploadRequestTimeoutMillis)
                 .build();
     }
 
@@ -1,6 +1,7 @@
 package com.climbassist.api.resource.crag;
 
 import com.amazonaws.services.s3.AmazonS3URI;
+import com.climbassist.api.DeferredResults;
 import com.climbassist.api.resource.common.CreateResourceResult;
 import com.climbassist.api.resource.common.DeleteResourceResult;
 import com.climbassist.api.resource.common.ResourceNotEmptyException;
@@ -11,7 +12,7 @@ import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
 import com.climbassist.api.resource.common.image.ResourceWithImageControllerDelegate;
 import com.climbassist.api.resource.common.image.UploadImageResult;
-import com.climbassist.api.resource.common.image.webpconverter.WebpConverterException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.path.PathsDao;
 import com.climbassist.api.resource.subarea.SubArea;
 import com.climbassist.api.resource.subarea.ValidSubAreaId;
@@ -20,6 +21,7 @@ import com.climbassist.api.user.SessionUtils;
 import com.climbassist.api.user.UserData;
 import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
 import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.common.concurrent.CompletableFutures;
 import com.climbassist.common.s3.S3Proxy;
 import com.climbassist.metrics.Metrics;
 import lombok.Builder;
@@ -33,12 +35,15 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.SessionAttribute;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
-import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Builder
 @RestController
@@ -72,15 +77,18 @@ public class CragController {
     private final PathsDao pathsDao;
     @NonNull
     private final CragNotEmptyExceptionFactory cragNotEmptyExceptionFactory;
+    @NonNull
+    private final Executor executor;
+    private final long uploadTimeoutMillis;
 
     @Metrics(api = "GetCrag")
     @RequestMapping(path = "/v1/crags/{cragId}", method = RequestMethod.GET)
-    public Crag getResource(@ValidCragId @NonNull @PathVariable String cragId,
+    public SubtreeSnapshot getResource(@ValidCragId @NonNull @PathVariable String cragId,
             @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
             @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
             @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(cragId, depth, maybeUserData);
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(cragId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListCrags")
@@ -155,56 +163,70 @@ public class CragController {
                 .build();
     }
 
+    /**
+     * The two models are uploaded at the same time on the executor, so an upload takes about as long as the larger
+     * model alone and doesn't hold on to a servlet thread. The crag is only updated once both have been uploaded.
+     * Large models can take minutes to upload, so the request has its own timeout instead of the default one.
+     */
     @Metrics(api = "UploadCragModel")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/crags/{cragId}/models", method = RequestMethod.POST)
-    public UploadModelsResult uploadModels(@ValidCragId @NonNull @PathVariable String cragId,
+    public DeferredResult<UploadModelsResult> uploadModels(@ValidCragId @NonNull @PathVariable String cragId,
             @NonNull @RequestParam(HIGH_RESOLUTION_MODEL_NAME) MultipartFile highResolutionModel,
             @NonNull @RequestParam(LOW_RESOLUTION_MODEL_NAME) MultipartFile lowResolutionModel,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
             @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-            @NonNull Optional<UserData> maybeUserData) throws IOException, CragNotFoundException {
+            @NonNull Optional<UserData> maybeUserData) throws CragNotFoundException {
 
         Crag crag = cragsDao.getResource(cragId, maybeUserData)
                 .orElseThrow(() -> new CragNotFoundException(cragId));
 
-        String highResolutionModelLocation = s3Proxy.putPublicObject(modelsBucketName,
-                String.format(HIGH_RESOLUTION_MODEL_KEY_TEMPLATE, cragId, cragId), highResolutionModel.getInputStream(),
-                highResolutionModel.getSize())
-                .getURI()
-                .toString();
-        String lowResolutionModelLocation = s3Proxy.putPublicObject(modelsBucketName,
-                String.format(LOW_RESOLUTION_MODEL_KEY_TEMPLATE, cragId, cragId), lowResolutionModel.getInputStream(),
-                lowResolutionModel.getSize())
-                .getURI()
-                .toString();
-
-        Crag newCrag = crag.toBuilder()
-                .model(crag.getModel() == null ? Model.builder()
-                        .modelLocation(highResolutionModelLocation)
-                        .lowResModelLocation(lowResolutionModelLocation)
-                        .build() : crag.getModel()
-                        .toBuilder()
-                        .modelLocation(highResolutionModelLocation)
-                        .lowResModelLocation(lowResolutionModelLocation)
-                        .build())
-                .build();
-        cragsDao.saveResource(newCrag);
-
-        return UploadModelsResult.builder()
-                .successful(true)
-                .build();
+        CompletableFuture<String> highResolutionModelLocation = uploadModel(
+                String.format(HIGH_RESOLUTION_MODEL_KEY_TEMPLATE, cragId, cragId), highResolutionModel);
+        CompletableFuture<String> lowResolutionModelLocation = uploadModel(
+                String.format(LOW_RESOLUTION_MODEL_KEY_TEMPLATE, cragId, cragId), lowResolutionModel);
+
+        CompletableFuture<UploadModelsResult> uploadModelsResult = highResolutionModelLocation.thenCombine(
+                lowResolutionModelLocation,
+                (modelLocation, lowResModelLocation) -> {
+                    Crag newCrag = crag.toBuilder()
+                            .model(crag.getModel() == null ? Model.builder()
+                                    .modelLocation(modelLocation)
+                                    .lowResModelLocation(lowResModelLocation)
+                                    .build() : crag.getModel()
+                                    .toBuilder()
+                                    .modelLocation(modelLocation)
+                                    .lowResModelLocation(lowResModelLocation)
+                                    .build())
+                            .build();
+                    cragsDao.saveResource(newCrag);
+
+                    return UploadModelsResult.builder()
+                            .successful(true)
+                            .build();
+                });
+        return DeferredResults.withTimeout(uploadModelsResult, uploadTimeoutMillis);
     }
 
     @Metrics(api = "UploadCragPhoto")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/crags/{cragId}/photo", method = RequestMethod.POST)
-    public UploadImageResult uploadImage(@ValidCragId @NonNull @PathVariable String cragId,
+    public DeferredResult<UploadImageResult> uploadImage(@ValidCragId @NonNull @PathVariable String cragId,
             @NonNull @RequestParam(IMAGE_NAME) MultipartFile image,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
             @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-            @NonNull Optional<UserData> maybeUserData)
-            throws IOException, ResourceNotFoundException, WebpConverterException {
-        return resourceWithImageControllerDelegate.uploadImage(cragId, image, maybeUserData);
+            @NonNull Optional<UserData> maybeUserData) {
+        return DeferredResults.withTimeout(
+                resourceWithImageControllerDelegate.uploadImage(cragId, image, maybeUserData), uploadTimeoutMillis);
+    }
+
+    private CompletableFuture<String> uploadModel(String key, MultipartFile model) {
+        return CompletableFutures.supplyAsync(() -> {
+            try (InputStream inputStream = model.getInputStream()) {
+                return s3Proxy.putPublicObject(modelsBucketName, key, inputStream, model.getSize())
+                        .getURI()
+                        .toString();
+            }
+        }, executor);
     }
 }
@@ -0,0 +1,106 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import com.climbassist.api.resource.common.ResourceIdGenerator;
+import com.climbassist.api.resource.common.ResourceNotFoundExceptionFactoryConfiguration;
+import com.climbassist.api.resource.crag.CragFactory;
+import com.climbassist.api.resource.crag.CragsDao;
+import com.climbassist.api.resource.pitch.PitchFactory;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.resource.point.PackedPointStore;
+import com.climbassist.api.resource.point.PackedPointStoreConfiguration;
+import com.climbassist.api.resource.point.PointFactory;
+import com.climbassist.api.resource.point.PointsDao;
+import com.climbassist.api.resource.route.RouteFactory;
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.resource.subarea.SubAreaNotFoundExceptionFactory;
+import com.climbassist.api.resource.subarea.SubAreasDao;
+import com.climbassist.api.resource.wall.WallFactory;
+import com.climbassist.api.resource.wall.WallsDao;
+import com.climbassist.common.CommonConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.validation.Validation;
+
+@Configuration
+@Import({CommonConfiguration.class, CommonDaoConfiguration.class, PackedPointStoreConfiguration.class,
+        ResourceNotFoundExceptionFactoryConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class CragImportConfiguration {
+
+    @Bean
+    public CragImporter cragImporter(@NonNull ObjectMapper objectMapper, @NonNull SubAreasDao subAreasDao,
+            @NonNull SubAreaNotFoundExceptionFactory subAreaNotFoundExceptionFactory, @NonNull CragsDao cragsDao,
+            @NonNull WallsDao wallsDao, @NonNull RoutesDao routesDao, @NonNull PitchesDao pitchesDao,
+            @NonNull PointsDao pointsDao, @NonNull ResourceIdGenerator resourceIdGenerator,
+            @NonNull PackedPointStore packedPointStore, @NonNull CragImportsDao cragImportsDao,
+            @Value("${cragImportGroupSize}") int cragImportGroupSize,
+            @Value("${cragImportRetentionMinutes}") long cragImportRetentionMinutes,
+            @Value("${cragImportStaleAttemptMinutes}") long cragImportStaleAttemptMinutes) {
+        return CragImporter.builder()
+                .objectMapper(objectMapper)
+                // the document is read as it arrives, so it's validated here rather than by Spring, and none of the
+                // constraint messages use expressions, so they're interpolated without an expression language
+                .validator(Validation.byDefaultProvider()
+                        .configure()
+                        .messageInterpolator(new ParameterMessageInterpolator())
+                        .buildValidatorFactory()
+                        .getValidator())
+                .subAreasDao(subAreasDao)
+                .subAreaNotFoundExceptionFactory(subAreaNotFoundExceptionFactory)
+                .cragsDao(cragsDao)
+                .wallsDao(wallsDao)
+                .routesDao(routesDao)
+                .pitchesDao(pitchesDao)
+                .pointsDao(pointsDao)
+                .cragFactory(CragFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .wallFactory(WallFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .routeFactory(RouteFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .pitchFactory(PitchFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .pointFactory(PointFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .packedPointStore(packedPointStore)
+                .cragImportsDao(cragImportsDao)
+                .groupSize(cragImportGroupSize)
+                .jobRetentionMinutes(cragImportRetentionMinutes)
+                .staleAttemptMinutes(cragImportStaleAttemptMinutes)
+                .build();
+    }
+
+    @Bean
+    public CragImportsDao cragImportsDao(@NonNull DynamoDBMapper dynamoDBMapper,
+            @Value("${cragImportsTableName}") @NonNull String cragImportsTableName) {
+        return CragImportsDao.builder()
+                .dynamoDBMapper(dynamoDBMapper)
+                .dynamoDBMapperConfig(DynamoDBMapperConfig.builder()
+                        .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(cragImportsTableName))
+                        .withConsistentReads(DynamoDBMapperConfig.ConsistentReads.CONSISTENT)
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CragImportController cragImportController(@NonNull CragImporter cragImporter) {
+        return CragImportController.builder()
+                .cragImporter(cragImporter)
+                .build();
+    }
+}
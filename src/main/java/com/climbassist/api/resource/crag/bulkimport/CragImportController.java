@@ -0,0 +1,57 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.ApiException;
+import com.climbassist.api.resource.crag.ValidCragId;
+import com.climbassist.api.user.SessionUtils;
+import com.climbassist.api.user.UserData;
+import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
+import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.metrics.Metrics;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.SessionAttribute;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+@Builder
+@RestController
+@Validated
+public class CragImportController {
+
+    @NonNull
+    private final CragImporter cragImporter;
+
+    // the body is read as it arrives instead of being bound to an object, so a large crag is never held in memory
+    @Metrics(api = "ImportCrag")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/crag-imports", method = RequestMethod.POST)
+    public CragImportProgress importCrag(@NonNull InputStream document,
+                                         @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                         @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                         @NonNull Optional<UserData> maybeUserData) throws ApiException, IOException {
+        return cragImporter.importCrag(document, maybeUserData);
+    }
+
+    @Metrics(api = "ResumeCragImport")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/crag-imports/{cragId}/resume", method = RequestMethod.POST)
+    public CragImportProgress resumeImport(@NonNull @ValidCragId @PathVariable String cragId,
+                                           @NonNull InputStream document) throws ApiException, IOException {
+        return cragImporter.resumeImport(cragId, document);
+    }
+
+    @Metrics(api = "GetCragImport")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/crag-imports/{cragId}", method = RequestMethod.GET)
+    public CragImportProgress getImport(@NonNull @ValidCragId @PathVariable String cragId)
+            throws CragImportNotFoundException {
+        return cragImporter.getProgress(cragId);
+    }
+}
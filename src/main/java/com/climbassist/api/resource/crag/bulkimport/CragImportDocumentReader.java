@@ -0,0 +1,93 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.crag.NewCrag;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Reads a crag import document one wall at a time, so that only the walls being written are held in memory rather than
+ * the whole crag. The document is an object whose first field is the crag, followed by an array of its walls:
+ *
+ * <pre>
+ * {"crag": {...}, "walls": [{"name": ..., "routes": [{..., "pitches": [{..., "points": [...]}]}]}]}
+ * </pre>
+ */
+class CragImportDocumentReader implements Closeable {
+
+    private static final String CRAG_FIELD_NAME = "crag";
+    private static final String WALLS_FIELD_NAME = "walls";
+
+    private final JsonParser jsonParser;
+    private boolean inWalls;
+    private boolean finished;
+
+    CragImportDocumentReader(ObjectMapper objectMapper, InputStream inputStream) throws IOException {
+        jsonParser = objectMapper.getFactory()
+                .createParser(inputStream);
+    }
+
+    NewCrag readCrag() throws InvalidRequestException, IOException {
+        try {
+            check(jsonParser.nextToken() == JsonToken.START_OBJECT, "The document must be an object.");
+            check(CRAG_FIELD_NAME.equals(jsonParser.nextFieldName()), "The first field of the document must be crag.");
+            jsonParser.nextToken();
+            return jsonParser.readValueAs(NewCrag.class);
+        } catch (JsonProcessingException e) {
+            throw buildInvalidRequestException(e);
+        }
+    }
+
+    /**
+     * Returns the next wall in the document, or empty once there are no more.
+     */
+    Optional<ImportedWall> readWall() throws InvalidRequestException, IOException {
+        if (finished) {
+            return Optional.empty();
+        }
+        try {
+            if (!inWalls) {
+                String fieldName = jsonParser.nextFieldName();
+                if (fieldName == null) {
+                    // a crag without walls
+                    finished = true;
+                    return Optional.empty();
+                }
+                check(WALLS_FIELD_NAME.equals(fieldName) && jsonParser.nextToken() == JsonToken.START_ARRAY,
+                        "The crag must be followed by an array of walls.");
+                inWalls = true;
+            }
+            if (jsonParser.nextToken() == JsonToken.END_ARRAY) {
+                finished = true;
+                check(jsonParser.nextToken() == JsonToken.END_OBJECT,
+                        "The walls must be the last field of the document.");
+                return Optional.empty();
+            }
+            return Optional.of(jsonParser.readValueAs(ImportedWall.class));
+        } catch (JsonProcessingException e) {
+            throw buildInvalidRequestException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        jsonParser.close();
+    }
+
+    private static void check(boolean condition, String message) throws InvalidRequestException {
+        if (!condition) {
+            throw new InvalidRequestException(message);
+        }
+    }
+
+    private static InvalidRequestException buildInvalidRequestException(JsonProcessingException e) {
+        return new InvalidRequestException(String.format("Unable to parse the document: %s", e.getOriginalMessage()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.ApiException;
+import lombok.NonNull;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an import fails after its crag was created, so that the caller learns the crag ID it needs to resume the
+ * import. An invalid document keeps its bad request status, so it can be fixed before resuming.
+ */
+public class CragImportFailedException extends ApiException {
+
+    private final HttpStatus httpStatus;
+
+    public CragImportFailedException(@NonNull String cragId, int importedWallCount, @NonNull Throwable cause) {
+        super(String.format("Importing crag %s failed after %d walls were imported, and it can be resumed. %s", cragId,
+                importedWallCount, cause.getMessage()), cause);
+        httpStatus = cause instanceof ApiException ? ((ApiException) cause).getHttpStatus() :
+                HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    @Override
+    public String getType() {
+        return "CragImportFailedException";
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return httpStatus;
+    }
+}
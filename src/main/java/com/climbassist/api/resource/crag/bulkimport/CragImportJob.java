@@ -0,0 +1,180 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.resource.point.Point;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.resource.wall.Wall;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One attempt at a crag import, which keeps the {@link CragImportRecord} of the import up to date as it goes. Walls are
+ * written in groups, and a group only counts as imported once every one of its resources has been written. The walls
+ * of the group being written are recorded before it's written, so if the attempt fails or its instance stops, the next
+ * attempt can delete whatever was written of them and write them again, instead of leaving a partial copy behind.
+ * A job is only used by the request running the attempt.
+ */
+class CragImportJob {
+
+    /**
+     * Walls and their subtrees, written together one level at a time.
+     */
+    @Getter
+    static class Group {
+
+        private final List<Wall> walls = new ArrayList<>();
+        private final List<Route> routes = new ArrayList<>();
+        private final List<Pitch> pitches = new ArrayList<>();
+        private final List<Point> points = new ArrayList<>();
+        // the walls read from the document, which doesn't include the previous group's last wall if it's rewritten
+        private int newWallCount;
+
+        void addNewWall(Wall wall) {
+            walls.add(wall);
+            newWallCount++;
+        }
+
+        int getResourceCount() {
+            return walls.size() + routes.size() + pitches.size() + points.size();
+        }
+
+        List<Wall> getNewWalls() {
+            return walls.subList(walls.size() - newWallCount, walls.size());
+        }
+    }
+
+    @Getter
+    private final CragImportRecord record;
+    // the last wall imported so far, loaded when an attempt resumes after the first group
+    @Getter
+    @Setter
+    @Nullable
+    private Wall lastWall;
+
+    CragImportJob(CragImportRecord record) {
+        this.record = record;
+    }
+
+    static CragImportJob start(String cragId) {
+        return new CragImportJob(CragImportRecord.builder()
+                .cragId(cragId)
+                .status(CragImportProgress.Status.IN_PROGRESS)
+                .attemptStartTimeMillis(System.currentTimeMillis())
+                .build());
+    }
+
+    static CragImportProgress getProgress(CragImportRecord record) {
+        return CragImportProgress.builder()
+                .cragId(record.getCragId())
+                .status(record.getStatus())
+                .importedWallCount(record.getImportedWallCount())
+                .importedRouteCount(record.getImportedRouteCount())
+                .importedPitchCount(record.getImportedPitchCount())
+                .importedPointCount(record.getImportedPointCount())
+                .durationMillis(record.getStatus() == CragImportProgress.Status.IN_PROGRESS ?
+                        record.getDurationMillis() + System.currentTimeMillis() - record.getAttemptStartTimeMillis() :
+                        record.getDurationMillis())
+                .failureMessage(record.getFailureMessage())
+                .build();
+    }
+
+    String getCragId() {
+        return record.getCragId();
+    }
+
+    CragImportProgress getProgress() {
+        return getProgress(record);
+    }
+
+    int getImportedWallCount() {
+        return record.getImportedWallCount();
+    }
+
+    List<String> getPendingWallIds() {
+        return record.getPendingWallIds() == null ? Collections.emptyList() : record.getPendingWallIds();
+    }
+
+    /**
+     * Starts another attempt of an import that failed, or whose attempt stopped saving checkpoints because its
+     * instance stopped.
+     *
+     * @return false if the import has completed or is still making progress, in which case it's left alone
+     */
+    boolean resume(long staleAttemptMinutes) {
+        if (record.getStatus() == CragImportProgress.Status.IN_PROGRESS && System.currentTimeMillis() -
+                record.getCheckpointTimeMillis() >= TimeUnit.MINUTES.toMillis(staleAttemptMinutes)) {
+            // the stopped attempt is counted up to its last checkpoint
+            record.setDurationMillis(
+                    record.getDurationMillis() + record.getCheckpointTimeMillis() - record.getAttemptStartTimeMillis());
+        }
+        else if (record.getStatus() != CragImportProgress.Status.FAILED) {
+            return false;
+        }
+        record.setStatus(CragImportProgress.Status.IN_PROGRESS);
+        record.setFailureMessage(null);
+        record.setAttemptStartTimeMillis(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Records the time of a save, so that other instances can tell that the attempt is still making progress.
+     *
+     * @return the record to save
+     */
+    CragImportRecord checkpoint(long expirationTime) {
+        record.setCheckpointTimeMillis(System.currentTimeMillis());
+        record.setExpirationTime(expirationTime);
+        return record;
+    }
+
+    void pendingWallsDeleted() {
+        record.setPendingWallIds(null);
+    }
+
+    void groupStarted(Group group) {
+        record.setPendingWallIds(group.getNewWalls()
+                .stream()
+                .map(Wall::getWallId)
+                .collect(Collectors.toList()));
+    }
+
+    void groupImported(Group group) {
+        record.setImportedWallCount(record.getImportedWallCount() + group.getNewWallCount());
+        record.setImportedRouteCount(record.getImportedRouteCount() + group.getRoutes()
+                .size());
+        record.setImportedPitchCount(record.getImportedPitchCount() + group.getPitches()
+                .size());
+        record.setImportedPointCount(record.getImportedPointCount() + group.getPoints()
+                .size());
+        if (!group.getWalls()
+                .isEmpty()) {
+            lastWall = group.getWalls()
+                    .get(group.getWalls()
+                            .size() - 1);
+            record.setLastWallId(lastWall.getWallId());
+        }
+        record.setPendingWallIds(null);
+    }
+
+    void complete() {
+        finishAttempt(CragImportProgress.Status.COMPLETE);
+    }
+
+    void fail(String failureMessage) {
+        finishAttempt(CragImportProgress.Status.FAILED);
+        record.setFailureMessage(failureMessage);
+    }
+
+    private void finishAttempt(CragImportProgress.Status status) {
+        record.setStatus(status);
+        record.setDurationMillis(record.getDurationMillis() + System.currentTimeMillis() -
+                record.getAttemptStartTimeMillis());
+    }
+}
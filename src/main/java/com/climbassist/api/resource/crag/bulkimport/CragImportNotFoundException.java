@@ -0,0 +1,22 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.ApiException;
+import lombok.NonNull;
+import org.springframework.http.HttpStatus;
+
+public class CragImportNotFoundException extends ApiException {
+
+    public CragImportNotFoundException(@NonNull String cragId) {
+        super(String.format("There is no import of crag %s. Imports are forgotten a while after they finish.", cragId));
+    }
+
+    @Override
+    public String getType() {
+        return "CragImportNotFoundException";
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -0,0 +1,36 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class CragImportProgress {
+
+    public enum Status {
+        IN_PROGRESS,
+        FAILED,
+        COMPLETE
+    }
+
+    private String cragId;
+    private Status status;
+    // resources are only counted once every resource written with them has been written
+    private int importedWallCount;
+    private int importedRouteCount;
+    private int importedPitchCount;
+    private int importedPointCount;
+    // the time spent importing, across every attempt
+    private long durationMillis;
+    // only present if the import failed
+    @Nullable
+    private String failureMessage;
+}
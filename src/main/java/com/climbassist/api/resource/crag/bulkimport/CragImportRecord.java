@@ -0,0 +1,60 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConvertedEnum;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The stored state of one crag import, which is everything needed to report its progress and to resume it from any
+ * instance. It's saved whenever a group of walls is started or imported, and every save is conditional on the version
+ * that was read, so only one attempt can ever write it.
+ */
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder(toBuilder = true)
+@Data
+@DynamoDBTable(tableName = "") // this is not used because we always use a TableNameOverride in the DAO
+@NoArgsConstructor
+public class CragImportRecord {
+
+    @DynamoDBHashKey
+    private String cragId;
+
+    @DynamoDBTypeConvertedEnum
+    private CragImportProgress.Status status;
+
+    private int importedWallCount;
+
+    private int importedRouteCount;
+
+    private int importedPitchCount;
+
+    private int importedPointCount;
+
+    // the time spent by the attempts that have finished
+    private long durationMillis;
+
+    private long attemptStartTimeMillis;
+
+    // when the attempt in progress last saved this, so an attempt whose instance stopped can be told apart
+    private long checkpointTimeMillis;
+
+    private String failureMessage;
+
+    // the last wall imported so far, which has no next wall until the wall after it is read
+    private String lastWallId;
+
+    // the walls of the group being written, which may have been partly written if the attempt stopped
+    private List<String> pendingWallIds;
+
+    private Long expirationTime;
+
+    @DynamoDBVersionAttribute
+    private Long version;
+}
@@ -0,0 +1,448 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.climbassist.api.ApiException;
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.grade.Grade;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.common.grade.GradeKey;
+import com.climbassist.api.resource.common.grade.GradeSorter;
+import com.climbassist.api.resource.common.ordering.OrderKeys;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.CragFactory;
+import com.climbassist.api.resource.crag.CragsDao;
+import com.climbassist.api.resource.crag.NewCrag;
+import com.climbassist.api.resource.pitch.NewPitch;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.resource.pitch.PitchFactory;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.resource.point.NewPoint;
+import com.climbassist.api.resource.point.PackedPointStore;
+import com.climbassist.api.resource.point.Point;
+import com.climbassist.api.resource.point.PointFactory;
+import com.climbassist.api.resource.point.PointsDao;
+import com.climbassist.api.resource.route.NewRoute;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.resource.route.RouteFactory;
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.resource.subarea.SubAreaNotFoundExceptionFactory;
+import com.climbassist.api.resource.subarea.SubAreasDao;
+import com.climbassist.api.resource.wall.NewWall;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.api.resource.wall.WallFactory;
+import com.climbassist.api.resource.wall.WallsDao;
+import com.climbassist.api.user.UserData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class imports a whole crag from one document. The document is read a wall at a time, and walls are collected
+ * into groups of about {@code groupSize} resources. Every resource in a group is given its ID, its first and next
+ * attributes and its order key before anything is written, and then the group is written one level at a time, each
+ * level with batched writes. Routes get the grades of their pitches and pitches get their points packed, so nothing
+ * has to be updated after it's written.
+ *
+ * <p>The crag is created first, in review, and its ID identifies the import. The state of each import is stored in
+ * DynamoDB and saved at every group, so its progress can be read from any instance, and an import that failed, or
+ * whose instance stopped, can be resumed on any instance by sending the same document again. Resuming skips the walls
+ * that were already imported, and deletes and rewrites the walls of the group that was being written. Stored imports
+ * expire a while after they were last saved.
+ */
+@Slf4j
+public class CragImporter {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final SubAreasDao subAreasDao;
+    private final SubAreaNotFoundExceptionFactory subAreaNotFoundExceptionFactory;
+    private final CragsDao cragsDao;
+    private final WallsDao wallsDao;
+    private final RoutesDao routesDao;
+    private final PitchesDao pitchesDao;
+    private final PointsDao pointsDao;
+    private final CragFactory cragFactory;
+    private final WallFactory wallFactory;
+    private final RouteFactory routeFactory;
+    private final PitchFactory pitchFactory;
+    private final PointFactory pointFactory;
+    private final PackedPointStore packedPointStore;
+    private final CragImportsDao cragImportsDao;
+    private final int groupSize;
+    private final long jobRetentionMinutes;
+    private final long staleAttemptMinutes;
+
+    @Builder
+    private CragImporter(@NonNull ObjectMapper objectMapper, @NonNull Validator validator,
+                         @NonNull SubAreasDao subAreasDao,
+                         @NonNull SubAreaNotFoundExceptionFactory subAreaNotFoundExceptionFactory,
+                         @NonNull CragsDao cragsDao, @NonNull WallsDao wallsDao, @NonNull RoutesDao routesDao,
+                         @NonNull PitchesDao pitchesDao, @NonNull PointsDao pointsDao, @NonNull CragFactory cragFactory,
+                         @NonNull WallFactory wallFactory, @NonNull RouteFactory routeFactory,
+                         @NonNull PitchFactory pitchFactory, @NonNull PointFactory pointFactory,
+                         @NonNull PackedPointStore packedPointStore, @NonNull CragImportsDao cragImportsDao,
+                         int groupSize, long jobRetentionMinutes, long staleAttemptMinutes) {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("Group size must be greater than or equal to 1.");
+        }
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.subAreasDao = subAreasDao;
+        this.subAreaNotFoundExceptionFactory = subAreaNotFoundExceptionFactory;
+        this.cragsDao = cragsDao;
+        this.wallsDao = wallsDao;
+        this.routesDao = routesDao;
+        this.pitchesDao = pitchesDao;
+        this.pointsDao = pointsDao;
+        this.cragFactory = cragFactory;
+        this.wallFactory = wallFactory;
+        this.routeFactory = routeFactory;
+        this.pitchFactory = pitchFactory;
+        this.pointFactory = pointFactory;
+        this.packedPointStore = packedPointStore;
+        this.cragImportsDao = cragImportsDao;
+        this.groupSize = groupSize;
+        this.jobRetentionMinutes = jobRetentionMinutes;
+        this.staleAttemptMinutes = staleAttemptMinutes;
+    }
+
+    /**
+     * Creates a crag and everything under it from a document, returning once it's all written.
+     *
+     * @throws CragImportFailedException if the import failed after the crag was created, in which case it can be
+     *                                   resumed
+     */
+    public CragImportProgress importCrag(@NonNull InputStream document,
+                                         @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull
+                                                 Optional<UserData> maybeUserData) throws ApiException, IOException {
+        try (CragImportDocumentReader documentReader = new CragImportDocumentReader(objectMapper, document)) {
+            NewCrag newCrag = documentReader.readCrag();
+            validate(newCrag, "Crag");
+            subAreasDao.getResource(newCrag.getSubAreaId(), maybeUserData)
+                    .orElseThrow(() -> subAreaNotFoundExceptionFactory.create(newCrag.getSubAreaId()));
+            Crag crag = cragFactory.create(newCrag);
+            cragsDao.saveResource(crag);
+            CragImportJob job = CragImportJob.start(crag.getCragId());
+            save(job);
+            log.info(String.format("Started importing crag %s.", crag.getCragId()));
+            return run(job, documentReader);
+        }
+    }
+
+    /**
+     * Continues a failed import from the same document it was started with. The walls that were already imported are
+     * read but not written again, so the document has to be the same up to the point where the import failed. An
+     * import that hasn't saved its progress for a while counts as failed, because the instance running it stopped.
+     *
+     * @throws InvalidRequestException if the import hasn't failed, or is being resumed by another request
+     */
+    public CragImportProgress resumeImport(@NonNull String cragId, @NonNull InputStream document)
+            throws ApiException, IOException {
+        CragImportJob job = new CragImportJob(getRecord(cragId));
+        if (!job.resume(staleAttemptMinutes)) {
+            throw new InvalidRequestException(
+                    String.format("The import of crag %s can only be resumed after it has failed.", cragId));
+        }
+        try {
+            save(job);
+        } catch (ConditionalCheckFailedException e) {
+            throw new InvalidRequestException(
+                    String.format("The import of crag %s is already being resumed.", cragId));
+        }
+        log.info(String.format("Resuming the import of crag %s after %d walls.", cragId, job.getImportedWallCount()));
+        try (CragImportDocumentReader documentReader = openDocument(job, document)) {
+            return run(job, documentReader);
+        }
+    }
+
+    public CragImportProgress getProgress(@NonNull String cragId) throws CragImportNotFoundException {
+        return CragImportJob.getProgress(getRecord(cragId));
+    }
+
+    private CragImportRecord getRecord(String cragId) throws CragImportNotFoundException {
+        return cragImportsDao.getImport(cragId)
+                .orElseThrow(() -> new CragImportNotFoundException(cragId));
+    }
+
+    // the record expires once it hasn't been saved for the retention time
+    private void save(CragImportJob job) {
+        cragImportsDao.saveImport(job.checkpoint(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) +
+                TimeUnit.MINUTES.toSeconds(jobRetentionMinutes)));
+    }
+
+    private void fail(CragImportJob job, String failureMessage) {
+        job.fail(failureMessage);
+        try {
+            save(job);
+        } catch (RuntimeException e) {
+            // the attempt has failed either way, and it can be resumed once the record looks stale
+            log.warn(String.format("Unable to save the failure of the import of crag %s.", job.getCragId()), e);
+        }
+    }
+
+    private CragImportDocumentReader openDocument(CragImportJob job, InputStream document) throws IOException {
+        try {
+            return new CragImportDocumentReader(objectMapper, document);
+        } catch (IOException e) {
+            fail(job, e.getMessage());
+            throw e;
+        }
+    }
+
+    private CragImportProgress run(CragImportJob job, CragImportDocumentReader documentReader)
+            throws CragImportFailedException {
+        try {
+            if (job.getImportedWallCount() > 0) {
+                skipImportedWalls(job, documentReader);
+                job.setLastWall(wallsDao.getResource(job.getRecord()
+                        .getLastWallId(), Optional.empty())
+                        .orElseThrow(() -> new IllegalStateException(
+                                String.format("Wall %s, the last wall imported, doesn't exist.", job.getRecord()
+                                        .getLastWallId()))));
+            }
+            if (!job.getPendingWallIds()
+                    .isEmpty()) {
+                deletePendingWalls(job);
+            }
+            for (Optional<CragImportJob.Group> maybeGroup = readGroup(job, documentReader); maybeGroup.isPresent();
+                 maybeGroup = readGroup(job, documentReader)) {
+                writeGroup(job, maybeGroup.get());
+            }
+        } catch (ApiException | IOException | RuntimeException e) {
+            log.warn(String.format("Importing crag %s failed.", job.getCragId()), e);
+            fail(job, e.getMessage());
+            throw new CragImportFailedException(job.getCragId(), job.getImportedWallCount(), e);
+        }
+        job.complete();
+        save(job);
+        CragImportProgress progress = job.getProgress();
+        log.info(String.format("Imported crag %s with %d walls, %d routes, %d pitches and %d points in %d ms.",
+                job.getCragId(), progress.getImportedWallCount(), progress.getImportedRouteCount(),
+                progress.getImportedPitchCount(), progress.getImportedPointCount(), progress.getDurationMillis()));
+        return progress;
+    }
+
+    private static void skipImportedWalls(CragImportJob job, CragImportDocumentReader documentReader)
+            throws ApiException, IOException {
+        documentReader.readCrag();
+        for (int i = 0; i < job.getImportedWallCount(); i++) {
+            if (!documentReader.readWall()
+                    .isPresent()) {
+                throw new InvalidRequestException(String.format(
+                        "The document has %d walls, but %d walls were already imported from the document the " +
+                                "import was started with.", i, job.getImportedWallCount()));
+            }
+        }
+    }
+
+    /**
+     * Deletes whatever was written of the group that was being written when the last attempt stopped, children first,
+     * so that the walls can be read again with new IDs.
+     */
+    private void deletePendingWalls(CragImportJob job) {
+        List<String> pendingWallIds = job.getPendingWallIds();
+        log.info(String.format("Deleting %d partly imported walls of crag %s.", pendingWallIds.size(),
+                job.getCragId()));
+        for (String wallId : pendingWallIds) {
+            for (Route route : routesDao.getResources(wallId, Optional.empty())) {
+                for (Pitch pitch : pitchesDao.getResources(route.getRouteId(), Optional.empty())) {
+                    pointsDao.deleteResources(pitch.getPitchId());
+                }
+                pitchesDao.deleteResources(route.getRouteId());
+            }
+            routesDao.deleteResources(wallId);
+            wallsDao.deleteResource(wallId);
+        }
+        Wall lastWall = job.getLastWall();
+        if (lastWall != null && lastWall.getNext() != null) {
+            // it may have been rewritten with the first of the deleted walls as its next wall
+            lastWall.setNext(null);
+            wallsDao.saveResource(lastWall);
+        }
+        job.pendingWallsDeleted();
+        save(job);
+    }
+
+    private void writeGroup(CragImportJob job, CragImportJob.Group group) {
+        job.groupStarted(group);
+        save(job);
+        // parents are written before their children, so no resource is ever written without its parent
+        wallsDao.saveResources(group.getWalls());
+        routesDao.saveResources(group.getRoutes());
+        pitchesDao.saveResources(group.getPitches());
+        pointsDao.saveResources(group.getPoints());
+        job.groupImported(group);
+        save(job);
+    }
+
+    private Optional<CragImportJob.Group> readGroup(CragImportJob job, CragImportDocumentReader documentReader)
+            throws ApiException, IOException {
+        CragImportJob.Group group = new CragImportJob.Group();
+        Wall previousWall = job.getLastWall();
+        int wallIndex = job.getImportedWallCount();
+        while (group.getResourceCount() < groupSize) {
+            Optional<ImportedWall> maybeImportedWall = documentReader.readWall();
+            if (!maybeImportedWall.isPresent()) {
+                break;
+            }
+            Wall wall = buildWall(maybeImportedWall.get(), job.getCragId(), wallIndex, group);
+            if (previousWall != null) {
+                previousWall.setNext(wall.getWallId());
+                if (previousWall == job.getLastWall()) {
+                    // it was written without a next wall, so it's written again
+                    group.getWalls()
+                            .add(previousWall);
+                }
+            }
+            group.addNewWall(wall);
+            previousWall = wall;
+            wallIndex++;
+        }
+        if (group.getNewWallCount() == 0) {
+            return Optional.empty();
+        }
+        List<Wall> newWalls = group.getNewWalls();
+        List<String> orderKeys = OrderKeys.after(job.getLastWall() == null ? null : job.getLastWall()
+                .getOrderKey(), newWalls.size());
+        for (int i = 0; i < newWalls.size(); i++) {
+            newWalls.get(i)
+                    .setOrderKey(orderKeys.get(i));
+        }
+        return Optional.of(group);
+    }
+
+    private Wall buildWall(ImportedWall importedWall, String cragId, int wallIndex, CragImportJob.Group group)
+            throws InvalidRequestException {
+        String location = String.format("Wall %d", wallIndex);
+        NewWall newWall = NewWall.builder()
+                .cragId(cragId)
+                .name(importedWall.getName())
+                .first(wallIndex == 0 ? true : null)
+                .build();
+        validate(newWall, location);
+        Wall wall = wallFactory.create(newWall);
+
+        List<ImportedRoute> importedRoutes = nullToEmpty(importedWall.getRoutes());
+        List<String> orderKeys = OrderKeys.spaced(importedRoutes.size());
+        Route[] routes = new Route[importedRoutes.size()];
+        // built backwards, because each route needs the ID of the one after it
+        for (int i = importedRoutes.size() - 1; i >= 0; i--) {
+            ImportedRoute importedRoute = importedRoutes.get(i);
+            NewRoute newRoute = NewRoute.builder()
+                    .wallId(wall.getWallId())
+                    .name(importedRoute.getName())
+                    .description(importedRoute.getDescription())
+                    .center(importedRoute.getCenter())
+                    .protection(importedRoute.getProtection())
+                    .style(importedRoute.getStyle())
+                    .first(i == 0 ? true : null)
+                    .next(i + 1 < routes.length ? routes[i + 1].getRouteId() : null)
+                    .orderKey(orderKeys.get(i))
+                    .build();
+            validate(newRoute, String.format("%s, route %d", location, i));
+            routes[i] = routeFactory.create(newRoute);
+        }
+        group.getRoutes()
+                .addAll(Arrays.asList(routes));
+        for (int i = 0; i < routes.length; i++) {
+            addPitches(routes[i], nullToEmpty(importedRoutes.get(i)
+                    .getPitches()), String.format("%s, route %d", location, i), group);
+        }
+        return wall;
+    }
+
+    private void addPitches(Route route, List<ImportedPitch> importedPitches, String location,
+                            CragImportJob.Group group) throws InvalidRequestException {
+        List<String> orderKeys = OrderKeys.spaced(importedPitches.size());
+        Pitch[] pitches = new Pitch[importedPitches.size()];
+        List<List<Point>> pitchPoints = new ArrayList<>(Collections.nCopies(pitches.length, null));
+        for (int i = importedPitches.size() - 1; i >= 0; i--) {
+            ImportedPitch importedPitch = importedPitches.get(i);
+            NewPitch newPitch = NewPitch.builder()
+                    .routeId(route.getRouteId())
+                    .description(importedPitch.getDescription())
+                    .grade(importedPitch.getGrade())
+                    .gradeModifier(importedPitch.getGradeModifier())
+                    .danger(importedPitch.getDanger())
+                    .anchors(importedPitch.getAnchors())
+                    .distance(importedPitch.getDistance())
+                    .first(i == 0 ? true : null)
+                    .next(i + 1 < pitches.length ? pitches[i + 1].getPitchId() : null)
+                    .orderKey(orderKeys.get(i))
+                    .build();
+            String pitchLocation = String.format("%s, pitch %d", location, i);
+            validate(newPitch, pitchLocation);
+            Pitch pitch = pitchFactory.create(newPitch);
+            pitches[i] = pitch.toBuilder()
+                    .gradeKey(GradeKey.packIfValid(route.getStyle(), pitch.getGrade(), pitch.getGradeModifier(),
+                            pitch.getDanger())
+                            .orElse(null))
+                    .build();
+            List<Point> points = buildPoints(pitches[i], nullToEmpty(importedPitch.getPoints()), pitchLocation);
+            pitches[i].setPackedPoints(packedPointStore.packNewPoints(points));
+            pitchPoints.set(i, points);
+        }
+        group.getPitches()
+                .addAll(Arrays.asList(pitches));
+        pitchPoints.forEach(group.getPoints()::addAll);
+
+        // the same grade the route would get if its pitches were added one at a time
+        GradeCounts gradeCounts = GradeCounts.fromPitches(Arrays.asList(pitches));
+        Grade highestGrade = GradeSorter.getHighestGrade(route, gradeCounts);
+        route.setGrade(highestGrade.getValue()
+                .orElse(null));
+        route.setGradeModifier(highestGrade.getModifier()
+                .orElse(null));
+        route.setDanger(GradeSorter.getHighestDanger(route, gradeCounts)
+                .orElse(null));
+        route.setGradeCounts(gradeCounts);
+    }
+
+    private List<Point> buildPoints(Pitch pitch, List<ImportedPoint> importedPoints, String location)
+            throws InvalidRequestException {
+        List<String> orderKeys = OrderKeys.spaced(importedPoints.size());
+        Point[] points = new Point[importedPoints.size()];
+        for (int i = importedPoints.size() - 1; i >= 0; i--) {
+            ImportedPoint importedPoint = importedPoints.get(i);
+            NewPoint newPoint = NewPoint.builder()
+                    .pitchId(pitch.getPitchId())
+                    .x(importedPoint.getX())
+                    .y(importedPoint.getY())
+                    .z(importedPoint.getZ())
+                    .first(i == 0 ? true : null)
+                    .next(i + 1 < points.length ? points[i + 1].getPointId() : null)
+                    .orderKey(orderKeys.get(i))
+                    .build();
+            validate(newPoint, String.format("%s, point %d", location, i));
+            points[i] = pointFactory.create(newPoint);
+        }
+        return Arrays.asList(points);
+    }
+
+    private <T> void validate(T object, String location) throws InvalidRequestException {
+        Set<ConstraintViolation<T>> constraintViolations = validator.validate(object);
+        if (!constraintViolations.isEmpty()) {
+            throw new InvalidRequestException(String.format("%s: %s", location, constraintViolations.iterator()
+                    .next()
+                    .getMessage()));
+        }
+    }
+
+    private static <T> List<T> nullToEmpty(@Nullable List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+}
@@ -0,0 +1,32 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.Optional;
+
+@Builder
+public class CragImportsDao {
+
+    @NonNull
+    private final DynamoDBMapper dynamoDBMapper;
+    // has to read consistently and save with versions, since every attempt reads the record it's about to claim
+    @NonNull
+    private final DynamoDBMapperConfig dynamoDBMapperConfig;
+
+    public Optional<CragImportRecord> getImport(@NonNull String cragId) {
+        return Optional.ofNullable(dynamoDBMapper.load(CragImportRecord.class, cragId, dynamoDBMapperConfig));
+    }
+
+    /**
+     * Saves an import, and sets its new version on it.
+     *
+     * @throws ConditionalCheckFailedException if the import was saved by someone else since it was read
+     */
+    public void saveImport(@NonNull CragImportRecord cragImportRecord) {
+        dynamoDBMapper.save(cragImportRecord, dynamoDBMapperConfig);
+    }
+}
@@ -0,0 +1,36 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.resource.pitch.Anchors;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder
+@Data
+@NoArgsConstructor
+public class ImportedPitch {
+
+    private String description;
+
+    private Integer grade;
+
+    @Nullable
+    private String gradeModifier;
+
+    @Nullable
+    private String danger;
+
+    @Nullable
+    private Anchors anchors;
+
+    @Nullable
+    private Double distance;
+
+    @Nullable
+    private List<ImportedPoint> points;
+}
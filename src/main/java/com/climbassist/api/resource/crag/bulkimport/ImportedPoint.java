@@ -0,0 +1,19 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder
+@Data
+@NoArgsConstructor
+public class ImportedPoint {
+
+    private Double x;
+
+    private Double y;
+
+    private Double z;
+}
@@ -0,0 +1,33 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.resource.route.Center;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder
+@Data
+@NoArgsConstructor
+public class ImportedRoute {
+
+    private String name;
+
+    @Nullable
+    private String description;
+
+    @Nullable
+    private Center center;
+
+    @Nullable
+    private String protection;
+
+    private String style;
+
+    @Nullable
+    private List<ImportedPitch> pitches;
+}
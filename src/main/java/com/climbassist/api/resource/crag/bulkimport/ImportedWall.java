@@ -0,0 +1,25 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * A wall in a crag import document. Its routes are listed in order, and it's validated as a {@code NewWall} once its
+ * crag ID is known.
+ */
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder
+@Data
+@NoArgsConstructor
+public class ImportedWall {
+
+    private String name;
+
+    @Nullable
+    private List<ImportedRoute> routes;
+}
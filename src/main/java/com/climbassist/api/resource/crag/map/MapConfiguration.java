@@ -0,0 +1,19 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import lombok.NonNull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import(CommonDaoConfiguration.class)
+public class MapConfiguration {
+
+    @Bean
+    public MapController mapController(@NonNull MapIndex mapIndex) {
+        return MapController.builder()
+                .mapIndex(mapIndex)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.ValidZoom;
+import com.climbassist.api.user.SessionUtils;
+import com.climbassist.api.user.UserData;
+import com.climbassist.common.geo.BoundingBox;
+import com.climbassist.metrics.Metrics;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.SessionAttribute;
+
+import java.util.List;
+import java.util.Optional;
+
+@Builder
+@RestController
+@Validated
+public class MapController {
+
+    private static final String INVALID_BOUNDING_BOX_MESSAGE =
+            "Bounding box must be a minimum longitude, minimum latitude, maximum longitude and maximum latitude.";
+
+    @NonNull
+    private final MapIndex mapIndex;
+
+    @Metrics(api = "GetMap")
+    @RequestMapping(path = "/v1/map", method = RequestMethod.GET)
+    public List<MapMarker> getMap(@RequestParam @NonNull List<Double> bbox, @ValidZoom @RequestParam int zoom,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+            @NonNull Optional<UserData> maybeUserData) throws InvalidRequestException {
+        boolean administrator = maybeUserData.isPresent() && maybeUserData.get()
+                .isAdministrator();
+        return mapIndex.getMarkers(buildBoundingBox(bbox), zoom, administrator);
+    }
+
+    // The box is in the same order as a GeoJSON bbox, and crosses the antimeridian if the minimum longitude is greater
+    // than the maximum.
+    private static BoundingBox buildBoundingBox(List<Double> bbox) throws InvalidRequestException {
+        if (bbox.size() != 4 || bbox.contains(null)) {
+            throw new InvalidRequestException(INVALID_BOUNDING_BOX_MESSAGE);
+        }
+        double minLongitude = bbox.get(0);
+        double minLatitude = bbox.get(1);
+        double maxLongitude = bbox.get(2);
+        double maxLatitude = bbox.get(3);
+        if (!isLongitude(minLongitude) || !isLongitude(maxLongitude) || !isLatitude(minLatitude) ||
+                !isLatitude(maxLatitude) || minLatitude > maxLatitude) {
+            throw new InvalidRequestException(INVALID_BOUNDING_BOX_MESSAGE);
+        }
+        return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    private static boolean isLongitude(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+
+    private static boolean isLatitude(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+}
@@ -0,0 +1,184 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.climbassist.api.resource.common.Resource;
+import com.climbassist.api.resource.common.ResourceChangeListener;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.common.geo.BoundingBox;
+import com.google.common.collect.ImmutableList;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This class keeps the location and parking of every crag in memory, clustered by {@link MarkerClusters}, so that a
+ * map viewport can be served without walking the resource hierarchy. The crags are scanned from the crags table in
+ * the background as soon as this is built and kept up to date by registering this as the {@link ResourceChangeListener}
+ * of the crags DAO. Other instances of the service don't notify it about their writes, so the table is also scanned
+ * again after a fixed amount of time.
+ * <p>
+ * Scans and cluster builds all happen on the scheduler, and each build replaces the clusters that queries read in one
+ * step, so queries never wait for either. Queries read the clusters from before a write until the build it queues is
+ * done, and return no markers until the first scan is done.
+ */
+@Slf4j
+public class MapIndex implements ResourceChangeListener {
+
+    @Value
+    private static class Views {
+
+        MarkerClusters publicView;
+        MarkerClusters administratorView;
+    }
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final DynamoDBMapperConfig dynamoDBMapperConfig;
+    // should run one task at a time, so that views are replaced in the order they're built
+    private final ScheduledExecutorService scheduler;
+    // guards the fields below, and is never held while scanning or building clusters
+    private final Object lock = new Object();
+    // null until the table is first scanned
+    private Map<String, Crag> crags;
+    // the crags written while the table is being scanned, which the scan may have missed, with an empty value if the
+    // crag was deleted
+    private Map<String, Optional<Crag>> writesDuringScan;
+    private boolean buildQueued;
+    // null until the clusters are first built
+    private volatile Views views;
+
+    @Builder
+    private MapIndex(@NonNull DynamoDBMapper dynamoDBMapper, @NonNull DynamoDBMapperConfig dynamoDBMapperConfig,
+                     @NonNull ScheduledExecutorService scheduler, long refreshIntervalSeconds) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.dynamoDBMapperConfig = dynamoDBMapperConfig;
+        if (refreshIntervalSeconds < 1) {
+            throw new IllegalArgumentException("Refresh interval must be greater than or equal to 1 second.");
+        }
+        this.scheduler = scheduler;
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the markers inside a bounding box at a zoom level. Crags in review are only returned to administrators.
+     */
+    public List<MapMarker> getMarkers(@NonNull BoundingBox boundingBox, int zoom, boolean administratorView) {
+        Views currentViews = views;
+        if (currentViews == null) {
+            return ImmutableList.of();
+        }
+        return (administratorView ? currentViews.getAdministratorView() : currentViews.getPublicView()).getMarkers(
+                boundingBox, zoom);
+    }
+
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+        if (resource instanceof Crag) {
+            write(resource.getId(), Optional.of((Crag) resource));
+        }
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+        write(resourceId, Optional.empty());
+    }
+
+    private void write(String cragId, @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<Crag> maybeCrag) {
+        synchronized (lock) {
+            if (writesDuringScan != null) {
+                writesDuringScan.put(cragId, maybeCrag);
+            }
+            if (crags == null) {
+                return;
+            }
+            if (maybeCrag.isPresent()) {
+                crags.put(cragId, maybeCrag.get());
+            }
+            else if (crags.remove(cragId) == null) {
+                return;
+            }
+            if (buildQueued) {
+                return;
+            }
+            buildQueued = true;
+        }
+        try {
+            scheduler.execute(this::buildViews);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                buildQueued = false;
+            }
+            log.error("Unable to queue a build of the map.", e);
+        }
+    }
+
+    // Exceptions would stop the scheduler from running this again, so they're logged instead.
+    void refresh() {
+        synchronized (lock) {
+            writesDuringScan = new HashMap<>();
+        }
+        Map<String, Crag> scannedCrags;
+        try {
+            scannedCrags = scanCrags();
+        } catch (RuntimeException e) {
+            log.error("Unable to scan the crags for the map.", e);
+            synchronized (lock) {
+                writesDuringScan = null;
+            }
+            return;
+        }
+        synchronized (lock) {
+            writesDuringScan.forEach((cragId, maybeCrag) -> {
+                if (maybeCrag.isPresent()) {
+                    scannedCrags.put(cragId, maybeCrag.get());
+                }
+                else {
+                    scannedCrags.remove(cragId);
+                }
+            });
+            writesDuringScan = null;
+            crags = scannedCrags;
+        }
+        buildViews();
+    }
+
+    private void buildViews() {
+        List<Crag> currentCrags;
+        synchronized (lock) {
+            buildQueued = false;
+            if (crags == null) {
+                return;
+            }
+            currentCrags = new ArrayList<>(crags.values());
+        }
+        try {
+            views = new Views(MarkerClusters.build(currentCrags.stream()
+                    .filter(crag -> State.PUBLIC.toString()
+                            .equals(crag.getState()))
+                    .collect(Collectors.toList())), MarkerClusters.build(currentCrags));
+        } catch (RuntimeException e) {
+            log.error("Unable to build the map.", e);
+        }
+    }
+
+    private Map<String, Crag> scanCrags() {
+        Map<String, Crag> scannedCrags = new HashMap<>();
+        dynamoDBMapper.scan(Crag.class, new DynamoDBScanExpression(), dynamoDBMapperConfig)
+                .stream()
+                .forEach(crag -> scannedCrags.put(crag.getCragId(), crag));
+        log.info(String.format("Scanned %d crags for the map.", scannedCrags.size()));
+        return scannedCrags;
+    }
+}
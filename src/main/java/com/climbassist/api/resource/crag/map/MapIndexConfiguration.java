@@ -0,0 +1,44 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.climbassist.common.dynamodb.DynamoDbConfiguration;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@Import(DynamoDbConfiguration.class)
+@PropertySource("classpath:application.properties")
+public class MapIndexConfiguration {
+
+    @Bean
+    public MapIndex mapIndex(@NonNull DynamoDBMapper dynamoDBMapper,
+            @NonNull ScheduledExecutorService mapIndexScheduler,
+            @Value("${cragsTableName}") @NonNull String cragsTableName,
+            @Value("${mapIndexRefreshIntervalSeconds}") long mapIndexRefreshIntervalSeconds) {
+        return MapIndex.builder()
+                .dynamoDBMapper(dynamoDBMapper)
+                .dynamoDBMapperConfig(DynamoDBMapperConfig.builder()
+                        .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(cragsTableName))
+                        .build())
+                .scheduler(mapIndexScheduler)
+                .refreshIntervalSeconds(mapIndexRefreshIntervalSeconds)
+                .build();
+    }
+
+    // shut down with the context, because Spring infers shutdown() as its destroy method
+    @Bean
+    public ScheduledExecutorService mapIndexScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("MapIndex-%d")
+                .setDaemon(true)
+                .build());
+    }
+}
@@ -0,0 +1,34 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class MapMarker {
+
+    public enum Type {
+        CRAG,
+        PARKING
+    }
+
+    private Type type;
+    private double latitude;
+    private double longitude;
+    // the number of crags or parking locations the marker stands for, more than 1 for a cluster
+    private int count;
+    // only present if the marker is a single crag or parking location
+    @Nullable
+    private String cragId;
+    // only present if the marker is a single crag
+    @Nullable
+    private String name;
+}
@@ -0,0 +1,170 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.Parking;
+import com.climbassist.common.geo.BoundingBox;
+import com.climbassist.common.geo.QuadTree;
+import com.climbassist.common.geo.WebMercator;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The markers for the locations and parking of a fixed set of crags, clustered for each zoom level of a web map. At
+ * each zoom level up to {@link #MAX_CLUSTER_ZOOM}, the map is divided into square cells a quarter of a tile across, and
+ * the markers of the same type in a cell are merged into one at their centroid. Each cell is split exactly in four at
+ * the next zoom level, so every level is built by merging the clusters of the level below it. The markers of each
+ * level are kept in a {@link QuadTree}, so a query only visits the markers near the viewport.
+ */
+public class MarkerClusters {
+
+    // markers are shown unclustered above this zoom level
+    static final int MAX_CLUSTER_ZOOM = 16;
+    // 2^2 cells across a 256 pixel tile, so merged markers are at most about 90 pixels apart
+    private static final int CELLS_PER_TILE_SHIFT = 2;
+
+    private static class Cluster {
+
+        private final MapMarker.Type type;
+        private int cellX;
+        private int cellY;
+        private double sumX;
+        private double sumY;
+        private int count;
+        // the original marker, kept while the cluster only has one
+        private MapMarker marker;
+
+        private Cluster(MapMarker.Type type, int cellX, int cellY) {
+            this.type = type;
+            this.cellX = cellX;
+            this.cellY = cellY;
+        }
+
+        private static Cluster of(MapMarker marker) {
+            double x = WebMercator.toX(marker.getLongitude());
+            double y = WebMercator.toY(marker.getLatitude());
+            int cellsAcross = 1 << (MAX_CLUSTER_ZOOM + CELLS_PER_TILE_SHIFT);
+            Cluster cluster = new Cluster(marker.getType(), Math.min((int) (x * cellsAcross), cellsAcross - 1),
+                    Math.min((int) (y * cellsAcross), cellsAcross - 1));
+            cluster.sumX = x;
+            cluster.sumY = y;
+            cluster.count = 1;
+            cluster.marker = marker;
+            return cluster;
+        }
+
+        private void add(Cluster cluster) {
+            sumX += cluster.sumX;
+            sumY += cluster.sumY;
+            count += cluster.count;
+            marker = count == 1 ? cluster.marker : null;
+        }
+
+        private MapMarker toMarker() {
+            if (marker != null) {
+                return marker;
+            }
+            return MapMarker.builder()
+                    .type(type)
+                    .latitude(WebMercator.toLatitude(sumY / count))
+                    .longitude(WebMercator.toLongitude(sumX / count))
+                    .count(count)
+                    .build();
+        }
+    }
+
+    // one tree for each zoom level up to MAX_CLUSTER_ZOOM, followed by one with every marker unclustered
+    private final List<QuadTree<MapMarker>> levels;
+
+    private MarkerClusters(List<QuadTree<MapMarker>> levels) {
+        this.levels = levels;
+    }
+
+    public static MarkerClusters build(@NonNull Collection<Crag> crags) {
+        List<Cluster> clusters = new ArrayList<>();
+        for (Crag crag : crags) {
+            if (crag.getLocation() != null) {
+                clusters.add(Cluster.of(MapMarker.builder()
+                        .type(MapMarker.Type.CRAG)
+                        .latitude(crag.getLocation()
+                                .getLatitude())
+                        .longitude(crag.getLocation()
+                                .getLongitude())
+                        .count(1)
+                        .cragId(crag.getCragId())
+                        .name(crag.getName())
+                        .build()));
+            }
+            if (crag.getParking() != null) {
+                for (Parking parking : crag.getParking()) {
+                    clusters.add(Cluster.of(MapMarker.builder()
+                            .type(MapMarker.Type.PARKING)
+                            .latitude(parking.getLatitude())
+                            .longitude(parking.getLongitude())
+                            .count(1)
+                            .cragId(crag.getCragId())
+                            .build()));
+                }
+            }
+        }
+
+        List<QuadTree<MapMarker>> levels = new ArrayList<>(Collections.nCopies(MAX_CLUSTER_ZOOM + 2, null));
+        levels.set(MAX_CLUSTER_ZOOM + 1, buildTree(clusters));
+        clusters = merge(clusters, 0);
+        levels.set(MAX_CLUSTER_ZOOM, buildTree(clusters));
+        for (int zoom = MAX_CLUSTER_ZOOM - 1; zoom >= 0; zoom--) {
+            clusters = merge(clusters, 1);
+            levels.set(zoom, buildTree(clusters));
+        }
+        return new MarkerClusters(levels);
+    }
+
+    /**
+     * Returns the markers inside a bounding box at a zoom level, in no particular order.
+     *
+     * @throws IllegalArgumentException if the zoom level is negative
+     */
+    public List<MapMarker> getMarkers(@NonNull BoundingBox boundingBox, int zoom) {
+        if (zoom < 0) {
+            throw new IllegalArgumentException("Zoom must be greater than or equal to 0.");
+        }
+        QuadTree<MapMarker> level = levels.get(Math.min(zoom, MAX_CLUSTER_ZOOM + 1));
+        // Y grows southward, so the maximum latitude is the minimum Y
+        double minY = WebMercator.toY(boundingBox.getMaxLatitude());
+        double maxY = WebMercator.toY(boundingBox.getMinLatitude());
+        double minX = WebMercator.toX(boundingBox.getMinLongitude());
+        double maxX = WebMercator.toX(boundingBox.getMaxLongitude());
+        if (minX <= maxX) {
+            return level.query(minX, minY, maxX, maxY);
+        }
+        // the box crosses the antimeridian
+        List<MapMarker> markers = level.query(minX, minY, 1, maxY);
+        markers.addAll(level.query(0, minY, maxX, maxY));
+        return markers;
+    }
+
+    // merges the clusters into the cells that are 2^shift times larger than their own
+    private static List<Cluster> merge(List<Cluster> clusters, int shift) {
+        Map<Long, Cluster> mergedClusters = new LinkedHashMap<>();
+        for (Cluster cluster : clusters) {
+            int cellX = cluster.cellX >> shift;
+            int cellY = cluster.cellY >> shift;
+            long key = ((long) cluster.type.ordinal() << 62) | ((long) cellX << 31) | cellY;
+            mergedClusters.computeIfAbsent(key, ignored -> new Cluster(cluster.type, cellX, cellY))
+                    .add(cluster);
+        }
+        return new ArrayList<>(mergedClusters.values());
+    }
+
+    private static QuadTree<MapMarker> buildTree(List<Cluster> clusters) {
+        QuadTree<MapMarker> quadTree = new QuadTree<>();
+        clusters.forEach(cluster -> quadTree.insert(cluster.sumX / cluster.count, cluster.sumY / cluster.count,
+                cluster.toMarker()));
+        return quadTree;
+    }
+}
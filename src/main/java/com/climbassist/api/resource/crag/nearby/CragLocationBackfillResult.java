@@ -0,0 +1,20 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class CragLocationBackfillResult {
+
+    // the number of crags whose entries were written
+    private int indexedCragCount;
+    // the ID to start the next page after, or null once every crag has been scanned
+    private String nextStartAfter;
+}
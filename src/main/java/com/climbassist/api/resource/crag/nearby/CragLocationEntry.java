@@ -0,0 +1,74 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.Location;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One crag, stored under the {@link com.climbassist.common.geo.Geohash} of its location at each of the precisions
+ * that are searched, with enough of the crag to be returned from a search without loading it.
+ */
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder(toBuilder = true)
+@Data
+@DynamoDBTable(tableName = "") // this is not used because we always use a TableNameOverride in the index
+@NoArgsConstructor
+public class CragLocationEntry {
+
+    public static final String CRAG_INDEX_NAME = "CragIndex";
+
+    @DynamoDBHashKey
+    private String geohash;
+
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = CRAG_INDEX_NAME)
+    @DynamoDBRangeKey
+    private String cragId;
+
+    private String subAreaId;
+
+    private String name;
+
+    private String state;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private Double zoom;
+
+    public static CragLocationEntry fromCrag(Crag crag) {
+        return CragLocationEntry.builder()
+                .cragId(crag.getCragId())
+                .subAreaId(crag.getSubAreaId())
+                .name(crag.getName())
+                .state(crag.getState())
+                .latitude(crag.getLocation()
+                        .getLatitude())
+                .longitude(crag.getLocation()
+                        .getLongitude())
+                .zoom(crag.getLocation()
+                        .getZoom())
+                .build();
+    }
+
+    public Crag toCrag() {
+        return Crag.builder()
+                .cragId(cragId)
+                .subAreaId(subAreaId)
+                .name(name)
+                .state(state)
+                .location(Location.builder()
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .zoom(zoom)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,278 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.Resource;
+import com.climbassist.api.resource.common.ResourceChangeListener;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.user.UserData;
+import com.climbassist.common.concurrent.CompletableFutures;
+import com.climbassist.common.geo.BoundingBox;
+import com.climbassist.common.geo.Geohash;
+import com.climbassist.common.geo.GreatCircle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * This class keeps a {@link CragLocationEntry} for every crag under the geohash of its location at several precisions,
+ * and finds the crags within a distance of a point. A search covers the circle's bounding box with the finest cells
+ * that keep the number of queries small, queries those cells concurrently and then drops the crags that are in a
+ * covering cell but outside of the circle. Entries are kept up to date by registering this as the
+ * {@link ResourceChangeListener} of the crags DAO, and crags written before this index existed are added by
+ * {@link #backfill}.
+ */
+@Builder
+@Slf4j
+public class CragLocationIndex implements ResourceChangeListener {
+
+    // from coarsest to finest, roughly 1250, 156, 39 and 5 kilometers across
+    static final List<Integer> PRECISIONS = ImmutableList.of(2, 3, 4, 5);
+    static final int MAX_COVERING_CELLS = 16;
+    private static final String NEXT_TOKEN_SEPARATOR = ":";
+    private static final String CRAG_ID_ATTRIBUTE_NAME = "cragId";
+    private static final Comparator<NearbyCrag> NEARBY_CRAG_COMPARATOR =
+            Comparator.comparingDouble(NearbyCrag::getDistance)
+                    .thenComparing(nearbyCrag -> nearbyCrag.getCrag()
+                            .getCragId());
+
+    @NonNull
+    private final DynamoDBMapper dynamoDBMapper;
+    @NonNull
+    private final DynamoDBMapperConfig dynamoDBMapperConfig;
+    @NonNull
+    private final DynamoDBMapperConfig cragsDynamoDBMapperConfig;
+    // runs the queries for the covering cells
+    @NonNull
+    private final Executor executor;
+
+    /**
+     * Returns one page of the crags within a distance of a point, nearest first. Crags in review are only returned to
+     * administrators.
+     *
+     * @param nextToken the next token of the previous page, or null for the first page
+     * @throws InvalidRequestException if the next token is malformed
+     */
+    public NearbyCragsResult search(double latitude, double longitude, double radiusKilometers, int limit,
+            @Nullable String nextToken,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData)
+            throws InvalidRequestException {
+        Optional<NearbyCrag> maybeLastNearbyCrag =
+                nextToken == null ? Optional.empty() : Optional.of(decodeNextToken(nextToken));
+        boolean administrator = maybeUserData.isPresent() && maybeUserData.get()
+                .isAdministrator();
+
+        BoundingBox boundingBox = BoundingBox.around(latitude, longitude, radiusKilometers);
+        int precision = choosePrecision(boundingBox);
+        List<CompletableFuture<List<CragLocationEntry>>> futures = Geohash.cover(boundingBox, precision)
+                .stream()
+                .map(geohash -> CompletableFuture.supplyAsync(() -> queryCell(geohash), executor))
+                .collect(Collectors.toList());
+
+        List<NearbyCrag> nearbyCrags = futures.stream()
+                .map(CompletableFutures::join)
+                .flatMap(List::stream)
+                .filter(entry -> administrator || State.PUBLIC.toString()
+                        .equals(entry.getState()))
+                .map(entry -> NearbyCrag.builder()
+                        .crag(entry.toCrag())
+                        .distance(GreatCircle.distanceKilometers(latitude, longitude, entry.getLatitude(),
+                                entry.getLongitude()))
+                        .build())
+                .filter(nearbyCrag -> nearbyCrag.getDistance() <= radiusKilometers)
+                .filter(nearbyCrag -> !maybeLastNearbyCrag.isPresent() ||
+                        NEARBY_CRAG_COMPARATOR.compare(nearbyCrag, maybeLastNearbyCrag.get()) > 0)
+                .sorted(NEARBY_CRAG_COMPARATOR)
+                .limit(limit + 1)
+                .collect(Collectors.toList());
+
+        if (nearbyCrags.size() <= limit) {
+            return NearbyCragsResult.builder()
+                    .crags(nearbyCrags)
+                    .build();
+        }
+        List<NearbyCrag> page = nearbyCrags.subList(0, limit);
+        return NearbyCragsResult.builder()
+                .crags(page)
+                .nextToken(encodeNextToken(page.get(limit - 1)))
+                .build();
+    }
+
+    /**
+     * Writes the entries of one page of the crags table, so that crags written before this index existed, or whose
+     * entries were lost, can be found. Each call scans at most limit crags, so the backfill is a series of short calls,
+     * each starting after the last crag the previous one scanned. Entries are written the same way as when a crag is
+     * saved, with one batch write for the page, so it can be run more than once while the crags are in use.
+     *
+     * @param startAfter the ID of the last crag scanned by the previous call, or null to start from the beginning
+     */
+    public CragLocationBackfillResult backfill(@Nullable String startAfter, int limit) {
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression().withLimit(limit);
+        if (startAfter != null) {
+            dynamoDBScanExpression.setExclusiveStartKey(
+                    ImmutableMap.of(CRAG_ID_ATTRIBUTE_NAME, new AttributeValue(startAfter)));
+        }
+        ScanResultPage<Crag> scanResultPage =
+                dynamoDBMapper.scanPage(Crag.class, dynamoDBScanExpression, cragsDynamoDBMapperConfig);
+        List<CragLocationEntry> entriesToSave = new ArrayList<>();
+        List<CragLocationEntry> entriesToDelete = new ArrayList<>();
+        scanResultPage.getResults()
+                .forEach(crag -> addEntries(crag, entriesToSave, entriesToDelete));
+        write(entriesToSave, entriesToDelete);
+        Map<String, AttributeValue> lastEvaluatedKey = scanResultPage.getLastEvaluatedKey();
+        String nextStartAfter = lastEvaluatedKey == null ? null : lastEvaluatedKey.get(CRAG_ID_ATTRIBUTE_NAME)
+                .getS();
+        log.info(String.format("Backfilled the location entries of %d crags, continuing after %s.",
+                scanResultPage.getResults()
+                        .size(), nextStartAfter));
+        return CragLocationBackfillResult.builder()
+                .indexedCragCount(scanResultPage.getResults()
+                        .size())
+                .nextStartAfter(nextStartAfter)
+                .build();
+    }
+
+    // The index is derived from the stored crags, so failing to update it shouldn't fail the write that has already
+    // happened.
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+        if (!(resource instanceof Crag)) {
+            return;
+        }
+        Crag crag = (Crag) resource;
+        try {
+            List<CragLocationEntry> entriesToSave = new ArrayList<>();
+            List<CragLocationEntry> entriesToDelete = new ArrayList<>();
+            addEntries(crag, entriesToSave, entriesToDelete);
+            write(entriesToSave, entriesToDelete);
+        } catch (AmazonClientException e) {
+            log.error(String.format("Unable to update crag location entries for %s.", crag.getCragId()), e);
+        }
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+        try {
+            write(ImmutableList.of(), loadEntryKeys(resourceId));
+        } catch (AmazonClientException e) {
+            log.error(String.format("Unable to delete crag location entries for %s.", resourceId), e);
+        }
+    }
+
+    // adds the entries of a crag at every precision, and the keys of its entries that are no longer at its location
+    private void addEntries(Crag crag, List<CragLocationEntry> entriesToSave, List<CragLocationEntry> entriesToDelete) {
+        List<CragLocationEntry> existingEntryKeys = loadEntryKeys(crag.getCragId());
+        List<CragLocationEntry> entries = new ArrayList<>();
+        if (crag.getLocation() != null) {
+            CragLocationEntry entry = CragLocationEntry.fromCrag(crag);
+            PRECISIONS.forEach(precision -> entries.add(entry.toBuilder()
+                    .geohash(Geohash.encode(entry.getLatitude(), entry.getLongitude(), precision))
+                    .build()));
+        }
+        Set<String> geohashes = entries.stream()
+                .map(CragLocationEntry::getGeohash)
+                .collect(Collectors.toSet());
+        entriesToSave.addAll(entries);
+        existingEntryKeys.stream()
+                .filter(entryKey -> !geohashes.contains(entryKey.getGeohash()))
+                .forEach(entriesToDelete::add);
+    }
+
+    private static int choosePrecision(BoundingBox boundingBox) {
+        for (int i = PRECISIONS.size() - 1; i > 0; i--) {
+            if (Geohash.countCovering(boundingBox, PRECISIONS.get(i)) <= MAX_COVERING_CELLS) {
+                return PRECISIONS.get(i);
+            }
+        }
+        return PRECISIONS.get(0);
+    }
+
+    // reads the pages of a cell one by one, so that a cell is loaded entirely on the executor thread
+    private List<CragLocationEntry> queryCell(String geohash) {
+        DynamoDBQueryExpression<CragLocationEntry> dynamoDBQueryExpression =
+                new DynamoDBQueryExpression<CragLocationEntry>().withHashKeyValues(CragLocationEntry.builder()
+                        .geohash(geohash)
+                        .build())
+                        .withConsistentRead(false);
+        List<CragLocationEntry> entries = new ArrayList<>();
+        do {
+            QueryResultPage<CragLocationEntry> queryResultPage =
+                    dynamoDBMapper.queryPage(CragLocationEntry.class, dynamoDBQueryExpression, dynamoDBMapperConfig);
+            entries.addAll(queryResultPage.getResults());
+            dynamoDBQueryExpression.setExclusiveStartKey(queryResultPage.getLastEvaluatedKey());
+        } while (dynamoDBQueryExpression.getExclusiveStartKey() != null);
+        return entries;
+    }
+
+    private List<CragLocationEntry> loadEntryKeys(String cragId) {
+        return dynamoDBMapper.query(CragLocationEntry.class,
+                new DynamoDBQueryExpression<CragLocationEntry>().withHashKeyValues(CragLocationEntry.builder()
+                        .cragId(cragId)
+                        .build())
+                        .withIndexName(CragLocationEntry.CRAG_INDEX_NAME)
+                        .withConsistentRead(false), dynamoDBMapperConfig)
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    private void write(List<CragLocationEntry> entriesToSave, List<CragLocationEntry> entriesToDelete) {
+        if (entriesToSave.isEmpty() && entriesToDelete.isEmpty()) {
+            return;
+        }
+        dynamoDBMapper.batchWrite(entriesToSave, entriesToDelete, dynamoDBMapperConfig)
+                .forEach(failedBatch -> log.error("Unable to write crag location entries.",
+                        failedBatch.getException()));
+    }
+
+    // Distances are recomputed the same way on every page, so the last crag of a page can be found again exactly.
+    private static String encodeNextToken(NearbyCrag nearbyCrag) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((nearbyCrag.getDistance() + NEXT_TOKEN_SEPARATOR + nearbyCrag.getCrag()
+                        .getCragId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static NearbyCrag decodeNextToken(String nextToken) throws InvalidRequestException {
+        String[] parts;
+        double distance;
+        try {
+            parts = new String(Base64.getUrlDecoder()
+                    .decode(nextToken), StandardCharsets.UTF_8).split(NEXT_TOKEN_SEPARATOR, 2);
+            distance = Double.parseDouble(parts[0]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Next token is not valid.");
+        }
+        if (parts.length != 2) {
+            throw new InvalidRequestException("Next token is not valid.");
+        }
+        return NearbyCrag.builder()
+                .crag(Crag.builder()
+                        .cragId(parts[1])
+                        .build())
+                .distance(distance)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.dynamodb.DynamoDbConfiguration;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import(DynamoDbConfiguration.class)
+@PropertySource("classpath:application.properties")
+public class CragLocationIndexConfiguration {
+
+    @Bean
+    public CragLocationIndex cragLocationIndex(@NonNull DynamoDBMapper dynamoDBMapper,
+            @NonNull BoundedExecutor daoExecutor,
+            @Value("${cragLocationIndexTableName}") @NonNull String cragLocationIndexTableName,
+            @Value("${cragsTableName}") @NonNull String cragsTableName) {
+        return CragLocationIndex.builder()
+                .dynamoDBMapper(dynamoDBMapper)
+                .dynamoDBMapperConfig(DynamoDBMapperConfig.builder()
+                        .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(cragLocationIndexTableName))
+                        .build())
+                .cragsDynamoDBMapperConfig(DynamoDBMapperConfig.builder()
+                        .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(cragsTableName))
+                        .build())
+                .executor(daoExecutor)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.climbassist.api.resource.crag.Crag;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class NearbyCrag {
+
+    private Crag crag;
+    // in kilometers
+    private double distance;
+}
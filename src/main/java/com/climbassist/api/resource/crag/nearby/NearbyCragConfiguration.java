@@ -0,0 +1,19 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import lombok.NonNull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import(CommonDaoConfiguration.class)
+public class NearbyCragConfiguration {
+
+    @Bean
+    public NearbyCragController nearbyCragController(@NonNull CragLocationIndex cragLocationIndex) {
+        return NearbyCragController.builder()
+                .cragLocationIndex(cragLocationIndex)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.ValidLimit;
+import com.climbassist.api.user.SessionUtils;
+import com.climbassist.api.user.UserData;
+import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
+import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.metrics.Metrics;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.SessionAttribute;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+
+@Builder
+@RestController
+@Validated
+public class NearbyCragController {
+
+    @NonNull
+    private final CragLocationIndex cragLocationIndex;
+
+    @Metrics(api = "ListNearbyCrags")
+    @RequestMapping(path = "/v1/crags/nearby", method = RequestMethod.GET)
+    public NearbyCragsResult listNearbyCrags(@ValidLatitude @RequestParam double lat,
+            @ValidLongitude @RequestParam double lon, @ValidRadius @RequestParam double radius,
+            @ValidLimit @RequestParam(required = false, defaultValue = "25") int limit,
+            @Nullable @RequestParam(required = false) String nextToken,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+            @NonNull Optional<UserData> maybeUserData) throws InvalidRequestException {
+        return cragLocationIndex.search(lat, lon, radius, limit, nextToken, maybeUserData);
+    }
+
+    @Metrics(api = "BackfillNearbyCrags")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/crags/nearby/backfill", method = RequestMethod.POST)
+    public CragLocationBackfillResult backfillNearbyCrags(@Nullable @RequestParam(required = false) String startAfter,
+            @ValidLimit @RequestParam(required = false, defaultValue = "100") int limit) {
+        return cragLocationIndex.backfill(startAfter, limit);
+    }
+}
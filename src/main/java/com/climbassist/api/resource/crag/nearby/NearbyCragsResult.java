@@ -0,0 +1,23 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class NearbyCragsResult {
+
+    private List<NearbyCrag> crags;
+    // present if there are more crags, in which case it's passed back to get the next page
+    @Nullable
+    private String nextToken;
+}
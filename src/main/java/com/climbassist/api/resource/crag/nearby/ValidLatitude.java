@@ -0,0 +1,27 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import org.hibernate.validator.constraints.ConstraintComposition;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@ConstraintComposition
+@Constraint(validatedBy = {})
+@DecimalMin(value = "-90", message = "Latitude must be between -90 and 90.")
+@DecimalMax(value = "90", message = "Latitude must be between -90 and 90.")
+public @interface ValidLatitude {
+
+    String message() default "";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
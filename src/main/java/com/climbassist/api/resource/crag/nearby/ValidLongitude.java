@@ -0,0 +1,27 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import org.hibernate.validator.constraints.ConstraintComposition;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@ConstraintComposition
+@Constraint(validatedBy = {})
+@DecimalMin(value = "-180", message = "Longitude must be between -180 and 180.")
+@DecimalMax(value = "180", message = "Longitude must be between -180 and 180.")
+public @interface ValidLongitude {
+
+    String message() default "";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -7,6 +7,8 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.CragNotFoundExceptionFactory;
 import com.climbassist.api.resource.crag.CragsDao;
@@ -29,7 +31,9 @@ public class PathConfiguration {
                                          @NonNull RecursiveResourceRetriever<PathPoint, Path> recursiveResourceRetriever,
                                          @NonNull ResourceIdGenerator resourceIdGenerator,
                                          @NonNull PathNotFoundExceptionFactory pathNotFoundExceptionFactory,
-                                         @NonNull CragNotFoundExceptionFactory cragNotFoundExceptionFactory) {
+                                         @NonNull CragNotFoundExceptionFactory cragNotFoundExceptionFactory,
+                                         @NonNull ResourceTreeLoader resourceTreeLoader,
+                                         @NonNull SubtreeSnapshotCache subtreeSnapshotCache) {
         ResourceControllerDelegate<Path, NewPath> resourceControllerDelegate =
                 ResourceControllerDelegate.<Path, NewPath>builder().resourceDao(pathsDao)
                         .createResourceResultFactory(new CreatePathResultFactory())
@@ -52,6 +56,8 @@ public class PathConfiguration {
                                 resourceControllerDelegate)
                                 .childResourceDaos(ImmutableSet.of(pathPointsDao))
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .resourceNotEmptyExceptionFactory(new PathNotEmptyExceptionFactory())
                                 .build())
                 .build();
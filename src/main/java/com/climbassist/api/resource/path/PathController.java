@@ -9,6 +9,7 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.ValidCragId;
 import com.climbassist.api.user.SessionUtils;
@@ -48,12 +49,12 @@ public class PathController {
 
     @Metrics(api = "GetPath")
     @RequestMapping(path = "/v1/paths/{pathId}", method = RequestMethod.GET)
-    public Path getResource(@ValidPathId @NonNull @PathVariable String pathId,
-                            @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                               @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                               @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(pathId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidPathId @NonNull @PathVariable String pathId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                       @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                       @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(pathId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListPaths")
@@ -1,6 +1,7 @@
 package com.climbassist.api.resource.pathpoint;
 
 import com.climbassist.api.resource.common.NewResourceWithParent;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.path.Path;
 import com.climbassist.api.resource.path.ValidPathId;
 import com.climbassist.api.resource.point.ValidNextPointId;
@@ -36,6 +37,10 @@ public class NewPathPoint implements NewResourceWithParent<PathPoint, Path> {
     @Nullable
     private String next;
 
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @JsonIgnore
     @Override
     public String getParentId() {
@@ -28,7 +28,8 @@ public class PathPointConfiguration {
                                                    @NonNull ResourceIdGenerator resourceIdGenerator,
                                                    @NonNull PathPointNotFoundExceptionFactory pathPointNotFoundExceptionFactory,
                                                    @NonNull PathNotFoundExceptionFactory pathNotFoundExceptionFactory,
-                                                   @NonNull OrderableListBuilder<PathPoint, Path> orderableListBuilder) {
+                                                   @NonNull OrderableListBuilder<PathPoint, Path> orderableListBuilder,
+                                                   @NonNull PathPolylineCache pathPolylineCache) {
         PathPointFactory pathPointFactory = PathPointFactory.builder()
                 .resourceIdGenerator(resourceIdGenerator)
                 .build();
@@ -55,15 +56,17 @@ public class PathPointConfiguration {
                                 .orderableListBuilder(orderableListBuilder)
                                 .build())
                 .batchResourceWithParentControllerDelegate(
-                        BatchResourceWithParentControllerDelegate.<PathPoint, NewPathPoint, Path, BatchNewPathPoint>builder().resourceControllerDelegate(
-                                resourceControllerDelegate)
+                        BatchResourceWithParentControllerDelegate.<PathPoint, NewPathPoint, Path, BatchNewPathPoint>builder().resourceFactory(
+                                pathPointFactory)
                                 .resourceDao(pathPointsDao)
                                 .parentResourceDao(pathsDao)
                                 .resourceNotFoundExceptionFactory(pathPointNotFoundExceptionFactory)
                                 .parentResourceNotFoundExceptionFactory(pathNotFoundExceptionFactory)
                                 .batchResourceFactory(pathPointFactory)
                                 .batchCreateResourceResultFactory(createPathPointResultFactory)
+                                .batchCreateListener(pathPolylineCache)
                                 .build())
+                .pathPolylineCache(pathPolylineCache)
                 .build();
     }
 }
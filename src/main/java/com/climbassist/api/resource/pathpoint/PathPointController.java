@@ -7,7 +7,9 @@ import com.climbassist.api.resource.common.ResourceControllerDelegate;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.ValidZoom;
 import com.climbassist.api.resource.common.batch.BatchCreateResourcesResult;
+import com.climbassist.api.resource.common.batch.BatchDeleteResourcesResult;
 import com.climbassist.api.resource.common.batch.BatchResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
 import com.climbassist.api.resource.path.Path;
@@ -29,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.SessionAttribute;
 
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Optional;
@@ -50,6 +53,8 @@ public class PathPointController {
     @NonNull
     private final BatchResourceWithParentControllerDelegate<PathPoint, NewPathPoint, Path, BatchNewPathPoint>
             batchResourceWithParentControllerDelegate;
+    @NonNull
+    private final PathPolylineCache pathPolylineCache;
 
     @Metrics(api = "GetPathPoint")
     @RequestMapping(path = "/v1/path-points/{pathPointId}", method = RequestMethod.GET)
@@ -72,6 +77,26 @@ public class PathPointController {
         return orderableResourceWithParentControllerDelegate.getResourcesForParent(pathId, ordered, maybeUserData);
     }
 
+    @Metrics(api = "GetPathPolyline")
+    @RequestMapping(path = "/v1/paths/{pathId}/path-points/polyline", method = RequestMethod.GET)
+    public PathPolyline getPolyline(@ValidPathId @NonNull @PathVariable String pathId,
+                                    @ValidZoom @Nullable @RequestParam(required = false) Integer zoom,
+                                    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                    @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                    @NonNull Optional<UserData> maybeUserData)
+            throws InvalidOrderingException, ResourceNotFoundException {
+        Optional<PathPolylines> maybePathPolylines = pathPolylineCache.get(pathId);
+        if (maybePathPolylines.isPresent()) {
+            return maybePathPolylines.get()
+                    .get(zoom);
+        }
+        long generation = pathPolylineCache.getGeneration();
+        List<PathPoint> pathPoints = orderableResourceWithParentControllerDelegate.getResourcesForParent(pathId, true,
+                maybeUserData);
+        return pathPolylineCache.put(pathId, pathPoints, generation)
+                .get(zoom);
+    }
+
     @Metrics(api = "CreatePathPoint")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/path-points", method = RequestMethod.PUT)
@@ -122,7 +147,7 @@ public class PathPointController {
     @Metrics(api = "BatchDeletePathPoints")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/paths/{pathId}/path-points", method = RequestMethod.DELETE)
-    public DeleteResourceResult batchDeleteResources(@NonNull @ValidPathId @PathVariable String pathId,
+    public BatchDeleteResourcesResult batchDeleteResources(@NonNull @ValidPathId @PathVariable String pathId,
                                                      @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                                      @SessionAttribute(
                                                              value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
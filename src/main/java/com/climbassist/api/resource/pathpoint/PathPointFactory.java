@@ -27,6 +27,7 @@ public class PathPointFactory extends ResourceFactory<PathPoint, NewPathPoint>
                 .longitude(newPathPoint.getLongitude())
                 .first(newPathPoint.getFirst())
                 .next(newPathPoint.getNext())
+                .orderKey(newPathPoint.getOrderKey())
                 .build();
     }
 
@@ -1,12 +1,12 @@
 package com.climbassist.api.resource.pathpoint;
 
-import com.climbassist.api.resource.common.ResourceWithParentDao;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
 import com.climbassist.api.resource.path.Path;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
 @SuperBuilder
-public class PathPointsDao extends ResourceWithParentDao<PathPoint, Path> {
+public class PathPointsDao extends OrderableResourceWithParentDao<PathPoint, Path> {
 
     @Override
     protected PathPoint buildResourceForDeletion(@NonNull String resourceId) {
@@ -27,6 +27,11 @@ public class PathPointsDao extends ResourceWithParentDao<PathPoint, Path> {
         return PathPoint.GLOBAL_SECONDARY_INDEX_NAME;
     }
 
+    @Override
+    protected String getOrderIndexName() {
+        return PathPoint.ORDER_INDEX_NAME;
+    }
+
     @Override
     protected Class<PathPoint> getResourceTypeClass() {
         return PathPoint.class;
@@ -0,0 +1,17 @@
+package com.climbassist.api.resource.pathpoint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class PathPolyline {
+
+    // the path's points, in order, in the encoded polyline format
+    private String polyline;
+    private int pointCount;
+}
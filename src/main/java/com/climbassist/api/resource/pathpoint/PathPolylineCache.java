@@ -0,0 +1,160 @@
+package com.climbassist.api.resource.pathpoint;
+
+import com.climbassist.api.resource.common.Resource;
+import com.climbassist.api.resource.common.ResourceChangeListener;
+import com.climbassist.api.resource.common.batch.BatchCreateListener;
+import com.climbassist.common.geo.GeoPoint;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This class caches the {@link PathPolylines} of each path. They're computed as soon as a path's points are created in
+ * a batch, which is how paths are normally drawn, and otherwise from the path's points on the first request for them.
+ * Writing any of a path's points drops its polylines. Deleted points are looked up in an index of the cached points,
+ * since only their ID is known by then. Other instances of the service don't share this cache and don't
+ * notify it about their writes, so polylines also expire after a fixed amount of time.
+ */
+@Slf4j
+public class PathPolylineCache implements ResourceChangeListener, BatchCreateListener<PathPoint> {
+
+    private static final String METRICS_COMPONENT = "PathPolylineCache";
+
+    private final MetricsEmitter metricsEmitter;
+    private final Cache<String, PathPolylines> cache;
+    private final Object writeLock = new Object();
+    // incremented on every invalidation, so that points loaded before a write are never cached after it
+    private long generation;
+    // the path of every point in the cache, guarded by the write lock
+    private final Map<String, String> pathIdsByPathPointId = new HashMap<>();
+
+    @Builder
+    private PathPolylineCache(@NonNull MetricsEmitter metricsEmitter, long maximumSize, long expireAfterWriteSeconds) {
+        this.metricsEmitter = metricsEmitter;
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    public Optional<PathPolylines> get(@NonNull String pathId) {
+        Optional<PathPolylines> maybePathPolylines = Optional.ofNullable(cache.getIfPresent(pathId));
+        metricsEmitter.emitCacheLookupMetrics(METRICS_COMPONENT, maybePathPolylines.isPresent());
+        return maybePathPolylines;
+    }
+
+    /**
+     * Returns a token which must be read before loading a path's points and passed to {@link #put}.
+     */
+    public long getGeneration() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Computes the polylines of a path and caches them, unless any path point has been written since the given
+     * generation.
+     *
+     * @param pathPoints the path's points, in order
+     * @param generation value of {@link #getGeneration()} from before the points started loading
+     * @return the polylines, whether or not they were cached
+     */
+    public PathPolylines put(@NonNull String pathId, @NonNull List<PathPoint> pathPoints, long generation) {
+        PathPolylines pathPolylines = buildPathPolylines(pathPoints);
+        synchronized (writeLock) {
+            if (this.generation == generation) {
+                PathPolylines previousPathPolylines = cache.asMap()
+                        .put(pathId, pathPolylines);
+                pathPolylines.getPathPointIds()
+                        .forEach(pathPointId -> pathIdsByPathPointId.put(pathPointId, pathId));
+                removeFromIndex(pathId, previousPathPolylines);
+            }
+            else {
+                log.debug(String.format("Not caching polylines of path %s because path points were written while " +
+                        "they were loading.", pathId));
+            }
+        }
+        return pathPolylines;
+    }
+
+    // The batch creates the whole path, with its first point first, so it's already in order. Building the polylines
+    // takes a while, so they go through the same generation check as loaded points in case the path is written to in
+    // the meantime.
+    @Override
+    public void onResourcesCreated(@NonNull String pathId, @NonNull List<PathPoint> pathPoints) {
+        put(pathId, pathPoints, getGeneration());
+    }
+
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+        if (resource instanceof PathPoint) {
+            invalidate(((PathPoint) resource).getPathId());
+        }
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+        // the ID is either a path, or a point whose path has to be found through the index
+        synchronized (writeLock) {
+            String pathId = pathIdsByPathPointId.get(resourceId);
+            invalidate(resourceId);
+            if (pathId != null) {
+                invalidate(pathId);
+            }
+        }
+    }
+
+    private static PathPolylines buildPathPolylines(List<PathPoint> pathPoints) {
+        return PathPolylines.build(pathPoints.stream()
+                .map(PathPoint::getPathPointId)
+                .collect(Collectors.toSet()), pathPoints.stream()
+                .map(pathPoint -> new GeoPoint(pathPoint.getLatitude(), pathPoint.getLongitude()))
+                .collect(Collectors.toList()));
+    }
+
+    private void invalidate(String pathId) {
+        synchronized (writeLock) {
+            generation++;
+            removeFromIndex(pathId, cache.asMap()
+                    .remove(pathId));
+        }
+    }
+
+    // Explicit removals and replacements update the index themselves, while holding the write lock.
+    private void onRemoval(RemovalNotification<String, PathPolylines> removalNotification) {
+        if (removalNotification.wasEvicted()) {
+            synchronized (writeLock) {
+                removeFromIndex(removalNotification.getKey(), removalNotification.getValue());
+            }
+        }
+    }
+
+    // Points which are also in the path's current polylines stay in the index, in case the path was cached again
+    // before an eviction got here.
+    private void removeFromIndex(String pathId, @Nullable PathPolylines removedPathPolylines) {
+        if (removedPathPolylines == null) {
+            return;
+        }
+        PathPolylines currentPathPolylines = cache.asMap()
+                .get(pathId);
+        removedPathPolylines.getPathPointIds()
+                .stream()
+                .filter(pathPointId -> currentPathPolylines == null || !currentPathPolylines.containsPathPoint(
+                        pathPointId))
+                .forEach(pathPointId -> pathIdsByPathPointId.remove(pathPointId, pathId));
+    }
+}
@@ -0,0 +1,27 @@
+package com.climbassist.api.resource.pathpoint;
+
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import(MetricsConfiguration.class)
+@PropertySource("classpath:application.properties")
+public class PathPolylineCacheConfiguration {
+
+    @Bean
+    public PathPolylineCache pathPolylineCache(@NonNull MetricsEmitter metricsEmitter,
+            @Value("${pathPolylineCacheMaximumSize}") long pathPolylineCacheMaximumSize,
+            @Value("${pathPolylineCacheExpireAfterWriteSeconds}") long pathPolylineCacheExpireAfterWriteSeconds) {
+        return PathPolylineCache.builder()
+                .metricsEmitter(metricsEmitter)
+                .maximumSize(pathPolylineCacheMaximumSize)
+                .expireAfterWriteSeconds(pathPolylineCacheExpireAfterWriteSeconds)
+                .build();
+    }
+}
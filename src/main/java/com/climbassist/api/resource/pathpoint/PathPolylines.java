@@ -0,0 +1,81 @@
+package com.climbassist.api.resource.pathpoint;
+
+import com.climbassist.common.geo.DouglasPeucker;
+import com.climbassist.common.geo.GeoPoint;
+import com.climbassist.common.geo.Polyline;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The encoded polylines of one path for every zoom level of a web map. Each one is simplified with
+ * {@link DouglasPeucker} so that no dropped point is more than half a pixel from the line that's drawn at that zoom
+ * level. They're all computed up front, since one run gives the points to keep at every tolerance.
+ */
+public class PathPolylines {
+
+    static final int MAX_ZOOM = 25;
+    // the size of a 256 pixel tile at zoom level 0, on the equator
+    private static final double METERS_PER_PIXEL_AT_ZOOM_0 = 156543.03392;
+    private static final double TOLERANCE_PIXELS = 0.5;
+
+    private final Set<String> pathPointIds;
+    private final List<PathPolyline> simplifiedPolylines;
+    private final PathPolyline polyline;
+
+    private PathPolylines(Set<String> pathPointIds, List<PathPolyline> simplifiedPolylines, PathPolyline polyline) {
+        this.pathPointIds = pathPointIds;
+        this.simplifiedPolylines = simplifiedPolylines;
+        this.polyline = polyline;
+    }
+
+    /**
+     * @param pathPointIds IDs of the path's points
+     * @param points       the path's points, in order
+     */
+    public static PathPolylines build(@NonNull Set<String> pathPointIds, @NonNull List<GeoPoint> points) {
+        double[] significances = DouglasPeucker.getSignificances(points);
+        // a pixel covers fewer meters away from the equator
+        double latitudeScale = points.isEmpty() ? 1 : Math.cos(Math.toRadians(points.get(0)
+                .getLatitude()));
+        ImmutableList.Builder<PathPolyline> simplifiedPolylines = ImmutableList.builder();
+        PathPolyline previousPolyline = null;
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            double toleranceMeters = TOLERANCE_PIXELS * METERS_PER_PIXEL_AT_ZOOM_0 * latitudeScale / (1L << zoom);
+            List<GeoPoint> simplifiedPoints = DouglasPeucker.simplify(points, significances, toleranceMeters);
+            // most paths stop changing a few levels before the maximum, so those levels share one polyline
+            if (previousPolyline == null || previousPolyline.getPointCount() != simplifiedPoints.size()) {
+                previousPolyline = buildPolyline(simplifiedPoints);
+            }
+            simplifiedPolylines.add(previousPolyline);
+        }
+        return new PathPolylines(ImmutableSet.copyOf(pathPointIds), simplifiedPolylines.build(),
+                buildPolyline(points));
+    }
+
+    /**
+     * Returns the polyline simplified for a zoom level, or with every point if there isn't one.
+     */
+    public PathPolyline get(@Nullable Integer zoom) {
+        return zoom == null ? polyline : simplifiedPolylines.get(Math.max(0, Math.min(zoom, MAX_ZOOM)));
+    }
+
+    public Set<String> getPathPointIds() {
+        return pathPointIds;
+    }
+
+    public boolean containsPathPoint(@NonNull String pathPointId) {
+        return pathPointIds.contains(pathPointId);
+    }
+
+    private static PathPolyline buildPolyline(List<GeoPoint> points) {
+        return PathPolyline.builder()
+                .polyline(Polyline.encode(points))
+                .pointCount(points.size())
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import com.climbassist.api.resource.common.ValidDescription;
 import com.climbassist.api.resource.common.grade.ValidDanger;
 import com.climbassist.api.resource.common.grade.ValidGrade;
 import com.climbassist.api.resource.common.grade.ValidGradeModifier;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.route.Route;
 import com.climbassist.api.resource.route.ValidRouteId;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -54,6 +55,10 @@ public class NewPitch implements NewResourceWithParent<Pitch, Route> {
     @Nullable
     private String next;
 
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @JsonIgnore
     @Override
     public String getParentId() {
@@ -3,6 +3,7 @@ package com.climbassist.api.resource.pitch;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIgnore;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverted;
 import com.climbassist.api.resource.common.InvalidChildException;
@@ -12,6 +13,8 @@ import com.climbassist.api.resource.common.grade.ValidDanger;
 import com.climbassist.api.resource.common.grade.ValidGrade;
 import com.climbassist.api.resource.common.grade.ValidGradeModifier;
 import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentAndChildren;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
+import com.climbassist.api.resource.point.PackedPoints;
 import com.climbassist.api.resource.point.Point;
 import com.climbassist.api.resource.route.Route;
 import com.climbassist.api.resource.route.ValidRouteId;
@@ -29,7 +32,7 @@ import java.util.Collection;
 import java.util.List;
 
 @AllArgsConstructor // required for @Builder, because of a bug
-@Builder
+@Builder(toBuilder = true)
 @Data
 @DynamoDBTable(tableName = "") // this is not used because we always use a TableNameOverride in the DAO
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -37,12 +40,13 @@ import java.util.List;
 public class Pitch implements OrderableResourceWithParentAndChildren<Pitch, Route> {
 
     public static final String GLOBAL_SECONDARY_INDEX_NAME = "RouteIndex";
+    public static final String ORDER_INDEX_NAME = "RouteOrderIndex";
 
     @DynamoDBHashKey
     @ValidPitchId
     private String pitchId;
 
-    @DynamoDBIndexHashKey(globalSecondaryIndexName = GLOBAL_SECONDARY_INDEX_NAME)
+    @DynamoDBIndexHashKey(globalSecondaryIndexNames = {GLOBAL_SECONDARY_INDEX_NAME, ORDER_INDEX_NAME})
     @ValidRouteId
     private String routeId;
 
@@ -60,6 +64,11 @@ public class Pitch implements OrderableResourceWithParentAndChildren<Pitch, Rout
     @Nullable
     private String danger;
 
+    // the GradeKey of this pitch, which depends on the style of its route, so it's set by whoever writes the pitch
+    @JsonIgnore
+    @Nullable
+    private Integer gradeKey;
+
     @DynamoDBTypeConverted(converter = Anchors.TypeConverter.class)
     @Valid
     @Nullable
@@ -76,9 +85,20 @@ public class Pitch implements OrderableResourceWithParentAndChildren<Pitch, Rout
     @Nullable
     private String next;
 
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = ORDER_INDEX_NAME)
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @DynamoDBIgnore
     private List<Point> points;
 
+    // a copy of the points in order, kept up to date by PackedPointStore, or null if they have to be queried
+    @DynamoDBTypeConverted(converter = PackedPoints.TypeConverter.class)
+    @JsonIgnore
+    @Nullable
+    private PackedPoints packedPoints;
+
     @DynamoDBIgnore
     @JsonIgnore
     @Override
@@ -1,5 +1,7 @@
 package com.climbassist.api.resource.pitch;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.climbassist.api.ApiConfiguration;
 import com.climbassist.api.resource.common.CommonDaoConfiguration;
 import com.climbassist.api.resource.common.OrderableResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ResourceControllerDelegate;
@@ -9,12 +11,15 @@ import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.point.Point;
 import com.climbassist.api.resource.point.PointsDao;
 import com.climbassist.api.resource.route.Route;
 import com.climbassist.api.resource.route.RouteNotFoundExceptionFactory;
 import com.climbassist.api.resource.route.RoutesDao;
 import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
 import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
 import org.springframework.context.annotation.Bean;
@@ -22,7 +27,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({CommonConfiguration.class, CommonDaoConfiguration.class, RecursiveResourceRetrieverConfiguration.class})
+@Import({ApiConfiguration.class, CommonConfiguration.class, CommonDaoConfiguration.class,
+        RecursiveResourceRetrieverConfiguration.class})
 public class PitchConfiguration {
 
     @Bean
@@ -31,7 +37,12 @@ public class PitchConfiguration {
                                            @NonNull ResourceIdGenerator resourceIdGenerator,
                                            @NonNull PitchNotFoundExceptionFactory pitchNotFoundExceptionFactory,
                                            @NonNull RouteNotFoundExceptionFactory routeNotFoundExceptionFactory,
-                                           @NonNull RecursiveResourceRetriever<Point, Pitch> recursiveResourceRetriever) {
+                                           @NonNull RecursiveResourceRetriever<Point, Pitch> recursiveResourceRetriever,
+                                           @NonNull ResourceTreeLoader resourceTreeLoader,
+                                           @NonNull SubtreeSnapshotCache subtreeSnapshotCache,
+                                           @NonNull BoundedExecutor asyncRequestExecutor,
+                                           @NonNull AmazonDynamoDB amazonDynamoDB,
+                                           @NonNull OrderableListBuilder<Pitch, Route> orderableListBuilder) {
         PitchFactory pitchFactory = PitchFactory.builder()
                 .resourceIdGenerator(resourceIdGenerator)
                 .build();
@@ -53,13 +64,15 @@ public class PitchConfiguration {
                 .orderableResourceWithParentControllerDelegate(
                         OrderableResourceWithParentControllerDelegate.<Pitch, NewPitch, Route>builder().resourceWithParentControllerDelegate(
                                 resourceWithParentControllerDelegate)
-                                .orderableListBuilder(new OrderableListBuilder<>())
+                                .orderableListBuilder(orderableListBuilder)
                                 .build())
                 .resourceWithChildrenControllerDelegate(
                         ResourceWithChildrenControllerDelegate.<Pitch, NewPitch>builder().childResourceDaos(
                                 ImmutableSet.of(pointsDao))
                                 .resourceNotEmptyExceptionFactory(pitchNotEmptyExceptionFactory)
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .build())
                 .routesDao(routesDao)
@@ -70,9 +83,12 @@ public class PitchConfiguration {
                 .routeNotFoundExceptionFactory(routeNotFoundExceptionFactory)
                 .createPitchResultFactory(createPitchResultFactory)
                 .pitchNotEmptyExceptionFactory(pitchNotEmptyExceptionFactory)
-                .pitchConsistencyWaiter(PitchConsistencyWaiter.builder()
+                .routeGradeUpdater(RouteGradeUpdater.builder()
+                        .routesDao(routesDao)
                         .pitchesDao(pitchesDao)
+                        .amazonDynamoDB(amazonDynamoDB)
                         .build())
+                .asyncRequestExecutor(asyncRequestExecutor)
                 .build();
     }
 }
@@ -3,16 +3,14 @@ package com.climbassist.api.resource.pitch;
 import com.climbassist.api.resource.common.CreateResourceResult;
 import com.climbassist.api.resource.common.DeleteResourceResult;
 import com.climbassist.api.resource.common.OrderableResourceWithParentControllerDelegate;
-import com.climbassist.api.resource.common.ResourceNotEmptyException;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
-import com.climbassist.api.resource.common.grade.Grade;
-import com.climbassist.api.resource.common.grade.GradeSorter;
+import com.climbassist.api.resource.common.grade.GradeKey;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.point.PointsDao;
-import com.climbassist.api.resource.route.Center;
 import com.climbassist.api.resource.route.Route;
 import com.climbassist.api.resource.route.RouteNotFoundExceptionFactory;
 import com.climbassist.api.resource.route.RoutesDao;
@@ -21,6 +19,7 @@ import com.climbassist.api.user.SessionUtils;
 import com.climbassist.api.user.UserData;
 import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
 import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.common.concurrent.CompletableFutures;
 import com.climbassist.metrics.Metrics;
 import lombok.Builder;
 import lombok.NonNull;
@@ -37,8 +36,8 @@ import org.springframework.web.bind.annotation.SessionAttribute;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Builder
 @RestController
@@ -68,16 +67,18 @@ public class PitchController {
     @NonNull
     private final PitchNotEmptyExceptionFactory pitchNotEmptyExceptionFactory;
     @NonNull
-    private final PitchConsistencyWaiter pitchConsistencyWaiter;
+    private final RouteGradeUpdater routeGradeUpdater;
+    @NonNull
+    private final Executor asyncRequestExecutor;
 
     @Metrics(api = "GetPitch")
     @RequestMapping(path = "/v1/pitches/{pitchId}", method = RequestMethod.GET)
-    public Pitch getResource(@ValidPitchId @NonNull @PathVariable String pitchId,
-                             @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                             @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                             @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(pitchId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidPitchId @NonNull @PathVariable String pitchId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                       @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                       @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(pitchId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListPitches")
@@ -91,123 +92,97 @@ public class PitchController {
         return orderableResourceWithParentControllerDelegate.getResourcesForParent(routeId, ordered, maybeUserData);
     }
 
+    /**
+     * Pitch writes also recompute the grade of their parent route(s) and save it in the same transaction, so they run
+     * on the async request executor instead of holding on to a servlet thread.
+     */
     @Metrics(api = "CreatePitch")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/pitches", method = RequestMethod.PUT)
-    public CreateResourceResult<Pitch> createResource(@NonNull @Valid @RequestBody NewPitch newPitch,
-                                                      @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                                      @SessionAttribute(
-                                                              value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                                      @NonNull Optional<UserData> maybeUserData)
-            throws ResourceNotFoundException, PitchConsistencyException, InterruptedException {
-        // TODO this might get wonky once we start restricting permissions to specific resources
-        Route route = routesDao.getResource(newPitch.getParentId(), maybeUserData)
-                .orElseThrow(() -> routeNotFoundExceptionFactory.create(newPitch.getParentId()));
-        Pitch pitch = pitchFactory.create(newPitch);
-        pitchesDao.saveResource(pitch);
-        pitchConsistencyWaiter.waitForConsistency(route.getRouteId(), pitch, true, maybeUserData);
-        updateRouteGrade(route, maybeUserData);
-        return createPitchResultFactory.create(pitch.getId());
+    public CompletableFuture<CreateResourceResult<Pitch>> createResource(
+            @NonNull @Valid @RequestBody NewPitch newPitch,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+            @NonNull Optional<UserData> maybeUserData) {
+        return CompletableFutures.supplyAsync(() -> {
+            // TODO this might get wonky once we start restricting permissions to specific resources
+            Route route = routesDao.getResource(newPitch.getParentId(), maybeUserData)
+                    .orElseThrow(() -> routeNotFoundExceptionFactory.create(newPitch.getParentId()));
+            Pitch pitch = withGradeKey(pitchFactory.create(newPitch), route);
+            routeGradeUpdater.savePitch(pitch, new RouteGradeUpdater.PitchChanges().pitchAdded(route, pitch),
+                    maybeUserData);
+            return createPitchResultFactory.create(pitch.getId());
+        }, asyncRequestExecutor);
     }
 
     @Metrics(api = "UpdatePitch")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/pitches", method = RequestMethod.POST)
-    public UpdateResourceResult updateResource(@NonNull @Valid @RequestBody Pitch pitch,
-                                               @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                               @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                               @NonNull Optional<UserData> maybeUserData)
-            throws ResourceNotFoundException, PitchConsistencyException, InterruptedException {
-        // TODO this might get wonky once we start restricting permissions to specific resources
-        Pitch oldPitch = pitchesDao.getResource(pitch.getPitchId(), maybeUserData)
-                .orElseThrow(() -> pitchNotFoundExceptionFactory.create(pitch.getId()));
-        Route newRoute = routesDao.getResource(pitch.getRouteId(), maybeUserData)
-                .orElseThrow(() -> routeNotFoundExceptionFactory.create(pitch.getRouteId()));
-        pitchesDao.saveResource(pitch);
-        pitchConsistencyWaiter.waitForConsistency(newRoute.getRouteId(), pitch, true, maybeUserData);
-        updateRouteGrade(newRoute, maybeUserData);
-        // update the route that the pitch used to belong to, if it has been moved to a new route
-        if (!oldPitch.getRouteId()
-                .equals(pitch.getRouteId())) {
-            Optional<Route> maybeOldRoute = routesDao.getResource(oldPitch.getRouteId(), maybeUserData);
-            if (maybeOldRoute.isPresent()) {
-                log.info(String.format("The route for pitch %s has changed. Updating the grades for the old route %s.",
-                        pitch.getPitchId(), maybeOldRoute.get()
-                                .getRouteId()));
-                pitchConsistencyWaiter.waitForConsistency(maybeOldRoute.get()
-                        .getRouteId(), pitch, false, maybeUserData);
-                updateRouteGrade(maybeOldRoute.get(), maybeUserData);
+    public CompletableFuture<UpdateResourceResult> updateResource(@NonNull @Valid @RequestBody Pitch pitch,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+            @NonNull Optional<UserData> maybeUserData) {
+        return CompletableFutures.supplyAsync(() -> {
+            // TODO this might get wonky once we start restricting permissions to specific resources
+            Pitch oldPitch = pitchesDao.getResource(pitch.getPitchId(), maybeUserData)
+                    .orElseThrow(() -> pitchNotFoundExceptionFactory.create(pitch.getId()));
+            Route newRoute = routesDao.getResource(pitch.getRouteId(), maybeUserData)
+                    .orElseThrow(() -> routeNotFoundExceptionFactory.create(pitch.getRouteId()));
+            Pitch pitchWithGradeKey = withGradeKey(pitch, newRoute);
+            RouteGradeUpdater.PitchChanges pitchChanges = new RouteGradeUpdater.PitchChanges();
+            if (oldPitch.getRouteId()
+                    .equals(pitch.getRouteId())) {
+                pitchChanges.pitchRemoved(newRoute, oldPitch);
             }
-        }
-        return UpdateResourceResult.builder()
-                .successful(true)
-                .build();
+            // update the route that the pitch used to belong to, if it has been moved to a new route
+            else {
+                Optional<Route> maybeOldRoute = routesDao.getResource(oldPitch.getRouteId(), maybeUserData);
+                if (maybeOldRoute.isPresent()) {
+                    log.info(String.format(
+                            "The route for pitch %s has changed. Updating the grades for the old route %s.",
+                            pitch.getPitchId(), maybeOldRoute.get()
+                                    .getRouteId()));
+                    pitchChanges.pitchRemoved(maybeOldRoute.get(), oldPitch);
+                }
+            }
+            routeGradeUpdater.savePitch(pitchWithGradeKey, pitchChanges.pitchAdded(newRoute, pitchWithGradeKey),
+                    maybeUserData);
+            return UpdateResourceResult.builder()
+                    .successful(true)
+                    .build();
+        }, asyncRequestExecutor);
     }
 
     @Metrics(api = "DeletePitch")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/pitches/{pitchId}", method = RequestMethod.DELETE)
-    public DeleteResourceResult deleteResource(@NonNull @ValidPitchId @PathVariable String pitchId,
-                                               @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                               @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                               @NonNull Optional<UserData> maybeUserData)
-            throws ResourceNotFoundException, ResourceNotEmptyException, PitchConsistencyException,
-            InterruptedException {
-        // TODO this might get wonky once we start restricting permissions to specific resources
-        Pitch pitch = pitchesDao.getResource(pitchId, maybeUserData)
-                .orElseThrow(() -> pitchNotFoundExceptionFactory.create(pitchId));
-        if (!pointsDao.getResources(pitchId, maybeUserData)
-                .isEmpty()) {
-            throw pitchNotEmptyExceptionFactory.create(pitchId);
-        }
-        Optional<Route> maybeRoute = routesDao.getResource(pitch.getRouteId(), maybeUserData);
-        pitchesDao.deleteResource(pitchId);
-        if (maybeRoute.isPresent()) {
-            pitchConsistencyWaiter.waitForConsistency(maybeRoute.get()
-                    .getRouteId(), pitch, false, maybeUserData);
-            updateRouteGrade(maybeRoute.get(), maybeUserData);
-        }
-        return DeleteResourceResult.builder()
-                .successful(true)
-                .build();
+    public CompletableFuture<DeleteResourceResult> deleteResource(@NonNull @ValidPitchId @PathVariable String pitchId,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+            @NonNull Optional<UserData> maybeUserData) {
+        return CompletableFutures.supplyAsync(() -> {
+            // TODO this might get wonky once we start restricting permissions to specific resources
+            Pitch pitch = pitchesDao.getResource(pitchId, maybeUserData)
+                    .orElseThrow(() -> pitchNotFoundExceptionFactory.create(pitchId));
+            if (!pointsDao.getResources(pitchId, maybeUserData)
+                    .isEmpty()) {
+                throw pitchNotEmptyExceptionFactory.create(pitchId);
+            }
+            RouteGradeUpdater.PitchChanges pitchChanges = new RouteGradeUpdater.PitchChanges();
+            routesDao.getResource(pitch.getRouteId(), maybeUserData)
+                    .ifPresent(route -> pitchChanges.pitchRemoved(route, pitch));
+            routeGradeUpdater.deletePitch(pitchId, pitchChanges, maybeUserData);
+            return DeleteResourceResult.builder()
+                    .successful(true)
+                    .build();
+        }, asyncRequestExecutor);
     }
 
-    private void updateRouteGrade(Route route, @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-            Optional<UserData> maybeUserData) {
-        Set<Pitch> pitches = pitchesDao.getResources(route.getRouteId(), maybeUserData);
-        log.info(
-                String.format("Updating route %s after modifying child pitch. Child pitches are %s", route.getRouteId(),
-                        pitches.stream()
-                                .map(Pitch::getId)
-                                .collect(Collectors.toSet())));
-        Grade highestGrade = GradeSorter.getHighestGrade(route, pitches);
-        log.info(String.format("Highest grade for route %s is %s.", route.getRouteId(), highestGrade));
-        Optional<String> highestDanger = GradeSorter.getHighestDanger(route, pitches);
-        log.info(String.format("Highest danger for route %s is %s.", route.getRouteId(), highestDanger));
-        Route newRoute = Route.builder()
-                .routeId(route.getRouteId())
-                .wallId(route.getWallId())
-                .name(route.getName())
-                .description(route.getDescription())
-                .grade(highestGrade.getValue()
-                        .orElse(null))
-                .gradeModifier(highestGrade.getModifier()
+    private static Pitch withGradeKey(Pitch pitch, Route route) {
+        return pitch.toBuilder()
+                .gradeKey(GradeKey.packIfValid(route.getStyle(), pitch.getGrade(), pitch.getGradeModifier(),
+                        pitch.getDanger())
                         .orElse(null))
-                .danger(highestDanger.orElse(null))
-                .center(route.getCenter() == null ? null : Center.builder()
-                        .x(route.getCenter()
-                                .getX())
-                        .y(route.getCenter()
-                                .getY())
-                        .z(route.getCenter()
-                                .getZ())
-                        .build())
-                .mainImageLocation(route.getMainImageLocation())
-                .protection(route.getProtection())
-                .style(route.getStyle())
-                .first(route.isFirst())
-                .next(route.getNext())
                 .build();
-        routesDao.saveResource(newRoute);
     }
 }
@@ -34,6 +34,7 @@ public class PitchFactory extends ResourceFactory<Pitch, NewPitch> {
                 .distance(newPitch.getDistance())
                 .first(newPitch.getFirst())
                 .next(newPitch.getNext())
+                .orderKey(newPitch.getOrderKey())
                 .build();
     }
 }
\ No newline at end of file
@@ -1,12 +1,115 @@
 package com.climbassist.api.resource.pitch;
 
-import com.climbassist.api.resource.common.ResourceWithParentDao;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
+import com.climbassist.api.resource.point.PackedPoints;
 import com.climbassist.api.resource.route.Route;
+import com.google.common.collect.ImmutableMap;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @SuperBuilder
-public class PitchesDao extends ResourceWithParentDao<Pitch, Route> { // pitches ain't shit
+@Slf4j
+public class PitchesDao extends OrderableResourceWithParentDao<Pitch, Route> { // pitches ain't shit
+
+    private static final String PACKED_POINTS_ATTRIBUTE_NAME = "packedPoints";
+
+    // the mapper can only write whole items, so partial updates go through the client directly
+    @NonNull
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    /**
+     * Writes the packed points of a pitch with a single conditional update, leaving the rest of the pitch untouched. The
+     * update only succeeds if the pitch still has the packed points that the new ones were computed from.
+     *
+     * @param packedPoints         the new packed points, or null to remove them
+     * @param previousPackedPoints the packed points the new ones were computed from, or null if the pitch had none
+     * @return the updated pitch, or empty if the pitch was deleted or its packed points were changed concurrently
+     */
+    public Optional<Pitch> updatePackedPoints(@NonNull String pitchId, @Nullable PackedPoints packedPoints,
+            @Nullable PackedPoints previousPackedPoints) {
+        DynamoDBMapperTableModel<Pitch> tableModel = dynamoDBMapper.getTableModel(Pitch.class);
+        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
+        String conditionExpression = "attribute_exists(pitchId) AND ";
+        if (previousPackedPoints == null) {
+            conditionExpression += "attribute_not_exists(#packedPoints)";
+        }
+        else {
+            conditionExpression += "#packedPoints = :previousPackedPoints";
+            expressionAttributeValues.put(":previousPackedPoints", tableModel.field(PACKED_POINTS_ATTRIBUTE_NAME)
+                    .convert(previousPackedPoints));
+        }
+        return updatePackedPoints(pitchId, packedPoints, conditionExpression, expressionAttributeValues);
+    }
+
+    /**
+     * Removes the packed points of a pitch whatever they are, so that its points are queried from the points table.
+     */
+    public void clearPackedPoints(@NonNull String pitchId) {
+        updatePackedPoints(pitchId, null, "attribute_exists(pitchId)", new HashMap<>());
+    }
+
+    /**
+     * Reads a pitch with a strongly consistent read, bypassing the resource cache. This is for retrying conditional
+     * writes, where a stale copy would just fail again.
+     */
+    public Optional<Pitch> getResourceConsistently(@NonNull String pitchId) {
+        return Optional.ofNullable(dynamoDBMapper.load(Pitch.class, pitchId, DynamoDBMapperConfig.builder()
+                .withTableNameOverride(dynamoDBMapperConfig.getTableNameOverride())
+                .withConsistentReads(DynamoDBMapperConfig.ConsistentReads.CONSISTENT)
+                .build()));
+    }
+
+    private Optional<Pitch> updatePackedPoints(String pitchId, PackedPoints packedPoints, String conditionExpression,
+            Map<String, AttributeValue> expressionAttributeValues) {
+        DynamoDBMapperTableModel<Pitch> tableModel = dynamoDBMapper.getTableModel(Pitch.class);
+        String updateExpression;
+        if (packedPoints == null) {
+            updateExpression = "REMOVE #packedPoints";
+        }
+        else {
+            updateExpression = "SET #packedPoints = :packedPoints";
+            expressionAttributeValues.put(":packedPoints", tableModel.field(PACKED_POINTS_ATTRIBUTE_NAME)
+                    .convert(packedPoints));
+        }
+
+        UpdateItemResult updateItemResult;
+        try {
+            updateItemResult = amazonDynamoDB.updateItem(new UpdateItemRequest().withTableName(
+                    dynamoDBMapperConfig.getTableNameOverride()
+                            .getTableName())
+                    .withKey(tableModel.convertKey(Pitch.builder()
+                            .pitchId(pitchId)
+                            .build()))
+                    .withUpdateExpression(updateExpression)
+                    .withConditionExpression(conditionExpression)
+                    .withExpressionAttributeNames(ImmutableMap.of("#packedPoints", PACKED_POINTS_ATTRIBUTE_NAME))
+                    .withExpressionAttributeValues(
+                            expressionAttributeValues.isEmpty() ? null : expressionAttributeValues)
+                    .withReturnValues(ReturnValue.ALL_NEW));
+        } catch (ConditionalCheckFailedException e) {
+            log.info(String.format("Packed points of pitch %s were changed concurrently.", pitchId));
+            resourceCache.invalidate(pitchId);
+            return Optional.empty();
+        }
+        Pitch updatedPitch = tableModel.unconvert(updateItemResult.getAttributes());
+        resourceCache.invalidate(pitchId);
+        resourceChangeListener.onResourceSaved(updatedPitch);
+        return Optional.of(updatedPitch);
+    }
 
     @Override
     protected Pitch buildResourceForDeletion(@NonNull String resourceId) {
@@ -27,6 +130,11 @@ public class PitchesDao extends ResourceWithParentDao<Pitch, Route> { // pitches
         return Pitch.GLOBAL_SECONDARY_INDEX_NAME;
     }
 
+    @Override
+    protected String getOrderIndexName() {
+        return Pitch.ORDER_INDEX_NAME;
+    }
+
     @Override
     protected Class<Pitch> getResourceTypeClass() {
         return Pitch.class;
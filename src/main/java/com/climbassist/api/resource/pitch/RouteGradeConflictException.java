@@ -0,0 +1,24 @@
+package com.climbassist.api.resource.pitch;
+
+import com.climbassist.api.ApiException;
+import lombok.NonNull;
+import org.springframework.http.HttpStatus;
+
+public class RouteGradeConflictException extends ApiException {
+
+    public RouteGradeConflictException(@NonNull String routeId) {
+        super(String.format(
+                "The grade of route %s could not be updated because its pitches were being modified concurrently. " +
+                        "The pitch was not modified, so the request can be retried.", routeId));
+    }
+
+    @Override
+    public String getType() {
+        return "RouteGradeConflictException";
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
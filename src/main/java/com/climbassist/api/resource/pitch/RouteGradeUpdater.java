@@ -0,0 +1,210 @@
+package com.climbassist.api.resource.pitch;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.climbassist.api.resource.common.grade.Grade;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.common.grade.GradeSorter;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.user.UserData;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class writes pitches together with the grade and danger of the routes they change. Each route stores how many of
+ * its pitches have each grade, modifier and danger, so a change only has to adjust those counts instead of reloading
+ * every pitch. The pitch write and the conditional updates of the new counts are one transaction, so the counts never
+ * drift from the pitches: if another request changed the counts first, nothing is written and the transaction is
+ * retried from the stored counts.
+ */
+@Builder
+@Slf4j
+class RouteGradeUpdater {
+
+    /**
+     * The pitch changes made by one request. Changes are grouped by route, so that each route is written once no matter
+     * how many of its pitches changed.
+     */
+    static class PitchChanges {
+
+        @Getter
+        private static class RouteChanges {
+
+            // replaced with the stored route when a transaction has to be retried
+            private Route route;
+            private final List<Pitch> removedPitches = new ArrayList<>();
+            private final List<Pitch> addedPitches = new ArrayList<>();
+
+            private RouteChanges(Route route) {
+                this.route = route;
+            }
+        }
+
+        private final Map<String, RouteChanges> routeChanges = new LinkedHashMap<>();
+
+        PitchChanges pitchAdded(@NonNull Route route, @NonNull Pitch pitch) {
+            getRouteChanges(route).addedPitches.add(pitch);
+            return this;
+        }
+
+        /**
+         * @param pitch the pitch as it was before it was removed from the route
+         */
+        PitchChanges pitchRemoved(@NonNull Route route, @NonNull Pitch pitch) {
+            getRouteChanges(route).removedPitches.add(pitch);
+            return this;
+        }
+
+        private RouteChanges getRouteChanges(Route route) {
+            return routeChanges.computeIfAbsent(route.getRouteId(), routeId -> new RouteChanges(route));
+        }
+    }
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @NonNull
+    private final RoutesDao routesDao;
+    @NonNull
+    private final PitchesDao pitchesDao;
+    // runs the transactions, which the mapper can't do across tables with different name overrides
+    @NonNull
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    void savePitch(@NonNull Pitch pitch, @NonNull PitchChanges pitchChanges,
+                   @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData)
+            throws RouteGradeConflictException {
+        write(pitchesDao.buildSaveTransactWriteItem(pitch), () -> pitchesDao.resourceSaved(pitch), pitchChanges,
+                maybeUserData);
+    }
+
+    void deletePitch(@NonNull String pitchId, @NonNull PitchChanges pitchChanges,
+                     @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData)
+            throws RouteGradeConflictException {
+        write(pitchesDao.buildDeleteTransactWriteItem(pitchId), () -> pitchesDao.resourceDeleted(pitchId),
+                pitchChanges, maybeUserData);
+    }
+
+    /**
+     * Writes a pitch and the grades of its routes in one transaction. Nothing is written when it's canceled, so the
+     * routes are read again and the changes applied to their stored counts on the next attempt. Routes that were
+     * deleted in the meantime are left out of it.
+     */
+    private void write(TransactWriteItem pitchWrite, Runnable onPitchWritten, PitchChanges pitchChanges,
+                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<UserData> maybeUserData)
+            throws RouteGradeConflictException {
+        List<PitchChanges.RouteChanges> routeChanges = new ArrayList<>(pitchChanges.routeChanges.values());
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            List<TransactWriteItem> transactWriteItems = new ArrayList<>();
+            transactWriteItems.add(pitchWrite);
+            for (PitchChanges.RouteChanges changes : routeChanges) {
+                transactWriteItems.add(buildGradeUpdate(changes, maybeUserData));
+            }
+            try {
+                amazonDynamoDB.transactWriteItems(
+                        new TransactWriteItemsRequest().withTransactItems(transactWriteItems));
+            } catch (TransactionCanceledException e) {
+                log.info(String.format("Routes %s were changed concurrently.", routeChanges.stream()
+                        .map(changes -> changes.getRoute()
+                                .getRouteId())
+                        .collect(Collectors.toList())));
+                routeChanges = reloadRoutes(routeChanges);
+                continue;
+            }
+            onPitchWritten.run();
+            routeChanges.forEach(changes -> routesDao.gradeUpdated(changes.getRoute()
+                    .getRouteId()));
+            return;
+        }
+        throw new RouteGradeConflictException(routeChanges.stream()
+                .map(changes -> changes.getRoute()
+                        .getRouteId())
+                .collect(Collectors.joining(", ")));
+    }
+
+    private TransactWriteItem buildGradeUpdate(PitchChanges.RouteChanges routeChanges,
+                                               @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                                       Optional<UserData> maybeUserData) {
+        Route route = routeChanges.getRoute();
+        GradeCounts previousGradeCounts = route.getGradeCounts();
+        GradeCounts gradeCounts = previousGradeCounts == null ? countPitches(routeChanges, maybeUserData) :
+                applyChanges(previousGradeCounts, routeChanges);
+        Grade highestGrade = GradeSorter.getHighestGrade(route, gradeCounts);
+        Optional<String> highestDanger = GradeSorter.getHighestDanger(route, gradeCounts);
+        log.info(String.format("Updating route %s to grade %s and danger %s.", route.getRouteId(), highestGrade,
+                highestDanger));
+        return routesDao.buildGradeUpdateTransactWriteItem(route.toBuilder()
+                .grade(highestGrade.getValue()
+                        .orElse(null))
+                .gradeModifier(highestGrade.getModifier()
+                        .orElse(null))
+                .danger(highestDanger.orElse(null))
+                .gradeCounts(gradeCounts)
+                .build(), previousGradeCounts);
+    }
+
+    private List<PitchChanges.RouteChanges> reloadRoutes(List<PitchChanges.RouteChanges> routeChanges) {
+        List<PitchChanges.RouteChanges> reloadedRouteChanges = new ArrayList<>();
+        for (PitchChanges.RouteChanges changes : routeChanges) {
+            Optional<Route> maybeRoute = routesDao.getResourceConsistently(changes.getRoute()
+                    .getRouteId());
+            if (maybeRoute.isPresent()) {
+                changes.route = maybeRoute.get();
+                reloadedRouteChanges.add(changes);
+            }
+            else {
+                log.info(String.format("Route %s was deleted before its grade could be updated.", changes.getRoute()
+                        .getRouteId()));
+            }
+        }
+        return reloadedRouteChanges;
+    }
+
+    private static GradeCounts applyChanges(GradeCounts previousGradeCounts, PitchChanges.RouteChanges routeChanges) {
+        GradeCounts gradeCounts = previousGradeCounts.copy();
+        routeChanges.getRemovedPitches()
+                .forEach(gradeCounts::removePitch);
+        routeChanges.getAddedPitches()
+                .forEach(gradeCounts::addPitch);
+        return gradeCounts;
+    }
+
+    /**
+     * Counts every pitch of a route, for routes which don't have counts yet. The pitch being written isn't in the
+     * RouteIndex GSI that pitches are listed from yet, and the index is eventually consistent, so it may not reflect
+     * earlier changes either. The changed pitches replace whatever versions of them the index returned.
+     */
+    private GradeCounts countPitches(PitchChanges.RouteChanges routeChanges,
+                                     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                             Optional<UserData> maybeUserData) {
+        Set<String> changedPitchIds = Stream.concat(routeChanges.getRemovedPitches()
+                .stream(), routeChanges.getAddedPitches()
+                .stream())
+                .map(Pitch::getPitchId)
+                .collect(Collectors.toSet());
+        List<Pitch> pitches = pitchesDao.getResources(routeChanges.getRoute()
+                .getRouteId(), maybeUserData)
+                .stream()
+                .filter(pitch -> !changedPitchIds.contains(pitch.getPitchId()))
+                .collect(Collectors.toList());
+        pitches.addAll(routeChanges.getAddedPitches());
+        log.info(String.format("Counting grades of route %s from pitches %s.", routeChanges.getRoute()
+                .getRouteId(), pitches.stream()
+                .map(Pitch::getId)
+                .collect(Collectors.toSet())));
+        return GradeCounts.fromPitches(pitches);
+    }
+}
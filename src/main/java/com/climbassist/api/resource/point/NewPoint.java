@@ -1,6 +1,7 @@
 package com.climbassist.api.resource.point;
 
 import com.climbassist.api.resource.common.NewResourceWithParent;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.pitch.ValidPitchId;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -35,6 +36,10 @@ public class NewPoint implements NewResourceWithParent<Point, Pitch> {
     @ValidNextPointId
     private String next;
 
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @JsonIgnore
     @Override
     public String getParentId() {
@@ -0,0 +1,42 @@
+package com.climbassist.api.resource.point;
+
+import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableSet;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Retrieves the points of a pitch from its {@link PackedPoints}, which takes one read of the pitch instead of a query
+ * of the points table and a pass to put them in order. Pitches without packed points are left to another retriever.
+ */
+@Builder
+public class PackedPointRetriever implements RecursiveResourceRetriever<Point, Pitch> {
+
+    @NonNull
+    private final PackedPointStore packedPointStore;
+    @NonNull
+    private final RecursiveResourceRetriever<Point, Pitch> recursiveResourceRetriever;
+
+    @Override
+    public Collection<Point> getChildren(@NonNull String parentId, @NonNull Optional<UserData> maybeUserData) {
+        return packedPointStore.getPoints(parentId, maybeUserData)
+                .<Collection<Point>>map(points -> points)
+                .orElseGet(() -> recursiveResourceRetriever.getChildren(parentId, maybeUserData));
+    }
+
+    @Override
+    public Set<RecursiveResourceRetriever<?, ?>> getRecursiveResourceRetrievers() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public Class<Point> getChildClass() {
+        return Point.class;
+    }
+}
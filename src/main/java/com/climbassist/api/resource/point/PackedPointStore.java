@@ -0,0 +1,197 @@
+package com.climbassist.api.resource.point;
+
+import com.climbassist.api.resource.common.batch.BatchCreateListener;
+import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.user.UserData;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This class keeps the {@link PackedPoints} of pitches up to date as their points change, and reads them back. The
+ * points table is still where single points are read and written, so a pitch without packed points is read with a
+ * query of the points table instead. That's the case for pitches whose points are in the middle of being reordered,
+ * since only a valid order can be packed.
+ *
+ * <p>Changes are applied to the packed points that are already stored, and written with a conditional update which is
+ * retried from the stored points if another request changed them first. A pitch without packed points starts from a
+ * query of its points, merged with the points that were just written. If the packed points can't be written, because
+ * of conflicts or because a request failed, they're removed, so they're never read without a change that was made.
+ * When order keys are enabled, packed points are only used if every point was packed with its order key, and they're
+ * put in order by their keys.
+ */
+@Builder
+@Slf4j
+public class PackedPointStore implements BatchCreateListener<Point> {
+
+    /**
+     * The point changes made by one request. Changes are grouped by pitch, so that each pitch is written once no matter
+     * how many of its points changed.
+     */
+    @EqualsAndHashCode
+    static final class PointChanges {
+
+        @EqualsAndHashCode
+        private static final class PitchChanges {
+
+            private final Set<String> removedPointIds = new HashSet<>();
+            private final Map<String, Point> savedPoints = new HashMap<>();
+        }
+
+        private final Map<String, PitchChanges> pitchChanges = new LinkedHashMap<>();
+
+        PointChanges pointSaved(@NonNull Point point) {
+            getPitchChanges(point.getPitchId()).savedPoints.put(point.getPointId(), point);
+            return this;
+        }
+
+        /**
+         * @param point the point as it was before it was removed from its pitch
+         */
+        PointChanges pointRemoved(@NonNull Point point) {
+            getPitchChanges(point.getPitchId()).removedPointIds.add(point.getPointId());
+            return this;
+        }
+
+        private PitchChanges getPitchChanges(String pitchId) {
+            return pitchChanges.computeIfAbsent(pitchId, ignored -> new PitchChanges());
+        }
+    }
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @NonNull
+    private final PitchesDao pitchesDao;
+    @NonNull
+    private final PointsDao pointsDao;
+    @NonNull
+    private final OrderableListBuilder<Point, Pitch> orderableListBuilder;
+    // if this is false, points are neither packed nor read from packed points
+    private final boolean enabled;
+    // if this is true, unpacked points carry their order keys instead of first and next attributes
+    private final boolean orderKeysEnabled;
+
+    /**
+     * Returns the points of a pitch in order with a single read of the pitch, or empty if the pitch doesn't exist or
+     * its points aren't packed.
+     */
+    public Optional<List<Point>> getPoints(@NonNull String pitchId,
+                                           @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull
+                                                   Optional<UserData> maybeUserData) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return pitchesDao.getResource(pitchId, maybeUserData)
+                .map(Pitch::getPackedPoints)
+                .filter(this::isUsable)
+                .map(packedPoints -> packedPoints.unpack(pitchId, orderKeysEnabled));
+    }
+
+    /**
+     * Packs the points of a pitch that's being written along with them, so that it doesn't have to be updated after
+     * they're written. Returns null if points aren't packed.
+     *
+     * @param points the points in order
+     */
+    @Nullable
+    public PackedPoints packNewPoints(@NonNull List<Point> points) {
+        return enabled ? PackedPoints.pack(points) : null;
+    }
+
+    void updatePackedPoints(@NonNull PointChanges pointChanges) {
+        if (!enabled) {
+            return;
+        }
+        pointChanges.pitchChanges.forEach(this::updatePackedPoints);
+    }
+
+    /**
+     * Removes the packed points of a pitch, for changes that can't be applied to them, like deleting every point of the
+     * pitch based on a query that might not have seen the newest points.
+     */
+    void clearPackedPoints(@NonNull String pitchId) {
+        if (enabled) {
+            pitchesDao.clearPackedPoints(pitchId);
+        }
+    }
+
+    // The points are the ones that were saved, so they have the first, next and order key attributes they were given.
+    @Override
+    public void onResourcesCreated(@NonNull String pitchId, @NonNull List<Point> points) {
+        PointChanges pointChanges = new PointChanges();
+        points.forEach(pointChanges::pointSaved);
+        updatePackedPoints(pointChanges);
+    }
+
+    private void updatePackedPoints(String pitchId, PointChanges.PitchChanges pitchChanges) {
+        try {
+            if (tryToUpdatePackedPoints(pitchId, pitchChanges)) {
+                return;
+            }
+            log.warn(String.format("Giving up on packing the points of pitch %s after %d conflicts.", pitchId,
+                    MAX_ATTEMPTS));
+        } catch (RuntimeException e) {
+            // the points have already been written, so the request only fails if the packed points can't be removed
+            log.warn(String.format("Unable to pack the points of pitch %s.", pitchId), e);
+        }
+        // the stored points would be missing this change, so readers have to go back to the points table
+        pitchesDao.clearPackedPoints(pitchId);
+    }
+
+    /**
+     * @return false if every attempt conflicted with another request
+     */
+    private boolean tryToUpdatePackedPoints(String pitchId, PointChanges.PitchChanges pitchChanges) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Optional<Pitch> maybePitch = pitchesDao.getResourceConsistently(pitchId);
+            if (!maybePitch.isPresent()) {
+                log.info(String.format("Pitch %s was deleted before its points could be packed.", pitchId));
+                return true;
+            }
+            PackedPoints previousPackedPoints = maybePitch.get()
+                    .getPackedPoints();
+            Collection<Point> previousPoints = previousPackedPoints == null || !isUsable(previousPackedPoints) ?
+                    pointsDao.getResources(pitchId, Optional.empty()) :
+                    previousPackedPoints.unpack(pitchId, orderKeysEnabled);
+            Map<String, Point> points = new HashMap<>();
+            previousPoints.forEach(point -> points.put(point.getPointId(), point));
+            pitchChanges.removedPointIds.forEach(points::remove);
+            points.putAll(pitchChanges.savedPoints);
+
+            PackedPoints packedPoints;
+            try {
+                packedPoints = PackedPoints.pack(orderableListBuilder.buildList(new HashSet<>(points.values())));
+            } catch (InvalidOrderingException e) {
+                log.info(String.format("Not packing the points of pitch %s because they aren't in a valid order.",
+                        pitchId), e);
+                packedPoints = null;
+            }
+            if (Objects.equals(packedPoints, previousPackedPoints) ||
+                    pitchesDao.updatePackedPoints(pitchId, packedPoints, previousPackedPoints)
+                            .isPresent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // points packed before order keys were migrated can't be put in order by them
+    private boolean isUsable(PackedPoints packedPoints) {
+        return !orderKeysEnabled || packedPoints.hasOrderKeys();
+    }
+}
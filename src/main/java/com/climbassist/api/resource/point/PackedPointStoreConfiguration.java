@@ -0,0 +1,33 @@
+package com.climbassist.api.resource.point;
+
+import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
+import com.climbassist.api.resource.common.ordering.OrderableListBuilderConfiguration;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import({CommonDaoConfiguration.class, OrderableListBuilderConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class PackedPointStoreConfiguration {
+
+    @Bean
+    public PackedPointStore packedPointStore(@NonNull PitchesDao pitchesDao, @NonNull PointsDao pointsDao,
+            @NonNull OrderableListBuilder<Point, Pitch> pointOrderableListBuilder,
+            @Value("${packedPointsEnabled}") boolean packedPointsEnabled,
+            @Value("${orderKeysEnabled}") boolean orderKeysEnabled) {
+        return PackedPointStore.builder()
+                .pitchesDao(pitchesDao)
+                .pointsDao(pointsDao)
+                .orderableListBuilder(pointOrderableListBuilder)
+                .enabled(packedPointsEnabled)
+                .orderKeysEnabled(orderKeysEnabled)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.climbassist.api.resource.point;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.google.common.collect.ImmutableList;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The points of a pitch in order, packed into a single binary attribute of the pitch so that they're read along with
+ * it instead of with a query of the points table. Each point takes 12 bytes for its coordinates, which are stored as
+ * 32 bit floats with about 7 significant digits, plus its ID and its order key. The first and next attributes of the
+ * points aren't stored, because they follow from the order.
+ *
+ * <p>The layout is a format version byte and the number of points, then the x, y and z of every point, then the ID of
+ * every point as a length-prefixed UTF-8 string, then the order key of every point the same way, with a length of 0
+ * for a point without one. Points packed with the first version of the format have no order keys.
+ */
+@EqualsAndHashCode
+@ToString
+public class PackedPoints {
+
+    public static class TypeConverter implements DynamoDBTypeConverter<ByteBuffer, PackedPoints> {
+
+        @Override
+        public ByteBuffer convert(PackedPoints packedPoints) {
+            return packedPoints.toByteBuffer();
+        }
+
+        @Override
+        public PackedPoints unconvert(ByteBuffer packedPoints) {
+            return fromByteBuffer(packedPoints.duplicate());
+        }
+    }
+
+    private static final byte FORMAT_VERSION_WITHOUT_ORDER_KEYS = 1;
+    private static final byte FORMAT_VERSION = 2;
+    private static final int COORDINATES_PER_POINT = 3;
+
+    private final float[] coordinates;
+    private final List<String> pointIds;
+    // null for points without an order key
+    private final List<String> orderKeys;
+
+    private PackedPoints(float[] coordinates, List<String> pointIds, List<String> orderKeys) {
+        this.coordinates = coordinates;
+        this.pointIds = pointIds;
+        this.orderKeys = orderKeys;
+    }
+
+    /**
+     * @param points the points of a pitch, in order
+     */
+    public static PackedPoints pack(@NonNull List<Point> points) {
+        float[] coordinates = new float[points.size() * COORDINATES_PER_POINT];
+        List<String> pointIds = new ArrayList<>(points.size());
+        String[] orderKeys = new String[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            Point point = points.get(i);
+            coordinates[i * COORDINATES_PER_POINT] = point.getX()
+                    .floatValue();
+            coordinates[i * COORDINATES_PER_POINT + 1] = point.getY()
+                    .floatValue();
+            coordinates[i * COORDINATES_PER_POINT + 2] = point.getZ()
+                    .floatValue();
+            pointIds.add(point.getPointId());
+            orderKeys[i] = point.getOrderKey();
+        }
+        return new PackedPoints(coordinates, ImmutableList.copyOf(pointIds),
+                Collections.unmodifiableList(Arrays.asList(orderKeys)));
+    }
+
+    /**
+     * Returns the points in order, as they would be in the points table. When order keys are enabled, the points carry
+     * their order keys and aren't linked to each other, because first and next aren't maintained in that mode.
+     * Otherwise they're linked to each other by their first and next attributes.
+     */
+    public List<Point> unpack(@NonNull String pitchId, boolean orderKeysEnabled) {
+        List<Point> points = new ArrayList<>(pointIds.size());
+        for (int i = 0; i < pointIds.size(); i++) {
+            Point.PointBuilder pointBuilder = Point.builder()
+                    .pointId(pointIds.get(i))
+                    .pitchId(pitchId)
+                    .x((double) coordinates[i * COORDINATES_PER_POINT])
+                    .y((double) coordinates[i * COORDINATES_PER_POINT + 1])
+                    .z((double) coordinates[i * COORDINATES_PER_POINT + 2])
+                    .orderKey(orderKeys.get(i));
+            if (!orderKeysEnabled) {
+                pointBuilder.first(i == 0 ? true : null)
+                        .next(i + 1 < pointIds.size() ? pointIds.get(i + 1) : null);
+            }
+            points.add(pointBuilder.build());
+        }
+        return points;
+    }
+
+    /**
+     * Returns true if every point was packed with an order key, which is needed to read them back when order keys are
+     * enabled.
+     */
+    public boolean hasOrderKeys() {
+        return orderKeys.stream()
+                .allMatch(Objects::nonNull);
+    }
+
+    public int size() {
+        return pointIds.size();
+    }
+
+    private ByteBuffer toByteBuffer() {
+        List<byte[]> encodedStrings = new ArrayList<>(pointIds.size() + orderKeys.size());
+        int size = Byte.BYTES + Integer.BYTES + coordinates.length * Float.BYTES;
+        for (String pointId : pointIds) {
+            encodedStrings.add(pointId.getBytes(StandardCharsets.UTF_8));
+        }
+        for (String orderKey : orderKeys) {
+            encodedStrings.add(orderKey == null ? new byte[0] : orderKey.getBytes(StandardCharsets.UTF_8));
+        }
+        for (byte[] encodedString : encodedStrings) {
+            size += Short.BYTES + encodedString.length;
+        }
+        ByteBuffer byteBuffer = ByteBuffer.allocate(size);
+        byteBuffer.put(FORMAT_VERSION);
+        byteBuffer.putInt(pointIds.size());
+        for (float coordinate : coordinates) {
+            byteBuffer.putFloat(coordinate);
+        }
+        for (byte[] encodedString : encodedStrings) {
+            byteBuffer.putShort((short) encodedString.length);
+            byteBuffer.put(encodedString);
+        }
+        byteBuffer.flip();
+        return byteBuffer;
+    }
+
+    private static PackedPoints fromByteBuffer(ByteBuffer byteBuffer) {
+        byte formatVersion = byteBuffer.get();
+        if (formatVersion != FORMAT_VERSION && formatVersion != FORMAT_VERSION_WITHOUT_ORDER_KEYS) {
+            throw new IllegalArgumentException(
+                    String.format("Packed points have unsupported format version %d.", formatVersion));
+        }
+        int pointCount = byteBuffer.getInt();
+        float[] coordinates = new float[pointCount * COORDINATES_PER_POINT];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = byteBuffer.getFloat();
+        }
+        List<String> pointIds = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            pointIds.add(readString(byteBuffer));
+        }
+        String[] orderKeys = new String[pointCount];
+        if (formatVersion != FORMAT_VERSION_WITHOUT_ORDER_KEYS) {
+            for (int i = 0; i < pointCount; i++) {
+                String orderKey = readString(byteBuffer);
+                orderKeys[i] = orderKey.isEmpty() ? null : orderKey;
+            }
+        }
+        return new PackedPoints(coordinates, ImmutableList.copyOf(pointIds),
+                Collections.unmodifiableList(Arrays.asList(orderKeys)));
+    }
+
+    private static String readString(ByteBuffer byteBuffer) {
+        byte[] encodedString = new byte[byteBuffer.getShort()];
+        byteBuffer.get(encodedString);
+        return new String(encodedString, StandardCharsets.UTF_8);
+    }
+}
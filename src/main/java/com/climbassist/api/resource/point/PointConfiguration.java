@@ -17,14 +17,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({CommonConfiguration.class, CommonDaoConfiguration.class})
+@Import({CommonConfiguration.class, CommonDaoConfiguration.class, PackedPointStoreConfiguration.class})
 public class PointConfiguration {
 
     @Bean
     public PointController pointController(@NonNull PointsDao pointsDao, @NonNull PitchesDao pitchesDao,
                                            @NonNull ResourceIdGenerator resourceIdGenerator,
                                            @NonNull PointNotFoundExceptionFactory pointNotFoundExceptionFactory,
-                                           @NonNull PitchNotFoundExceptionFactory pitchNotFoundExceptionFactory) {
+                                           @NonNull PitchNotFoundExceptionFactory pitchNotFoundExceptionFactory,
+                                           @NonNull PackedPointStore packedPointStore,
+                                           @NonNull OrderableListBuilder<Point, Pitch> orderableListBuilder) {
         PointFactory pointFactory = PointFactory.builder()
                 .resourceIdGenerator(resourceIdGenerator)
                 .build();
@@ -47,18 +49,20 @@ public class PointConfiguration {
                 .orderableResourceWithParentControllerDelegate(
                         OrderableResourceWithParentControllerDelegate.<Point, NewPoint, Pitch>builder().resourceWithParentControllerDelegate(
                                 resourceWithParentControllerDelegate)
-                                .orderableListBuilder(new OrderableListBuilder<>())
+                                .orderableListBuilder(orderableListBuilder)
                                 .build())
                 .batchResourceWithParentControllerDelegate(
-                        BatchResourceWithParentControllerDelegate.<Point, NewPoint, Pitch, BatchNewPoint>builder().resourceControllerDelegate(
-                                resourceControllerDelegate)
+                        BatchResourceWithParentControllerDelegate.<Point, NewPoint, Pitch, BatchNewPoint>builder().resourceFactory(
+                                pointFactory)
                                 .resourceDao(pointsDao)
                                 .parentResourceDao(pitchesDao)
                                 .resourceNotFoundExceptionFactory(pointNotFoundExceptionFactory)
                                 .parentResourceNotFoundExceptionFactory(pitchNotFoundExceptionFactory)
                                 .batchResourceFactory(pointFactory)
                                 .batchCreateResourceResultFactory(createPointResultFactory)
+                                .batchCreateListener(packedPointStore)
                                 .build())
+                .packedPointStore(packedPointStore)
                 .build();
     }
 }
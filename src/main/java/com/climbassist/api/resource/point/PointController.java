@@ -8,6 +8,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.batch.BatchCreateResourcesResult;
+import com.climbassist.api.resource.common.batch.BatchDeleteResourcesResult;
 import com.climbassist.api.resource.common.batch.BatchResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
 import com.climbassist.api.resource.pitch.Pitch;
@@ -48,6 +49,8 @@ public class PointController {
     @NonNull
     private final BatchResourceWithParentControllerDelegate<Point, NewPoint, Pitch, BatchNewPoint>
             batchResourceWithParentControllerDelegate;
+    @NonNull
+    private final PackedPointStore packedPointStore;
 
     @Metrics(api = "GetPoint")
     @RequestMapping(path = "/v1/points/{pointId}", method = RequestMethod.GET)
@@ -65,6 +68,11 @@ public class PointController {
                                              @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
                                            @NonNull Optional<UserData> maybeUserData)
             throws InvalidOrderingException, ResourceNotFoundException {
+        // packed points are always in order
+        Optional<List<Point>> maybePoints = packedPointStore.getPoints(pitchId, maybeUserData);
+        if (maybePoints.isPresent()) {
+            return maybePoints.get();
+        }
         return orderableResourceWithParentControllerDelegate.getResourcesForParent(pitchId, ordered,
                 maybeUserData);
     }
@@ -76,7 +84,12 @@ public class PointController {
                                                @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
                                                @NonNull Optional<UserData> maybeUserData)
             throws ResourceNotFoundException {
-        return resourceWithParentControllerDelegate.createResource(newPoint, maybeUserData);
+        // the saved point has the order key it was given, which the packed points need
+        Point point = resourceWithParentControllerDelegate.createAndGetResource(newPoint, maybeUserData);
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(point));
+        return CreatePointResult.builder()
+                .pointId(point.getPointId())
+                .build();
     }
 
     @Metrics(api = "BatchCreatePoints")
@@ -99,7 +112,12 @@ public class PointController {
                                                @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
                                            @NonNull Optional<UserData> maybeUserData)
             throws ResourceNotFoundException {
-        return resourceWithParentControllerDelegate.updateResource(point, maybeUserData);
+        Point oldPoint = resourceControllerDelegate.getResource(point.getPointId(), maybeUserData);
+        UpdateResourceResult updateResourceResult =
+                resourceWithParentControllerDelegate.updateResource(point, maybeUserData);
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(oldPoint)
+                .pointSaved(point));
+        return updateResourceResult;
     }
 
     @Metrics(api = "DeletePoint")
@@ -109,17 +127,23 @@ public class PointController {
                                                @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
                                            @NonNull Optional<UserData> maybeUserData)
             throws ResourceNotFoundException {
-        return resourceControllerDelegate.deleteResource(pointId, maybeUserData);
+        Point point = resourceControllerDelegate.getResource(pointId, maybeUserData);
+        DeleteResourceResult deleteResourceResult = resourceControllerDelegate.deleteResource(pointId, maybeUserData);
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(point));
+        return deleteResourceResult;
     }
 
     @Metrics(api = "BatchDeletePoints")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/pitches/{pitchId}/points", method = RequestMethod.DELETE)
-    public DeleteResourceResult batchDeleteResources(@NonNull @ValidPitchId @PathVariable String pitchId,
+    public BatchDeleteResourcesResult batchDeleteResources(@NonNull @ValidPitchId @PathVariable String pitchId,
                                                      @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                                @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
                                                @NonNull Optional<UserData> maybeUserData)
             throws ResourceNotFoundException {
-        return batchResourceWithParentControllerDelegate.batchDeleteResources(pitchId, maybeUserData);
+        BatchDeleteResourcesResult batchDeleteResourcesResult =
+                batchResourceWithParentControllerDelegate.batchDeleteResources(pitchId, maybeUserData);
+        packedPointStore.clearPackedPoints(pitchId);
+        return batchDeleteResourcesResult;
     }
 }
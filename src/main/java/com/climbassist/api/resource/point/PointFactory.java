@@ -27,6 +27,7 @@ public class PointFactory extends ResourceFactory<Point, NewPoint>
                 .z(newPoint.getZ())
                 .first(newPoint.getFirst())
                 .next(newPoint.getNext())
+                .orderKey(newPoint.getOrderKey())
                 .build();
     }
 
@@ -1,12 +1,12 @@
 package com.climbassist.api.resource.point;
 
-import com.climbassist.api.resource.common.ResourceWithParentDao;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
 import com.climbassist.api.resource.pitch.Pitch;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
 @SuperBuilder
-public class PointsDao extends ResourceWithParentDao<Point, Pitch> {
+public class PointsDao extends OrderableResourceWithParentDao<Point, Pitch> {
 
     @Override
     protected Point buildResourceForDeletion(@NonNull String resourceId) {
@@ -27,6 +27,11 @@ public class PointsDao extends ResourceWithParentDao<Point, Pitch> {
         return Point.GLOBAL_SECONDARY_INDEX_NAME;
     }
 
+    @Override
+    protected String getOrderIndexName() {
+        return Point.ORDER_INDEX_NAME;
+    }
+
     @Override
     protected Class<Point> getResourceTypeClass() {
         return Point.class;
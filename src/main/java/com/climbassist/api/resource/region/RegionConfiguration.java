@@ -9,6 +9,8 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.country.CountriesDao;
 import com.climbassist.api.resource.country.Country;
 import com.climbassist.api.resource.country.CountryNotFoundExceptionFactory;
@@ -29,7 +31,9 @@ public class RegionConfiguration {
                                              @NonNull ResourceIdGenerator resourceIdGenerator,
                                              @NonNull RegionNotFoundExceptionFactory regionNotFoundExceptionFactory,
                                              @NonNull CountryNotFoundExceptionFactory countryNotFoundExceptionFactory,
-                                             @NonNull RecursiveResourceRetriever<Area, Region> recursiveResourceRetriever) {
+                                             @NonNull RecursiveResourceRetriever<Area, Region> recursiveResourceRetriever,
+                                             @NonNull ResourceTreeLoader resourceTreeLoader,
+                                             @NonNull SubtreeSnapshotCache subtreeSnapshotCache) {
         ResourceControllerDelegate<Region, NewRegion> resourceControllerDelegate =
                 ResourceControllerDelegate.<Region, NewRegion>builder().resourceDao(regionsDao)
                         .resourceFactory(RegionFactory.builder()
@@ -52,6 +56,8 @@ public class RegionConfiguration {
                                 .resourceNotEmptyExceptionFactory(new RegionNotEmptyExceptionFactory())
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .build())
                 .build();
     }
@@ -8,6 +8,7 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.country.Country;
 import com.climbassist.api.resource.country.ValidCountryId;
 import com.climbassist.api.user.SessionUtils;
@@ -43,12 +44,12 @@ public class RegionController {
     @RequestMapping(path = "/v1/regions/{regionId}", method = RequestMethod.GET)
 
     @Metrics(api = "GetRegion")
-    public Region getResource(@ValidRegionId @NonNull @PathVariable String regionId,
-                              @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                              @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                              @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                              @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(regionId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidRegionId @NonNull @PathVariable String regionId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                       @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                       @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(regionId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListRegions")
@@ -3,6 +3,7 @@ package com.climbassist.api.resource.route;
 import com.climbassist.api.resource.common.NewResourceWithParent;
 import com.climbassist.api.resource.common.ValidName;
 import com.climbassist.api.resource.common.ValidOptionalDescription;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.wall.ValidWallId;
 import com.climbassist.api.resource.wall.Wall;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -48,6 +49,10 @@ public class NewRoute implements NewResourceWithParent<Route, Wall> {
     @Nullable
     private String next;
 
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @JsonIgnore
     @Override
     public String getParentId() {
@@ -5,11 +5,14 @@ import com.climbassist.api.resource.common.InvalidChildException;
 import com.climbassist.api.resource.common.ResourceWithParent;
 import com.climbassist.api.resource.common.ValidName;
 import com.climbassist.api.resource.common.ValidOptionalDescription;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.common.grade.GradeKey;
 import com.climbassist.api.resource.common.grade.ValidDanger;
 import com.climbassist.api.resource.common.grade.ValidGrade;
 import com.climbassist.api.resource.common.grade.ValidGradeModifier;
 import com.climbassist.api.resource.common.image.ResourceWithImage;
 import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentAndChildren;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.wall.ValidWallId;
 import com.climbassist.api.resource.wall.Wall;
@@ -35,12 +38,13 @@ import java.util.List;
 public class Route implements OrderableResourceWithParentAndChildren<Route, Wall>, ResourceWithImage {
 
     public static final String GLOBAL_SECONDARY_INDEX_NAME = "WallIndex";
+    public static final String ORDER_INDEX_NAME = "WallOrderIndex";
 
     @DynamoDBHashKey
     @ValidRouteId
     private String routeId;
 
-    @DynamoDBIndexHashKey(globalSecondaryIndexName = GLOBAL_SECONDARY_INDEX_NAME)
+    @DynamoDBIndexHashKey(globalSecondaryIndexNames = {GLOBAL_SECONDARY_INDEX_NAME, ORDER_INDEX_NAME})
     @ValidWallId
     private String wallId;
 
@@ -63,6 +67,13 @@ public class Route implements OrderableResourceWithParentAndChildren<Route, Wall
     @Nullable
     private String danger;
 
+    // Maintained by pitch writes so that the grade and danger above can be updated without reloading every pitch. This
+    // is dropped whenever the whole route is overwritten, in which case the next pitch write counts the pitches again.
+    @DynamoDBTypeConverted(converter = GradeCounts.TypeConverter.class)
+    @JsonIgnore
+    @Nullable
+    private GradeCounts gradeCounts;
+
     @DynamoDBTypeConverted(converter = Center.TypeConverter.class)
     @Nullable
     private Center center;
@@ -88,6 +99,11 @@ public class Route implements OrderableResourceWithParentAndChildren<Route, Wall
     @Nullable
     private String next;
 
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = ORDER_INDEX_NAME)
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @DynamoDBIgnore
     private List<Pitch> pitches;
 
@@ -112,6 +128,24 @@ public class Route implements OrderableResourceWithParentAndChildren<Route, Wall
         return wallId;
     }
 
+    /**
+     * The {@link GradeKey} of this route, which is stored as a numeric attribute so that routes can be sorted and
+     * range-queried by grade. It's derived from the other grade attributes, so it's written along with them and never
+     * read back. Routes whose grade can't be sorted have no key.
+     */
+    @DynamoDBAttribute
+    @JsonIgnore
+    @Nullable
+    public Integer getGradeKey() {
+        return GradeKey.packIfValid(style, grade, gradeModifier, danger)
+                .orElse(null);
+    }
+
+    @JsonIgnore
+    public void setGradeKey(@Nullable Integer gradeKey) {
+        // derived from the other grade attributes
+    }
+
     @DynamoDBIgnore
     @JsonIgnore
     @Override
@@ -1,5 +1,6 @@
 package com.climbassist.api.resource.route;
 
+import com.climbassist.api.ApiConfiguration;
 import com.climbassist.api.resource.common.*;
 import com.climbassist.api.resource.common.image.ResourceWithImageControllerDelegate;
 import com.climbassist.api.resource.common.image.webpconverter.WebpConverter;
@@ -7,22 +8,27 @@ import com.climbassist.api.resource.common.image.webpconverter.WebpConverterConf
 import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.pitch.PitchesDao;
 import com.climbassist.api.resource.wall.Wall;
 import com.climbassist.api.resource.wall.WallNotFoundExceptionFactory;
 import com.climbassist.api.resource.wall.WallsDao;
 import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.s3.S3Configuration;
 import com.climbassist.common.s3.S3Proxy;
 import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({CommonConfiguration.class, CommonDaoConfiguration.class, RecursiveResourceRetrieverConfiguration.class,
-        WebpConverterConfiguration.class})
+@Import({ApiConfiguration.class, CommonConfiguration.class, CommonDaoConfiguration.class,
+        RecursiveResourceRetrieverConfiguration.class, S3Configuration.class, WebpConverterConfiguration.class})
 public class RouteConfiguration {
 
     @Bean
@@ -32,7 +38,12 @@ public class RouteConfiguration {
             @NonNull WallNotFoundExceptionFactory wallNotFoundExceptionFactory, @NonNull S3Proxy s3Proxy,
             @NonNull String imagesBucketName,
             @NonNull RecursiveResourceRetriever<Pitch, Route> recursiveResourceRetriever,
-            @NonNull WebpConverter webpConverter) {
+            @NonNull WebpConverter webpConverter,
+            @NonNull ResourceTreeLoader resourceTreeLoader,
+            @NonNull SubtreeSnapshotCache subtreeSnapshotCache,
+            @NonNull BoundedExecutor uploadRequestExecutor,
+            @Value("${uploadRequestTimeoutMillis}") long uploadRequestTimeoutMillis,
+            @NonNull OrderableListBuilder<Route, Wall> orderableListBuilder) {
         RouteFactory routeFactory = RouteFactory.builder()
                 .resourceIdGenerator(resourceIdGenerator)
                 .build();
@@ -54,13 +65,15 @@ public class RouteConfiguration {
                 .orderableResourceWithParentControllerDelegate(
                         OrderableResourceWithParentControllerDelegate.<Route, NewRoute, Wall>builder().resourceWithParentControllerDelegate(
                                 resourceWithParentControllerDelegate)
-                                .orderableListBuilder(new OrderableListBuilder<>())
+                                .orderableListBuilder(orderableListBuilder)
                                 .build())
                 .resourceWithChildrenControllerDelegate(
                         ResourceWithChildrenControllerDelegate.<Route, NewRoute>builder().childResourceDaos(
                                 ImmutableSet.of(pitchesDao))
                                 .resourceNotEmptyExceptionFactory(routeNotEmptyExceptionFactory)
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .build())
                 .resourceWithImageControllerDelegate(
@@ -70,12 +83,14 @@ public class RouteConfiguration {
                                 .imagesBucketName(imagesBucketName)
                                 .resourceFactory(routeFactory)
                                 .webpConverter(webpConverter)
+                                .executor(uploadRequestExecutor)
                                 .build())
                 .routesDao(routesDao)
                 .routeNotFoundExceptionFactory(routeNotFoundExceptionFactory)
                 .pitchesDao(pitchesDao)
                 .routeNotEmptyExceptionFactory(routeNotEmptyExceptionFactory)
                 .s3Proxy(s3Proxy)
+                .uploadTimeoutMillis(uploadRequestTimeoutMillis)
                 .build();
     }
 }
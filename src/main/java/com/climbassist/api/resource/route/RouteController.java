@@ -1,6 +1,7 @@
 package com.climbassist.api.resource.route;
 
 import com.amazonaws.services.s3.AmazonS3URI;
+import com.climbassist.api.DeferredResults;
 import com.climbassist.api.resource.common.CreateResourceResult;
 import com.climbassist.api.resource.common.DeleteResourceResult;
 import com.climbassist.api.resource.common.OrderableResourceWithParentControllerDelegate;
@@ -12,8 +13,8 @@ import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
 import com.climbassist.api.resource.common.image.ResourceWithImageControllerDelegate;
 import com.climbassist.api.resource.common.image.UploadImageResult;
-import com.climbassist.api.resource.common.image.webpconverter.WebpConverterException;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.pitch.PitchesDao;
 import com.climbassist.api.resource.wall.ValidWallId;
 import com.climbassist.api.resource.wall.Wall;
@@ -33,10 +34,10 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.SessionAttribute;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -66,15 +67,16 @@ public class RouteController {
     private final RouteNotEmptyExceptionFactory routeNotEmptyExceptionFactory;
     @NonNull
     private final S3Proxy s3Proxy;
+    private final long uploadTimeoutMillis;
 
     @Metrics(api = "GetRoute")
     @RequestMapping(path = "/v1/routes/{routeId}", method = RequestMethod.GET)
-    public Route getResource(@ValidRouteId @NonNull @PathVariable String routeId,
+    public SubtreeSnapshot getResource(@ValidRouteId @NonNull @PathVariable String routeId,
             @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
             @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
             @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(routeId, depth, maybeUserData);
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(routeId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListRoutes")
@@ -136,12 +138,12 @@ public class RouteController {
     @Metrics(api = "UploadRoutePhoto")
     @Authorization(AdministratorAuthorizationHandler.class)
     @RequestMapping(path = "/v1/routes/{routeId}/photo", method = RequestMethod.POST)
-    public UploadImageResult uploadImage(@ValidRouteId @NonNull @PathVariable String routeId,
+    public DeferredResult<UploadImageResult> uploadImage(@ValidRouteId @NonNull @PathVariable String routeId,
             @NonNull @RequestParam(IMAGE_NAME) MultipartFile image,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
             @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-            @NonNull Optional<UserData> maybeUserData)
-            throws ResourceNotFoundException, IOException, WebpConverterException {
-        return resourceWithImageControllerDelegate.uploadImage(routeId, image, maybeUserData);
+            @NonNull Optional<UserData> maybeUserData) {
+        return DeferredResults.withTimeout(
+                resourceWithImageControllerDelegate.uploadImage(routeId, image, maybeUserData), uploadTimeoutMillis);
     }
 }
@@ -32,6 +32,7 @@ public class RouteFactory extends ResourceFactory<Route, NewRoute> implements Re
                 .style(newRoute.getStyle())
                 .first(newRoute.getFirst())
                 .next(newRoute.getNext())
+                .orderKey(newRoute.getOrderKey())
                 .build();
     }
 
@@ -1,12 +1,102 @@
 package com.climbassist.api.resource.route;
 
-import com.climbassist.api.resource.common.ResourceWithParentDao;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.Update;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
 import com.climbassist.api.resource.wall.Wall;
+import com.google.common.collect.ImmutableList;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @SuperBuilder
-public class RoutesDao extends ResourceWithParentDao<Route, Wall> {
+public class RoutesDao extends OrderableResourceWithParentDao<Route, Wall> {
+
+    private static final String GRADE_COUNTS_ATTRIBUTE_NAME = "gradeCounts";
+    private static final List<String> GRADE_ATTRIBUTE_NAMES =
+            ImmutableList.of("grade", "gradeModifier", "danger", "gradeKey", GRADE_COUNTS_ATTRIBUTE_NAME);
+
+    /**
+     * Builds a conditional update of the grade, grade modifier, danger and grade counts of a route as an item of a
+     * transaction, so that the route is only updated together with the pitch write that changed them. The rest of the
+     * route is left untouched. The update only succeeds if the route still exists and still has the grade counts that
+     * the new ones were computed from. {@link #gradeUpdated} has to be called once the transaction succeeds.
+     *
+     * @param route               the route with its new grade attributes
+     * @param previousGradeCounts the grade counts the new ones were computed from, or null if the route had none
+     */
+    public TransactWriteItem buildGradeUpdateTransactWriteItem(@NonNull Route route,
+            @Nullable GradeCounts previousGradeCounts) {
+        DynamoDBMapperTableModel<Route> tableModel = dynamoDBMapper.getTableModel(Route.class);
+        Map<String, String> expressionAttributeNames = new HashMap<>();
+        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
+        List<String> setActions = new ArrayList<>();
+        List<String> removedAttributeNames = new ArrayList<>();
+        for (String attributeName : GRADE_ATTRIBUTE_NAMES) {
+            DynamoDBMapperFieldModel<Route, Object> fieldModel = tableModel.field(attributeName);
+            AttributeValue attributeValue = fieldModel.getAndConvert(route);
+            expressionAttributeNames.put("#" + attributeName, attributeName);
+            if (attributeValue == null) {
+                removedAttributeNames.add("#" + attributeName);
+            }
+            else {
+                setActions.add(String.format("#%s = :%s", attributeName, attributeName));
+                expressionAttributeValues.put(":" + attributeName, attributeValue);
+            }
+        }
+        String updateExpression = (setActions.isEmpty() ? "" : "SET " + String.join(", ", setActions)) +
+                (removedAttributeNames.isEmpty() ? "" : " REMOVE " + String.join(", ", removedAttributeNames));
+
+        String conditionExpression = "attribute_exists(routeId) AND ";
+        if (previousGradeCounts == null) {
+            conditionExpression += String.format("attribute_not_exists(#%s)", GRADE_COUNTS_ATTRIBUTE_NAME);
+        }
+        else {
+            conditionExpression += String.format("#%s = :previousGradeCounts", GRADE_COUNTS_ATTRIBUTE_NAME);
+            expressionAttributeValues.put(":previousGradeCounts", tableModel.field(GRADE_COUNTS_ATTRIBUTE_NAME)
+                    .convert(previousGradeCounts));
+        }
+
+        return new TransactWriteItem().withUpdate(new Update().withTableName(dynamoDBMapperConfig.getTableNameOverride()
+                .getTableName())
+                .withKey(tableModel.convertKey(route))
+                .withUpdateExpression(updateExpression.trim())
+                .withConditionExpression(conditionExpression)
+                .withExpressionAttributeNames(expressionAttributeNames)
+                .withExpressionAttributeValues(expressionAttributeValues));
+    }
+
+    /**
+     * Invalidates the cached copy of a route whose grade was updated by a transaction, and notifies the listener with
+     * the route as it was written. Only the grade attributes were written, so the route is read back rather than
+     * trusting the copy the update was built from.
+     */
+    public void gradeUpdated(@NonNull String routeId) {
+        resourceCache.invalidate(routeId);
+        getResourceConsistently(routeId).ifPresent(resourceChangeListener::onResourceSaved);
+    }
+
+    /**
+     * Reads a route with a strongly consistent read, bypassing the resource cache. This is for retrying conditional
+     * writes, where a stale copy would just fail again.
+     */
+    public Optional<Route> getResourceConsistently(@NonNull String routeId) {
+        return Optional.ofNullable(dynamoDBMapper.load(Route.class, routeId, DynamoDBMapperConfig.builder()
+                .withTableNameOverride(dynamoDBMapperConfig.getTableNameOverride())
+                .withConsistentReads(DynamoDBMapperConfig.ConsistentReads.CONSISTENT)
+                .build()));
+    }
 
     @Override
     protected Route buildResourceForDeletion(@NonNull String resourceId) {
@@ -27,6 +117,11 @@ public class RoutesDao extends ResourceWithParentDao<Route, Wall> {
         return Route.GLOBAL_SECONDARY_INDEX_NAME;
     }
 
+    @Override
+    protected String getOrderIndexName() {
+        return Route.ORDER_INDEX_NAME;
+    }
+
     @Override
     protected Class<Route> getResourceTypeClass() {
         return Route.class;
@@ -0,0 +1,20 @@
+package com.climbassist.api.resource.route.search;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class RouteSearchBackfillResult {
+
+    // the number of routes whose entries were written
+    private int indexedRouteCount;
+    // the ID to start the next page after, or null once every route has been scanned
+    private String nextStartAfter;
+}
@@ -0,0 +1,19 @@
+package com.climbassist.api.resource.route.search;
+
+import com.climbassist.api.resource.common.CommonDaoConfiguration;
+import lombok.NonNull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import(CommonDaoConfiguration.class)
+public class RouteSearchConfiguration {
+
+    @Bean
+    public RouteSearchController routeSearchController(@NonNull RouteSearchIndex routeSearchIndex) {
+        return RouteSearchController.builder()
+                .routeSearchIndex(routeSearchIndex)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.climbassist.api.resource.route.search;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.ValidLimit;
+import com.climbassist.api.resource.common.grade.GradeKey;
+import com.climbassist.api.resource.common.grade.ValidGrade;
+import com.climbassist.api.resource.common.grade.ValidGradeModifier;
+import com.climbassist.api.resource.route.ValidStyle;
+import com.climbassist.api.user.SessionUtils;
+import com.climbassist.api.user.UserData;
+import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
+import com.climbassist.api.user.authorization.Authorization;
+import com.climbassist.metrics.Metrics;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.SessionAttribute;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+
+@Builder
+@RestController
+@Validated
+public class RouteSearchController {
+
+    @NonNull
+    private final RouteSearchIndex routeSearchIndex;
+
+    @Metrics(api = "SearchRoutes")
+    @RequestMapping(path = "/v1/routes/search", method = RequestMethod.GET)
+    public RouteSearchResult searchRoutes(@ValidAncestorId @NonNull @RequestParam String ancestorId,
+            @ValidStyle @NonNull @RequestParam String style,
+            @ValidGrade @RequestParam(required = false, defaultValue = "0") int minGrade,
+            @ValidGrade @RequestParam(required = false, defaultValue = "16") int maxGrade,
+            @ValidGradeModifier @Nullable @RequestParam(required = false) String minGradeModifier,
+            @ValidGradeModifier @Nullable @RequestParam(required = false) String maxGradeModifier,
+            @ValidLimit @RequestParam(required = false, defaultValue = "25") int limit,
+            @Nullable @RequestParam(required = false) String nextToken,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+            @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+            @NonNull Optional<UserData> maybeUserData) throws InvalidRequestException {
+        checkGradeModifier(style, minGradeModifier);
+        checkGradeModifier(style, maxGradeModifier);
+        // without a grade modifier, a bound includes every grade modifier of its grade
+        int lowerGradeKey = GradeKey.lowerBound(style, minGrade, minGradeModifier);
+        int upperGradeKey = GradeKey.upperBound(style, maxGrade, maxGradeModifier);
+        if (lowerGradeKey > upperGradeKey) {
+            throw new InvalidRequestException("Min grade must be less than or equal to max grade.");
+        }
+        return routeSearchIndex.search(ancestorId, lowerGradeKey, upperGradeKey, limit, nextToken, maybeUserData);
+    }
+
+    @Metrics(api = "BackfillRouteSearch")
+    @Authorization(AdministratorAuthorizationHandler.class)
+    @RequestMapping(path = "/v1/routes/search/backfill", method = RequestMethod.POST)
+    public RouteSearchBackfillResult backfillRouteSearch(@Nullable @RequestParam(required = false) String startAfter,
+            @ValidLimit @RequestParam(required = false, defaultValue = "100") int limit) {
+        return routeSearchIndex.backfill(startAfter, limit);
+    }
+
+    private static void checkGradeModifier(String style, @Nullable String gradeModifier)
+            throws InvalidRequestException {
+        if (gradeModifier != null && !GradeKey.isValidGradeModifier(style, gradeModifier)) {
+            throw new InvalidRequestException(
+                    String.format("Grade modifier %s is not valid for a %s route.", gradeModifier, style));
+        }
+    }
+}
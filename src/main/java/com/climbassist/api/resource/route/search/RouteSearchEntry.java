@@ -0,0 +1,88 @@
+package com.climbassist.api.resource.route.search;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.climbassist.api.resource.route.Route;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * One route, stored once under each of its ancestors so that the routes anywhere below a resource can be
+ * range-queried by {@link com.climbassist.api.resource.common.grade.GradeKey} without walking the tree. Each entry
+ * carries enough of the route to be returned from a search without loading it.
+ */
+@AllArgsConstructor // required for @Builder, because of a bug
+@Builder(toBuilder = true)
+@Data
+@DynamoDBTable(tableName = "") // this is not used because we always use a TableNameOverride in the index
+@NoArgsConstructor
+public class RouteSearchEntry {
+
+    public static final String GRADE_INDEX_NAME = "GradeIndex";
+    public static final String ROUTE_INDEX_NAME = "RouteIndex";
+
+    @DynamoDBHashKey
+    private String ancestorId;
+
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = ROUTE_INDEX_NAME)
+    @DynamoDBRangeKey
+    private String routeId;
+
+    @DynamoDBIndexRangeKey(localSecondaryIndexName = GRADE_INDEX_NAME)
+    private Integer gradeKey;
+
+    // from the wall up to the country, so that the entries under other ancestors can be found when the route moves
+    private List<String> ancestorIds;
+
+    // state of the crag the route is in, so that routes in crags under review can be hidden from non-administrators
+    @Nullable
+    private String cragState;
+
+    private String wallId;
+
+    private String name;
+
+    private String style;
+
+    @Nullable
+    private Integer grade;
+
+    @Nullable
+    private String gradeModifier;
+
+    @Nullable
+    private String danger;
+
+    public static RouteSearchEntry fromRoute(Route route) {
+        return RouteSearchEntry.builder()
+                .routeId(route.getRouteId())
+                .gradeKey(route.getGradeKey())
+                .wallId(route.getWallId())
+                .name(route.getName())
+                .style(route.getStyle())
+                .grade(route.getGrade())
+                .gradeModifier(route.getGradeModifier())
+                .danger(route.getDanger())
+                .build();
+    }
+
+    public Route toRoute() {
+        return Route.builder()
+                .routeId(routeId)
+                .wallId(wallId)
+                .name(name)
+                .style(style)
+                .grade(grade)
+                .gradeModifier(gradeModifier)
+                .danger(danger)
+                .build();
+    }
+}
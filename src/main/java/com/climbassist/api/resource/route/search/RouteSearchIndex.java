@@ -0,0 +1,478 @@
+package com.climbassist.api.resource.route.search;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.Resource;
+import com.climbassist.api.resource.common.ResourceChangeListener;
+import com.climbassist.api.resource.common.ResourceWithParent;
+import com.climbassist.api.resource.common.state.ResourceWithState;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * This class keeps a {@link RouteSearchEntry} for every route under each of its ancestors, and range-queries them by
+ * grade. A global secondary index can only be keyed by one attribute of a route, which would only allow searching
+ * under its wall, so each route is written once per ancestor instead and searches under any ancestor read just the
+ * matching entries. Entries are kept up to date as routes and their ancestors are written through the DAOs, by
+ * registering this as their {@link ResourceChangeListener}.
+ * <p>
+ * Updating the entries of a route takes several reads and a batch write, so it's kept off the write path. Writes are
+ * queued and applied in the background on the executor, and writes that arrive while a batch is being applied are
+ * applied together in the next one, so a burst of writes, like the routes of a batch or an import, reads each ancestor
+ * once and writes all of their entries in one batch. Only the latest write of each resource is kept in the queue.
+ * Routes that are saved together are always new, so their entries are written without looking for existing ones, which
+ * lets a crag import index each group of routes with just the reads of their ancestors and one batch write.
+ * Entries can lag behind the routes for a moment, and are lost if the instance stops before applying them, which
+ * {@link #backfill} repairs.
+ */
+@Builder
+@Slf4j
+public class RouteSearchIndex implements ResourceChangeListener {
+
+    private static final String ANCESTOR_ID_ATTRIBUTE_NAME = "ancestorId";
+    private static final String ROUTE_ID_ATTRIBUTE_NAME = "routeId";
+    private static final String GRADE_KEY_ATTRIBUTE_NAME = "gradeKey";
+    private static final String CRAG_STATE_ATTRIBUTE_NAME = "cragState";
+    private static final String NEXT_TOKEN_SEPARATOR = ":";
+
+    /**
+     * The table which one level of the ancestors of a route is stored in.
+     */
+    @Value
+    public static class AncestorTable {
+
+        @NonNull
+        Class<? extends ResourceWithParent<?>> resourceClass;
+        @NonNull
+        DynamoDBMapperConfig dynamoDBMapperConfig;
+    }
+
+    @Value
+    private static class PendingWrite {
+
+        // null if the resource was deleted
+        @Nullable
+        Resource resource;
+        // true if the resource is a route that was saved with other routes, so it has no entries yet
+        boolean created;
+    }
+
+    @Value
+    private static class Ancestry {
+
+        List<String> ancestorIds;
+        // null if the ancestry starts above the crag
+        @Nullable
+        String cragState;
+    }
+
+    @NonNull
+    private final DynamoDBMapper dynamoDBMapper;
+    @NonNull
+    private final DynamoDBMapperConfig dynamoDBMapperConfig;
+    // Tables of the ancestors of a route that have parents themselves, from the wall up to the region. Ancestors are
+    // loaded straight from these rather than through their DAOs, because the DAOs notify this class of their writes.
+    @NonNull
+    private final List<AncestorTable> ancestorTables;
+    @NonNull
+    private final DynamoDBMapperConfig routesDynamoDBMapperConfig;
+    // should run one task at a time, because only one batch is ever queued
+    @NonNull
+    private final Executor executor;
+    // the latest write of each resource that is waiting to be applied, in the order they were written
+    private final Map<String, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private final AtomicBoolean batchQueued = new AtomicBoolean();
+    // held while entries are written, so that a backfill doesn't interleave with a batch of writes
+    private final Object indexLock = new Object();
+
+    /**
+     * Returns one page of the routes under an ancestor whose grade keys are within a range, lowest grade first.
+     * Routes in crags under review are filtered out of the page for non-administrators, so a page can have fewer
+     * routes than the limit even when there are more to come.
+     *
+     * @param nextToken the next token of the previous page, or null for the first page
+     * @throws InvalidRequestException if the next token wasn't returned by a search of the same ancestor and range
+     */
+    public RouteSearchResult search(@NonNull String ancestorId, int lowerGradeKey, int upperGradeKey, int limit,
+            @Nullable String nextToken,
+            @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @NonNull Optional<UserData> maybeUserData)
+            throws InvalidRequestException {
+        DynamoDBQueryExpression<RouteSearchEntry> dynamoDBQueryExpression =
+                new DynamoDBQueryExpression<RouteSearchEntry>().withHashKeyValues(buildHashKey(ancestorId))
+                        .withIndexName(RouteSearchEntry.GRADE_INDEX_NAME)
+                        .withConsistentRead(false)
+                        .withRangeKeyCondition(GRADE_KEY_ATTRIBUTE_NAME,
+                                new Condition().withComparisonOperator(ComparisonOperator.BETWEEN)
+                                        .withAttributeValueList(
+                                                new AttributeValue().withN(String.valueOf(lowerGradeKey)),
+                                                new AttributeValue().withN(String.valueOf(upperGradeKey))))
+                        .withLimit(limit);
+        if (nextToken != null) {
+            dynamoDBQueryExpression.setExclusiveStartKey(
+                    decodeNextToken(ancestorId, nextToken, lowerGradeKey, upperGradeKey));
+        }
+        if (!maybeUserData.isPresent() || !maybeUserData.get()
+                .isAdministrator()) {
+            dynamoDBQueryExpression.setQueryFilter(ImmutableMap.of(CRAG_STATE_ATTRIBUTE_NAME,
+                    new Condition().withComparisonOperator(ComparisonOperator.EQ)
+                            .withAttributeValueList(new AttributeValue(State.PUBLIC.toString()))));
+        }
+        QueryResultPage<RouteSearchEntry> queryResultPage =
+                dynamoDBMapper.queryPage(RouteSearchEntry.class, dynamoDBQueryExpression, dynamoDBMapperConfig);
+        return RouteSearchResult.builder()
+                .routes(queryResultPage.getResults()
+                        .stream()
+                        .map(RouteSearchEntry::toRoute)
+                        .collect(Collectors.toList()))
+                .nextToken(queryResultPage.getLastEvaluatedKey() == null ? null :
+                        encodeNextToken(queryResultPage.getLastEvaluatedKey()))
+                .build();
+    }
+
+    /**
+     * Writes the entries of one page of the routes table, so that routes written before this index existed, or whose
+     * entries were lost, can be found. Each call scans at most limit routes, so the backfill is a series of short
+     * calls, each starting after the last route the previous one scanned. Entries are written the same way as when a
+     * route is saved, so it can be run more than once while the routes are in use.
+     *
+     * @param startAfter the ID of the last route scanned by the previous call, or null to start from the beginning
+     */
+    public RouteSearchBackfillResult backfill(@Nullable String startAfter, int limit) {
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression().withLimit(limit);
+        if (startAfter != null) {
+            dynamoDBScanExpression.setExclusiveStartKey(
+                    ImmutableMap.of(ROUTE_ID_ATTRIBUTE_NAME, new AttributeValue(startAfter)));
+        }
+        ScanResultPage<Route> scanResultPage =
+                dynamoDBMapper.scanPage(Route.class, dynamoDBScanExpression, routesDynamoDBMapperConfig);
+        synchronized (indexLock) {
+            indexRoutes(scanResultPage.getResults(), ImmutableList.of(), ImmutableList.of());
+        }
+        Map<String, AttributeValue> lastEvaluatedKey = scanResultPage.getLastEvaluatedKey();
+        String nextStartAfter = lastEvaluatedKey == null ? null : lastEvaluatedKey.get(ROUTE_ID_ATTRIBUTE_NAME)
+                .getS();
+        log.info(String.format("Backfilled the route search entries of %d routes, continuing after %s.",
+                scanResultPage.getResults()
+                        .size(), nextStartAfter));
+        return RouteSearchBackfillResult.builder()
+                .indexedRouteCount(scanResultPage.getResults()
+                        .size())
+                .nextStartAfter(nextStartAfter)
+                .build();
+    }
+
+    @Override
+    public void onResourceSaved(@NonNull Resource resource) {
+        if (resource instanceof Route || getLevel(resource) >= 0) {
+            queueWrite(resource.getId(), new PendingWrite(resource, false));
+        }
+    }
+
+    @Override
+    public void onResourceDeleted(@NonNull String resourceId) {
+        // ancestors have to be empty to be deleted, so only a route can have entries to delete
+        queueWrite(resourceId, new PendingWrite(null, false));
+    }
+
+    @Override
+    public void onResourcesSaved(@NonNull List<? extends Resource> resources) {
+        resources.forEach(resource -> {
+            if (resource instanceof Route) {
+                queueWrite(resource.getId(), new PendingWrite(resource, true));
+            }
+            else {
+                onResourceSaved(resource);
+            }
+        });
+    }
+
+    private void queueWrite(String resourceId, PendingWrite pendingWrite) {
+        synchronized (pendingWrites) {
+            // moves the resource to the end, so writes are applied in the order of their latest write
+            pendingWrites.remove(resourceId);
+            pendingWrites.put(resourceId, pendingWrite);
+            if (!batchQueued.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        try {
+            executor.execute(this::applyPendingWrites);
+        } catch (RuntimeException e) {
+            batchQueued.set(false);
+            log.error("Unable to queue route search entry updates.", e);
+        }
+    }
+
+    private void applyPendingWrites() {
+        while (true) {
+            Map<String, PendingWrite> writes;
+            synchronized (pendingWrites) {
+                if (pendingWrites.isEmpty()) {
+                    batchQueued.set(false);
+                    return;
+                }
+                writes = new LinkedHashMap<>(pendingWrites);
+                pendingWrites.clear();
+            }
+            synchronized (indexLock) {
+                applyWrites(writes);
+            }
+        }
+    }
+
+    // The index is derived from the stored resources, so failing to update it shouldn't stop the writes after it from
+    // being applied.
+    private void applyWrites(Map<String, PendingWrite> writes) {
+        List<Route> savedRoutes = new ArrayList<>();
+        List<Route> createdRoutes = new ArrayList<>();
+        List<String> deletedResourceIds = new ArrayList<>();
+        writes.forEach((resourceId, pendingWrite) -> {
+            Resource resource = pendingWrite.getResource();
+            if (resource == null) {
+                deletedResourceIds.add(resourceId);
+            }
+            else if (resource instanceof Route) {
+                (pendingWrite.isCreated() ? createdRoutes : savedRoutes).add((Route) resource);
+            }
+            else {
+                try {
+                    reindexDescendants((ResourceWithParent<?>) resource, getLevel(resource));
+                } catch (RuntimeException e) {
+                    log.error(String.format("Unable to update route search entries for %s.", resourceId), e);
+                }
+            }
+        });
+        try {
+            indexRoutes(savedRoutes, createdRoutes, deletedResourceIds);
+        } catch (RuntimeException e) {
+            log.error(String.format("Unable to update route search entries for %d routes.",
+                    savedRoutes.size() + createdRoutes.size() + deletedResourceIds.size()), e);
+        }
+    }
+
+    /**
+     * Rewrites the entries of saved routes, writes the entries of created ones and removes the entries of deleted ones,
+     * with one batch write. The ancestry of each wall is only loaded once.
+     */
+    private void indexRoutes(List<Route> savedRoutes, List<Route> createdRoutes, List<String> deletedRouteIds) {
+        Map<String, Optional<Ancestry>> ancestriesByWallId = new HashMap<>();
+        List<RouteSearchEntry> entriesToSave = new ArrayList<>();
+        List<RouteSearchEntry> entriesToDelete = new ArrayList<>();
+        savedRoutes.forEach(route -> addRouteEntries(route, loadEntryKeys(route.getRouteId()), ancestriesByWallId,
+                entriesToSave, entriesToDelete));
+        createdRoutes.forEach(
+                route -> addRouteEntries(route, ImmutableList.of(), ancestriesByWallId, entriesToSave, entriesToDelete));
+        deletedRouteIds.forEach(routeId -> entriesToDelete.addAll(loadEntryKeys(routeId)));
+        write(entriesToSave, entriesToDelete);
+    }
+
+    private void addRouteEntries(Route route, List<RouteSearchEntry> existingEntryKeys,
+                                 Map<String, Optional<Ancestry>> ancestriesByWallId,
+                                 List<RouteSearchEntry> entriesToSave, List<RouteSearchEntry> entriesToDelete) {
+        Optional<Ancestry> maybeAncestry = route.getGradeKey() == null ? Optional.empty() :
+                ancestriesByWallId.computeIfAbsent(route.getWallId(), wallId -> resolveAncestry(wallId, 0, null));
+        if (!maybeAncestry.isPresent()) {
+            // routes whose grade can't be sorted, or which aren't attached to the tree, can't be found by a search
+            entriesToDelete.addAll(existingEntryKeys);
+            return;
+        }
+        addEntries(RouteSearchEntry.fromRoute(route)
+                .toBuilder()
+                .ancestorIds(maybeAncestry.get()
+                        .getAncestorIds())
+                .cragState(maybeAncestry.get()
+                        .getCragState())
+                .build(), existingEntryKeys.stream()
+                .map(RouteSearchEntry::getAncestorId)
+                .collect(Collectors.toList()), entriesToSave, entriesToDelete);
+    }
+
+    private void reindexDescendants(ResourceWithParent<?> resource, int level) {
+        // new ancestors, like the walls of an import, don't have any routes yet, so they're checked for entries before
+        // anything else is loaded
+        List<RouteSearchEntry> firstEntries = dynamoDBMapper.queryPage(RouteSearchEntry.class,
+                new DynamoDBQueryExpression<RouteSearchEntry>().withHashKeyValues(buildHashKey(resource.getId()))
+                        .withConsistentRead(false)
+                        .withLimit(1), dynamoDBMapperConfig)
+                .getResults();
+        if (firstEntries.isEmpty()) {
+            return;
+        }
+        Optional<Ancestry> maybeParentAncestry = resolveAncestry(resource.getParentId(), level + 1,
+                resource instanceof ResourceWithState ? ((ResourceWithState) resource).getState() : null);
+        if (!maybeParentAncestry.isPresent()) {
+            return;
+        }
+        Ancestry ancestry = new Ancestry(ImmutableList.<String>builder().add(resource.getId())
+                .addAll(maybeParentAncestry.get()
+                        .getAncestorIds())
+                .build(), maybeParentAncestry.get()
+                .getCragState());
+
+        // most writes don't move the resource or change the state of a crag, so check one entry before loading them all
+        if (!isStale(firstEntries.get(0), level, ancestry)) {
+            return;
+        }
+
+        List<RouteSearchEntry> entriesToSave = new ArrayList<>();
+        List<RouteSearchEntry> entriesToDelete = new ArrayList<>();
+        dynamoDBMapper.query(RouteSearchEntry.class,
+                new DynamoDBQueryExpression<RouteSearchEntry>().withHashKeyValues(buildHashKey(resource.getId()))
+                        .withConsistentRead(false), dynamoDBMapperConfig)
+                .stream()
+                .filter(entry -> isStale(entry, level, ancestry))
+                .forEach(entry -> addEntries(entry.toBuilder()
+                        .ancestorIds(ImmutableList.<String>builder().addAll(entry.getAncestorIds()
+                                .subList(0, level))
+                                .addAll(ancestry.getAncestorIds())
+                                .build())
+                        .cragState(ancestry.getCragState() == null ? entry.getCragState() : ancestry.getCragState())
+                        .build(), entry.getAncestorIds(), entriesToSave, entriesToDelete));
+        log.info(String.format("Moving %d route search entries after %s was written.",
+                entriesToSave.size() + entriesToDelete.size(), resource.getId()));
+        write(entriesToSave, entriesToDelete);
+    }
+
+    private static boolean isStale(RouteSearchEntry entry, int level, Ancestry ancestry) {
+        return !entry.getAncestorIds()
+                .subList(level, entry.getAncestorIds()
+                        .size())
+                .equals(ancestry.getAncestorIds()) ||
+                ancestry.getCragState() != null && !ancestry.getCragState()
+                        .equals(entry.getCragState());
+    }
+
+    private static void addEntries(RouteSearchEntry entry, Collection<String> previousAncestorIds,
+                                   List<RouteSearchEntry> entriesToSave, List<RouteSearchEntry> entriesToDelete) {
+        entry.getAncestorIds()
+                .forEach(ancestorId -> entriesToSave.add(entry.toBuilder()
+                        .ancestorId(ancestorId)
+                        .build()));
+        previousAncestorIds.stream()
+                .filter(ancestorId -> !entry.getAncestorIds()
+                        .contains(ancestorId))
+                .forEach(ancestorId -> entriesToDelete.add(RouteSearchEntry.builder()
+                        .ancestorId(ancestorId)
+                        .routeId(entry.getRouteId())
+                        .build()));
+    }
+
+    /**
+     * Walks up from an ancestor at the given level, collecting its ID and the IDs of everything above it.
+     *
+     * @param cragState state of the crag, if the walk starts below it and the crag has already been loaded
+     * @return empty if any ancestor along the way doesn't exist
+     */
+    private Optional<Ancestry> resolveAncestry(String ancestorId, int level, @Nullable String cragState) {
+        List<String> ancestorIds = new ArrayList<>();
+        for (; level < ancestorTables.size(); level++) {
+            ancestorIds.add(ancestorId);
+            AncestorTable ancestorTable = ancestorTables.get(level);
+            ResourceWithParent<?> ancestor = dynamoDBMapper.load(ancestorTable.getResourceClass(), ancestorId,
+                    ancestorTable.getDynamoDBMapperConfig());
+            if (ancestor == null) {
+                log.warn(String.format("Not indexing routes under %s, because it doesn't exist.", ancestorId));
+                return Optional.empty();
+            }
+            if (ancestor instanceof ResourceWithState) {
+                cragState = ((ResourceWithState) ancestor).getState();
+            }
+            ancestorId = ancestor.getParentId();
+        }
+        ancestorIds.add(ancestorId);
+        return Optional.of(new Ancestry(ancestorIds, cragState));
+    }
+
+    private int getLevel(Resource resource) {
+        for (int level = 0; level < ancestorTables.size(); level++) {
+            if (ancestorTables.get(level)
+                    .getResourceClass()
+                    .isInstance(resource)) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    private List<RouteSearchEntry> loadEntryKeys(String routeId) {
+        return dynamoDBMapper.query(RouteSearchEntry.class,
+                new DynamoDBQueryExpression<RouteSearchEntry>().withHashKeyValues(RouteSearchEntry.builder()
+                        .routeId(routeId)
+                        .build())
+                        .withIndexName(RouteSearchEntry.ROUTE_INDEX_NAME)
+                        .withConsistentRead(false), dynamoDBMapperConfig)
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    private void write(List<RouteSearchEntry> entriesToSave, List<RouteSearchEntry> entriesToDelete) {
+        if (entriesToSave.isEmpty() && entriesToDelete.isEmpty()) {
+            return;
+        }
+        dynamoDBMapper.batchWrite(entriesToSave, entriesToDelete, dynamoDBMapperConfig)
+                .forEach(failedBatch -> log.error("Unable to write route search entries.", failedBatch.getException()));
+    }
+
+    private static RouteSearchEntry buildHashKey(String ancestorId) {
+        return RouteSearchEntry.builder()
+                .ancestorId(ancestorId)
+                .build();
+    }
+
+    private static String encodeNextToken(Map<String, AttributeValue> lastEvaluatedKey) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((lastEvaluatedKey.get(GRADE_KEY_ATTRIBUTE_NAME)
+                        .getN() + NEXT_TOKEN_SEPARATOR + lastEvaluatedKey.get(ROUTE_ID_ATTRIBUTE_NAME)
+                        .getS()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, AttributeValue> decodeNextToken(String ancestorId, String nextToken, int lowerGradeKey,
+                                                               int upperGradeKey) throws InvalidRequestException {
+        String[] parts;
+        int gradeKey;
+        try {
+            parts = new String(Base64.getUrlDecoder()
+                    .decode(nextToken), StandardCharsets.UTF_8).split(NEXT_TOKEN_SEPARATOR, 2);
+            gradeKey = Integer.parseInt(parts[0]);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new InvalidRequestException("Next token is not valid.");
+        }
+        if (parts.length != 2 || gradeKey < lowerGradeKey || gradeKey > upperGradeKey) {
+            throw new InvalidRequestException("Next token is not valid.");
+        }
+        return ImmutableMap.of(ANCESTOR_ID_ATTRIBUTE_NAME, new AttributeValue(ancestorId), ROUTE_ID_ATTRIBUTE_NAME,
+                new AttributeValue(parts[1]), GRADE_KEY_ATTRIBUTE_NAME,
+                new AttributeValue().withN(String.valueOf(gradeKey)));
+    }
+}
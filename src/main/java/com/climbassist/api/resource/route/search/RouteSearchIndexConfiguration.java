@@ -0,0 +1,75 @@
+package com.climbassist.api.resource.route.search;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.climbassist.api.resource.area.Area;
+import com.climbassist.api.resource.common.ResourceWithParent;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.region.Region;
+import com.climbassist.api.resource.subarea.SubArea;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.dynamodb.DynamoDbConfiguration;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import({DynamoDbConfiguration.class, MetricsConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class RouteSearchIndexConfiguration {
+
+    /**
+     * Applies the writes to routes and their ancestors to the index in the background. Only one batch of writes is ever
+     * queued, so this only needs one thread.
+     */
+    @Bean
+    public BoundedExecutor routeSearchIndexExecutor(@NonNull MetricsEmitter metricsEmitter) {
+        return BoundedExecutor.builder()
+                .name("RouteSearchIndexExecutor")
+                .concurrency(1)
+                .queueCapacity(1)
+                .metricsEmitter(metricsEmitter)
+                .build();
+    }
+
+    @Bean
+    public RouteSearchIndex routeSearchIndex(@NonNull DynamoDBMapper dynamoDBMapper,
+            @NonNull BoundedExecutor routeSearchIndexExecutor,
+            @Value("${routeSearchIndexTableName}") @NonNull String routeSearchIndexTableName,
+            @Value("${routesTableName}") @NonNull String routesTableName,
+            @Value("${wallsTableName}") @NonNull String wallsTableName,
+            @Value("${cragsTableName}") @NonNull String cragsTableName,
+            @Value("${subAreasTableName}") @NonNull String subAreasTableName,
+            @Value("${areasTableName}") @NonNull String areasTableName,
+            @Value("${regionsTableName}") @NonNull String regionsTableName) {
+        return RouteSearchIndex.builder()
+                .dynamoDBMapper(dynamoDBMapper)
+                .dynamoDBMapperConfig(buildDynamoDbMapperConfig(routeSearchIndexTableName))
+                .ancestorTables(ImmutableList.of(buildAncestorTable(Wall.class, wallsTableName),
+                        buildAncestorTable(Crag.class, cragsTableName),
+                        buildAncestorTable(SubArea.class, subAreasTableName),
+                        buildAncestorTable(Area.class, areasTableName),
+                        buildAncestorTable(Region.class, regionsTableName)))
+                .routesDynamoDBMapperConfig(buildDynamoDbMapperConfig(routesTableName))
+                .executor(routeSearchIndexExecutor)
+                .build();
+    }
+
+    private static RouteSearchIndex.AncestorTable buildAncestorTable(
+            Class<? extends ResourceWithParent<?>> resourceClass, String tableName) {
+        return new RouteSearchIndex.AncestorTable(resourceClass, buildDynamoDbMapperConfig(tableName));
+    }
+
+    private static DynamoDBMapperConfig buildDynamoDbMapperConfig(String tableName) {
+        return DynamoDBMapperConfig.builder()
+                .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(tableName))
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.climbassist.api.resource.route.search;
+
+import com.climbassist.api.resource.route.Route;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class RouteSearchResult {
+
+    private List<Route> routes;
+    // present if there may be more routes, in which case it's passed back to get the next page
+    @Nullable
+    private String nextToken;
+}
@@ -10,6 +10,8 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.CragsDao;
 import com.climbassist.common.CommonConfiguration;
@@ -29,7 +31,9 @@ public class SubAreaConfiguration {
                                                @NonNull ResourceIdGenerator resourceIdGenerator,
                                                @NonNull SubAreaNotFoundExceptionFactory subAreaNotFoundExceptionFactory,
                                                @NonNull AreaNotFoundExceptionFactory areaNotFoundExceptionFactory,
-                                               @NonNull RecursiveResourceRetriever<Crag, SubArea> recursiveResourceRetriever) {
+                                               @NonNull RecursiveResourceRetriever<Crag, SubArea> recursiveResourceRetriever,
+                                               @NonNull ResourceTreeLoader resourceTreeLoader,
+                                               @NonNull SubtreeSnapshotCache subtreeSnapshotCache) {
         ResourceControllerDelegate<SubArea, NewSubArea> resourceControllerDelegate =
                 ResourceControllerDelegate.<SubArea, NewSubArea>builder().resourceDao(subAreasDao)
                         .resourceFactory(SubAreaFactory.builder()
@@ -52,6 +56,8 @@ public class SubAreaConfiguration {
                                 .resourceNotEmptyExceptionFactory(new SubAreaNotEmptyExceptionFactory())
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .build())
                 .build();
     }
@@ -10,6 +10,7 @@ import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegat
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.user.SessionUtils;
 import com.climbassist.api.user.UserData;
 import com.climbassist.api.user.authorization.AdministratorAuthorizationHandler;
@@ -43,11 +44,11 @@ public class SubAreaController {
 
     @Metrics(api = "GetSubArea")
     @RequestMapping(path = "/v1/sub-areas/{subAreaId}", method = RequestMethod.GET)
-    public SubArea getResource(@ValidSubAreaId @NonNull @PathVariable String subAreaId,
-                               @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                               @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                           @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(subAreaId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidSubAreaId @NonNull @PathVariable String subAreaId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType") @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                                   @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(subAreaId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListSubAreas")
@@ -3,6 +3,7 @@ package com.climbassist.api.resource.wall;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.climbassist.api.resource.common.NewResourceWithParent;
 import com.climbassist.api.resource.common.ValidName;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.ValidCragId;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -35,6 +36,10 @@ public class NewWall implements NewResourceWithParent<Wall, Crag> {
     @ValidNextWallId
     private String next;
 
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @JsonIgnore
     @Override
     public String getParentId() {
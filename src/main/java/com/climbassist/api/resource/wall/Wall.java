@@ -3,11 +3,13 @@ package com.climbassist.api.resource.wall;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIgnore;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.climbassist.api.resource.common.InvalidChildException;
 import com.climbassist.api.resource.common.ResourceWithParent;
 import com.climbassist.api.resource.common.ValidName;
 import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentAndChildren;
+import com.climbassist.api.resource.common.ordering.ValidOrderKey;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.ValidCragId;
 import com.climbassist.api.resource.route.Route;
@@ -32,12 +34,13 @@ import java.util.List;
 public class Wall implements OrderableResourceWithParentAndChildren<Wall, Crag> {
 
     public static final String GLOBAL_SECONDARY_INDEX_NAME = "CragIndex";
+    public static final String ORDER_INDEX_NAME = "CragOrderIndex";
 
     @DynamoDBHashKey
     @ValidWallId
     private String wallId;
 
-    @DynamoDBIndexHashKey(globalSecondaryIndexName = GLOBAL_SECONDARY_INDEX_NAME)
+    @DynamoDBIndexHashKey(globalSecondaryIndexNames = {GLOBAL_SECONDARY_INDEX_NAME, ORDER_INDEX_NAME})
     @ValidCragId
     private String cragId;
 
@@ -52,6 +55,11 @@ public class Wall implements OrderableResourceWithParentAndChildren<Wall, Crag>
     @ValidNextWallId
     private String next;
 
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = ORDER_INDEX_NAME)
+    @Nullable
+    @ValidOrderKey
+    private String orderKey;
+
     @DynamoDBIgnore
     private List<Route> routes;
 
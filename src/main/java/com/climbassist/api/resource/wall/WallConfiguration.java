@@ -9,6 +9,8 @@ import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetrieverConfiguration;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.CragNotFoundExceptionFactory;
 import com.climbassist.api.resource.crag.CragsDao;
@@ -30,7 +32,10 @@ public class WallConfiguration {
                                          @NonNull RoutesDao routesDao, @NonNull ResourceIdGenerator resourceIdGenerator,
                                          @NonNull WallNotFoundExceptionFactory wallNotFoundExceptionFactory,
                                          @NonNull CragNotFoundExceptionFactory cragNotFoundExceptionFactory,
-                                         @NonNull RecursiveResourceRetriever<Route, Wall> recursiveResourceRetriever) {
+                                         @NonNull RecursiveResourceRetriever<Route, Wall> recursiveResourceRetriever,
+                                         @NonNull ResourceTreeLoader resourceTreeLoader,
+                                         @NonNull SubtreeSnapshotCache subtreeSnapshotCache,
+                                         @NonNull OrderableListBuilder<Wall, Crag> orderableListBuilder) {
         ResourceControllerDelegate<Wall, NewWall> resourceControllerDelegate =
                 ResourceControllerDelegate.<Wall, NewWall>builder().resourceDao(wallsDao)
                         .resourceFactory(WallFactory.builder()
@@ -50,13 +55,15 @@ public class WallConfiguration {
                 .orderableResourceWithParentControllerDelegate(
                         OrderableResourceWithParentControllerDelegate.<Wall, NewWall, Crag>builder().resourceWithParentControllerDelegate(
                                 resourceWithParentControllerDelegate)
-                                .orderableListBuilder(new OrderableListBuilder<>())
+                                .orderableListBuilder(orderableListBuilder)
                                 .build())
                 .resourceWithChildrenControllerDelegate(
                         ResourceWithChildrenControllerDelegate.<Wall, NewWall>builder().childResourceDaos(
                                 ImmutableSet.of(routesDao))
                                 .resourceNotEmptyExceptionFactory(new WallNotEmptyExceptionFactory())
                                 .recursiveResourceRetrievers(ImmutableSet.of(recursiveResourceRetriever))
+                                .resourceTreeLoader(resourceTreeLoader)
+                                .subtreeSnapshotCache(subtreeSnapshotCache)
                                 .resourceControllerDelegate(resourceControllerDelegate)
                                 .build())
                 .build();
@@ -10,6 +10,7 @@ import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.ValidDepth;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.resource.crag.ValidCragId;
 import com.climbassist.api.user.SessionUtils;
@@ -48,12 +49,12 @@ public class WallController {
 
     @Metrics(api = "GetWall")
     @RequestMapping(path = "/v1/walls/{wallId}", method = RequestMethod.GET)
-    public Wall getResource(@ValidWallId @NonNull @PathVariable String wallId,
-                            @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
-                            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-                                               @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
-                                               @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
-        return resourceWithChildrenControllerDelegate.getResource(wallId, depth, maybeUserData);
+    public SubtreeSnapshot getResource(@ValidWallId @NonNull @PathVariable String wallId,
+                                       @ValidDepth @RequestParam(required = false, defaultValue = "0") int depth,
+                                       @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                       @SessionAttribute(value = SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME)
+                                       @NonNull Optional<UserData> maybeUserData) throws ResourceNotFoundException {
+        return resourceWithChildrenControllerDelegate.getResourceSnapshot(wallId, depth, maybeUserData);
     }
 
     @Metrics(api = "ListWalls")
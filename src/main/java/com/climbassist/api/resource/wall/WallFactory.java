@@ -20,6 +20,7 @@ public class WallFactory extends ResourceFactory<Wall, NewWall> {
                 .name(newWall.getName())
                 .first(newWall.getFirst())
                 .next(newWall.getNext())
+                .orderKey(newWall.getOrderKey())
                 .build();
     }
 }
@@ -1,13 +1,13 @@
 package com.climbassist.api.resource.wall;
 
 import com.climbassist.api.resource.common.ResourceDao;
-import com.climbassist.api.resource.common.ResourceWithParentDao;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
 import com.climbassist.api.resource.crag.Crag;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
 @SuperBuilder
-public class WallsDao extends ResourceWithParentDao<Wall, Crag> {
+public class WallsDao extends OrderableResourceWithParentDao<Wall, Crag> {
 
     @Override
     protected Wall buildResourceForDeletion(@NonNull String resourceId) {
@@ -28,6 +28,11 @@ public class WallsDao extends ResourceWithParentDao<Wall, Crag> {
         return Wall.GLOBAL_SECONDARY_INDEX_NAME;
     }
 
+    @Override
+    protected String getOrderIndexName() {
+        return Wall.ORDER_INDEX_NAME;
+    }
+
     @Override
     protected Class<Wall> getResourceTypeClass() {
         return Wall.class;
@@ -9,12 +9,15 @@ import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
 import com.climbassist.api.resource.common.state.State;
 import com.climbassist.api.user.UserData;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.Builder;
 import lombok.NonNull;
 
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Builder
 public class ResourcesDao {
@@ -25,6 +28,10 @@ public class ResourcesDao {
     private final DynamoDBMapper dynamoDbMapper;
     @NonNull
     private final ResourceFactory resourceFactory;
+    // runs the asynchronous variants of the DAO methods; callers that don't set one get them run on the calling thread
+    @NonNull
+    @Builder.Default
+    private final Executor executor = MoreExecutors.directExecutor();
 
     public <T extends Resource> Optional<T> getResource(@NonNull final String id,
             @NonNull final Class<T> resourceTypeClass) {
@@ -53,6 +60,35 @@ public class ResourcesDao {
         dynamoDbMapper.delete(resourceFactory.buildResource(resourceTypeClass, id), dynamoDbMapperConfig);
     }
 
+    public <T extends Resource> CompletableFuture<Optional<T>> getResourceAsync(@NonNull final String id,
+            @NonNull final Class<T> resourceTypeClass) {
+        return CompletableFuture.supplyAsync(() -> getResource(id, resourceTypeClass), executor);
+    }
+
+    public <T extends Resource> CompletableFuture<Optional<T>> getResourceAsync(@NonNull final String id,
+            @NonNull final Class<T> resourceTypeClass, @NonNull final UserData userData) {
+        return CompletableFuture.supplyAsync(() -> getResource(id, resourceTypeClass, userData), executor);
+    }
+
+    public <T extends Resource> CompletableFuture<Set<T>> listResourcesAsync(
+            @NonNull final Class<T> resourceTypeClass) {
+        return CompletableFuture.supplyAsync(() -> listResources(resourceTypeClass), executor);
+    }
+
+    public <T extends Resource> CompletableFuture<Set<T>> listResourcesAsync(@NonNull final Class<T> resourceTypeClass,
+            @NonNull final UserData userData) {
+        return CompletableFuture.supplyAsync(() -> listResources(resourceTypeClass, userData), executor);
+    }
+
+    public <T extends Resource> CompletableFuture<Void> saveResourceAsync(@NonNull final T resource) {
+        return CompletableFuture.runAsync(() -> saveResource(resource), executor);
+    }
+
+    public <T extends Resource> CompletableFuture<Void> deleteResourceAsync(final String id,
+            final Class<T> resourceTypeClass) {
+        return CompletableFuture.runAsync(() -> deleteResource(id, resourceTypeClass), executor);
+    }
+
     private <T extends Resource> Optional<T> getResource(final String id, final Class<T> resourceTypeClass,
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<UserData> maybeUserData) {
         DynamoDBQueryExpression<T> dynamoDbQueryExpression = new DynamoDBQueryExpression<T>().withHashKeyValues(
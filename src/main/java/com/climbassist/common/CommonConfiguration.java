@@ -1,8 +1,6 @@
 package com.climbassist.common;
 
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.climbassist.api.resource.common.ResourceIdGenerator;
-import com.climbassist.common.s3.S3Proxy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import lombok.NonNull;
@@ -25,15 +23,6 @@ public class CommonConfiguration {
         return objectMapper;
     }
 
-    @Bean
-    public S3Proxy s3Proxy(@NonNull String region) {
-        return S3Proxy.builder()
-                .amazonS3(AmazonS3ClientBuilder.standard()
-                        .withRegion(region)
-                        .build())
-                .build();
-    }
-
     @Bean
     public ResourceIdGenerator resourceIdGenerator() {
         return new ResourceIdGenerator();
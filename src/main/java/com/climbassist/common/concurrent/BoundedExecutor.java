@@ -0,0 +1,186 @@
+package com.climbassist.common.concurrent;
+
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import javax.annotation.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class is a fixed-size thread pool with a bounded queue which emits queue time and execution time metrics for
+ * every task. When the queue is full, tasks are run on the submitting thread by default, which slows down the caller
+ * rather than failing its request. Executors whose callers must not do the work themselves, like servlet container
+ * threads, can reject tasks with a {@link RejectedExecutionException} instead.
+ * <p>
+ * If a task timeout is set, a task which hasn't started by the time it runs out is dropped without running, and a task
+ * which is still running is interrupted, so that work nobody is waiting for anymore stops as soon as it can. A dropped
+ * task never completes, so the timeout should be no shorter than how long its submitter waits for it.
+ * <p>
+ * The MDC of the submitting thread is copied to the worker thread so that request IDs still show up in the logs, and
+ * every task is passed through the task decorator, if there is one, so that other per-request state can follow it the
+ * same way.
+ */
+@Slf4j
+public class BoundedExecutor implements Executor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final String name;
+    private final MetricsEmitter metricsEmitter;
+    private final UnaryOperator<Runnable> taskDecorator;
+    private final long taskTimeoutMillis;
+    private final ThreadLocal<Boolean> workerThread = ThreadLocal.withInitial(() -> false);
+    private final ThreadPoolExecutor threadPoolExecutor;
+    @Nullable
+    private final ScheduledExecutorService timeoutScheduler;
+
+    /**
+     * @param rejectWhenFull    whether to throw a {@link RejectedExecutionException} instead of running the task on the
+     *                          submitting thread when the queue is full
+     * @param taskTimeoutMillis how long a task may take from being submitted until it's done, or 0 for no limit
+     */
+    @Builder
+    private BoundedExecutor(@NonNull String name, int concurrency, int queueCapacity,
+                            @NonNull MetricsEmitter metricsEmitter, @Nullable UnaryOperator<Runnable> taskDecorator,
+                            boolean rejectWhenFull, long taskTimeoutMillis) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be greater than or equal to 1.");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be greater than or equal to 1.");
+        }
+        if (taskTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Task timeout must be greater than or equal to 0.");
+        }
+        this.name = name;
+        this.metricsEmitter = metricsEmitter;
+        this.taskDecorator = taskDecorator == null ? UnaryOperator.identity() : taskDecorator;
+        this.taskTimeoutMillis = taskTimeoutMillis;
+        threadPoolExecutor = new ThreadPoolExecutor(concurrency, concurrency, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadFactoryBuilder().setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .setThreadFactory(runnable -> new Thread(() -> {
+                    workerThread.set(true);
+                    runnable.run();
+                }))
+                .build(),
+                rejectWhenFull ? new ThreadPoolExecutor.AbortPolicy() : new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        timeoutScheduler = taskTimeoutMillis == 0 ? null : Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat(name + "-timeout")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * @throws RejectedExecutionException if the queue is full and the executor rejects tasks when it's full
+     */
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        long submitTime = System.currentTimeMillis();
+        Map<String, String> submitterContext = MDC.getCopyOfContextMap();
+        Runnable decoratedRunnable = taskDecorator.apply(runnable);
+        try {
+            threadPoolExecutor.execute(() -> {
+                long startTime = System.currentTimeMillis();
+                // if the queue is full this runs on the submitting thread, so its own context has to be put back after
+                Map<String, String> workerContext = MDC.getCopyOfContextMap();
+                setContext(submitterContext);
+                try {
+                    if (timeoutScheduler == null) {
+                        decoratedRunnable.run();
+                    }
+                    else {
+                        runWithTimeout(decoratedRunnable, submitTime + taskTimeoutMillis - startTime);
+                    }
+                } finally {
+                    setContext(workerContext);
+                    metricsEmitter.emitComponentDurationMetric(name, "queueTime", startTime - submitTime);
+                    metricsEmitter.emitComponentDurationMetric(name, "executionTime",
+                            System.currentTimeMillis() - startTime);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metricsEmitter.emitComponentCountMetric(name, "rejectedCount", 1);
+            throw e;
+        }
+        metricsEmitter.emitComponentCountMetric(name, "queueSize", threadPoolExecutor.getQueue()
+                .size());
+    }
+
+    /**
+     * @return whether the current thread is one of this executor's own threads, for callers which would deadlock if
+     * they waited on the executor from inside it
+     */
+    public boolean isWorkerThread() {
+        return workerThread.get();
+    }
+
+    public void shutdown() {
+        log.info(String.format("Shutting down executor %s.", name));
+        threadPoolExecutor.shutdown();
+        if (timeoutScheduler != null) {
+            timeoutScheduler.shutdownNow();
+        }
+    }
+
+    private void runWithTimeout(Runnable runnable, long remainingMillis) {
+        if (remainingMillis <= 0) {
+            // whoever submitted the task has already given up on it, so there's no point in starting it
+            log.warn(String.format("Dropping a task of executor %s which timed out in the queue.", name));
+            metricsEmitter.emitComponentCountMetric(name, "timeoutCount", 1);
+            return;
+        }
+        Thread workerThread = Thread.currentThread();
+        // guards against interrupting the thread once it has moved on to something else
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ScheduledFuture<?> interruption = timeoutScheduler.schedule(() -> {
+            synchronized (finished) {
+                if (!finished.get()) {
+                    interrupted.set(true);
+                    workerThread.interrupt();
+                }
+            }
+        }, remainingMillis, TimeUnit.MILLISECONDS);
+        try {
+            runnable.run();
+        } finally {
+            interruption.cancel(false);
+            synchronized (finished) {
+                finished.set(true);
+            }
+            if (interrupted.get()) {
+                // clears the interrupt, so that it doesn't leak into whatever the thread runs next
+                //noinspection ResultOfMethodCallIgnored
+                Thread.interrupted();
+                log.warn(String.format("Interrupted a task of executor %s which ran out of time.", name));
+                metricsEmitter.emitComponentCountMetric(name, "timeoutCount", 1);
+            }
+        }
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        }
+        else {
+            MDC.setContextMap(context);
+        }
+    }
+}
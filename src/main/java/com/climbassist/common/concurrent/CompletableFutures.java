@@ -0,0 +1,55 @@
+package com.climbassist.common.concurrent;
+
+import com.google.common.base.Throwables;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+@UtilityClass
+public class CompletableFutures {
+
+    @FunctionalInterface
+    public interface CheckedSupplier<T> {
+
+        T get() throws Exception;
+    }
+
+    /**
+     * Waits for a future to complete. If it failed with an unchecked exception, that exception is thrown as is rather
+     * than wrapped in a {@link CompletionException}, so callers see the same exceptions as they would from a blocking
+     * call.
+     */
+    public static <T> T join(@NonNull CompletableFuture<T> completableFuture) {
+        try {
+            return completableFuture.join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync}, but for suppliers that throw checked exceptions. A checked exception
+     * completes the future exceptionally with a {@link CompletionException} around it, which Spring unwraps again when
+     * a controller returns the future.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(@NonNull CheckedSupplier<T> checkedSupplier,
+                                                       @NonNull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return checkedSupplier.get();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread()
+                            .interrupt();
+                }
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
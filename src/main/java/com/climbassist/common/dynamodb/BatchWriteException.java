@@ -0,0 +1,8 @@
+package com.climbassist.common.dynamodb;
+
+public class BatchWriteException extends RuntimeException {
+
+    public BatchWriteException(String message) {
+        super(message);
+    }
+}
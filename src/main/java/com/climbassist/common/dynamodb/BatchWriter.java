@@ -0,0 +1,147 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.concurrent.CompletableFutures;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableMap;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class writes items to a table with BatchWriteItem instead of one request per item. The items are split into
+ * chunks of 25, the most that one request can hold, and the chunks are written in parallel. DynamoDB returns the items
+ * it didn't get to, usually because the table is being throttled, and those are retried with exponential backoff. Each
+ * backoff is a random time up to the exponential one, so that chunks throttled together don't all retry together. The
+ * latency of each chunk, including its retries, and of the whole write are emitted with the table as the component.
+ * <p>
+ * Writes wait for their chunks to run on the executor, so they must not be made from one of the executor's own threads.
+ * If every thread did that, the chunks would sit in the queue behind the writes waiting for them.
+ */
+@Slf4j
+public class BatchWriter {
+
+    static final int MAX_BATCH_SIZE = 25;
+    private static final String METRICS_COMPONENT_PREFIX = "BatchWriter:";
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final Executor executor;
+    private final MetricsEmitter metricsEmitter;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+
+    @Builder
+    private BatchWriter(@NonNull AmazonDynamoDB amazonDynamoDB, @NonNull Executor executor,
+                        @NonNull MetricsEmitter metricsEmitter, int maxAttempts, long baseBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be greater than or equal to 1.");
+        }
+        if (baseBackoffMillis < 0) {
+            throw new IllegalArgumentException("Base backoff must be greater than or equal to 0.");
+        }
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.executor = executor;
+        this.metricsEmitter = metricsEmitter;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+    }
+
+    /**
+     * Writes the items and waits for every chunk to finish. The writes aren't transactional, so if this throws, some of
+     * the items may have been written.
+     *
+     * @throws BatchWriteException   if some items were still unprocessed after the last attempt
+     * @throws IllegalStateException if this is called from a thread of the executor
+     */
+    public void write(@NonNull String tableName, @NonNull List<WriteRequest> writeRequests) {
+        write(tableName, writeRequests.iterator());
+    }
+
+    /**
+     * Writes the items as they're produced, so each chunk starts as soon as it's full instead of after the last item,
+     * and waits for every chunk to finish. No more chunks are started once one has failed. If the executor is saturated
+     * and runs chunks on the calling thread, the items stop being produced until the chunk is written.
+     *
+     * @return the number of items written
+     * @throws BatchWriteException   if some items were still unprocessed after the last attempt
+     * @throws IllegalStateException if this is called from a thread of the executor
+     */
+    public int write(@NonNull String tableName, @NonNull Iterator<WriteRequest> writeRequests) {
+        if (executor instanceof BoundedExecutor && ((BoundedExecutor) executor).isWorkerThread()) {
+            throw new IllegalStateException(
+                    String.format("Batch writes to table %s can't be made from a thread of the executor they run on.",
+                            tableName));
+        }
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<Void>> chunkFutures = new ArrayList<>();
+        int itemCount = 0;
+        try {
+            while (writeRequests.hasNext() && chunkFutures.stream()
+                    .noneMatch(CompletableFuture::isCompletedExceptionally)) {
+                List<WriteRequest> chunk = new ArrayList<>(MAX_BATCH_SIZE);
+                while (chunk.size() < MAX_BATCH_SIZE && writeRequests.hasNext()) {
+                    chunk.add(writeRequests.next());
+                }
+                itemCount += chunk.size();
+                chunkFutures.add(CompletableFuture.runAsync(() -> writeChunk(tableName, chunk), executor));
+            }
+            CompletableFutures.join(CompletableFuture.allOf(chunkFutures.toArray(new CompletableFuture[0])));
+            return itemCount;
+        } finally {
+            metricsEmitter.emitComponentDurationMetric(METRICS_COMPONENT_PREFIX + tableName, "latency",
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void writeChunk(String tableName, List<WriteRequest> chunk) {
+        long startTime = System.currentTimeMillis();
+        String component = METRICS_COMPONENT_PREFIX + tableName;
+        List<WriteRequest> unprocessedItems = chunk;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                BatchWriteItemResult batchWriteItemResult = amazonDynamoDB.batchWriteItem(
+                        new BatchWriteItemRequest().withRequestItems(ImmutableMap.of(tableName, unprocessedItems)));
+                unprocessedItems = batchWriteItemResult.getUnprocessedItems() == null ? null :
+                        batchWriteItemResult.getUnprocessedItems()
+                                .get(tableName);
+                if (unprocessedItems == null || unprocessedItems.isEmpty()) {
+                    return;
+                }
+                metricsEmitter.emitComponentCountMetric(component, "unprocessedItemCount", unprocessedItems.size());
+                if (attempt == maxAttempts) {
+                    throw new BatchWriteException(
+                            String.format("Unable to write %d items to table %s after %d attempts.",
+                                    unprocessedItems.size(), tableName, attempt));
+                }
+                log.info(String.format("Retrying %d unprocessed items for table %s.", unprocessedItems.size(),
+                        tableName));
+                backOff(attempt);
+            }
+        } finally {
+            metricsEmitter.emitComponentDurationMetric(component, "chunkLatency",
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current()
+                    .nextLong((baseBackoffMillis << Math.min(attempt - 1, 16)) + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new BatchWriteException("Interrupted while backing off from unprocessed items.");
+        }
+    }
+}
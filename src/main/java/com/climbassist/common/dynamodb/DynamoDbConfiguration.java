@@ -0,0 +1,100 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.climbassist.api.resource.common.cache.RequestMemo;
+import com.climbassist.api.resource.common.cache.ResourceCacheConfiguration;
+import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Every DAO shares this one client and mapper, so that there is a single connection pool to DynamoDB per instance.
+ */
+@Configuration
+@Import({CommonConfiguration.class, MetricsConfiguration.class, ResourceCacheConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class DynamoDbConfiguration {
+
+    @Bean
+    public ClientConfiguration dynamoDbClientConfiguration(
+            @Value("${dynamoDbMaxConnections}") int dynamoDbMaxConnections,
+            @Value("${dynamoDbConnectionTimeoutMillis}") int dynamoDbConnectionTimeoutMillis,
+            @Value("${dynamoDbSocketTimeoutMillis}") int dynamoDbSocketTimeoutMillis,
+            @Value("${dynamoDbRequestTimeoutMillis}") int dynamoDbRequestTimeoutMillis,
+            @Value("${dynamoDbClientExecutionTimeoutMillis}") int dynamoDbClientExecutionTimeoutMillis,
+            @Value("${dynamoDbConnectionMaxIdleMillis}") long dynamoDbConnectionMaxIdleMillis,
+            @Value("${dynamoDbMaxErrorRetry}") int dynamoDbMaxErrorRetry) {
+        return new ClientConfiguration().withMaxConnections(dynamoDbMaxConnections)
+                .withConnectionTimeout(dynamoDbConnectionTimeoutMillis)
+                .withSocketTimeout(dynamoDbSocketTimeoutMillis)
+                .withRequestTimeout(dynamoDbRequestTimeoutMillis)
+                .withClientExecutionTimeout(dynamoDbClientExecutionTimeoutMillis)
+                .withTcpKeepAlive(true)
+                .withConnectionMaxIdleMillis(dynamoDbConnectionMaxIdleMillis)
+                .withRetryPolicy(PredefinedRetryPolicies.getDynamoDBDefaultRetryPolicyWithCustomMaxRetries(
+                        dynamoDbMaxErrorRetry));
+    }
+
+    @Bean
+    public AmazonDynamoDB amazonDynamoDB(@NonNull String region,
+                                         @NonNull ClientConfiguration dynamoDbClientConfiguration,
+                                         @NonNull MetricsEmitter metricsEmitter) {
+        return AmazonDynamoDBClientBuilder.standard()
+                .withRegion(region)
+                .withClientConfiguration(dynamoDbClientConfiguration)
+                .withRequestHandlers(TableMetricsRequestHandler.builder()
+                        .metricsEmitter(metricsEmitter)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Runs the asynchronous DAO methods. This is kept below the size of the connection pool, so that requests are
+     * queued here, where it is measured, instead of waiting for a connection.
+     */
+    @Bean
+    public BoundedExecutor daoExecutor(@Value("${daoExecutorConcurrency}") int daoExecutorConcurrency,
+                                       @Value("${daoExecutorQueueCapacity}") int daoExecutorQueueCapacity,
+                                       @NonNull MetricsEmitter metricsEmitter, @NonNull RequestMemo requestMemo) {
+        return BoundedExecutor.builder()
+                .name("DaoExecutor")
+                .concurrency(daoExecutorConcurrency)
+                .queueCapacity(daoExecutorQueueCapacity)
+                .metricsEmitter(metricsEmitter)
+                .taskDecorator(requestMemo::propagate)
+                .build();
+    }
+
+    /**
+     * Writes batches of items on the DAO executor, so batch writes share its limit on requests in flight.
+     */
+    @Bean
+    public BatchWriter batchWriter(@NonNull AmazonDynamoDB amazonDynamoDB, @NonNull BoundedExecutor daoExecutor,
+                                   @NonNull MetricsEmitter metricsEmitter,
+                                   @Value("${batchWriteMaxAttempts}") int batchWriteMaxAttempts,
+                                   @Value("${batchWriteBaseBackoffMillis}") long batchWriteBaseBackoffMillis) {
+        return BatchWriter.builder()
+                .amazonDynamoDB(amazonDynamoDB)
+                .executor(daoExecutor)
+                .metricsEmitter(metricsEmitter)
+                .maxAttempts(batchWriteMaxAttempts)
+                .baseBackoffMillis(batchWriteBaseBackoffMillis)
+                .build();
+    }
+
+    @Bean
+    public DynamoDBMapper dynamoDBMapper(@NonNull AmazonDynamoDB amazonDynamoDB) {
+        return new DynamoDBMapper(amazonDynamoDB);
+    }
+}
@@ -0,0 +1,169 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class reads a whole table with a parallel Scan, which splits the table into segments that are scanned at the
+ * same time. Pages are handed to the caller on its own thread as they arrive, through a queue that holds at most one
+ * page per segment, so a slow caller slows the scan down instead of letting pages pile up in memory.
+ *
+ * <p>The read capacity consumed by every page is taken from a rate limiter that's shared by every scan, so that
+ * scans don't throttle the requests that the tables are serving at the same time.
+ */
+@Slf4j
+public class ParallelScanner {
+
+    @FunctionalInterface
+    public interface PageConsumer {
+
+        void accept(List<Map<String, AttributeValue>> items) throws IOException;
+    }
+
+    private static final String METRICS_COMPONENT_PREFIX = "ParallelScanner:";
+    // marks the end of a segment in the page queue
+    private static final List<Map<String, AttributeValue>> END_OF_SEGMENT = Collections.emptyList();
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final MetricsEmitter metricsEmitter;
+    private final int segmentCount;
+    private final int pageSize;
+    private final RateLimiter rateLimiter;
+
+    @Builder
+    private ParallelScanner(@NonNull AmazonDynamoDB amazonDynamoDB, @NonNull MetricsEmitter metricsEmitter,
+                            int segmentCount, int pageSize, double readCapacityUnitsPerSecond) {
+        if (segmentCount < 1) {
+            throw new IllegalArgumentException("Segment count must be greater than or equal to 1.");
+        }
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be greater than or equal to 1.");
+        }
+        if (readCapacityUnitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Read capacity units per second must be greater than 0.");
+        }
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.metricsEmitter = metricsEmitter;
+        this.segmentCount = segmentCount;
+        this.pageSize = pageSize;
+        rateLimiter = RateLimiter.create(readCapacityUnitsPerSecond);
+    }
+
+    /**
+     * Scans every item in the table, passing each page to the consumer. Pages from different segments are interleaved,
+     * so the items aren't in any particular order. If the consumer throws, the scan is stopped.
+     *
+     * @return the number of items scanned
+     * @throws ScanException if a segment failed or the scan was interrupted
+     */
+    public long scan(@NonNull String tableName, @NonNull PageConsumer pageConsumer) throws IOException {
+        long startTime = System.currentTimeMillis();
+        String component = METRICS_COMPONENT_PREFIX + tableName;
+        BlockingQueue<List<Map<String, AttributeValue>>> pages = new ArrayBlockingQueue<>(segmentCount);
+        List<Throwable> segmentFailures = Collections.synchronizedList(new ArrayList<>());
+        // a pool per scan, because the segments block on the queue until this thread takes their pages, so they can
+        // never be run on this thread the way a shared executor would when it's saturated
+        ExecutorService executorService = Executors.newFixedThreadPool(segmentCount,
+                new ThreadFactoryBuilder().setNameFormat("ParallelScanner-" + tableName + "-%d")
+                        .setDaemon(true)
+                        .build());
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        long itemCount = 0;
+        try {
+            for (int segment = 0; segment < segmentCount; segment++) {
+                int currentSegment = segment;
+                executorService.execute(() -> {
+                    if (context != null) {
+                        MDC.setContextMap(context);
+                    }
+                    try {
+                        scanSegment(tableName, currentSegment, pages);
+                    } catch (InterruptedException e) {
+                        // the scan was stopped, so nothing is waiting for the rest of this segment
+                        return;
+                    } catch (RuntimeException e) {
+                        segmentFailures.add(e);
+                    }
+                    try {
+                        pages.put(END_OF_SEGMENT);
+                    } catch (InterruptedException ignored) {
+                        // the scan was stopped
+                    }
+                });
+            }
+            for (int finishedSegmentCount = 0; finishedSegmentCount < segmentCount; ) {
+                List<Map<String, AttributeValue>> page = pages.take();
+                if (page == END_OF_SEGMENT) {
+                    finishedSegmentCount++;
+                    if (!segmentFailures.isEmpty()) {
+                        throw new ScanException(String.format("Unable to scan table %s.", tableName),
+                                segmentFailures.get(0));
+                    }
+                    continue;
+                }
+                pageConsumer.accept(page);
+                itemCount += page.size();
+            }
+            log.info(String.format("Scanned %d items from table %s in %d segments.", itemCount, tableName,
+                    segmentCount));
+            return itemCount;
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new ScanException(String.format("Interrupted while scanning table %s.", tableName), e);
+        } finally {
+            // stops the other segments if this one failed or the consumer threw
+            executorService.shutdownNow();
+            metricsEmitter.emitComponentCountMetric(component, "itemCount", itemCount);
+            metricsEmitter.emitComponentDurationMetric(component, "latency", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void scanSegment(String tableName, int segment, BlockingQueue<List<Map<String, AttributeValue>>> pages)
+            throws InterruptedException {
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanResult scanResult = amazonDynamoDB.scan(new ScanRequest().withTableName(tableName)
+                    .withSegment(segment)
+                    .withTotalSegments(segmentCount)
+                    .withLimit(pageSize)
+                    .withExclusiveStartKey(exclusiveStartKey)
+                    .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+            // the cost of a page is only known once it's read, so it's paid for by holding back the next one
+            if (scanResult.getConsumedCapacity() != null) {
+                rateLimiter.acquire(Math.max(1, (int) Math.ceil(scanResult.getConsumedCapacity()
+                        .getCapacityUnits())));
+            }
+            if (!scanResult.getItems()
+                    .isEmpty()) {
+                pages.put(scanResult.getItems());
+            }
+            exclusiveStartKey = scanResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null && !Thread.currentThread()
+                .isInterrupted());
+        if (Thread.currentThread()
+                .isInterrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.climbassist.common.dynamodb;
+
+public class ScanException extends RuntimeException {
+
+    public ScanException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
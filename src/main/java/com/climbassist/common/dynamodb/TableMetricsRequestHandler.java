@@ -0,0 +1,151 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItem;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.Builder;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class emits a request count, an error count and a latency metric for every DynamoDB request, with the table
+ * that was accessed as the component. Batch requests that touch more than one table are grouped together, while
+ * transactions are named after every table they touch, like Pitches+Routes, so that each kind of transaction can be
+ * told apart. Latencies include retries, since that is the time callers actually wait.
+ */
+@Builder
+public class TableMetricsRequestHandler extends RequestHandler2 {
+
+    private static final String METRICS_COMPONENT_PREFIX = "DynamoDB:";
+    private static final String MULTIPLE_TABLES = "MultipleTables";
+    private static final String UNKNOWN_TABLE = "UnknownTable";
+    private static final HandlerContextKey<Long> START_TIME_KEY = new HandlerContextKey<>("StartTime");
+
+    @NonNull
+    private final MetricsEmitter metricsEmitter;
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        request.addHandlerContext(START_TIME_KEY, System.currentTimeMillis());
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        emitMetrics(request, false);
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception exception) {
+        emitMetrics(request, true);
+    }
+
+    private void emitMetrics(Request<?> request, boolean isError) {
+        String component = METRICS_COMPONENT_PREFIX + getTableName(request.getOriginalRequest());
+        metricsEmitter.emitComponentCountMetric(component, "requestCount", 1);
+        metricsEmitter.emitComponentCountMetric(component, "errorCount", isError ? 1 : 0);
+        Long startTime = request.getHandlerContext(START_TIME_KEY);
+        if (startTime != null) {
+            metricsEmitter.emitComponentDurationMetric(component, "latency", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    static String getTableName(AmazonWebServiceRequest amazonWebServiceRequest) {
+        if (amazonWebServiceRequest instanceof GetItemRequest) {
+            return ((GetItemRequest) amazonWebServiceRequest).getTableName();
+        }
+        if (amazonWebServiceRequest instanceof PutItemRequest) {
+            return ((PutItemRequest) amazonWebServiceRequest).getTableName();
+        }
+        if (amazonWebServiceRequest instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) amazonWebServiceRequest).getTableName();
+        }
+        if (amazonWebServiceRequest instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) amazonWebServiceRequest).getTableName();
+        }
+        if (amazonWebServiceRequest instanceof QueryRequest) {
+            return ((QueryRequest) amazonWebServiceRequest).getTableName();
+        }
+        if (amazonWebServiceRequest instanceof ScanRequest) {
+            return ((ScanRequest) amazonWebServiceRequest).getTableName();
+        }
+        if (amazonWebServiceRequest instanceof BatchGetItemRequest) {
+            return getTableName(((BatchGetItemRequest) amazonWebServiceRequest).getRequestItems());
+        }
+        if (amazonWebServiceRequest instanceof BatchWriteItemRequest) {
+            return getTableName(((BatchWriteItemRequest) amazonWebServiceRequest).getRequestItems());
+        }
+        if (amazonWebServiceRequest instanceof TransactWriteItemsRequest) {
+            List<TransactWriteItem> transactItems =
+                    ((TransactWriteItemsRequest) amazonWebServiceRequest).getTransactItems();
+            return getTransactionTableName(transactItems == null ? Stream.empty() : transactItems.stream()
+                    .map(TableMetricsRequestHandler::getTableName));
+        }
+        if (amazonWebServiceRequest instanceof TransactGetItemsRequest) {
+            List<TransactGetItem> transactItems =
+                    ((TransactGetItemsRequest) amazonWebServiceRequest).getTransactItems();
+            return getTransactionTableName(transactItems == null ? Stream.empty() : transactItems.stream()
+                    .map(transactGetItem -> transactGetItem.getGet() == null ? null : transactGetItem.getGet()
+                            .getTableName()));
+        }
+        return UNKNOWN_TABLE;
+    }
+
+    @Nullable
+    private static String getTableName(TransactWriteItem transactWriteItem) {
+        if (transactWriteItem.getPut() != null) {
+            return transactWriteItem.getPut()
+                    .getTableName();
+        }
+        if (transactWriteItem.getUpdate() != null) {
+            return transactWriteItem.getUpdate()
+                    .getTableName();
+        }
+        if (transactWriteItem.getDelete() != null) {
+            return transactWriteItem.getDelete()
+                    .getTableName();
+        }
+        if (transactWriteItem.getConditionCheck() != null) {
+            return transactWriteItem.getConditionCheck()
+                    .getTableName();
+        }
+        return null;
+    }
+
+    private static String getTransactionTableName(Stream<String> tableNames) {
+        String transactionTableName = tableNames.filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining("+"));
+        return transactionTableName.isEmpty() ? UNKNOWN_TABLE : transactionTableName;
+    }
+
+    private static String getTableName(Map<String, ?> requestItems) {
+        if (requestItems == null || requestItems.isEmpty()) {
+            return UNKNOWN_TABLE;
+        }
+        return requestItems.size() == 1 ? requestItems.keySet()
+                .iterator()
+                .next() : MULTIPLE_TABLES;
+    }
+}
@@ -0,0 +1,41 @@
+package com.climbassist.common.geo;
+
+import lombok.Value;
+
+/**
+ * A latitude and longitude range. The longitude range may cross the antimeridian, in which case the minimum longitude
+ * is greater than the maximum.
+ */
+@Value
+public class BoundingBox {
+
+    double minLatitude;
+    double maxLatitude;
+    double minLongitude;
+    double maxLongitude;
+
+    /**
+     * Returns the smallest box containing every point within a distance of the given one.
+     */
+    public static BoundingBox around(double latitude, double longitude, double radiusKilometers) {
+        double angularRadius = radiusKilometers / GreatCircle.EARTH_RADIUS_KILOMETERS;
+        double minLatitude = latitude - Math.toDegrees(angularRadius);
+        double maxLatitude = latitude + Math.toDegrees(angularRadius);
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            // the circle contains a pole, so it spans every longitude
+            return new BoundingBox(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180);
+        }
+        double longitudeDelta =
+                Math.toDegrees(Math.asin(Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude))));
+        return new BoundingBox(minLatitude, maxLatitude, normalizeLongitude(longitude - longitudeDelta),
+                normalizeLongitude(longitude + longitudeDelta));
+    }
+
+    public boolean spansEveryLongitude() {
+        return minLongitude == -180 && maxLongitude == 180;
+    }
+
+    static double normalizeLongitude(double longitude) {
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+}
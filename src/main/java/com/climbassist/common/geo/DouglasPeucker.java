@@ -0,0 +1,105 @@
+package com.climbassist.common.geo;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Simplifies a line with the Douglas-Peucker algorithm, which keeps the endpoints and then recursively keeps the point
+ * farthest from the segment between the points already kept, until every dropped point is within a tolerance.
+ *
+ * <p>The point chosen to split a segment doesn't depend on the tolerance, so one run with no tolerance gives each
+ * point a significance, the smallest distance on its chain of splits. Simplifying with any tolerance then keeps
+ * exactly the points whose significance is greater than it, which is what {@link #simplify} does.
+ *
+ * <p>Distances are measured on a flat projection around the first point, which is accurate for lines that are a few
+ * kilometers long and don't cross the antimeridian.
+ */
+@UtilityClass
+public class DouglasPeucker {
+
+    /**
+     * Returns the significance of each point in meters. The endpoints are always kept, so theirs is infinite.
+     */
+    public static double[] getSignificances(@NonNull List<GeoPoint> points) {
+        double[] significances = new double[points.size()];
+        if (points.isEmpty()) {
+            return significances;
+        }
+        significances[0] = Double.POSITIVE_INFINITY;
+        significances[points.size() - 1] = Double.POSITIVE_INFINITY;
+
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        double originLatitude = Math.toRadians(points.get(0)
+                .getLatitude());
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = GreatCircle.EARTH_RADIUS_KILOMETERS * 1000 * Math.toRadians(points.get(i)
+                    .getLongitude()) * Math.cos(originLatitude);
+            ys[i] = GreatCircle.EARTH_RADIUS_KILOMETERS * 1000 * Math.toRadians(points.get(i)
+                    .getLatitude());
+        }
+
+        // each entry is a segment to split, and the significance of the split that created it
+        Deque<double[]> segments = new ArrayDeque<>();
+        segments.push(new double[]{0, points.size() - 1, Double.POSITIVE_INFINITY});
+        while (!segments.isEmpty()) {
+            double[] segment = segments.pop();
+            int start = (int) segment[0];
+            int end = (int) segment[1];
+            int farthest = -1;
+            double farthestDistance = -1;
+            for (int i = start + 1; i < end; i++) {
+                double distance = getDistanceToSegment(xs[i], ys[i], xs[start], ys[start], xs[end], ys[end]);
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest == -1) {
+                continue;
+            }
+            double significance = Math.min(farthestDistance, segment[2]);
+            significances[farthest] = significance;
+            segments.push(new double[]{start, farthest, significance});
+            segments.push(new double[]{farthest, end, significance});
+        }
+        return significances;
+    }
+
+    /**
+     * Returns the points that are kept with a tolerance in meters, in their original order.
+     */
+    public static List<GeoPoint> simplify(@NonNull List<GeoPoint> points, double toleranceMeters) {
+        return simplify(points, getSignificances(points), toleranceMeters);
+    }
+
+    /**
+     * Returns the points that are kept with a tolerance in meters, given their significances from
+     * {@link #getSignificances}.
+     */
+    public static List<GeoPoint> simplify(@NonNull List<GeoPoint> points, @NonNull double[] significances,
+            double toleranceMeters) {
+        List<GeoPoint> keptPoints = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (significances[i] > toleranceMeters) {
+                keptPoints.add(points.get(i));
+            }
+        }
+        return keptPoints;
+    }
+
+    private static double getDistanceToSegment(double x, double y, double startX, double startY, double endX,
+            double endY) {
+        double segmentX = endX - startX;
+        double segmentY = endY - startY;
+        double lengthSquared = segmentX * segmentX + segmentY * segmentY;
+        double fraction = lengthSquared == 0 ? 0 :
+                Math.max(0, Math.min(1, ((x - startX) * segmentX + (y - startY) * segmentY) / lengthSquared));
+        return Math.hypot(x - (startX + fraction * segmentX), y - (startY + fraction * segmentY));
+    }
+}
@@ -0,0 +1,10 @@
+package com.climbassist.common.geo;
+
+import lombok.Value;
+
+@Value
+public class GeoPoint {
+
+    double latitude;
+    double longitude;
+}
@@ -0,0 +1,136 @@
+package com.climbassist.common.geo;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geohashes name the cells of grids over the earth. Each character of a hash splits its cell into 32, alternating
+ * between splitting on longitude and latitude bit by bit, so the hash of a cell is a prefix of the hashes of every cell
+ * inside it and nearby points usually share a long prefix.
+ */
+@UtilityClass
+public class Geohash {
+
+    private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int BITS_PER_CHARACTER = 5;
+
+    /**
+     * @param precision number of characters in the hash
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        latitude = Math.max(-90, Math.min(90, latitude));
+        longitude = BoundingBox.normalizeLongitude(longitude);
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        StringBuilder geohash = new StringBuilder(precision);
+        boolean longitudeBit = true;
+        int bits = 0;
+        int character = 0;
+        while (geohash.length() < precision) {
+            if (longitudeBit) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                character = character << 1 | (longitude >= middle ? 1 : 0);
+                if (longitude >= middle) {
+                    minLongitude = middle;
+                }
+                else {
+                    maxLongitude = middle;
+                }
+            }
+            else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                character = character << 1 | (latitude >= middle ? 1 : 0);
+                if (latitude >= middle) {
+                    minLatitude = middle;
+                }
+                else {
+                    maxLatitude = middle;
+                }
+            }
+            longitudeBit = !longitudeBit;
+            if (++bits == BITS_PER_CHARACTER) {
+                geohash.append(BASE_32.charAt(character));
+                bits = 0;
+                character = 0;
+            }
+        }
+        return geohash.toString();
+    }
+
+    /**
+     * Returns the number of cells of the given precision that {@link #cover} would return, without listing them.
+     */
+    public static long countCovering(@NonNull BoundingBox boundingBox, int precision) {
+        return (long) countRows(boundingBox, precision) * countColumns(boundingBox, precision);
+    }
+
+    /**
+     * Returns the hashes of every cell of the given precision that overlaps a bounding box.
+     */
+    public static Set<String> cover(@NonNull BoundingBox boundingBox, int precision) {
+        double cellHeight = getCellHeight(precision);
+        double cellWidth = getCellWidth(precision);
+        int firstRow = getRow(boundingBox.getMinLatitude(), precision);
+        int firstColumn = boundingBox.spansEveryLongitude() ? 0 : getColumn(boundingBox.getMinLongitude(), precision);
+        int columnCount = countColumns(boundingBox, precision);
+        int totalColumns = 1 << getLongitudeBits(precision);
+        Set<String> geohashes = new LinkedHashSet<>();
+        for (int row = firstRow; row < firstRow + countRows(boundingBox, precision); row++) {
+            for (int column = firstColumn; column < firstColumn + columnCount; column++) {
+                // encoding the center of each cell avoids landing on an edge shared with its neighbor
+                geohashes.add(encode(-90 + (row + 0.5) * cellHeight,
+                        -180 + (column % totalColumns + 0.5) * cellWidth, precision));
+            }
+        }
+        return geohashes;
+    }
+
+    private static int countRows(BoundingBox boundingBox, int precision) {
+        return getRow(boundingBox.getMaxLatitude(), precision) - getRow(boundingBox.getMinLatitude(), precision) + 1;
+    }
+
+    private static int countColumns(BoundingBox boundingBox, int precision) {
+        int totalColumns = 1 << getLongitudeBits(precision);
+        if (boundingBox.spansEveryLongitude()) {
+            return totalColumns;
+        }
+        int firstColumn = getColumn(boundingBox.getMinLongitude(), precision);
+        int lastColumn = getColumn(boundingBox.getMaxLongitude(), precision);
+        // the box wraps around the antimeridian if its last column is west of its first
+        return lastColumn >= firstColumn ? lastColumn - firstColumn + 1 : totalColumns - firstColumn + lastColumn + 1;
+    }
+
+    private static int getRow(double latitude, int precision) {
+        int totalRows = 1 << getLatitudeBits(precision);
+        return Math.min(totalRows - 1, (int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) /
+                getCellHeight(precision)));
+    }
+
+    private static int getColumn(double longitude, int precision) {
+        int totalColumns = 1 << getLongitudeBits(precision);
+        return Math.min(totalColumns - 1,
+                (int) Math.floor((BoundingBox.normalizeLongitude(longitude) + 180) / getCellWidth(precision)));
+    }
+
+    private static double getCellHeight(int precision) {
+        return 180.0 / (1 << getLatitudeBits(precision));
+    }
+
+    private static double getCellWidth(int precision) {
+        return 360.0 / (1 << getLongitudeBits(precision));
+    }
+
+    // longitude takes the first bit, so it gets the extra one when the number of bits is odd
+    private static int getLongitudeBits(int precision) {
+        return (precision * BITS_PER_CHARACTER + 1) / 2;
+    }
+
+    private static int getLatitudeBits(int precision) {
+        return precision * BITS_PER_CHARACTER / 2;
+    }
+}
@@ -0,0 +1,23 @@
+package com.climbassist.common.geo;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class GreatCircle {
+
+    // mean radius of the earth
+    public static final double EARTH_RADIUS_KILOMETERS = 6371.0088;
+
+    /**
+     * Returns the distance between two points along the surface of the earth, using the haversine formula.
+     */
+    public static double distanceKilometers(double latitude1, double longitude1, double latitude2,
+                                            double longitude2) {
+        double latitudeDelta = Math.toRadians(latitude2 - latitude1);
+        double longitudeDelta = Math.toRadians(longitude2 - longitude1);
+        double haversine = Math.pow(Math.sin(latitudeDelta / 2), 2) +
+                Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) *
+                        Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KILOMETERS * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.climbassist.common.geo;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes and decodes points in the encoded polyline format used by web map libraries. Each coordinate is rounded to
+ * 5 decimal places, which is about a meter, and stored as the difference from the previous point in printable base 64
+ * characters, so a point usually takes 4 to 8 characters instead of the 40 or so of a JSON object.
+ */
+@UtilityClass
+public class Polyline {
+
+    private static final double PRECISION = 1e5;
+
+    public static String encode(@NonNull List<GeoPoint> points) {
+        StringBuilder stringBuilder = new StringBuilder();
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (GeoPoint point : points) {
+            long latitude = Math.round(point.getLatitude() * PRECISION);
+            long longitude = Math.round(point.getLongitude() * PRECISION);
+            encodeValue(latitude - previousLatitude, stringBuilder);
+            encodeValue(longitude - previousLongitude, stringBuilder);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the polyline is malformed
+     */
+    public static List<GeoPoint> decode(@NonNull String polyline) {
+        List<GeoPoint> points = new ArrayList<>();
+        int[] index = {0};
+        long latitude = 0;
+        long longitude = 0;
+        while (index[0] < polyline.length()) {
+            latitude += decodeValue(polyline, index);
+            longitude += decodeValue(polyline, index);
+            points.add(new GeoPoint(latitude / PRECISION, longitude / PRECISION));
+        }
+        return points;
+    }
+
+    // the value is zigzag encoded so that small negative numbers are also short, then written 5 bits at a time
+    private static void encodeValue(long value, StringBuilder stringBuilder) {
+        long remaining = value < 0 ? ~(value << 1) : value << 1;
+        while (remaining >= 0x20) {
+            stringBuilder.append((char) ((0x20 | (remaining & 0x1f)) + 63));
+            remaining >>= 5;
+        }
+        stringBuilder.append((char) (remaining + 63));
+    }
+
+    private static long decodeValue(String polyline, int[] index) {
+        long result = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (index[0] >= polyline.length()) {
+                throw new IllegalArgumentException("Polyline ends in the middle of a value.");
+            }
+            chunk = polyline.charAt(index[0]++) - 63;
+            if (chunk < 0 || chunk > 0x3f) {
+                throw new IllegalArgumentException(
+                        String.format("Polyline contains invalid character %s.", polyline.charAt(index[0] - 1)));
+            }
+            result |= (long) (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        return (result & 1) == 0 ? result >> 1 : ~(result >> 1);
+    }
+}
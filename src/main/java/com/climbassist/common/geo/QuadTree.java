@@ -0,0 +1,126 @@
+package com.climbassist.common.geo;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A point region quadtree over the unit square, for finding the values whose points are inside a rectangle. A node is
+ * split into four quadrants once it holds more than a few points, so a query only visits the nodes that overlap it.
+ * This class is not thread safe while values are being inserted, but it can be queried concurrently once it isn't
+ * modified anymore.
+ */
+public class QuadTree<T> {
+
+    private static final int NODE_CAPACITY = 16;
+    // stops points at the same position from being split forever
+    private static final int MAX_DEPTH = 24;
+
+    @Value
+    private static class Entry<T> {
+
+        double x;
+        double y;
+        T value;
+    }
+
+    private static class Node<T> {
+
+        private final double minX;
+        private final double minY;
+        private final double size;
+        private final int depth;
+        private List<Entry<T>> entries = new ArrayList<>();
+        // null until the node is split, after which entries is null
+        private List<Node<T>> children;
+
+        private Node(double minX, double minY, double size, int depth) {
+            this.minX = minX;
+            this.minY = minY;
+            this.size = size;
+            this.depth = depth;
+        }
+
+        private void insert(Entry<T> entry) {
+            if (children != null) {
+                getChild(entry).insert(entry);
+                return;
+            }
+            entries.add(entry);
+            if (entries.size() > NODE_CAPACITY && depth < MAX_DEPTH) {
+                split();
+            }
+        }
+
+        private void split() {
+            double halfSize = size / 2;
+            children = new ArrayList<>(4);
+            children.add(new Node<>(minX, minY, halfSize, depth + 1));
+            children.add(new Node<>(minX + halfSize, minY, halfSize, depth + 1));
+            children.add(new Node<>(minX, minY + halfSize, halfSize, depth + 1));
+            children.add(new Node<>(minX + halfSize, minY + halfSize, halfSize, depth + 1));
+            entries.forEach(entry -> getChild(entry).insert(entry));
+            entries = null;
+        }
+
+        private Node<T> getChild(Entry<T> entry) {
+            double halfSize = size / 2;
+            return children.get((entry.getX() >= minX + halfSize ? 1 : 0) + (entry.getY() >= minY + halfSize ? 2 : 0));
+        }
+
+        private void query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<T> results) {
+            if (queryMaxX < minX || queryMinX > minX + size || queryMaxY < minY || queryMinY > minY + size) {
+                return;
+            }
+            if (queryMinX <= minX && queryMaxX >= minX + size && queryMinY <= minY && queryMaxY >= minY + size) {
+                collect(results);
+                return;
+            }
+            if (children != null) {
+                children.forEach(child -> child.query(queryMinX, queryMinY, queryMaxX, queryMaxY, results));
+                return;
+            }
+            entries.stream()
+                    .filter(entry -> entry.getX() >= queryMinX && entry.getX() <= queryMaxX &&
+                            entry.getY() >= queryMinY && entry.getY() <= queryMaxY)
+                    .forEach(entry -> results.add(entry.getValue()));
+        }
+
+        private void collect(List<T> results) {
+            if (children != null) {
+                children.forEach(child -> child.collect(results));
+                return;
+            }
+            entries.forEach(entry -> results.add(entry.getValue()));
+        }
+    }
+
+    private final Node<T> root = new Node<>(0, 0, 1, 0);
+    private int size;
+
+    /**
+     * @throws IllegalArgumentException if the point is outside of the unit square
+     */
+    public void insert(double x, double y, @NonNull T value) {
+        if (x < 0 || x > 1 || y < 0 || y > 1) {
+            throw new IllegalArgumentException(String.format("Point (%s, %s) is outside of the unit square.", x, y));
+        }
+        root.insert(new Entry<>(x, y, value));
+        size++;
+    }
+
+    /**
+     * Returns the values whose points are inside a rectangle, including its edges, in no particular order.
+     */
+    public List<T> query(double minX, double minY, double maxX, double maxY) {
+        List<T> results = new ArrayList<>();
+        root.query(minX, minY, maxX, maxY, results);
+        return results;
+    }
+
+    public int size() {
+        return size;
+    }
+}
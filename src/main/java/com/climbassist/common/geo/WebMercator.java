@@ -0,0 +1,35 @@
+package com.climbassist.common.geo;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Converts between latitude and longitude and the Web Mercator projection used by web maps, scaled so that the whole
+ * world is the unit square. X grows eastward from the antimeridian and Y grows southward from the top of the map.
+ */
+@UtilityClass
+public class WebMercator {
+
+    // the latitude at which the projected world becomes square
+    public static final double MAX_LATITUDE = 85.0511287798;
+
+    public static double toX(double longitude) {
+        return clamp((longitude + 180) / 360);
+    }
+
+    public static double toY(double latitude) {
+        double sinLatitude = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+        return clamp(0.5 - Math.log((1 + sinLatitude) / (1 - sinLatitude)) / (4 * Math.PI));
+    }
+
+    public static double toLongitude(double x) {
+        return x * 360 - 180;
+    }
+
+    public static double toLatitude(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+}
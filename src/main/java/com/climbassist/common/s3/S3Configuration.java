@@ -0,0 +1,56 @@
+package com.climbassist.common.s3;
+
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.climbassist.common.CommonConfiguration;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@Import({CommonConfiguration.class, MetricsConfiguration.class})
+@PropertySource("classpath:application.properties")
+public class S3Configuration {
+
+    /**
+     * Uploads the parts of multipart uploads. Each upload also limits its own parts in flight, so one large upload
+     * can't take every thread.
+     */
+    @Bean
+    public BoundedExecutor s3UploadExecutor(@Value("${s3UploadExecutorConcurrency}") int s3UploadExecutorConcurrency,
+                                            @Value("${s3UploadExecutorQueueCapacity}")
+                                                    int s3UploadExecutorQueueCapacity,
+                                            @NonNull MetricsEmitter metricsEmitter) {
+        return BoundedExecutor.builder()
+                .name("S3UploadExecutor")
+                .concurrency(s3UploadExecutorConcurrency)
+                .queueCapacity(s3UploadExecutorQueueCapacity)
+                .metricsEmitter(metricsEmitter)
+                .build();
+    }
+
+    @Bean
+    public S3Proxy s3Proxy(@NonNull String region, @NonNull BoundedExecutor s3UploadExecutor,
+                           @NonNull MetricsEmitter metricsEmitter,
+                           @Value("${s3UploadPartSizeBytes}") long s3UploadPartSizeBytes,
+                           @Value("${s3UploadPartConcurrency}") int s3UploadPartConcurrency,
+                           @Value("${s3UploadPartMaxAttempts}") int s3UploadPartMaxAttempts,
+                           @Value("${s3UploadPartBaseBackoffMillis}") long s3UploadPartBaseBackoffMillis) {
+        return S3Proxy.builder()
+                .amazonS3(AmazonS3ClientBuilder.standard()
+                        .withRegion(region)
+                        .build())
+                .executor(s3UploadExecutor)
+                .metricsEmitter(metricsEmitter)
+                .partSizeBytes(s3UploadPartSizeBytes)
+                .partConcurrency(s3UploadPartConcurrency)
+                .maxPartAttempts(s3UploadPartMaxAttempts)
+                .partBaseBackoffMillis(s3UploadPartBaseBackoffMillis)
+                .build();
+    }
+}
@@ -1,34 +1,207 @@
 package com.climbassist.common.s3;
 
+import com.amazonaws.SdkClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.climbassist.common.concurrent.CompletableFutures;
+import com.climbassist.metrics.MetricsEmitter;
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
-@Builder
+/**
+ * This class uploads and deletes public objects. Objects larger than one part are uploaded with a multipart upload:
+ * parts are read from the stream one at a time and uploaded on the executor, with at most partConcurrency parts of one
+ * upload in memory or in flight at once. Failed parts are retried with exponential backoff and full jitter, since the
+ * parts of one upload tend to be throttled together, and if the upload still fails it's aborted once the parts in
+ * flight have finished, so S3 doesn't keep the parts that were uploaded. The duration and throughput of every upload
+ * are emitted with the bucket as the component.
+ */
+@Slf4j
 public class S3Proxy {
 
-    private static final String OBJECT_URL_TEMPLATE = "https://%s.s3.amazonaws.com/%s";
+    // S3 rejects parts smaller than this, except for the last one, and uploads with more than MAX_PART_COUNT parts
+    static final long MIN_PART_SIZE_BYTES = 5 * 1024 * 1024;
+    static final int MAX_PART_COUNT = 10_000;
+    private static final String METRICS_COMPONENT_PREFIX = "S3Upload:";
 
-    @NonNull
     private final AmazonS3 amazonS3;
+    private final Executor executor;
+    private final MetricsEmitter metricsEmitter;
+    private final long partSizeBytes;
+    private final int partConcurrency;
+    private final int maxPartAttempts;
+    private final long partBaseBackoffMillis;
 
+    @Builder
+    private S3Proxy(@NonNull AmazonS3 amazonS3, @NonNull Executor executor, @NonNull MetricsEmitter metricsEmitter,
+                    long partSizeBytes, int partConcurrency, int maxPartAttempts, long partBaseBackoffMillis) {
+        if (partSizeBytes < MIN_PART_SIZE_BYTES) {
+            throw new IllegalArgumentException(
+                    String.format("Part size must be greater than or equal to %d bytes.", MIN_PART_SIZE_BYTES));
+        }
+        if (partConcurrency < 1) {
+            throw new IllegalArgumentException("Part concurrency must be greater than or equal to 1.");
+        }
+        if (maxPartAttempts < 1) {
+            throw new IllegalArgumentException("Max part attempts must be greater than or equal to 1.");
+        }
+        if (partBaseBackoffMillis < 0) {
+            throw new IllegalArgumentException("Part base backoff must be greater than or equal to 0.");
+        }
+        this.amazonS3 = amazonS3;
+        this.executor = executor;
+        this.metricsEmitter = metricsEmitter;
+        this.partSizeBytes = partSizeBytes;
+        this.partConcurrency = partConcurrency;
+        this.maxPartAttempts = maxPartAttempts;
+        this.partBaseBackoffMillis = partBaseBackoffMillis;
+    }
+
+    /**
+     * Uploads the object and waits for it to finish. The stream is read up to contentLength bytes and isn't closed.
+     */
     public AmazonS3URI putPublicObject(@NonNull String bucket, @NonNull String key, @NonNull InputStream inputStream,
-                                       long contentLength) {
-        ObjectMetadata objectMetadata = new ObjectMetadata();
-        objectMetadata.setContentLength(contentLength);
-        amazonS3.putObject(new PutObjectRequest(bucket, key, inputStream, objectMetadata).withCannedAcl(
-                CannedAccessControlList.PublicRead));
+                                       long contentLength) throws IOException {
+        long startTime = System.currentTimeMillis();
+        if (contentLength <= partSizeBytes) {
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentLength(contentLength);
+            amazonS3.putObject(new PutObjectRequest(bucket, key, inputStream, objectMetadata).withCannedAcl(
+                    CannedAccessControlList.PublicRead));
+        }
+        else {
+            putPublicObjectInParts(bucket, key, inputStream, contentLength);
+        }
+        emitUploadMetrics(bucket, contentLength, System.currentTimeMillis() - startTime);
         return AmazonS3UriBuilder.buildAmazonS3Uri(bucket, key);
     }
 
     public void deleteObject(@NonNull String bucket, @NonNull String key) {
         amazonS3.deleteObject(new DeleteObjectRequest(bucket, key));
     }
+
+    private void putPublicObjectInParts(String bucket, String key, InputStream inputStream, long contentLength)
+            throws IOException {
+        // large objects get larger parts, so that they stay under the part count limit
+        long partSize = Math.max(partSizeBytes, (contentLength + MAX_PART_COUNT - 1) / MAX_PART_COUNT);
+        String uploadId = amazonS3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key)
+                .withCannedACL(CannedAccessControlList.PublicRead))
+                .getUploadId();
+        Semaphore partPermits = new Semaphore(partConcurrency);
+        List<CompletableFuture<PartETag>> partFutures = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < contentLength && partFutures.stream()
+                    .noneMatch(CompletableFuture::isCompletedExceptionally); offset += partSize, partNumber++) {
+                // the permit is taken before the part is read, so a slow upload doesn't fill the heap with parts
+                partPermits.acquire();
+                byte[] part;
+                try {
+                    part = new byte[(int) Math.min(partSize, contentLength - offset)];
+                    IOUtils.readFully(inputStream, part);
+                } catch (IOException | RuntimeException e) {
+                    partPermits.release();
+                    throw e;
+                }
+                int currentPartNumber = partNumber;
+                CompletableFuture<PartETag> partFuture = CompletableFuture.supplyAsync(
+                        () -> uploadPart(bucket, key, uploadId, currentPartNumber, part), executor);
+                partFuture.whenComplete((partETag, throwable) -> partPermits.release());
+                partFutures.add(partFuture);
+            }
+            List<PartETag> partETags = partFutures.stream()
+                    .map(CompletableFutures::join)
+                    .collect(Collectors.toList());
+            amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            abortUpload(bucket, key, uploadId, partFutures);
+            throw new InterruptedIOException(String.format("Interrupted while uploading %s to bucket %s.", key,
+                    bucket));
+        } catch (IOException | RuntimeException e) {
+            abortUpload(bucket, key, uploadId, partFutures);
+            throw e;
+        }
+    }
+
+    private PartETag uploadPart(String bucket, String key, String uploadId, int partNumber, byte[] part) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return amazonS3.uploadPart(new UploadPartRequest().withBucketName(bucket)
+                        .withKey(key)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withPartSize(part.length)
+                        .withInputStream(new ByteArrayInputStream(part)))
+                        .getPartETag();
+            } catch (SdkClientException e) {
+                if (attempt == maxPartAttempts) {
+                    throw e;
+                }
+                metricsEmitter.emitComponentCountMetric(METRICS_COMPONENT_PREFIX + bucket, "partRetryCount", 1);
+                log.warn(String.format("Retrying part %d of %s in bucket %s after attempt %d failed.", partNumber, key,
+                        bucket, attempt), e);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current()
+                    .nextLong((partBaseBackoffMillis << Math.min(attempt - 1, 16)) + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new SdkClientException("Interrupted while backing off from a failed part.", e);
+        }
+    }
+
+    // parts that are still uploading when the upload is aborted could be stored anyway, so they're waited for first
+    private void abortUpload(String bucket, String key, String uploadId,
+                             List<CompletableFuture<PartETag>> partFutures) {
+        CompletableFuture.allOf(partFutures.stream()
+                .map(partFuture -> partFuture.handle((partETag, throwable) -> null))
+                .toArray(CompletableFuture[]::new))
+                .join();
+        metricsEmitter.emitComponentCountMetric(METRICS_COMPONENT_PREFIX + bucket, "abortedUploadCount", 1);
+        try {
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+            log.info(String.format("Aborted upload of %s to bucket %s.", key, bucket));
+        } catch (SdkClientException e) {
+            // the bucket's lifecycle rule cleans up incomplete uploads that couldn't be aborted here
+            log.warn(String.format("Unable to abort upload %s of %s to bucket %s.", uploadId, key, bucket), e);
+        }
+    }
+
+    private void emitUploadMetrics(String bucket, long contentLength, long durationMillis) {
+        String component = METRICS_COMPONENT_PREFIX + bucket;
+        metricsEmitter.emitComponentDurationMetric(component, "duration", durationMillis);
+        metricsEmitter.emitComponentThroughputMetric(component, "throughput",
+                contentLength * 1000.0 / Math.max(durationMillis, 1));
+    }
 }
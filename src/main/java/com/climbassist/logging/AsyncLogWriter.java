@@ -0,0 +1,84 @@
+package com.climbassist.logging;
+
+import com.climbassist.metrics.MetricsEmitter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This class builds, serializes and logs records on a single background thread, so that none of that work happens on
+ * the request thread. Records wait in a bounded queue, and when the queue is full new records are dropped and counted
+ * instead of making the caller wait. The MDC of the caller is used while its record is logged so that request IDs
+ * still show up in the logs.
+ */
+@Slf4j
+public class AsyncLogWriter {
+
+    private static final String METRICS_COMPONENT = "AsyncLogWriter";
+
+    private final ObjectMapper objectMapper;
+    private final MetricsEmitter metricsEmitter;
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final AtomicLong droppedRecordCount;
+
+    @Builder
+    private AsyncLogWriter(@NonNull ObjectMapper objectMapper, int queueCapacity,
+                           @NonNull MetricsEmitter metricsEmitter) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be greater than or equal to 1.");
+        }
+        this.objectMapper = objectMapper;
+        this.metricsEmitter = metricsEmitter;
+        droppedRecordCount = new AtomicLong();
+        threadPoolExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadFactoryBuilder().setNameFormat(
+                METRICS_COMPONENT + "-%d")
+                .setDaemon(true)
+                .build(), (runnable, executor) -> drop());
+    }
+
+    /**
+     * Queues a record to be logged as the prefix followed by the record serialized as JSON. The supplier is called on
+     * the background thread, so it should only use values that were already captured.
+     */
+    public void write(@NonNull String prefix, @NonNull Supplier<?> recordSupplier) {
+        Map<String, String> callerContext = MDC.getCopyOfContextMap();
+        threadPoolExecutor.execute(() -> {
+            if (callerContext != null) {
+                MDC.setContextMap(callerContext);
+            }
+            try {
+                log.info(prefix + objectMapper.writeValueAsString(recordSupplier.get()));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.error("Unable to write log record.", e);
+            } finally {
+                MDC.clear();
+            }
+        });
+    }
+
+    public long getDroppedRecordCount() {
+        return droppedRecordCount.get();
+    }
+
+    public void shutdown() {
+        log.info("Shutting down async log writer.");
+        threadPoolExecutor.shutdown();
+    }
+
+    private void drop() {
+        droppedRecordCount.incrementAndGet();
+        metricsEmitter.emitComponentCountMetric(METRICS_COMPONENT, "droppedRecords", 1);
+    }
+}
@@ -1,7 +1,7 @@
 package com.climbassist.logging;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.Multimap;
 import lombok.Builder;
 import lombok.Value;
@@ -23,6 +23,6 @@ class LoggableRequest {
     String userId;
     // only one of body or jsonBody should ever be present, depending on if the body is JSON or not
     String body;
-    @JsonRawValue
-    String jsonBody;
+    // parsed rather than raw, because the client controls the body and could otherwise change the rest of the record
+    JsonNode jsonBody;
 }
@@ -16,6 +16,7 @@ class LoggableResponse {
     Multimap<String, String> headers;
     // only one of body or jsonBody should ever be present, depending on if the body is JSON or not
     String body;
+    // the server produced the body, so it's trusted to be the JSON its content type says it is
     @JsonRawValue
     String jsonBody;
 }
@@ -1,24 +1,62 @@
 package com.climbassist.logging;
 
-import com.climbassist.api.user.UserConfiguration;
-import com.climbassist.api.user.UserManager;
 import com.climbassist.common.CommonConfiguration;
+import com.climbassist.metrics.MetricsConfiguration;
+import com.climbassist.metrics.MetricsEmitter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
-@Import({CommonConfiguration.class, UserConfiguration.class})
+@Import({CommonConfiguration.class, MetricsConfiguration.class})
+@PropertySource("classpath:application.properties")
 public class LoggingConfiguration {
 
+    private static final Splitter LIST_SPLITTER = Splitter.on(',')
+            .trimResults()
+            .omitEmptyStrings();
+
     @Bean
-    public RequestResponseLoggingFilter requestResponseLoggingFilter(@NonNull ObjectMapper objectMapper,
-                                                                     @NonNull UserManager userManager) {
+    public AsyncLogWriter asyncLogWriter(@NonNull ObjectMapper objectMapper, @NonNull MetricsEmitter metricsEmitter,
+                                         @Value("${loggingQueueCapacity}") int loggingQueueCapacity) {
+        return AsyncLogWriter.builder()
+                .objectMapper(objectMapper)
+                .metricsEmitter(metricsEmitter)
+                .queueCapacity(loggingQueueCapacity)
+                .build();
+    }
+
+    @Bean
+    public RequestResponseLoggingFilter requestResponseLoggingFilter(
+            @NonNull RequestMappingHandlerMapping requestMappingHandlerMapping, @NonNull AsyncLogWriter asyncLogWriter,
+            @NonNull ObjectMapper objectMapper,
+            @NonNull @Value("${loggingApiSampleRates}") String loggingApiSampleRates,
+            @Value("${loggingDefaultSampleRate}") double loggingDefaultSampleRate,
+            @NonNull @Value("${loggingRequestHeaderAllowList}") String loggingRequestHeaderAllowList,
+            @NonNull @Value("${loggingResponseHeaderAllowList}") String loggingResponseHeaderAllowList,
+            @Value("${loggingMaxBodyBytes}") int loggingMaxBodyBytes,
+            @Value("${loggingMaxInMemoryBodyBytes}") int loggingMaxInMemoryBodyBytes) {
         return RequestResponseLoggingFilter.builder()
+                .requestMappingHandlerMapping(requestMappingHandlerMapping)
+                .asyncLogWriter(asyncLogWriter)
                 .objectMapper(objectMapper)
-                .userManager(userManager)
+                .apiSampleRates(parseSampleRates(loggingApiSampleRates))
+                .defaultSampleRate(loggingDefaultSampleRate)
+                .requestHeaderAllowList(parseList(loggingRequestHeaderAllowList))
+                .responseHeaderAllowList(parseList(loggingResponseHeaderAllowList))
+                .maxBodyBytes(loggingMaxBodyBytes)
+                .maxInMemoryBodyBytes(loggingMaxInMemoryBodyBytes)
                 .build();
     }
 
@@ -26,4 +64,18 @@ public class LoggingConfiguration {
     public RequestIdFilter requestIdFilter() {
         return new RequestIdFilter();
     }
+
+    // sample rates are listed as Api:rate pairs, e.g. ListCrags:0.1,GetCrag:0.5
+    private static Map<String, Double> parseSampleRates(String sampleRates) {
+        ImmutableMap.Builder<String, Double> parsedSampleRates = ImmutableMap.builder();
+        LIST_SPLITTER.withKeyValueSeparator(Splitter.on(':')
+                .trimResults())
+                .split(sampleRates)
+                .forEach((api, sampleRate) -> parsedSampleRates.put(api, Double.parseDouble(sampleRate)));
+        return parsedSampleRates.build();
+    }
+
+    private static Set<String> parseList(String list) {
+        return ImmutableSet.copyOf(LIST_SPLITTER.split(list));
+    }
 }
@@ -0,0 +1,181 @@
+package com.climbassist.logging;
+
+/**
+ * This class redacts sensitive values from log messages in a single pass over the message. It redacts the string values
+ * of sensitive JSON keys, and the alias in "User with username ..." and "User with email ..." messages.
+ *
+ * <p>JSON is matched whether it's logged as is or escaped inside another JSON string, like the bodies the logging
+ * filter couldn't log as JSON. Escapes inside values are followed, so a value ends at its real closing quote. A value
+ * that has no closing quote, because the body was truncated, is redacted up to the end of the message or of the string
+ * it's in.
+ */
+final class MessageRedactor {
+
+    static final String REDACTED = "<REDACTED>";
+
+    private static final String[] SENSITIVE_KEYS = {"username", "email", "password", "newPassword", "emailBody",
+            "replyToEmail", "subject"};
+    private static final int MAX_SENSITIVE_KEY_LENGTH = 12;
+    private static final String[] ALIAS_PREFIXES = {"User with username ", "User with email "};
+
+    private MessageRedactor() {
+    }
+
+    /**
+     * Returns the message with its sensitive values redacted, or the same message instance if there was nothing to
+     * redact.
+     */
+    static String redact(String message) {
+        StringBuilder redactedMessage = null;
+        int copiedUpTo = 0;
+        int length = message.length();
+        int index = 0;
+        while (index < length) {
+            char character = message.charAt(index);
+            int valueStart = -1;
+            int valueEnd = -1;
+            if (character == '"') {
+                boolean isEscaped = index > 0 && message.charAt(index - 1) == '\\';
+                valueStart = findJsonValueStart(message, index + 1, isEscaped);
+                if (valueStart != -1) {
+                    valueEnd = isEscaped ? findEscapedJsonValueEnd(message, valueStart) :
+                            findJsonValueEnd(message, valueStart);
+                }
+            }
+            else if (character == 'U') {
+                valueStart = findAliasStart(message, index);
+                if (valueStart != -1) {
+                    valueEnd = findAliasEnd(message, valueStart);
+                }
+            }
+
+            if (valueStart == -1) {
+                index++;
+                continue;
+            }
+            if (redactedMessage == null) {
+                redactedMessage = new StringBuilder(length);
+            }
+            redactedMessage.append(message, copiedUpTo, valueStart)
+                    .append(REDACTED);
+            copiedUpTo = valueEnd;
+            index = valueEnd;
+        }
+
+        if (redactedMessage == null) {
+            return message;
+        }
+        return redactedMessage.append(message, copiedUpTo, length)
+                .toString();
+    }
+
+    // returns where the value starts if a sensitive key starts at keyStart and its value is a string
+    private static int findJsonValueStart(String message, int keyStart, boolean isEscaped) {
+        int length = message.length();
+        int keyEnd = keyStart;
+        while (keyEnd < length && keyEnd - keyStart <= MAX_SENSITIVE_KEY_LENGTH && Character.isLetter(
+                message.charAt(keyEnd))) {
+            keyEnd++;
+        }
+        if (!isSensitiveKey(message, keyStart, keyEnd - keyStart)) {
+            return -1;
+        }
+        int index = skipQuote(message, keyEnd, isEscaped);
+        if (index == -1) {
+            return -1;
+        }
+        index = skipWhitespace(message, index);
+        if (index == length || message.charAt(index) != ':') {
+            return -1;
+        }
+        index = skipWhitespace(message, index + 1);
+        return skipQuote(message, index, isEscaped);
+    }
+
+    private static boolean isSensitiveKey(String message, int keyStart, int keyLength) {
+        for (String sensitiveKey : SENSITIVE_KEYS) {
+            if (sensitiveKey.length() == keyLength && message.regionMatches(keyStart, sensitiveKey, 0, keyLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // returns the index after the quote at index, which is \" if the JSON is escaped, or -1 if there isn't one
+    private static int skipQuote(String message, int index, boolean isEscaped) {
+        if (isEscaped) {
+            return message.startsWith("\\\"", index) ? index + 2 : -1;
+        }
+        return index < message.length() && message.charAt(index) == '"' ? index + 1 : -1;
+    }
+
+    private static int skipWhitespace(String message, int index) {
+        while (index < message.length() && Character.isWhitespace(message.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int findJsonValueEnd(String message, int valueStart) {
+        int index = valueStart;
+        while (index < message.length()) {
+            char character = message.charAt(index);
+            if (character == '"') {
+                return index;
+            }
+            index += character == '\\' ? 2 : 1;
+        }
+        return message.length();
+    }
+
+    // the value is inside another JSON string, so its closing quote is \" and its own escapes are escaped again
+    private static int findEscapedJsonValueEnd(String message, int valueStart) {
+        boolean isInValueEscape = false;
+        int index = valueStart;
+        while (index < message.length()) {
+            char character = message.charAt(index);
+            if (character == '"') {
+                // the string the value is in ended without closing the value
+                return index;
+            }
+            int width = 1;
+            if (character == '\\' && index + 1 < message.length()) {
+                character = message.charAt(index + 1);
+                width = 2;
+            }
+            if (isInValueEscape) {
+                isInValueEscape = false;
+            }
+            else if (width == 2 && character == '\\') {
+                isInValueEscape = true;
+            }
+            else if (width == 2 && character == '"') {
+                return index;
+            }
+            index += width;
+        }
+        return message.length();
+    }
+
+    private static int findAliasStart(String message, int index) {
+        for (String aliasPrefix : ALIAS_PREFIXES) {
+            if (message.startsWith(aliasPrefix, index)) {
+                return index + aliasPrefix.length();
+            }
+        }
+        return -1;
+    }
+
+    // the alias runs until the next space, or until the end of the JSON string the message is in
+    private static int findAliasEnd(String message, int aliasStart) {
+        int index = aliasStart;
+        while (index < message.length()) {
+            char character = message.charAt(index);
+            if (character == ' ' || character == '"' || character == '\\') {
+                return index;
+            }
+            index++;
+        }
+        return index;
+    }
+}
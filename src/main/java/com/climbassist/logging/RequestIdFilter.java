@@ -11,18 +11,28 @@ import java.io.IOException;
 import java.util.UUID;
 
 /**
- * This class adds a request ID to the Slf4j context so that requests can be traced through the logs
+ * This class adds a request ID to the Slf4j context so that requests can be traced through the logs. The ID is kept as
+ * a request attribute so that asynchronous requests are logged with the same ID when they are dispatched again.
  */
 public class RequestIdFilter implements Filter {
 
     private static final String REQUEST_ID_KEY = "RequestId";
+    private static final String REQUEST_ID_ATTRIBUTE_NAME = RequestIdFilter.class.getName() + ".requestId";
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
-        MDC.put(REQUEST_ID_KEY, UUID.randomUUID()
-                .toString());
-        filterChain.doFilter(servletRequest, servletResponse);
-        MDC.remove(REQUEST_ID_KEY);
+        String requestId = (String) servletRequest.getAttribute(REQUEST_ID_ATTRIBUTE_NAME);
+        if (requestId == null) {
+            requestId = UUID.randomUUID()
+                    .toString();
+            servletRequest.setAttribute(REQUEST_ID_ATTRIBUTE_NAME, requestId);
+        }
+        MDC.put(REQUEST_ID_KEY, requestId);
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+        }
     }
 }
@@ -2,19 +2,29 @@ package com.climbassist.logging;
 
 import com.climbassist.api.user.SessionUtils;
 import com.climbassist.api.user.UserData;
-import com.climbassist.api.user.UserManager;
+import com.climbassist.metrics.Metrics;
 import com.climbassist.wrapper.request.RequestWrapper;
 import com.climbassist.wrapper.response.ResponseWrapper;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.HashMultimap;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import lombok.Builder;
 import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -23,110 +33,278 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Enumeration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
-@Builder
-@Slf4j
+/**
+ * This class logs a sample of requests and their responses. Whether a request is logged is decided when it's received,
+ * using the sample rate of its API, and requests which aren't sampled aren't wrapped or copied at all. For sampled
+ * requests, only allow-listed headers and the start of each body are captured on the request thread; large request
+ * bodies are spooled to disk rather than held in memory, and multipart uploads aren't captured. Bodies are logged
+ * as JSON when their content type says they're JSON and they weren't truncated. Response bodies come from the server,
+ * so they're embedded as they are, but request bodies are parsed and serialized again so that a client can't forge
+ * fields of the record, and they're logged as plain strings if they don't parse. Building and writing the records,
+ * including that parsing, is left to the {@link AsyncLogWriter}.
+ */
 public class RequestResponseLoggingFilter implements Filter {
 
-    @NonNull
-    private final ObjectMapper objectMapper;
+    static final String TRUNCATED_SUFFIX = " [content truncated]";
 
-    @NonNull
-    private final UserManager userManager;
+    private static final String START_TIME_ATTRIBUTE_NAME = RequestResponseLoggingFilter.class.getName() + ".startTime";
+    private static final String RESPONSE_WRAPPER_ATTRIBUTE_NAME =
+            RequestResponseLoggingFilter.class.getName() + ".responseWrapper";
+    private static final String HEALTH_CHECK_PATH = "/health";
+
+    private final RequestMappingHandlerMapping requestMappingHandlerMapping;
+    private final AsyncLogWriter asyncLogWriter;
+    private final ObjectReader jsonBodyReader;
+    private final Map<String, Double> apiSampleRates;
+    private final double defaultSampleRate;
+    private final Set<String> requestHeaderAllowList;
+    private final Set<String> responseHeaderAllowList;
+    private final int maxBodyBytes;
+    private final int maxInMemoryBodyBytes;
+
+    @Builder
+    private RequestResponseLoggingFilter(@NonNull RequestMappingHandlerMapping requestMappingHandlerMapping,
+                                         @NonNull AsyncLogWriter asyncLogWriter, @NonNull ObjectMapper objectMapper,
+                                         @NonNull Map<String, Double> apiSampleRates, double defaultSampleRate,
+                                         @NonNull Set<String> requestHeaderAllowList,
+                                         @NonNull Set<String> responseHeaderAllowList, int maxBodyBytes,
+                                         int maxInMemoryBodyBytes) {
+        validateSampleRate(defaultSampleRate);
+        apiSampleRates.values()
+                .forEach(RequestResponseLoggingFilter::validateSampleRate);
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("Max body bytes must be greater than or equal to 0.");
+        }
+        if (maxInMemoryBodyBytes < 0) {
+            throw new IllegalArgumentException("Max in memory body bytes must be greater than or equal to 0.");
+        }
+        this.requestMappingHandlerMapping = requestMappingHandlerMapping;
+        this.asyncLogWriter = asyncLogWriter;
+        // anything after the first JSON value would otherwise be dropped silently
+        jsonBodyReader = objectMapper.reader()
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.apiSampleRates = ImmutableMap.copyOf(apiSampleRates);
+        this.defaultSampleRate = defaultSampleRate;
+        this.requestHeaderAllowList = ImmutableSet.copyOf(requestHeaderAllowList);
+        this.responseHeaderAllowList = ImmutableSet.copyOf(responseHeaderAllowList);
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxInMemoryBodyBytes = maxInMemoryBodyBytes;
+    }
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
 
-        boolean isHealthCheck = ((HttpServletRequest) servletRequest).getServletPath()
-                .equals("/health");
+        // the request was already logged and wrapped before it went async, so this only needs to log the response
+        if (servletRequest.getDispatcherType() == DispatcherType.ASYNC) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            ResponseWrapper responseWrapper = (ResponseWrapper) servletRequest.getAttribute(
+                    RESPONSE_WRAPPER_ATTRIBUTE_NAME);
+            if (responseWrapper != null && !servletRequest.isAsyncStarted()) {
+                logResponse(servletRequest, responseWrapper);
+            }
+            return;
+        }
 
-        RequestWrapper requestWrapper = new RequestWrapper((HttpServletRequest) servletRequest);
+        if (!isSampled((HttpServletRequest) servletRequest)) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
 
-        if (!isHealthCheck) {
-            // we can't use a stream here because Collectors.toMap doesn't support null values
-            Map<String, String> queryParameters = new HashMap<>();
-            UriComponentsBuilder.fromHttpRequest(new ServletServerHttpRequest(requestWrapper))
-                    .build()
-                    .getQueryParams()
-                    .forEach((key, value) -> queryParameters.put(key, value.get(0)));
+        RequestWrapper requestWrapper = new RequestWrapper((HttpServletRequest) servletRequest, maxInMemoryBodyBytes);
+        try {
+            logRequest(requestWrapper);
 
-            boolean isJson = isJson(requestWrapper.getBody());
-
-            //noinspection unchecked
-            Optional<UserData> maybeUserData = (Optional<UserData>) requestWrapper.getSession()
-                    .getAttribute(SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME);
-
-            LoggableRequest loggableRequest = LoggableRequest.builder()
-                    .protocol(requestWrapper.getProtocol())
-                    .sender(requestWrapper.getRemoteAddr())
-                    .method(((HttpServletRequest) servletRequest).getMethod())
-                    .path(((HttpServletRequest) servletRequest).getServletPath())
-                    .queryString(requestWrapper.getQueryString())
-                    .queryParameters(queryParameters)
-                    .headers(getHeaders(requestWrapper))
-                    .userId(maybeUserData.map(UserData::getUserId)
-                            .orElse(null))
-                    .body(isJson ? null : requestWrapper.getBody())
-                    .jsonBody(isJson ? requestWrapper.getBody() : null)
-                    .build();
-            log.info("Request: " + objectMapper.writeValueAsString(loggableRequest));
-        }
-
-        long startTime = System.currentTimeMillis();
-        ResponseWrapper responseWrapper = new ResponseWrapper((HttpServletResponse) servletResponse);
-        filterChain.doFilter(requestWrapper, responseWrapper);
-        long duration = System.currentTimeMillis() - startTime;
-
-        if (!isHealthCheck) {
-            boolean isJson = isJson(responseWrapper.getBody());
-            LoggableResponse loggableResponse = LoggableResponse.builder()
-                    .duration(duration)
-                    .status(responseWrapper.getStatus())
-                    .headers(getHeaders(responseWrapper))
-                    .body(isJson ? null : responseWrapper.getBody())
-                    .jsonBody(isJson ? responseWrapper.getBody() : null)
-                    .build();
-            log.info("Response: " + objectMapper.writeValueAsString(loggableResponse));
+            ResponseWrapper responseWrapper = new ResponseWrapper((HttpServletResponse) servletResponse,
+                    maxBodyBytes);
+            requestWrapper.setAttribute(START_TIME_ATTRIBUTE_NAME, System.currentTimeMillis());
+            requestWrapper.setAttribute(RESPONSE_WRAPPER_ATTRIBUTE_NAME, responseWrapper);
+            filterChain.doFilter(requestWrapper, responseWrapper);
+            if (!requestWrapper.isAsyncStarted()) {
+                logResponse(requestWrapper, responseWrapper);
+            }
+        } finally {
+            closeWhenComplete(requestWrapper);
+        }
+    }
+
+    // an asynchronous request may still be reading a spooled body, so it's only deleted once the request completes
+    private static void closeWhenComplete(RequestWrapper requestWrapper) throws IOException {
+        if (!requestWrapper.isAsyncStarted()) {
+            requestWrapper.close();
+            return;
         }
+        requestWrapper.getAsyncContext()
+                .addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent asyncEvent) throws IOException {
+                        requestWrapper.close();
+                    }
 
-        servletResponse.getOutputStream()
-                .write(responseWrapper.getData());
+                    @Override
+                    public void onTimeout(AsyncEvent asyncEvent) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent asyncEvent) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent asyncEvent) {
+                    }
+                });
     }
 
-    private Multimap<String, String> getHeaders(HttpServletRequest httpServletRequest) {
-        Multimap<String, String> headers = HashMultimap.create();
-        Enumeration<String> headerNames = httpServletRequest.getHeaderNames();
-        while (headerNames.hasMoreElements()) {
-            String headerName = headerNames.nextElement();
-            Enumeration<String> headerValues = httpServletRequest.getHeaders(headerName);
-            while (headerValues.hasMoreElements()) {
-                headers.put(headerName, headerValues.nextElement());
-            }
+    private boolean isSampled(HttpServletRequest httpServletRequest) {
+        if (httpServletRequest.getServletPath()
+                .equals(HEALTH_CHECK_PATH)) {
+            return false;
         }
-        return headers;
+        double sampleRate = getApi(httpServletRequest).map(api -> apiSampleRates.getOrDefault(api, defaultSampleRate))
+                .orElse(defaultSampleRate);
+        return sampleRate >= 1.0 || ThreadLocalRandom.current()
+                .nextDouble() < sampleRate;
     }
 
-    private Multimap<String, String> getHeaders(HttpServletResponse httpServletResponse) {
-        Multimap<String, String> headers = HashMultimap.create();
-        for (String headerName : httpServletResponse.getHeaderNames()) {
-            for (String headerValue : httpServletResponse.getHeaders(headerName)) {
-                headers.put(headerName, headerValue);
+    private Optional<String> getApi(HttpServletRequest httpServletRequest) {
+        // every API uses the default rate, so there's no need to look up the handler
+        if (apiSampleRates.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            HandlerExecutionChain handlerExecutionChain = requestMappingHandlerMapping.getHandler(httpServletRequest);
+            if (handlerExecutionChain == null) {
+                return Optional.empty();
             }
+            return Optional.ofNullable(((HandlerMethod) handlerExecutionChain.getHandler()).getMethodAnnotation(
+                    Metrics.class))
+                    .map(Metrics::api);
+        } catch (Exception e) {
+            // requests that don't match a handler are rejected by the dispatcher, which is still worth logging
+            return Optional.empty();
+        }
+    }
+
+    private void logRequest(RequestWrapper requestWrapper) throws IOException {
+        String protocol = requestWrapper.getProtocol();
+        String sender = requestWrapper.getRemoteAddr();
+        String method = requestWrapper.getMethod();
+        String path = requestWrapper.getServletPath();
+        String queryString = requestWrapper.getQueryString();
+        Multimap<String, String> headers = getHeaders(requestHeaderAllowList,
+                headerName -> Collections.list(requestWrapper.getHeaders(headerName)));
+        //noinspection unchecked
+        Optional<UserData> maybeUserData = (Optional<UserData>) requestWrapper.getSession()
+                .getAttribute(SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME);
+        String userId = maybeUserData == null ? null : maybeUserData.map(UserData::getUserId)
+                .orElse(null);
+        String contentType = requestWrapper.getContentType();
+        // multipart bodies are uploads, which are left unread for the multipart resolver, so they aren't logged
+        String body = requestWrapper.isBodyBuffered() ? requestWrapper.getBody(maxBodyBytes) : "";
+        boolean isTruncated = requestWrapper.getBodyLength() > maxBodyBytes;
+
+        asyncLogWriter.write("Request: ", () -> {
+            JsonNode jsonBody = parseJsonBody(body, isTruncated, contentType);
+            return LoggableRequest.builder()
+                    .protocol(protocol)
+                    .sender(sender)
+                    .method(method)
+                    .path(path)
+                    .queryString(queryString)
+                    .queryParameters(getQueryParameters(queryString))
+                    .headers(headers)
+                    .userId(userId)
+                    .body(jsonBody == null ? getPlainBody(body, isTruncated) : null)
+                    .jsonBody(jsonBody)
+                    .build();
+        });
+    }
+
+    private void logResponse(ServletRequest servletRequest, ResponseWrapper responseWrapper) {
+        long duration = System.currentTimeMillis() - (long) servletRequest.getAttribute(START_TIME_ATTRIBUTE_NAME);
+        int status = responseWrapper.getStatus();
+        Multimap<String, String> headers = getHeaders(responseHeaderAllowList, responseWrapper::getHeaders);
+        // a streamed body went straight to the client, so there's no body to log
+        String body = responseWrapper.isStreaming() ? "" : responseWrapper.getBody();
+        boolean isTruncated = responseWrapper.isBodyTruncated();
+        String contentType = responseWrapper.getContentType();
+
+        asyncLogWriter.write("Response: ", () -> LoggableResponse.builder()
+                .duration(duration)
+                .status(status)
+                .headers(headers)
+                .body(isJson(body, isTruncated, contentType) ? null : getPlainBody(body, isTruncated))
+                .jsonBody(isJson(body, isTruncated, contentType) ? body : null)
+                .build());
+    }
+
+    private static Multimap<String, String> getHeaders(Set<String> headerAllowList,
+                                                       Function<String, Collection<String>> headerValuesGetter) {
+        Multimap<String, String> headers = ArrayListMultimap.create();
+        for (String headerName : headerAllowList) {
+            headers.putAll(headerName, headerValuesGetter.apply(headerName));
         }
         return headers;
     }
 
-    private boolean isJson(String string) {
+    private static Map<String, String> getQueryParameters(String queryString) {
+        // we can't use a stream here because Collectors.toMap doesn't support null values
+        Map<String, String> queryParameters = new HashMap<>();
+        if (queryString != null) {
+            UriComponentsBuilder.newInstance()
+                    .query(queryString)
+                    .build()
+                    .getQueryParams()
+                    .forEach((key, value) -> queryParameters.put(key, value.get(0)));
+        }
+        return queryParameters;
+    }
+
+    private static String getPlainBody(String body, boolean isTruncated) {
+        if (body.isEmpty()) {
+            return null;
+        }
+        return isTruncated ? body + TRUNCATED_SUFFIX : body;
+    }
+
+    // returns null if the body isn't JSON, including when its content type says it is but it doesn't parse
+    private JsonNode parseJsonBody(String body, boolean isTruncated, String contentType) {
+        if (!isJson(body, isTruncated, contentType)) {
+            return null;
+        }
         try {
-            objectMapper.readTree(string);
-            return true;
-        } catch (JsonProcessingException e) {
+            return jsonBodyReader.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // a truncated body isn't valid JSON anymore, so it's logged as a plain string
+    private static boolean isJson(String body, boolean isTruncated, String contentType) {
+        if (body.isEmpty() || isTruncated || contentType == null) {
             return false;
         }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return MediaType.APPLICATION_JSON.includes(mediaType) || mediaType.getSubtype()
+                    .endsWith("+json");
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static void validateSampleRate(double sampleRate) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("Sample rates must be between 0 and 1.");
+        }
     }
 }
@@ -16,16 +16,21 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
 public class MetricsConfiguration {
 
     @Bean
-    public MetricsFilter metricsFilter(@NonNull String region,
-                                       @NonNull @Value("${metricsNamespace}") String metricsNamespace,
+    public MetricsEmitter metricsEmitter(@NonNull String region,
+                                         @NonNull @Value("${metricsNamespace}") String metricsNamespace) {
+        return NullMetricsEmitter.builder()
+                .amazonCloudWatch(AmazonCloudWatchClientBuilder.standard()
+                        .withRegion(region)
+                        .build())
+                .metricsNamespace(metricsNamespace)
+                .build();
+    }
+
+    @Bean
+    public MetricsFilter metricsFilter(@NonNull MetricsEmitter metricsEmitter,
                                        @NonNull RequestMappingHandlerMapping requestMappingHandlerMapping) {
         return MetricsFilter.builder()
-                .metricsEmitter(NullMetricsEmitter.builder()
-                        .amazonCloudWatch(AmazonCloudWatchClientBuilder.standard()
-                                .withRegion(region)
-                                .build())
-                        .metricsNamespace(metricsNamespace)
-                        .build())
+                .metricsEmitter(metricsEmitter)
                 .requestMappingHandlerMapping(requestMappingHandlerMapping)
                 .build();
     }
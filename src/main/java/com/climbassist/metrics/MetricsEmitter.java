@@ -17,6 +17,7 @@ import java.util.Set;
 public class MetricsEmitter {
 
     private static final String API_DIMENSION_NAME = "api";
+    private static final String COMPONENT_DIMENSION_NAME = "component";
 
     @NonNull
     private final String metricsNamespace;
@@ -36,6 +37,43 @@ public class MetricsEmitter {
                 buildPutMetricDataRequest(api, "duration", duration, Optional.of(StandardUnit.Milliseconds)));
     }
 
+    /**
+     * Emits a count metric for an internal component (e.g. an executor or a cache) rather than for an API.
+     */
+    public void emitComponentCountMetric(@NonNull String component, @NonNull String metricName, double count) {
+        amazonCloudWatch.putMetricData(
+                buildPutMetricDataRequest(COMPONENT_DIMENSION_NAME, component, metricName, count, Optional.empty()));
+    }
+
+    /**
+     * Emits the hit and miss counts of one cache lookup, so that a cache's hit rate is the average of its hit count.
+     */
+    public void emitCacheLookupMetrics(@NonNull String component, boolean hit) {
+        emitComponentCountMetric(component, "hitCount", hit ? 1 : 0);
+        emitComponentCountMetric(component, "missCount", hit ? 0 : 1);
+    }
+
+    /**
+     * Emits a duration metric, in milliseconds, for an internal component (e.g. an executor or a cache) rather than
+     * for an API.
+     */
+    public void emitComponentDurationMetric(@NonNull String component, @NonNull String metricName, double duration) {
+        amazonCloudWatch.putMetricData(
+                buildPutMetricDataRequest(COMPONENT_DIMENSION_NAME, component, metricName, duration,
+                        Optional.of(StandardUnit.Milliseconds)));
+    }
+
+    /**
+     * Emits a throughput metric, in bytes per second, for an internal component (e.g. an S3 bucket) rather than for an
+     * API.
+     */
+    public void emitComponentThroughputMetric(@NonNull String component, @NonNull String metricName,
+                                              double bytesPerSecond) {
+        amazonCloudWatch.putMetricData(
+                buildPutMetricDataRequest(COMPONENT_DIMENSION_NAME, component, metricName, bytesPerSecond,
+                        Optional.of(StandardUnit.BytesSecond)));
+    }
+
     private void emitBooleanMetric(String api, String metricName, boolean booleanValue) {
         amazonCloudWatch.putMetricData(
                 buildPutMetricDataRequest(api, metricName, booleanValue ? 1.0 : 0.0, Optional.empty()));
@@ -44,8 +82,15 @@ public class MetricsEmitter {
     private PutMetricDataRequest buildPutMetricDataRequest(String api, String metricName, double value,
                                                            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                                                    Optional<StandardUnit> maybeUnit) {
-        Set<Dimension> dimensions = ImmutableSet.of(new Dimension().withName(API_DIMENSION_NAME)
-                .withValue(api));
+        return buildPutMetricDataRequest(API_DIMENSION_NAME, api, metricName, value, maybeUnit);
+    }
+
+    private PutMetricDataRequest buildPutMetricDataRequest(String dimensionName, String dimensionValue,
+                                                           String metricName, double value,
+                                                           @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                                                   Optional<StandardUnit> maybeUnit) {
+        Set<Dimension> dimensions = ImmutableSet.of(new Dimension().withName(dimensionName)
+                .withValue(dimensionValue));
         MetricDatum metricDatum = new MetricDatum().withDimensions(dimensions)
                 .withMetricName(metricName)
                 .withValue(value);
@@ -7,6 +7,7 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
@@ -15,12 +16,15 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
- * This class emits error, fault, and duration metrics for APIs
+ * This class emits error, fault, and duration metrics for APIs. Asynchronous requests are measured from when they were
+ * first received until their result is dispatched.
  */
 @Builder
 @Slf4j
 public class MetricsFilter implements Filter {
 
+    private static final String START_TIME_ATTRIBUTE_NAME = MetricsFilter.class.getName() + ".startTime";
+
     @NonNull
     private final RequestMappingHandlerMapping requestMappingHandlerMapping;
     @NonNull
@@ -30,9 +34,15 @@ public class MetricsFilter implements Filter {
     public void doFilter(@NonNull ServletRequest servletRequest, @NonNull ServletResponse servletResponse,
                          @NonNull FilterChain filterChain) {
         try {
-            double startTime = System.currentTimeMillis();
+            if (servletRequest.getDispatcherType() != DispatcherType.ASYNC) {
+                servletRequest.setAttribute(START_TIME_ATTRIBUTE_NAME, System.currentTimeMillis());
+            }
             filterChain.doFilter(servletRequest, servletResponse);
-            double duration = System.currentTimeMillis() - startTime;
+            if (servletRequest.isAsyncStarted()) {
+                return;
+            }
+            double duration =
+                    System.currentTimeMillis() - (long) servletRequest.getAttribute(START_TIME_ATTRIBUTE_NAME);
 
             HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
             HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
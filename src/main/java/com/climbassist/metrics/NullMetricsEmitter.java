@@ -17,4 +17,18 @@ public class NullMetricsEmitter extends MetricsEmitter {
     @Override
     public void emitDurationMetric(@NonNull String api, double duration) {
     }
+
+    @Override
+    public void emitComponentCountMetric(@NonNull String component, @NonNull String metricName, double count) {
+    }
+
+    @Override
+    public void emitComponentDurationMetric(@NonNull String component, @NonNull String metricName,
+                                            double duration) {
+    }
+
+    @Override
+    public void emitComponentThroughputMetric(@NonNull String component, @NonNull String metricName,
+                                              double bytesPerSecond) {
+    }
 }
@@ -0,0 +1,14 @@
+package com.climbassist.wrapper.request;
+
+import java.io.IOException;
+
+/**
+ * Thrown while reading the body of a request once more bytes have been read than its limit allows. It's an
+ * {@link IOException} so that it stops whatever is copying the body, wherever that happens.
+ */
+public class RequestBodyTooLargeException extends IOException {
+
+    public RequestBodyTooLargeException(long maxBytes) {
+        super(String.format("Request body is larger than %d bytes.", maxBytes));
+    }
+}
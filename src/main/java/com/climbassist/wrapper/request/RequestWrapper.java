@@ -1,54 +1,126 @@
 package com.climbassist.wrapper.request;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.io.IOUtils;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /**
- * This class is used to wrap an HttpServletRequest to allow the body of the request to be logged.
+ * This class is used to wrap an HttpServletRequest to allow the body of the request to be logged. Multipart bodies are
+ * uploads which the multipart resolver already streams to disk, so they're passed through without being read here.
+ * Other bodies are kept in memory up to a threshold, and spooled to a temporary file when they're larger, so the memory
+ * used doesn't grow with the size of the body. The temporary file is deleted when the wrapper is closed.
  */
-public class RequestWrapper extends HttpServletRequestWrapper {
+public class RequestWrapper extends HttpServletRequestWrapper implements Closeable {
 
-    private static final long MAX_STRING_SIZE = 10 * FileUtils.ONE_KB;
+    private static final byte[] EMPTY_BODY = new byte[0];
 
-    private byte[] buffer;
+    private final boolean isBuffered;
+    private final byte[] buffer;
+    private final Path spoolFile;
+    private final long bodyLength;
 
-    public RequestWrapper(HttpServletRequest httpServletRequest) throws IOException {
+    public RequestWrapper(HttpServletRequest httpServletRequest, int maxInMemoryBytes) throws IOException {
         super(httpServletRequest);
-        buffer = IOUtils.toByteArray(httpServletRequest.getInputStream());
+        if (maxInMemoryBytes < 0) {
+            throw new IllegalArgumentException("Max in memory bytes must be greater than or equal to 0.");
+        }
+        if (ServletFileUpload.isMultipartContent(httpServletRequest)) {
+            isBuffered = false;
+            buffer = EMPTY_BODY;
+            spoolFile = null;
+            bodyLength = 0;
+            return;
+        }
+
+        isBuffered = true;
+        InputStream inputStream = httpServletRequest.getInputStream();
+        long contentLength = httpServletRequest.getContentLengthLong();
+        byte[] head = new byte[contentLength >= 0 && contentLength < maxInMemoryBytes ? (int) contentLength :
+                maxInMemoryBytes];
+        int headLength = IOUtils.read(inputStream, head);
+        int nextByte = headLength == head.length ? inputStream.read() : -1;
+        if (nextByte == -1) {
+            buffer = headLength == head.length ? head : Arrays.copyOf(head, headLength);
+            spoolFile = null;
+            bodyLength = headLength;
+            return;
+        }
+
+        buffer = EMPTY_BODY;
+        spoolFile = Files.createTempFile("request-body-", ".tmp");
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(spoolFile))) {
+            outputStream.write(head, 0, headLength);
+            outputStream.write(nextByte);
+            bodyLength = headLength + 1 + IOUtils.copyLarge(inputStream, outputStream);
+        } catch (IOException e) {
+            Files.deleteIfExists(spoolFile);
+            throw e;
+        }
     }
 
-    public ServletInputStream getInputStream() {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(buffer);
-        return new FilterServletInputStream(byteArrayInputStream);
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (!isBuffered) {
+            return super.getInputStream();
+        }
+        if (spoolFile != null) {
+            return new FilterServletInputStream(new BufferedInputStream(Files.newInputStream(spoolFile)));
+        }
+        return new FilterServletInputStream(new ByteArrayInputStream(buffer));
     }
 
     /**
-     * returns the body of the request as a string, up to 1 MB before it is truncated
+     * Returns whether the body was read by this wrapper. Multipart bodies aren't, so they have no body to log.
      */
-    public String getBody() throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ServletInputStream servletInputStream = getInputStream();
-        long totalSize = 0L;
-        byte[] stringBuffer = new byte[1024];
-        int readSize;
-        while ((readSize = servletInputStream.read(stringBuffer)) > 0) {
-            byteArrayOutputStream.write(stringBuffer, 0, readSize);
-            totalSize += readSize;
-            if (totalSize > MAX_STRING_SIZE) {
-                break;
-            }
-        }
-        String body = new String(byteArrayOutputStream.toByteArray());
-        if (totalSize > MAX_STRING_SIZE) {
-            body = body + " [content truncated]";
-        }
-        return body;
+    public boolean isBodyBuffered() {
+        return isBuffered;
+    }
+
+    public long getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * Returns the first maxBytes bytes of the body as a string, without copying the rest of it. A spooled body is
+     * memory-mapped for this, so only the pages which are decoded are read from the file.
+     */
+    public String getBody(int maxBytes) throws IOException {
+        if (spoolFile == null) {
+            return new String(buffer, 0, Math.min(buffer.length, maxBytes), StandardCharsets.UTF_8);
+        }
+        try (FileChannel fileChannel = FileChannel.open(spoolFile, StandardOpenOption.READ)) {
+            MappedByteBuffer preview = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(bodyLength,
+                    maxBytes));
+            return StandardCharsets.UTF_8.decode(preview)
+                    .toString();
+        }
+    }
+
+    /**
+     * Deletes the spooled body, if there is one. This must only be called once the request is complete, since the
+     * controller may still be reading the body until then.
+     */
+    @Override
+    public void close() throws IOException {
+        if (spoolFile != null) {
+            Files.deleteIfExists(spoolFile);
+        }
     }
 }
@@ -0,0 +1,109 @@
+package com.climbassist.wrapper.request;
+
+import lombok.NonNull;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used to wrap an HttpServletRequest to limit the size of its body while it's read, for bodies whose size
+ * isn't known up front, like chunked ones. Reading past the limit throws a {@link RequestBodyTooLargeException}, so
+ * that nothing copies more than the limit into memory or onto disk.
+ */
+public class SizeLimitedRequestWrapper extends HttpServletRequestWrapper {
+
+    private final long maxBodyBytes;
+    private ServletInputStream servletInputStream;
+
+    public SizeLimitedRequestWrapper(@NonNull HttpServletRequest httpServletRequest, long maxBodyBytes) {
+        super(httpServletRequest);
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("Max body bytes must be greater than or equal to 0.");
+        }
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (servletInputStream == null) {
+            servletInputStream = new SizeLimitedServletInputStream(super.getInputStream(), maxBodyBytes);
+        }
+        return servletInputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        String characterEncoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+                characterEncoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(characterEncoding)));
+    }
+
+    private static class SizeLimitedServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream servletInputStream;
+        private final long maxBytes;
+        private long bytesRead;
+
+        private SizeLimitedServletInputStream(ServletInputStream servletInputStream, long maxBytes) {
+            this.servletInputStream = servletInputStream;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int nextByte = servletInputStream.read();
+            if (nextByte != -1) {
+                count(1);
+            }
+            return nextByte;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buf, int off, int len) throws IOException {
+            int length = servletInputStream.read(buf, off, len);
+            if (length > 0) {
+                count(length);
+            }
+            return length;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return servletInputStream.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            servletInputStream.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return servletInputStream.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return servletInputStream.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            servletInputStream.setReadListener(readListener);
+        }
+
+        private void count(int length) throws RequestBodyTooLargeException {
+            bytesRead += length;
+            if (bytesRead > maxBytes) {
+                throw new RequestBodyTooLargeException(maxBytes);
+            }
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.climbassist.wrapper.response;
 
 import org.apache.commons.io.output.NullOutputStream;
+import org.springframework.lang.NonNull;
 
 import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -14,36 +20,73 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * This class is used to wrap an HttpServletResponse to allow the body of the request to be logged and modified, as well
- * as allow the addition of headers.
+ * This class is used to wrap an HttpServletResponse to allow the body of the response to be logged, as well as allow
+ * the addition of headers. The body is written straight through to the response, and only the first
+ * maxCapturedBodyBytes bytes of it are kept.
  */
-public class ResponseWrapper extends HttpServletResponseWrapper {
+public class ResponseWrapper extends HttpServletResponseWrapper implements StreamableResponse {
 
     private final Map<String, String> customHeaders;
-    private ByteArrayOutputStream byteArrayOutputStream;
-    private FilterServletOutputStream filterServletOutputStream;
+    private final int maxCapturedBodyBytes;
+    private final ByteArrayOutputStream capturedBody;
+    private CapturingServletOutputStream capturingServletOutputStream;
+    private long bodyLength;
+    private boolean streaming;
 
-    public ResponseWrapper(HttpServletResponse httpServletResponse) {
+    public ResponseWrapper(HttpServletResponse httpServletResponse, int maxCapturedBodyBytes) {
         super(httpServletResponse);
-        byteArrayOutputStream = new ByteArrayOutputStream();
+        if (maxCapturedBodyBytes < 0) {
+            throw new IllegalArgumentException("Max captured body bytes must be greater than or equal to 0.");
+        }
+        this.maxCapturedBodyBytes = maxCapturedBodyBytes;
+        capturedBody = new ByteArrayOutputStream(Math.min(maxCapturedBodyBytes, 1024));
         customHeaders = new HashMap<>();
     }
 
-    @Override
-    public ServletOutputStream getOutputStream() {
-        if (filterServletOutputStream == null) {
-            filterServletOutputStream = new FilterServletOutputStream(byteArrayOutputStream);
+    /**
+     * Makes every wrapper around the response write straight through to the response instead of buffering the body,
+     * for responses that are too large to hold in memory. Filters don't get to see or change a streamed body, so this
+     * has to be called before anything is written.
+     */
+    public static void startStreaming(ServletResponse servletResponse) {
+        for (ServletResponse response = servletResponse; response instanceof ServletResponseWrapper;
+             response = ((ServletResponseWrapper) response).getResponse()) {
+            if (response instanceof StreamableResponse) {
+                ((StreamableResponse) response).startStreaming();
+            }
         }
-        return filterServletOutputStream;
     }
 
+    @Override
+    public void startStreaming() {
+        streaming = true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return streaming;
+    }
 
-    public byte[] getData() {
-        return byteArrayOutputStream.toByteArray();
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (streaming) {
+            return getResponse().getOutputStream();
+        }
+        if (capturingServletOutputStream == null) {
+            capturingServletOutputStream = new CapturingServletOutputStream(getResponse().getOutputStream());
+        }
+        return capturingServletOutputStream;
     }
 
+    /**
+     * Returns the captured start of the body.
+     */
     public String getBody() {
-        return new String(byteArrayOutputStream.toByteArray());
+        return new String(capturedBody.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public boolean isBodyTruncated() {
+        return bodyLength > capturedBody.size();
     }
 
     public void setCustomHeader(String name, String value) {
@@ -74,4 +117,44 @@ public class ResponseWrapper extends HttpServletResponseWrapper {
     public PrintWriter getWriter() {
         return new PrintWriter(new NullOutputStream());
     }
-}
\ No newline at end of file
+
+    private class CapturingServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream outputStream;
+
+        private CapturingServletOutputStream(ServletOutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            outputStream.write(b);
+            if (capturedBody.size() < maxCapturedBodyBytes) {
+                capturedBody.write(b);
+            }
+            bodyLength++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] bytes, int offset, int length) throws IOException {
+            outputStream.write(bytes, offset, length);
+            capturedBody.write(bytes, offset, Math.min(length, maxCapturedBodyBytes - capturedBody.size()));
+            bodyLength += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return outputStream.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            outputStream.setWriteListener(writeListener);
+        }
+    }
+}
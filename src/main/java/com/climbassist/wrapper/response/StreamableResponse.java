@@ -0,0 +1,12 @@
+package com.climbassist.wrapper.response;
+
+/**
+ * A response wrapper that holds on to or changes the body before it's sent, which can be told to let the body go
+ * straight through to the response instead.
+ */
+public interface StreamableResponse {
+
+    void startStreaming();
+
+    boolean isStreaming();
+}
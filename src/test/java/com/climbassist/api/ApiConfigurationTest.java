@@ -0,0 +1,60 @@
+package com.climbassist.api;
+
+import com.climbassist.api.resource.common.cache.RequestMemo;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.concurrent.CompletableFutures;
+import com.climbassist.metrics.MetricsEmitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class ApiConfigurationTest {
+
+    private static final long ASYNC_REQUEST_TIMEOUT_MILLIS = 100L;
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private final ApiConfiguration apiConfiguration = new ApiConfiguration();
+    private BoundedExecutor boundedExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (boundedExecutor != null) {
+            boundedExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void asyncRequestExecutor_stopsTask_whenItRunsLongerThanAsyncRequestTimeout() {
+        boundedExecutor = apiConfiguration.asyncRequestExecutor(1, 1, ASYNC_REQUEST_TIMEOUT_MILLIS, mockMetricsEmitter,
+                new RequestMemo());
+        CompletableFuture<Boolean> completableFuture =
+                CompletableFutures.supplyAsync(this::runLongerThanAsyncRequestTimeout, boundedExecutor);
+        CompletionException completionException = assertThrows(CompletionException.class, completableFuture::join);
+        assertThat(completionException.getCause(), is(instanceOf(InterruptedException.class)));
+    }
+
+    @Test
+    void uploadRequestExecutor_completesTask_whenItRunsLongerThanAsyncRequestTimeout() {
+        boundedExecutor = apiConfiguration.uploadRequestExecutor(1, 1, mockMetricsEmitter, new RequestMemo());
+        assertThat(CompletableFutures.supplyAsync(this::runLongerThanAsyncRequestTimeout, boundedExecutor)
+                .join(), is(true));
+    }
+
+    private boolean runLongerThanAsyncRequestTimeout() throws InterruptedException {
+        Thread.sleep(ASYNC_REQUEST_TIMEOUT_MILLIS * 3);
+        return true;
+    }
+}
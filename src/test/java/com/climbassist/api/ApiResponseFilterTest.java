@@ -0,0 +1,121 @@
+package com.climbassist.api;
+
+import com.climbassist.wrapper.response.ResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class ApiResponseFilterTest {
+
+    private static final String DATA = "{\"cragId\":\"crag-1\",\"name\":\"Crag 1\"}";
+    private static final String ERROR = "{\"type\":\"ResourceNotFoundException\",\"message\":\"Not found.\"}";
+
+    private ApiResponseFilter apiResponseFilter;
+    private MockHttpServletRequest mockHttpServletRequest;
+    private MockHttpServletResponse mockHttpServletResponse;
+
+    @BeforeEach
+    void setUp() {
+        apiResponseFilter = ApiResponseFilter.builder()
+                .build();
+        mockHttpServletRequest = new MockHttpServletRequest();
+        mockHttpServletResponse = new MockHttpServletResponse();
+    }
+
+    @Test
+    void doFilter_wrapsBodyInData() throws IOException, ServletException {
+        apiResponseFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, writeInChunks(DATA));
+
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo("{\"data\":" + DATA + "}")));
+    }
+
+    @Test
+    void doFilter_wrapsBodyInError_whenStatusIsError() throws IOException, ServletException {
+        apiResponseFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+            ((HttpServletResponse) response).setStatus(404);
+            response.getOutputStream()
+                    .write(ERROR.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo("{\"error\":" + ERROR + "}")));
+        assertThat(mockHttpServletResponse.getContentAsString()
+                .length(), is(equalTo(ERROR.length() + ApiResponse.EXTRA_CHARACTERS_FOR_ERROR)));
+    }
+
+    @Test
+    void doFilter_removesSessionCookieBeforeBodyIsWritten() throws IOException, ServletException {
+        apiResponseFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+            response.getOutputStream()
+                    .write(DATA.getBytes(StandardCharsets.UTF_8));
+            assertThat(mockHttpServletResponse.getCookie("JSESSIONID"), is(notNullValue()));
+        });
+    }
+
+    @Test
+    void doFilter_wrapsEmptyBody() throws IOException, ServletException {
+        apiResponseFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+        });
+
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo("{\"data\":}")));
+        assertThat(mockHttpServletResponse.getCookie("JSESSIONID"), is(notNullValue()));
+    }
+
+    @Test
+    void doFilter_finishesOnAsyncDispatch_whenRequestWentAsync() throws IOException, ServletException {
+        mockHttpServletRequest.setAsyncSupported(true);
+        FilterChain asyncDispatchChain = writeInChunks(DATA);
+        HttpServletResponse[] asyncResponse = new HttpServletResponse[1];
+        apiResponseFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+            request.startAsync(request, response);
+            asyncResponse[0] = (HttpServletResponse) response;
+        });
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo("")));
+
+        // the result is written to the response that was wrapped when the request went async
+        mockHttpServletRequest.setAsyncStarted(false);
+        mockHttpServletRequest.setDispatcherType(DispatcherType.ASYNC);
+        apiResponseFilter.doFilter(mockHttpServletRequest, asyncResponse[0], asyncDispatchChain);
+
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo("{\"data\":" + DATA + "}")));
+    }
+
+    @Test
+    void doFilter_doesNotWrapBody_whenResponseIsStreamed() throws IOException, ServletException {
+        apiResponseFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+            ResponseWrapper.startStreaming(response);
+            response.getOutputStream()
+                    .write("{\"line\":1}\n".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo("{\"line\":1}\n")));
+        assertThat(mockHttpServletResponse.getCookie("JSESSIONID"), is(nullValue()));
+    }
+
+    private static FilterChain writeInChunks(String body) {
+        return (request, response) -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            response.getOutputStream()
+                    .write(bytes, 0, 5);
+            response.getOutputStream()
+                    .write(bytes, 5, 0);
+            response.getOutputStream()
+                    .write(bytes[5]);
+            response.getOutputStream()
+                    .write(bytes, 6, bytes.length - 6);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.climbassist.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class DeferredResultsTest {
+
+    private static final long TIMEOUT_MILLIS = 1000L;
+
+    @Test
+    void withTimeout_setsResult_whenFutureCompletes() {
+        CompletableFuture<String> completableFuture = new CompletableFuture<>();
+        DeferredResult<String> deferredResult = DeferredResults.withTimeout(completableFuture, TIMEOUT_MILLIS);
+        assertThat(deferredResult.hasResult(), is(false));
+        completableFuture.complete("result");
+        assertThat(deferredResult.getResult(), is(equalTo("result")));
+    }
+
+    @Test
+    void withTimeout_setsErrorResult_whenFutureFails() {
+        IOException ioException = new IOException("Unable to upload.");
+        CompletableFuture<String> completableFuture = new CompletableFuture<>();
+        completableFuture.completeExceptionally(ioException);
+        assertThat(DeferredResults.withTimeout(completableFuture, TIMEOUT_MILLIS)
+                .getResult(), is(sameInstance(ioException)));
+    }
+
+    @Test
+    void withTimeout_unwrapsCompletionException_whenFutureFails() {
+        IOException ioException = new IOException("Unable to upload.");
+        CompletableFuture<String> completableFuture = new CompletableFuture<>();
+        completableFuture.completeExceptionally(new CompletionException(ioException));
+        assertThat(DeferredResults.withTimeout(completableFuture, TIMEOUT_MILLIS)
+                .getResult(), is(sameInstance(ioException)));
+    }
+}
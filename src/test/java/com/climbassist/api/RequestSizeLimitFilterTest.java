@@ -0,0 +1,178 @@
+package com.climbassist.api;
+
+import com.climbassist.wrapper.request.RequestWrapper;
+import com.climbassist.wrapper.request.SizeLimitedRequestWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSizeLimitFilterTest {
+
+    private static final long MAX_BODY_BYTES = 10;
+    private static final long MAX_MULTIPART_BODY_BYTES = 100;
+
+    @Mock
+    private FilterChain mockFilterChain;
+
+    private RequestSizeLimitFilter requestSizeLimitFilter;
+    private MockHttpServletRequest mockHttpServletRequest;
+    private MockHttpServletResponse mockHttpServletResponse;
+
+    @BeforeEach
+    void setUp() {
+        requestSizeLimitFilter = RequestSizeLimitFilter.builder()
+                .objectMapper(new ObjectMapper())
+                .maxBodyBytes(MAX_BODY_BYTES)
+                .maxMultipartBodyBytes(MAX_MULTIPART_BODY_BYTES)
+                .build();
+        mockHttpServletRequest = new MockHttpServletRequest("POST", "/v1/crags");
+        mockHttpServletRequest.setContentType("application/json");
+        mockHttpServletResponse = new MockHttpServletResponse();
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenMaxBodyBytesIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> RequestSizeLimitFilter.builder()
+                .objectMapper(new ObjectMapper())
+                .maxBodyBytes(-1)
+                .maxMultipartBodyBytes(MAX_MULTIPART_BODY_BYTES)
+                .build());
+    }
+
+    @Test
+    void doFilter_passesRequestThrough_whenBodyIsAtLimit() throws IOException, ServletException {
+        mockHttpServletRequest.setContent(new byte[(int) MAX_BODY_BYTES]);
+
+        requestSizeLimitFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, mockFilterChain);
+
+        verify(mockFilterChain).doFilter(argThat(this::isSizeLimitedMockHttpServletRequest),
+                eq(mockHttpServletResponse));
+    }
+
+    @Test
+    void doFilter_rejectsRequest_whenBodyIsOverLimit() throws IOException, ServletException {
+        mockHttpServletRequest.setContent(new byte[(int) MAX_BODY_BYTES + 1]);
+
+        requestSizeLimitFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, mockFilterChain);
+
+        verifyNoInteractions(mockFilterChain);
+        String expectedBody = "{\"error\":{\"type\":\"RequestTooLargeException\",\"message\":\"Request bodies can't " +
+                "be larger than 10 bytes.\"}}";
+        assertThat(mockHttpServletResponse.getStatus(), is(equalTo(413)));
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo(expectedBody)));
+        assertThat(mockHttpServletResponse.getContentLength(), is(equalTo(expectedBody.length())));
+        assertThat(mockHttpServletResponse.getHeader("Connection"), is(equalTo("close")));
+    }
+
+    @Test
+    void doFilter_usesMultipartLimit_whenBodyIsMultipart() throws IOException, ServletException {
+        mockHttpServletRequest.setContentType("multipart/form-data; boundary=boundary");
+        mockHttpServletRequest.setContent(new byte[(int) MAX_MULTIPART_BODY_BYTES]);
+
+        requestSizeLimitFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, mockFilterChain);
+
+        verify(mockFilterChain).doFilter(mockHttpServletRequest, mockHttpServletResponse);
+    }
+
+    @Test
+    void doFilter_rejectsRequest_whenMultipartBodyIsOverMultipartLimit() throws IOException, ServletException {
+        mockHttpServletRequest.setContentType("multipart/form-data; boundary=boundary");
+        mockHttpServletRequest.setContent(new byte[(int) MAX_MULTIPART_BODY_BYTES + 1]);
+
+        requestSizeLimitFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, mockFilterChain);
+
+        verifyNoInteractions(mockFilterChain);
+        assertThat(mockHttpServletResponse.getStatus(), is(equalTo(413)));
+    }
+
+    @Test
+    void doFilter_passesRequestThrough_whenContentLengthIsUnknown() throws IOException, ServletException {
+        requestSizeLimitFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, mockFilterChain);
+
+        verify(mockFilterChain).doFilter(argThat(this::isSizeLimitedMockHttpServletRequest),
+                eq(mockHttpServletResponse));
+    }
+
+    @Test
+    void doFilter_rejectsRequestAndDeletesSpoolFile_whenChunkedBodyIsOverLimit() throws IOException, ServletException {
+        MockHttpServletRequest chunkedRequest = new MockHttpServletRequest("POST", "/v1/crag-imports") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunkedRequest.setContentType("application/x-ndjson");
+        chunkedRequest.setContent(new byte[(int) MAX_BODY_BYTES * 3]);
+        // spools the body the way the logging filter does
+        doAnswer(invocation -> {
+            try (RequestWrapper ignored = new RequestWrapper(invocation.getArgument(0), 4)) {
+                return null;
+            }
+        }).when(mockFilterChain)
+                .doFilter(any(), any());
+        Set<Path> spoolFilesBefore = listSpoolFiles();
+
+        requestSizeLimitFilter.doFilter(chunkedRequest, mockHttpServletResponse, mockFilterChain);
+
+        assertThat(mockHttpServletResponse.getStatus(), is(equalTo(413)));
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo(
+                "{\"error\":{\"type\":\"RequestTooLargeException\",\"message\":\"Request bodies can't be larger " +
+                        "than 10 bytes.\"}}")));
+        assertThat(listSpoolFiles(), is(equalTo(spoolFilesBefore)));
+    }
+
+    @Test
+    void doFilter_rethrowsException_whenItIsNotCausedByTheBodySize() throws IOException, ServletException {
+        IOException ioException = new IOException("failure");
+        doThrow(ioException).when(mockFilterChain)
+                .doFilter(any(), any());
+
+        assertThat(assertThrows(IOException.class,
+                () -> requestSizeLimitFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse,
+                        mockFilterChain)), is(sameInstance(ioException)));
+    }
+
+    private boolean isSizeLimitedMockHttpServletRequest(ServletRequest servletRequest) {
+        return servletRequest instanceof SizeLimitedRequestWrapper &&
+                ((SizeLimitedRequestWrapper) servletRequest).getRequest() == mockHttpServletRequest;
+    }
+
+    private static Set<Path> listSpoolFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return paths.filter(path -> path.getFileName()
+                    .toString()
+                    .startsWith("request-body-"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
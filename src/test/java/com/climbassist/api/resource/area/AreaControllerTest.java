@@ -6,6 +6,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.region.Region;
 import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableSet;
@@ -88,10 +89,13 @@ class AreaControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(
-                AREA_1);
-        assertThat(areaController.getResource(AREA_1.getAreaId(), DEPTH, MAYBE_USER_DATA), is(equalTo(AREA_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(AREA_1.getAreaId(), DEPTH, MAYBE_USER_DATA);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(AREA_1.getAreaId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
+        assertThat(areaController.getResource(AREA_1.getAreaId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(AREA_1.getAreaId(), DEPTH,
+                MAYBE_USER_DATA);
     }
 
     @Test
@@ -34,6 +34,8 @@ class AreasDaoTest extends AbstractResourceWithParentDaoTest<Area, Region, Areas
         return AreasDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
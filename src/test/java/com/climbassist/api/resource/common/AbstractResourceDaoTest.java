@@ -1,21 +1,33 @@
 package com.climbassist.api.resource.common;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.climbassist.api.resource.common.cache.ResourceCache;
 import com.climbassist.api.user.UserData;
 import com.google.common.testing.NullPointerTester;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,10 +43,18 @@ public abstract class AbstractResourceDaoTest<Resource extends com.climbassist.a
             .isAdministrator(false)
             .build());
 
+    @Mock
+    protected ResourceChangeListener mockResourceChangeListener;
+    @Mock
+    protected ResourceCache mockResourceCache;
+
     protected ResourceDao resourceDao;
 
     @BeforeEach
     void setUp() {
+        lenient().when(mockResourceCache.get(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1)
+                        .get());
         resourceDao = buildResourceDao();
     }
 
@@ -51,6 +71,20 @@ public abstract class AbstractResourceDaoTest<Resource extends com.climbassist.a
                 .getMethod("saveResource", com.climbassist.api.resource.common.Resource.class));
         nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
                 .getMethod("deleteResource", String.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("getResourceAsync", String.class, Optional.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("saveResourceAsync", com.climbassist.api.resource.common.Resource.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("deleteResourceAsync", String.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("buildSaveTransactWriteItem", com.climbassist.api.resource.common.Resource.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("buildDeleteTransactWriteItem", String.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("resourceSaved", com.climbassist.api.resource.common.Resource.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("resourceDeleted", String.class));
     }
 
     @Test
@@ -70,10 +104,41 @@ public abstract class AbstractResourceDaoTest<Resource extends com.climbassist.a
                 getDynamoDbMapperConfig());
     }
 
+    @Test
+    void getResource_loadsResourceThroughCache() {
+        when(getMockDynamoDbMapper().load(any(), any(), any())).thenReturn(getTestResource1());
+        resourceDao.getResource(getTestResource1().getId(), MAYBE_USER_DATA);
+        verify(mockResourceCache).get(eq(getTestResource1().getId()), any(), any());
+    }
+
+    @Test
+    void getResourceAsync_returnsResourceFromTable() {
+        when(getMockDynamoDbMapper().load(any(), any(), any())).thenReturn(getTestResource1());
+        assertThat(resourceDao.getResourceAsync(getTestResource1().getId(), MAYBE_USER_DATA)
+                .join(), is(equalTo(Optional.of(getTestResource1()))));
+    }
+
+    @Test
+    void saveResourceAsync_savesResource() {
+        resourceDao.saveResourceAsync(getTestResource1())
+                .join();
+        verify(getMockDynamoDbMapper()).save(getTestResource1(), getDynamoDbMapperConfig());
+    }
+
+    @Test
+    void deleteResourceAsync_deletesResource() {
+        resourceDao.deleteResourceAsync(getTestResource1().getId())
+                .join();
+        verify(getMockDynamoDbMapper()).delete(buildResourceForDeletion(getTestResource1().getId()),
+                getDynamoDbMapperConfig());
+    }
+
     @Test
     void saveResource_savesResource() {
         resourceDao.saveResource(getTestResource1());
         verify(getMockDynamoDbMapper()).save(getTestResource1(), getDynamoDbMapperConfig());
+        verify(mockResourceCache).invalidate(getTestResource1().getId());
+        verify(mockResourceChangeListener).onResourceSaved(getTestResource1());
     }
 
     @Test
@@ -81,6 +146,52 @@ public abstract class AbstractResourceDaoTest<Resource extends com.climbassist.a
         resourceDao.deleteResource(getTestResource1().getId());
         verify(getMockDynamoDbMapper()).delete(buildResourceForDeletion(getTestResource1().getId()),
                 getDynamoDbMapperConfig());
+        verify(mockResourceCache).invalidate(getTestResource1().getId());
+        verify(mockResourceChangeListener).onResourceDeleted(getTestResource1().getId());
+    }
+
+    @Test
+    void buildSaveTransactWriteItem_buildsPutOfResource() {
+        DynamoDBMapperTableModel<Resource> tableModel = stubTableModel();
+        assertThat(resourceDao.buildSaveTransactWriteItem(getTestResource1()), is(equalTo(
+                new TransactWriteItem().withPut(new Put().withTableName(getDynamoDbMapperConfig().getTableNameOverride()
+                        .getTableName())
+                        .withItem(tableModel.convert(getTestResource1()))))));
+        verifyNoInteractions(mockResourceCache, mockResourceChangeListener);
+    }
+
+    @Test
+    void buildDeleteTransactWriteItem_buildsDeleteOfResource() {
+        DynamoDBMapperTableModel<Resource> tableModel = stubTableModel();
+        Resource resourceForDeletion = buildResourceForDeletion(getTestResource1().getId());
+        assertThat(resourceDao.buildDeleteTransactWriteItem(getTestResource1().getId()), is(equalTo(
+                new TransactWriteItem().withDelete(
+                        new Delete().withTableName(getDynamoDbMapperConfig().getTableNameOverride()
+                                .getTableName())
+                                .withKey(tableModel.convertKey(resourceForDeletion))))));
+        verifyNoInteractions(mockResourceCache, mockResourceChangeListener);
+    }
+
+    @Test
+    void resourceSaved_invalidatesCacheAndNotifiesListener() {
+        resourceDao.resourceSaved(getTestResource1());
+        verify(mockResourceCache).invalidate(getTestResource1().getId());
+        verify(mockResourceChangeListener).onResourceSaved(getTestResource1());
+    }
+
+    @Test
+    void resourceDeleted_invalidatesCacheAndNotifiesListener() {
+        resourceDao.resourceDeleted(getTestResource1().getId());
+        verify(mockResourceCache).invalidate(getTestResource1().getId());
+        verify(mockResourceChangeListener).onResourceDeleted(getTestResource1().getId());
+    }
+
+    // the table model is final, so a real one is built from the resource's annotations
+    private DynamoDBMapperTableModel<Resource> stubTableModel() {
+        DynamoDBMapperTableModel<Resource> tableModel =
+                new DynamoDBMapper(mock(AmazonDynamoDB.class)).getTableModel(getTestResourceClass());
+        when(getMockDynamoDbMapper().getTableModel(getTestResourceClass())).thenReturn(tableModel);
+        return tableModel;
     }
 
     protected abstract ResourceDao buildResourceDao();
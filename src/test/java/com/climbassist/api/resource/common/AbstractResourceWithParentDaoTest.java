@@ -45,6 +45,8 @@ public abstract class AbstractResourceWithParentDaoTest<Resource extends Resourc
         // subclass
         nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
                 .getMethod("getResources", String.class, Optional.class));
+        nullPointerTester.testMethod(resourceDao, resourceDao.getClass()
+                .getMethod("getResourcesAsync", String.class, Optional.class));
     }
 
     @Test
@@ -74,6 +76,16 @@ public abstract class AbstractResourceWithParentDaoTest<Resource extends Resourc
         runGetResourcesTest(ImmutableSet.of(), MAYBE_USER_DATA);
     }
 
+    @Test
+    void getResourcesAsync_returnsResourcesFromDynamoDb() {
+        Set<Resource> resources = ImmutableSet.of(getTestResource1(), getTestResource2());
+        when(mockPaginatedQueryList.iterator()).thenReturn(resources.iterator());
+        when(getMockDynamoDbMapper().query(eq(getTestResourceClass()), any(), any())).thenReturn(
+                mockPaginatedQueryList);
+        assertThat(resourceDao.getResourcesAsync(getTestResource1().getParentId(), MAYBE_USER_DATA)
+                .join(), is(equalTo(resources)));
+    }
+
     @Test
     void saveResource_savesResource() {
         resourceDao.saveResource(getTestResource1());
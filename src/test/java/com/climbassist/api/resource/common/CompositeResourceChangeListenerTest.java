@@ -0,0 +1,84 @@
+package com.climbassist.api.resource.common;
+
+import com.climbassist.api.resource.wall.Wall;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class CompositeResourceChangeListenerTest {
+
+    private static final Wall WALL = Wall.builder()
+            .wallId("wall-1")
+            .cragId("crag-1")
+            .name("Wall 1")
+            .build();
+
+    @Mock
+    private ResourceChangeListener mockResourceChangeListener1;
+    @Mock
+    private ResourceChangeListener mockResourceChangeListener2;
+
+    private CompositeResourceChangeListener compositeResourceChangeListener;
+
+    @BeforeEach
+    void setUp() {
+        compositeResourceChangeListener = CompositeResourceChangeListener.builder()
+                .resourceChangeListeners(ImmutableList.of(mockResourceChangeListener1, mockResourceChangeListener2))
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(compositeResourceChangeListener,
+                NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void onResourceSaved_notifiesEveryListenerInOrder() {
+        compositeResourceChangeListener.onResourceSaved(WALL);
+        InOrder inOrder = inOrder(mockResourceChangeListener1, mockResourceChangeListener2);
+        inOrder.verify(mockResourceChangeListener1)
+                .onResourceSaved(WALL);
+        inOrder.verify(mockResourceChangeListener2)
+                .onResourceSaved(WALL);
+    }
+
+    @Test
+    void onResourceDeleted_notifiesEveryListenerInOrder() {
+        compositeResourceChangeListener.onResourceDeleted(WALL.getWallId());
+        InOrder inOrder = inOrder(mockResourceChangeListener1, mockResourceChangeListener2);
+        inOrder.verify(mockResourceChangeListener1)
+                .onResourceDeleted(WALL.getWallId());
+        inOrder.verify(mockResourceChangeListener2)
+                .onResourceDeleted(WALL.getWallId());
+    }
+
+    @Test
+    void onResourcesSaved_notifiesEveryListenerInOrder() {
+        compositeResourceChangeListener.onResourcesSaved(ImmutableList.of(WALL));
+        InOrder inOrder = inOrder(mockResourceChangeListener1, mockResourceChangeListener2);
+        inOrder.verify(mockResourceChangeListener1)
+                .onResourcesSaved(ImmutableList.of(WALL));
+        inOrder.verify(mockResourceChangeListener2)
+                .onResourcesSaved(ImmutableList.of(WALL));
+    }
+
+    @Test
+    void onResourcesDeleted_notifiesEveryListenerInOrder() {
+        compositeResourceChangeListener.onResourcesDeleted(ImmutableList.of(WALL.getWallId()));
+        InOrder inOrder = inOrder(mockResourceChangeListener1, mockResourceChangeListener2);
+        inOrder.verify(mockResourceChangeListener1)
+                .onResourcesDeleted(ImmutableList.of(WALL.getWallId()));
+        inOrder.verify(mockResourceChangeListener2)
+                .onResourcesDeleted(ImmutableList.of(WALL.getWallId()));
+    }
+}
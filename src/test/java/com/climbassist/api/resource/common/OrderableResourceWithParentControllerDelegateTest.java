@@ -9,7 +9,9 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Setter;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -44,6 +46,9 @@ class OrderableResourceWithParentControllerDelegateTest {
         String name;
         boolean first;
         String next;
+        @NonFinal
+        @Setter
+        String orderKey;
     }
 
     @Builder
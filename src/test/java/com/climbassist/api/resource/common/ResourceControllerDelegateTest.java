@@ -133,6 +133,16 @@ class ResourceControllerDelegateTest {
         verify(mockCreateResourceResultFactory).create(RESOURCE.getId());
     }
 
+    @Test
+    void createAndGetResource_returnsSavedResource() {
+        NewResourceImpl newResource = NewResourceImpl.builder()
+                .name(RESOURCE.getName())
+                .build();
+        when(mockResourceFactory.create(any())).thenReturn(RESOURCE);
+        assertThat(resourceControllerDelegate.createAndGetResource(newResource), is(equalTo(RESOURCE)));
+        verify(mockResourceDao).saveResource(RESOURCE);
+    }
+
     @Test
     void updateResource_updatesResource_whenResourceExists() throws ResourceNotFoundException {
         when(mockResourceDao.getResource(any(), any())).thenReturn(Optional.of(RESOURCE));
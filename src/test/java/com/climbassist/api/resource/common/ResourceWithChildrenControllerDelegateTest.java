@@ -1,7 +1,11 @@
 package com.climbassist.api.resource.common;
 
 import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
+import com.climbassist.api.resource.common.recursion.ResourceTreeLoader;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshotCache;
 import com.climbassist.api.user.UserData;
+import com.climbassist.metrics.MetricsEmitter;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
 import lombok.Builder;
@@ -21,7 +25,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -131,18 +135,29 @@ class ResourceWithChildrenControllerDelegateTest {
     private RecursiveResourceRetriever<ChildResourceImpl1, ResourceImpl> mockRecursiveResourceRetriever1;
     @Mock
     private RecursiveResourceRetriever<ChildResourceImpl2, ResourceImpl> mockRecursiveResourceRetriever2;
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+    @Mock
+    private SubtreeSnapshotCache mockSubtreeSnapshotCache;
 
     private ResourceWithChildrenControllerDelegate<ResourceImpl, NewResourceImpl>
             resourceWithChildrenControllerDelegate;
+    private ResourceTreeLoader resourceTreeLoader;
 
     @BeforeEach
     void setUp() {
+        resourceTreeLoader = ResourceTreeLoader.builder()
+                .executor(Runnable::run)
+                .metricsEmitter(mockMetricsEmitter)
+                .build();
         resourceWithChildrenControllerDelegate =
                 ResourceWithChildrenControllerDelegate.<ResourceImpl, NewResourceImpl>builder().childResourceDaos(
                         ImmutableSet.of(mockChildResourceDao1))
                         .resourceNotEmptyExceptionFactory(mockResourceNotEmptyExceptionFactory)
                         .recursiveResourceRetrievers(ImmutableSet.of(mockRecursiveResourceRetriever1))
                         .resourceControllerDelegate(mockResourceControllerDelegate)
+                        .resourceTreeLoader(resourceTreeLoader)
+                        .subtreeSnapshotCache(mockSubtreeSnapshotCache)
                         .build();
     }
 
@@ -158,13 +173,13 @@ class ResourceWithChildrenControllerDelegateTest {
     void getResource_callsResourceControllerDelegateAndGetsChildrenFromRecursiveResourceRetriever_whenDepthIsGreaterThanZeroAndThereIsOneRecursiveResourceRetriever()
             throws ResourceNotFoundException {
         when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(RESOURCE);
-        when(mockRecursiveResourceRetriever1.getChildrenRecursively(any(), anyInt(), any())).thenReturn(
+        when(mockRecursiveResourceRetriever1.getChildren(any(), any())).thenReturn(
                 CHILD_RESOURCES_1);
         when(mockRecursiveResourceRetriever1.getChildClass()).thenReturn(ChildResourceImpl1.class);
         assertThat(resourceWithChildrenControllerDelegate.getResource(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA),
                 is(equalTo(RESOURCE_WITH_CHILDREN_1)));
         verify(mockResourceControllerDelegate).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
-        verify(mockRecursiveResourceRetriever1).getChildrenRecursively(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA);
+        verify(mockRecursiveResourceRetriever1).getChildren(RESOURCE.getId(), MAYBE_USER_DATA);
         verify(mockRecursiveResourceRetriever1).getChildClass();
     }
 
@@ -178,32 +193,34 @@ class ResourceWithChildrenControllerDelegateTest {
                         .recursiveResourceRetrievers(
                                 ImmutableSet.of(mockRecursiveResourceRetriever1, mockRecursiveResourceRetriever2))
                         .resourceControllerDelegate(mockResourceControllerDelegate)
+                        .resourceTreeLoader(resourceTreeLoader)
+                        .subtreeSnapshotCache(mockSubtreeSnapshotCache)
                         .build();
         when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(RESOURCE);
-        when(mockRecursiveResourceRetriever1.getChildrenRecursively(any(), anyInt(), any())).thenReturn(
+        when(mockRecursiveResourceRetriever1.getChildren(any(), any())).thenReturn(
                 CHILD_RESOURCES_1);
         when(mockRecursiveResourceRetriever1.getChildClass()).thenReturn(ChildResourceImpl1.class);
-        when(mockRecursiveResourceRetriever2.getChildrenRecursively(any(), anyInt(), any())).thenReturn(
+        when(mockRecursiveResourceRetriever2.getChildren(any(), any())).thenReturn(
                 CHILD_RESOURCES_2);
         when(mockRecursiveResourceRetriever2.getChildClass()).thenReturn(ChildResourceImpl2.class);
         assertThat(resourceWithChildrenControllerDelegate.getResource(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA),
                 is(equalTo(RESOURCE_WITH_CHILDREN_2)));
         verify(mockResourceControllerDelegate).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
-        verify(mockRecursiveResourceRetriever1).getChildrenRecursively(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA);
+        verify(mockRecursiveResourceRetriever1).getChildren(RESOURCE.getId(), MAYBE_USER_DATA);
         verify(mockRecursiveResourceRetriever1).getChildClass();
-        verify(mockRecursiveResourceRetriever2).getChildrenRecursively(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA);
+        verify(mockRecursiveResourceRetriever2).getChildren(RESOURCE.getId(), MAYBE_USER_DATA);
         verify(mockRecursiveResourceRetriever2).getChildClass();
     }
 
     @Test
     void getResource_returnsResourceWithNullChildren_whenResourceHasNoChildren() throws ResourceNotFoundException {
         when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(RESOURCE);
-        when(mockRecursiveResourceRetriever1.getChildrenRecursively(any(), anyInt(), any())).thenReturn(
+        when(mockRecursiveResourceRetriever1.getChildren(any(), any())).thenReturn(
                 ImmutableSet.of());
         assertThat(resourceWithChildrenControllerDelegate.getResource(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA),
                 is(equalTo(RESOURCE)));
         verify(mockResourceControllerDelegate).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
-        verify(mockRecursiveResourceRetriever1).getChildrenRecursively(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA);
+        verify(mockRecursiveResourceRetriever1).getChildren(RESOURCE.getId(), MAYBE_USER_DATA);
     }
 
     @Test
@@ -215,6 +232,8 @@ class ResourceWithChildrenControllerDelegateTest {
                         .resourceNotEmptyExceptionFactory(mockResourceNotEmptyExceptionFactory)
                         .recursiveResourceRetrievers(ImmutableSet.of())
                         .resourceControllerDelegate(mockResourceControllerDelegate)
+                        .resourceTreeLoader(resourceTreeLoader)
+                        .subtreeSnapshotCache(mockSubtreeSnapshotCache)
                         .build();
         when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(RESOURCE);
         assertThat(resourceWithChildrenControllerDelegate.getResource(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA),
@@ -234,7 +253,60 @@ class ResourceWithChildrenControllerDelegateTest {
         assertThat(resourceWithChildrenControllerDelegate.getResource(RESOURCE.getId(), 0, MAYBE_USER_DATA),
                 is(equalTo(RESOURCE)));
         verify(mockResourceControllerDelegate).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
-        verify(mockRecursiveResourceRetriever1, never()).getChildrenRecursively(any(), anyInt(), any());
+        verify(mockRecursiveResourceRetriever1, never()).getChildren(any(), any());
+    }
+
+    @Test
+    void getResourceSnapshot_returnsCachedSnapshot_whenSnapshotIsCached() throws ResourceNotFoundException {
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(RESOURCE.getId()));
+        when(mockSubtreeSnapshotCache.get(any())).thenReturn(Optional.of(subtreeSnapshot));
+        assertThat(
+                resourceWithChildrenControllerDelegate.getResourceSnapshot(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockSubtreeSnapshotCache).get(new SubtreeSnapshotCache.Key(RESOURCE.getId(), DEPTH, false));
+        verify(mockResourceControllerDelegate, never()).getResource(any(), any());
+        verify(mockSubtreeSnapshotCache, never()).put(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void getResourceSnapshot_loadsAndCachesResource_whenSnapshotIsNotCached() throws ResourceNotFoundException {
+        ResourceImpl resource = ResourceImpl.builder()
+                .id(RESOURCE.getId())
+                .build();
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(RESOURCE.getId()));
+        when(mockSubtreeSnapshotCache.get(any())).thenReturn(Optional.empty());
+        when(mockSubtreeSnapshotCache.getGeneration()).thenReturn(7L);
+        when(mockSubtreeSnapshotCache.put(any(), any(), any(), anyLong())).thenReturn(subtreeSnapshot);
+        when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(resource);
+        when(mockRecursiveResourceRetriever1.getChildren(any(), any())).thenReturn(CHILD_RESOURCES_1);
+        when(mockRecursiveResourceRetriever1.getChildClass()).thenReturn(ChildResourceImpl1.class);
+        assertThat(
+                resourceWithChildrenControllerDelegate.getResourceSnapshot(RESOURCE.getId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockSubtreeSnapshotCache).put(new SubtreeSnapshotCache.Key(RESOURCE.getId(), DEPTH, false),
+                RESOURCE_WITH_CHILDREN_1, ImmutableSet.of(RESOURCE.getId(), "childId1", "childId2"), 7L);
+    }
+
+    @Test
+    void getResourceSnapshot_usesAdministratorView_whenUserIsAdministrator() throws ResourceNotFoundException {
+        Optional<UserData> maybeAdministratorUserData = Optional.of(UserData.builder()
+                .userId("33")
+                .username("frodo-baggins")
+                .email("frodo@baggend.shire")
+                .isEmailVerified(true)
+                .isAdministrator(true)
+                .build());
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(RESOURCE.getId()));
+        when(mockSubtreeSnapshotCache.get(any())).thenReturn(Optional.of(subtreeSnapshot));
+        resourceWithChildrenControllerDelegate.getResourceSnapshot(RESOURCE.getId(), 0, maybeAdministratorUserData);
+        verify(mockSubtreeSnapshotCache).get(new SubtreeSnapshotCache.Key(RESOURCE.getId(), 0, true));
+    }
+
+    @Test
+    void getResourceSnapshot_throwsIllegalArgumentException_whenDepthIsLessThanZero() {
+        assertThrows(IllegalArgumentException.class,
+                () -> resourceWithChildrenControllerDelegate.getResourceSnapshot(RESOURCE.getId(), -5,
+                        MAYBE_USER_DATA));
     }
 
     @Test
@@ -260,6 +332,8 @@ class ResourceWithChildrenControllerDelegateTest {
                         .resourceNotEmptyExceptionFactory(mockResourceNotEmptyExceptionFactory)
                         .recursiveResourceRetrievers(ImmutableSet.of(mockRecursiveResourceRetriever1))
                         .resourceControllerDelegate(mockResourceControllerDelegate)
+                        .resourceTreeLoader(resourceTreeLoader)
+                        .subtreeSnapshotCache(mockSubtreeSnapshotCache)
                         .build();
 
         DeleteResourceResult deleteResourceResult = DeleteResourceResult.builder()
@@ -284,6 +358,8 @@ class ResourceWithChildrenControllerDelegateTest {
                         .resourceNotEmptyExceptionFactory(mockResourceNotEmptyExceptionFactory)
                         .recursiveResourceRetrievers(ImmutableSet.of(mockRecursiveResourceRetriever1))
                         .resourceControllerDelegate(mockResourceControllerDelegate)
+                        .resourceTreeLoader(resourceTreeLoader)
+                        .subtreeSnapshotCache(mockSubtreeSnapshotCache)
                         .build();
 
         DeleteResourceResult deleteResourceResult = DeleteResourceResult.builder()
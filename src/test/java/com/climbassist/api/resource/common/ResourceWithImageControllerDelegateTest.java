@@ -12,6 +12,7 @@ import com.climbassist.api.user.UserData;
 import com.climbassist.common.s3.AmazonS3UriBuilder;
 import com.climbassist.common.s3.S3Proxy;
 import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.Builder;
 import lombok.Value;
 import org.apache.commons.io.IOUtils;
@@ -26,6 +27,8 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -110,6 +113,7 @@ class ResourceWithImageControllerDelegateTest {
                         .imagesBucketName(IMAGES_BUCKET_NAME)
                         .resourceFactory(mockResourceFactory)
                         .webpConverter(mockWebpConverter)
+                        .executor(MoreExecutors.directExecutor())
                         .build();
     }
 
@@ -127,8 +131,8 @@ class ResourceWithImageControllerDelegateTest {
         when(mockResourceDao.getResource(any(), any())).thenReturn(Optional.of(RESOURCE));
         when(mockS3Proxy.putPublicObject(any(), any(), any(), anyLong())).thenReturn(JPG_S3_URI);
         when(mockResourceFactory.create(any(), any(), any())).thenReturn(RESOURCE_WITH_IMAGE_LOCATION);
-        assertThat(resourceWithImageControllerDelegate.uploadImage(RESOURCE.getId(), IMAGE, MAYBE_USER_DATA),
-                is(equalTo(UploadImageResult.builder()
+        assertThat(resourceWithImageControllerDelegate.uploadImage(RESOURCE.getId(), IMAGE, MAYBE_USER_DATA)
+                .join(), is(equalTo(UploadImageResult.builder()
                         .successful(true)
                         .build())));
         verify(mockResourceDao).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
@@ -149,7 +153,7 @@ class ResourceWithImageControllerDelegateTest {
         when(mockResourceDao.getResource(any(), any())).thenReturn(Optional.empty());
         when(mockResourceNotFoundExceptionFactory.create(any())).thenReturn(RESOURCE_NOT_FOUND_EXCEPTION);
         assertThrows(ResourceNotFoundExceptionImpl.class,
-                () -> resourceWithImageControllerDelegate.uploadImage(RESOURCE.getId(), IMAGE, MAYBE_USER_DATA));
+                () -> join(resourceWithImageControllerDelegate.uploadImage(RESOURCE.getId(), IMAGE, MAYBE_USER_DATA)));
         verify(mockResourceDao).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
         verify(mockResourceNotFoundExceptionFactory).create(RESOURCE.getId());
@@ -163,7 +167,7 @@ class ResourceWithImageControllerDelegateTest {
         doThrow(new WebpConverterException("fuck you")).when(mockWebpConverter)
                 .convertToWebp(any(), any());
         assertThrows(WebpConverterException.class,
-                () -> resourceWithImageControllerDelegate.uploadImage(RESOURCE.getId(), IMAGE, MAYBE_USER_DATA));
+                () -> join(resourceWithImageControllerDelegate.uploadImage(RESOURCE.getId(), IMAGE, MAYBE_USER_DATA)));
         verify(mockResourceDao).getResource(RESOURCE.getId(), MAYBE_USER_DATA);
         ArgumentCaptor<InputStream> inputStreamArgumentCaptor = ArgumentCaptor.forClass(InputStream.class);
         verify(mockS3Proxy).putPublicObject(eq(IMAGES_BUCKET_NAME), eq(JPG_S3_KEY), inputStreamArgumentCaptor.capture(),
@@ -175,4 +179,12 @@ class ResourceWithImageControllerDelegateTest {
         verify(mockResourceFactory, never()).create(any(), any(), any());
         verify(mockResourceDao, never()).saveResource(any());
     }
+
+    private static <T> T join(CompletableFuture<T> completableFuture) throws Exception {
+        try {
+            return completableFuture.join();
+        } catch (CompletionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
 }
@@ -16,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -146,26 +147,30 @@ class ResourceWithParentControllerDelegateTest {
     @Test
     void getResourcesForParent_returnsResources_whenParentExists() throws ResourceNotFoundException {
         Set<ResourceImpl> resources = ImmutableSet.of(RESOURCE_1, RESOURCE_2);
-        when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.of(PARENT_RESOURCE_1));
-        when(mockResourceDao.getResources(RESOURCE_1.getParentId(), MAYBE_USER_DATA)).thenReturn(resources);
+        when(mockParentResourceDao.getResourceAsync(any(), any())).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(PARENT_RESOURCE_1)));
+        when(mockResourceDao.getResourcesAsync(RESOURCE_1.getParentId(), MAYBE_USER_DATA)).thenReturn(
+                CompletableFuture.completedFuture(resources));
         assertThat(
                 resourceWithParentControllerDelegate.getResourcesForParent(RESOURCE_1.getParentId(), MAYBE_USER_DATA),
                 is(equalTo(resources)));
-        verify(mockParentResourceDao).getResource(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
-        verify(mockResourceDao).getResources(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
+        verify(mockParentResourceDao).getResourceAsync(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
+        verify(mockResourceDao).getResourcesAsync(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
     }
 
     @Test
     void getResourcesForParent_throwsParentResourceNotFoundException_whenParentDoesNotExist() {
-        when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.empty());
+        when(mockParentResourceDao.getResourceAsync(any(), any())).thenReturn(
+                CompletableFuture.completedFuture(Optional.empty()));
+        when(mockResourceDao.getResourcesAsync(any(), any())).thenReturn(
+                CompletableFuture.completedFuture(ImmutableSet.of()));
         when(mockParentResourceNotFoundExceptionFactory.create(any())).thenReturn(PARENT_RESOURCE_NOT_FOUND_EXCEPTION);
         assertThrows(ParentResourceNotFoundExceptionImpl.class,
                 () -> resourceWithParentControllerDelegate.getResourcesForParent(RESOURCE_1.getParentId(),
                         MAYBE_USER_DATA));
-        verify(mockParentResourceDao).getResource(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
+        verify(mockParentResourceDao).getResourceAsync(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
         verify(mockParentResourceNotFoundExceptionFactory).create(PARENT_RESOURCE_1.getId());
-        verify(mockResourceDao, never()).getResources(any(), any());
     }
 
     @Test
@@ -181,6 +186,16 @@ class ResourceWithParentControllerDelegateTest {
         verify(mockResourceControllerDelegate).createResource(NEW_RESOURCE_1);
     }
 
+    @Test
+    void createAndGetResource_callsResourceControllerDelegate_whenParentExists() throws ResourceNotFoundException {
+        when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.of(PARENT_RESOURCE_1));
+        when(mockResourceControllerDelegate.createAndGetResource(any())).thenReturn(RESOURCE_1);
+        assertThat(resourceWithParentControllerDelegate.createAndGetResource(NEW_RESOURCE_1, MAYBE_USER_DATA),
+                is(equalTo(RESOURCE_1)));
+        verify(mockParentResourceDao).getResource(RESOURCE_1.getParentId(), MAYBE_USER_DATA);
+        verify(mockResourceControllerDelegate).createAndGetResource(NEW_RESOURCE_1);
+    }
+
     @Test
     void createResource_throwsParentResourceNotFoundException_whenParentDoesNotExist() {
         when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.empty());
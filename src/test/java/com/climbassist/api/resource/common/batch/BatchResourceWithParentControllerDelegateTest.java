@@ -1,22 +1,21 @@
 package com.climbassist.api.resource.common.batch;
 
-import com.climbassist.api.resource.common.CreateResourceResult;
-import com.climbassist.api.resource.common.DeleteResourceResult;
 import com.climbassist.api.resource.common.NewResource;
-import com.climbassist.api.resource.common.ResourceControllerDelegate;
 import com.climbassist.api.resource.common.ResourceDao;
+import com.climbassist.api.resource.common.ResourceFactory;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceNotFoundExceptionFactory;
 import com.climbassist.api.resource.common.ResourceWithChildren;
 import com.climbassist.api.resource.common.ResourceWithParent;
-import com.climbassist.api.resource.common.ResourceWithParentDao;
 import com.climbassist.api.resource.common.ordering.OrderableResourceWithParent;
+import com.climbassist.api.resource.common.ordering.OrderableResourceWithParentDao;
 import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
 import lombok.Builder;
+import lombok.Setter;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +28,7 @@ import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -51,6 +51,9 @@ class BatchResourceWithParentControllerDelegateTest {
         String name;
         boolean first;
         String next;
+        @NonFinal
+        @Setter
+        String orderKey;
     }
 
     @Builder
@@ -91,13 +94,6 @@ class BatchResourceWithParentControllerDelegateTest {
         List<BatchNewResourceImpl> batchNewResources;
     }
 
-    @Builder
-    @Value
-    private static class CreateResourceResultImpl implements CreateResourceResult<ResourceImpl> {
-
-        String resourceId;
-    }
-
     @Builder
     @Value
     private static class BatchCreateResourcesResultImpl
@@ -183,9 +179,9 @@ class BatchResourceWithParentControllerDelegateTest {
             .build());
 
     @Mock
-    private ResourceControllerDelegate<ResourceImpl, NewResourceImpl> mockResourceControllerDelegate;
+    private ResourceFactory<ResourceImpl, NewResourceImpl> mockResourceFactory;
     @Mock
-    private ResourceWithParentDao<ResourceImpl, ParentResourceImpl> mockResourceDao;
+    private OrderableResourceWithParentDao<ResourceImpl, ParentResourceImpl> mockResourceDao;
     @Mock
     private ResourceDao<ParentResourceImpl> mockParentResourceDao;
     @Mock
@@ -197,6 +193,8 @@ class BatchResourceWithParentControllerDelegateTest {
             mockBatchResourceFactory;
     @Mock
     private BatchCreateResourceResultFactory<ResourceImpl, ParentResourceImpl> mockBatchCreateResourceResultFactory;
+    @Mock
+    private BatchCreateListener<ResourceImpl> mockBatchCreateListener;
     private BatchResourceWithParentControllerDelegate<ResourceImpl, NewResourceImpl, ParentResourceImpl,
             BatchNewResourceImpl>
             batchResourceWithParentControllerDelegate;
@@ -205,14 +203,14 @@ class BatchResourceWithParentControllerDelegateTest {
     void setUp() {
         batchResourceWithParentControllerDelegate =
                 BatchResourceWithParentControllerDelegate.<ResourceImpl, NewResourceImpl, ParentResourceImpl,
-                        BatchNewResourceImpl>builder().resourceControllerDelegate(
-                        mockResourceControllerDelegate)
+                        BatchNewResourceImpl>builder().resourceFactory(mockResourceFactory)
                         .resourceDao(mockResourceDao)
                         .parentResourceDao(mockParentResourceDao)
                         .resourceNotFoundExceptionFactory(mockResourceNotFoundExceptionFactory)
                         .parentResourceNotFoundExceptionFactory(mockParentResourceNotFoundExceptionFactory)
                         .batchResourceFactory(mockBatchResourceFactory)
                         .batchCreateResourceResultFactory(mockBatchCreateResourceResultFactory)
+                        .batchCreateListener(mockBatchCreateListener)
                         .build();
     }
 
@@ -226,7 +224,7 @@ class BatchResourceWithParentControllerDelegateTest {
     }
 
     @Test
-    void batchCreateResources_callsResourceControllerDelegateForEachNewResource() throws ResourceNotFoundException {
+    void batchCreateResources_savesAllResourcesTogether() throws ResourceNotFoundException {
         BatchCreateResourcesResultImpl batchCreateResourcesResult = BatchCreateResourcesResultImpl.builder()
                 .resourceIds(ImmutableList.of(RESOURCE_1.getId(), RESOURCE_2.getId(), RESOURCE_3.getId()))
                 .build();
@@ -235,42 +233,39 @@ class BatchResourceWithParentControllerDelegateTest {
                 .create(anyString(), any(), anyBoolean());
         doReturn(NEW_RESOURCE_2, NEW_RESOURCE_1).when(mockBatchResourceFactory)
                 .create(anyString(), any(), anyBoolean(), anyString());
-        doReturn(CreateResourceResultImpl.builder()
-                .resourceId(RESOURCE_3.getId())
-                .build()).when(mockResourceControllerDelegate)
-                .createResource(NEW_RESOURCE_3);
-        doReturn(CreateResourceResultImpl.builder()
-                .resourceId(RESOURCE_2.getId())
-                .build()).when(mockResourceControllerDelegate)
-                .createResource(NEW_RESOURCE_2);
-        doReturn(CreateResourceResultImpl.builder()
-                .resourceId(RESOURCE_1.getId())
-                .build()).when(mockResourceControllerDelegate)
-                .createResource(NEW_RESOURCE_1);
+        when(mockResourceFactory.create(NEW_RESOURCE_3)).thenReturn(RESOURCE_3);
+        when(mockResourceFactory.create(NEW_RESOURCE_2)).thenReturn(RESOURCE_2);
+        when(mockResourceFactory.create(NEW_RESOURCE_1)).thenReturn(RESOURCE_1);
         when(mockBatchCreateResourceResultFactory.create(any())).thenReturn(batchCreateResourcesResult);
         assertThat(
                 batchResourceWithParentControllerDelegate.batchCreateResources(RESOURCE_1.getId(), BATCH_NEW_RESOURCES,
                         MAYBE_USER_DATA), is(equalTo(batchCreateResourcesResult)));
         verify(mockParentResourceDao).getResource(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
         verify(mockBatchResourceFactory).create(PARENT_RESOURCE_1.getId(), BATCH_NEW_RESOURCE_3, false);
-        verify(mockResourceControllerDelegate).createResource(NEW_RESOURCE_3);
         verify(mockBatchResourceFactory).create(PARENT_RESOURCE_1.getId(), BATCH_NEW_RESOURCE_2, false,
                 RESOURCE_3.getId());
-        verify(mockResourceControllerDelegate).createResource(NEW_RESOURCE_2);
         verify(mockBatchResourceFactory).create(PARENT_RESOURCE_1.getId(), BATCH_NEW_RESOURCE_1, true,
                 RESOURCE_2.getId());
-        verify(mockResourceControllerDelegate).createResource(NEW_RESOURCE_1);
+        verify(mockResourceDao).saveResources(ImmutableList.of(RESOURCE_1, RESOURCE_2, RESOURCE_3));
+        verify(mockResourceDao, never()).saveResource(any());
+        verify(mockBatchCreateListener).onResourcesCreated(RESOURCE_1.getId(),
+                ImmutableList.of(RESOURCE_1, RESOURCE_2, RESOURCE_3));
         verify(mockBatchCreateResourceResultFactory).create(batchCreateResourcesResult.getResourceIds());
     }
 
     @Test
-    void batchCreateResources_callsResourceControllerDelegate_whenThereIsOnlyOneResource()
-            throws ResourceNotFoundException {
+    void batchCreateResources_savesResource_whenThereIsOnlyOneResource() throws ResourceNotFoundException {
         NewResourceImpl newResource = NewResourceImpl.builder()
                 .parentId(PARENT_RESOURCE_1.getId())
                 .first(true)
                 .name(RESOURCE_1.getName())
                 .build();
+        ResourceImpl resource = ResourceImpl.builder()
+                .id(RESOURCE_1.getId())
+                .parentId(PARENT_RESOURCE_1.getId())
+                .name(RESOURCE_1.getName())
+                .first(true)
+                .build();
         List<String> resourceIds = ImmutableList.of(RESOURCE_1.getId());
         BatchCreateResourcesResultImpl batchCreateResourcesResult = BatchCreateResourcesResultImpl.builder()
                 .resourceIds(ImmutableList.of(RESOURCE_1.getId()))
@@ -278,9 +273,7 @@ class BatchResourceWithParentControllerDelegateTest {
 
         when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.of(PARENT_RESOURCE_1));
         when(mockBatchResourceFactory.create(anyString(), any(), anyBoolean())).thenReturn(newResource);
-        when(mockResourceControllerDelegate.createResource(any())).thenReturn(CreateResourceResultImpl.builder()
-                .resourceId(RESOURCE_1.getId())
-                .build());
+        when(mockResourceFactory.create(any())).thenReturn(resource);
         when(mockBatchCreateResourceResultFactory.create(any())).thenReturn(BatchCreateResourcesResultImpl.builder()
                 .resourceIds(ImmutableList.of(RESOURCE_1.getId()))
                 .build());
@@ -292,7 +285,8 @@ class BatchResourceWithParentControllerDelegateTest {
 
         verify(mockParentResourceDao).getResource(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
         verify(mockBatchResourceFactory).create(PARENT_RESOURCE_1.getId(), BATCH_NEW_RESOURCE_1, true);
-        verify(mockResourceControllerDelegate).createResource(newResource);
+        verify(mockResourceFactory).create(newResource);
+        verify(mockResourceDao).saveResources(ImmutableList.of(resource));
         verify(mockBatchCreateResourceResultFactory).create(resourceIds);
     }
 
@@ -307,7 +301,8 @@ class BatchResourceWithParentControllerDelegateTest {
         verify(mockParentResourceDao).getResource(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
         verify(mockParentResourceNotFoundExceptionFactory).create(PARENT_RESOURCE_1.getId());
-        verify(mockResourceControllerDelegate, never()).createResource(any());
+        verify(mockResourceFactory, never()).create(any());
+        verify(mockResourceDao, never()).saveResources(any());
     }
 
     @Test
@@ -321,35 +316,21 @@ class BatchResourceWithParentControllerDelegateTest {
         verify(mockParentResourceDao).getResource(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
         verify(mockParentResourceNotFoundExceptionFactory).create(PARENT_RESOURCE_1.getId());
-    }
-
-    @Test
-    void batchDeleteResources_doesNothing_whenParentResourceHasNoChildren() throws ResourceNotFoundException {
-        when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.of(PARENT_RESOURCE_1));
-        when(mockResourceDao.getResources(any(), any())).thenReturn(ImmutableSet.of());
-        assertThat(batchResourceWithParentControllerDelegate.batchDeleteResources(PARENT_RESOURCE_1.getId(),
-                MAYBE_USER_DATA), is(equalTo(DeleteResourceResult.builder()
-                .successful(true)
-                .build())));
-        verify(mockParentResourceDao).getResource(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
-        verify(mockResourceDao).getResources(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
-        verify(mockResourceDao, never()).deleteResource(any());
+        verify(mockResourceDao, never()).deleteResources(any());
     }
 
     @Test
     void batchDeleteResources_deletesAllResourcesUnderParent() throws ResourceNotFoundException {
         when(mockParentResourceDao.getResource(any(), any())).thenReturn(Optional.of(PARENT_RESOURCE_1));
-        when(mockResourceDao.getResources(any(), any())).thenReturn(
-                ImmutableSet.of(RESOURCE_1, RESOURCE_2, RESOURCE_3));
-        assertThat(batchResourceWithParentControllerDelegate.batchDeleteResources(PARENT_RESOURCE_1.getId(),
-                MAYBE_USER_DATA), is(equalTo(DeleteResourceResult.builder()
-                .successful(true)
-                .build())));
+        when(mockResourceDao.deleteResources(any())).thenReturn(3);
+        BatchDeleteResourcesResult batchDeleteResourcesResult =
+                batchResourceWithParentControllerDelegate.batchDeleteResources(PARENT_RESOURCE_1.getId(),
+                        MAYBE_USER_DATA);
+        assertThat(batchDeleteResourcesResult.isSuccessful(), is(true));
+        assertThat(batchDeleteResourcesResult.getDeletedResourceCount(), is(equalTo(3)));
+        assertThat(batchDeleteResourcesResult.getDurationMillis(), is(greaterThanOrEqualTo(0L)));
         verify(mockParentResourceDao).getResource(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
-        verify(mockResourceDao).getResources(PARENT_RESOURCE_1.getId(), MAYBE_USER_DATA);
-        verify(mockResourceDao).deleteResource(RESOURCE_1.getId());
-        verify(mockResourceDao).deleteResource(RESOURCE_2.getId());
-        verify(mockResourceDao).deleteResource(RESOURCE_3.getId());
+        verify(mockResourceDao).deleteResources(PARENT_RESOURCE_1.getId());
     }
 
 }
@@ -0,0 +1,190 @@
+package com.climbassist.api.resource.common.cache;
+
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedResourceCacheTest {
+
+    private static final String NAME = "CragsDaoCache";
+    private static final Crag CRAG = Crag.builder()
+            .cragId("crag-1")
+            .subAreaId("sub-area-1")
+            .name("crag")
+            .build();
+    private static final UnaryOperator<Crag> COPIER = crag -> crag.toBuilder()
+            .build();
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private RequestMemo requestMemo;
+    private BoundedResourceCache boundedResourceCache;
+    private AtomicInteger loadCount;
+
+    @BeforeEach
+    void setUp() {
+        requestMemo = new RequestMemo();
+        boundedResourceCache = buildBoundedResourceCache(10);
+        loadCount = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestMemo.close();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testInstanceMethods(boundedResourceCache, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void get_loadsResourceAndEmitsMiss_whenResourceIsNotCached() {
+        assertThat(get(CRAG), is(equalTo(Optional.of(CRAG))));
+        assertThat(loadCount.get(), is(equalTo(1)));
+        verify(mockMetricsEmitter).emitCacheLookupMetrics(NAME, false);
+    }
+
+    @Test
+    void get_returnsCopyOfCachedResourceAndEmitsHit_whenResourceIsCached() {
+        get(CRAG);
+        Optional<Crag> maybeCrag = get(CRAG);
+        assertThat(maybeCrag, is(equalTo(Optional.of(CRAG))));
+        assertThat(maybeCrag.get(), is(not(sameInstance(CRAG))));
+        assertThat(loadCount.get(), is(equalTo(1)));
+        verify(mockMetricsEmitter).emitCacheLookupMetrics(NAME, true);
+    }
+
+    @Test
+    void get_doesNotReturnChangesMadeToAPreviousCopy() {
+        get(CRAG).get()
+                .setName("changed");
+        assertThat(get(CRAG).get()
+                .getName(), is(equalTo(CRAG.getName())));
+    }
+
+    @Test
+    void get_doesNotCacheResource_whenResourceDoesNotExist() {
+        assertThat(get(null), is(equalTo(Optional.empty())));
+        assertThat(get(null), is(equalTo(Optional.empty())));
+        assertThat(loadCount.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void get_reloadsResource_afterItIsInvalidated() {
+        get(CRAG);
+        boundedResourceCache.invalidate(CRAG.getCragId());
+        get(CRAG);
+        assertThat(loadCount.get(), is(equalTo(2)));
+        verify(mockMetricsEmitter).emitComponentCountMetric(NAME, "invalidationCount", 1);
+    }
+
+    @Test
+    void get_doesNotCacheResource_whenItIsInvalidatedWhileLoading() {
+        boundedResourceCache.get(CRAG.getCragId(), () -> {
+            boundedResourceCache.invalidate(CRAG.getCragId());
+            return Optional.of(CRAG);
+        }, COPIER);
+        get(CRAG);
+        assertThat(loadCount.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void get_evictsResources_whenMaximumSizeIsExceeded() {
+        boundedResourceCache = buildBoundedResourceCache(0);
+        get(CRAG);
+        get(CRAG);
+        assertThat(loadCount.get(), is(equalTo(2)));
+        verify(mockMetricsEmitter, times(2)).emitComponentCountMetric(NAME, "evictionCount", 1);
+    }
+
+    @Test
+    void get_usesRequestMemo_whenResourceIsNoLongerInSharedCache() {
+        boundedResourceCache = buildBoundedResourceCache(0);
+        requestMemo.open();
+        get(CRAG);
+        assertThat(get(CRAG), is(equalTo(Optional.of(CRAG))));
+        assertThat(loadCount.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void get_doesNotRememberMissingResourceInRequestMemo() {
+        requestMemo.open();
+        get(null);
+        assertThat(get(CRAG), is(equalTo(Optional.of(CRAG))));
+        assertThat(loadCount.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void invalidate_removesResourceFromRequestMemo() {
+        boundedResourceCache = buildBoundedResourceCache(0);
+        requestMemo.open();
+        get(CRAG);
+        boundedResourceCache.invalidate(CRAG.getCragId());
+        get(CRAG);
+        assertThat(loadCount.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void invalidateAll_removesResourcesFromSharedCacheAndRequestMemo() {
+        requestMemo.open();
+        get(CRAG);
+        boundedResourceCache.invalidateAll(ImmutableList.of("crag-2", CRAG.getCragId()));
+        get(CRAG);
+        assertThat(loadCount.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void invalidate_removesResourceFromRequestMemo_whenCalledFromATaskOfTheRequest() {
+        boundedResourceCache = buildBoundedResourceCache(0);
+        requestMemo.open();
+        get(CRAG);
+        CompletableFuture.runAsync(requestMemo.propagate(() -> boundedResourceCache.invalidate(CRAG.getCragId())))
+                .join();
+        get(CRAG);
+        assertThat(loadCount.get(), is(equalTo(2)));
+    }
+
+    private Optional<Crag> get(Crag crag) {
+        Supplier<Optional<Crag>> loader = () -> {
+            loadCount.incrementAndGet();
+            return Optional.ofNullable(crag);
+        };
+        return boundedResourceCache.get(CRAG.getCragId(), loader, COPIER);
+    }
+
+    private BoundedResourceCache buildBoundedResourceCache(long maximumSize) {
+        return BoundedResourceCache.builder()
+                .name(NAME)
+                .metricsEmitter(mockMetricsEmitter)
+                .requestMemo(requestMemo)
+                .maximumSize(maximumSize)
+                .expireAfterWriteSeconds(300L)
+                .build();
+    }
+}
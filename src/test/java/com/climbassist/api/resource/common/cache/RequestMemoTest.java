@@ -0,0 +1,147 @@
+package com.climbassist.api.resource.common.cache;
+
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class RequestMemoTest {
+
+    private static final String KEY = "key";
+
+    private RequestMemo requestMemo;
+    private AtomicInteger supplyCount;
+
+    @BeforeEach
+    void setUp() {
+        requestMemo = new RequestMemo();
+        supplyCount = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestMemo.close();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testInstanceMethods(requestMemo, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void computeIfAbsent_alwaysCallsSupplier_whenMemoIsNotOpen() {
+        computeIfAbsent();
+        computeIfAbsent();
+        assertThat(supplyCount.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void computeIfAbsent_remembersValue_whileMemoIsOpen() {
+        requestMemo.open();
+        assertThat(computeIfAbsent(), is(equalTo(1)));
+        assertThat(computeIfAbsent(), is(equalTo(1)));
+    }
+
+    @Test
+    void computeIfAbsent_forgetsValue_afterMemoIsClosed() {
+        requestMemo.open();
+        computeIfAbsent();
+        requestMemo.close();
+        requestMemo.open();
+        assertThat(computeIfAbsent(), is(equalTo(2)));
+    }
+
+    @Test
+    void computeIfAbsent_doesNotShareValuesBetweenThreads() {
+        requestMemo.open();
+        computeIfAbsent();
+        CompletableFuture.runAsync(() -> {
+            requestMemo.open();
+            try {
+                computeIfAbsent();
+            } finally {
+                requestMemo.close();
+            }
+        })
+                .join();
+        assertThat(supplyCount.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void computeIfAbsent_sharesValuesWithPropagatedTasks() {
+        requestMemo.open();
+        computeIfAbsent();
+        CompletableFuture.runAsync(requestMemo.propagate(this::computeIfAbsent))
+                .join();
+        assertThat(supplyCount.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void computeIfAbsent_remembersValuesLoadedByPropagatedTasks() {
+        requestMemo.open();
+        CompletableFuture.runAsync(requestMemo.propagate(this::computeIfAbsent))
+                .join();
+        assertThat(computeIfAbsent(), is(equalTo(1)));
+    }
+
+    @Test
+    void computeIfAbsent_doesNotRememberEmptyValues() {
+        requestMemo.open();
+        requestMemo.computeIfAbsent(KEY, () -> {
+            supplyCount.incrementAndGet();
+            return Optional.empty();
+        });
+        assertThat(computeIfAbsent(), is(equalTo(2)));
+    }
+
+    @Test
+    void computeIfAbsent_doesNotRememberValue_whenItIsRemovedWhileLoading() {
+        requestMemo.open();
+        requestMemo.computeIfAbsent(KEY, () -> {
+            requestMemo.remove(KEY);
+            return supplyCount.incrementAndGet();
+        });
+        assertThat(computeIfAbsent(), is(equalTo(2)));
+    }
+
+    @Test
+    void propagate_restoresMemoOfThreadRunningTheTask() {
+        requestMemo.open();
+        Runnable runnable = requestMemo.propagate(() -> {});
+        requestMemo.close();
+        runnable.run();
+        computeIfAbsent();
+        assertThat(computeIfAbsent(), is(equalTo(2)));
+    }
+
+    @Test
+    void remove_forgetsValue_whenCalledFromAPropagatedTask() {
+        requestMemo.open();
+        computeIfAbsent();
+        CompletableFuture.runAsync(requestMemo.propagate(() -> requestMemo.remove(KEY)))
+                .join();
+        assertThat(computeIfAbsent(), is(equalTo(2)));
+    }
+
+    @Test
+    void remove_forgetsValue() {
+        requestMemo.open();
+        computeIfAbsent();
+        requestMemo.remove(KEY);
+        assertThat(computeIfAbsent(), is(equalTo(2)));
+    }
+
+    private int computeIfAbsent() {
+        return requestMemo.computeIfAbsent(KEY, supplyCount::incrementAndGet);
+    }
+}
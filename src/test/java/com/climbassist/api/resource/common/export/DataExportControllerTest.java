@@ -0,0 +1,58 @@
+package com.climbassist.api.resource.common.export;
+
+import com.climbassist.wrapper.response.ResponseWrapper;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DataExportControllerTest {
+
+    @Mock
+    private DataExporter mockDataExporter;
+    @Mock
+    private HttpServletResponse mockHttpServletResponse;
+    @Mock
+    private ServletOutputStream mockServletOutputStream;
+
+    private DataExportController dataExportController;
+
+    @BeforeEach
+    void setUp() {
+        dataExportController = DataExportController.builder()
+                .dataExporter(mockDataExporter)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(dataExportController, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void exportData_streamsExportToResponse() throws IOException {
+        when(mockHttpServletResponse.getOutputStream()).thenReturn(mockServletOutputStream);
+        ResponseWrapper outerResponseWrapper = new ResponseWrapper(mockHttpServletResponse, 0);
+        ResponseWrapper innerResponseWrapper = new ResponseWrapper(outerResponseWrapper, 0);
+
+        dataExportController.exportData(innerResponseWrapper);
+
+        assertThat(outerResponseWrapper.isStreaming(), is(true));
+        assertThat(innerResponseWrapper.isStreaming(), is(true));
+        verify(mockHttpServletResponse).setContentType(DataExportController.NDJSON_CONTENT_TYPE);
+        verify(mockDataExporter).export(mockServletOutputStream);
+    }
+}
@@ -0,0 +1,121 @@
+package com.climbassist.api.resource.common.export;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.climbassist.common.dynamodb.ParallelScanner;
+import com.climbassist.common.dynamodb.ScanException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DataExporterTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Map<String, String> TABLE_NAMES = ImmutableMap.of("crags", "Crags", "walls", "Walls");
+    private static final Map<String, AttributeValue> CRAG_ITEM = ImmutableMap.<String, AttributeValue>builder()
+            .put("cragId", new AttributeValue("crag-1"))
+            .put("name", new AttributeValue("Crag 1"))
+            .put("location", new AttributeValue().withM(ImmutableMap.of("latitude", new AttributeValue().withN("40.1"),
+                    "longitude", new AttributeValue().withN("-105.25"))))
+            .put("parking", new AttributeValue().withL(new AttributeValue().withBOOL(true),
+                    new AttributeValue().withNULL(true)))
+            .put("tags", new AttributeValue().withSS("sport", "trad"))
+            .put("counts", new AttributeValue().withNS("1", "2"))
+            .put("model", new AttributeValue().withB(ByteBuffer.wrap(new byte[]{1, 2, 3})))
+            .build();
+    private static final Map<String, AttributeValue> WALL_ITEM = ImmutableMap.of("wallId",
+            new AttributeValue("wall-1"), "cragId", new AttributeValue("crag-1"));
+
+    @Mock
+    private ParallelScanner mockParallelScanner;
+
+    private DataExporter dataExporter;
+
+    @BeforeEach
+    void setUp() {
+        dataExporter = DataExporter.builder()
+                .objectMapper(OBJECT_MAPPER)
+                .parallelScanner(mockParallelScanner)
+                .tableNames(TABLE_NAMES)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(dataExporter, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void export_writesEveryItemOnItsOwnLine() throws IOException {
+        stubScan("Crags", ImmutableList.of(ImmutableList.of(CRAG_ITEM)));
+        stubScan("Walls", ImmutableList.of(ImmutableList.of(WALL_ITEM), ImmutableList.of(WALL_ITEM)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        Map<String, Long> itemCounts = dataExporter.export(outputStream);
+
+        assertThat(itemCounts, is(equalTo(ImmutableMap.of("crags", 1L, "walls", 2L))));
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines.length, is(equalTo(4)));
+        assertThat(OBJECT_MAPPER.readTree(lines[0]), is(equalTo(OBJECT_MAPPER.readTree(
+                "{\"type\": \"crags\", \"item\": {\"cragId\": \"crag-1\", \"name\": \"Crag 1\", " +
+                        "\"location\": {\"latitude\": 40.1, \"longitude\": -105.25}, \"parking\": [true, null], " +
+                        "\"tags\": [\"sport\", \"trad\"], \"counts\": [1, 2], \"model\": \"AQID\"}}"))));
+        String wallLine = "{\"type\": \"walls\", \"item\": {\"wallId\": \"wall-1\", \"cragId\": \"crag-1\"}}";
+        assertThat(OBJECT_MAPPER.readTree(lines[1]), is(equalTo(OBJECT_MAPPER.readTree(wallLine))));
+        assertThat(OBJECT_MAPPER.readTree(lines[2]), is(equalTo(OBJECT_MAPPER.readTree(wallLine))));
+        assertThat(lines[3], is(equalTo("")));
+    }
+
+    @Test
+    void export_doesNotMoveBinaryValuePosition() throws IOException {
+        stubScan("Crags", ImmutableList.of(ImmutableList.of(CRAG_ITEM)));
+        stubScan("Walls", ImmutableList.of());
+
+        dataExporter.export(new ByteArrayOutputStream());
+
+        assertThat(CRAG_ITEM.get("model")
+                .getB()
+                .remaining(), is(equalTo(3)));
+    }
+
+    @Test
+    void export_throwsScanException_whenScanFails() throws IOException {
+        when(mockParallelScanner.scan(eq("Crags"), any())).thenThrow(new ScanException("failure", null));
+
+        assertThrows(ScanException.class, () -> dataExporter.export(new ByteArrayOutputStream()));
+    }
+
+    private void stubScan(String tableName, List<List<Map<String, AttributeValue>>> pages) throws IOException {
+        when(mockParallelScanner.scan(eq(tableName), any())).thenAnswer(invocation -> {
+            ParallelScanner.PageConsumer pageConsumer = invocation.getArgument(1);
+            long itemCount = 0;
+            for (List<Map<String, AttributeValue>> page : pages) {
+                pageConsumer.accept(page);
+                itemCount += page.size();
+            }
+            return itemCount;
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.climbassist.api.resource.common.grade;
+
+import com.climbassist.api.resource.pitch.Pitch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class GradeCountsTest {
+
+    private static final Pitch PITCH_1 = Pitch.builder()
+            .pitchId("pitch-1")
+            .grade(10)
+            .gradeModifier("a")
+            .danger("R")
+            .build();
+    private static final Pitch PITCH_2 = Pitch.builder()
+            .pitchId("pitch-2")
+            .grade(10)
+            .gradeModifier("a")
+            .danger("PG13")
+            .build();
+    private static final Pitch PITCH_3 = Pitch.builder()
+            .pitchId("pitch-3")
+            .grade(11)
+            .build();
+    private static final Pitch NULL_ATTRIBUTES_PITCH = Pitch.builder()
+            .pitchId("pitch-4")
+            .build();
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testAllPublicStaticMethods(GradeCounts.class);
+        nullPointerTester.testAllPublicInstanceMethods(new GradeCounts());
+    }
+
+    @Test
+    void fromPitches_countsEachGradeModifierAndDanger() {
+        GradeCounts gradeCounts =
+                GradeCounts.fromPitches(ImmutableList.of(PITCH_1, PITCH_2, PITCH_3, NULL_ATTRIBUTES_PITCH));
+
+        assertThat(gradeCounts.getGrades(), is(equalTo(
+                ImmutableSortedMap.of(10, ImmutableSortedMap.of("a", 2), 11, ImmutableSortedMap.of("", 1)))));
+        assertThat(gradeCounts.getDangers(), is(equalTo(ImmutableSortedMap.of("PG13", 1, "R", 1))));
+    }
+
+    @Test
+    void removePitch_removesEmptyCounts() {
+        GradeCounts gradeCounts = GradeCounts.fromPitches(ImmutableList.of(PITCH_1, PITCH_2, PITCH_3));
+
+        gradeCounts.removePitch(PITCH_2);
+        gradeCounts.removePitch(PITCH_3);
+
+        assertThat(gradeCounts, is(equalTo(GradeCounts.fromPitches(ImmutableList.of(PITCH_1)))));
+    }
+
+    @Test
+    void removePitch_doesNothing_whenPitchWasNotCounted() {
+        GradeCounts gradeCounts = GradeCounts.fromPitches(ImmutableList.of(PITCH_3));
+
+        gradeCounts.removePitch(PITCH_1);
+        gradeCounts.removePitch(NULL_ATTRIBUTES_PITCH);
+
+        assertThat(gradeCounts, is(equalTo(GradeCounts.fromPitches(ImmutableList.of(PITCH_3)))));
+    }
+
+    @Test
+    void copy_returnsIndependentCopy() {
+        GradeCounts gradeCounts = GradeCounts.fromPitches(ImmutableList.of(PITCH_1, PITCH_2));
+
+        GradeCounts copy = gradeCounts.copy();
+        copy.addPitch(PITCH_1);
+
+        assertThat(copy, is(not(equalTo(gradeCounts))));
+        assertThat(gradeCounts, is(equalTo(GradeCounts.fromPitches(ImmutableList.of(PITCH_1, PITCH_2)))));
+    }
+
+    @Test
+    void typeConverter_convertsEqualCountsToTheSameString() {
+        GradeCounts.TypeConverter typeConverter = new GradeCounts.TypeConverter();
+        GradeCounts gradeCounts = GradeCounts.fromPitches(ImmutableList.of(PITCH_3, PITCH_2, PITCH_1));
+
+        String convertedGradeCounts = typeConverter.convert(gradeCounts);
+
+        assertThat(convertedGradeCounts, is(equalTo(
+                typeConverter.convert(GradeCounts.fromPitches(ImmutableList.of(PITCH_1, PITCH_2, PITCH_3))))));
+        assertThat(typeConverter.unconvert(convertedGradeCounts), is(equalTo(gradeCounts)));
+    }
+}
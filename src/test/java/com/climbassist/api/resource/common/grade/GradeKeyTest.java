@@ -0,0 +1,177 @@
+package com.climbassist.api.resource.common.grade;
+
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GradeKeyTest {
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testStaticMethods(GradeKey.class, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void pack_unpacksToTheSameGrade() {
+        int gradeKey = GradeKey.pack("trad", 10, "c/d", "R");
+
+        assertThat(GradeKey.hasStyle(gradeKey, "trad"), is(true));
+        assertThat(GradeKey.hasStyle(gradeKey, "sport"), is(false));
+        assertThat(GradeKey.getGrade(gradeKey), is(equalTo(Optional.of(10))));
+        assertThat(GradeKey.getGradeModifier(gradeKey), is(equalTo(Optional.of("c/d"))));
+        assertThat(GradeKey.getDanger(gradeKey), is(equalTo(Optional.of("R"))));
+    }
+
+    @Test
+    void pack_unpacksToEmpty_whenAttributesAreNull() {
+        int gradeKey = GradeKey.pack("boulder", null, null, null);
+
+        assertThat(GradeKey.getGrade(gradeKey), is(equalTo(Optional.empty())));
+        assertThat(GradeKey.getGradeModifier(gradeKey), is(equalTo(Optional.empty())));
+        assertThat(GradeKey.getDanger(gradeKey), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void pack_sortsByGradeThenGradeModifierThenDanger() {
+        assertThat(GradeKey.pack("sport", 10, "d", "X"), is(lessThan(GradeKey.pack("sport", 11, null, null))));
+        assertThat(GradeKey.pack("sport", 11, null, "X"), is(lessThan(GradeKey.pack("sport", 11, "a", null))));
+        assertThat(GradeKey.pack("sport", 11, "a", "PG13"), is(lessThan(GradeKey.pack("sport", 11, "a", "R"))));
+        assertThat(GradeKey.pack("boulder", 4, "-", null), is(lessThan(GradeKey.pack("boulder", 4, null, null))));
+        assertThat(GradeKey.pack("boulder", 4, null, null), is(lessThan(GradeKey.pack("boulder", 4, "+", null))));
+        assertThat(GradeKey.pack("sport", 0, null, null), is(greaterThan(GradeKey.pack("sport", null, "d", "X"))));
+    }
+
+    @Test
+    void pack_throwsGradeSortingException_whenGradeModifierIsNotValidForStyle() {
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("boulder", 4, "a", null));
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("sport", 4, "+", null));
+    }
+
+    @Test
+    void pack_throwsGradeSortingException_whenStyleIsInvalid() {
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("aid", 4, null, null));
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("", 4, null, null));
+    }
+
+    @Test
+    void pack_throwsGradeSortingException_whenDangerIsInvalid() {
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("sport", 4, null, "INVALID"));
+    }
+
+    @Test
+    void pack_throwsGradeSortingException_whenGradeIsOutOfRange() {
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("sport", -1, null, null));
+        assertThrows(GradeSortingException.class, () -> GradeKey.pack("sport", 255, null, null));
+    }
+
+    @Test
+    void pack_keepsHighestGradeWithinStyle() {
+        int gradeKey = GradeKey.pack("sport", 254, "d", "X");
+
+        assertThat(GradeKey.hasStyle(gradeKey, "sport"), is(true));
+        assertThat(GradeKey.getGrade(gradeKey), is(equalTo(Optional.of(254))));
+        assertThat(gradeKey, is(lessThan(GradeKey.pack("trad", null, null, null))));
+    }
+
+    @Test
+    void isValid_returnsTrue_forPackedKeys() {
+        assertThat(GradeKey.isValid(GradeKey.pack("trad", 10, "c/d", "R")), is(true));
+        assertThat(GradeKey.isValid(GradeKey.pack("boulder", null, null, null)), is(true));
+    }
+
+    @Test
+    void isValid_returnsFalse_whenAFieldIsOutOfRange() {
+        assertThat(GradeKey.isValid(GradeKey.pack("sport", 10, null, null) | 0xF), is(false));
+        assertThat(GradeKey.isValid(GradeKey.pack("boulder", 10, null, null) | 0xF0), is(false));
+        assertThat(GradeKey.isValid(GradeKey.pack("sport", 10, null, null) & 0xFFFF), is(false));
+        assertThat(GradeKey.isValid(-1), is(false));
+    }
+
+    @Test
+    void getGradeModifier_throwsGradeSortingException_whenRankIsNotValid() {
+        assertThrows(GradeSortingException.class,
+                () -> GradeKey.getGradeModifier(GradeKey.pack("boulder", 10, null, null) | 0xF0));
+    }
+
+    @Test
+    void getDanger_throwsGradeSortingException_whenRankIsNotValid() {
+        assertThrows(GradeSortingException.class,
+                () -> GradeKey.getDanger(GradeKey.pack("sport", 10, null, null) | 0xF));
+        assertThrows(GradeSortingException.class, () -> GradeKey.getDangerForRank(-1));
+    }
+
+    @Test
+    void packIfValid_returnsEmpty_whenGradeCannotBeSorted() {
+        assertThat(GradeKey.packIfValid(null, 4, null, null), is(equalTo(Optional.empty())));
+        assertThat(GradeKey.packIfValid("boulder", 4, "a", null), is(equalTo(Optional.empty())));
+        assertThat(GradeKey.packIfValid("sport", 300, null, null), is(equalTo(Optional.empty())));
+        assertThat(GradeKey.packIfValid("sport", 4, "a", null),
+                is(equalTo(Optional.of(GradeKey.pack("sport", 4, "a", null)))));
+    }
+
+    @Test
+    void bounds_includeEveryKeyOfTheGradeRangeAndStyle() {
+        int lowerBound = GradeKey.lowerBound("sport", 10);
+        int upperBound = GradeKey.upperBound("sport", 11);
+
+        assertThat(lowerBound, is(equalTo(GradeKey.pack("sport", 10, null, null))));
+        assertThat(upperBound, is(greaterThan(GradeKey.pack("sport", 11, "d", "X"))));
+        assertThat(upperBound, is(lessThan(GradeKey.pack("sport", 12, null, null))));
+        assertThat(GradeKey.pack("trad", 10, null, null), is(greaterThan(upperBound)));
+    }
+
+    @Test
+    void bounds_includeOnlyTheGradeModifiersOfTheGradeRange() {
+        int lowerBound = GradeKey.lowerBound("sport", 10, "a");
+        int upperBound = GradeKey.upperBound("sport", 11, "c");
+
+        assertThat(lowerBound, is(equalTo(GradeKey.pack("sport", 10, "a", null))));
+        assertThat(GradeKey.pack("sport", 10, null, "X"), is(lessThan(lowerBound)));
+        assertThat(upperBound, is(equalTo(GradeKey.pack("sport", 11, "c", "X") + 12)));
+        assertThat(GradeKey.pack("sport", 11, "c/d", null), is(greaterThan(upperBound)));
+        assertThat(GradeKey.pack("sport", 11, "d", null), is(greaterThan(upperBound)));
+    }
+
+    @Test
+    void bounds_includeEveryKeyOfTheHighestGradeModifier() {
+        assertThat(GradeKey.upperBound("boulder", 4, "+"), is(greaterThan(GradeKey.pack("boulder", 4, "+", "X"))));
+        assertThat(GradeKey.upperBound("boulder", 4, "+"), is(lessThan(GradeKey.lowerBound("boulder", 5))));
+        assertThat(GradeKey.upperBound("sport", 11, "d"), is(greaterThan(GradeKey.pack("sport", 11, "d", "X"))));
+    }
+
+    @Test
+    void bounds_throwGradeSortingException_whenGradeModifierIsNotValidForStyle() {
+        assertThrows(GradeSortingException.class, () -> GradeKey.lowerBound("boulder", 4, "a"));
+        assertThrows(GradeSortingException.class, () -> GradeKey.upperBound("sport", 11, "+"));
+    }
+
+    @Test
+    void isValidGradeModifier_checksGradeModifierAgainstStyle() {
+        assertThat(GradeKey.isValidGradeModifier("sport", "c/d"), is(true));
+        assertThat(GradeKey.isValidGradeModifier("boulder", "+"), is(true));
+        assertThat(GradeKey.isValidGradeModifier("boulder", "a"), is(false));
+        assertThat(GradeKey.isValidGradeModifier("trad", "-"), is(false));
+    }
+
+    @Test
+    void bounds_coverTheHighestGrade() {
+        assertThat(GradeKey.upperBound("sport", 254), is(equalTo(GradeKey.pack("trad", null, null, null) - 1)));
+        assertThat(GradeKey.upperBound("sport", 254), is(greaterThan(GradeKey.pack("sport", 254, "d", "X"))));
+    }
+
+    @Test
+    void bounds_throwGradeSortingException_whenGradeIsOutOfRange() {
+        assertThrows(GradeSortingException.class, () -> GradeKey.lowerBound("sport", -1));
+        assertThrows(GradeSortingException.class, () -> GradeKey.upperBound("sport", 255));
+    }
+}
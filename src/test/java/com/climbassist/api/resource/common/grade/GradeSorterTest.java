@@ -185,6 +185,28 @@ class GradeSorterTest {
                 () -> GradeSorter.getHighestGrade(BOULDER_ROUTE, ImmutableSet.of(ROPE_PITCH_2, ROPE_PITCH_4)));
     }
 
+    @Test
+    void getHighestGrade_ignoresDanger_whenDangerIsInvalid() {
+        Pitch invalidDangerPitch = ROPE_PITCH_2.toBuilder()
+                .danger("INVALID")
+                .build();
+        //noinspection ConstantConditions
+        assertThat(GradeSorter.getHighestGrade(SPORT_ROUTE, ImmutableSet.of(invalidDangerPitch, ROPE_PITCH_1)),
+                is(equalTo(Grade.builder()
+                        .value(Optional.of(ROPE_PITCH_2.getGrade()))
+                        .modifier(Optional.of(ROPE_PITCH_2.getGradeModifier()))
+                        .build())));
+    }
+
+    @Test
+    void getHighestGrade_throwsGradeSortingException_whenGradeIsOutOfRange() {
+        Pitch outOfRangePitch = ROPE_PITCH_1.toBuilder()
+                .grade(255)
+                .build();
+        assertThrows(GradeSortingException.class,
+                () -> GradeSorter.getHighestGrade(SPORT_ROUTE, ImmutableSet.of(outOfRangePitch)));
+    }
+
     @Test
     void getHighestDanger_returnsEmpty_whenPitchesIsEmpty() {
         assertThat(GradeSorter.getHighestDanger(SPORT_ROUTE, ImmutableSet.of()), is(equalTo(Optional.empty())));
@@ -215,4 +237,103 @@ class GradeSorterTest {
         assertThrows(GradeSortingException.class,
                 () -> GradeSorter.getHighestDanger(SPORT_ROUTE, ImmutableSet.of(INVALID_DANGER_PITCH)));
     }
+
+    @Test
+    void getHighestGrade_returnsEmpty_whenGradeCountsIsEmpty() {
+        assertThat(GradeSorter.getHighestGrade(SPORT_ROUTE, new GradeCounts()), is(equalTo(EMPTY_GRADE)));
+    }
+
+    @Test
+    void getHighestGrade_returnsHighestGradeModifier_whenGradeIsTiedInGradeCounts() {
+        //noinspection ConstantConditions
+        assertThat(GradeSorter.getHighestGrade(SPORT_ROUTE, GradeCounts.fromPitches(
+                ImmutableSet.of(ROPE_PITCH_1, ROPE_PITCH_2, ROPE_PITCH_3, ROPE_PITCH_4, ROPE_PITCH_5, ROPE_PITCH_6,
+                        NULL_ATTRIBUTES_PITCH))), is(equalTo(Grade.builder()
+                .value(Optional.of(ROPE_PITCH_2.getGrade()))
+                .modifier(Optional.of(ROPE_PITCH_2.getGradeModifier()))
+                .build())));
+    }
+
+    @Test
+    void getHighestGrade_returnsHighestGradeModifier_whenGradeIsTiedInGradeCountsForBoulderRoute() {
+        //noinspection ConstantConditions
+        assertThat(GradeSorter.getHighestGrade(BOULDER_ROUTE,
+                GradeCounts.fromPitches(ImmutableSet.of(BOULDER_PITCH_1, BOULDER_PITCH_2, NULL_GRADE_MODIFIER_PITCH))),
+                is(equalTo(Grade.builder()
+                        .value(Optional.of(BOULDER_PITCH_2.getGrade()))
+                        .modifier(Optional.of(BOULDER_PITCH_2.getGradeModifier()))
+                        .build())));
+    }
+
+    @Test
+    void getHighestGrade_returnsEmptyGradeModifier_whenOnlyGradeCountsHaveNoGradeModifier() {
+        assertThat(GradeSorter.getHighestGrade(BOULDER_ROUTE,
+                GradeCounts.fromPitches(ImmutableSet.of(NULL_GRADE_MODIFIER_PITCH))), is(equalTo(Grade.builder()
+                .value(Optional.of(NULL_GRADE_MODIFIER_PITCH.getGrade()))
+                .modifier(Optional.empty())
+                .build())));
+    }
+
+    @Test
+    void getHighestGrade_throwsGradeSortingException_whenGradeCountsHaveInvalidGradeModifier() {
+        assertThrows(GradeSortingException.class, () -> GradeSorter.getHighestGrade(BOULDER_ROUTE,
+                GradeCounts.fromPitches(ImmutableSet.of(ROPE_PITCH_2, ROPE_PITCH_4))));
+    }
+
+    @Test
+    void getHighestDanger_returnsHighestDangerInGradeCounts() {
+        //noinspection ConstantConditions
+        assertThat(GradeSorter.getHighestDanger(SPORT_ROUTE,
+                GradeCounts.fromPitches(ImmutableSet.of(ROPE_PITCH_1, ROPE_PITCH_2, ROPE_PITCH_3))),
+                is(equalTo(Optional.of(ROPE_PITCH_3.getDanger()))));
+    }
+
+    @Test
+    void getHighestDanger_returnsEmpty_whenGradeCountsIsEmpty() {
+        assertThat(GradeSorter.getHighestDanger(SPORT_ROUTE, new GradeCounts()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void getHighestDanger_throwsGradeSortingException_whenGradeCountsHaveInvalidDanger() {
+        assertThrows(GradeSortingException.class, () -> GradeSorter.getHighestDanger(SPORT_ROUTE,
+                GradeCounts.fromPitches(ImmutableSet.of(INVALID_DANGER_PITCH))));
+    }
+
+    @Test
+    void getHighestGrade_usesStoredGradeKey_whenItMatchesRouteStyle() {
+        Pitch pitchWithGradeKey = ROPE_PITCH_1.toBuilder()
+                .gradeKey(GradeKey.pack(SPORT_ROUTE.getStyle(), 7, "c", null))
+                .build();
+        assertThat(GradeSorter.getHighestGrade(SPORT_ROUTE, ImmutableSet.of(pitchWithGradeKey, ROPE_PITCH_2)),
+                is(equalTo(Grade.builder()
+                        .value(Optional.of(7))
+                        .modifier(Optional.of("c"))
+                        .build())));
+    }
+
+    @Test
+    void getHighestGrade_recomputesGradeKey_whenStoredGradeKeyIsNotValid() {
+        Pitch pitchWithGradeKey = ROPE_PITCH_1.toBuilder()
+                .gradeKey(GradeKey.pack(SPORT_ROUTE.getStyle(), 7, "c", null) | 0xF)
+                .build();
+        //noinspection ConstantConditions
+        assertThat(GradeSorter.getHighestGrade(SPORT_ROUTE, ImmutableSet.of(pitchWithGradeKey)), is(equalTo(
+                Grade.builder()
+                        .value(Optional.of(ROPE_PITCH_1.getGrade()))
+                        .modifier(Optional.of(ROPE_PITCH_1.getGradeModifier()))
+                        .build())));
+    }
+
+    @Test
+    void getHighestGrade_recomputesGradeKey_whenRouteStyleHasChanged() {
+        Pitch pitchWithGradeKey = BOULDER_PITCH_2.toBuilder()
+                .gradeKey(GradeKey.pack(SPORT_ROUTE.getStyle(), BOULDER_PITCH_2.getGrade(), null, null))
+                .build();
+        //noinspection ConstantConditions
+        assertThat(GradeSorter.getHighestGrade(BOULDER_ROUTE, ImmutableSet.of(pitchWithGradeKey, BOULDER_PITCH_1)),
+                is(equalTo(Grade.builder()
+                        .value(Optional.of(BOULDER_PITCH_2.getGrade()))
+                        .modifier(Optional.of(BOULDER_PITCH_2.getGradeModifier()))
+                        .build())));
+    }
 }
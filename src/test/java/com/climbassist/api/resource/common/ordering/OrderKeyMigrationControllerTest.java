@@ -0,0 +1,55 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.resource.wall.WallsDao;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderKeyMigrationControllerTest {
+
+    private static final OrderKeyMigrationResult ROUTES_RESULT = OrderKeyMigrationResult.builder()
+            .updatedResourceCount(3)
+            .invalidParentIds(ImmutableSet.of("wall-1"))
+            .nextStartAfter("route-7")
+            .build();
+
+    @Mock
+    private WallsDao mockWallsDao;
+    @Mock
+    private RoutesDao mockRoutesDao;
+
+    private OrderKeyMigrationController orderKeyMigrationController;
+
+    @BeforeEach
+    void setUp() {
+        orderKeyMigrationController = OrderKeyMigrationController.builder()
+                .orderableResourceDaos(ImmutableMap.of("walls", mockWallsDao, "routes", mockRoutesDao))
+                .build();
+    }
+
+    @Test
+    void migrateOrderKeys_migratesOnePageOfResourceType() {
+        when(mockRoutesDao.migrateOrderKeys(any(), anyInt())).thenReturn(ROUTES_RESULT);
+
+        assertThat(orderKeyMigrationController.migrateOrderKeys("routes", "route-2", 50),
+                is(equalTo(ROUTES_RESULT)));
+
+        verify(mockRoutesDao).migrateOrderKeys("route-2", 50);
+        verifyNoInteractions(mockWallsDao);
+    }
+}
@@ -0,0 +1,153 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderKeysTest {
+
+    @Test
+    void between_returnsMiddleDigit_whenListIsEmpty() {
+        assertThat(OrderKeys.between(null, null), is(equalTo("V")));
+    }
+
+    @Test
+    void between_returnsKeyBeforeAfter_whenBeforeIsNull() {
+        assertThat(OrderKeys.between(null, "V"), is(equalTo("F")));
+    }
+
+    @Test
+    void between_returnsKeyAfterBefore_whenAfterIsNull() {
+        assertThat(OrderKeys.between("V", null), is(equalTo("k")));
+    }
+
+    @Test
+    void between_returnsLongerKey_whenDigitsAreAdjacent() {
+        assertThat(OrderKeys.between("1", "2"), is(equalTo("1V")));
+    }
+
+    @Test
+    void between_returnsLongerKey_whenBeforeIsLastDigit() {
+        assertThat(OrderKeys.between("z", null), is(equalTo("zV")));
+    }
+
+    @Test
+    void between_keepsCommonPrefix() {
+        assertThat(OrderKeys.between("1", "12"), is(equalTo("11")));
+        assertThat(OrderKeys.between("1", "11"), is(equalTo("10V")));
+    }
+
+    @Test
+    void between_returnsKeysInOrder_whenInsertingRepeatedlyAtTheSamePosition() {
+        String before = "a";
+        String after = "b";
+        for (int i = 0; i < 50; i++) {
+            String key = OrderKeys.between(before, after);
+            assertThat(OrderKeys.isValid(key), is(true));
+            assertThat(key, is(greaterThan(before)));
+            assertThat(key, is(lessThan(after)));
+            after = key;
+        }
+    }
+
+    @Test
+    void between_throwsIllegalArgumentException_whenBeforeIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("10", null));
+    }
+
+    @Test
+    void between_throwsIllegalArgumentException_whenAfterIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between(null, "a-b"));
+    }
+
+    @Test
+    void between_throwsIllegalArgumentException_whenKeysAreEqual() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("V", "V"));
+    }
+
+    @Test
+    void between_throwsIllegalArgumentException_whenKeysAreOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("b", "a"));
+    }
+
+    @Test
+    void spaced_returnsEmptyList_whenCountIsZero() {
+        assertThat(OrderKeys.spaced(0), is(equalTo(ImmutableList.of())));
+    }
+
+    @Test
+    void spaced_returnsEvenlySpacedKeys() {
+        assertThat(OrderKeys.spaced(3), is(equalTo(ImmutableList.of("FV", "V", "kV"))));
+    }
+
+    @Test
+    void spaced_returnsValidKeysInOrderWithRoomBetweenThem() {
+        List<String> keys = OrderKeys.spaced(5000);
+        assertThat(keys.size(), is(equalTo(5000)));
+        List<String> sortedKeys = new ArrayList<>(keys);
+        sortedKeys.sort(String::compareTo);
+        assertThat(keys, is(equalTo(sortedKeys)));
+        for (int i = 1; i < keys.size(); i++) {
+            assertThat(keys.get(i), is(greaterThan(keys.get(i - 1))));
+            assertThat(OrderKeys.between(keys.get(i - 1), keys.get(i))
+                    .length(), is(lessThan(5)));
+        }
+    }
+
+    @Test
+    void spaced_throwsIllegalArgumentException_whenCountIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.spaced(-1));
+    }
+
+    @Test
+    void after_returnsSpacedKeys_whenListIsEmpty() {
+        assertThat(OrderKeys.after(null, 3), is(equalTo(OrderKeys.spaced(3))));
+    }
+
+    @Test
+    void after_returnsKeysInOrderAfterLastKey() {
+        List<String> keys = OrderKeys.after("zz", 100);
+        assertThat(keys.size(), is(equalTo(100)));
+        String previousKey = "zz";
+        for (String key : keys) {
+            assertThat(OrderKeys.isValid(key), is(true));
+            assertThat(key, is(greaterThan(previousKey)));
+            previousKey = key;
+        }
+    }
+
+    @Test
+    void after_throwsIllegalArgumentException_whenLastKeyIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.after("a0", 1));
+    }
+
+    @Test
+    void isValid_returnsTrue_forValidKey() {
+        assertThat(OrderKeys.isValid("0aZ9"), is(true));
+    }
+
+    @Test
+    void isValid_returnsFalse_forEmptyKey() {
+        assertThat(OrderKeys.isValid(""), is(false));
+    }
+
+    @Test
+    void isValid_returnsFalse_whenKeyEndsWithZero() {
+        assertThat(OrderKeys.isValid("a0"), is(false));
+    }
+
+    @Test
+    void isValid_returnsFalse_whenKeyIsTooLong() {
+        assertThat(OrderKeys.isValid(Strings.repeat("a", OrderKeys.MAX_LENGTH + 1)), is(false));
+    }
+}
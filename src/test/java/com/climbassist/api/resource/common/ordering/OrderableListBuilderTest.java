@@ -22,7 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 class OrderableListBuilderTest {
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     private static class OrderableResourceWithParentImpl
             implements OrderableResourceWithParent<OrderableResourceWithParentImpl, ParentResourceImpl> {
 
@@ -33,6 +33,7 @@ class OrderableListBuilderTest {
         private String parentId;
         private boolean first;
         private String next;
+        private String orderKey;
     }
 
     private static class ParentResourceImpl implements ResourceWithChildren<ParentResourceImpl> {
@@ -147,4 +148,30 @@ class OrderableListBuilderTest {
         assertThat(orderableListBuilder.buildList(ImmutableSet.of(ORDERABLE_1, ORDERABLE_2, ORDERABLE_3)),
                 is(equalTo(ImmutableList.of(ORDERABLE_1, ORDERABLE_2, ORDERABLE_3))));
     }
+
+    @Test
+    void buildList_sortsByOrderKey_whenOrderKeysAreEnabled() throws InvalidOrderingException {
+        OrderableResourceWithParentImpl orderable1 = ORDERABLE_1.toBuilder()
+                .orderKey("k")
+                .build();
+        OrderableResourceWithParentImpl orderable2 = ORDERABLE_2.toBuilder()
+                .orderKey("V")
+                .build();
+        OrderableResourceWithParentImpl orderable3 = ORDERABLE_3.toBuilder()
+                .orderKey("FV")
+                .build();
+        assertThat(new OrderableListBuilder<OrderableResourceWithParentImpl, ParentResourceImpl>(true).buildList(
+                ImmutableSet.of(orderable1, orderable2, orderable3)),
+                is(equalTo(ImmutableList.of(orderable3, orderable2, orderable1))));
+    }
+
+    @Test
+    void buildList_throwsInvalidOrderingException_whenOrderKeysAreEnabledAndResourceHasNoOrderKey() {
+        OrderableResourceWithParentImpl orderable1 = ORDERABLE_1.toBuilder()
+                .orderKey("V")
+                .build();
+        assertThrows(InvalidOrderingException.class,
+                () -> new OrderableListBuilder<OrderableResourceWithParentImpl, ParentResourceImpl>(true).buildList(
+                        ImmutableSet.of(orderable1, ORDERABLE_2)));
+    }
 }
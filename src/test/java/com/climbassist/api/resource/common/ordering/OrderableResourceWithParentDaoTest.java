@@ -0,0 +1,472 @@
+package com.climbassist.api.resource.common.ordering;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.climbassist.api.resource.common.ResourceChangeListener;
+import com.climbassist.api.resource.common.cache.ResourceCache;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.api.resource.wall.WallsDao;
+import com.climbassist.common.dynamodb.BatchWriteException;
+import com.climbassist.common.dynamodb.BatchWriter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderableResourceWithParentDaoTest {
+
+    private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
+            .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride("Walls"))
+            .build();
+
+    @Mock
+    private DynamoDBMapper mockDynamoDbMapper;
+    @Mock
+    private AmazonDynamoDB mockAmazonDynamoDb;
+    @Mock
+    private ResourceChangeListener mockResourceChangeListener;
+    @Mock
+    private ResourceCache mockResourceCache;
+    @Mock
+    private PaginatedQueryList<Wall> mockPaginatedQueryList;
+    @Mock
+    private BatchWriter mockBatchWriter;
+
+    private WallsDao wallsDao;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mockResourceCache.get(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1)
+                        .get());
+        wallsDao = buildWallsDao(true);
+    }
+
+    @Test
+    void getResources_queriesOrderIndex_whenOrderKeysAreEnabled() {
+        Wall wall1 = buildWall("wall-1", "crag-1", "F");
+        Wall wall2 = buildWall("wall-2", "crag-1", "V");
+        when(mockPaginatedQueryList.iterator()).thenReturn(ImmutableList.of(wall1, wall2)
+                .iterator());
+        when(mockDynamoDbMapper.query(eq(Wall.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+
+        assertThat(wallsDao.getResources("crag-1", Optional.empty()), contains(wall1, wall2));
+
+        @SuppressWarnings("unchecked") ArgumentCaptor<DynamoDBQueryExpression<Wall>> queryExpressionCaptor =
+                ArgumentCaptor.forClass(DynamoDBQueryExpression.class);
+        verify(mockDynamoDbMapper).query(eq(Wall.class), queryExpressionCaptor.capture(), eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(queryExpressionCaptor.getValue()
+                .getIndexName(), is(equalTo(Wall.ORDER_INDEX_NAME)));
+        assertThat(queryExpressionCaptor.getValue()
+                .getHashKeyValues()
+                .getCragId(), is(equalTo("crag-1")));
+    }
+
+    @Test
+    void saveResource_savesResourceWithoutOrderKey_whenOrderKeysAreDisabled() {
+        wallsDao = buildWallsDao(false);
+        Wall wall = buildWall("wall-1", "crag-1", null);
+
+        wallsDao.saveResource(wall);
+
+        verify(mockDynamoDbMapper).save(buildWall("wall-1", "crag-1", null), DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper, never()).load(any(), any(), any());
+    }
+
+    @Test
+    void saveResource_keepsOrderKey_whenResourceHasOne() {
+        wallsDao.saveResource(buildWall("wall-1", "crag-1", "F"));
+
+        verify(mockDynamoDbMapper).save(buildWall("wall-1", "crag-1", "F"), DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper, never()).load(any(), any(), any());
+    }
+
+    @Test
+    void saveResource_keepsExistingOrderKey_whenResourceIsUpdatedWithoutOne() {
+        when(mockDynamoDbMapper.load(Wall.class, "wall-1", DYNAMO_DB_MAPPER_CONFIG)).thenReturn(
+                buildWall("wall-1", "crag-1", "F"));
+
+        wallsDao.saveResource(buildWall("wall-1", "crag-1", null));
+
+        verify(mockDynamoDbMapper).save(buildWall("wall-1", "crag-1", "F"), DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void saveResource_putsResourceBeforeNext_whenResourceIsNew() {
+        Wall wall = buildWall("wall-2", "crag-1", null);
+        wall.setNext("wall-3");
+        when(mockDynamoDbMapper.load(Wall.class, "wall-2", DYNAMO_DB_MAPPER_CONFIG)).thenReturn(null);
+        when(mockDynamoDbMapper.load(Wall.class, "wall-3", DYNAMO_DB_MAPPER_CONFIG)).thenReturn(
+                buildWall("wall-3", "crag-1", "k"));
+        stubQueryPage(buildWall("wall-1", "crag-1", "V"));
+
+        wallsDao.saveResource(wall);
+
+        assertThat(wall.getOrderKey(), is(equalTo(OrderKeys.between("V", "k"))));
+        verify(mockDynamoDbMapper).save(wall, DYNAMO_DB_MAPPER_CONFIG);
+        DynamoDBQueryExpression<Wall> queryExpression = captureQueryPageExpression();
+        assertThat(queryExpression.getRangeKeyConditions(),
+                is(equalTo(ImmutableMap.of(OrderableResourceWithParentDao.ORDER_KEY_ATTRIBUTE_NAME,
+                        new Condition().withComparisonOperator(ComparisonOperator.LT)
+                                .withAttributeValueList(new AttributeValue("k"))))));
+        assertThat(queryExpression.isScanIndexForward(), is(false));
+    }
+
+    @Test
+    void saveResource_putsResourceFirst_whenResourceIsNewAndFirst() {
+        Wall wall = buildWall("wall-1", "crag-1", null);
+        wall.setFirst(true);
+        stubQueryPage(buildWall("wall-2", "crag-1", "V"));
+
+        wallsDao.saveResource(wall);
+
+        assertThat(wall.getOrderKey(), is(equalTo("F")));
+        assertThat(captureQueryPageExpression().isScanIndexForward(), is(true));
+    }
+
+    @Test
+    void saveResource_putsResourceLast_whenResourceIsNew() {
+        Wall wall = buildWall("wall-2", "crag-1", null);
+        stubQueryPage(buildWall("wall-1", "crag-1", "V"));
+
+        wallsDao.saveResource(wall);
+
+        assertThat(wall.getOrderKey(), is(equalTo("k")));
+        assertThat(captureQueryPageExpression().isScanIndexForward(), is(false));
+    }
+
+    @Test
+    void saveResource_putsResourceInMiddle_whenParentHasNoChildren() {
+        Wall wall = buildWall("wall-1", "crag-1", null);
+        stubQueryPage();
+
+        wallsDao.saveResource(wall);
+
+        assertThat(wall.getOrderKey(), is(equalTo("V")));
+    }
+
+    @Test
+    void buildSaveTransactWriteItem_assignsOrderKey_whenResourceIsNew() {
+        Wall wall = buildWall("wall-2", "crag-1", null);
+        stubQueryPage(buildWall("wall-1", "crag-1", "V"));
+        DynamoDBMapperTableModel<Wall> tableModel = stubTableModel();
+
+        TransactWriteItem transactWriteItem = wallsDao.buildSaveTransactWriteItem(wall);
+
+        assertThat(wall.getOrderKey(), is(equalTo("k")));
+        assertThat(transactWriteItem.getPut()
+                .getItem(), is(equalTo(tableModel.convert(buildWall("wall-2", "crag-1", "k")))));
+        verify(mockDynamoDbMapper, never()).save(any(), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    void saveResources_writesResourcesWithBatchWriter() {
+        wallsDao = buildWallsDao(false);
+        Wall wall1 = buildWall("wall-1", "crag-1", null);
+        Wall wall2 = buildWall("wall-2", "crag-1", null);
+        DynamoDBMapperTableModel<Wall> tableModel = stubTableModel();
+
+        wallsDao.saveResources(ImmutableList.of(wall1, wall2));
+
+        verify(mockBatchWriter).write("Walls", ImmutableList.of(new WriteRequest(new PutRequest(tableModel.convert(
+                wall1))), new WriteRequest(new PutRequest(tableModel.convert(wall2)))));
+        verify(mockDynamoDbMapper, never()).save(any(), any(DynamoDBMapperConfig.class));
+        verify(mockResourceCache).invalidateAll(ImmutableList.of("wall-1", "wall-2"));
+        verify(mockResourceChangeListener).onResourcesSaved(ImmutableList.of(wall1, wall2));
+    }
+
+    @Test
+    void saveResources_putsResourcesAfterLastSibling_whenOrderKeysAreEnabled() {
+        Wall wall1 = buildWall("wall-1", "crag-1", null);
+        Wall wall2 = buildWall("wall-2", "crag-1", null);
+        Wall wall3 = buildWall("wall-3", "crag-1", "F");
+        stubTableModel();
+        stubQueryPage(buildWall("wall-0", "crag-1", "V"));
+
+        wallsDao.saveResources(ImmutableList.of(wall1, wall2, wall3));
+
+        List<String> orderKeys = OrderKeys.after("V", 2);
+        assertThat(wall1.getOrderKey(), is(equalTo(orderKeys.get(0))));
+        assertThat(wall2.getOrderKey(), is(equalTo(orderKeys.get(1))));
+        assertThat(wall3.getOrderKey(), is(equalTo("F")));
+        assertThat(captureQueryPageExpression().isScanIndexForward(), is(false));
+    }
+
+    @Test
+    void saveResources_savesResourcesOneAtATime_whenThereIsNoBatchWriter() {
+        wallsDao = WallsDao.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .build();
+        Wall wall1 = buildWall("wall-1", "crag-1", null);
+        Wall wall2 = buildWall("wall-2", "crag-1", null);
+
+        wallsDao.saveResources(ImmutableList.of(wall1, wall2));
+
+        verify(mockDynamoDbMapper).save(wall1, DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper).save(wall2, DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void deleteResources_streamsKeysFromParentIndexToBatchWriter() {
+        Wall wall1 = buildWall("wall-1", "crag-1", null);
+        Wall wall2 = buildWall("wall-2", "crag-1", null);
+        DynamoDBMapperTableModel<Wall> tableModel = stubTableModel();
+        when(mockPaginatedQueryList.stream()).thenAnswer(invocation -> Stream.of(wall1, wall2));
+        when(mockDynamoDbMapper.query(eq(Wall.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+        List<WriteRequest> writeRequests = new ArrayList<>();
+        when(mockBatchWriter.write(eq("Walls"), any(Iterator.class))).thenAnswer(invocation -> {
+            invocation.<Iterator<WriteRequest>>getArgument(1)
+                    .forEachRemaining(writeRequests::add);
+            return writeRequests.size();
+        });
+
+        assertThat(wallsDao.deleteResources("crag-1"), is(equalTo(2)));
+
+        assertThat(writeRequests, is(equalTo(ImmutableList.of(new WriteRequest(new DeleteRequest(tableModel.convertKey(
+                wall1))), new WriteRequest(new DeleteRequest(tableModel.convertKey(wall2)))))));
+        @SuppressWarnings("unchecked") ArgumentCaptor<DynamoDBQueryExpression<Wall>> queryExpressionCaptor =
+                ArgumentCaptor.forClass(DynamoDBQueryExpression.class);
+        verify(mockDynamoDbMapper).query(eq(Wall.class), queryExpressionCaptor.capture(), eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(queryExpressionCaptor.getValue()
+                .getIndexName(), is(equalTo(Wall.GLOBAL_SECONDARY_INDEX_NAME)));
+        assertThat(queryExpressionCaptor.getValue()
+                .getProjectionExpression(), is(equalTo("wallId")));
+        verify(mockResourceCache).invalidateAll(ImmutableList.of("wall-1", "wall-2"));
+        verify(mockResourceChangeListener).onResourcesDeleted(ImmutableList.of("wall-1", "wall-2"));
+    }
+
+    @Test
+    void deleteResources_notifiesListenerOfStreamedResources_whenWriteFails() {
+        Wall wall1 = buildWall("wall-1", "crag-1", null);
+        stubTableModel();
+        when(mockPaginatedQueryList.stream()).thenAnswer(invocation -> Stream.of(wall1));
+        when(mockDynamoDbMapper.query(eq(Wall.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+        when(mockBatchWriter.write(eq("Walls"), any(Iterator.class))).thenAnswer(invocation -> {
+            invocation.<Iterator<WriteRequest>>getArgument(1)
+                    .forEachRemaining(writeRequest -> {
+                    });
+            throw new BatchWriteException("failed");
+        });
+
+        assertThrows(BatchWriteException.class, () -> wallsDao.deleteResources("crag-1"));
+
+        verify(mockResourceCache).invalidateAll(ImmutableList.of("wall-1"));
+        verify(mockResourceChangeListener).onResourcesDeleted(ImmutableList.of("wall-1"));
+    }
+
+    @Test
+    void deleteResources_deletesResourcesOneAtATime_whenThereIsNoBatchWriter() {
+        wallsDao = WallsDao.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .build();
+        when(mockPaginatedQueryList.iterator()).thenReturn(ImmutableList.of(buildWall("wall-1", "crag-1", null),
+                buildWall("wall-2", "crag-1", null))
+                .iterator());
+        when(mockDynamoDbMapper.query(eq(Wall.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+
+        assertThat(wallsDao.deleteResources("crag-1"), is(equalTo(2)));
+
+        verify(mockDynamoDbMapper).delete(Wall.builder()
+                .wallId("wall-1")
+                .build(), DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper).delete(Wall.builder()
+                .wallId("wall-2")
+                .build(), DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void migrateOrderKeys_writesOrderKeysOfSiblingsOfScannedResourcesThatAreOutOfOrder() {
+        Wall wall1 = buildWall("wall-1", "crag-1", null);
+        wall1.setFirst(true);
+        wall1.setNext("wall-2");
+        Wall wall2 = buildWall("wall-2", "crag-1", null);
+        Wall wall3 = buildWall("wall-3", "crag-2", "V");
+        wall3.setFirst(true);
+        Wall wall4 = buildWall("wall-4", "crag-3", null);
+        // wall 2 is in a later page, but is migrated along with its sibling
+        stubScanPage(ImmutableMap.of("wallId", new AttributeValue("wall-4")), wall1, wall3, wall4);
+        stubSiblingQuery("crag-1", wall1, wall2);
+        stubSiblingQuery("crag-2", wall3);
+        stubSiblingQuery("crag-3", wall4);
+
+        assertThat(wallsDao.migrateOrderKeys("wall-0", 3), is(equalTo(OrderKeyMigrationResult.builder()
+                .updatedResourceCount(2)
+                .invalidParentIds(ImmutableSet.of("crag-3"))
+                .nextStartAfter("wall-4")
+                .build())));
+
+        ArgumentCaptor<DynamoDBScanExpression> scanExpressionCaptor =
+                ArgumentCaptor.forClass(DynamoDBScanExpression.class);
+        verify(mockDynamoDbMapper).scanPage(eq(Wall.class), scanExpressionCaptor.capture(),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(scanExpressionCaptor.getValue()
+                .getLimit(), is(equalTo(3)));
+        assertThat(scanExpressionCaptor.getValue()
+                .getExclusiveStartKey(), is(equalTo(ImmutableMap.of("wallId", new AttributeValue("wall-0")))));
+        List<String> orderKeys = OrderKeys.spaced(2);
+        verifyOrderKeyUpdated("wall-1", orderKeys.get(0));
+        verifyOrderKeyUpdated("wall-2", orderKeys.get(1));
+        verify(mockDynamoDbMapper, never()).save(eq(Wall.builder()
+                .wallId("wall-3")
+                .orderKey("V")
+                .build()), any(DynamoDBSaveExpression.class), any(DynamoDBMapperConfig.class));
+        assertThat(wall1.getOrderKey(), is(equalTo(orderKeys.get(0))));
+        verify(mockResourceCache).invalidate("wall-1");
+        verify(mockResourceChangeListener).onResourceSaved(wall1);
+        assertThat(wall4.getOrderKey(), is(nullValue()));
+    }
+
+    @Test
+    void migrateOrderKeys_returnsNoNextStartAfter_afterLastPage() {
+        Wall wall1 = buildWall("wall-1", "crag-1", "V");
+        wall1.setFirst(true);
+        stubScanPage(null, wall1);
+        stubSiblingQuery("crag-1", wall1);
+
+        assertThat(wallsDao.migrateOrderKeys(null, 100), is(equalTo(OrderKeyMigrationResult.builder()
+                .updatedResourceCount(0)
+                .invalidParentIds(ImmutableSet.of())
+                .build())));
+
+        ArgumentCaptor<DynamoDBScanExpression> scanExpressionCaptor =
+                ArgumentCaptor.forClass(DynamoDBScanExpression.class);
+        verify(mockDynamoDbMapper).scanPage(eq(Wall.class), scanExpressionCaptor.capture(),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(scanExpressionCaptor.getValue()
+                .getExclusiveStartKey(), is(nullValue()));
+    }
+
+    private WallsDao buildWallsDao(boolean orderKeysEnabled) {
+        return WallsDao.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
+                .orderKeysEnabled(orderKeysEnabled)
+                .batchWriter(mockBatchWriter)
+                .build();
+    }
+
+    private DynamoDBMapperTableModel<Wall> stubTableModel() {
+        DynamoDBMapperTableModel<Wall> tableModel = new DynamoDBMapper(mockAmazonDynamoDb).getTableModel(Wall.class);
+        when(mockDynamoDbMapper.getTableModel(Wall.class)).thenReturn(tableModel);
+        return tableModel;
+    }
+
+    private void stubScanPage(Map<String, AttributeValue> lastEvaluatedKey, Wall... walls) {
+        stubTableModel();
+        ScanResultPage<Wall> scanResultPage = new ScanResultPage<>();
+        scanResultPage.setResults(ImmutableList.copyOf(walls));
+        scanResultPage.setLastEvaluatedKey(lastEvaluatedKey);
+        when(mockDynamoDbMapper.scanPage(eq(Wall.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                scanResultPage);
+    }
+
+    private void stubSiblingQuery(String cragId, Wall... walls) {
+        @SuppressWarnings("unchecked") PaginatedQueryList<Wall> paginatedQueryList = mock(PaginatedQueryList.class);
+        when(paginatedQueryList.iterator()).thenAnswer(invocation -> ImmutableList.copyOf(walls)
+                .iterator());
+        when(mockDynamoDbMapper.query(eq(Wall.class), argThat(
+                (DynamoDBQueryExpression<Wall> queryExpression) -> Wall.GLOBAL_SECONDARY_INDEX_NAME.equals(
+                        queryExpression.getIndexName()) && cragId.equals(queryExpression.getHashKeyValues()
+                        .getCragId())), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(paginatedQueryList);
+    }
+
+    private void stubQueryPage(Wall... walls) {
+        QueryResultPage<Wall> queryResultPage = new QueryResultPage<>();
+        queryResultPage.setResults(ImmutableList.copyOf(walls));
+        when(mockDynamoDbMapper.queryPage(eq(Wall.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                queryResultPage);
+    }
+
+    private DynamoDBQueryExpression<Wall> captureQueryPageExpression() {
+        @SuppressWarnings("unchecked") ArgumentCaptor<DynamoDBQueryExpression<Wall>> queryExpressionCaptor =
+                ArgumentCaptor.forClass(DynamoDBQueryExpression.class);
+        verify(mockDynamoDbMapper).queryPage(eq(Wall.class), queryExpressionCaptor.capture(),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+        DynamoDBQueryExpression<Wall> queryExpression = queryExpressionCaptor.getValue();
+        assertThat(queryExpression.getIndexName(), is(equalTo(Wall.ORDER_INDEX_NAME)));
+        assertThat(queryExpression.getHashKeyValues()
+                .getCragId(), is(equalTo("crag-1")));
+        assertThat(queryExpression.getLimit(), is(equalTo(1)));
+        return queryExpression;
+    }
+
+    private void verifyOrderKeyUpdated(String wallId, String orderKey) {
+        ArgumentCaptor<DynamoDBSaveExpression> saveExpressionCaptor =
+                ArgumentCaptor.forClass(DynamoDBSaveExpression.class);
+        ArgumentCaptor<DynamoDBMapperConfig> dynamoDbMapperConfigCaptor =
+                ArgumentCaptor.forClass(DynamoDBMapperConfig.class);
+        verify(mockDynamoDbMapper).save(eq(Wall.builder()
+                .wallId(wallId)
+                .orderKey(orderKey)
+                .build()), saveExpressionCaptor.capture(), dynamoDbMapperConfigCaptor.capture());
+        assertThat(saveExpressionCaptor.getValue()
+                .getExpected(), is(equalTo(ImmutableMap.of("wallId",
+                new ExpectedAttributeValue(new AttributeValue(wallId))))));
+        assertThat(dynamoDbMapperConfigCaptor.getValue()
+                .getSaveBehavior(), is(equalTo(DynamoDBMapperConfig.SaveBehavior.UPDATE_SKIP_NULL_ATTRIBUTES)));
+        assertThat(dynamoDbMapperConfigCaptor.getValue()
+                .getTableNameOverride(), is(equalTo(DYNAMO_DB_MAPPER_CONFIG.getTableNameOverride())));
+    }
+
+    private static Wall buildWall(String wallId, String cragId, String orderKey) {
+        return Wall.builder()
+                .wallId(wallId)
+                .cragId(cragId)
+                .name(wallId)
+                .orderKey(orderKey)
+                .build();
+    }
+}
@@ -23,9 +23,9 @@ import java.util.Optional;
 import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,6 +42,7 @@ class RecursiveOrderableResourceWithNoChildrenRetrieverTest {
         private String name;
         private boolean first;
         private String next;
+        private String orderKey;
     }
 
     @Builder
@@ -117,36 +118,18 @@ class RecursiveOrderableResourceWithNoChildrenRetrieverTest {
     }
 
     @Test
-    void getChildrenRecursively_throwsIllegalArgumentException_whenDepthIsLessThanZero() {
-        assertThrows(IllegalArgumentException.class,
-                () -> recursiveOrderableResourceWithNoChildrenRetriever.getChildrenRecursively(RESOURCE_1.getParentId(),
-                        -5, MAYBE_USER_DATA));
-    }
-
-    @Test
-    void getChildrenRecursively_throwsIllegalArgumentException_whenDepthIsZero() {
-        assertThrows(IllegalArgumentException.class,
-                () -> recursiveOrderableResourceWithNoChildrenRetriever.getChildrenRecursively(RESOURCE_1.getParentId(),
-                        0, MAYBE_USER_DATA));
-    }
-
-    @Test
-    void getChildrenRecursively_returnsResourcesInOrder_whenDepthIsOne() {
-        runSuccessTest(1);
-    }
-
-    @Test
-    void getChildrenRecursively_returnsResourcesInOrder_whenDepthIsGreaterThanOne() {
-        runSuccessTest(5);
-    }
-
-    private void runSuccessTest(int depth) {
+    void getChildren_returnsResourcesInOrder() {
         when(mockResourceDao.getResources(any(), any())).thenReturn(RESOURCE_SET);
         when(mockOrderableListBuilder.buildList(any())).thenReturn(RESOURCE_LIST);
-        assertThat(
-                recursiveOrderableResourceWithNoChildrenRetriever.getChildrenRecursively(PARENT_RESOURCE.getId(), depth,
-                        MAYBE_USER_DATA), is(equalTo(RESOURCE_LIST)));
+        assertThat(recursiveOrderableResourceWithNoChildrenRetriever.getChildren(PARENT_RESOURCE.getId(),
+                MAYBE_USER_DATA), is(equalTo(RESOURCE_LIST)));
         verify(mockResourceDao).getResources(PARENT_RESOURCE.getId(), MAYBE_USER_DATA);
         verify(mockOrderableListBuilder).buildList(RESOURCE_SET);
     }
+
+    @Test
+    void getRecursiveResourceRetrievers_returnsEmptySet() {
+        assertThat(recursiveOrderableResourceWithNoChildrenRetriever.getRecursiveResourceRetrievers(),
+                is(empty()));
+    }
 }
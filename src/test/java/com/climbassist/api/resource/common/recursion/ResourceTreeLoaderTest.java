@@ -0,0 +1,259 @@
+package com.climbassist.api.resource.common.recursion;
+
+import com.climbassist.api.resource.common.InvalidChildException;
+import com.climbassist.api.resource.common.ResourceWithChildren;
+import com.climbassist.api.resource.common.ResourceWithParent;
+import com.climbassist.api.resource.common.ResourceWithParentAndChildren;
+import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.user.UserData;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.NullPointerTester;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceTreeLoaderTest {
+
+    @Builder
+    @Data
+    private static final class RootResourceImpl implements ResourceWithChildren<RootResourceImpl> {
+
+        private String id;
+        private Collection<ResourceImpl> childResources;
+
+        @Override
+        public <ChildResource extends ResourceWithParent<RootResourceImpl>> void setChildResources(
+                Collection<?> childResources, Class<ChildResource> childResourceClass) {
+            if (childResourceClass != ResourceImpl.class) {
+                throw new InvalidChildException(getClass(), childResourceClass);
+            }
+            //noinspection unchecked
+            this.childResources = (Collection<ResourceImpl>) childResources;
+        }
+    }
+
+    @Builder
+    @Data
+    private static final class ResourceImpl implements ResourceWithParentAndChildren<ResourceImpl, RootResourceImpl> {
+
+        private String id;
+        private String parentId;
+        private Collection<ChildResourceImpl> childResources;
+
+        @Override
+        public <ChildResource extends ResourceWithParent<ResourceImpl>> void setChildResources(
+                Collection<?> childResources, Class<ChildResource> childResourceClass) {
+            if (childResourceClass != ChildResourceImpl.class) {
+                throw new InvalidChildException(getClass(), childResourceClass);
+            }
+            //noinspection unchecked
+            this.childResources = (Collection<ChildResourceImpl>) childResources;
+        }
+    }
+
+    @Builder
+    @Value
+    private static class ChildResourceImpl implements ResourceWithParent<ResourceImpl> {
+
+        String id;
+        String parentId;
+    }
+
+    private static final String ROOT_RESOURCE_ID = "root-1";
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static final Optional<UserData> MAYBE_USER_DATA = Optional.of(UserData.builder()
+            .userId("33")
+            .username("frodo-baggins")
+            .email("frodo@baggend.shire")
+            .isEmailVerified(true)
+            .isAdministrator(false)
+            .build());
+
+    @Mock
+    private RecursiveResourceRetriever<ResourceImpl, RootResourceImpl> mockResourceRetriever;
+    @Mock
+    private RecursiveResourceRetriever<ChildResourceImpl, ResourceImpl> mockChildResourceRetriever;
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private ExecutorService executorService;
+    private ResourceTreeLoader resourceTreeLoader;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(2);
+        resourceTreeLoader = ResourceTreeLoader.builder()
+                .executor(executorService)
+                .metricsEmitter(mockMetricsEmitter)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testInstanceMethods(resourceTreeLoader, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void loadChildren_throwsIllegalArgumentException_whenDepthIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class,
+                () -> resourceTreeLoader.loadChildren(buildRootResource(), ImmutableSet.of(mockResourceRetriever), 0,
+                        MAYBE_USER_DATA));
+    }
+
+    @Test
+    void loadChildren_loadsOnlyDirectChildren_whenDepthIsOne() {
+        RootResourceImpl rootResource = buildRootResource();
+        ResourceImpl resource = buildResource("resource-1");
+        when(mockResourceRetriever.getChildren(any(), any())).thenReturn(ImmutableList.of(resource));
+        doReturn(ResourceImpl.class).when(mockResourceRetriever)
+                .getChildClass();
+
+        resourceTreeLoader.loadChildren(rootResource, ImmutableSet.of(mockResourceRetriever), 1, MAYBE_USER_DATA);
+
+        assertThat(rootResource.getChildResources(), contains(resource));
+        assertThat(resource.getChildResources(), is(nullValue()));
+        verify(mockResourceRetriever).getChildren(ROOT_RESOURCE_ID, MAYBE_USER_DATA);
+        verify(mockResourceRetriever, never()).getRecursiveResourceRetrievers();
+        verify(mockMetricsEmitter).emitComponentCountMetric("ResourceTreeLoader", "levelQueryCount", 1);
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq("ResourceTreeLoader"), eq("levelDuration"),
+                anyDouble());
+    }
+
+    @Test
+    void loadChildren_loadsEveryLevel_whenDepthIsGreaterThanOne() {
+        RootResourceImpl rootResource = buildRootResource();
+        ResourceImpl resource1 = buildResource("resource-1");
+        ResourceImpl resource2 = buildResource("resource-2");
+        ChildResourceImpl childResource = ChildResourceImpl.builder()
+                .id("child-1")
+                .parentId(resource1.getId())
+                .build();
+        when(mockResourceRetriever.getChildren(any(), any())).thenReturn(ImmutableList.of(resource1, resource2));
+        doReturn(ImmutableSet.of(mockChildResourceRetriever)).when(mockResourceRetriever)
+                .getRecursiveResourceRetrievers();
+        doReturn(ResourceImpl.class).when(mockResourceRetriever)
+                .getChildClass();
+        when(mockChildResourceRetriever.getChildren(eq(resource1.getId()), any())).thenReturn(
+                ImmutableList.of(childResource));
+        when(mockChildResourceRetriever.getChildren(eq(resource2.getId()), any())).thenReturn(ImmutableList.of());
+        doReturn(ChildResourceImpl.class).when(mockChildResourceRetriever)
+                .getChildClass();
+
+        assertThat(
+                resourceTreeLoader.loadChildren(rootResource, ImmutableSet.of(mockResourceRetriever), 5, MAYBE_USER_DATA),
+                containsInAnyOrder(resource1.getId(), resource2.getId(), childResource.getId()));
+
+        assertThat(rootResource.getChildResources(), contains(resource1, resource2));
+        assertThat(resource1.getChildResources(), contains(childResource));
+        assertThat(resource2.getChildResources(), is(nullValue()));
+        verify(mockResourceRetriever).getChildren(ROOT_RESOURCE_ID, MAYBE_USER_DATA);
+        verify(mockChildResourceRetriever).getChildren(resource1.getId(), MAYBE_USER_DATA);
+        verify(mockChildResourceRetriever).getChildren(resource2.getId(), MAYBE_USER_DATA);
+        verify(mockMetricsEmitter).emitComponentCountMetric("ResourceTreeLoader", "levelQueryCount", 2);
+    }
+
+    @Test
+    void loadChildren_doesNotSetChildren_whenThereAreNoChildren() {
+        RootResourceImpl rootResource = buildRootResource();
+        when(mockResourceRetriever.getChildren(any(), any())).thenReturn(ImmutableList.of());
+
+        assertThat(
+                resourceTreeLoader.loadChildren(rootResource, ImmutableSet.of(mockResourceRetriever), 5, MAYBE_USER_DATA),
+                is(empty()));
+
+        assertThat(rootResource.getChildResources(), is(nullValue()));
+        verify(mockResourceRetriever, never()).getChildClass();
+    }
+
+    @Test
+    void loadChildren_queriesEveryParentOnALevelConcurrently() {
+        RootResourceImpl rootResource = buildRootResource();
+        ResourceImpl resource1 = buildResource("resource-1");
+        ResourceImpl resource2 = buildResource("resource-2");
+        when(mockResourceRetriever.getChildren(any(), any())).thenReturn(ImmutableList.of(resource1, resource2));
+        doReturn(ImmutableSet.of(mockChildResourceRetriever)).when(mockResourceRetriever)
+                .getRecursiveResourceRetrievers();
+        doReturn(ResourceImpl.class).when(mockResourceRetriever)
+                .getChildClass();
+        // each query waits for the other one to start, so this only finishes if they run at the same time
+        CountDownLatch countDownLatch = new CountDownLatch(2);
+        when(mockChildResourceRetriever.getChildren(any(), any())).thenAnswer(invocation -> {
+            countDownLatch.countDown();
+            if (!countDownLatch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Child queries were not run concurrently.");
+            }
+            return ImmutableList.of();
+        });
+
+        resourceTreeLoader.loadChildren(rootResource, ImmutableSet.of(mockResourceRetriever), 2, MAYBE_USER_DATA);
+
+        assertThat(rootResource.getChildResources(), contains(resource1, resource2));
+    }
+
+    @Test
+    void loadChildren_throwsOriginalException_whenAConcurrentQueryFails() {
+        RootResourceImpl rootResource = buildRootResource();
+        ResourceImpl resource1 = buildResource("resource-1");
+        ResourceImpl resource2 = buildResource("resource-2");
+        when(mockResourceRetriever.getChildren(any(), any())).thenReturn(ImmutableList.of(resource1, resource2));
+        doReturn(ImmutableSet.of(mockChildResourceRetriever)).when(mockResourceRetriever)
+                .getRecursiveResourceRetrievers();
+        when(mockChildResourceRetriever.getChildren(any(), any())).thenThrow(
+                new InvalidOrderingException(resource1.getId(), "Detected loop."));
+
+        assertThrows(InvalidOrderingException.class,
+                () -> resourceTreeLoader.loadChildren(rootResource, ImmutableSet.of(mockResourceRetriever), 2,
+                        MAYBE_USER_DATA));
+    }
+
+    private static RootResourceImpl buildRootResource() {
+        return RootResourceImpl.builder()
+                .id(ROOT_RESOURCE_ID)
+                .build();
+    }
+
+    private static ResourceImpl buildResource(String id) {
+        return ResourceImpl.builder()
+                .id(id)
+                .parentId(ROOT_RESOURCE_ID)
+                .build();
+    }
+}
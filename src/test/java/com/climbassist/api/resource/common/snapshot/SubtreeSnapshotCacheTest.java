@@ -0,0 +1,177 @@
+package com.climbassist.api.resource.common.snapshot;
+
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.metrics.MetricsEmitter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SubtreeSnapshotCacheTest {
+
+    private static final String METRICS_COMPONENT = "SubtreeSnapshotCache";
+    private static final Crag CRAG = Crag.builder()
+            .cragId("crag-1")
+            .subAreaId("sub-area-1")
+            .name("crag")
+            .build();
+    private static final Wall WALL = Wall.builder()
+            .wallId("wall-1")
+            .cragId(CRAG.getCragId())
+            .name("wall")
+            .build();
+    private static final SubtreeSnapshotCache.Key KEY = new SubtreeSnapshotCache.Key(CRAG.getCragId(), 1, false);
+    private static final long MAXIMUM_SIZE_BYTES = 1024L * 1024L;
+    private static final long EXPIRE_AFTER_WRITE_SECONDS = 300L;
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private ObjectMapper objectMapper;
+    private SubtreeSnapshotCache subtreeSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        subtreeSnapshotCache = buildSubtreeSnapshotCache(MAXIMUM_SIZE_BYTES);
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.setDefault(SubtreeSnapshotCache.Key.class, KEY);
+        nullPointerTester.testInstanceMethods(subtreeSnapshotCache, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void get_returnsEmptyAndEmitsMiss_whenSnapshotIsNotCached() {
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+        verify(mockMetricsEmitter).emitCacheLookupMetrics(METRICS_COMPONENT, false);
+    }
+
+    @Test
+    void get_returnsSnapshotAndEmitsHit_whenSnapshotIsCached() throws JsonProcessingException {
+        SubtreeSnapshot subtreeSnapshot = putCrag();
+        assertThat(subtreeSnapshot.getJson(), is(equalTo(objectMapper.writeValueAsString(CRAG))));
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.of(subtreeSnapshot))));
+        verify(mockMetricsEmitter).emitCacheLookupMetrics(METRICS_COMPONENT, true);
+    }
+
+    @Test
+    void put_returnsSnapshotWithoutCachingIt_whenAResourceWasWrittenWhileLoading() throws JsonProcessingException {
+        long generation = subtreeSnapshotCache.getGeneration();
+        subtreeSnapshotCache.onResourceDeleted("some-other-resource");
+        SubtreeSnapshot subtreeSnapshot = subtreeSnapshotCache.put(KEY, CRAG,
+                ImmutableSet.of(CRAG.getCragId(), WALL.getWallId()), generation);
+        assertThat(subtreeSnapshot.getJson(), is(equalTo(objectMapper.writeValueAsString(CRAG))));
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourceSaved_invalidatesSnapshot_whenResourceIsInSnapshot() {
+        putCrag();
+        subtreeSnapshotCache.onResourceSaved(WALL);
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "invalidationCount", 1);
+    }
+
+    @Test
+    void onResourceSaved_invalidatesSnapshot_whenParentOfResourceIsInSnapshot() {
+        putCrag();
+        subtreeSnapshotCache.onResourceSaved(Wall.builder()
+                .wallId("wall-2")
+                .cragId(CRAG.getCragId())
+                .build());
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourceSaved_keepsSnapshot_whenResourceIsNotInSnapshot() {
+        SubtreeSnapshot subtreeSnapshot = putCrag();
+        subtreeSnapshotCache.onResourceSaved(Crag.builder()
+                .cragId("crag-2")
+                .subAreaId(CRAG.getSubAreaId())
+                .build());
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.of(subtreeSnapshot))));
+    }
+
+    @Test
+    void onResourceDeleted_invalidatesSnapshot_whenResourceIsInSnapshot() {
+        putCrag();
+        subtreeSnapshotCache.onResourceDeleted(WALL.getWallId());
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourcesSaved_invalidatesSnapshotOnce_whenAnyResourceIsInSnapshot() {
+        putCrag();
+        subtreeSnapshotCache.onResourcesSaved(ImmutableList.of(Crag.builder()
+                .cragId("crag-2")
+                .subAreaId(CRAG.getSubAreaId())
+                .build(), WALL));
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "invalidationCount", 1);
+    }
+
+    @Test
+    void onResourcesSaved_keepsSnapshot_whenNoResourceIsInSnapshot() {
+        SubtreeSnapshot subtreeSnapshot = putCrag();
+        subtreeSnapshotCache.onResourcesSaved(ImmutableList.of(Crag.builder()
+                .cragId("crag-2")
+                .subAreaId(CRAG.getSubAreaId())
+                .build()));
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.of(subtreeSnapshot))));
+    }
+
+    @Test
+    void onResourcesDeleted_invalidatesSnapshot_whenAnyResourceIsInSnapshot() {
+        putCrag();
+        subtreeSnapshotCache.onResourcesDeleted(ImmutableList.of("wall-2", WALL.getWallId()));
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourcesDeleted_keepsSnapshot_whenNoResourceIsInSnapshot() {
+        SubtreeSnapshot subtreeSnapshot = putCrag();
+        subtreeSnapshotCache.onResourcesDeleted(ImmutableList.of("wall-2"));
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.of(subtreeSnapshot))));
+    }
+
+    @Test
+    void put_evictsSnapshots_whenMaximumSizeIsExceeded() {
+        subtreeSnapshotCache = buildSubtreeSnapshotCache(1L);
+        putCrag();
+        assertThat(subtreeSnapshotCache.get(KEY), is(equalTo(Optional.empty())));
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "evictionCount", 1);
+    }
+
+    private SubtreeSnapshot putCrag() {
+        return subtreeSnapshotCache.put(KEY, CRAG, ImmutableSet.of(CRAG.getCragId(), WALL.getWallId()),
+                subtreeSnapshotCache.getGeneration());
+    }
+
+    private SubtreeSnapshotCache buildSubtreeSnapshotCache(long maximumSizeBytes) {
+        return SubtreeSnapshotCache.builder()
+                .objectMapper(objectMapper)
+                .metricsEmitter(mockMetricsEmitter)
+                .maximumSizeBytes(maximumSizeBytes)
+                .expireAfterWriteSeconds(EXPIRE_AFTER_WRITE_SECONDS)
+                .build();
+    }
+}
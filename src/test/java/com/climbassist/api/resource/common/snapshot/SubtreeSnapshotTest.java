@@ -0,0 +1,38 @@
+package com.climbassist.api.resource.common.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class SubtreeSnapshotTest {
+
+    private static final String JSON = "{\"cragId\":\"crag-1\",\"name\":\"Gorge été\"}";
+
+    @Test
+    void serialize_writesJsonWithoutEscapingIt() throws JsonProcessingException {
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot(JSON, ImmutableSet.of("crag-1"));
+        assertThat(new ObjectMapper().writeValueAsString(ImmutableMap.of("data", subtreeSnapshot)),
+                is(equalTo("{\"data\":" + JSON + "}")));
+        assertThat(new String(new ObjectMapper().writeValueAsBytes(subtreeSnapshot), StandardCharsets.UTF_8), is(equalTo(JSON)));
+    }
+
+    @Test
+    void containsAnyOf_returnsTrue_whenAnyResourceIsInSnapshot() {
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot(JSON, ImmutableSet.of("crag-1", "wall-1"));
+        assertThat(subtreeSnapshot.containsAnyOf(ImmutableSet.of("wall-2", "wall-1")), is(true));
+    }
+
+    @Test
+    void containsAnyOf_returnsFalse_whenNoResourceIsInSnapshot() {
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot(JSON, ImmutableSet.of("crag-1", "wall-1"));
+        assertThat(subtreeSnapshot.containsAnyOf(ImmutableSet.of("wall-2")), is(false));
+    }
+}
@@ -29,6 +29,8 @@ class CountriesDaoTest extends AbstractResourceWithoutParentDaoTest<Country, Cou
         return CountriesDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
@@ -6,6 +6,7 @@ import com.climbassist.api.resource.common.ResourceNotEmptyException;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
@@ -81,10 +82,12 @@ class CountryControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(COUNTRY_1);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(COUNTRY_1.getCountryId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
         assertThat(countryController.getResource(COUNTRY_1.getCountryId(), DEPTH, MAYBE_USER_DATA),
-                is(equalTo(COUNTRY_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(COUNTRY_1.getCountryId(), DEPTH,
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(COUNTRY_1.getCountryId(), DEPTH,
                 MAYBE_USER_DATA);
     }
 
@@ -10,7 +10,7 @@ import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.image.ResourceWithImageControllerDelegate;
 import com.climbassist.api.resource.common.image.UploadImageResult;
-import com.climbassist.api.resource.common.image.webpconverter.WebpConverterException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.path.Path;
 import com.climbassist.api.resource.path.PathsDao;
 import com.climbassist.api.resource.subarea.SubArea;
@@ -21,6 +21,7 @@ import com.climbassist.common.s3.AmazonS3UriBuilder;
 import com.climbassist.common.s3.S3Proxy;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,17 +35,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,6 +59,7 @@ class CragControllerTest {
     private static final String CRAG_1_ID = "crag-1";
     private static final String IMAGES_BUCKET_NAME = "photos";
     private static final String MODELS_BUCKET_NAME = "models";
+    private static final long UPLOAD_TIMEOUT_MILLIS = 900000L;
     private static final String EXPECTED_JPG_IMAGE_KEY = String.format("%s/%s.jpg", CRAG_1_ID, CRAG_1_ID);
     private static final String EXPECTED_WEBP_IMAGE_KEY = String.format("%s/%s.webp", CRAG_1_ID, CRAG_1_ID);
     private static final String EXPECTED_HIGH_RESOLUTION_MODEL_KEY = String.format("%s/%s.glb", CRAG_1_ID, CRAG_1_ID);
@@ -237,6 +242,8 @@ class CragControllerTest {
                 .wallsDao(mockWallsDao)
                 .pathsDao(mockPathsDao)
                 .cragNotEmptyExceptionFactory(mockCragNotEmptyExceptionFactory)
+                .executor(MoreExecutors.directExecutor())
+                .uploadTimeoutMillis(UPLOAD_TIMEOUT_MILLIS)
                 .build();
     }
 
@@ -249,9 +256,13 @@ class CragControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(CRAG_1);
-        assertThat(cragController.getResource(CRAG_1.getCragId(), DEPTH, MAYBE_USER_DATA), is(equalTo(CRAG_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(CRAG_1.getCragId(), DEPTH, MAYBE_USER_DATA);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(CRAG_1.getCragId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
+        assertThat(cragController.getResource(CRAG_1.getCragId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(CRAG_1.getCragId(), DEPTH,
+                MAYBE_USER_DATA);
     }
 
     @Test
@@ -351,14 +362,14 @@ class CragControllerTest {
     }
 
     @Test
-    void uploadImage_callsResourceWithImageAndChildrenControllerDelegate()
-            throws ResourceNotFoundException, IOException, WebpConverterException {
+    void uploadImage_callsResourceWithImageAndChildrenControllerDelegate() {
         UploadImageResult uploadImageResult = UploadImageResult.builder()
                 .successful(true)
                 .build();
-        when(mockResourceWithImageControllerDelegate.uploadImage(any(), any(), any())).thenReturn(uploadImageResult);
-        assertThat(cragController.uploadImage(CRAG_1.getCragId(), IMAGE, MAYBE_USER_DATA),
-                is(equalTo(uploadImageResult)));
+        when(mockResourceWithImageControllerDelegate.uploadImage(any(), any(), any())).thenReturn(
+                CompletableFuture.completedFuture(uploadImageResult));
+        assertThat(cragController.uploadImage(CRAG_1.getCragId(), IMAGE, MAYBE_USER_DATA)
+                .getResult(), is(equalTo(uploadImageResult)));
         verify(mockResourceWithImageControllerDelegate).uploadImage(CRAG_1.getCragId(), IMAGE, MAYBE_USER_DATA);
     }
 
@@ -383,7 +394,8 @@ class CragControllerTest {
                 .putPublicObject(any(), eq(EXPECTED_LOW_RESOLUTION_MODEL_KEY), any(), anyLong());
 
         assertThat(cragController.uploadModels(CRAG_1.getCragId(), HIGH_RESOLUTION_MODEL, LOW_RESOLUTION_MODEL,
-                MAYBE_USER_DATA), is(equalTo(UploadModelsResult.builder()
+                MAYBE_USER_DATA)
+                .getResult(), is(equalTo(UploadModelsResult.builder()
                 .successful(true)
                 .build())));
 
@@ -425,7 +437,8 @@ class CragControllerTest {
                 .putPublicObject(any(), eq(EXPECTED_LOW_RESOLUTION_MODEL_KEY), any(), anyLong());
 
         assertThat(cragController.uploadModels(CRAG_1.getCragId(), HIGH_RESOLUTION_MODEL, LOW_RESOLUTION_MODEL,
-                MAYBE_USER_DATA), is(equalTo(UploadModelsResult.builder()
+                MAYBE_USER_DATA)
+                .getResult(), is(equalTo(UploadModelsResult.builder()
                 .successful(true)
                 .build())));
 
@@ -442,4 +455,21 @@ class CragControllerTest {
                 is(equalTo(IOUtils.toString(LOW_RESOLUTION_MODEL.getInputStream()))));
         verify(mockCragsDao).saveResource(cragWithOnlyModelLocations);
     }
+
+    @Test
+    void uploadModels_doesNotUpdateRecord_whenUploadFails() throws IOException, CragNotFoundException {
+        when(mockCragsDao.getResource(any(), any())).thenReturn(Optional.of(CRAG_1));
+        //noinspection ConstantConditions
+        doReturn(new AmazonS3URI(CRAG_1.getModel()
+                .getModelLocation())).when(mockS3Proxy)
+                .putPublicObject(any(), eq(EXPECTED_HIGH_RESOLUTION_MODEL_KEY), any(), anyLong());
+        IOException ioException = new IOException("Unable to read the low resolution model.");
+        doThrow(ioException).when(mockS3Proxy)
+                .putPublicObject(any(), eq(EXPECTED_LOW_RESOLUTION_MODEL_KEY), any(), anyLong());
+
+        assertThat(cragController.uploadModels(CRAG_1.getCragId(), HIGH_RESOLUTION_MODEL, LOW_RESOLUTION_MODEL,
+                MAYBE_USER_DATA)
+                .getResult(), is(sameInstance(ioException)));
+        verify(mockCragsDao, never()).saveResource(any());
+    }
 }
@@ -100,6 +100,8 @@ class CragsDaoTest extends AbstractResourceWithStateDaoTest<Crag, SubArea, Crags
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
                 .userManager(mockUserManager)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
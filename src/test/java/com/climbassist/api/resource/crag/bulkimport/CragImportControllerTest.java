@@ -0,0 +1,72 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.ApiException;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CragImportControllerTest {
+
+    private static final String CRAG_ID = "crag-1";
+    private static final CragImportProgress PROGRESS = CragImportProgress.builder()
+            .cragId(CRAG_ID)
+            .status(CragImportProgress.Status.COMPLETE)
+            .importedWallCount(2)
+            .importedRouteCount(5)
+            .importedPitchCount(7)
+            .importedPointCount(40)
+            .durationMillis(1000L)
+            .build();
+
+    @Mock
+    private CragImporter mockCragImporter;
+
+    private CragImportController cragImportController;
+
+    @BeforeEach
+    void setUp() {
+        cragImportController = CragImportController.builder()
+                .cragImporter(mockCragImporter)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(cragImportController, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void importCrag_callsCragImporter() throws ApiException, IOException {
+        InputStream document = new ByteArrayInputStream(new byte[0]);
+        when(mockCragImporter.importCrag(document, Optional.empty())).thenReturn(PROGRESS);
+        assertThat(cragImportController.importCrag(document, Optional.empty()), is(equalTo(PROGRESS)));
+    }
+
+    @Test
+    void resumeImport_callsCragImporter() throws ApiException, IOException {
+        InputStream document = new ByteArrayInputStream(new byte[0]);
+        when(mockCragImporter.resumeImport(CRAG_ID, document)).thenReturn(PROGRESS);
+        assertThat(cragImportController.resumeImport(CRAG_ID, document), is(equalTo(PROGRESS)));
+    }
+
+    @Test
+    void getImport_returnsProgress() throws CragImportNotFoundException {
+        when(mockCragImporter.getProgress(CRAG_ID)).thenReturn(PROGRESS);
+        assertThat(cragImportController.getImport(CRAG_ID), is(equalTo(PROGRESS)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.crag.NewCrag;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CragImportDocumentReaderTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void readWall_returnsWallsInOrder() throws IOException, InvalidRequestException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader(
+                "{\"crag\": {\"name\": \"Crag 1\"}, \"walls\": [{\"name\": \"Wall 1\", \"routes\": [{\"name\": " +
+                        "\"Route 1\", \"style\": \"sport\", \"pitches\": [{\"grade\": 10, \"points\": [{\"x\": 1, " +
+                        "\"y\": 2, \"z\": 3}]}]}]}, {\"name\": \"Wall 2\"}]}")) {
+            assertThat(documentReader.readCrag(), is(equalTo(NewCrag.builder()
+                    .name("Crag 1")
+                    .build())));
+            assertThat(documentReader.readWall(), is(equalTo(Optional.of(ImportedWall.builder()
+                    .name("Wall 1")
+                    .routes(ImmutableList.of(ImportedRoute.builder()
+                            .name("Route 1")
+                            .style("sport")
+                            .pitches(ImmutableList.of(ImportedPitch.builder()
+                                    .grade(10)
+                                    .points(ImmutableList.of(ImportedPoint.builder()
+                                            .x(1.0)
+                                            .y(2.0)
+                                            .z(3.0)
+                                            .build()))
+                                    .build()))
+                            .build()))
+                    .build()))));
+            assertThat(documentReader.readWall(), is(equalTo(Optional.of(ImportedWall.builder()
+                    .name("Wall 2")
+                    .build()))));
+            assertThat(documentReader.readWall(), is(equalTo(Optional.empty())));
+            assertThat(documentReader.readWall(), is(equalTo(Optional.empty())));
+        }
+    }
+
+    @Test
+    void readWall_returnsEmpty_whenDocumentHasNoWalls() throws IOException, InvalidRequestException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader("{\"crag\": {\"name\": \"Crag 1\"}}")) {
+            documentReader.readCrag();
+            assertThat(documentReader.readWall(), is(equalTo(Optional.empty())));
+        }
+    }
+
+    @Test
+    void readCrag_throwsInvalidRequestException_whenCragIsNotFirst() throws IOException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader(
+                "{\"walls\": [], \"crag\": {\"name\": \"Crag 1\"}}")) {
+            assertThrows(InvalidRequestException.class, documentReader::readCrag);
+        }
+    }
+
+    @Test
+    void readCrag_throwsInvalidRequestException_whenDocumentIsNotAnObject() throws IOException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader("[]")) {
+            assertThrows(InvalidRequestException.class, documentReader::readCrag);
+        }
+    }
+
+    @Test
+    void readWall_throwsInvalidRequestException_whenWallsAreNotAnArray() throws IOException, InvalidRequestException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader(
+                "{\"crag\": {\"name\": \"Crag 1\"}, \"walls\": {}}")) {
+            documentReader.readCrag();
+            assertThrows(InvalidRequestException.class, documentReader::readWall);
+        }
+    }
+
+    @Test
+    void readWall_throwsInvalidRequestException_whenWallsAreNotLast() throws IOException, InvalidRequestException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader(
+                "{\"crag\": {\"name\": \"Crag 1\"}, \"walls\": [], \"other\": 1}")) {
+            documentReader.readCrag();
+            assertThrows(InvalidRequestException.class, documentReader::readWall);
+        }
+    }
+
+    @Test
+    void readWall_throwsInvalidRequestException_whenWallIsMalformed() throws IOException, InvalidRequestException {
+        try (CragImportDocumentReader documentReader = buildDocumentReader(
+                "{\"crag\": {\"name\": \"Crag 1\"}, \"walls\": [{\"name\": \"Wall 1\", \"unknown\": 1}]}")) {
+            documentReader.readCrag();
+            assertThrows(InvalidRequestException.class, documentReader::readWall);
+        }
+    }
+
+    private static CragImportDocumentReader buildDocumentReader(String document) throws IOException {
+        return new CragImportDocumentReader(OBJECT_MAPPER,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,569 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.climbassist.api.ApiException;
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.ResourceIdGenerator;
+import com.climbassist.api.resource.common.ResourceNotFoundException;
+import com.climbassist.api.resource.common.grade.GradeKey;
+import com.climbassist.api.resource.common.ordering.OrderKeys;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.CragFactory;
+import com.climbassist.api.resource.crag.CragsDao;
+import com.climbassist.api.resource.crag.Location;
+import com.climbassist.api.resource.crag.NewCrag;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.resource.pitch.PitchFactory;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.resource.point.PackedPointStore;
+import com.climbassist.api.resource.point.PackedPoints;
+import com.climbassist.api.resource.point.Point;
+import com.climbassist.api.resource.point.PointFactory;
+import com.climbassist.api.resource.point.PointsDao;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.resource.route.RouteFactory;
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.resource.subarea.SubArea;
+import com.climbassist.api.resource.subarea.SubAreaNotFoundExceptionFactory;
+import com.climbassist.api.resource.subarea.SubAreasDao;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.api.resource.wall.WallFactory;
+import com.climbassist.api.resource.wall.WallsDao;
+import com.climbassist.common.dynamodb.BatchWriteException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.NullPointerTester;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CragImporterTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final NewCrag NEW_CRAG = NewCrag.builder()
+            .subAreaId("sub-area-1")
+            .name("Crag 1")
+            .description("Crag 1 description")
+            .location(Location.builder()
+                    .latitude(40.0)
+                    .longitude(-105.0)
+                    .zoom(15.0)
+                    .build())
+            .build();
+
+    @Mock
+    private SubAreasDao mockSubAreasDao;
+    @Mock
+    private CragsDao mockCragsDao;
+    @Mock
+    private WallsDao mockWallsDao;
+    @Mock
+    private RoutesDao mockRoutesDao;
+    @Mock
+    private PitchesDao mockPitchesDao;
+    @Mock
+    private PointsDao mockPointsDao;
+    @Mock
+    private PackedPointStore mockPackedPointStore;
+    @Mock
+    private CragImportsDao mockCragImportsDao;
+
+    private CragImporter cragImporter;
+    private int resourceIdCount;
+    private final Map<String, CragImportRecord> savedImports = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        cragImporter = buildCragImporter(1000);
+        lenient().when(mockSubAreasDao.getResource(NEW_CRAG.getSubAreaId(), Optional.empty()))
+                .thenReturn(Optional.of(SubArea.builder()
+                        .subAreaId(NEW_CRAG.getSubAreaId())
+                        .build()));
+        lenient().when(mockPackedPointStore.packNewPoints(anyList()))
+                .thenAnswer(invocation -> PackedPoints.pack(invocation.getArgument(0)));
+        // behaves like the table, including its version checks, so imports can be read back and resumed
+        lenient().when(mockCragImportsDao.getImport(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(savedImports.get(invocation.<String>getArgument(0)))
+                        .map(cragImportRecord -> cragImportRecord.toBuilder()
+                                .build()));
+        lenient().doAnswer(invocation -> {
+            CragImportRecord cragImportRecord = invocation.getArgument(0);
+            CragImportRecord savedImport = savedImports.get(cragImportRecord.getCragId());
+            if (!Objects.equals(savedImport == null ? null : savedImport.getVersion(),
+                    cragImportRecord.getVersion())) {
+                throw new ConditionalCheckFailedException("The version has changed.");
+            }
+            cragImportRecord.setVersion(cragImportRecord.getVersion() == null ? 1 : cragImportRecord.getVersion() + 1);
+            savedImports.put(cragImportRecord.getCragId(), cragImportRecord.toBuilder()
+                    .build());
+            return null;
+        })
+                .when(mockCragImportsDao)
+                .saveImport(any());
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(cragImporter, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void importCrag_writesWholeCrag() throws ApiException, IOException {
+        CragImportProgress progress = cragImporter.importCrag(buildDocument(ImmutableList.of(ImportedWall.builder()
+                .name("Wall 1")
+                .routes(ImmutableList.of(ImportedRoute.builder()
+                        .name("Route 1")
+                        .style("sport")
+                        .pitches(ImmutableList.of(buildPitch(10, 2), buildPitch(11, 1)))
+                        .build(), ImportedRoute.builder()
+                        .name("Route 2")
+                        .style("trad")
+                        .build()))
+                .build(), ImportedWall.builder()
+                .name("Wall 2")
+                .build())), Optional.empty());
+
+        ArgumentCaptor<Crag> cragCaptor = ArgumentCaptor.forClass(Crag.class);
+        verify(mockCragsDao).saveResource(cragCaptor.capture());
+        Crag crag = cragCaptor.getValue();
+        assertThat(crag.getSubAreaId(), is(equalTo(NEW_CRAG.getSubAreaId())));
+        assertThat(crag.getState(), is(equalTo(State.IN_REVIEW.toString())));
+        assertThat(progress, is(equalTo(CragImportProgress.builder()
+                .cragId(crag.getCragId())
+                .status(CragImportProgress.Status.COMPLETE)
+                .importedWallCount(2)
+                .importedRouteCount(2)
+                .importedPitchCount(2)
+                .importedPointCount(3)
+                .durationMillis(progress.getDurationMillis())
+                .build())));
+
+        List<Wall> walls = captureWalls(1).get(0);
+        assertThat(walls.size(), is(equalTo(2)));
+        assertThat(walls.get(0)
+                .getCragId(), is(equalTo(crag.getCragId())));
+        assertThat(walls.get(0)
+                .isFirst(), is(true));
+        assertThat(walls.get(0)
+                .getNext(), is(equalTo(walls.get(1)
+                .getWallId())));
+        assertThat(walls.get(1)
+                .isFirst(), is(false));
+        assertThat(walls.get(1)
+                .getNext(), is(nullValue()));
+        assertThat(walls.stream()
+                .map(Wall::getOrderKey)
+                .collect(Collectors.toList()), is(equalTo(OrderKeys.spaced(2))));
+
+        List<Route> routes = captureRoutes();
+        assertThat(routes.size(), is(equalTo(2)));
+        Route route1 = routes.get(0);
+        assertThat(route1.getWallId(), is(equalTo(walls.get(0)
+                .getWallId())));
+        assertThat(route1.isFirst(), is(true));
+        assertThat(route1.getNext(), is(equalTo(routes.get(1)
+                .getRouteId())));
+        assertThat(route1.getGrade(), is(equalTo(11)));
+        assertThat(routes.stream()
+                .map(Route::getOrderKey)
+                .collect(Collectors.toList()), is(equalTo(OrderKeys.spaced(2))));
+        assertThat(routes.get(1)
+                .getGrade(), is(nullValue()));
+
+        ArgumentCaptor<List<Pitch>> pitchesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockPitchesDao).saveResources(pitchesCaptor.capture());
+        List<Pitch> pitches = pitchesCaptor.getValue();
+        assertThat(pitches.size(), is(equalTo(2)));
+        assertThat(pitches.get(0)
+                .getRouteId(), is(equalTo(route1.getRouteId())));
+        assertThat(pitches.get(0)
+                .getNext(), is(equalTo(pitches.get(1)
+                .getPitchId())));
+        assertThat(pitches.get(0)
+                .getGradeKey(), is(equalTo(GradeKey.packIfValid("sport", 10, null, null)
+                .orElse(null))));
+
+        ArgumentCaptor<List<Point>> pointsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockPointsDao).saveResources(pointsCaptor.capture());
+        List<Point> points = pointsCaptor.getValue();
+        assertThat(points.size(), is(equalTo(3)));
+        List<Point> pitch1Points = points.subList(0, 2);
+        assertThat(pitch1Points.get(0)
+                .getPitchId(), is(equalTo(pitches.get(0)
+                .getPitchId())));
+        assertThat(pitch1Points.get(0)
+                .isFirst(), is(true));
+        assertThat(pitch1Points.get(0)
+                .getNext(), is(equalTo(pitch1Points.get(1)
+                .getPointId())));
+        assertThat(pitches.get(0)
+                .getPackedPoints(), is(equalTo(PackedPoints.pack(pitch1Points))));
+    }
+
+    @Test
+    void importCrag_writesWallsInGroups() throws ApiException, IOException {
+        cragImporter = buildCragImporter(1);
+
+        cragImporter.importCrag(buildDocument(buildWalls(3)), Optional.empty());
+
+        List<List<Wall>> groups = captureWalls(3);
+        assertThat(groups.get(0)
+                .size(), is(equalTo(1)));
+        // the last wall of each group is written again with its next wall
+        assertThat(groups.get(1)
+                .get(0), is(equalTo(groups.get(0)
+                .get(0))));
+        assertThat(groups.get(2)
+                .get(0), is(equalTo(groups.get(1)
+                .get(1))));
+        Wall wall1 = groups.get(0)
+                .get(0);
+        Wall wall2 = groups.get(1)
+                .get(1);
+        Wall wall3 = groups.get(2)
+                .get(1);
+        assertThat(wall1.getNext(), is(equalTo(wall2.getWallId())));
+        assertThat(wall2.getNext(), is(equalTo(wall3.getWallId())));
+        assertThat(wall3.getNext(), is(nullValue()));
+        assertThat(wall2.getOrderKey(), is(greaterThan(wall1.getOrderKey())));
+        assertThat(wall3.getOrderKey(), is(greaterThan(wall2.getOrderKey())));
+    }
+
+    @Test
+    void importCrag_throwsResourceNotFoundException_whenSubAreaDoesNotExist() {
+        when(mockSubAreasDao.getResource(NEW_CRAG.getSubAreaId(), Optional.empty())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> cragImporter.importCrag(buildDocument(buildWalls(1)), Optional.empty()));
+
+        verify(mockCragsDao, never()).saveResource(any());
+    }
+
+    @Test
+    void importCrag_throwsInvalidRequestException_whenCragIsInvalid() {
+        InvalidRequestException invalidRequestException = assertThrows(InvalidRequestException.class,
+                () -> cragImporter.importCrag(buildDocument(NEW_CRAG.toBuilder()
+                        .location(null)
+                        .build(), buildWalls(1)), Optional.empty()));
+
+        assertThat(invalidRequestException.getMessage(), containsString("Crag"));
+        verify(mockCragsDao, never()).saveResource(any());
+    }
+
+    @Test
+    void importCrag_failsImport_whenWallIsInvalid() throws ApiException, IOException {
+        cragImporter = buildCragImporter(1);
+        List<ImportedWall> importedWalls = ImmutableList.of(ImportedWall.builder()
+                .name("Wall 1")
+                .build(), ImportedWall.builder()
+                .name("Wall 2")
+                .routes(ImmutableList.of(ImportedRoute.builder()
+                        .name("Route 1")
+                        .style("invalid")
+                        .build()))
+                .build());
+
+        CragImportFailedException cragImportFailedException = assertThrows(CragImportFailedException.class,
+                () -> cragImporter.importCrag(buildDocument(importedWalls), Optional.empty()));
+
+        assertThat(cragImportFailedException.getHttpStatus(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        CragImportProgress progress = cragImporter.getProgress(captureCragId());
+        assertThat(progress.getStatus(), is(equalTo(CragImportProgress.Status.FAILED)));
+        assertThat(progress.getImportedWallCount(), is(equalTo(1)));
+        assertThat(progress.getFailureMessage(), containsString("Wall 1, route 0"));
+        verify(mockWallsDao, times(1)).saveResources(anyList());
+    }
+
+    @Test
+    void resumeImport_deletesPartlyWrittenGroupAndContinues() throws ApiException, IOException {
+        cragImporter = buildCragImporter(1);
+        doNothing().doThrow(new BatchWriteException("failed"))
+                .doNothing()
+                .when(mockWallsDao)
+                .saveResources(anyList());
+        List<ImportedWall> importedWalls = buildWalls(3);
+
+        CragImportFailedException cragImportFailedException = assertThrows(CragImportFailedException.class,
+                () -> cragImporter.importCrag(buildDocument(importedWalls), Optional.empty()));
+        assertThat(cragImportFailedException.getHttpStatus(), is(equalTo(HttpStatus.INTERNAL_SERVER_ERROR)));
+        String cragId = captureCragId();
+        assertThat(cragImporter.getProgress(cragId)
+                .getImportedWallCount(), is(equalTo(1)));
+        Wall wall1 = captureWalls(2).get(0)
+                .get(0);
+        String partlyWrittenWallId = wall1.getNext();
+        assertThat(savedImports.get(cragId)
+                .getPendingWallIds(), is(equalTo(ImmutableList.of(partlyWrittenWallId))));
+        // the first wall was written again with the next wall before the group failed
+        when(mockWallsDao.getResource(wall1.getWallId(), Optional.empty())).thenReturn(Optional.of(Wall.builder()
+                .wallId(wall1.getWallId())
+                .cragId(cragId)
+                .name(wall1.getName())
+                .first(true)
+                .next(partlyWrittenWallId)
+                .orderKey(wall1.getOrderKey())
+                .build()));
+        when(mockRoutesDao.getResources(partlyWrittenWallId, Optional.empty())).thenReturn(ImmutableSet.of());
+        List<String> savedNextWallIds = new ArrayList<>();
+        doAnswer(invocation -> savedNextWallIds.add(invocation.<Wall>getArgument(0)
+                .getNext())).when(mockWallsDao)
+                .saveResource(any());
+
+        CragImportProgress progress = cragImporter.resumeImport(cragId, buildDocument(importedWalls));
+
+        assertThat(progress.getStatus(), is(equalTo(CragImportProgress.Status.COMPLETE)));
+        assertThat(progress.getImportedWallCount(), is(equalTo(3)));
+        verify(mockRoutesDao).deleteResources(partlyWrittenWallId);
+        verify(mockWallsDao).deleteResource(partlyWrittenWallId);
+        // it's written without a next wall before the wall is read again
+        assertThat(savedNextWallIds, is(equalTo(Collections.singletonList(null))));
+        List<List<Wall>> groups = captureWalls(4);
+        // the wall is read again with a new ID
+        assertThat(groups.get(2)
+                .get(1)
+                .getWallId(), is(not(equalTo(partlyWrittenWallId))));
+        assertThat(groups.get(2)
+                .get(0)
+                .getNext(), is(equalTo(groups.get(2)
+                .get(1)
+                .getWallId())));
+        assertThat(savedImports.get(cragId)
+                .getPendingWallIds(), is(nullValue()));
+        verify(mockCragsDao).saveResource(any());
+    }
+
+    @Test
+    void resumeImport_failsImport_whenDocumentHasFewerWallsThanWereImported() throws ApiException, IOException {
+        cragImporter = buildCragImporter(1);
+        doNothing().doThrow(new BatchWriteException("failed"))
+                .when(mockWallsDao)
+                .saveResources(anyList());
+        assertThrows(CragImportFailedException.class,
+                () -> cragImporter.importCrag(buildDocument(buildWalls(3)), Optional.empty()));
+        String cragId = captureCragId();
+
+        CragImportFailedException cragImportFailedException = assertThrows(CragImportFailedException.class,
+                () -> cragImporter.resumeImport(cragId, buildDocument(buildWalls(0))));
+
+        assertThat(cragImportFailedException.getHttpStatus(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        assertThat(cragImporter.getProgress(cragId)
+                .getStatus(), is(equalTo(CragImportProgress.Status.FAILED)));
+    }
+
+    @Test
+    void resumeImport_resumesImport_whenItsAttemptStoppedSavingProgress() throws ApiException, IOException {
+        long now = System.currentTimeMillis();
+        savedImports.put("crag-1", CragImportRecord.builder()
+                .cragId("crag-1")
+                .status(CragImportProgress.Status.IN_PROGRESS)
+                .attemptStartTimeMillis(now - TimeUnit.MINUTES.toMillis(12))
+                .checkpointTimeMillis(now - TimeUnit.MINUTES.toMillis(11))
+                .version(1L)
+                .build());
+
+        CragImportProgress progress = cragImporter.resumeImport("crag-1", buildDocument(buildWalls(1)));
+
+        assertThat(progress.getStatus(), is(equalTo(CragImportProgress.Status.COMPLETE)));
+        assertThat(progress.getImportedWallCount(), is(equalTo(1)));
+        // the stopped attempt counts up to its last save
+        assertThat(progress.getDurationMillis(), is(greaterThanOrEqualTo(TimeUnit.MINUTES.toMillis(1))));
+    }
+
+    @Test
+    void resumeImport_throwsInvalidRequestException_whenImportIsStillMakingProgress() {
+        savedImports.put("crag-1", CragImportRecord.builder()
+                .cragId("crag-1")
+                .status(CragImportProgress.Status.IN_PROGRESS)
+                .attemptStartTimeMillis(System.currentTimeMillis())
+                .checkpointTimeMillis(System.currentTimeMillis())
+                .version(1L)
+                .build());
+
+        assertThrows(InvalidRequestException.class,
+                () -> cragImporter.resumeImport("crag-1", buildDocument(buildWalls(1))));
+        verify(mockCragImportsDao, never()).saveImport(any());
+    }
+
+    @Test
+    void resumeImport_throwsInvalidRequestException_whenImportIsBeingResumedByAnotherRequest() {
+        savedImports.put("crag-1", CragImportRecord.builder()
+                .cragId("crag-1")
+                .status(CragImportProgress.Status.FAILED)
+                .version(1L)
+                .build());
+        doThrow(new ConditionalCheckFailedException("The version has changed.")).when(mockCragImportsDao)
+                .saveImport(any());
+
+        assertThrows(InvalidRequestException.class,
+                () -> cragImporter.resumeImport("crag-1", buildDocument(buildWalls(1))));
+        verify(mockWallsDao, never()).saveResources(anyList());
+    }
+
+    @Test
+    void resumeImport_throwsInvalidRequestException_whenImportHasNotFailed() throws ApiException, IOException {
+        String cragId = cragImporter.importCrag(buildDocument(buildWalls(1)), Optional.empty())
+                .getCragId();
+
+        assertThrows(InvalidRequestException.class,
+                () -> cragImporter.resumeImport(cragId, buildDocument(buildWalls(1))));
+    }
+
+    @Test
+    void resumeImport_throwsCragImportNotFoundException_whenThereIsNoImport() {
+        assertThrows(CragImportNotFoundException.class,
+                () -> cragImporter.resumeImport("crag-1", buildDocument(buildWalls(1))));
+    }
+
+    @Test
+    void getProgress_throwsCragImportNotFoundException_whenThereIsNoImport() {
+        assertThrows(CragImportNotFoundException.class, () -> cragImporter.getProgress("crag-1"));
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenGroupSizeIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> buildCragImporter(0));
+    }
+
+    private CragImporter buildCragImporter(int groupSize) {
+        // IDs only have to be unique here, and predictable IDs make failures easier to read
+        ResourceIdGenerator resourceIdGenerator = new ResourceIdGenerator() {
+            @Override
+            public String generateResourceId(String prefix) {
+                return "resource-" + ++resourceIdCount;
+            }
+        };
+        return CragImporter.builder()
+                .objectMapper(OBJECT_MAPPER)
+                .validator(Validation.byDefaultProvider()
+                        .configure()
+                        .messageInterpolator(new ParameterMessageInterpolator())
+                        .buildValidatorFactory()
+                        .getValidator())
+                .subAreasDao(mockSubAreasDao)
+                .subAreaNotFoundExceptionFactory(new SubAreaNotFoundExceptionFactory())
+                .cragsDao(mockCragsDao)
+                .wallsDao(mockWallsDao)
+                .routesDao(mockRoutesDao)
+                .pitchesDao(mockPitchesDao)
+                .pointsDao(mockPointsDao)
+                .cragFactory(CragFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .wallFactory(WallFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .routeFactory(RouteFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .pitchFactory(PitchFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .pointFactory(PointFactory.builder()
+                        .resourceIdGenerator(resourceIdGenerator)
+                        .build())
+                .packedPointStore(mockPackedPointStore)
+                .cragImportsDao(mockCragImportsDao)
+                .groupSize(groupSize)
+                .jobRetentionMinutes(60)
+                .staleAttemptMinutes(10)
+                .build();
+    }
+
+    private String captureCragId() {
+        ArgumentCaptor<Crag> cragCaptor = ArgumentCaptor.forClass(Crag.class);
+        verify(mockCragsDao).saveResource(cragCaptor.capture());
+        return cragCaptor.getValue()
+                .getCragId();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Wall>> captureWalls(int groupCount) {
+        ArgumentCaptor<List<Wall>> wallsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockWallsDao, times(groupCount)).saveResources(wallsCaptor.capture());
+        return wallsCaptor.getAllValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Route> captureRoutes() {
+        ArgumentCaptor<List<Route>> routesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockRoutesDao).saveResources(routesCaptor.capture());
+        return routesCaptor.getValue();
+    }
+
+    private static List<ImportedWall> buildWalls(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> ImportedWall.builder()
+                        .name("Wall " + i)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static ImportedPitch buildPitch(int grade, int pointCount) {
+        return ImportedPitch.builder()
+                .description("Pitch description")
+                .grade(grade)
+                .points(IntStream.range(0, pointCount)
+                        .mapToObj(i -> ImportedPoint.builder()
+                                .x((double) i)
+                                .y(1.0)
+                                .z(2.0)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static InputStream buildDocument(List<ImportedWall> importedWalls) throws IOException {
+        return buildDocument(NEW_CRAG, importedWalls);
+    }
+
+    private static InputStream buildDocument(NewCrag newCrag, List<ImportedWall> importedWalls) throws IOException {
+        return new ByteArrayInputStream(
+                OBJECT_MAPPER.writeValueAsBytes(ImmutableMap.of("crag", newCrag, "walls", importedWalls)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.climbassist.api.resource.crag.bulkimport;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CragImportsDaoTest {
+
+    private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
+            .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride("CragImports"))
+            .withConsistentReads(DynamoDBMapperConfig.ConsistentReads.CONSISTENT)
+            .build();
+    private static final CragImportRecord CRAG_IMPORT_RECORD = CragImportRecord.builder()
+            .cragId("crag-1")
+            .status(CragImportProgress.Status.IN_PROGRESS)
+            .importedWallCount(2)
+            .version(3L)
+            .build();
+
+    @Mock
+    private DynamoDBMapper mockDynamoDbMapper;
+
+    private CragImportsDao cragImportsDao;
+
+    @BeforeEach
+    void setUp() {
+        cragImportsDao = CragImportsDao.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(cragImportsDao, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void getImport_returnsImport() {
+        when(mockDynamoDbMapper.load(CragImportRecord.class, "crag-1", DYNAMO_DB_MAPPER_CONFIG)).thenReturn(
+                CRAG_IMPORT_RECORD);
+        assertThat(cragImportsDao.getImport("crag-1"), is(equalTo(Optional.of(CRAG_IMPORT_RECORD))));
+    }
+
+    @Test
+    void getImport_returnsEmpty_whenThereIsNoImport() {
+        when(mockDynamoDbMapper.load(CragImportRecord.class, "crag-1", DYNAMO_DB_MAPPER_CONFIG)).thenReturn(null);
+        assertThat(cragImportsDao.getImport("crag-1"), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void saveImport_savesImport() {
+        cragImportsDao.saveImport(CRAG_IMPORT_RECORD);
+        verify(mockDynamoDbMapper).save(CRAG_IMPORT_RECORD, DYNAMO_DB_MAPPER_CONFIG);
+    }
+}
@@ -0,0 +1,93 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.user.UserData;
+import com.climbassist.common.geo.BoundingBox;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MapControllerTest {
+
+    private static final List<MapMarker> MARKERS = ImmutableList.of(MapMarker.builder()
+            .type(MapMarker.Type.CRAG)
+            .latitude(40.0)
+            .longitude(-105.3)
+            .count(3)
+            .build());
+    private static final UserData ADMINISTRATOR_USER_DATA = UserData.builder()
+            .userId("user-1")
+            .username("administrator")
+            .email("email")
+            .isAdministrator(true)
+            .build();
+
+    @Mock
+    private MapIndex mockMapIndex;
+
+    private MapController mapController;
+
+    @BeforeEach
+    void setUp() {
+        mapController = MapController.builder()
+                .mapIndex(mockMapIndex)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(mapController, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void getMap_returnsMarkersInsideBoundingBox() throws InvalidRequestException {
+        when(mockMapIndex.getMarkers(new BoundingBox(39, 41, -106, -104), 8, false)).thenReturn(MARKERS);
+        assertThat(mapController.getMap(ImmutableList.of(-106.0, 39.0, -104.0, 41.0), 8, Optional.empty()),
+                is(equalTo(MARKERS)));
+    }
+
+    @Test
+    void getMap_returnsAdministratorView_forAdministrators() throws InvalidRequestException {
+        when(mockMapIndex.getMarkers(new BoundingBox(39, 41, -106, -104), 8, true)).thenReturn(MARKERS);
+        assertThat(mapController.getMap(ImmutableList.of(-106.0, 39.0, -104.0, 41.0), 8,
+                Optional.of(ADMINISTRATOR_USER_DATA)), is(equalTo(MARKERS)));
+    }
+
+    @Test
+    void getMap_allowsBoundingBoxCrossingAntimeridian() throws InvalidRequestException {
+        when(mockMapIndex.getMarkers(new BoundingBox(-10, 10, 170, -170), 4, false)).thenReturn(MARKERS);
+        assertThat(mapController.getMap(ImmutableList.of(170.0, -10.0, -170.0, 10.0), 4, Optional.empty()),
+                is(equalTo(MARKERS)));
+    }
+
+    @Test
+    void getMap_throwsInvalidRequestException_whenBoundingBoxIsMalformed() {
+        assertInvalidBoundingBox(ImmutableList.of(-106.0, 39.0, -104.0));
+        assertInvalidBoundingBox(Arrays.asList(-106.0, 39.0, -104.0, null));
+        assertInvalidBoundingBox(ImmutableList.of(-181.0, 39.0, -104.0, 41.0));
+        assertInvalidBoundingBox(ImmutableList.of(-106.0, -91.0, -104.0, 41.0));
+        assertInvalidBoundingBox(ImmutableList.of(-106.0, 41.0, -104.0, 39.0));
+        verifyNoInteractions(mockMapIndex);
+    }
+
+    private void assertInvalidBoundingBox(List<Double> bbox) {
+        assertThrows(InvalidRequestException.class, () -> mapController.getMap(bbox, 8, Optional.empty()));
+    }
+}
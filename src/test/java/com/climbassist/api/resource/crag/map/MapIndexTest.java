@@ -0,0 +1,229 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.Location;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.common.geo.BoundingBox;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MapIndexTest {
+
+    private static final BoundingBox WORLD = new BoundingBox(-90, 90, -180, 180);
+    // the crags are far enough apart to never be clustered together at this zoom level
+    private static final int ZOOM = 10;
+    private static final Crag PUBLIC_CRAG = buildCrag("crag-1", 40.0, -105.3, State.PUBLIC);
+    private static final Crag IN_REVIEW_CRAG = buildCrag("crag-2", 37.7, -119.6, State.IN_REVIEW);
+    private static final Crag NEW_CRAG = buildCrag("crag-3", 45.0, 6.0, State.PUBLIC);
+    private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
+            .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride("Crags"))
+            .build();
+
+    @Mock
+    private DynamoDBMapper mockDynamoDbMapper;
+    @Mock
+    private PaginatedScanList<Crag> mockPaginatedScanList;
+    @Mock
+    private ScheduledExecutorService mockScheduler;
+
+    private MapIndex mapIndex;
+
+    @BeforeEach
+    void setUp() {
+        mapIndex = buildMapIndex(300);
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0)
+                    .run();
+            return null;
+        })
+                .when(mockScheduler)
+                .execute(any());
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(mapIndex, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void builder_schedulesRefresh() {
+        verify(mockScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(0L), eq(300L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenRefreshIntervalIsLessThanOneSecond() {
+        assertThrows(IllegalArgumentException.class, () -> buildMapIndex(0));
+    }
+
+    @Test
+    void getMarkers_returnsNoMarkers_beforeTableIsScanned() {
+        assertThat(mapIndex.getMarkers(WORLD, ZOOM, true), is(empty()));
+        verifyNoInteractions(mockDynamoDbMapper);
+    }
+
+    @Test
+    void getMarkers_returnsPublicCrags_withoutScanningTable() {
+        stubScan();
+        mapIndex.refresh();
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, false)), is(equalTo(ImmutableList.of("crag-1"))));
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, false)), is(equalTo(ImmutableList.of("crag-1"))));
+        verify(mockDynamoDbMapper).scan(eq(Crag.class), any(DynamoDBScanExpression.class),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+    }
+
+    @Test
+    void getMarkers_returnsCragsInReview_forAdministrators() {
+        stubScan();
+        mapIndex.refresh();
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, true)), containsInAnyOrder("crag-1", "crag-2"));
+    }
+
+    @Test
+    void refresh_replacesCrags() {
+        stubScan();
+        mapIndex.refresh();
+        when(mockPaginatedScanList.stream()).thenAnswer(invocation -> ImmutableList.of(NEW_CRAG)
+                .stream());
+        mapIndex.refresh();
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, true)), is(equalTo(ImmutableList.of("crag-3"))));
+    }
+
+    @Test
+    void refresh_keepsCragsWrittenDuringScan() {
+        stubScan();
+        mapIndex.refresh();
+        when(mockPaginatedScanList.stream()).thenAnswer(invocation -> {
+            mapIndex.onResourceSaved(NEW_CRAG);
+            mapIndex.onResourceDeleted(IN_REVIEW_CRAG.getCragId());
+            return ImmutableList.of(PUBLIC_CRAG, IN_REVIEW_CRAG)
+                    .stream();
+        });
+        mapIndex.refresh();
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, true)), containsInAnyOrder("crag-1", "crag-3"));
+    }
+
+    @Test
+    void refresh_keepsMarkers_whenScanFails() {
+        stubScan();
+        mapIndex.refresh();
+        when(mockPaginatedScanList.stream()).thenThrow(new AmazonClientException("failure"));
+        mapIndex.refresh();
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, false)), is(equalTo(ImmutableList.of("crag-1"))));
+    }
+
+    @Test
+    void onResourceSaved_addsCrag_withoutScanningTableAgain() {
+        stubScan();
+        mapIndex.refresh();
+        mapIndex.onResourceSaved(NEW_CRAG);
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, false)), containsInAnyOrder("crag-1", "crag-3"));
+        verify(mockDynamoDbMapper).scan(eq(Crag.class), any(DynamoDBScanExpression.class),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+    }
+
+    @Test
+    void onResourceSaved_updatesCrag() {
+        stubScan();
+        mapIndex.refresh();
+        mapIndex.onResourceSaved(IN_REVIEW_CRAG.toBuilder()
+                .state(State.PUBLIC.toString())
+                .build());
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, false)), containsInAnyOrder("crag-1", "crag-2"));
+    }
+
+    @Test
+    void onResourceSaved_doesNothing_beforeTableIsScanned() {
+        mapIndex.onResourceSaved(NEW_CRAG);
+        verifyNoInteractions(mockDynamoDbMapper);
+        verify(mockScheduler, never()).execute(any());
+    }
+
+    @Test
+    void onResourceSaved_ignoresResourcesOtherThanCrags() {
+        stubScan();
+        mapIndex.refresh();
+        mapIndex.onResourceSaved(Wall.builder()
+                .wallId("wall-1")
+                .cragId(PUBLIC_CRAG.getCragId())
+                .build());
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, false)), is(equalTo(ImmutableList.of("crag-1"))));
+        verify(mockScheduler, never()).execute(any());
+    }
+
+    @Test
+    void onResourceDeleted_removesCrag() {
+        stubScan();
+        mapIndex.refresh();
+        mapIndex.onResourceDeleted(PUBLIC_CRAG.getCragId());
+        assertThat(getCragIds(mapIndex.getMarkers(WORLD, ZOOM, true)), is(equalTo(ImmutableList.of("crag-2"))));
+    }
+
+    private MapIndex buildMapIndex(long refreshIntervalSeconds) {
+        return MapIndex.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .scheduler(mockScheduler)
+                .refreshIntervalSeconds(refreshIntervalSeconds)
+                .build();
+    }
+
+    private void stubScan() {
+        when(mockDynamoDbMapper.scan(eq(Crag.class), any(DynamoDBScanExpression.class),
+                eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(mockPaginatedScanList);
+        when(mockPaginatedScanList.stream()).thenAnswer(invocation -> ImmutableList.of(PUBLIC_CRAG, IN_REVIEW_CRAG)
+                .stream());
+    }
+
+    private static List<String> getCragIds(List<MapMarker> markers) {
+        return markers.stream()
+                .map(MapMarker::getCragId)
+                .collect(Collectors.toList());
+    }
+
+    private static Crag buildCrag(String cragId, double latitude, double longitude, State state) {
+        return Crag.builder()
+                .cragId(cragId)
+                .subAreaId("sub-area-1")
+                .name(cragId)
+                .state(state.toString())
+                .location(Location.builder()
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .zoom(15.0)
+                        .build())
+                .build();
+    }
+}
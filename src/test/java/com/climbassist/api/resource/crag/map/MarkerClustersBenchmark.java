@@ -0,0 +1,163 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.Location;
+import com.climbassist.api.resource.crag.Parking;
+import com.climbassist.common.geo.BoundingBox;
+import com.climbassist.common.geo.WebMercator;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long it takes to build {@link MarkerClusters} and to query a map viewport as the number of crags grows,
+ * next to a linear scan over every crag location that finds the same viewport without clustering. This isn't run as
+ * part of the tests; run its main method from the test classpath, optionally passing the crag counts to measure.
+ *
+ * <p>Crags are generated around a few hundred climbing areas so that they cluster like real ones, and each query is a
+ * 1280 by 800 pixel viewport centered on a random crag at a random zoom level between 0 and 20.
+ */
+public class MarkerClustersBenchmark {
+
+    private static final int[] DEFAULT_CRAG_COUNTS = {1_000, 10_000, 100_000};
+    private static final int AREA_COUNT = 300;
+    private static final int WARM_UP_QUERY_COUNT = 20_000;
+    private static final int QUERY_COUNT = 20_000;
+    private static final int VIEWPORT_WIDTH_PIXELS = 1280;
+    private static final int VIEWPORT_HEIGHT_PIXELS = 800;
+    private static final int TILE_SIZE_PIXELS = 256;
+    private static final int MAX_QUERY_ZOOM = 20;
+
+    public static void main(String[] args) {
+        int[] cragCounts = args.length == 0 ? DEFAULT_CRAG_COUNTS : Arrays.stream(args)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        System.out.printf("%10s %10s %14s %14s %14s %14s%n", "crags", "build ms", "query p50 us", "query p99 us",
+                "markers/query", "scan p50 us");
+        for (int cragCount : cragCounts) {
+            run(cragCount);
+        }
+    }
+
+    private static void run(int cragCount) {
+        Random random = new Random(cragCount);
+        List<Crag> crags = generateCrags(cragCount, random);
+
+        long buildStartTime = System.nanoTime();
+        MarkerClusters markerClusters = MarkerClusters.build(crags);
+        long buildMillis = (System.nanoTime() - buildStartTime) / 1_000_000;
+
+        double[] cragLatitudes = crags.stream()
+                .mapToDouble(crag -> crag.getLocation()
+                        .getLatitude())
+                .toArray();
+        double[] cragLongitudes = crags.stream()
+                .mapToDouble(crag -> crag.getLocation()
+                        .getLongitude())
+                .toArray();
+
+        long markerCount = 0;
+        for (int i = 0; i < WARM_UP_QUERY_COUNT; i++) {
+            Viewport viewport = Viewport.random(crags, random);
+            markerCount += markerClusters.getMarkers(viewport.boundingBox, viewport.zoom)
+                    .size();
+            markerCount += scan(cragLatitudes, cragLongitudes, viewport.boundingBox);
+        }
+
+        long[] queryNanos = new long[QUERY_COUNT];
+        long[] scanNanos = new long[QUERY_COUNT];
+        markerCount = 0;
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            Viewport viewport = Viewport.random(crags, random);
+            long queryStartTime = System.nanoTime();
+            markerCount += markerClusters.getMarkers(viewport.boundingBox, viewport.zoom)
+                    .size();
+            queryNanos[i] = System.nanoTime() - queryStartTime;
+            long scanStartTime = System.nanoTime();
+            scan(cragLatitudes, cragLongitudes, viewport.boundingBox);
+            scanNanos[i] = System.nanoTime() - scanStartTime;
+        }
+        Arrays.sort(queryNanos);
+        Arrays.sort(scanNanos);
+        System.out.printf("%10d %10d %14.1f %14.1f %14.1f %14.1f%n", cragCount, buildMillis,
+                percentile(queryNanos, 0.5) / 1000.0, percentile(queryNanos, 0.99) / 1000.0,
+                (double) markerCount / QUERY_COUNT, percentile(scanNanos, 0.5) / 1000.0);
+    }
+
+    private static List<Crag> generateCrags(int cragCount, Random random) {
+        double[][] areas = new double[AREA_COUNT][];
+        for (int i = 0; i < AREA_COUNT; i++) {
+            areas[i] = new double[]{random.nextDouble() * 120 - 60, random.nextDouble() * 360 - 180};
+        }
+        List<Crag> crags = new ArrayList<>(cragCount);
+        for (int i = 0; i < cragCount; i++) {
+            double[] area = areas[random.nextInt(AREA_COUNT)];
+            double latitude = Math.max(-80, Math.min(80, area[0] + random.nextGaussian() * 0.3));
+            double longitude = Math.max(-180, Math.min(180, area[1] + random.nextGaussian() * 0.3));
+            Crag.CragBuilder crag = Crag.builder()
+                    .cragId("crag-" + i)
+                    .subAreaId("sub-area-1")
+                    .name("Crag " + i)
+                    .state(State.PUBLIC.toString())
+                    .location(Location.builder()
+                            .latitude(latitude)
+                            .longitude(longitude)
+                            .zoom(15.0)
+                            .build());
+            if (random.nextBoolean()) {
+                crag.parking(ImmutableSet.of(Parking.builder()
+                        .latitude(latitude + 0.005)
+                        .longitude(longitude + 0.005)
+                        .build()));
+            }
+            crags.add(crag.build());
+        }
+        return crags;
+    }
+
+    private static int scan(double[] latitudes, double[] longitudes, BoundingBox boundingBox) {
+        int count = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            if (latitudes[i] >= boundingBox.getMinLatitude() && latitudes[i] <= boundingBox.getMaxLatitude() &&
+                    longitudes[i] >= boundingBox.getMinLongitude() && longitudes[i] <= boundingBox.getMaxLongitude()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        return sortedValues[(int) Math.min(sortedValues.length - 1, Math.floor(sortedValues.length * percentile))];
+    }
+
+    private static class Viewport {
+
+        private final BoundingBox boundingBox;
+        private final int zoom;
+
+        private Viewport(BoundingBox boundingBox, int zoom) {
+            this.boundingBox = boundingBox;
+            this.zoom = zoom;
+        }
+
+        private static Viewport random(List<Crag> crags, Random random) {
+            Location center = crags.get(random.nextInt(crags.size()))
+                    .getLocation();
+            int zoom = random.nextInt(MAX_QUERY_ZOOM + 1);
+            double worldSizePixels = (double) TILE_SIZE_PIXELS * (1L << zoom);
+            double halfWidth = Math.min(0.5, VIEWPORT_WIDTH_PIXELS / 2.0 / worldSizePixels);
+            double halfHeight = Math.min(0.5, VIEWPORT_HEIGHT_PIXELS / 2.0 / worldSizePixels);
+            double centerX = WebMercator.toX(center.getLongitude());
+            double centerY = WebMercator.toY(center.getLatitude());
+            // the benchmark doesn't need viewports that cross the antimeridian, so they're clamped to the map
+            return new Viewport(new BoundingBox(WebMercator.toLatitude(Math.min(1, centerY + halfHeight)),
+                    WebMercator.toLatitude(Math.max(0, centerY - halfHeight)),
+                    WebMercator.toLongitude(Math.max(0, centerX - halfWidth)),
+                    WebMercator.toLongitude(Math.min(1, centerX + halfWidth))), zoom);
+        }
+    }
+}
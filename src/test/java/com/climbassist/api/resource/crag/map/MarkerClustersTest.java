@@ -0,0 +1,181 @@
+package com.climbassist.api.resource.crag.map;
+
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.Location;
+import com.climbassist.api.resource.crag.Parking;
+import com.climbassist.common.geo.BoundingBox;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MarkerClustersTest {
+
+    private static final BoundingBox WORLD = new BoundingBox(-90, 90, -180, 180);
+    // about a kilometer apart
+    private static final Crag CRAG_1 = buildCrag("crag-1", 40.0, -105.3);
+    private static final Crag CRAG_2 = buildCrag("crag-2", 40.01, -105.3);
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testAllPublicStaticMethods(MarkerClusters.class);
+        new NullPointerTester().testInstanceMethods(MarkerClusters.build(ImmutableList.of(CRAG_1)),
+                NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void getMarkers_returnsSingleCragAtItsLocation_atEveryZoom() {
+        MarkerClusters markerClusters = MarkerClusters.build(ImmutableList.of(CRAG_1));
+        MapMarker expectedMarker = buildCragMarker(CRAG_1);
+        for (int zoom = 0; zoom <= 25; zoom++) {
+            assertThat(markerClusters.getMarkers(WORLD, zoom), is(equalTo(ImmutableList.of(expectedMarker))));
+        }
+    }
+
+    @Test
+    void getMarkers_clustersNearbyCrags_atLowZoom() {
+        MarkerClusters markerClusters = MarkerClusters.build(ImmutableList.of(CRAG_1, CRAG_2));
+        List<MapMarker> markers = markerClusters.getMarkers(WORLD, 5);
+        assertThat(markers.size(), is(equalTo(1)));
+        MapMarker cluster = markers.get(0);
+        assertThat(cluster.getType(), is(equalTo(MapMarker.Type.CRAG)));
+        assertThat(cluster.getCount(), is(equalTo(2)));
+        assertThat(cluster.getCragId(), is(nullValue()));
+        assertThat(cluster.getLatitude(), is(closeTo(40.005, 1e-3)));
+        assertThat(cluster.getLongitude(), is(closeTo(-105.3, 1e-9)));
+    }
+
+    @Test
+    void getMarkers_separatesNearbyCrags_atHighZoom() {
+        MarkerClusters markerClusters = MarkerClusters.build(ImmutableList.of(CRAG_1, CRAG_2));
+        assertThat(markerClusters.getMarkers(WORLD, 16),
+                containsInAnyOrder(buildCragMarker(CRAG_1), buildCragMarker(CRAG_2)));
+        assertThat(markerClusters.getMarkers(WORLD, 20),
+                containsInAnyOrder(buildCragMarker(CRAG_1), buildCragMarker(CRAG_2)));
+    }
+
+    @Test
+    void getMarkers_clustersParkingSeparatelyFromCrags() {
+        Crag crag = CRAG_1.toBuilder()
+                .parking(ImmutableSet.of(Parking.builder()
+                        .latitude(40.001)
+                        .longitude(-105.301)
+                        .build(), Parking.builder()
+                        .latitude(40.002)
+                        .longitude(-105.302)
+                        .build()))
+                .build();
+        List<MapMarker> markers = MarkerClusters.build(ImmutableList.of(crag))
+                .getMarkers(WORLD, 3)
+                .stream()
+                .sorted(Comparator.comparing(MapMarker::getType))
+                .collect(Collectors.toList());
+        assertThat(markers.size(), is(equalTo(2)));
+        assertThat(markers.get(0), is(equalTo(buildCragMarker(crag))));
+        assertThat(markers.get(1)
+                .getType(), is(equalTo(MapMarker.Type.PARKING)));
+        assertThat(markers.get(1)
+                .getCount(), is(equalTo(2)));
+    }
+
+    @Test
+    void getMarkers_returnsParkingOfCragWithoutLocation() {
+        Crag crag = CRAG_1.toBuilder()
+                .location(null)
+                .parking(ImmutableSet.of(Parking.builder()
+                        .latitude(40.001)
+                        .longitude(-105.301)
+                        .build()))
+                .build();
+        assertThat(MarkerClusters.build(ImmutableList.of(crag))
+                .getMarkers(WORLD, 20), is(equalTo(ImmutableList.of(MapMarker.builder()
+                .type(MapMarker.Type.PARKING)
+                .latitude(40.001)
+                .longitude(-105.301)
+                .count(1)
+                .cragId(crag.getCragId())
+                .build()))));
+    }
+
+    @Test
+    void getMarkers_keepsEveryCragInTheClusterCounts() {
+        ImmutableList.Builder<Crag> crags = ImmutableList.builder();
+        for (int i = 0; i < 500; i++) {
+            crags.add(buildCrag("crag-" + i, -60 + (i * 7919 % 120), -170 + (i * 104729 % 340)));
+        }
+        MarkerClusters markerClusters = MarkerClusters.build(crags.build());
+        for (int zoom = 0; zoom <= 17; zoom++) {
+            assertThat(markerClusters.getMarkers(WORLD, zoom)
+                    .stream()
+                    .mapToInt(MapMarker::getCount)
+                    .sum(), is(equalTo(500)));
+        }
+    }
+
+    @Test
+    void getMarkers_onlyReturnsMarkersInsideBoundingBox() {
+        Crag europeanCrag = buildCrag("crag-3", 45.0, 6.0);
+        MarkerClusters markerClusters = MarkerClusters.build(ImmutableList.of(CRAG_1, europeanCrag));
+        assertThat(markerClusters.getMarkers(new BoundingBox(40, 50, 0, 10), 10),
+                is(equalTo(ImmutableList.of(buildCragMarker(europeanCrag)))));
+        assertThat(markerClusters.getMarkers(new BoundingBox(-10, 10, 0, 10), 10), is(empty()));
+    }
+
+    @Test
+    void getMarkers_returnsMarkersOnBothSidesOfAntimeridian_whenBoundingBoxCrossesIt() {
+        Crag westernCrag = buildCrag("crag-3", 0, 179.5);
+        Crag easternCrag = buildCrag("crag-4", 0, -179.5);
+        MarkerClusters markerClusters = MarkerClusters.build(ImmutableList.of(westernCrag, easternCrag));
+        assertThat(markerClusters.getMarkers(new BoundingBox(-1, 1, 179, -179), 10),
+                containsInAnyOrder(buildCragMarker(westernCrag), buildCragMarker(easternCrag)));
+        assertThat(markerClusters.getMarkers(new BoundingBox(-1, 1, -179, 179), 10), is(empty()));
+    }
+
+    @Test
+    void getMarkers_throwsIllegalArgumentException_whenZoomIsNegative() {
+        MarkerClusters markerClusters = MarkerClusters.build(ImmutableList.of(CRAG_1));
+        assertThrows(IllegalArgumentException.class, () -> markerClusters.getMarkers(WORLD, -1));
+    }
+
+    private static Crag buildCrag(String cragId, double latitude, double longitude) {
+        return Crag.builder()
+                .cragId(cragId)
+                .subAreaId("sub-area-1")
+                .name(cragId)
+                .state(State.PUBLIC.toString())
+                .location(Location.builder()
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .zoom(15.0)
+                        .build())
+                .build();
+    }
+
+    private static MapMarker buildCragMarker(Crag crag) {
+        return MapMarker.builder()
+                .type(MapMarker.Type.CRAG)
+                .latitude(crag.getLocation()
+                        .getLatitude())
+                .longitude(crag.getLocation()
+                        .getLongitude())
+                .count(1)
+                .cragId(crag.getCragId())
+                .name(crag.getName())
+                .build();
+    }
+}
@@ -0,0 +1,334 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.crag.Location;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.api.user.UserData;
+import com.climbassist.common.geo.Geohash;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CragLocationIndexTest {
+
+    private static final double LATITUDE = 40.0;
+    private static final double LONGITUDE = -105.0;
+    private static final double RADIUS_KILOMETERS = 20.0;
+    // roughly 1.1 kilometers away
+    private static final Crag NEAR_CRAG = buildCrag("crag-1", 40.01, State.PUBLIC);
+    // roughly 2.2 kilometers away
+    private static final Crag IN_REVIEW_CRAG = buildCrag("crag-2", 40.02, State.IN_REVIEW);
+    // roughly 11 kilometers away
+    private static final Crag FAR_CRAG = buildCrag("crag-3", 40.1, State.PUBLIC);
+    // roughly 33 kilometers away, which is outside of the radius
+    private static final Crag OUTSIDE_CRAG = buildCrag("crag-4", 40.3, State.PUBLIC);
+    private static final List<CragLocationEntry> ENTRIES =
+            ImmutableList.of(NEAR_CRAG, IN_REVIEW_CRAG, FAR_CRAG, OUTSIDE_CRAG)
+                    .stream()
+                    .flatMap(crag -> buildEntries(crag).stream())
+                    .collect(Collectors.toList());
+    private static final UserData USER_DATA = UserData.builder()
+            .userId("user-1")
+            .username("username")
+            .email("email")
+            .isAdministrator(false)
+            .build();
+    private static final UserData ADMINISTRATOR_USER_DATA = UserData.builder()
+            .userId("user-2")
+            .username("administrator")
+            .email("email")
+            .isAdministrator(true)
+            .build();
+    private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
+            .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride("CragLocationIndex"))
+            .build();
+    private static final DynamoDBMapperConfig CRAGS_DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
+            .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride("Crags"))
+            .build();
+
+    @Mock
+    private DynamoDBMapper mockDynamoDbMapper;
+    @Mock
+    private PaginatedQueryList<CragLocationEntry> mockPaginatedQueryList;
+
+    private CragLocationIndex cragLocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        cragLocationIndex = CragLocationIndex.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .cragsDynamoDBMapperConfig(CRAGS_DYNAMO_DB_MAPPER_CONFIG)
+                .executor(MoreExecutors.directExecutor())
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(cragLocationIndex, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void search_returnsPublicCragsWithinTheRadius_nearestFirst() throws InvalidRequestException {
+        stubCellQueries();
+        NearbyCragsResult nearbyCragsResult =
+                cragLocationIndex.search(LATITUDE, LONGITUDE, RADIUS_KILOMETERS, 25, null, Optional.of(USER_DATA));
+        assertThat(getCrags(nearbyCragsResult), is(equalTo(ImmutableList.of(NEAR_CRAG, FAR_CRAG))));
+        assertThat(nearbyCragsResult.getNextToken(), is(nullValue()));
+        verify(mockDynamoDbMapper, atMost(CragLocationIndex.MAX_COVERING_CELLS)).queryPage(
+                eq(CragLocationEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG));
+    }
+
+    @Test
+    void search_returnsCragsInReview_forAdministrators() throws InvalidRequestException {
+        stubCellQueries();
+        NearbyCragsResult nearbyCragsResult =
+                cragLocationIndex.search(LATITUDE, LONGITUDE, RADIUS_KILOMETERS, 25, null,
+                        Optional.of(ADMINISTRATOR_USER_DATA));
+        assertThat(getCrags(nearbyCragsResult), is(equalTo(ImmutableList.of(NEAR_CRAG, IN_REVIEW_CRAG, FAR_CRAG))));
+    }
+
+    @Test
+    void search_computesTheDistanceToEachCrag() throws InvalidRequestException {
+        stubCellQueries();
+        NearbyCragsResult nearbyCragsResult =
+                cragLocationIndex.search(LATITUDE, LONGITUDE, RADIUS_KILOMETERS, 1, null, Optional.empty());
+        assertThat(Math.round(nearbyCragsResult.getCrags()
+                .get(0)
+                .getDistance() * 100) / 100.0, is(equalTo(1.11)));
+    }
+
+    @Test
+    void search_paginatesWithNextToken() throws InvalidRequestException {
+        stubCellQueries();
+        NearbyCragsResult firstPage =
+                cragLocationIndex.search(LATITUDE, LONGITUDE, RADIUS_KILOMETERS, 1, null, Optional.empty());
+        assertThat(getCrags(firstPage), is(equalTo(ImmutableList.of(NEAR_CRAG))));
+        assertThat(firstPage.getNextToken(), is(notNullValue()));
+
+        NearbyCragsResult secondPage =
+                cragLocationIndex.search(LATITUDE, LONGITUDE, RADIUS_KILOMETERS, 1, firstPage.getNextToken(),
+                        Optional.empty());
+        assertThat(getCrags(secondPage), is(equalTo(ImmutableList.of(FAR_CRAG))));
+        assertThat(secondPage.getNextToken(), is(nullValue()));
+    }
+
+    @Test
+    void search_throwsInvalidRequestException_whenNextTokenIsMalformed() {
+        assertThrows(InvalidRequestException.class,
+                () -> cragLocationIndex.search(LATITUDE, LONGITUDE, RADIUS_KILOMETERS, 25, "not a token!",
+                        Optional.empty()));
+        verifyNoInteractions(mockDynamoDbMapper);
+    }
+
+    @Test
+    void onResourceSaved_writesEntryAtEachPrecision_andDeletesStaleEntries() {
+        CragLocationEntry staleEntryKey = CragLocationEntry.builder()
+                .geohash("c2b")
+                .cragId(NEAR_CRAG.getCragId())
+                .build();
+        CragLocationEntry currentEntryKey = CragLocationEntry.builder()
+                .geohash(Geohash.encode(40.01, LONGITUDE, 2))
+                .cragId(NEAR_CRAG.getCragId())
+                .build();
+        stubEntryKeys(ImmutableList.of(staleEntryKey, currentEntryKey));
+        cragLocationIndex.onResourceSaved(NEAR_CRAG);
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(NEAR_CRAG), ImmutableList.of(staleEntryKey),
+                DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_deletesEntries_whenCragHasNoLocation() {
+        List<CragLocationEntry> entryKeys = buildEntryKeys(NEAR_CRAG);
+        stubEntryKeys(entryKeys);
+        cragLocationIndex.onResourceSaved(NEAR_CRAG.toBuilder()
+                .location(null)
+                .build());
+        verify(mockDynamoDbMapper).batchWrite(ImmutableList.of(), entryKeys, DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_doesNothing_forResourcesOtherThanCrags() {
+        cragLocationIndex.onResourceSaved(Wall.builder()
+                .wallId("wall-1")
+                .cragId(NEAR_CRAG.getCragId())
+                .build());
+        verifyNoInteractions(mockDynamoDbMapper);
+    }
+
+    @Test
+    void onResourceSaved_doesNotThrow_whenWriteFails() {
+        stubEntryKeys(ImmutableList.of());
+        when(mockDynamoDbMapper.batchWrite(ArgumentMatchers.<List<CragLocationEntry>>any(),
+                ArgumentMatchers.<List<CragLocationEntry>>any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenThrow(
+                new AmazonClientException("failure"));
+        cragLocationIndex.onResourceSaved(NEAR_CRAG);
+    }
+
+    @Test
+    void backfill_writesEntriesOfPage_andReturnsWhereToContinue() {
+        CragLocationEntry staleEntryKey = CragLocationEntry.builder()
+                .geohash("c2b")
+                .cragId(NEAR_CRAG.getCragId())
+                .build();
+        when(mockDynamoDbMapper.query(eq(CragLocationEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+        when(mockPaginatedQueryList.stream()).thenReturn(Stream.of(staleEntryKey), Stream.empty());
+        stubCragsPage(ImmutableList.of(NEAR_CRAG, FAR_CRAG), FAR_CRAG.getCragId());
+
+        assertThat(cragLocationIndex.backfill("crag-0", 2), is(equalTo(CragLocationBackfillResult.builder()
+                .indexedCragCount(2)
+                .nextStartAfter(FAR_CRAG.getCragId())
+                .build())));
+        verify(mockDynamoDbMapper).scanPage(eq(Crag.class), argThat(
+                dynamoDBScanExpression -> dynamoDBScanExpression.getLimit() == 2 &&
+                        dynamoDBScanExpression.getExclusiveStartKey()
+                                .equals(ImmutableMap.of("cragId", new AttributeValue("crag-0")))),
+                eq(CRAGS_DYNAMO_DB_MAPPER_CONFIG));
+        verify(mockDynamoDbMapper).batchWrite(Stream.concat(buildEntries(NEAR_CRAG).stream(), buildEntries(FAR_CRAG)
+                .stream())
+                .collect(Collectors.toList()), ImmutableList.of(staleEntryKey), DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void backfill_startsFromTheBeginning_andReturnsNoNextStartAfter_onLastPage() {
+        stubEntryKeys(ImmutableList.of());
+        stubCragsPage(ImmutableList.of(NEAR_CRAG), null);
+
+        assertThat(cragLocationIndex.backfill(null, 100), is(equalTo(CragLocationBackfillResult.builder()
+                .indexedCragCount(1)
+                .build())));
+        verify(mockDynamoDbMapper).scanPage(eq(Crag.class),
+                argThat(dynamoDBScanExpression -> dynamoDBScanExpression.getExclusiveStartKey() == null),
+                eq(CRAGS_DYNAMO_DB_MAPPER_CONFIG));
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(NEAR_CRAG), ImmutableList.of(), DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceDeleted_deletesEntries() {
+        List<CragLocationEntry> entryKeys = buildEntryKeys(NEAR_CRAG);
+        stubEntryKeys(entryKeys);
+        cragLocationIndex.onResourceDeleted(NEAR_CRAG.getCragId());
+        verify(mockDynamoDbMapper).batchWrite(ImmutableList.of(), entryKeys, DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceDeleted_doesNotWrite_whenCragHasNoEntries() {
+        stubEntryKeys(ImmutableList.of());
+        cragLocationIndex.onResourceDeleted(NEAR_CRAG.getCragId());
+        verify(mockDynamoDbMapper, atMost(0)).batchWrite(ArgumentMatchers.<List<CragLocationEntry>>any(),
+                ArgumentMatchers.<List<CragLocationEntry>>any(), any());
+    }
+
+    // answers each cell query with the entries stored under that cell, the way the table would
+    @SuppressWarnings("unchecked")
+    private void stubCellQueries() {
+        when(mockDynamoDbMapper.queryPage(eq(CragLocationEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenAnswer(
+                invocation -> {
+                    String geohash = ((DynamoDBQueryExpression<CragLocationEntry>) invocation.getArgument(1))
+                            .getHashKeyValues()
+                            .getGeohash();
+                    QueryResultPage<CragLocationEntry> queryResultPage = new QueryResultPage<>();
+                    queryResultPage.setResults(ENTRIES.stream()
+                            .filter(entry -> entry.getGeohash()
+                                    .equals(geohash))
+                            .collect(Collectors.toList()));
+                    return queryResultPage;
+                });
+    }
+
+    private void stubEntryKeys(List<CragLocationEntry> entryKeys) {
+        when(mockDynamoDbMapper.query(eq(CragLocationEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+        when(mockPaginatedQueryList.stream()).thenReturn(entryKeys.stream());
+    }
+
+    private void stubCragsPage(List<Crag> crags, String lastCragId) {
+        ScanResultPage<Crag> scanResultPage = new ScanResultPage<>();
+        scanResultPage.setResults(crags);
+        if (lastCragId != null) {
+            scanResultPage.setLastEvaluatedKey(ImmutableMap.of("cragId", new AttributeValue(lastCragId)));
+        }
+        when(mockDynamoDbMapper.scanPage(eq(Crag.class), any(), eq(CRAGS_DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                scanResultPage);
+    }
+
+    private static List<Crag> getCrags(NearbyCragsResult nearbyCragsResult) {
+        return nearbyCragsResult.getCrags()
+                .stream()
+                .map(NearbyCrag::getCrag)
+                .collect(Collectors.toList());
+    }
+
+    private static Crag buildCrag(String cragId, double latitude, State state) {
+        return Crag.builder()
+                .cragId(cragId)
+                .subAreaId("sub-area-1")
+                .name(cragId)
+                .state(state.toString())
+                .location(Location.builder()
+                        .latitude(latitude)
+                        .longitude(LONGITUDE)
+                        .zoom(15.0)
+                        .build())
+                .build();
+    }
+
+    private static List<CragLocationEntry> buildEntries(Crag crag) {
+        return CragLocationIndex.PRECISIONS.stream()
+                .map(precision -> CragLocationEntry.fromCrag(crag)
+                        .toBuilder()
+                        .geohash(Geohash.encode(crag.getLocation()
+                                .getLatitude(), crag.getLocation()
+                                .getLongitude(), precision))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<CragLocationEntry> buildEntryKeys(Crag crag) {
+        return buildEntries(crag).stream()
+                .map(entry -> CragLocationEntry.builder()
+                        .geohash(entry.getGeohash())
+                        .cragId(entry.getCragId())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
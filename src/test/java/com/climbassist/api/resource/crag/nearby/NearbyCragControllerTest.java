@@ -0,0 +1,71 @@
+package com.climbassist.api.resource.crag.nearby;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.crag.Crag;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NearbyCragControllerTest {
+
+    private static final String NEXT_TOKEN = "next-token";
+    private static final NearbyCragsResult NEARBY_CRAGS_RESULT = NearbyCragsResult.builder()
+            .crags(ImmutableList.of(NearbyCrag.builder()
+                    .crag(Crag.builder()
+                            .cragId("crag-1")
+                            .subAreaId("sub-area-1")
+                            .name("Crag 1")
+                            .build())
+                    .distance(1.5)
+                    .build()))
+            .nextToken("another-next-token")
+            .build();
+
+    @Mock
+    private CragLocationIndex mockCragLocationIndex;
+
+    private NearbyCragController nearbyCragController;
+
+    @BeforeEach
+    void setUp() {
+        nearbyCragController = NearbyCragController.builder()
+                .cragLocationIndex(mockCragLocationIndex)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(nearbyCragController, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void listNearbyCrags_searchesCragLocationIndex() throws InvalidRequestException {
+        when(mockCragLocationIndex.search(40.0, -105.0, 10.0, 25, NEXT_TOKEN, Optional.empty())).thenReturn(
+                NEARBY_CRAGS_RESULT);
+        assertThat(nearbyCragController.listNearbyCrags(40.0, -105.0, 10.0, 25, NEXT_TOKEN, Optional.empty()),
+                is(equalTo(NEARBY_CRAGS_RESULT)));
+    }
+
+    @Test
+    void backfillNearbyCrags_backfillsCragLocationIndex() {
+        CragLocationBackfillResult cragLocationBackfillResult = CragLocationBackfillResult.builder()
+                .indexedCragCount(25)
+                .nextStartAfter("crag-25")
+                .build();
+        when(mockCragLocationIndex.backfill("crag-0", 25)).thenReturn(cragLocationBackfillResult);
+        assertThat(nearbyCragController.backfillNearbyCrags("crag-0", 25), is(equalTo(cragLocationBackfillResult)));
+    }
+}
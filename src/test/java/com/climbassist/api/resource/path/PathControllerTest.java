@@ -7,6 +7,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.crag.Crag;
 import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableSet;
@@ -83,9 +84,13 @@ class PathControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(PATH_1);
-        assertThat(pathController.getResource(PATH_1.getPathId(), DEPTH, MAYBE_USER_DATA), is(equalTo(PATH_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(PATH_1.getPathId(), DEPTH, MAYBE_USER_DATA);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(PATH_1.getPathId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
+        assertThat(pathController.getResource(PATH_1.getPathId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(PATH_1.getPathId(), DEPTH,
+                MAYBE_USER_DATA);
     }
 
     @Test
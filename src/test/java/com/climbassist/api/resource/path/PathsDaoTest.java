@@ -31,6 +31,8 @@ class PathsDaoTest extends AbstractResourceWithParentDaoTest<Path, Crag, PathsDa
         return PathsDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
@@ -6,10 +6,12 @@ import com.climbassist.api.resource.common.ResourceControllerDelegate;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.batch.BatchDeleteResourcesResult;
 import com.climbassist.api.resource.common.batch.BatchResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
 import com.climbassist.api.resource.path.Path;
 import com.climbassist.api.user.UserData;
+import com.climbassist.common.geo.GeoPoint;
 import com.google.common.collect.ImmutableList;
 import com.google.common.testing.NullPointerTester;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,15 +21,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -80,6 +86,11 @@ class PathPointControllerTest {
     private static final DeleteResourceResult DELETE_RESOURCE_RESULT = DeleteResourceResult.builder()
             .successful(true)
             .build();
+    private static final BatchDeleteResourcesResult BATCH_DELETE_RESOURCES_RESULT = BatchDeleteResourcesResult.builder()
+            .successful(true)
+            .deletedResourceCount(2)
+            .durationMillis(10)
+            .build();
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private static final Optional<UserData> MAYBE_USER_DATA = Optional.of(UserData.builder()
             .userId("33")
@@ -100,6 +111,8 @@ class PathPointControllerTest {
     @Mock
     private BatchResourceWithParentControllerDelegate<PathPoint, NewPathPoint, Path, BatchNewPathPoint>
             mockBatchResourceWithParentControllerDelegate;
+    @Mock
+    private PathPolylineCache mockPathPolylineCache;
 
     private PathPointController pathPointController;
 
@@ -110,6 +123,7 @@ class PathPointControllerTest {
                 .resourceWithParentControllerDelegate(mockResourceWithParentControllerDelegate)
                 .orderableResourceWithParentControllerDelegate(mockOrderableResourceWithParentControllerDelegate)
                 .batchResourceWithParentControllerDelegate(mockBatchResourceWithParentControllerDelegate)
+                .pathPolylineCache(mockPathPolylineCache)
                 .build();
     }
 
@@ -153,6 +167,34 @@ class PathPointControllerTest {
                 MAYBE_USER_DATA);
     }
 
+    @Test
+    void getPolyline_returnsCachedPolyline_whenPathIsCached()
+            throws ResourceNotFoundException, InvalidOrderingException {
+        PathPolylines pathPolylines = buildPathPolylines(PATH_POINT_1, PATH_POINT_2, PATH_POINT_3);
+        when(mockPathPolylineCache.get(any())).thenReturn(Optional.of(pathPolylines));
+        assertThat(pathPointController.getPolyline(PATH_1.getPathId(), 10, MAYBE_USER_DATA),
+                is(equalTo(pathPolylines.get(10))));
+        verify(mockPathPolylineCache).get(PATH_1.getPathId());
+        verifyNoInteractions(mockOrderableResourceWithParentControllerDelegate);
+    }
+
+    @Test
+    void getPolyline_loadsOrderedPathPointsAndCachesThem_whenPathIsNotCached()
+            throws ResourceNotFoundException, InvalidOrderingException {
+        List<PathPoint> pathPoints = ImmutableList.of(PATH_POINT_1, PATH_POINT_2, PATH_POINT_3);
+        PathPolylines pathPolylines = buildPathPolylines(PATH_POINT_1, PATH_POINT_2, PATH_POINT_3);
+        when(mockPathPolylineCache.get(any())).thenReturn(Optional.empty());
+        when(mockPathPolylineCache.getGeneration()).thenReturn(7L);
+        when(mockOrderableResourceWithParentControllerDelegate.getResourcesForParent(any(), anyBoolean(),
+                any())).thenReturn(pathPoints);
+        when(mockPathPolylineCache.put(any(), any(), anyLong())).thenReturn(pathPolylines);
+        assertThat(pathPointController.getPolyline(PATH_1.getPathId(), null, MAYBE_USER_DATA),
+                is(equalTo(pathPolylines.get(null))));
+        verify(mockOrderableResourceWithParentControllerDelegate).getResourcesForParent(PATH_1.getPathId(), true,
+                MAYBE_USER_DATA);
+        verify(mockPathPolylineCache).put(PATH_1.getPathId(), pathPoints, 7L);
+    }
+
     @Test
     void createResource_callsResourceWithParentControllerDelegate() throws ResourceNotFoundException {
         CreatePathPointResult createPathPointResult = CreatePathPointResult.builder()
@@ -200,9 +242,17 @@ class PathPointControllerTest {
     void batchDeleteResources_callsBatchResourceWithParentControllerDelegate_whenPathIdIsSupplied()
             throws ResourceNotFoundException {
         when(mockBatchResourceWithParentControllerDelegate.batchDeleteResources(any(String.class), any())).thenReturn(
-                DELETE_RESOURCE_RESULT);
+                BATCH_DELETE_RESOURCES_RESULT);
         assertThat(pathPointController.batchDeleteResources(PATH_1.getId(), MAYBE_USER_DATA),
-                is(equalTo(DELETE_RESOURCE_RESULT)));
+                is(equalTo(BATCH_DELETE_RESOURCES_RESULT)));
         verify(mockBatchResourceWithParentControllerDelegate).batchDeleteResources(PATH_1.getId(), MAYBE_USER_DATA);
     }
+
+    private static PathPolylines buildPathPolylines(PathPoint... pathPoints) {
+        return PathPolylines.build(Arrays.stream(pathPoints)
+                .map(PathPoint::getPathPointId)
+                .collect(Collectors.toSet()), Arrays.stream(pathPoints)
+                .map(pathPoint -> new GeoPoint(pathPoint.getLatitude(), pathPoint.getLongitude()))
+                .collect(Collectors.toList()));
+    }
 }
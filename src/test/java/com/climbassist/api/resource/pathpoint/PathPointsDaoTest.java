@@ -37,6 +37,8 @@ class PathPointsDaoTest extends AbstractResourceWithParentDaoTest<PathPoint, Pat
         return PathPointsDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
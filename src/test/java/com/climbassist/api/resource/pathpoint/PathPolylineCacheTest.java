@@ -0,0 +1,184 @@
+package com.climbassist.api.resource.pathpoint;
+
+import com.climbassist.api.resource.path.Path;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PathPolylineCacheTest {
+
+    private static final String METRICS_COMPONENT = "PathPolylineCache";
+    private static final String PATH_ID = "path-1";
+    private static final PathPoint PATH_POINT_1 = PathPoint.builder()
+            .pathPointId("path-point-1")
+            .pathId(PATH_ID)
+            .latitude(40.0)
+            .longitude(-105.0)
+            .first(true)
+            .next("path-point-2")
+            .build();
+    private static final PathPoint PATH_POINT_2 = PathPoint.builder()
+            .pathPointId("path-point-2")
+            .pathId(PATH_ID)
+            .latitude(40.001)
+            .longitude(-105.001)
+            .build();
+    private static final List<PathPoint> PATH_POINTS = ImmutableList.of(PATH_POINT_1, PATH_POINT_2);
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private PathPolylineCache pathPolylineCache;
+
+    @BeforeEach
+    void setUp() {
+        pathPolylineCache = PathPolylineCache.builder()
+                .metricsEmitter(mockMetricsEmitter)
+                .maximumSize(100)
+                .expireAfterWriteSeconds(300)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testInstanceMethods(pathPolylineCache, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void get_returnsEmptyAndEmitsMiss_whenPathIsNotCached() {
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+        verify(mockMetricsEmitter).emitCacheLookupMetrics(METRICS_COMPONENT, false);
+    }
+
+    @Test
+    void get_returnsPolylinesAndEmitsHit_whenPathIsCached() {
+        PathPolylines pathPolylines = pathPolylineCache.put(PATH_ID, PATH_POINTS, pathPolylineCache.getGeneration());
+        assertThat(pathPolylines.get(null)
+                .getPointCount(), is(equalTo(2)));
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.of(pathPolylines))));
+        verify(mockMetricsEmitter).emitCacheLookupMetrics(METRICS_COMPONENT, true);
+    }
+
+    @Test
+    void put_returnsPolylinesWithoutCachingThem_whenAPathPointWasWrittenWhileLoading() {
+        long generation = pathPolylineCache.getGeneration();
+        pathPolylineCache.onResourceDeleted("some-other-path-point");
+        PathPolylines pathPolylines = pathPolylineCache.put(PATH_ID, PATH_POINTS, generation);
+        assertThat(pathPolylines.get(null)
+                .getPointCount(), is(equalTo(2)));
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourcesCreated_cachesPolylinesOfBatch() {
+        pathPolylineCache.onResourcesCreated(PATH_ID, PATH_POINTS);
+        assertThat(pathPolylineCache.get(PATH_ID)
+                .map(pathPolylines -> pathPolylines.get(null)), is(equalTo(Optional.of(
+                pathPolylineCache.put("path-2", PATH_POINTS, pathPolylineCache.getGeneration())
+                        .get(null)))));
+    }
+
+    @Test
+    void onResourceSaved_invalidatesPath_whenPathPointIsSaved() {
+        putPath();
+        pathPolylineCache.onResourceSaved(PathPoint.builder()
+                .pathPointId("path-point-3")
+                .pathId(PATH_ID)
+                .build());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourceSaved_keepsPath_whenPathPointOfAnotherPathIsSaved() {
+        PathPolylines pathPolylines = putPath();
+        pathPolylineCache.onResourceSaved(PathPoint.builder()
+                .pathPointId("path-point-3")
+                .pathId("path-2")
+                .build());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.of(pathPolylines))));
+    }
+
+    @Test
+    void onResourceSaved_keepsPath_whenResourceIsNotAPathPoint() {
+        PathPolylines pathPolylines = putPath();
+        pathPolylineCache.onResourceSaved(Path.builder()
+                .pathId(PATH_ID)
+                .cragId("crag-1")
+                .build());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.of(pathPolylines))));
+    }
+
+    @Test
+    void onResourceDeleted_invalidatesPath_whenPathPointIsInPath() {
+        putPath();
+        pathPolylineCache.onResourceDeleted(PATH_POINT_2.getPathPointId());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourceDeleted_invalidatesPath_whenPathIsDeleted() {
+        putPath();
+        pathPolylineCache.onResourceDeleted(PATH_ID);
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourceDeleted_keepsPath_whenPathPointIsNotInPath() {
+        PathPolylines pathPolylines = putPath();
+        pathPolylineCache.onResourceDeleted("path-point-3");
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.of(pathPolylines))));
+    }
+
+    @Test
+    void onResourceDeleted_invalidatesPath_whenPathPointIsInRecachedPath() {
+        putPath();
+        pathPolylineCache.onResourceSaved(PATH_POINT_1);
+        putPath();
+        pathPolylineCache.onResourceDeleted(PATH_POINT_2.getPathPointId());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void onResourceDeleted_keepsPath_whenPathPointWasOnlyInPreviousPolylines() {
+        putPath();
+        PathPolylines pathPolylines = pathPolylineCache.put(PATH_ID, ImmutableList.of(PATH_POINT_1),
+                pathPolylineCache.getGeneration());
+        pathPolylineCache.onResourceDeleted(PATH_POINT_2.getPathPointId());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.of(pathPolylines))));
+    }
+
+    @Test
+    void onResourceDeleted_keepsOtherPaths_whenPathPointIsInPath() {
+        putPath();
+        PathPolylines otherPathPolylines = pathPolylineCache.put("path-2", ImmutableList.of(PathPoint.builder()
+                .pathPointId("path-point-3")
+                .pathId("path-2")
+                .latitude(41.0)
+                .longitude(-106.0)
+                .first(true)
+                .build()), pathPolylineCache.getGeneration());
+        pathPolylineCache.onResourceDeleted(PATH_POINT_2.getPathPointId());
+        assertThat(pathPolylineCache.get(PATH_ID), is(equalTo(Optional.empty())));
+        assertThat(pathPolylineCache.get("path-2"), is(equalTo(Optional.of(otherPathPolylines))));
+    }
+
+    private PathPolylines putPath() {
+        return pathPolylineCache.put(PATH_ID, PATH_POINTS, pathPolylineCache.getGeneration());
+    }
+}
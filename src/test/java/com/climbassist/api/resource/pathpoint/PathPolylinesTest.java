@@ -0,0 +1,89 @@
+package com.climbassist.api.resource.pathpoint;
+
+import com.climbassist.common.geo.GeoPoint;
+import com.climbassist.common.geo.Polyline;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+class PathPolylinesTest {
+
+    private static final List<GeoPoint> POINTS = buildZigzag();
+
+    @Test
+    void get_returnsEveryPoint_whenZoomIsNull() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of(), POINTS);
+        assertThat(pathPolylines.get(null), is(equalTo(PathPolyline.builder()
+                .polyline(Polyline.encode(POINTS))
+                .pointCount(POINTS.size())
+                .build())));
+    }
+
+    @Test
+    void get_returnsOnlyEndpoints_atLowestZoom() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of(), POINTS);
+        assertThat(pathPolylines.get(0), is(equalTo(PathPolyline.builder()
+                .polyline(Polyline.encode(ImmutableList.of(POINTS.get(0), POINTS.get(POINTS.size() - 1))))
+                .pointCount(2)
+                .build())));
+    }
+
+    @Test
+    void get_returnsEveryPoint_atHighestZoom() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of(), POINTS);
+        assertThat(pathPolylines.get(PathPolylines.MAX_ZOOM), is(equalTo(pathPolylines.get(null))));
+    }
+
+    @Test
+    void get_keepsMorePoints_asZoomIncreases() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of(), POINTS);
+        for (int zoom = 1; zoom <= PathPolylines.MAX_ZOOM; zoom++) {
+            assertThat(pathPolylines.get(zoom)
+                    .getPointCount(), is(greaterThanOrEqualTo(pathPolylines.get(zoom - 1)
+                    .getPointCount())));
+        }
+    }
+
+    @Test
+    void get_clampsZoomToTheSupportedRange() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of(), POINTS);
+        assertThat(pathPolylines.get(-1), is(equalTo(pathPolylines.get(0))));
+        assertThat(pathPolylines.get(PathPolylines.MAX_ZOOM + 1),
+                is(equalTo(pathPolylines.get(PathPolylines.MAX_ZOOM))));
+    }
+
+    @Test
+    void get_returnsEmptyPolyline_forPathWithNoPoints() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of(), ImmutableList.of());
+        assertThat(pathPolylines.get(10), is(equalTo(PathPolyline.builder()
+                .polyline("")
+                .pointCount(0)
+                .build())));
+    }
+
+    @Test
+    void containsPathPoint_returnsWhetherPathPointIsInPath() {
+        PathPolylines pathPolylines = PathPolylines.build(ImmutableSet.of("path-point-1"), POINTS);
+        assertThat(pathPolylines.containsPathPoint("path-point-1"), is(true));
+        assertThat(pathPolylines.containsPathPoint("path-point-2"), is(false));
+    }
+
+    // a switchback trail, with turns that get tighter so that each zoom level keeps a few more of them
+    private static List<GeoPoint> buildZigzag() {
+        List<GeoPoint> points = new ArrayList<>();
+        double latitude = 40.0;
+        for (int i = 0; i < 64; i++) {
+            points.add(new GeoPoint(latitude, -105.0 + (i % 2 == 0 ? 0 : 0.01 / (i + 1))));
+            latitude += 0.0005;
+        }
+        return points;
+    }
+}
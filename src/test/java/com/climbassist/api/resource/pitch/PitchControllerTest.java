@@ -1,12 +1,16 @@
 package com.climbassist.api.resource.pitch;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.climbassist.api.resource.common.DeleteResourceResult;
 import com.climbassist.api.resource.common.OrderableResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ResourceNotEmptyException;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.common.grade.GradeKey;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.point.Point;
 import com.climbassist.api.resource.point.PointsDao;
 import com.climbassist.api.resource.route.Center;
@@ -18,15 +22,19 @@ import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -38,6 +46,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -254,7 +263,6 @@ class PitchControllerTest {
             .mainImageLocation(ROUTE_2.getMainImageLocation())
             .protection(ROUTE_2.getProtection())
             .style(ROUTE_2.getStyle())
-            .first(ROUTE_2.isFirst())
             .next(ROUTE_2.getNext())
             .build();
     private static final Route UPDATED_ROUTE_1_FROM_DELETION = Route.builder()
@@ -347,7 +355,7 @@ class PitchControllerTest {
     @Mock
     private CreatePitchResultFactory mockCreatePitchResultFactory;
     @Mock
-    private PitchConsistencyWaiter mockPitchConsistencyWaiter;
+    private AmazonDynamoDB mockAmazonDynamoDb;
 
     private PitchController pitchController;
 
@@ -364,7 +372,12 @@ class PitchControllerTest {
                 .routeNotFoundExceptionFactory(mockRouteNotFoundExceptionFactory)
                 .pitchNotEmptyExceptionFactory(mockPitchNotEmptyExceptionFactory)
                 .createPitchResultFactory(mockCreatePitchResultFactory)
-                .pitchConsistencyWaiter(mockPitchConsistencyWaiter)
+                .routeGradeUpdater(RouteGradeUpdater.builder()
+                        .routesDao(mockRoutesDao)
+                        .pitchesDao(mockPitchesDao)
+                        .amazonDynamoDB(mockAmazonDynamoDb)
+                        .build())
+                .asyncRequestExecutor(MoreExecutors.directExecutor())
                 .build();
     }
 
@@ -377,9 +390,13 @@ class PitchControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(PITCH_1);
-        assertThat(pitchController.getResource(PITCH_2.getPitchId(), DEPTH, MAYBE_USER_DATA), is(equalTo(PITCH_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(PITCH_2.getPitchId(), DEPTH, MAYBE_USER_DATA);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(PITCH_1.getId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
+        assertThat(pitchController.getResource(PITCH_2.getPitchId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(PITCH_2.getPitchId(), DEPTH,
+                MAYBE_USER_DATA);
     }
 
     @Test
@@ -411,41 +428,60 @@ class PitchControllerTest {
         when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.empty());
         when(mockRouteNotFoundExceptionFactory.create(any())).thenReturn(ROUTE_NOT_FOUND_EXCEPTION);
 
-        assertThrows(RouteNotFoundException.class, () -> pitchController.createResource(NEW_PITCH_1, MAYBE_USER_DATA));
+        assertThrows(RouteNotFoundException.class,
+                () -> join(pitchController.createResource(NEW_PITCH_1, MAYBE_USER_DATA)));
 
         verify(mockRoutesDao).getResource(ROUTE_1.getId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
         verify(mockRouteNotFoundExceptionFactory).create(NEW_PITCH_1.getRouteId());
-        verify(mockRoutesDao, never()).saveResource(any());
-        verify(mockPitchesDao, never()).saveResource(any());
+        verify(mockRoutesDao, never()).buildGradeUpdateTransactWriteItem(any(), any());
+        verify(mockAmazonDynamoDb, never()).transactWriteItems(any());
     }
 
     @Test
     void createResource_createsPitchAndUpdatesRoute()
-            throws ResourceNotFoundException, PitchConsistencyException, InterruptedException {
+            throws ResourceNotFoundException {
         when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.of(ROUTE_1));
         when(mockPitchFactory.create(any())).thenReturn(PITCH_1);
         when(mockPitchesDao.getResources(any(), any())).thenReturn(ImmutableSet.of(PITCH_1, PITCH_2, PITCH_3));
         when(mockCreatePitchResultFactory.create(any())).thenReturn(CREATE_PITCH_RESULT);
 
-        assertThat(pitchController.createResource(NEW_PITCH_1, MAYBE_USER_DATA), is(equalTo(CREATE_PITCH_RESULT)));
+        assertThat(pitchController.createResource(NEW_PITCH_1, MAYBE_USER_DATA)
+                .join(), is(equalTo(CREATE_PITCH_RESULT)));
 
         verify(mockRoutesDao).getResource(ROUTE_1.getId(), MAYBE_USER_DATA);
         verify(mockPitchFactory).create(NEW_PITCH_1);
-        verify(mockPitchesDao).saveResource(PITCH_1);
-        verify(mockPitchConsistencyWaiter).waitForConsistency(ROUTE_1.getRouteId(), PITCH_1, true, MAYBE_USER_DATA);
+        verify(mockPitchesDao).buildSaveTransactWriteItem(withGradeKey(PITCH_1, ROUTE_1));
+        verify(mockPitchesDao).resourceSaved(withGradeKey(PITCH_1, ROUTE_1));
         verify(mockPitchesDao).getResources(ROUTE_1.getId(), MAYBE_USER_DATA);
-        verify(mockRoutesDao).saveResource(UPDATED_ROUTE_1_FROM_NEW_PITCH);
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_1_FROM_NEW_PITCH, PITCH_1, PITCH_2, PITCH_3), null);
         verify(mockCreatePitchResultFactory).create(PITCH_1.getPitchId());
     }
 
+    @Test
+    void createResource_includesNewPitchInRouteGrade_whenIndexDoesNotContainItYet() throws ResourceNotFoundException {
+        when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.of(ROUTE_1));
+        when(mockPitchFactory.create(any())).thenReturn(PITCH_1);
+        when(mockPitchesDao.getResources(any(), any())).thenReturn(ImmutableSet.of(PITCH_2, PITCH_3));
+        when(mockCreatePitchResultFactory.create(any())).thenReturn(CREATE_PITCH_RESULT);
+
+        assertThat(pitchController.createResource(NEW_PITCH_1, MAYBE_USER_DATA)
+                .join(), is(equalTo(CREATE_PITCH_RESULT)));
+
+        verify(mockPitchesDao).buildSaveTransactWriteItem(withGradeKey(PITCH_1, ROUTE_1));
+        verify(mockPitchesDao).resourceSaved(withGradeKey(PITCH_1, ROUTE_1));
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_1_FROM_NEW_PITCH, PITCH_1, PITCH_2, PITCH_3), null);
+    }
+
     @Test
     void updateResource_throwsPitchNotFoundException_whenPitchDoesNotExist() {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.empty());
         when(mockPitchNotFoundExceptionFactory.create(any())).thenReturn(PITCH_NOT_FOUND_EXCEPTION);
 
         assertThrows(PitchNotFoundException.class,
-                () -> pitchController.updateResource(UPDATED_PITCH_1_SAME_ROUTE, MAYBE_USER_DATA));
+                () -> join(pitchController.updateResource(UPDATED_PITCH_1_SAME_ROUTE, MAYBE_USER_DATA)));
 
         verify(mockPitchesDao).getResource(UPDATED_PITCH_1_SAME_ROUTE.getPitchId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
@@ -459,7 +495,7 @@ class PitchControllerTest {
         when(mockRouteNotFoundExceptionFactory.create(any())).thenReturn(ROUTE_NOT_FOUND_EXCEPTION);
 
         assertThrows(RouteNotFoundException.class,
-                () -> pitchController.updateResource(UPDATED_PITCH_1_NEW_ROUTE, MAYBE_USER_DATA));
+                () -> join(pitchController.updateResource(UPDATED_PITCH_1_NEW_ROUTE, MAYBE_USER_DATA)));
 
         verify(mockPitchesDao).getResource(UPDATED_PITCH_1_NEW_ROUTE.getPitchId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(UPDATED_PITCH_1_NEW_ROUTE.getRouteId(), MAYBE_USER_DATA);
@@ -469,31 +505,51 @@ class PitchControllerTest {
 
     @Test
     void updateResource_updatesPitchAndRoute_whenRouteIsNotChangedAndExists()
-            throws ResourceNotFoundException, PitchConsistencyException, InterruptedException {
+            throws ResourceNotFoundException {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_1));
         when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.of(ROUTE_1));
         when(mockPitchesDao.getResources(any(), any())).thenReturn(
                 ImmutableSet.of(UPDATED_PITCH_1_SAME_ROUTE, PITCH_2, PITCH_3));
 
-        assertThat(pitchController.updateResource(UPDATED_PITCH_1_SAME_ROUTE, MAYBE_USER_DATA), is(equalTo(
+        assertThat(pitchController.updateResource(UPDATED_PITCH_1_SAME_ROUTE, MAYBE_USER_DATA)
+                .join(), is(equalTo(
                 UpdateResourceResult.builder()
                         .successful(true)
                         .build())));
 
         verify(mockPitchesDao).getResource(UPDATED_PITCH_1_SAME_ROUTE.getId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(ROUTE_1.getId(), MAYBE_USER_DATA);
-        verify(mockPitchesDao).saveResource(UPDATED_PITCH_1_SAME_ROUTE);
-        verify(mockPitchConsistencyWaiter).waitForConsistency(ROUTE_1.getRouteId(), UPDATED_PITCH_1_SAME_ROUTE, true,
-                MAYBE_USER_DATA);
+        verify(mockPitchesDao).buildSaveTransactWriteItem(withGradeKey(UPDATED_PITCH_1_SAME_ROUTE, ROUTE_1));
+        verify(mockPitchesDao).resourceSaved(withGradeKey(UPDATED_PITCH_1_SAME_ROUTE, ROUTE_1));
         verify(mockPitchesDao).getResources(UPDATED_PITCH_1_SAME_ROUTE.getRouteId(), MAYBE_USER_DATA);
-        verify(mockRoutesDao).saveResource(UPDATED_ROUTE_1_FROM_UPDATED_PITCH);
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_1_FROM_UPDATED_PITCH, UPDATED_PITCH_1_SAME_ROUTE, PITCH_2, PITCH_3),
+                null);
+    }
+
+    @Test
+    void updateResource_usesUpdatedPitchInRouteGrade_whenIndexContainsOldVersion() throws ResourceNotFoundException {
+        when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_1));
+        when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.of(ROUTE_1));
+        when(mockPitchesDao.getResources(any(), any())).thenReturn(ImmutableSet.of(PITCH_1, PITCH_2, PITCH_3));
+
+        assertThat(pitchController.updateResource(UPDATED_PITCH_1_SAME_ROUTE, MAYBE_USER_DATA)
+                .join(), is(equalTo(UpdateResourceResult.builder()
+                .successful(true)
+                .build())));
+
+        verify(mockPitchesDao).buildSaveTransactWriteItem(withGradeKey(UPDATED_PITCH_1_SAME_ROUTE, ROUTE_1));
+        verify(mockPitchesDao).resourceSaved(withGradeKey(UPDATED_PITCH_1_SAME_ROUTE, ROUTE_1));
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_1_FROM_UPDATED_PITCH, UPDATED_PITCH_1_SAME_ROUTE, PITCH_2, PITCH_3),
+                null);
     }
 
     // this case technically shouldn't happen, but it's possible if the database is modified manually, or
     // potentially in a rare race condition
     @Test
     void updateResource_updatesPitchAndNewRoute_whenRouteIsChangedAndOldRouteDoesNotExist()
-            throws ResourceNotFoundException, PitchConsistencyException, InterruptedException {
+            throws ResourceNotFoundException {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_1));
         doReturn(Optional.of(ROUTE_2)).when(mockRoutesDao)
                 .getResource(UPDATED_PITCH_1_NEW_ROUTE.getRouteId(), MAYBE_USER_DATA);
@@ -502,27 +558,28 @@ class PitchControllerTest {
         doReturn(Optional.empty()).when(mockRoutesDao)
                 .getResource(PITCH_1.getRouteId(), MAYBE_USER_DATA);
 
-        assertThat(pitchController.updateResource(UPDATED_PITCH_1_NEW_ROUTE, MAYBE_USER_DATA), is(equalTo(
+        assertThat(pitchController.updateResource(UPDATED_PITCH_1_NEW_ROUTE, MAYBE_USER_DATA)
+                .join(), is(equalTo(
                 UpdateResourceResult.builder()
                         .successful(true)
                         .build())));
 
         verify(mockPitchesDao).getResource(UPDATED_PITCH_1_NEW_ROUTE.getPitchId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(UPDATED_PITCH_1_NEW_ROUTE.getRouteId(), MAYBE_USER_DATA);
-        verify(mockPitchesDao).saveResource(UPDATED_PITCH_1_NEW_ROUTE);
-        verify(mockPitchConsistencyWaiter).waitForConsistency(ROUTE_2.getRouteId(), UPDATED_PITCH_1_NEW_ROUTE, true,
-                MAYBE_USER_DATA);
+        verify(mockPitchesDao).buildSaveTransactWriteItem(withGradeKey(UPDATED_PITCH_1_NEW_ROUTE, ROUTE_2));
+        verify(mockPitchesDao).resourceSaved(withGradeKey(UPDATED_PITCH_1_NEW_ROUTE, ROUTE_2));
         verify(mockPitchesDao).getResources(ROUTE_2.getRouteId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(ROUTE_2.getRouteId(), MAYBE_USER_DATA);
-        verify(mockRoutesDao).saveResource(UPDATED_ROUTE_2);
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_2, UPDATED_PITCH_1_NEW_ROUTE, PITCH_2, PITCH_3), null);
         verify(mockRoutesDao).getResource(PITCH_1.getRouteId(), MAYBE_USER_DATA);
-        verify(mockRoutesDao, never()).saveResource(UPDATED_ROUTE_1_FROM_UPDATED_PITCH);
+        verify(mockRoutesDao, times(1)).buildGradeUpdateTransactWriteItem(any(), any());
         verify(mockPitchesDao, never()).getResources(ROUTE_1.getRouteId(), MAYBE_USER_DATA);
     }
 
     @Test
     void updateResource_updatesPitchAndBothRoutes_whenRouteIsChangedAndBothRoutesExist()
-            throws ResourceNotFoundException, PitchConsistencyException, InterruptedException {
+            throws ResourceNotFoundException {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_1));
         doReturn(Optional.of(ROUTE_2)).when(mockRoutesDao)
                 .getResource(eq(UPDATED_PITCH_1_NEW_ROUTE.getRouteId()), any());
@@ -533,24 +590,24 @@ class PitchControllerTest {
         doReturn(ImmutableSet.of(PITCH_4, PITCH_5)).when(mockPitchesDao)
                 .getResources(eq(PITCH_1.getRouteId()), any());
 
-        assertThat(pitchController.updateResource(UPDATED_PITCH_1_NEW_ROUTE, MAYBE_USER_DATA), is(equalTo(
+        assertThat(pitchController.updateResource(UPDATED_PITCH_1_NEW_ROUTE, MAYBE_USER_DATA)
+                .join(), is(equalTo(
                 UpdateResourceResult.builder()
                         .successful(true)
                         .build())));
 
         verify(mockPitchesDao).getResource(UPDATED_PITCH_1_NEW_ROUTE.getPitchId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(UPDATED_PITCH_1_NEW_ROUTE.getRouteId(), MAYBE_USER_DATA);
-        verify(mockPitchesDao).saveResource(UPDATED_PITCH_1_NEW_ROUTE);
-        verify(mockPitchConsistencyWaiter).waitForConsistency(ROUTE_2.getRouteId(), UPDATED_PITCH_1_NEW_ROUTE, true,
-                MAYBE_USER_DATA);
+        verify(mockPitchesDao).buildSaveTransactWriteItem(withGradeKey(UPDATED_PITCH_1_NEW_ROUTE, ROUTE_2));
+        verify(mockPitchesDao).resourceSaved(withGradeKey(UPDATED_PITCH_1_NEW_ROUTE, ROUTE_2));
         verify(mockPitchesDao).getResources(ROUTE_2.getRouteId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(ROUTE_2.getRouteId(), MAYBE_USER_DATA);
-        verify(mockRoutesDao).saveResource(UPDATED_ROUTE_2);
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_2, UPDATED_PITCH_1_NEW_ROUTE, PITCH_2, PITCH_3), null);
         verify(mockRoutesDao).getResource(PITCH_1.getRouteId(), MAYBE_USER_DATA);
-        verify(mockPitchConsistencyWaiter).waitForConsistency(ROUTE_1.getRouteId(), UPDATED_PITCH_1_NEW_ROUTE, false,
-                MAYBE_USER_DATA);
         verify(mockPitchesDao).getResources(ROUTE_1.getRouteId(), MAYBE_USER_DATA);
-        verify(mockRoutesDao).saveResource(UPDATED_ROUTE_1_FROM_DELETION);
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(
+                withGradeCounts(UPDATED_ROUTE_1_FROM_DELETION, PITCH_4, PITCH_5), null);
     }
 
     @Test
@@ -558,7 +615,7 @@ class PitchControllerTest {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.empty());
         when(mockPitchNotFoundExceptionFactory.create(any())).thenReturn(PITCH_NOT_FOUND_EXCEPTION);
         assertThrows(PitchNotFoundException.class,
-                () -> pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA));
+                () -> join(pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA)));
         verify(mockPitchesDao).getResource(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
         verify(mockPitchNotFoundExceptionFactory).create(PITCH_1.getPitchId());
@@ -570,7 +627,7 @@ class PitchControllerTest {
         when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of(POINT_1, POINT_2));
         when(mockPitchNotEmptyExceptionFactory.create(any())).thenReturn(PITCH_NOT_EMPTY_EXCEPTION);
         assertThrows(PitchNotEmptyException.class,
-                () -> pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA));
+                () -> join(pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA)));
         verify(mockPitchesDao).getResource(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         verify(mockPointsDao).getResources(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         //noinspection ThrowableNotThrown
@@ -581,13 +638,13 @@ class PitchControllerTest {
     // potentially in a rare race condition
     @Test
     void deletePitch_deletesPitch_whenPitchIsEmptyAndRouteDoesNotExist()
-            throws ResourceNotFoundException, ResourceNotEmptyException, PitchConsistencyException,
-            InterruptedException {
+            throws ResourceNotFoundException, ResourceNotEmptyException {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_1));
         when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of());
         when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.empty());
 
-        assertThat(pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA), is(equalTo(
+        assertThat(pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA)
+                .join(), is(equalTo(
                 DeleteResourceResult.builder()
                         .successful(true)
                         .build())));
@@ -595,33 +652,41 @@ class PitchControllerTest {
         verify(mockPitchesDao).getResource(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         verify(mockPointsDao).getResources(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(PITCH_1.getRouteId(), MAYBE_USER_DATA);
-        verify(mockPitchesDao).deleteResource(PITCH_1.getPitchId());
-        verify(mockRoutesDao, never()).saveResource(any());
+        verify(mockPitchesDao).buildDeleteTransactWriteItem(PITCH_1.getPitchId());
+        verify(mockAmazonDynamoDb).transactWriteItems(any());
+        verify(mockPitchesDao).resourceDeleted(PITCH_1.getPitchId());
+        verify(mockRoutesDao, never()).buildGradeUpdateTransactWriteItem(any(), any());
     }
 
     @Test
     void deletePitch_deletesPitchAndUpdatesRoute_whenPitchIsEmptyAndRouteHasOtherPitches()
-            throws ResourceNotFoundException, ResourceNotEmptyException, PitchConsistencyException,
-            InterruptedException {
-        runDeletePitchTest(ImmutableSet.of(PITCH_2, PITCH_3), UPDATED_ROUTE_1_FROM_DELETION);
+            throws ResourceNotFoundException, ResourceNotEmptyException {
+        runDeletePitchTest(ImmutableSet.of(PITCH_2, PITCH_3),
+                withGradeCounts(UPDATED_ROUTE_1_FROM_DELETION, PITCH_2, PITCH_3));
     }
 
     @Test
     void deletePitch_deletesPitchAndUpdatesRoute_whenPitchIsEmptyAndRouteHasNoOtherPitches()
-            throws ResourceNotFoundException, ResourceNotEmptyException, PitchConsistencyException,
-            InterruptedException {
-        runDeletePitchTest(ImmutableSet.of(), UPDATED_ROUTE_1_NO_GRADES);
+            throws ResourceNotFoundException, ResourceNotEmptyException {
+        runDeletePitchTest(ImmutableSet.of(), withGradeCounts(UPDATED_ROUTE_1_NO_GRADES));
+    }
+
+    @Test
+    void deletePitch_excludesDeletedPitchFromRouteGrade_whenIndexStillContainsIt()
+            throws ResourceNotFoundException, ResourceNotEmptyException {
+        runDeletePitchTest(ImmutableSet.of(PITCH_1, PITCH_2, PITCH_3),
+                withGradeCounts(UPDATED_ROUTE_1_FROM_DELETION, PITCH_2, PITCH_3));
     }
 
     private void runDeletePitchTest(Set<Pitch> siblingPitches, Route expectedUpdatedRoute)
-            throws InterruptedException, PitchConsistencyException, ResourceNotFoundException,
-            ResourceNotEmptyException {
+            throws ResourceNotFoundException, ResourceNotEmptyException {
         when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_1));
         when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of());
         when(mockRoutesDao.getResource(any(), any())).thenReturn(Optional.of(ROUTE_1));
         when(mockPitchesDao.getResources(any(), any())).thenReturn(siblingPitches);
 
-        assertThat(pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA), is(equalTo(
+        assertThat(pitchController.deleteResource(PITCH_1.getPitchId(), MAYBE_USER_DATA)
+                .join(), is(equalTo(
                 DeleteResourceResult.builder()
                         .successful(true)
                         .build())));
@@ -629,9 +694,31 @@ class PitchControllerTest {
         verify(mockPitchesDao).getResource(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         verify(mockPointsDao).getResources(PITCH_1.getPitchId(), MAYBE_USER_DATA);
         verify(mockRoutesDao).getResource(PITCH_1.getRouteId(), MAYBE_USER_DATA);
-        verify(mockPitchConsistencyWaiter).waitForConsistency(ROUTE_1.getRouteId(), PITCH_1, false, MAYBE_USER_DATA);
         verify(mockPitchesDao).getResources(ROUTE_1.getRouteId(), MAYBE_USER_DATA);
-        verify(mockPitchesDao).deleteResource(PITCH_1.getPitchId());
-        verify(mockRoutesDao).saveResource(expectedUpdatedRoute);
+        verify(mockPitchesDao).buildDeleteTransactWriteItem(PITCH_1.getPitchId());
+        verify(mockAmazonDynamoDb).transactWriteItems(any());
+        verify(mockPitchesDao).resourceDeleted(PITCH_1.getPitchId());
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(expectedUpdatedRoute, null);
+    }
+
+    private static Pitch withGradeKey(Pitch pitch, Route route) {
+        return pitch.toBuilder()
+                .gradeKey(
+                        GradeKey.pack(route.getStyle(), pitch.getGrade(), pitch.getGradeModifier(), pitch.getDanger()))
+                .build();
+    }
+
+    private static Route withGradeCounts(Route route, Pitch... pitches) {
+        return route.toBuilder()
+                .gradeCounts(GradeCounts.fromPitches(Arrays.asList(pitches)))
+                .build();
+    }
+
+    private static <T> T join(CompletableFuture<T> completableFuture) throws Exception {
+        try {
+            return completableFuture.join();
+        } catch (CompletionException e) {
+            throw (Exception) e.getCause();
+        }
     }
 }
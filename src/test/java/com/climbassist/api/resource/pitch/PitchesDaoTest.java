@@ -1,12 +1,36 @@
 package com.climbassist.api.resource.pitch;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
 import com.climbassist.api.resource.common.AbstractResourceWithParentDaoTest;
+import com.climbassist.api.resource.point.PackedPoints;
+import com.climbassist.api.resource.point.Point;
 import com.climbassist.api.resource.route.Route;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 class PitchesDaoTest extends AbstractResourceWithParentDaoTest<Pitch, Route, PitchesDao> {
 
     private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
@@ -40,17 +64,134 @@ class PitchesDaoTest extends AbstractResourceWithParentDaoTest<Pitch, Route, Pit
                     .fixed(true)
                     .build())
             .build();
+    private static final PackedPoints PACKED_POINTS = PackedPoints.pack(ImmutableList.of(Point.builder()
+            .pointId("point-1")
+            .pitchId("pitch-1")
+            .x(1.0)
+            .y(2.0)
+            .z(3.0)
+            .build()));
+    private static final PackedPoints PREVIOUS_PACKED_POINTS = PackedPoints.pack(ImmutableList.of());
 
     @Getter
     @Mock
     private DynamoDBMapper mockDynamoDbMapper;
+    @Mock
+    private AmazonDynamoDB mockAmazonDynamoDb;
 
     @Override
     protected PitchesDao buildResourceDao() {
         return PitchesDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
+                .amazonDynamoDB(mockAmazonDynamoDb)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
+                .build();
+    }
+
+    @Test
+    void updatePackedPoints_updatesOnlyPackedPoints_whenPitchHasNoPackedPoints() {
+        Pitch pitch = PITCH_1.toBuilder()
+                .packedPoints(PACKED_POINTS)
                 .build();
+        DynamoDBMapperTableModel<Pitch> tableModel = stubTableModel();
+        when(mockAmazonDynamoDb.updateItem(any(UpdateItemRequest.class))).thenReturn(
+                new UpdateItemResult().withAttributes(tableModel.convert(pitch)));
+
+        assertThat(resourceDao.updatePackedPoints(PITCH_1.getPitchId(), PACKED_POINTS, null),
+                is(equalTo(Optional.of(pitch))));
+
+        ArgumentCaptor<UpdateItemRequest> updateItemRequestArgumentCaptor =
+                ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockAmazonDynamoDb).updateItem(updateItemRequestArgumentCaptor.capture());
+        UpdateItemRequest updateItemRequest = updateItemRequestArgumentCaptor.getValue();
+        assertThat(updateItemRequest.getTableName(), is(equalTo("Pitches")));
+        assertThat(updateItemRequest.getKey(),
+                is(equalTo(ImmutableMap.of("pitchId", new AttributeValue(PITCH_1.getPitchId())))));
+        assertThat(updateItemRequest.getUpdateExpression(), is(equalTo("SET #packedPoints = :packedPoints")));
+        assertThat(updateItemRequest.getConditionExpression(),
+                is(equalTo("attribute_exists(pitchId) AND attribute_not_exists(#packedPoints)")));
+        assertThat(updateItemRequest.getExpressionAttributeValues()
+                .get(":packedPoints"), is(equalTo(new AttributeValue().withB(new PackedPoints.TypeConverter().convert(
+                PACKED_POINTS)))));
+        assertThat(updateItemRequest.getReturnValues(), is(equalTo(ReturnValue.ALL_NEW.toString())));
+        verify(mockResourceCache).invalidate(PITCH_1.getPitchId());
+        verify(mockResourceChangeListener).onResourceSaved(pitch);
+    }
+
+    @Test
+    void updatePackedPoints_conditionsOnPreviousPackedPoints_whenTheyExist() {
+        DynamoDBMapperTableModel<Pitch> tableModel = stubTableModel();
+        when(mockAmazonDynamoDb.updateItem(any(UpdateItemRequest.class))).thenReturn(
+                new UpdateItemResult().withAttributes(tableModel.convert(PITCH_1)));
+
+        resourceDao.updatePackedPoints(PITCH_1.getPitchId(), null, PREVIOUS_PACKED_POINTS);
+
+        ArgumentCaptor<UpdateItemRequest> updateItemRequestArgumentCaptor =
+                ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockAmazonDynamoDb).updateItem(updateItemRequestArgumentCaptor.capture());
+        UpdateItemRequest updateItemRequest = updateItemRequestArgumentCaptor.getValue();
+        assertThat(updateItemRequest.getUpdateExpression(), is(equalTo("REMOVE #packedPoints")));
+        assertThat(updateItemRequest.getConditionExpression(),
+                is(equalTo("attribute_exists(pitchId) AND #packedPoints = :previousPackedPoints")));
+        assertThat(updateItemRequest.getExpressionAttributeValues(), is(equalTo(ImmutableMap.of(
+                ":previousPackedPoints",
+                new AttributeValue().withB(new PackedPoints.TypeConverter().convert(PREVIOUS_PACKED_POINTS))))));
+    }
+
+    @Test
+    void updatePackedPoints_returnsEmpty_whenConditionFails() {
+        stubTableModel();
+        when(mockAmazonDynamoDb.updateItem(any(UpdateItemRequest.class))).thenThrow(
+                new ConditionalCheckFailedException("condition failed"));
+
+        assertThat(resourceDao.updatePackedPoints(PITCH_1.getPitchId(), PACKED_POINTS, PREVIOUS_PACKED_POINTS),
+                is(equalTo(Optional.empty())));
+
+        verify(mockResourceCache).invalidate(PITCH_1.getPitchId());
+        verify(mockResourceChangeListener, never()).onResourceSaved(any());
+    }
+
+    @Test
+    void clearPackedPoints_removesPackedPoints_whenPitchExists() {
+        DynamoDBMapperTableModel<Pitch> tableModel = stubTableModel();
+        when(mockAmazonDynamoDb.updateItem(any(UpdateItemRequest.class))).thenReturn(
+                new UpdateItemResult().withAttributes(tableModel.convert(PITCH_1)));
+
+        resourceDao.clearPackedPoints(PITCH_1.getPitchId());
+
+        ArgumentCaptor<UpdateItemRequest> updateItemRequestArgumentCaptor =
+                ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockAmazonDynamoDb).updateItem(updateItemRequestArgumentCaptor.capture());
+        UpdateItemRequest updateItemRequest = updateItemRequestArgumentCaptor.getValue();
+        assertThat(updateItemRequest.getUpdateExpression(), is(equalTo("REMOVE #packedPoints")));
+        assertThat(updateItemRequest.getConditionExpression(), is(equalTo("attribute_exists(pitchId)")));
+        assertThat(updateItemRequest.getExpressionAttributeValues(), is(nullValue()));
+        verify(mockResourceChangeListener).onResourceSaved(PITCH_1);
+    }
+
+    @Test
+    void getResourceConsistently_loadsPitchWithConsistentRead() {
+        ArgumentCaptor<DynamoDBMapperConfig> dynamoDbMapperConfigArgumentCaptor =
+                ArgumentCaptor.forClass(DynamoDBMapperConfig.class);
+        when(mockDynamoDbMapper.load(any(), any(), any(DynamoDBMapperConfig.class))).thenReturn(PITCH_1);
+
+        assertThat(resourceDao.getResourceConsistently(PITCH_1.getPitchId()), is(equalTo(Optional.of(PITCH_1))));
+
+        verify(mockDynamoDbMapper).load(any(), any(), dynamoDbMapperConfigArgumentCaptor.capture());
+        assertThat(dynamoDbMapperConfigArgumentCaptor.getValue()
+                .getConsistentReads(), is(equalTo(DynamoDBMapperConfig.ConsistentReads.CONSISTENT)));
+        assertThat(dynamoDbMapperConfigArgumentCaptor.getValue()
+                .getTableNameOverride(), is(equalTo(DYNAMO_DB_MAPPER_CONFIG.getTableNameOverride())));
+        verify(mockResourceCache, never()).get(any(), any(), any());
+    }
+
+    // the table model is final, so a real one is built from the pitch's annotations
+    private DynamoDBMapperTableModel<Pitch> stubTableModel() {
+        DynamoDBMapperTableModel<Pitch> tableModel = new DynamoDBMapper(mockAmazonDynamoDb).getTableModel(Pitch.class);
+        when(mockDynamoDbMapper.getTableModel(Pitch.class)).thenReturn(tableModel);
+        return tableModel;
     }
 
     @Override
@@ -0,0 +1,296 @@
+package com.climbassist.api.resource.pitch;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.Update;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.resource.route.RoutesDao;
+import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteGradeUpdaterTest {
+
+    private static final Pitch PITCH_1 = Pitch.builder()
+            .pitchId("pitch-1")
+            .routeId("route-1")
+            .grade(10)
+            .gradeModifier("a")
+            .danger("PG13")
+            .build();
+    private static final Pitch PITCH_2 = Pitch.builder()
+            .pitchId("pitch-2")
+            .routeId("route-1")
+            .grade(11)
+            .gradeModifier("c")
+            .danger("R")
+            .build();
+    private static final Pitch UPDATED_PITCH_2 = Pitch.builder()
+            .pitchId("pitch-2")
+            .routeId("route-1")
+            .grade(9)
+            .gradeModifier("d")
+            .build();
+    private static final Pitch PITCH_3 = Pitch.builder()
+            .pitchId("pitch-3")
+            .routeId("route-2")
+            .grade(12)
+            .gradeModifier("b")
+            .danger("X")
+            .build();
+    private static final Route ROUTE_1 = Route.builder()
+            .routeId("route-1")
+            .wallId("wall-1")
+            .name("Route 1")
+            .style("sport")
+            .grade(11)
+            .gradeModifier("c")
+            .danger("R")
+            .gradeCounts(GradeCounts.fromPitches(ImmutableList.of(PITCH_1, PITCH_2)))
+            .build();
+    private static final Route ROUTE_1_WITHOUT_GRADE_COUNTS = ROUTE_1.toBuilder()
+            .gradeCounts(null)
+            .build();
+    private static final Route ROUTE_2 = Route.builder()
+            .routeId("route-2")
+            .wallId("wall-1")
+            .name("Route 2")
+            .style("trad")
+            .gradeCounts(new GradeCounts())
+            .build();
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static final Optional<UserData> MAYBE_USER_DATA = Optional.of(UserData.builder()
+            .userId("33")
+            .username("frodo-baggins")
+            .email("frodo@baggend.shire")
+            .isEmailVerified(true)
+            .isAdministrator(false)
+            .build());
+
+    private static final TransactWriteItem PITCH_2_SAVE = new TransactWriteItem().withPut(
+            new Put().withTableName("Pitches")
+                    .withItem(ImmutableMap.of("pitchId", new AttributeValue(UPDATED_PITCH_2.getPitchId()))));
+    private static final TransactWriteItem PITCH_2_DELETE = new TransactWriteItem().withDelete(
+            new Delete().withTableName("Pitches")
+                    .withKey(ImmutableMap.of("pitchId", new AttributeValue(PITCH_2.getPitchId()))));
+
+    @Mock
+    private RoutesDao mockRoutesDao;
+    @Mock
+    private PitchesDao mockPitchesDao;
+    @Mock
+    private AmazonDynamoDB mockAmazonDynamoDb;
+
+    private RouteGradeUpdater routeGradeUpdater;
+
+    @BeforeEach
+    void setUp() {
+        routeGradeUpdater = RouteGradeUpdater.builder()
+                .routesDao(mockRoutesDao)
+                .pitchesDao(mockPitchesDao)
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .build();
+        lenient().when(mockPitchesDao.buildSaveTransactWriteItem(UPDATED_PITCH_2))
+                .thenReturn(PITCH_2_SAVE);
+        lenient().when(mockPitchesDao.buildDeleteTransactWriteItem(PITCH_2.getPitchId()))
+                .thenReturn(PITCH_2_DELETE);
+        lenient().when(mockRoutesDao.buildGradeUpdateTransactWriteItem(any(), any()))
+                .thenAnswer(invocation -> buildGradeUpdate(invocation.getArgument(0)));
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.setDefault(RouteGradeUpdater.PitchChanges.class, new RouteGradeUpdater.PitchChanges());
+        nullPointerTester.testInstanceMethods(routeGradeUpdater, NullPointerTester.Visibility.PACKAGE);
+        nullPointerTester.testInstanceMethods(new RouteGradeUpdater.PitchChanges(),
+                NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void savePitch_writesPitchAndGradeCountsInOneTransaction_withoutListingPitches()
+            throws RouteGradeConflictException {
+        Route expectedRoute1 = ROUTE_1.toBuilder()
+                .grade(10)
+                .gradeModifier("a")
+                .danger("PG13")
+                .gradeCounts(GradeCounts.fromPitches(ImmutableList.of(PITCH_1, UPDATED_PITCH_2)))
+                .build();
+
+        routeGradeUpdater.savePitch(UPDATED_PITCH_2, new RouteGradeUpdater.PitchChanges().pitchRemoved(ROUTE_1, PITCH_2)
+                .pitchAdded(ROUTE_1, UPDATED_PITCH_2), MAYBE_USER_DATA);
+
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(expectedRoute1, ROUTE_1.getGradeCounts());
+        verify(mockAmazonDynamoDb).transactWriteItems(
+                new TransactWriteItemsRequest().withTransactItems(PITCH_2_SAVE, buildGradeUpdate(ROUTE_1)));
+        verify(mockPitchesDao).resourceSaved(UPDATED_PITCH_2);
+        verify(mockRoutesDao).gradeUpdated(ROUTE_1.getRouteId());
+        verify(mockPitchesDao, never()).getResources(any(), any());
+    }
+
+    @Test
+    void savePitch_countsPitches_whenRouteHasNoGradeCounts() throws RouteGradeConflictException {
+        // the index still has the old version of pitch 2
+        when(mockPitchesDao.getResources(any(), any())).thenReturn(ImmutableSet.of(PITCH_1, PITCH_2));
+
+        routeGradeUpdater.savePitch(UPDATED_PITCH_2,
+                new RouteGradeUpdater.PitchChanges().pitchRemoved(ROUTE_1_WITHOUT_GRADE_COUNTS, PITCH_2)
+                        .pitchAdded(ROUTE_1_WITHOUT_GRADE_COUNTS, UPDATED_PITCH_2), MAYBE_USER_DATA);
+
+        verify(mockPitchesDao).getResources(ROUTE_1.getRouteId(), MAYBE_USER_DATA);
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(ROUTE_1.toBuilder()
+                .grade(10)
+                .gradeModifier("a")
+                .danger("PG13")
+                .gradeCounts(GradeCounts.fromPitches(ImmutableList.of(PITCH_1, UPDATED_PITCH_2)))
+                .build(), null);
+    }
+
+    @Test
+    void savePitch_updatesEachRouteOnce() throws RouteGradeConflictException {
+        routeGradeUpdater.savePitch(UPDATED_PITCH_2, new RouteGradeUpdater.PitchChanges().pitchRemoved(ROUTE_1, PITCH_2)
+                .pitchAdded(ROUTE_2, PITCH_3)
+                .pitchRemoved(ROUTE_1, PITCH_1), MAYBE_USER_DATA);
+
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(ROUTE_1.toBuilder()
+                .grade(null)
+                .gradeModifier(null)
+                .danger(null)
+                .gradeCounts(new GradeCounts())
+                .build(), ROUTE_1.getGradeCounts());
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(ROUTE_2.toBuilder()
+                .grade(12)
+                .gradeModifier("b")
+                .danger("X")
+                .gradeCounts(withCounts(PITCH_3))
+                .build(), ROUTE_2.getGradeCounts());
+        verify(mockAmazonDynamoDb).transactWriteItems(
+                new TransactWriteItemsRequest().withTransactItems(PITCH_2_SAVE, buildGradeUpdate(ROUTE_1),
+                        buildGradeUpdate(ROUTE_2)));
+        verify(mockRoutesDao).gradeUpdated(ROUTE_1.getRouteId());
+        verify(mockRoutesDao).gradeUpdated(ROUTE_2.getRouteId());
+    }
+
+    @Test
+    void deletePitch_deletesPitchAndUpdatesGradeCountsInOneTransaction() throws RouteGradeConflictException {
+        routeGradeUpdater.deletePitch(PITCH_2.getPitchId(),
+                new RouteGradeUpdater.PitchChanges().pitchRemoved(ROUTE_1, PITCH_2), MAYBE_USER_DATA);
+
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(ROUTE_1.toBuilder()
+                .grade(10)
+                .gradeModifier("a")
+                .danger("PG13")
+                .gradeCounts(withCounts(PITCH_1))
+                .build(), ROUTE_1.getGradeCounts());
+        verify(mockAmazonDynamoDb).transactWriteItems(
+                new TransactWriteItemsRequest().withTransactItems(PITCH_2_DELETE, buildGradeUpdate(ROUTE_1)));
+        verify(mockPitchesDao).resourceDeleted(PITCH_2.getPitchId());
+        verify(mockRoutesDao).gradeUpdated(ROUTE_1.getRouteId());
+    }
+
+    @Test
+    void deletePitch_onlyDeletesPitch_whenThereAreNoRouteChanges() throws RouteGradeConflictException {
+        routeGradeUpdater.deletePitch(PITCH_2.getPitchId(), new RouteGradeUpdater.PitchChanges(), MAYBE_USER_DATA);
+
+        verify(mockAmazonDynamoDb).transactWriteItems(
+                new TransactWriteItemsRequest().withTransactItems(PITCH_2_DELETE));
+        verify(mockPitchesDao).resourceDeleted(PITCH_2.getPitchId());
+        verify(mockRoutesDao, never()).gradeUpdated(any());
+    }
+
+    @Test
+    void savePitch_retriesFromLatestRoute_whenTransactionIsCanceled() throws RouteGradeConflictException {
+        // another request added pitch 1 in the meantime
+        Route latestRoute2 = ROUTE_2.toBuilder()
+                .grade(10)
+                .gradeModifier("a")
+                .danger("PG13")
+                .gradeCounts(withCounts(PITCH_1))
+                .build();
+        when(mockAmazonDynamoDb.transactWriteItems(any())).thenThrow(
+                new TransactionCanceledException("condition failed"))
+                .thenReturn(new TransactWriteItemsResult());
+        when(mockRoutesDao.getResourceConsistently(any())).thenReturn(Optional.of(latestRoute2));
+
+        routeGradeUpdater.savePitch(UPDATED_PITCH_2, new RouteGradeUpdater.PitchChanges().pitchAdded(ROUTE_2, PITCH_3),
+                MAYBE_USER_DATA);
+
+        verify(mockRoutesDao).getResourceConsistently(ROUTE_2.getRouteId());
+        verify(mockRoutesDao).buildGradeUpdateTransactWriteItem(ROUTE_2.toBuilder()
+                .grade(12)
+                .gradeModifier("b")
+                .danger("X")
+                .gradeCounts(withCounts(PITCH_1, PITCH_3))
+                .build(), latestRoute2.getGradeCounts());
+        verify(mockAmazonDynamoDb, times(2)).transactWriteItems(any());
+        verify(mockPitchesDao, times(1)).resourceSaved(UPDATED_PITCH_2);
+        verify(mockRoutesDao, times(1)).gradeUpdated(ROUTE_2.getRouteId());
+    }
+
+    @Test
+    void savePitch_leavesRouteOut_whenRouteWasDeletedConcurrently() throws RouteGradeConflictException {
+        when(mockAmazonDynamoDb.transactWriteItems(any())).thenThrow(
+                new TransactionCanceledException("condition failed"))
+                .thenReturn(new TransactWriteItemsResult());
+        when(mockRoutesDao.getResourceConsistently(any())).thenReturn(Optional.empty());
+
+        routeGradeUpdater.savePitch(UPDATED_PITCH_2, new RouteGradeUpdater.PitchChanges().pitchAdded(ROUTE_2, PITCH_3),
+                MAYBE_USER_DATA);
+
+        verify(mockAmazonDynamoDb).transactWriteItems(
+                new TransactWriteItemsRequest().withTransactItems(PITCH_2_SAVE));
+        verify(mockPitchesDao).resourceSaved(UPDATED_PITCH_2);
+        verify(mockRoutesDao, never()).gradeUpdated(any());
+    }
+
+    @Test
+    void savePitch_throwsRouteGradeConflictExceptionWithoutWriting_whenEveryAttemptIsCanceled() {
+        when(mockAmazonDynamoDb.transactWriteItems(any())).thenThrow(
+                new TransactionCanceledException("condition failed"));
+        when(mockRoutesDao.getResourceConsistently(any())).thenReturn(Optional.of(ROUTE_2));
+
+        assertThrows(RouteGradeConflictException.class, () -> routeGradeUpdater.savePitch(UPDATED_PITCH_2,
+                new RouteGradeUpdater.PitchChanges().pitchAdded(ROUTE_2, PITCH_3), MAYBE_USER_DATA));
+
+        verify(mockAmazonDynamoDb, times(3)).transactWriteItems(any());
+        verify(mockPitchesDao, never()).resourceSaved(any());
+        verify(mockRoutesDao, never()).gradeUpdated(any());
+    }
+
+    // stands in for the update the routes DAO builds, which is tested there
+    private static TransactWriteItem buildGradeUpdate(Route route) {
+        return new TransactWriteItem().withUpdate(new Update().withTableName("Routes")
+                .withKey(ImmutableMap.of("routeId", new AttributeValue(route.getRouteId()))));
+    }
+
+    private static GradeCounts withCounts(Pitch... pitches) {
+        return GradeCounts.fromPitches(Arrays.asList(pitches));
+    }
+}
@@ -0,0 +1,97 @@
+package com.climbassist.api.resource.point;
+
+import com.climbassist.api.resource.common.recursion.RecursiveResourceRetriever;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PackedPointRetrieverTest {
+
+    private static final String PITCH_ID = "pitch-1";
+    private static final List<Point> POINTS = ImmutableList.of(Point.builder()
+            .pointId("point-1")
+            .pitchId(PITCH_ID)
+            .x(1.0)
+            .y(1.0)
+            .z(1.0)
+            .first(true)
+            .build());
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static final Optional<UserData> MAYBE_USER_DATA = Optional.of(UserData.builder()
+            .userId("33")
+            .username("frodo-baggins")
+            .email("frodo@baggend.shire")
+            .isEmailVerified(true)
+            .isAdministrator(false)
+            .build());
+
+    @Mock
+    private PackedPointStore mockPackedPointStore;
+    @Mock
+    private RecursiveResourceRetriever<Point, Pitch> mockRecursiveResourceRetriever;
+
+    private PackedPointRetriever packedPointRetriever;
+
+    @BeforeEach
+    void setUp() {
+        packedPointRetriever = PackedPointRetriever.builder()
+                .packedPointStore(mockPackedPointStore)
+                .recursiveResourceRetriever(mockRecursiveResourceRetriever)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testAllPublicInstanceMethods(packedPointRetriever);
+    }
+
+    @Test
+    void getChildren_returnsPackedPoints_whenPitchHasPackedPoints() {
+        when(mockPackedPointStore.getPoints(any(), any())).thenReturn(Optional.of(POINTS));
+
+        assertThat(packedPointRetriever.getChildren(PITCH_ID, MAYBE_USER_DATA), is(equalTo(POINTS)));
+
+        verify(mockPackedPointStore).getPoints(PITCH_ID, MAYBE_USER_DATA);
+        verifyNoInteractions(mockRecursiveResourceRetriever);
+    }
+
+    @Test
+    void getChildren_callsRecursiveResourceRetriever_whenPitchHasNoPackedPoints() {
+        when(mockPackedPointStore.getPoints(any(), any())).thenReturn(Optional.empty());
+        when(mockRecursiveResourceRetriever.getChildren(any(), any())).thenReturn(POINTS);
+
+        assertThat(packedPointRetriever.getChildren(PITCH_ID, MAYBE_USER_DATA), is(equalTo(POINTS)));
+
+        verify(mockRecursiveResourceRetriever).getChildren(PITCH_ID, MAYBE_USER_DATA);
+    }
+
+    @Test
+    void getRecursiveResourceRetrievers_returnsEmptySet() {
+        assertThat(packedPointRetriever.getRecursiveResourceRetrievers(), is(empty()));
+    }
+
+    @Test
+    void getChildClass_returnsPointClass() {
+        assertThat(packedPointRetriever.getChildClass(), is(equalTo(Point.class)));
+    }
+}
@@ -0,0 +1,384 @@
+package com.climbassist.api.resource.point;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.climbassist.api.resource.common.ordering.OrderableListBuilder;
+import com.climbassist.api.resource.pitch.Pitch;
+import com.climbassist.api.resource.pitch.PitchesDao;
+import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PackedPointStoreTest {
+
+    private static final String PITCH_ID = "pitch-1";
+    private static final Point POINT_3 = Point.builder()
+            .pointId("point-3")
+            .pitchId(PITCH_ID)
+            .x(3.0)
+            .y(3.0)
+            .z(3.0)
+            .build();
+    private static final Point POINT_2 = Point.builder()
+            .pointId("point-2")
+            .pitchId(PITCH_ID)
+            .x(2.0)
+            .y(2.0)
+            .z(2.0)
+            .next(POINT_3.getPointId())
+            .build();
+    private static final Point LAST_POINT_2 = Point.builder()
+            .pointId(POINT_2.getPointId())
+            .pitchId(PITCH_ID)
+            .x(2.0)
+            .y(2.0)
+            .z(2.0)
+            .build();
+    private static final Point POINT_1 = Point.builder()
+            .pointId("point-1")
+            .pitchId(PITCH_ID)
+            .x(1.0)
+            .y(1.0)
+            .z(1.0)
+            .first(true)
+            .next(POINT_2.getPointId())
+            .build();
+    private static final PackedPoints PACKED_POINTS_1_2 = PackedPoints.pack(ImmutableList.of(POINT_1, LAST_POINT_2));
+    private static final PackedPoints PACKED_POINTS_1_2_3 = PackedPoints.pack(
+            ImmutableList.of(POINT_1, POINT_2, POINT_3));
+    // first and next aren't maintained when order keys are enabled
+    private static final Point KEYED_POINT_1 = withOrderKey(POINT_1, "F");
+    private static final Point KEYED_POINT_2 = withOrderKey(POINT_2, "V");
+    private static final Point KEYED_POINT_3 = withOrderKey(POINT_3, "l");
+    private static final Pitch PITCH = Pitch.builder()
+            .pitchId(PITCH_ID)
+            .routeId("route-1")
+            .build();
+    private static final Pitch PITCH_WITH_PACKED_POINTS = PITCH.toBuilder()
+            .packedPoints(PACKED_POINTS_1_2)
+            .build();
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static final Optional<UserData> MAYBE_USER_DATA = Optional.of(UserData.builder()
+            .userId("33")
+            .username("frodo-baggins")
+            .email("frodo@baggend.shire")
+            .isEmailVerified(true)
+            .isAdministrator(false)
+            .build());
+
+    @Mock
+    private PitchesDao mockPitchesDao;
+    @Mock
+    private PointsDao mockPointsDao;
+
+    private PackedPointStore packedPointStore;
+
+    @BeforeEach
+    void setUp() {
+        packedPointStore = buildPackedPointStore(true);
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.setDefault(PackedPointStore.PointChanges.class, new PackedPointStore.PointChanges());
+        nullPointerTester.testInstanceMethods(packedPointStore, NullPointerTester.Visibility.PACKAGE);
+        nullPointerTester.testInstanceMethods(new PackedPointStore.PointChanges(),
+                NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void getPoints_returnsUnpackedPoints_whenPitchHasPackedPoints() {
+        when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+
+        assertThat(packedPointStore.getPoints(PITCH_ID, MAYBE_USER_DATA),
+                is(equalTo(Optional.of(ImmutableList.of(POINT_1, LAST_POINT_2)))));
+
+        verify(mockPitchesDao).getResource(PITCH_ID, MAYBE_USER_DATA);
+    }
+
+    @Test
+    void getPoints_returnsEmpty_whenPitchHasNoPackedPoints() {
+        when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH));
+
+        assertThat(packedPointStore.getPoints(PITCH_ID, MAYBE_USER_DATA), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void getPoints_returnsEmpty_whenDisabled() {
+        assertThat(buildPackedPointStore(false).getPoints(PITCH_ID, MAYBE_USER_DATA), is(equalTo(Optional.empty())));
+
+        verifyNoInteractions(mockPitchesDao);
+    }
+
+    @Test
+    void updatePackedPoints_appliesChangesToPackedPoints_withoutQueryingPoints() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(LAST_POINT_2)
+                .pointSaved(POINT_2)
+                .pointSaved(POINT_3));
+
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID, PACKED_POINTS_1_2_3, PACKED_POINTS_1_2);
+        verifyNoInteractions(mockPointsDao);
+    }
+
+    @Test
+    void updatePackedPoints_mergesChangesWithQueriedPoints_whenPitchHasNoPackedPoints() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH));
+        // the index hasn't caught up with the update to point 2 or the creation of point 3 yet
+        when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of(POINT_1, LAST_POINT_2));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(POINT_2)
+                .pointSaved(POINT_3));
+
+        verify(mockPointsDao).getResources(PITCH_ID, Optional.empty());
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID, PACKED_POINTS_1_2_3, null);
+    }
+
+    @Test
+    void updatePackedPoints_removesPackedPoints_whenPointsAreNotInValidOrder() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        // point 2 points to point 3, which hasn't been created yet
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(POINT_2));
+
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID, null, PACKED_POINTS_1_2);
+    }
+
+    @Test
+    void updatePackedPoints_doesNotWrite_whenPackedPointsAreUnchanged() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(LAST_POINT_2));
+
+        verify(mockPitchesDao, never()).updatePackedPoints(any(), any(), any());
+    }
+
+    @Test
+    void updatePackedPoints_retriesFromLatestPitch_whenPackedPointsWereChangedConcurrently() {
+        // another request removed the packed points between the read and the write
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS),
+                Optional.of(PITCH));
+        when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of(POINT_1, LAST_POINT_2));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.empty(),
+                Optional.of(PITCH));
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(LAST_POINT_2)
+                .pointSaved(POINT_2)
+                .pointSaved(POINT_3));
+
+        verify(mockPitchesDao, times(2)).getResourceConsistently(PITCH_ID);
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID, PACKED_POINTS_1_2_3, PACKED_POINTS_1_2);
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID, PACKED_POINTS_1_2_3, null);
+        verify(mockPitchesDao, never()).clearPackedPoints(any());
+    }
+
+    @Test
+    void updatePackedPoints_clearsPackedPoints_whenEveryAttemptConflicts() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.empty());
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(LAST_POINT_2)
+                .pointSaved(POINT_2)
+                .pointSaved(POINT_3));
+
+        verify(mockPitchesDao, times(3)).updatePackedPoints(PITCH_ID, PACKED_POINTS_1_2_3, PACKED_POINTS_1_2);
+        verify(mockPitchesDao).clearPackedPoints(PITCH_ID);
+    }
+
+    @Test
+    void updatePackedPoints_clearsPackedPoints_whenUpdateFails() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenThrow(
+                new ProvisionedThroughputExceededException("Rate exceeded."));
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(LAST_POINT_2)
+                .pointSaved(POINT_2)
+                .pointSaved(POINT_3));
+
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID, PACKED_POINTS_1_2_3, PACKED_POINTS_1_2);
+        verify(mockPitchesDao).clearPackedPoints(PITCH_ID);
+    }
+
+    @Test
+    void updatePackedPoints_clearsPackedPoints_whenPointsCannotBeQueried() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH));
+        when(mockPointsDao.getResources(any(), any())).thenThrow(new SdkClientException("Unable to connect."));
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(POINT_3));
+
+        verify(mockPitchesDao, never()).updatePackedPoints(any(), any(), any());
+        verify(mockPitchesDao).clearPackedPoints(PITCH_ID);
+    }
+
+    @Test
+    void updatePackedPoints_throws_whenPackedPointsCannotBeCleared() {
+        SdkClientException sdkClientException = new SdkClientException("Unable to connect.");
+        when(mockPitchesDao.getResourceConsistently(any())).thenThrow(sdkClientException);
+        doThrow(sdkClientException).when(mockPitchesDao)
+                .clearPackedPoints(any());
+
+        assertThrows(SdkClientException.class, () -> packedPointStore.updatePackedPoints(
+                new PackedPointStore.PointChanges().pointSaved(POINT_3)));
+
+        verify(mockPitchesDao).clearPackedPoints(PITCH_ID);
+    }
+
+    @Test
+    void updatePackedPoints_stops_whenPitchWasDeleted() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.empty());
+
+        packedPointStore.updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(POINT_3));
+
+        verify(mockPitchesDao, never()).updatePackedPoints(any(), any(), any());
+        verifyNoInteractions(mockPointsDao);
+    }
+
+    @Test
+    void updatePackedPoints_doesNothing_whenDisabled() {
+        buildPackedPointStore(false).updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(POINT_3));
+
+        verifyNoInteractions(mockPitchesDao, mockPointsDao);
+    }
+
+    @Test
+    void clearPackedPoints_callsPitchesDao() {
+        packedPointStore.clearPackedPoints(PITCH_ID);
+
+        verify(mockPitchesDao).clearPackedPoints(PITCH_ID);
+    }
+
+    @Test
+    void clearPackedPoints_doesNothing_whenDisabled() {
+        buildPackedPointStore(false).clearPackedPoints(PITCH_ID);
+
+        verifyNoInteractions(mockPitchesDao);
+    }
+
+    @Test
+    void onResourcesCreated_packsBatchWithOneWrite() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH));
+        when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of());
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        packedPointStore.onResourcesCreated(PITCH_ID, ImmutableList.of(POINT_1, POINT_2, POINT_3));
+
+        verify(mockPitchesDao).updatePackedPoints(eq(PITCH_ID), eq(PACKED_POINTS_1_2_3), any());
+    }
+
+    @Test
+    void getPoints_returnsPointsWithOrderKeys_whenOrderKeysAreEnabled() {
+        when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH.toBuilder()
+                .packedPoints(PackedPoints.pack(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_2)))
+                .build()));
+
+        assertThat(buildPackedPointStore(true, true).getPoints(PITCH_ID, MAYBE_USER_DATA),
+                is(equalTo(Optional.of(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_2)))));
+    }
+
+    @Test
+    void getPoints_returnsEmpty_whenOrderKeysAreEnabledAndPackedPointsHaveNoOrderKeys() {
+        when(mockPitchesDao.getResource(any(), any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+
+        assertThat(buildPackedPointStore(true, true).getPoints(PITCH_ID, MAYBE_USER_DATA),
+                is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void updatePackedPoints_ordersPointsByOrderKey_whenOrderKeysAreEnabled() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH.toBuilder()
+                .packedPoints(PackedPoints.pack(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_3)))
+                .build()));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        // inserted between the other points by its key alone
+        buildPackedPointStore(true, true).updatePackedPoints(
+                new PackedPointStore.PointChanges().pointSaved(KEYED_POINT_2));
+
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID,
+                PackedPoints.pack(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_2, KEYED_POINT_3)),
+                PackedPoints.pack(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_3)));
+        verifyNoInteractions(mockPointsDao);
+    }
+
+    @Test
+    void updatePackedPoints_queriesPoints_whenOrderKeysAreEnabledAndPackedPointsHaveNoOrderKeys() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH_WITH_PACKED_POINTS));
+        when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of(KEYED_POINT_1, KEYED_POINT_3));
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        buildPackedPointStore(true, true).updatePackedPoints(
+                new PackedPointStore.PointChanges().pointSaved(KEYED_POINT_2));
+
+        verify(mockPointsDao).getResources(PITCH_ID, Optional.empty());
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID,
+                PackedPoints.pack(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_2, KEYED_POINT_3)), PACKED_POINTS_1_2);
+        verify(mockPitchesDao, never()).clearPackedPoints(any());
+    }
+
+    @Test
+    void onResourcesCreated_packsOrderKeys_whenOrderKeysAreEnabled() {
+        when(mockPitchesDao.getResourceConsistently(any())).thenReturn(Optional.of(PITCH));
+        when(mockPointsDao.getResources(any(), any())).thenReturn(ImmutableSet.of());
+        when(mockPitchesDao.updatePackedPoints(any(), any(), any())).thenReturn(Optional.of(PITCH));
+
+        buildPackedPointStore(true, true).onResourcesCreated(PITCH_ID,
+                ImmutableList.of(KEYED_POINT_1, KEYED_POINT_2, KEYED_POINT_3));
+
+        verify(mockPitchesDao).updatePackedPoints(PITCH_ID,
+                PackedPoints.pack(ImmutableList.of(KEYED_POINT_1, KEYED_POINT_2, KEYED_POINT_3)), null);
+        verify(mockPitchesDao, never()).clearPackedPoints(any());
+    }
+
+    private PackedPointStore buildPackedPointStore(boolean enabled) {
+        return buildPackedPointStore(enabled, false);
+    }
+
+    private PackedPointStore buildPackedPointStore(boolean enabled, boolean orderKeysEnabled) {
+        return PackedPointStore.builder()
+                .pitchesDao(mockPitchesDao)
+                .pointsDao(mockPointsDao)
+                .orderableListBuilder(new OrderableListBuilder<>(orderKeysEnabled))
+                .enabled(enabled)
+                .orderKeysEnabled(orderKeysEnabled)
+                .build();
+    }
+
+    private static Point withOrderKey(Point point, String orderKey) {
+        return Point.builder()
+                .pointId(point.getPointId())
+                .pitchId(point.getPitchId())
+                .x(point.getX())
+                .y(point.getY())
+                .z(point.getZ())
+                .orderKey(orderKey)
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.climbassist.api.resource.point;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedPointsTest {
+
+    private static final String PITCH_ID = "pitch-1";
+    private static final Point POINT_3 = Point.builder()
+            .pointId("point-3")
+            .pitchId(PITCH_ID)
+            .x(-3.5)
+            .y(30.25)
+            .z(300.0)
+            .build();
+    private static final Point POINT_2 = Point.builder()
+            .pointId("point-2")
+            .pitchId(PITCH_ID)
+            .x(2.0)
+            .y(-20.0)
+            .z(200.5)
+            .next(POINT_3.getPointId())
+            .build();
+    private static final Point POINT_1 = Point.builder()
+            .pointId("point-1")
+            .pitchId(PITCH_ID)
+            .x(1.0)
+            .y(10.0)
+            .z(100.0)
+            .first(true)
+            .next(POINT_2.getPointId())
+            .build();
+    private static final List<Point> POINTS = ImmutableList.of(POINT_1, POINT_2, POINT_3);
+    private static final List<Point> POINTS_WITH_ORDER_KEYS = ImmutableList.of(withOrderKey(POINT_1, "F", true),
+            withOrderKey(POINT_2, "V", true), withOrderKey(POINT_3, "l", true));
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testAllPublicStaticMethods(PackedPoints.class);
+        nullPointerTester.testAllPublicInstanceMethods(PackedPoints.pack(POINTS));
+    }
+
+    @Test
+    void unpack_returnsPointsInOrder() {
+        assertThat(PackedPoints.pack(POINTS)
+                .unpack(PITCH_ID, false), is(equalTo(POINTS)));
+    }
+
+    @Test
+    void unpack_returnsOrderKeysWithoutFirstAndNext_whenOrderKeysAreEnabled() {
+        assertThat(PackedPoints.pack(POINTS_WITH_ORDER_KEYS)
+                .unpack(PITCH_ID, true), is(equalTo(ImmutableList.of(withOrderKey(POINT_1, "F", false),
+                withOrderKey(POINT_2, "V", false), withOrderKey(POINT_3, "l", false)))));
+    }
+
+    @Test
+    void unpack_returnsOrderKeysWithFirstAndNext_whenOrderKeysAreDisabled() {
+        assertThat(PackedPoints.pack(POINTS_WITH_ORDER_KEYS)
+                .unpack(PITCH_ID, false), is(equalTo(POINTS_WITH_ORDER_KEYS)));
+    }
+
+    @Test
+    void hasOrderKeys_returnsTrue_whenEveryPointHasOrderKey() {
+        assertThat(PackedPoints.pack(POINTS_WITH_ORDER_KEYS)
+                .hasOrderKeys(), is(true));
+    }
+
+    @Test
+    void hasOrderKeys_returnsFalse_whenAnyPointHasNoOrderKey() {
+        assertThat(PackedPoints.pack(ImmutableList.of(POINTS_WITH_ORDER_KEYS.get(0), POINT_2))
+                .hasOrderKeys(), is(false));
+    }
+
+    @Test
+    void unpack_returnsEmptyList_whenNoPointsWerePacked() {
+        assertThat(PackedPoints.pack(ImmutableList.of())
+                .unpack(PITCH_ID, false), is(empty()));
+    }
+
+    @Test
+    void unpack_roundsCoordinatesToFloats() {
+        Point point = Point.builder()
+                .pointId("point-1")
+                .pitchId(PITCH_ID)
+                .x(0.1)
+                .y(1.0 / 3)
+                .z(123456.789)
+                .first(true)
+                .build();
+
+        assertThat(PackedPoints.pack(ImmutableList.of(point))
+                .unpack(PITCH_ID, false), is(equalTo(ImmutableList.of(Point.builder()
+                .pointId("point-1")
+                .pitchId(PITCH_ID)
+                .x((double) 0.1f)
+                .y((double) (1.0f / 3))
+                .z((double) 123456.789f)
+                .first(true)
+                .build()))));
+    }
+
+    @Test
+    void size_returnsNumberOfPoints() {
+        assertThat(PackedPoints.pack(POINTS)
+                .size(), is(equalTo(3)));
+    }
+
+    @Test
+    void typeConverter_unconvertsConvertedPoints() {
+        PackedPoints.TypeConverter typeConverter = new PackedPoints.TypeConverter();
+        PackedPoints packedPoints = PackedPoints.pack(POINTS);
+        ByteBuffer byteBuffer = typeConverter.convert(packedPoints);
+
+        assertThat(typeConverter.unconvert(byteBuffer), is(equalTo(packedPoints)));
+        // the buffer can be read again, as the SDK does when it's written
+        assertThat(typeConverter.unconvert(byteBuffer), is(equalTo(packedPoints)));
+    }
+
+    @Test
+    void typeConverter_unconvertsConvertedPointsWithOrderKeys() {
+        PackedPoints.TypeConverter typeConverter = new PackedPoints.TypeConverter();
+        PackedPoints packedPoints = PackedPoints.pack(POINTS_WITH_ORDER_KEYS);
+
+        assertThat(typeConverter.unconvert(typeConverter.convert(packedPoints)), is(equalTo(packedPoints)));
+    }
+
+    @Test
+    void typeConverter_storesTwelveBytesOfCoordinatesPerPoint() {
+        // 1 byte of version, 4 of count, 12 of coordinates, 2 + 7 of ID and 2 of missing order key for each point
+        assertThat(new PackedPoints.TypeConverter().convert(PackedPoints.pack(POINTS))
+                .remaining(), is(equalTo(5 + 3 * (12 + 9 + 2))));
+    }
+
+    @Test
+    void typeConverter_unconvertsFirstFormatVersion_withoutOrderKeys() {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(5 + 12 + 9);
+        byteBuffer.put((byte) 1);
+        byteBuffer.putInt(1);
+        byteBuffer.putFloat(1.0f);
+        byteBuffer.putFloat(10.0f);
+        byteBuffer.putFloat(100.0f);
+        byteBuffer.putShort((short) 7);
+        byteBuffer.put(POINT_1.getPointId()
+                .getBytes(StandardCharsets.UTF_8));
+        byteBuffer.flip();
+
+        PackedPoints packedPoints = new PackedPoints.TypeConverter().unconvert(byteBuffer);
+
+        assertThat(packedPoints, is(equalTo(PackedPoints.pack(ImmutableList.of(POINT_1)))));
+        assertThat(packedPoints.hasOrderKeys(), is(false));
+    }
+
+    @Test
+    void typeConverter_handlesMultiByteCharactersInPointIds() {
+        PackedPoints.TypeConverter typeConverter = new PackedPoints.TypeConverter();
+        PackedPoints packedPoints = PackedPoints.pack(ImmutableList.of(Point.builder()
+                .pointId("point-é")
+                .pitchId(PITCH_ID)
+                .x(1.0)
+                .y(1.0)
+                .z(1.0)
+                .build()));
+
+        assertThat(typeConverter.unconvert(typeConverter.convert(packedPoints)), is(equalTo(packedPoints)));
+    }
+
+    @Test
+    void typeConverter_throwsIllegalArgumentException_whenFormatVersionIsUnknown() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PackedPoints.TypeConverter().unconvert(ByteBuffer.wrap(new byte[]{3, 0, 0, 0, 0})));
+    }
+
+    private static Point withOrderKey(Point point, String orderKey, boolean linked) {
+        return Point.builder()
+                .pointId(point.getPointId())
+                .pitchId(point.getPitchId())
+                .x(point.getX())
+                .y(point.getY())
+                .z(point.getZ())
+                .first(linked ? point.getFirst() : null)
+                .next(linked ? point.getNext() : null)
+                .orderKey(orderKey)
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import com.climbassist.api.resource.common.ResourceControllerDelegate;
 import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.batch.BatchDeleteResourcesResult;
 import com.climbassist.api.resource.common.batch.BatchResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
 import com.climbassist.api.resource.pitch.Anchors;
@@ -29,6 +30,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -125,6 +127,11 @@ class PointControllerTest {
     private static final DeleteResourceResult DELETE_RESOURCE_RESULT = DeleteResourceResult.builder()
             .successful(true)
             .build();
+    private static final BatchDeleteResourcesResult BATCH_DELETE_RESOURCES_RESULT = BatchDeleteResourcesResult.builder()
+            .successful(true)
+            .deletedResourceCount(2)
+            .durationMillis(10)
+            .build();
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private static final Optional<UserData> MAYBE_USER_DATA = Optional.of(UserData.builder()
             .userId("33")
@@ -144,6 +151,8 @@ class PointControllerTest {
     @Mock
     private BatchResourceWithParentControllerDelegate<Point, NewPoint, Pitch, BatchNewPoint>
             mockBatchResourceWithParentControllerDelegate;
+    @Mock
+    private PackedPointStore mockPackedPointStore;
 
     private PointController pointController;
 
@@ -154,6 +163,7 @@ class PointControllerTest {
                 .resourceWithParentControllerDelegate(mockResourceWithParentControllerDelegate)
                 .orderableResourceWithParentControllerDelegate(mockOrderableResourceWithParentControllerDelegate)
                 .batchResourceWithParentControllerDelegate(mockBatchResourceWithParentControllerDelegate)
+                .packedPointStore(mockPackedPointStore)
                 .build();
     }
 
@@ -196,14 +206,42 @@ class PointControllerTest {
                 MAYBE_USER_DATA);
     }
 
+    @Test
+    void getResourcesForParent_returnsPackedPoints_whenPitchHasPackedPoints()
+            throws ResourceNotFoundException, InvalidOrderingException {
+        List<Point> points = ImmutableList.of(POINT_1, POINT_2, POINT_3);
+        when(mockPackedPointStore.getPoints(any(), any())).thenReturn(Optional.of(points));
+        assertThat(pointController.getResourcesForParent(PITCH_1.getPitchId(), false, MAYBE_USER_DATA),
+                is(equalTo(points)));
+        verify(mockPackedPointStore).getPoints(PITCH_1.getPitchId(), MAYBE_USER_DATA);
+        verifyNoInteractions(mockOrderableResourceWithParentControllerDelegate);
+    }
+
     @Test
     void createResource_callsResourceWithParentControllerDelegate() throws ResourceNotFoundException {
         CreatePointResult createPointResult = CreatePointResult.builder()
                 .pointId(POINT_1.getPointId())
                 .build();
-        when(mockResourceWithParentControllerDelegate.createResource(any(), any())).thenReturn(createPointResult);
+        when(mockResourceWithParentControllerDelegate.createAndGetResource(any(), any())).thenReturn(POINT_1);
         assertThat(pointController.createResource(NEW_POINT_1, MAYBE_USER_DATA), is(equalTo(createPointResult)));
-        verify(mockResourceWithParentControllerDelegate).createResource(NEW_POINT_1, MAYBE_USER_DATA);
+        verify(mockResourceWithParentControllerDelegate).createAndGetResource(NEW_POINT_1, MAYBE_USER_DATA);
+        verify(mockPackedPointStore).updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(POINT_1));
+    }
+
+    @Test
+    void createResource_packsOrderKeyOfSavedPoint() throws ResourceNotFoundException {
+        // the DAO gives a point its order key when it's saved
+        Point savedPoint = Point.builder()
+                .pointId(POINT_1.getPointId())
+                .pitchId(POINT_1.getPitchId())
+                .x(POINT_1.getX())
+                .y(POINT_1.getY())
+                .z(POINT_1.getZ())
+                .orderKey("V")
+                .build();
+        when(mockResourceWithParentControllerDelegate.createAndGetResource(any(), any())).thenReturn(savedPoint);
+        pointController.createResource(NEW_POINT_1, MAYBE_USER_DATA);
+        verify(mockPackedPointStore).updatePackedPoints(new PackedPointStore.PointChanges().pointSaved(savedPoint));
     }
 
     @Test
@@ -224,26 +262,32 @@ class PointControllerTest {
         UpdateResourceResult updateResourceResult = UpdateResourceResult.builder()
                 .successful(true)
                 .build();
+        when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(POINT_1);
         when(mockResourceWithParentControllerDelegate.updateResource(any(), any())).thenReturn(updateResourceResult);
         assertThat(pointController.updateResource(UPDATED_POINT_1, MAYBE_USER_DATA), is(equalTo(updateResourceResult)));
         verify(mockResourceWithParentControllerDelegate).updateResource(UPDATED_POINT_1, MAYBE_USER_DATA);
+        verify(mockPackedPointStore).updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(POINT_1)
+                .pointSaved(UPDATED_POINT_1));
     }
 
     @Test
     void deleteResource_callsResourceControllerDelegate() throws ResourceNotFoundException {
+        when(mockResourceControllerDelegate.getResource(any(), any())).thenReturn(POINT_1);
         when(mockResourceControllerDelegate.deleteResource(any(), any())).thenReturn(DELETE_RESOURCE_RESULT);
         assertThat(pointController.deleteResource(POINT_1.getPointId(), MAYBE_USER_DATA),
                 is(equalTo(DELETE_RESOURCE_RESULT)));
         verify(mockResourceControllerDelegate).deleteResource(POINT_1.getPointId(), MAYBE_USER_DATA);
+        verify(mockPackedPointStore).updatePackedPoints(new PackedPointStore.PointChanges().pointRemoved(POINT_1));
     }
 
     @Test
     void batchDeleteResources_callsBatchResourceWithParentControllerDelegate_whenPitchIdIsSupplied()
             throws ResourceNotFoundException {
         when(mockBatchResourceWithParentControllerDelegate.batchDeleteResources(any(String.class), any())).thenReturn(
-                DELETE_RESOURCE_RESULT);
+                BATCH_DELETE_RESOURCES_RESULT);
         assertThat(pointController.batchDeleteResources(PITCH_1.getId(), MAYBE_USER_DATA),
-                is(equalTo(DELETE_RESOURCE_RESULT)));
+                is(equalTo(BATCH_DELETE_RESOURCES_RESULT)));
         verify(mockBatchResourceWithParentControllerDelegate).batchDeleteResources(PITCH_1.getId(), MAYBE_USER_DATA);
+        verify(mockPackedPointStore).clearPackedPoints(PITCH_1.getId());
     }
 }
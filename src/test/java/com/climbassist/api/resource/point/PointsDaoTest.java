@@ -39,6 +39,8 @@ class PointsDaoTest extends AbstractResourceWithParentDaoTest<Point, Pitch, Poin
         return PointsDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
@@ -6,6 +6,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.country.Country;
 import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableSet;
@@ -83,9 +84,13 @@ class RegionControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(REGION_1);
-        assertThat(regionController.getResource(REGION_1.getRegionId(), DEPTH, MAYBE_USER_DATA), is(equalTo(REGION_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(REGION_1.getRegionId(), DEPTH, MAYBE_USER_DATA);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(REGION_1.getRegionId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
+        assertThat(regionController.getResource(REGION_1.getRegionId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(REGION_1.getRegionId(), DEPTH,
+                MAYBE_USER_DATA);
     }
 
     @Test
@@ -33,6 +33,8 @@ class RegionsDaoTest extends AbstractResourceWithParentDaoTest<Region, Country,
         return RegionsDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
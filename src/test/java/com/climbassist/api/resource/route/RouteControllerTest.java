@@ -10,8 +10,8 @@ import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
 import com.climbassist.api.resource.common.image.ResourceWithImageControllerDelegate;
 import com.climbassist.api.resource.common.image.UploadImageResult;
-import com.climbassist.api.resource.common.image.webpconverter.WebpConverterException;
 import com.climbassist.api.resource.common.ordering.InvalidOrderingException;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.pitch.PitchesDao;
 import com.climbassist.api.resource.wall.Wall;
@@ -28,9 +28,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -48,6 +48,7 @@ class RouteControllerTest {
 
     private static final String ROUTE_1_ID = "crag-1";
     private static final String IMAGES_BUCKET_NAME = "photos";
+    private static final long UPLOAD_TIMEOUT_MILLIS = 900000L;
     private static final String WEBP_IMAGE_KEY = String.format("%s/%s.webp", ROUTE_1_ID, ROUTE_1_ID);
     private static final String JPG_IMAGE_KEY = String.format("%s/%s.jpg", ROUTE_1_ID, ROUTE_1_ID);
     private static final Route ROUTE_1 = Route.builder()
@@ -174,6 +175,7 @@ class RouteControllerTest {
                 .resourceWithImageControllerDelegate(mockResourceWithImageControllerDelegate)
                 .routesDao(mockRoutesDao)
                 .s3Proxy(mockS3Proxy)
+                .uploadTimeoutMillis(UPLOAD_TIMEOUT_MILLIS)
                 .routeNotFoundExceptionFactory(mockRouteNotFoundExceptionFactory)
                 .pitchesDao(mockPitchesDao)
                 .routeNotEmptyExceptionFactory(mockRouteNotEmptyExceptionFactory)
@@ -189,9 +191,13 @@ class RouteControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(ROUTE_1);
-        assertThat(routeController.getResource(ROUTE_1.getRouteId(), DEPTH, MAYBE_USER_DATA), is(equalTo(ROUTE_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(ROUTE_1.getRouteId(), DEPTH, MAYBE_USER_DATA);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(ROUTE_1.getRouteId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
+        assertThat(routeController.getResource(ROUTE_1.getRouteId(), DEPTH, MAYBE_USER_DATA),
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(ROUTE_1.getRouteId(), DEPTH,
+                MAYBE_USER_DATA);
     }
 
     @Test
@@ -294,14 +300,14 @@ class RouteControllerTest {
     }
 
     @Test
-    void uploadImage_callsResourceWithImageAndChildrenControllerDelegate()
-            throws ResourceNotFoundException, IOException, WebpConverterException {
+    void uploadImage_callsResourceWithImageAndChildrenControllerDelegate() {
         UploadImageResult uploadImageResult = UploadImageResult.builder()
                 .successful(true)
                 .build();
-        when(mockResourceWithImageControllerDelegate.uploadImage(any(), any(), any())).thenReturn(uploadImageResult);
-        assertThat(routeController.uploadImage(ROUTE_1.getRouteId(), IMAGE, MAYBE_USER_DATA),
-                is(equalTo(uploadImageResult)));
+        when(mockResourceWithImageControllerDelegate.uploadImage(any(), any(), any())).thenReturn(
+                CompletableFuture.completedFuture(uploadImageResult));
+        assertThat(routeController.uploadImage(ROUTE_1.getRouteId(), IMAGE, MAYBE_USER_DATA)
+                .getResult(), is(equalTo(uploadImageResult)));
         verify(mockResourceWithImageControllerDelegate).uploadImage(ROUTE_1.getRouteId(), IMAGE, MAYBE_USER_DATA);
     }
 }
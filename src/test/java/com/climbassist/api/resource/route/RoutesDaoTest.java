@@ -1,12 +1,33 @@
 package com.climbassist.api.resource.route;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Update;
 import com.climbassist.api.resource.common.AbstractResourceWithParentDaoTest;
+import com.climbassist.api.resource.common.grade.GradeCounts;
+import com.climbassist.api.resource.pitch.Pitch;
 import com.climbassist.api.resource.wall.Wall;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
 class RoutesDaoTest extends AbstractResourceWithParentDaoTest<Route, Wall, RoutesDao> {
 
     private static final Route ROUTE_1 = Route.builder()
@@ -42,6 +63,15 @@ class RoutesDaoTest extends AbstractResourceWithParentDaoTest<Route, Wall, Route
             .style("trad")
             .build();
 
+    private static final GradeCounts GRADE_COUNTS = GradeCounts.fromPitches(ImmutableList.of(Pitch.builder()
+            .grade(1)
+            .gradeModifier("a")
+            .build()));
+    private static final GradeCounts PREVIOUS_GRADE_COUNTS = GradeCounts.fromPitches(ImmutableList.of(Pitch.builder()
+            .grade(2)
+            .danger("R")
+            .build()));
+
     private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = DynamoDBMapperConfig.builder()
             .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride("Routes"))
             .build();
@@ -55,7 +85,94 @@ class RoutesDaoTest extends AbstractResourceWithParentDaoTest<Route, Wall, Route
         return RoutesDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
+                .build();
+    }
+
+    @Test
+    void buildGradeUpdateTransactWriteItem_updatesOnlyGradeAttributes_whenRouteHasNoGradeCounts() {
+        Route route = ROUTE_1.toBuilder()
+                .gradeCounts(GRADE_COUNTS)
+                .build();
+        stubTableModel();
+
+        Update update = resourceDao.buildGradeUpdateTransactWriteItem(route, null)
+                .getUpdate();
+
+        assertThat(update.getTableName(), is(equalTo("Routes")));
+        assertThat(update.getKey(), is(equalTo(ImmutableMap.of("routeId", new AttributeValue(ROUTE_1.getRouteId())))));
+        assertThat(update.getUpdateExpression(), is(equalTo(
+                "SET #grade = :grade, #gradeModifier = :gradeModifier, #gradeKey = :gradeKey, " +
+                        "#gradeCounts = :gradeCounts REMOVE #danger")));
+        assertThat(update.getConditionExpression(),
+                is(equalTo("attribute_exists(routeId) AND attribute_not_exists(#gradeCounts)")));
+        assertThat(update.getExpressionAttributeValues()
+                .get(":gradeCounts"), is(equalTo(new AttributeValue(new GradeCounts.TypeConverter().convert(
+                GRADE_COUNTS)))));
+        verifyNoInteractions(mockResourceCache, mockResourceChangeListener);
+    }
+
+    @Test
+    void buildGradeUpdateTransactWriteItem_conditionsOnPreviousGradeCounts_whenTheyExist() {
+        Route route = ROUTE_1.toBuilder()
+                .gradeCounts(GRADE_COUNTS)
                 .build();
+        stubTableModel();
+
+        Update update = resourceDao.buildGradeUpdateTransactWriteItem(route, PREVIOUS_GRADE_COUNTS)
+                .getUpdate();
+
+        assertThat(update.getConditionExpression(),
+                is(equalTo("attribute_exists(routeId) AND #gradeCounts = :previousGradeCounts")));
+        assertThat(update.getExpressionAttributeValues()
+                .get(":previousGradeCounts"), is(equalTo(new AttributeValue(new GradeCounts.TypeConverter().convert(
+                PREVIOUS_GRADE_COUNTS)))));
+    }
+
+    @Test
+    void gradeUpdated_invalidatesCacheAndNotifiesListenerWithStoredRoute() {
+        Route storedRoute = ROUTE_1.toBuilder()
+                .gradeCounts(GRADE_COUNTS)
+                .build();
+        when(mockDynamoDbMapper.load(any(), any(), any(DynamoDBMapperConfig.class))).thenReturn(storedRoute);
+
+        resourceDao.gradeUpdated(ROUTE_1.getRouteId());
+
+        verify(mockResourceCache).invalidate(ROUTE_1.getRouteId());
+        verify(mockResourceChangeListener).onResourceSaved(storedRoute);
+    }
+
+    @Test
+    void gradeUpdated_onlyInvalidatesCache_whenRouteWasDeleted() {
+        when(mockDynamoDbMapper.load(any(), any(), any(DynamoDBMapperConfig.class))).thenReturn(null);
+
+        resourceDao.gradeUpdated(ROUTE_1.getRouteId());
+
+        verify(mockResourceCache).invalidate(ROUTE_1.getRouteId());
+        verify(mockResourceChangeListener, never()).onResourceSaved(any());
+    }
+
+    @Test
+    void getResourceConsistently_loadsRouteWithConsistentRead() {
+        ArgumentCaptor<DynamoDBMapperConfig> dynamoDbMapperConfigArgumentCaptor =
+                ArgumentCaptor.forClass(DynamoDBMapperConfig.class);
+        when(mockDynamoDbMapper.load(any(), any(), any(DynamoDBMapperConfig.class))).thenReturn(ROUTE_1);
+
+        assertThat(resourceDao.getResourceConsistently(ROUTE_1.getRouteId()), is(equalTo(Optional.of(ROUTE_1))));
+
+        verify(mockDynamoDbMapper).load(any(), any(), dynamoDbMapperConfigArgumentCaptor.capture());
+        assertThat(dynamoDbMapperConfigArgumentCaptor.getValue()
+                .getConsistentReads(), is(equalTo(DynamoDBMapperConfig.ConsistentReads.CONSISTENT)));
+        assertThat(dynamoDbMapperConfigArgumentCaptor.getValue()
+                .getTableNameOverride(), is(equalTo(DYNAMO_DB_MAPPER_CONFIG.getTableNameOverride())));
+        verify(mockResourceCache, never()).get(any(), any(), any());
+    }
+
+    // the table model is final, so a real one is built from the route's annotations
+    private void stubTableModel() {
+        when(mockDynamoDbMapper.getTableModel(Route.class)).thenReturn(
+                new DynamoDBMapper(mock(AmazonDynamoDB.class)).getTableModel(Route.class));
     }
 
     @Override
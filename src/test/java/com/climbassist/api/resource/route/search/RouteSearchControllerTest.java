@@ -0,0 +1,124 @@
+package com.climbassist.api.resource.route.search;
+
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.common.grade.GradeKey;
+import com.climbassist.api.resource.route.Route;
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteSearchControllerTest {
+
+    private static final String ANCESTOR_ID = "crag-1";
+    private static final String NEXT_TOKEN = "next-token";
+    private static final RouteSearchResult ROUTE_SEARCH_RESULT = RouteSearchResult.builder()
+            .routes(ImmutableList.of(Route.builder()
+                    .routeId("route-1")
+                    .wallId("wall-1")
+                    .name("Route 1")
+                    .style("boulder")
+                    .grade(4)
+                    .build()))
+            .nextToken("another-next-token")
+            .build();
+
+    @Mock
+    private RouteSearchIndex mockRouteSearchIndex;
+
+    private RouteSearchController routeSearchController;
+
+    @BeforeEach
+    void setUp() {
+        routeSearchController = RouteSearchController.builder()
+                .routeSearchIndex(mockRouteSearchIndex)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(routeSearchController, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void searchRoutes_searchesBetweenTheBoundsOfTheGradeRange() throws InvalidRequestException {
+        when(mockRouteSearchIndex.search(ANCESTOR_ID, GradeKey.lowerBound("boulder", 3),
+                GradeKey.upperBound("boulder", 5), 25, NEXT_TOKEN, Optional.empty())).thenReturn(
+                ROUTE_SEARCH_RESULT);
+        assertThat(routeSearchController.searchRoutes(ANCESTOR_ID, "boulder", 3, 5, null, null, 25, NEXT_TOKEN,
+                Optional.empty()), is(equalTo(ROUTE_SEARCH_RESULT)));
+    }
+
+    @Test
+    void searchRoutes_searchesBetweenTheGradeModifiersOfTheGradeRange() throws InvalidRequestException {
+        routeSearchController.searchRoutes(ANCESTOR_ID, "sport", 10, 11, "a", "c", 25, null, Optional.empty());
+
+        ArgumentCaptor<Integer> lowerGradeKeyArgumentCaptor = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<Integer> upperGradeKeyArgumentCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(mockRouteSearchIndex).search(eq(ANCESTOR_ID), lowerGradeKeyArgumentCaptor.capture(),
+                upperGradeKeyArgumentCaptor.capture(), eq(25), isNull(), eq(Optional.empty()));
+        int lowerGradeKey = lowerGradeKeyArgumentCaptor.getValue();
+        int upperGradeKey = upperGradeKeyArgumentCaptor.getValue();
+        assertThat(GradeKey.pack("sport", 10, "a", null), is(greaterThanOrEqualTo(lowerGradeKey)));
+        assertThat(GradeKey.pack("sport", 11, "c", "X"), is(lessThanOrEqualTo(upperGradeKey)));
+        assertThat(GradeKey.pack("sport", 10, null, null), is(lessThan(lowerGradeKey)));
+        assertThat(GradeKey.pack("sport", 11, "c/d", null), is(greaterThan(upperGradeKey)));
+        assertThat(GradeKey.pack("sport", 11, "d", null), is(greaterThan(upperGradeKey)));
+    }
+
+    @Test
+    void searchRoutes_throwsInvalidRequestException_whenMinGradeIsGreaterThanMaxGrade() {
+        assertThrows(InvalidRequestException.class,
+                () -> routeSearchController.searchRoutes(ANCESTOR_ID, "sport", 10, 9, null, null, 25, null,
+                        Optional.empty()));
+        verifyNoInteractions(mockRouteSearchIndex);
+    }
+
+    @Test
+    void searchRoutes_throwsInvalidRequestException_whenMinGradeModifierIsGreaterThanMaxGradeModifier() {
+        assertThrows(InvalidRequestException.class,
+                () -> routeSearchController.searchRoutes(ANCESTOR_ID, "sport", 10, 10, "c", "a", 25, null,
+                        Optional.empty()));
+        verifyNoInteractions(mockRouteSearchIndex);
+    }
+
+    @Test
+    void searchRoutes_throwsInvalidRequestException_whenGradeModifierIsNotValidForStyle() {
+        assertThrows(InvalidRequestException.class,
+                () -> routeSearchController.searchRoutes(ANCESTOR_ID, "boulder", 3, 5, "a", null, 25, null,
+                        Optional.empty()));
+        verifyNoInteractions(mockRouteSearchIndex);
+    }
+
+    @Test
+    void backfillRouteSearch_backfillsOnePage() {
+        RouteSearchBackfillResult routeSearchBackfillResult = RouteSearchBackfillResult.builder()
+                .indexedRouteCount(100)
+                .nextStartAfter("route-100")
+                .build();
+        when(mockRouteSearchIndex.backfill("route-0", 100)).thenReturn(routeSearchBackfillResult);
+        assertThat(routeSearchController.backfillRouteSearch("route-0", 100), is(equalTo(routeSearchBackfillResult)));
+    }
+}
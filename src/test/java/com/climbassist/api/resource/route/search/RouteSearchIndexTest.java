@@ -0,0 +1,580 @@
+package com.climbassist.api.resource.route.search;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.climbassist.api.InvalidRequestException;
+import com.climbassist.api.resource.area.Area;
+import com.climbassist.api.resource.common.grade.GradeKey;
+import com.climbassist.api.resource.common.state.State;
+import com.climbassist.api.resource.country.Country;
+import com.climbassist.api.resource.crag.Crag;
+import com.climbassist.api.resource.region.Region;
+import com.climbassist.api.resource.route.Route;
+import com.climbassist.api.resource.subarea.SubArea;
+import com.climbassist.api.resource.wall.Wall;
+import com.climbassist.api.user.UserData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteSearchIndexTest {
+
+    private static final Region REGION = Region.builder()
+            .regionId("region-1")
+            .countryId("country-1")
+            .name("Region 1")
+            .build();
+    private static final Area AREA = Area.builder()
+            .areaId("area-1")
+            .regionId(REGION.getRegionId())
+            .name("Area 1")
+            .build();
+    private static final SubArea SUB_AREA = SubArea.builder()
+            .subAreaId("sub-area-1")
+            .areaId(AREA.getAreaId())
+            .name("Sub Area 1")
+            .build();
+    private static final Crag CRAG = Crag.builder()
+            .cragId("crag-1")
+            .subAreaId(SUB_AREA.getSubAreaId())
+            .name("Crag 1")
+            .state(State.PUBLIC.toString())
+            .build();
+    private static final Wall WALL = Wall.builder()
+            .wallId("wall-1")
+            .cragId(CRAG.getCragId())
+            .name("Wall 1")
+            .build();
+    private static final Route ROUTE = Route.builder()
+            .routeId("route-1")
+            .wallId(WALL.getWallId())
+            .name("Route 1")
+            .description("Route 1")
+            .style("sport")
+            .grade(10)
+            .gradeModifier("b")
+            .build();
+    private static final List<String> ANCESTOR_IDS =
+            ImmutableList.of(WALL.getWallId(), CRAG.getCragId(), SUB_AREA.getSubAreaId(), AREA.getAreaId(),
+                    REGION.getRegionId(), REGION.getCountryId());
+    private static final UserData USER_DATA = UserData.builder()
+            .userId("user-1")
+            .username("username")
+            .email("email")
+            .isAdministrator(false)
+            .build();
+    private static final UserData ADMINISTRATOR_USER_DATA = UserData.builder()
+            .userId("user-2")
+            .username("administrator")
+            .email("email")
+            .isAdministrator(true)
+            .build();
+    private static final int LOWER_GRADE_KEY = GradeKey.lowerBound("sport", 9);
+    private static final int UPPER_GRADE_KEY = GradeKey.upperBound("sport", 11);
+
+    private static final DynamoDBMapperConfig DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("RouteSearchIndex");
+    private static final DynamoDBMapperConfig WALLS_DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("Walls");
+    private static final DynamoDBMapperConfig CRAGS_DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("Crags");
+    private static final DynamoDBMapperConfig SUB_AREAS_DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("SubAreas");
+    private static final DynamoDBMapperConfig AREAS_DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("Areas");
+    private static final DynamoDBMapperConfig REGIONS_DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("Regions");
+    private static final DynamoDBMapperConfig ROUTES_DYNAMO_DB_MAPPER_CONFIG = buildDynamoDbMapperConfig("Routes");
+
+    @Mock
+    private DynamoDBMapper mockDynamoDbMapper;
+    @Mock
+    private PaginatedQueryList<RouteSearchEntry> mockPaginatedQueryList;
+    @Captor
+    private ArgumentCaptor<DynamoDBQueryExpression<RouteSearchEntry>> dynamoDbQueryExpressionArgumentCaptor;
+
+    private RouteSearchIndex routeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        routeSearchIndex = buildRouteSearchIndex(MoreExecutors.directExecutor());
+    }
+
+    private RouteSearchIndex buildRouteSearchIndex(Executor executor) {
+        return RouteSearchIndex.builder()
+                .dynamoDBMapper(mockDynamoDbMapper)
+                .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .ancestorTables(
+                        ImmutableList.of(new RouteSearchIndex.AncestorTable(Wall.class, WALLS_DYNAMO_DB_MAPPER_CONFIG),
+                                new RouteSearchIndex.AncestorTable(Crag.class, CRAGS_DYNAMO_DB_MAPPER_CONFIG),
+                                new RouteSearchIndex.AncestorTable(SubArea.class, SUB_AREAS_DYNAMO_DB_MAPPER_CONFIG),
+                                new RouteSearchIndex.AncestorTable(Area.class, AREAS_DYNAMO_DB_MAPPER_CONFIG),
+                                new RouteSearchIndex.AncestorTable(Region.class, REGIONS_DYNAMO_DB_MAPPER_CONFIG)))
+                .routesDynamoDBMapperConfig(ROUTES_DYNAMO_DB_MAPPER_CONFIG)
+                .executor(executor)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(routeSearchIndex, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void search_queriesGradeIndexWithoutFilter_forAdministrator() throws InvalidRequestException {
+        RouteSearchEntry entry = buildEntry(ROUTE.getWallId(), State.PUBLIC.toString());
+        QueryResultPage<RouteSearchEntry> queryResultPage = new QueryResultPage<>();
+        queryResultPage.setResults(ImmutableList.of(entry));
+        queryResultPage.setLastEvaluatedKey(
+                ImmutableMap.of("ancestorId", new AttributeValue(ROUTE.getWallId()), "routeId",
+                        new AttributeValue(ROUTE.getRouteId()), "gradeKey",
+                        new AttributeValue().withN(String.valueOf(ROUTE.getGradeKey()))));
+        when(mockDynamoDbMapper.queryPage(eq(RouteSearchEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                queryResultPage);
+
+        RouteSearchResult routeSearchResult =
+                routeSearchIndex.search(ROUTE.getWallId(), LOWER_GRADE_KEY, UPPER_GRADE_KEY, 10, null,
+                        Optional.of(ADMINISTRATOR_USER_DATA));
+
+        assertThat(routeSearchResult.getRoutes(), is(equalTo(ImmutableList.of(entry.toRoute()))));
+        verify(mockDynamoDbMapper).queryPage(eq(RouteSearchEntry.class),
+                dynamoDbQueryExpressionArgumentCaptor.capture(),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+        DynamoDBQueryExpression<RouteSearchEntry> dynamoDBQueryExpression =
+                dynamoDbQueryExpressionArgumentCaptor.getValue();
+        assertThat(dynamoDBQueryExpression.getHashKeyValues()
+                .getAncestorId(), is(equalTo(ROUTE.getWallId())));
+        assertThat(dynamoDBQueryExpression.getIndexName(), is(equalTo(RouteSearchEntry.GRADE_INDEX_NAME)));
+        assertThat(dynamoDBQueryExpression.getRangeKeyConditions(), is(equalTo(ImmutableMap.of("gradeKey",
+                new Condition().withComparisonOperator(ComparisonOperator.BETWEEN)
+                        .withAttributeValueList(new AttributeValue().withN(String.valueOf(LOWER_GRADE_KEY)),
+                                new AttributeValue().withN(String.valueOf(UPPER_GRADE_KEY)))))));
+        assertThat(dynamoDBQueryExpression.getLimit(), is(equalTo(10)));
+        assertThat(dynamoDBQueryExpression.getQueryFilter(), is(nullValue()));
+        assertThat(dynamoDBQueryExpression.getExclusiveStartKey(), is(nullValue()));
+
+        // the next token picks up where this page left off
+        routeSearchIndex.search(ROUTE.getWallId(), LOWER_GRADE_KEY, UPPER_GRADE_KEY, 10,
+                routeSearchResult.getNextToken(), Optional.of(ADMINISTRATOR_USER_DATA));
+        verify(mockDynamoDbMapper, times(2)).queryPage(eq(RouteSearchEntry.class),
+                dynamoDbQueryExpressionArgumentCaptor.capture(), eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(dynamoDbQueryExpressionArgumentCaptor.getValue()
+                .getExclusiveStartKey(), is(equalTo(queryResultPage.getLastEvaluatedKey())));
+    }
+
+    @Test
+    void search_filtersOutCragsUnderReview_forNonAdministrator() throws InvalidRequestException {
+        QueryResultPage<RouteSearchEntry> queryResultPage = new QueryResultPage<>();
+        queryResultPage.setResults(ImmutableList.of());
+        when(mockDynamoDbMapper.queryPage(eq(RouteSearchEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                queryResultPage);
+
+        RouteSearchResult routeSearchResult =
+                routeSearchIndex.search(CRAG.getCragId(), LOWER_GRADE_KEY, UPPER_GRADE_KEY, 10, null,
+                        Optional.of(USER_DATA));
+
+        assertThat(routeSearchResult, is(equalTo(RouteSearchResult.builder()
+                .routes(ImmutableList.of())
+                .build())));
+        verify(mockDynamoDbMapper).queryPage(eq(RouteSearchEntry.class),
+                dynamoDbQueryExpressionArgumentCaptor.capture(),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(dynamoDbQueryExpressionArgumentCaptor.getValue()
+                .getQueryFilter(), is(equalTo(ImmutableMap.of("cragState",
+                new Condition().withComparisonOperator(ComparisonOperator.EQ)
+                        .withAttributeValueList(new AttributeValue(State.PUBLIC.toString()))))));
+    }
+
+    @Test
+    void search_throwsInvalidRequestException_forMalformedNextToken() {
+        assertThrows(InvalidRequestException.class,
+                () -> routeSearchIndex.search(CRAG.getCragId(), LOWER_GRADE_KEY, UPPER_GRADE_KEY, 10, "not a token",
+                        Optional.empty()));
+        verifyNoInteractions(mockDynamoDbMapper);
+    }
+
+    @Test
+    void search_throwsInvalidRequestException_forNextTokenOutsideOfRange() {
+        String nextToken = Base64.getUrlEncoder()
+                .encodeToString(((UPPER_GRADE_KEY + 1) + ":route-1").getBytes(
+                        StandardCharsets.UTF_8));
+        assertThrows(InvalidRequestException.class,
+                () -> routeSearchIndex.search(CRAG.getCragId(), LOWER_GRADE_KEY, UPPER_GRADE_KEY, 10, nextToken,
+                        Optional.empty()));
+        verifyNoInteractions(mockDynamoDbMapper);
+    }
+
+    @Test
+    void onResourceSaved_writesEntryUnderEveryAncestor_forNewRoute() {
+        stubEntries(ImmutableList.of());
+        stubAncestors();
+
+        routeSearchIndex.onResourceSaved(ROUTE);
+
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(State.PUBLIC.toString()), ImmutableList.of(),
+                DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_writesEntriesOfRoutesSavedWhileABatchIsQueuedInOneBatch() {
+        List<Runnable> queuedTasks = new ArrayList<>();
+        routeSearchIndex = buildRouteSearchIndex(queuedTasks::add);
+        Route otherRoute = ROUTE.toBuilder()
+                .routeId("route-2")
+                .build();
+        when(mockPaginatedQueryList.stream()).thenReturn(Stream.empty(), Stream.empty());
+        when(mockDynamoDbMapper.query(eq(RouteSearchEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+        stubAncestors();
+
+        routeSearchIndex.onResourceSaved(ROUTE);
+        routeSearchIndex.onResourceSaved(otherRoute);
+        verifyNoInteractions(mockDynamoDbMapper);
+        assertThat(queuedTasks.size(), is(equalTo(1)));
+        queuedTasks.get(0)
+                .run();
+
+        List<RouteSearchEntry> expectedEntries = new ArrayList<>(buildEntries(State.PUBLIC.toString()));
+        buildEntries(State.PUBLIC.toString()).forEach(entry -> expectedEntries.add(entry.toBuilder()
+                .routeId(otherRoute.getRouteId())
+                .build()));
+        verify(mockDynamoDbMapper).batchWrite(expectedEntries, ImmutableList.of(), DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper).load(Wall.class, WALL.getWallId(), WALLS_DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_queuesAnotherBatch_afterTheQueuedBatchIsApplied() {
+        List<Runnable> queuedTasks = new ArrayList<>();
+        routeSearchIndex = buildRouteSearchIndex(queuedTasks::add);
+        stubEntries(ImmutableList.of());
+
+        routeSearchIndex.onResourceDeleted(ROUTE.getRouteId());
+        queuedTasks.get(0)
+                .run();
+        routeSearchIndex.onResourceDeleted(ROUTE.getRouteId());
+
+        assertThat(queuedTasks.size(), is(equalTo(2)));
+    }
+
+    @Test
+    void onResourceSaved_deletesEntriesUnderOldAncestors_forMovedRoute() {
+        stubEntries(ImmutableList.of(buildEntryKey("wall-2"), buildEntryKey(CRAG.getCragId())));
+        stubAncestors();
+
+        routeSearchIndex.onResourceSaved(ROUTE);
+
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(State.PUBLIC.toString()),
+                ImmutableList.of(buildEntryKey("wall-2")), DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_deletesEntries_forRouteWithoutGradeKey() {
+        stubEntries(ImmutableList.of(buildEntryKey(WALL.getWallId())));
+
+        routeSearchIndex.onResourceSaved(ROUTE.toBuilder()
+                .style(null)
+                .build());
+
+        verify(mockDynamoDbMapper).batchWrite(ImmutableList.of(), ImmutableList.of(buildEntryKey(WALL.getWallId())),
+                DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_deletesEntries_forRouteWhoseWallDoesNotExist() {
+        stubEntries(ImmutableList.of(buildEntryKey(WALL.getWallId())));
+        when(mockDynamoDbMapper.load(Wall.class, WALL.getWallId(), WALLS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(null);
+
+        routeSearchIndex.onResourceSaved(ROUTE);
+
+        verify(mockDynamoDbMapper).batchWrite(ImmutableList.of(), ImmutableList.of(buildEntryKey(WALL.getWallId())),
+                DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_doesNotRewriteEntries_whenAncestorIsUnchanged() {
+        stubAncestorsAbove(CRAG);
+        stubFirstEntry(CRAG.getCragId(), buildEntry(CRAG.getCragId(), State.PUBLIC.toString()));
+
+        routeSearchIndex.onResourceSaved(CRAG);
+
+        verify(mockDynamoDbMapper, never()).batchWrite(anyList(), anyList(), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    void onResourceSaved_doesNotLoadAncestors_whenAncestorHasNoRoutes() {
+        QueryResultPage<RouteSearchEntry> queryResultPage = new QueryResultPage<>();
+        queryResultPage.setResults(ImmutableList.of());
+        when(mockDynamoDbMapper.queryPage(eq(RouteSearchEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                queryResultPage);
+
+        routeSearchIndex.onResourceSaved(AREA);
+
+        verify(mockDynamoDbMapper, never()).load(any(), any(), any(DynamoDBMapperConfig.class));
+        verify(mockDynamoDbMapper, never()).batchWrite(anyList(), anyList(), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    void onResourceSaved_movesEntries_whenAncestorMoves() {
+        SubArea newSubArea = SubArea.builder()
+                .subAreaId("sub-area-2")
+                .areaId(AREA.getAreaId())
+                .name("Sub Area 2")
+                .build();
+        Crag movedCrag = CRAG.toBuilder()
+                .subAreaId(newSubArea.getSubAreaId())
+                .build();
+        when(mockDynamoDbMapper.load(SubArea.class, newSubArea.getSubAreaId(),
+                SUB_AREAS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(newSubArea);
+        stubAncestorsAbove(SUB_AREA);
+        RouteSearchEntry entry = buildEntry(CRAG.getCragId(), State.PUBLIC.toString());
+        stubFirstEntry(CRAG.getCragId(), entry);
+        stubEntries(ImmutableList.of(entry));
+
+        routeSearchIndex.onResourceSaved(movedCrag);
+
+        List<String> newAncestorIds = ImmutableList.of(WALL.getWallId(), CRAG.getCragId(), newSubArea.getSubAreaId(),
+                AREA.getAreaId(), REGION.getRegionId(), REGION.getCountryId());
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(newAncestorIds, State.PUBLIC.toString()),
+                ImmutableList.of(buildEntryKey(SUB_AREA.getSubAreaId())), DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_rewritesEntries_whenCragStateChanges() {
+        Crag cragInReview = CRAG.toBuilder()
+                .state(State.IN_REVIEW.toString())
+                .build();
+        stubAncestorsAbove(CRAG);
+        RouteSearchEntry entry = buildEntry(CRAG.getCragId(), State.PUBLIC.toString());
+        stubFirstEntry(CRAG.getCragId(), entry);
+        stubEntries(ImmutableList.of(entry));
+
+        routeSearchIndex.onResourceSaved(cragInReview);
+
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(State.IN_REVIEW.toString()), ImmutableList.of(),
+                DYNAMO_DB_MAPPER_CONFIG);
+    }
+
+    @Test
+    void onResourceSaved_ignoresResource_whenItIsNotARouteOrAnAncestorOfOne() {
+        routeSearchIndex.onResourceSaved(Country.builder()
+                .countryId(REGION.getCountryId())
+                .build());
+        verifyNoInteractions(mockDynamoDbMapper);
+    }
+
+    @Test
+    void onResourceSaved_doesNotThrow_whenDynamoDbFails() {
+        when(mockDynamoDbMapper.query(eq(RouteSearchEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenThrow(
+                new AmazonClientException("failure"));
+        routeSearchIndex.onResourceSaved(ROUTE);
+    }
+
+    @Test
+    void onResourcesSaved_writesEntriesOfRoutesWithoutLoadingExistingEntries() {
+        Route otherRoute = ROUTE.toBuilder()
+                .routeId("route-2")
+                .build();
+        stubAncestors();
+
+        routeSearchIndex.onResourcesSaved(ImmutableList.of(ROUTE, otherRoute));
+
+        List<RouteSearchEntry> expectedEntries = new ArrayList<>(buildEntries(State.PUBLIC.toString()));
+        buildEntries(State.PUBLIC.toString()).forEach(entry -> expectedEntries.add(entry.toBuilder()
+                .routeId(otherRoute.getRouteId())
+                .build()));
+        verify(mockDynamoDbMapper).batchWrite(expectedEntries, ImmutableList.of(), DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper, never()).query(eq(RouteSearchEntry.class), any(), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    void onResourcesSaved_reindexesAncestorsOneAtATime() {
+        stubAncestorsAbove(CRAG);
+        stubFirstEntry(CRAG.getCragId(), buildEntry(CRAG.getCragId(), State.PUBLIC.toString()));
+
+        routeSearchIndex.onResourcesSaved(ImmutableList.of(CRAG));
+
+        verify(mockDynamoDbMapper, never()).batchWrite(anyList(), anyList(), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    void backfill_writesEntriesOfOnePageOfRoutes() {
+        ScanResultPage<Route> scanResultPage = new ScanResultPage<>();
+        scanResultPage.setResults(ImmutableList.of(ROUTE));
+        scanResultPage.setLastEvaluatedKey(ImmutableMap.of("routeId", new AttributeValue(ROUTE.getRouteId())));
+        when(mockDynamoDbMapper.scanPage(eq(Route.class), any(), eq(ROUTES_DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                scanResultPage);
+        stubEntries(ImmutableList.of());
+        stubAncestors();
+
+        RouteSearchBackfillResult routeSearchBackfillResult = routeSearchIndex.backfill("route-0", 10);
+
+        assertThat(routeSearchBackfillResult, is(equalTo(RouteSearchBackfillResult.builder()
+                .indexedRouteCount(1)
+                .nextStartAfter(ROUTE.getRouteId())
+                .build())));
+        verify(mockDynamoDbMapper).batchWrite(buildEntries(State.PUBLIC.toString()), ImmutableList.of(),
+                DYNAMO_DB_MAPPER_CONFIG);
+        ArgumentCaptor<DynamoDBScanExpression> dynamoDbScanExpressionArgumentCaptor =
+                ArgumentCaptor.forClass(DynamoDBScanExpression.class);
+        verify(mockDynamoDbMapper).scanPage(eq(Route.class), dynamoDbScanExpressionArgumentCaptor.capture(),
+                eq(ROUTES_DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(dynamoDbScanExpressionArgumentCaptor.getValue()
+                .getLimit(), is(equalTo(10)));
+        assertThat(dynamoDbScanExpressionArgumentCaptor.getValue()
+                .getExclusiveStartKey(), is(equalTo(ImmutableMap.of("routeId", new AttributeValue("route-0")))));
+    }
+
+    @Test
+    void backfill_returnsNoNextStartAfter_afterTheLastPage() {
+        ScanResultPage<Route> scanResultPage = new ScanResultPage<>();
+        scanResultPage.setResults(ImmutableList.of());
+        when(mockDynamoDbMapper.scanPage(eq(Route.class), any(), eq(ROUTES_DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                scanResultPage);
+
+        assertThat(routeSearchIndex.backfill(null, 10), is(equalTo(RouteSearchBackfillResult.builder()
+                .build())));
+        verify(mockDynamoDbMapper, never()).batchWrite(anyList(), anyList(), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    void onResourceDeleted_deletesEntries() {
+        stubEntries(ImmutableList.of(buildEntryKey(WALL.getWallId()), buildEntryKey(CRAG.getCragId())));
+
+        routeSearchIndex.onResourceDeleted(ROUTE.getRouteId());
+
+        verify(mockDynamoDbMapper).batchWrite(ImmutableList.of(),
+                ImmutableList.of(buildEntryKey(WALL.getWallId()), buildEntryKey(CRAG.getCragId())),
+                DYNAMO_DB_MAPPER_CONFIG);
+        verify(mockDynamoDbMapper).query(eq(RouteSearchEntry.class), dynamoDbQueryExpressionArgumentCaptor.capture(),
+                eq(DYNAMO_DB_MAPPER_CONFIG));
+        assertThat(dynamoDbQueryExpressionArgumentCaptor.getValue()
+                .getIndexName(), is(equalTo(RouteSearchEntry.ROUTE_INDEX_NAME)));
+        assertThat(dynamoDbQueryExpressionArgumentCaptor.getValue()
+                .getHashKeyValues()
+                .getRouteId(), is(equalTo(ROUTE.getRouteId())));
+    }
+
+    @Test
+    void onResourceDeleted_doesNothing_whenResourceHasNoEntries() {
+        stubEntries(ImmutableList.of());
+
+        routeSearchIndex.onResourceDeleted(WALL.getWallId());
+
+        verify(mockDynamoDbMapper, never()).batchWrite(anyList(), anyList(), any(DynamoDBMapperConfig.class));
+    }
+
+    private void stubEntries(List<RouteSearchEntry> entries) {
+        when(mockPaginatedQueryList.stream()).thenReturn(entries.stream());
+        when(mockDynamoDbMapper.query(eq(RouteSearchEntry.class), any(), eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(
+                mockPaginatedQueryList);
+    }
+
+    private void stubFirstEntry(String ancestorId, RouteSearchEntry entry) {
+        QueryResultPage<RouteSearchEntry> queryResultPage = new QueryResultPage<>();
+        queryResultPage.setResults(ImmutableList.of(entry));
+        when(mockDynamoDbMapper.queryPage(eq(RouteSearchEntry.class),
+                ArgumentMatchers.<DynamoDBQueryExpression<RouteSearchEntry>>argThat(
+                        dynamoDBQueryExpression -> dynamoDBQueryExpression.getHashKeyValues()
+                                .getAncestorId()
+                                .equals(ancestorId) && dynamoDBQueryExpression.getLimit() == 1),
+                eq(DYNAMO_DB_MAPPER_CONFIG))).thenReturn(queryResultPage);
+    }
+
+    private void stubAncestors() {
+        when(mockDynamoDbMapper.load(Wall.class, WALL.getWallId(), WALLS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(WALL);
+        when(mockDynamoDbMapper.load(Crag.class, CRAG.getCragId(), CRAGS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(CRAG);
+        stubAncestorsAbove(CRAG);
+    }
+
+    // stubs the ancestors above the given one, which is passed in as the one being written
+    private void stubAncestorsAbove(Object ancestor) {
+        if (ancestor == CRAG) {
+            when(mockDynamoDbMapper.load(SubArea.class, SUB_AREA.getSubAreaId(),
+                    SUB_AREAS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(SUB_AREA);
+        }
+        if (ancestor == CRAG || ancestor == SUB_AREA) {
+            when(mockDynamoDbMapper.load(Area.class, AREA.getAreaId(), AREAS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(AREA);
+        }
+        when(mockDynamoDbMapper.load(Region.class, REGION.getRegionId(), REGIONS_DYNAMO_DB_MAPPER_CONFIG)).thenReturn(
+                REGION);
+    }
+
+    private static List<RouteSearchEntry> buildEntries(String cragState) {
+        return buildEntries(ANCESTOR_IDS, cragState);
+    }
+
+    private static List<RouteSearchEntry> buildEntries(List<String> ancestorIds, String cragState) {
+        return ancestorIds.stream()
+                .map(ancestorId -> buildEntry(ancestorId, ancestorIds, cragState))
+                .collect(Collectors.toList());
+    }
+
+    private static RouteSearchEntry buildEntry(String ancestorId, String cragState) {
+        return buildEntry(ancestorId, ANCESTOR_IDS, cragState);
+    }
+
+    private static RouteSearchEntry buildEntry(String ancestorId, List<String> ancestorIds, String cragState) {
+        return RouteSearchEntry.builder()
+                .ancestorId(ancestorId)
+                .routeId(ROUTE.getRouteId())
+                .gradeKey(ROUTE.getGradeKey())
+                .ancestorIds(ancestorIds)
+                .cragState(cragState)
+                .wallId(ROUTE.getWallId())
+                .name(ROUTE.getName())
+                .style(ROUTE.getStyle())
+                .grade(ROUTE.getGrade())
+                .gradeModifier(ROUTE.getGradeModifier())
+                .build();
+    }
+
+    private static RouteSearchEntry buildEntryKey(String ancestorId) {
+        return RouteSearchEntry.builder()
+                .ancestorId(ancestorId)
+                .routeId(ROUTE.getRouteId())
+                .build();
+    }
+
+    private static DynamoDBMapperConfig buildDynamoDbMapperConfig(String tableName) {
+        return DynamoDBMapperConfig.builder()
+                .withTableNameOverride(new DynamoDBMapperConfig.TableNameOverride(tableName))
+                .build();
+    }
+}
@@ -7,6 +7,7 @@ import com.climbassist.api.resource.common.ResourceNotFoundException;
 import com.climbassist.api.resource.common.ResourceWithChildrenControllerDelegate;
 import com.climbassist.api.resource.common.ResourceWithParentControllerDelegate;
 import com.climbassist.api.resource.common.UpdateResourceResult;
+import com.climbassist.api.resource.common.snapshot.SubtreeSnapshot;
 import com.climbassist.api.user.UserData;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
@@ -87,10 +88,12 @@ class SubAreaControllerTest {
 
     @Test
     void getResource_callsResourceWithChildrenControllerDelegate() throws ResourceNotFoundException {
-        when(mockResourceWithChildrenControllerDelegate.getResource(any(), anyInt(), any())).thenReturn(SUB_AREA_1);
+        SubtreeSnapshot subtreeSnapshot = new SubtreeSnapshot("{}", ImmutableSet.of(SUB_AREA_1.getSubAreaId()));
+        when(mockResourceWithChildrenControllerDelegate.getResourceSnapshot(any(), anyInt(), any())).thenReturn(
+                subtreeSnapshot);
         assertThat(subAreaController.getResource(SUB_AREA_1.getSubAreaId(), DEPTH, MAYBE_USER_DATA),
-                is(equalTo(SUB_AREA_1)));
-        verify(mockResourceWithChildrenControllerDelegate).getResource(SUB_AREA_1.getSubAreaId(), DEPTH,
+                is(equalTo(subtreeSnapshot)));
+        verify(mockResourceWithChildrenControllerDelegate).getResourceSnapshot(SUB_AREA_1.getSubAreaId(), DEPTH,
                 MAYBE_USER_DATA);
     }
 
@@ -35,6 +35,8 @@ class SubAreasDaoTest extends AbstractResourceWithParentDaoTest<SubArea, Area, S
         return SubAreasDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
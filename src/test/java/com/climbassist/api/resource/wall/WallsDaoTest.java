@@ -33,6 +33,8 @@ class WallsDaoTest extends AbstractResourceWithParentDaoTest<Wall, Crag, WallsDa
         return WallsDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
@@ -38,6 +38,8 @@ class DeletedUsersDaoTest extends AbstractResourceWithoutParentDaoTest<UserData,
         return DeletedUsersDao.builder()
                 .dynamoDBMapper(mockDynamoDbMapper)
                 .dynamoDBMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
+                .resourceChangeListener(mockResourceChangeListener)
+                .resourceCache(mockResourceCache)
                 .build();
     }
 
@@ -27,6 +27,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -65,6 +67,7 @@ class ResourcesDaoTest {
     private ResourceFactory mockResourceFactory;
 
     private ResourcesDao resourcesDao;
+    private ExecutorService executorService;
 
     @BeforeAll
     static void setupClass() {
@@ -94,15 +97,18 @@ class ResourcesDaoTest {
                                 .withKeySchema(new KeySchemaElement("parentId", KeyType.HASH),
                                         new KeySchemaElement("parentType", KeyType.RANGE)))
                 .withProvisionedThroughput(PROVISIONED_THROUGHPUT));
+        executorService = Executors.newFixedThreadPool(2);
         resourcesDao = ResourcesDao.builder()
                 .dynamoDbMapper(new DynamoDBMapper(amazonDynamoDB))
                 .dynamoDbMapperConfig(DYNAMO_DB_MAPPER_CONFIG)
                 .resourceFactory(mockResourceFactory)
+                .executor(executorService)
                 .build();
     }
 
     @AfterEach
     void tearDown() {
+        executorService.shutdownNow();
         amazonDynamoDB.deleteTable(TABLE_NAME);
     }
 
@@ -270,6 +276,41 @@ class ResourcesDaoTest {
         verify(mockResourceFactory, times(2)).buildResource(Country.class, COUNTRY_1_PUBLIC.getId());
     }
 
+    @Test
+    void getResourceAsync_returnsResource_whenResourceIsInReviewAndUserIsAdministrator() {
+        when(mockResourceFactory.buildResource(eq(Country.class), any(String.class))).thenReturn(Country.builder()
+                .id(COUNTRY_1_IN_REVIEW.getId())
+                .build());
+        resourcesDao.saveResourceAsync(COUNTRY_1_IN_REVIEW)
+                .join();
+        assertThat(resourcesDao.getResourceAsync(COUNTRY_1_IN_REVIEW.getId(), Country.class, USER_DATA_ADMINISTRATOR)
+                .join(), is(equalTo(Optional.of(COUNTRY_1_IN_REVIEW))));
+        assertThat(resourcesDao.getResourceAsync(COUNTRY_1_IN_REVIEW.getId(), Country.class)
+                .join(), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void listResourcesAsync_returnsOnlyPublicResources_whenUserIsNotAdministrator() {
+        when(mockResourceFactory.buildResource(Country.class)).thenReturn(new Country());
+        resourcesDao.saveResource(COUNTRY_1_PUBLIC);
+        resourcesDao.saveResource(COUNTRY_2_IN_REVIEW);
+        assertThat(resourcesDao.listResourcesAsync(Country.class, USER_DATA_NOT_ADMINISTRATOR)
+                .join(), containsInAnyOrder(COUNTRY_1_PUBLIC));
+        assertThat(resourcesDao.listResourcesAsync(Country.class)
+                .join(), containsInAnyOrder(COUNTRY_1_PUBLIC));
+    }
+
+    @Test
+    void deleteResourceAsync_deletesResources_whenResourceExists() {
+        when(mockResourceFactory.buildResource(eq(Country.class), any(String.class))).thenReturn(Country.builder()
+                .id(COUNTRY_1_PUBLIC.getId())
+                .build());
+        resourcesDao.saveResource(COUNTRY_1_PUBLIC);
+        resourcesDao.deleteResourceAsync(COUNTRY_1_PUBLIC.getId(), Country.class)
+                .join();
+        assertThat(resourcesDao.getResource(COUNTRY_1_PUBLIC.getId(), Country.class), is(equalTo(Optional.empty())));
+    }
+
     private static GlobalSecondaryIndex buildBaseGlobalSecondaryIndex() {
         return new GlobalSecondaryIndex().withProvisionedThroughput(PROVISIONED_THROUGHPUT)
                 .withProjection(new Projection().withProjectionType(ProjectionType.ALL));
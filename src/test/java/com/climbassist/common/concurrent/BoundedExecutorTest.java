@@ -0,0 +1,276 @@
+package com.climbassist.common.concurrent;
+
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedExecutorTest {
+
+    private static final String NAME = "TestExecutor";
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private BoundedExecutor boundedExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (boundedExecutor != null) {
+            boundedExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void builder_throwsNullPointerException_whenNameIsNull() {
+        assertThrows(NullPointerException.class, () -> BoundedExecutor.builder()
+                .concurrency(1)
+                .queueCapacity(1)
+                .metricsEmitter(mockMetricsEmitter)
+                .build());
+    }
+
+    @Test
+    void builder_throwsNullPointerException_whenMetricsEmitterIsNull() {
+        assertThrows(NullPointerException.class, () -> BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(1)
+                .queueCapacity(1)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenConcurrencyIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(0)
+                .queueCapacity(1)
+                .metricsEmitter(mockMetricsEmitter)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenQueueCapacityIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(1)
+                .queueCapacity(0)
+                .metricsEmitter(mockMetricsEmitter)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenTaskTimeoutIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(1)
+                .queueCapacity(1)
+                .metricsEmitter(mockMetricsEmitter)
+                .taskTimeoutMillis(-1)
+                .build());
+    }
+
+    @Test
+    void execute_throwsNullPointerException_whenRunnableIsNull() {
+        boundedExecutor = buildBoundedExecutor(1, 1);
+        assertThrows(NullPointerException.class, () -> boundedExecutor.execute(null));
+    }
+
+    @Test
+    void execute_runsTaskOnWorkerThread_andEmitsMetrics() {
+        boundedExecutor = buildBoundedExecutor(1, 1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        CompletableFuture.runAsync(() -> threadName.set(Thread.currentThread()
+                .getName()), boundedExecutor)
+                .join();
+
+        assertThat(threadName.get(), startsWith(NAME + "-"));
+        verify(mockMetricsEmitter).emitComponentCountMetric(eq(NAME), eq("queueSize"), anyDouble());
+        verify(mockMetricsEmitter, timeout(1000)).emitComponentDurationMetric(eq(NAME), eq("queueTime"), anyDouble());
+        verify(mockMetricsEmitter, timeout(1000)).emitComponentDurationMetric(eq(NAME), eq("executionTime"),
+                anyDouble());
+    }
+
+    @Test
+    void execute_runsTaskOnSubmittingThread_whenQueueIsFull() throws InterruptedException {
+        boundedExecutor = buildBoundedExecutor(1, 1);
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        // occupy the only worker thread, then fill the queue
+        boundedExecutor.execute(() -> {
+            startedLatch.countDown();
+            try {
+                blockingLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+        });
+        assertThat(startedLatch.await(5, TimeUnit.SECONDS), is(true));
+        boundedExecutor.execute(() -> {});
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        boundedExecutor.execute(() -> thread.set(Thread.currentThread()));
+        blockingLatch.countDown();
+
+        assertThat(thread.get(), is(Thread.currentThread()));
+    }
+
+    @Test
+    void execute_throwsRejectedExecutionException_whenQueueIsFullAndRejectWhenFullIsSet() throws InterruptedException {
+        boundedExecutor = BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(1)
+                .queueCapacity(1)
+                .metricsEmitter(mockMetricsEmitter)
+                .rejectWhenFull(true)
+                .build();
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        occupyWorkerThread(blockingLatch);
+        boundedExecutor.execute(() -> {});
+
+        assertThrows(RejectedExecutionException.class, () -> boundedExecutor.execute(() -> {}));
+        blockingLatch.countDown();
+        verify(mockMetricsEmitter).emitComponentCountMetric(NAME, "rejectedCount", 1);
+    }
+
+    @Test
+    void execute_interruptsTask_whenItRunsOutOfTime() throws InterruptedException {
+        boundedExecutor = buildTimingOutBoundedExecutor();
+        CountDownLatch interruptedLatch = new CountDownLatch(1);
+
+        boundedExecutor.execute(() -> {
+            try {
+                new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interruptedLatch.countDown();
+            }
+        });
+
+        assertThat(interruptedLatch.await(5, TimeUnit.SECONDS), is(true));
+        verify(mockMetricsEmitter, timeout(1000)).emitComponentCountMetric(NAME, "timeoutCount", 1);
+    }
+
+    @Test
+    void execute_dropsTask_whenItRunsOutOfTimeInTheQueue() throws InterruptedException {
+        boundedExecutor = buildTimingOutBoundedExecutor();
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        // occupy the only worker thread past the timeout, even though it gets interrupted
+        boundedExecutor.execute(() -> {
+            startedLatch.countDown();
+            Uninterruptibles.awaitUninterruptibly(blockingLatch, 5, TimeUnit.SECONDS);
+        });
+        assertThat(startedLatch.await(5, TimeUnit.SECONDS), is(true));
+        AtomicBoolean ran = new AtomicBoolean();
+        boundedExecutor.execute(() -> ran.set(true));
+
+        Thread.sleep(200);
+        blockingLatch.countDown();
+        CompletableFuture.runAsync(() -> {}, boundedExecutor)
+                .join();
+
+        assertThat(ran.get(), is(false));
+    }
+
+    @Test
+    void execute_doesNotInterruptTask_whenItFinishesInTime() throws InterruptedException {
+        boundedExecutor = buildTimingOutBoundedExecutor();
+
+        CompletableFuture.runAsync(() -> {}, boundedExecutor)
+                .join();
+        // wait until the first task would have been interrupted
+        Thread.sleep(200);
+        boolean interrupted = CompletableFuture.supplyAsync(() -> Thread.currentThread()
+                .isInterrupted(), boundedExecutor)
+                .join();
+
+        assertThat(interrupted, is(false));
+    }
+
+    @Test
+    void isWorkerThread_returnsTrue_onlyOnThreadsOfTheExecutor() {
+        boundedExecutor = buildBoundedExecutor(1, 1);
+
+        boolean workerThread = CompletableFuture.supplyAsync(boundedExecutor::isWorkerThread, boundedExecutor)
+                .join();
+
+        assertThat(workerThread, is(true));
+        assertThat(boundedExecutor.isWorkerThread(), is(false));
+    }
+
+    @Test
+    void execute_runsDecoratedTask_whenTaskDecoratorIsSet() {
+        AtomicReference<String> decoration = new AtomicReference<>();
+        boundedExecutor = BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(1)
+                .queueCapacity(1)
+                .metricsEmitter(mockMetricsEmitter)
+                .taskDecorator(runnable -> () -> {
+                    decoration.set("decorated");
+                    runnable.run();
+                })
+                .build();
+        AtomicReference<String> result = new AtomicReference<>();
+
+        CompletableFuture.runAsync(() -> result.set(decoration.get()), boundedExecutor)
+                .join();
+
+        assertThat(result.get(), is("decorated"));
+    }
+
+    private BoundedExecutor buildBoundedExecutor(int concurrency, int queueCapacity) {
+        return BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(concurrency)
+                .queueCapacity(queueCapacity)
+                .metricsEmitter(mockMetricsEmitter)
+                .build();
+    }
+
+    private BoundedExecutor buildTimingOutBoundedExecutor() {
+        return BoundedExecutor.builder()
+                .name(NAME)
+                .concurrency(1)
+                .queueCapacity(2)
+                .metricsEmitter(mockMetricsEmitter)
+                .taskTimeoutMillis(100)
+                .build();
+    }
+
+    private void occupyWorkerThread(CountDownLatch blockingLatch) throws InterruptedException {
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        boundedExecutor.execute(() -> {
+            startedLatch.countDown();
+            try {
+                blockingLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+        });
+        assertThat(startedLatch.await(5, TimeUnit.SECONDS), is(true));
+    }
+}
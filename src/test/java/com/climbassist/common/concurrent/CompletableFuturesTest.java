@@ -0,0 +1,43 @@
+package com.climbassist.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompletableFuturesTest {
+
+    @Test
+    void join_throwsNullPointerException_whenFutureIsNull() {
+        assertThrows(NullPointerException.class, () -> CompletableFutures.join(null));
+    }
+
+    @Test
+    void join_returnsResult_whenFutureSucceeds() {
+        assertThat(CompletableFutures.join(CompletableFuture.completedFuture("result")), is(equalTo("result")));
+    }
+
+    @Test
+    void join_throwsOriginalException_whenFutureFailsWithUncheckedException() {
+        CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(() -> {
+            throw new IllegalStateException();
+        });
+        assertThrows(IllegalStateException.class, () -> CompletableFutures.join(completableFuture));
+    }
+
+    @Test
+    void join_throwsCompletionException_whenFutureFailsWithCheckedException() {
+        CompletableFuture<String> completableFuture = new CompletableFuture<>();
+        completableFuture.completeExceptionally(new IOException());
+        CompletionException completionException =
+                assertThrows(CompletionException.class, () -> CompletableFutures.join(completableFuture));
+        assertThat(completionException.getCause(), is(instanceOf(IOException.class)));
+    }
+}
@@ -0,0 +1,221 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.climbassist.common.concurrent.BoundedExecutor;
+import com.climbassist.common.concurrent.CompletableFutures;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchWriterTest {
+
+    private static final String TABLE_NAME = "Points";
+    private static final String METRICS_COMPONENT = "BatchWriter:" + TABLE_NAME;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private AmazonDynamoDB mockAmazonDynamoDb;
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private BatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = BatchWriter.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .executor(MoreExecutors.directExecutor())
+                .metricsEmitter(mockMetricsEmitter)
+                .maxAttempts(MAX_ATTEMPTS)
+                .baseBackoffMillis(0)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        NullPointerTester nullPointerTester = new NullPointerTester();
+        nullPointerTester.testInstanceMethods(batchWriter, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenMaxAttemptsIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> BatchWriter.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .executor(MoreExecutors.directExecutor())
+                .metricsEmitter(mockMetricsEmitter)
+                .maxAttempts(0)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenBaseBackoffIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> BatchWriter.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .executor(MoreExecutors.directExecutor())
+                .metricsEmitter(mockMetricsEmitter)
+                .maxAttempts(1)
+                .baseBackoffMillis(-1)
+                .build());
+    }
+
+    @Test
+    void write_doesNothing_whenThereAreNoItems() {
+        batchWriter.write(TABLE_NAME, ImmutableList.of());
+
+        verify(mockAmazonDynamoDb, never()).batchWriteItem(any(BatchWriteItemRequest.class));
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("latency"), anyDouble());
+    }
+
+    @Test
+    void write_writesItemsInChunksOf25() {
+        List<WriteRequest> writeRequests = buildWriteRequests(60);
+        when(mockAmazonDynamoDb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(
+                new BatchWriteItemResult().withUnprocessedItems(ImmutableMap.of()));
+
+        batchWriter.write(TABLE_NAME, writeRequests);
+
+        ArgumentCaptor<BatchWriteItemRequest> batchWriteItemRequestCaptor =
+                ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(mockAmazonDynamoDb, times(3)).batchWriteItem(batchWriteItemRequestCaptor.capture());
+        assertThat(batchWriteItemRequestCaptor.getAllValues(), is(equalTo(ImmutableList.of(
+                buildBatchWriteItemRequest(writeRequests.subList(0, 25)),
+                buildBatchWriteItemRequest(writeRequests.subList(25, 50)),
+                buildBatchWriteItemRequest(writeRequests.subList(50, 60))))));
+        verify(mockMetricsEmitter, times(3)).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("chunkLatency"),
+                anyDouble());
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("latency"), anyDouble());
+    }
+
+    @Test
+    void write_retriesUnprocessedItems() {
+        List<WriteRequest> writeRequests = buildWriteRequests(3);
+        List<WriteRequest> unprocessedItems = writeRequests.subList(1, 3);
+        when(mockAmazonDynamoDb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(
+                new BatchWriteItemResult().withUnprocessedItems(ImmutableMap.of(TABLE_NAME, unprocessedItems)),
+                new BatchWriteItemResult());
+
+        batchWriter.write(TABLE_NAME, writeRequests);
+
+        ArgumentCaptor<BatchWriteItemRequest> batchWriteItemRequestCaptor =
+                ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(mockAmazonDynamoDb, times(2)).batchWriteItem(batchWriteItemRequestCaptor.capture());
+        assertThat(batchWriteItemRequestCaptor.getAllValues(), is(equalTo(
+                ImmutableList.of(buildBatchWriteItemRequest(writeRequests),
+                        buildBatchWriteItemRequest(unprocessedItems)))));
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "unprocessedItemCount", 2);
+    }
+
+    @Test
+    void write_throwsBatchWriteException_whenItemsAreStillUnprocessedAfterLastAttempt() {
+        List<WriteRequest> writeRequests = buildWriteRequests(2);
+        when(mockAmazonDynamoDb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(
+                new BatchWriteItemResult().withUnprocessedItems(ImmutableMap.of(TABLE_NAME, writeRequests)));
+
+        assertThrows(BatchWriteException.class, () -> batchWriter.write(TABLE_NAME, writeRequests));
+
+        verify(mockAmazonDynamoDb, times(MAX_ATTEMPTS)).batchWriteItem(any(BatchWriteItemRequest.class));
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("chunkLatency"),
+                anyDouble());
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("latency"), anyDouble());
+    }
+
+    @Test
+    void write_writesItemsFromIteratorInChunksOf25() {
+        List<WriteRequest> writeRequests = buildWriteRequests(30);
+        when(mockAmazonDynamoDb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(
+                new BatchWriteItemResult());
+
+        assertThat(batchWriter.write(TABLE_NAME, writeRequests.iterator()), is(equalTo(30)));
+
+        ArgumentCaptor<BatchWriteItemRequest> batchWriteItemRequestCaptor =
+                ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(mockAmazonDynamoDb, times(2)).batchWriteItem(batchWriteItemRequestCaptor.capture());
+        assertThat(batchWriteItemRequestCaptor.getAllValues(), is(equalTo(ImmutableList.of(
+                buildBatchWriteItemRequest(writeRequests.subList(0, 25)),
+                buildBatchWriteItemRequest(writeRequests.subList(25, 30))))));
+    }
+
+    @Test
+    void write_stopsTakingItemsFromIterator_whenChunkFails() {
+        List<WriteRequest> writeRequests = buildWriteRequests(60);
+        when(mockAmazonDynamoDb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(
+                new BatchWriteItemResult().withUnprocessedItems(
+                        ImmutableMap.of(TABLE_NAME, writeRequests.subList(0, 1))));
+        Iterator<WriteRequest> iterator = writeRequests.iterator();
+
+        assertThrows(BatchWriteException.class, () -> batchWriter.write(TABLE_NAME, iterator));
+
+        verify(mockAmazonDynamoDb, times(MAX_ATTEMPTS)).batchWriteItem(any(BatchWriteItemRequest.class));
+        assertThat(Iterators.size(iterator), is(equalTo(35)));
+    }
+
+    @Test
+    void write_throwsIllegalStateException_whenCalledFromAThreadOfTheExecutor() {
+        BoundedExecutor boundedExecutor = BoundedExecutor.builder()
+                .name("TestExecutor")
+                .concurrency(1)
+                .queueCapacity(1)
+                .metricsEmitter(mockMetricsEmitter)
+                .build();
+        BatchWriter boundedBatchWriter = BatchWriter.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .executor(boundedExecutor)
+                .metricsEmitter(mockMetricsEmitter)
+                .maxAttempts(MAX_ATTEMPTS)
+                .baseBackoffMillis(0)
+                .build();
+        try {
+            assertThrows(IllegalStateException.class, () -> CompletableFutures.join(
+                    CompletableFuture.runAsync(() -> boundedBatchWriter.write(TABLE_NAME, buildWriteRequests(1)),
+                            boundedExecutor)));
+            verify(mockAmazonDynamoDb, never()).batchWriteItem(any(BatchWriteItemRequest.class));
+        } finally {
+            boundedExecutor.shutdown();
+        }
+    }
+
+    private static List<WriteRequest> buildWriteRequests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new WriteRequest(
+                        new PutRequest(ImmutableMap.of("pointId", new AttributeValue("point-" + i)))))
+                .collect(Collectors.toList());
+    }
+
+    private static BatchWriteItemRequest buildBatchWriteItemRequest(List<WriteRequest> writeRequests) {
+        return new BatchWriteItemRequest().withRequestItems(ImmutableMap.of(TABLE_NAME, writeRequests));
+    }
+}
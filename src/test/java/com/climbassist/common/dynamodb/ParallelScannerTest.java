@@ -0,0 +1,229 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelScannerTest {
+
+    private static final String TABLE_NAME = "Crags";
+    private static final String METRICS_COMPONENT = "ParallelScanner:" + TABLE_NAME;
+    private static final int SEGMENT_COUNT = 3;
+    private static final int PAGE_SIZE = 2;
+
+    @Mock
+    private AmazonDynamoDB mockAmazonDynamoDb;
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private ParallelScanner parallelScanner;
+
+    @BeforeEach
+    void setUp() {
+        parallelScanner = ParallelScanner.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .metricsEmitter(mockMetricsEmitter)
+                .segmentCount(SEGMENT_COUNT)
+                .pageSize(PAGE_SIZE)
+                .readCapacityUnitsPerSecond(1000)
+                .build();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(parallelScanner, NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenSegmentCountIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelScanner.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .metricsEmitter(mockMetricsEmitter)
+                .segmentCount(0)
+                .pageSize(PAGE_SIZE)
+                .readCapacityUnitsPerSecond(1000)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenPageSizeIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelScanner.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .metricsEmitter(mockMetricsEmitter)
+                .segmentCount(SEGMENT_COUNT)
+                .pageSize(0)
+                .readCapacityUnitsPerSecond(1000)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenReadCapacityUnitsPerSecondIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelScanner.builder()
+                .amazonDynamoDB(mockAmazonDynamoDb)
+                .metricsEmitter(mockMetricsEmitter)
+                .segmentCount(SEGMENT_COUNT)
+                .pageSize(PAGE_SIZE)
+                .readCapacityUnitsPerSecond(0)
+                .build());
+    }
+
+    @Test
+    void scan_passesEveryPageOfEverySegmentToConsumer() throws IOException {
+        // segment 0 has two pages, segment 1 has one and segment 2 is empty
+        when(mockAmazonDynamoDb.scan(any())).thenAnswer(invocation -> {
+            ScanRequest scanRequest = invocation.getArgument(0);
+            if (scanRequest.getSegment() == 0) {
+                return scanRequest.getExclusiveStartKey() == null ?
+                        buildScanResult(ImmutableList.of("crag-1", "crag-2"), "crag-2") :
+                        buildScanResult(ImmutableList.of("crag-3"), null);
+            }
+            if (scanRequest.getSegment() == 1) {
+                return buildScanResult(ImmutableList.of("crag-4", "crag-5"), null);
+            }
+            return buildScanResult(ImmutableList.of(), null);
+        });
+        List<List<Map<String, AttributeValue>>> pages = Collections.synchronizedList(new ArrayList<>());
+
+        long itemCount = parallelScanner.scan(TABLE_NAME, pages::add);
+
+        assertThat(itemCount, is(equalTo(5L)));
+        assertThat(pages.stream()
+                .flatMap(List::stream)
+                .map(item -> item.get("cragId")
+                        .getS())
+                .collect(Collectors.toList()), containsInAnyOrder("crag-1", "crag-2", "crag-3", "crag-4", "crag-5"));
+        // empty pages aren't passed on
+        assertThat(pages.size(), is(equalTo(3)));
+        ArgumentCaptor<ScanRequest> scanRequestCaptor = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(mockAmazonDynamoDb, times(4)).scan(scanRequestCaptor.capture());
+        assertThat(scanRequestCaptor.getAllValues()
+                .stream()
+                .map(ScanRequest::getSegment)
+                .collect(Collectors.toList()), containsInAnyOrder(0, 0, 1, 2));
+        assertThat(scanRequestCaptor.getAllValues()
+                .stream()
+                .map(scanRequest -> scanRequest.getTableName() + "," + scanRequest.getTotalSegments() + "," +
+                        scanRequest.getLimit() + "," + scanRequest.getReturnConsumedCapacity())
+                .collect(Collectors.toList()), everyItem(is(equalTo(String.join(",", TABLE_NAME,
+                String.valueOf(SEGMENT_COUNT), String.valueOf(PAGE_SIZE), ReturnConsumedCapacity.TOTAL.toString())))));
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "itemCount", 5);
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("latency"), anyDouble());
+    }
+
+    @Test
+    void scan_boundsUnconsumedPages_whenConsumerIsSlow() throws IOException {
+        when(mockAmazonDynamoDb.scan(any())).thenAnswer(invocation -> {
+            ScanRequest scanRequest = invocation.getArgument(0);
+            int page = scanRequest.getExclusiveStartKey() == null ? 0 : Integer.parseInt(
+                    scanRequest.getExclusiveStartKey()
+                            .get("cragId")
+                            .getS());
+            return buildScanResult(ImmutableList.of("crag-" + scanRequest.getSegment() + "-" + page),
+                    page < 9 ? String.valueOf(page + 1) : null);
+        });
+        List<Integer> outstandingPageCounts = new ArrayList<>();
+
+        parallelScanner.scan(TABLE_NAME, items -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            // pages that were read but not consumed yet are either in the queue or held by a segment waiting for room
+            outstandingPageCounts.add(countScanRequests() - outstandingPageCounts.size() - 1);
+        });
+
+        assertThat(outstandingPageCounts.size(), is(equalTo(SEGMENT_COUNT * 10)));
+        assertThat(outstandingPageCounts, everyItem(is(lessThanOrEqualTo(2 * SEGMENT_COUNT))));
+    }
+
+    @Test
+    void scan_throwsScanException_whenSegmentFails() {
+        when(mockAmazonDynamoDb.scan(any())).thenAnswer(invocation -> {
+            ScanRequest scanRequest = invocation.getArgument(0);
+            if (scanRequest.getSegment() == 1) {
+                throw new IllegalStateException("failure");
+            }
+            return buildScanResult(ImmutableList.of("crag-" + scanRequest.getSegment()), null);
+        });
+
+        ScanException scanException = assertThrows(ScanException.class,
+                () -> parallelScanner.scan(TABLE_NAME, items -> {
+                }));
+
+        assertThat(scanException.getCause()
+                .getMessage(), is(equalTo("failure")));
+    }
+
+    @Test
+    void scan_stopsAndRethrows_whenConsumerThrows() {
+        when(mockAmazonDynamoDb.scan(any())).thenAnswer(invocation -> {
+            ScanRequest scanRequest = invocation.getArgument(0);
+            return buildScanResult(ImmutableList.of("crag-" + scanRequest.getSegment()), "crag");
+        });
+
+        IOException ioException = assertThrows(IOException.class, () -> parallelScanner.scan(TABLE_NAME, items -> {
+            throw new IOException("client went away");
+        }));
+
+        assertThat(ioException.getMessage(), is(equalTo("client went away")));
+        verify(mockMetricsEmitter, atLeastOnce()).emitComponentCountMetric(METRICS_COMPONENT, "itemCount", 0);
+    }
+
+    private int countScanRequests() {
+        return (int) mockingDetails(mockAmazonDynamoDb)
+                .getInvocations()
+                .stream()
+                .filter(invocation -> invocation.getMethod()
+                        .getName()
+                        .equals("scan"))
+                .count();
+    }
+
+    private static ScanResult buildScanResult(List<String> cragIds, String lastEvaluatedCragId) {
+        return new ScanResult().withItems(cragIds.stream()
+                .map(cragId -> ImmutableMap.of("cragId", new AttributeValue(cragId)))
+                .collect(Collectors.toList()))
+                .withLastEvaluatedKey(lastEvaluatedCragId == null ? null :
+                        ImmutableMap.of("cragId", new AttributeValue(lastEvaluatedCragId)))
+                .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(0.5));
+    }
+}
@@ -0,0 +1,119 @@
+package com.climbassist.common.dynamodb;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ConditionCheck;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.Get;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ListTablesRequest;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItem;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.Update;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.climbassist.metrics.MetricsEmitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TableMetricsRequestHandlerTest {
+
+    private static final String TABLE_NAME = "Crags";
+    private static final String METRICS_COMPONENT = "DynamoDB:" + TABLE_NAME;
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private TableMetricsRequestHandler tableMetricsRequestHandler;
+
+    @BeforeEach
+    void setUp() {
+        tableMetricsRequestHandler = TableMetricsRequestHandler.builder()
+                .metricsEmitter(mockMetricsEmitter)
+                .build();
+    }
+
+    @Test
+    void afterResponse_emitsRequestCountAndLatencyForTable() {
+        DefaultRequest<GetItemRequest> request =
+                new DefaultRequest<>(new GetItemRequest().withTableName(TABLE_NAME), "AmazonDynamoDBv2");
+        tableMetricsRequestHandler.beforeRequest(request);
+        tableMetricsRequestHandler.afterResponse(request, null);
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "requestCount", 1);
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "errorCount", 0);
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("latency"), anyDouble());
+    }
+
+    @Test
+    void afterError_emitsErrorCountForTable() {
+        DefaultRequest<QueryRequest> request =
+                new DefaultRequest<>(new QueryRequest().withTableName(TABLE_NAME), "AmazonDynamoDBv2");
+        tableMetricsRequestHandler.beforeRequest(request);
+        tableMetricsRequestHandler.afterError(request, null, new RuntimeException());
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "requestCount", 1);
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "errorCount", 1);
+    }
+
+    @Test
+    void getTableName_returnsTableName_forBatchRequestWithOneTable() {
+        assertThat(TableMetricsRequestHandler.getTableName(new BatchWriteItemRequest().withRequestItems(
+                ImmutableMap.of(TABLE_NAME, ImmutableList.of(new WriteRequest())))), is(equalTo(TABLE_NAME)));
+    }
+
+    @Test
+    void getTableName_groupsBatchRequestsWithSeveralTables() {
+        assertThat(TableMetricsRequestHandler.getTableName(new BatchWriteItemRequest().withRequestItems(
+                ImmutableMap.of(TABLE_NAME, ImmutableList.of(new WriteRequest()), "Walls",
+                        ImmutableList.of(new WriteRequest())))), is(equalTo("MultipleTables")));
+    }
+
+    @Test
+    void getTableName_returnsTableName_forTransactionWithOneTable() {
+        assertThat(TableMetricsRequestHandler.getTableName(new TransactWriteItemsRequest().withTransactItems(
+                new TransactWriteItem().withPut(new Put().withTableName(TABLE_NAME)),
+                new TransactWriteItem().withDelete(new Delete().withTableName(TABLE_NAME)))),
+                is(equalTo(TABLE_NAME)));
+    }
+
+    @Test
+    void getTableName_namesTransactionAfterEveryTable_forTransactionWithSeveralTables() {
+        assertThat(TableMetricsRequestHandler.getTableName(new TransactWriteItemsRequest().withTransactItems(
+                new TransactWriteItem().withUpdate(new Update().withTableName("Routes")),
+                new TransactWriteItem().withPut(new Put().withTableName("Pitches")),
+                new TransactWriteItem().withConditionCheck(new ConditionCheck().withTableName("Routes")))),
+                is(equalTo("Pitches+Routes")));
+    }
+
+    @Test
+    void getTableName_returnsTableName_forTransactGetItemsRequest() {
+        assertThat(TableMetricsRequestHandler.getTableName(new TransactGetItemsRequest().withTransactItems(
+                new TransactGetItem().withGet(new Get().withTableName(TABLE_NAME)))), is(equalTo(TABLE_NAME)));
+    }
+
+    @Test
+    void getTableName_returnsUnknownTable_forTransactionWithoutItems() {
+        assertThat(TableMetricsRequestHandler.getTableName(new TransactWriteItemsRequest()),
+                is(equalTo("UnknownTable")));
+    }
+
+    @Test
+    void getTableName_returnsUnknownTable_forRequestsWithoutATable() {
+        assertThat(TableMetricsRequestHandler.getTableName(new ListTablesRequest()), is(equalTo("UnknownTable")));
+    }
+}
@@ -0,0 +1,38 @@
+package com.climbassist.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+class BoundingBoxTest {
+
+    @Test
+    void around_containsEveryPointOnTheCircle() {
+        BoundingBox boundingBox = BoundingBox.around(45, 10, 100);
+        // a degree of latitude is about 111 kilometers everywhere
+        assertThat(boundingBox.getMaxLatitude() - 45, is(closeTo(100 / 111.195, 1e-3)));
+        assertThat(boundingBox.getMinLatitude(), is(closeTo(45 - 100 / 111.195, 1e-3)));
+        // a degree of longitude is shorter away from the equator, so the box is wider than it is tall
+        assertThat(boundingBox.getMaxLongitude() - 10, is(greaterThan(boundingBox.getMaxLatitude() - 45)));
+        assertThat(GreatCircle.distanceKilometers(45, 10, 45, boundingBox.getMaxLongitude()),
+                is(greaterThan(99.0)));
+    }
+
+    @Test
+    void around_spansEveryLongitude_whenCircleContainsAPole() {
+        BoundingBox boundingBox = BoundingBox.around(89.5, 10, 100);
+        assertThat(boundingBox.spansEveryLongitude(), is(true));
+        assertThat(boundingBox.getMaxLatitude(), is(equalTo(90.0)));
+    }
+
+    @Test
+    void around_wrapsAroundAntimeridian() {
+        BoundingBox boundingBox = BoundingBox.around(0, 179.9, 100);
+        assertThat(boundingBox.getMinLongitude(), is(greaterThan(boundingBox.getMaxLongitude())));
+        assertThat(boundingBox.spansEveryLongitude(), is(false));
+    }
+}
@@ -0,0 +1,75 @@
+package com.climbassist.common.geo;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class DouglasPeuckerTest {
+
+    // about 111 meters in latitude
+    private static final double ONE_THOUSANDTH_OF_A_DEGREE = 0.001;
+    private static final GeoPoint START = new GeoPoint(0, 0);
+    private static final GeoPoint SMALL_BUMP = new GeoPoint(ONE_THOUSANDTH_OF_A_DEGREE / 10,
+            ONE_THOUSANDTH_OF_A_DEGREE);
+    private static final GeoPoint PEAK = new GeoPoint(ONE_THOUSANDTH_OF_A_DEGREE, 2 * ONE_THOUSANDTH_OF_A_DEGREE);
+    private static final GeoPoint END = new GeoPoint(0, 4 * ONE_THOUSANDTH_OF_A_DEGREE);
+    private static final List<GeoPoint> POINTS = ImmutableList.of(START, SMALL_BUMP, PEAK, END);
+
+    @Test
+    void getSignificances_returnsEmptyArray_forNoPoints() {
+        assertThat(DouglasPeucker.getSignificances(ImmutableList.of()).length, is(equalTo(0)));
+    }
+
+    @Test
+    void getSignificances_returnsInfinityForEndpoints() {
+        double[] significances = DouglasPeucker.getSignificances(POINTS);
+        assertThat(significances[0], is(equalTo(Double.POSITIVE_INFINITY)));
+        assertThat(significances[3], is(equalTo(Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    void getSignificances_returnsDistanceFromSegmentBetweenKeptPoints() {
+        double[] significances = DouglasPeucker.getSignificances(POINTS);
+        // the peak is split first, 1/1000 of a degree from the line between the endpoints
+        assertThat(significances[2], is(closeTo(111.2, 0.1)));
+        // the bump is then measured from the line between the start and the peak
+        assertThat(significances[1], is(closeTo(39.8, 0.1)));
+    }
+
+    @Test
+    void getSignificances_neverReturnsMoreThanTheSignificanceOfTheSplitAbove() {
+        // the second point doubles back past the third, so it's farther from the segment between the start and the
+        // third point than the third point is from the line between the endpoints
+        List<GeoPoint> points = ImmutableList.of(START, new GeoPoint(0.0001, 0.0003), new GeoPoint(0.0002, 0.0001),
+                END);
+        double[] significances = DouglasPeucker.getSignificances(points);
+        assertThat(significances[2], is(closeTo(22.2, 0.1)));
+        assertThat(significances[1], is(equalTo(significances[2])));
+    }
+
+    @Test
+    void simplify_keepsEveryPoint_withZeroTolerance() {
+        assertThat(DouglasPeucker.simplify(POINTS, 0), is(equalTo(POINTS)));
+    }
+
+    @Test
+    void simplify_dropsPointsWithinTolerance() {
+        assertThat(DouglasPeucker.simplify(POINTS, 50), is(equalTo(ImmutableList.of(START, PEAK, END))));
+    }
+
+    @Test
+    void simplify_keepsOnlyEndpoints_withToleranceLargerThanEveryDistance() {
+        assertThat(DouglasPeucker.simplify(POINTS, 1000), is(equalTo(ImmutableList.of(START, END))));
+    }
+
+    @Test
+    void simplify_keepsSinglePoint() {
+        assertThat(DouglasPeucker.simplify(ImmutableList.of(START), 1000), is(equalTo(ImmutableList.of(START))));
+    }
+}
@@ -0,0 +1,73 @@
+package com.climbassist.common.geo;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+class GeohashTest {
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testAllPublicStaticMethods(Geohash.class);
+    }
+
+    @Test
+    void encode_returnsKnownGeohash() {
+        assertThat(Geohash.encode(57.64911, 10.40744, 11), is(equalTo("u4pruydqqvj")));
+    }
+
+    @Test
+    void encode_returnsPrefixOfFinerGeohash() {
+        assertThat(Geohash.encode(57.64911, 10.40744, 5), is(equalTo("u4pru")));
+    }
+
+    @Test
+    void encode_handlesCorners() {
+        assertThat(Geohash.encode(-90, -180, 3), is(equalTo("000")));
+        assertThat(Geohash.encode(90, 179.99, 3), is(equalTo("zzz")));
+        // 180 is the same meridian as -180
+        assertThat(Geohash.encode(-90, 180, 3), is(equalTo("000")));
+    }
+
+    @Test
+    void cover_returnsSingleCell_forBoxInsideOneCell() {
+        BoundingBox boundingBox = new BoundingBox(57.649, 57.6492, 10.4074, 10.4075);
+        assertThat(Geohash.cover(boundingBox, 5), is(equalTo(ImmutableSet.of("u4pru"))));
+        assertThat(Geohash.countCovering(boundingBox, 5), is(equalTo(1L)));
+    }
+
+    @Test
+    void cover_returnsEveryOverlappingCell() {
+        // precision 1 cells are 45 degrees wide and 45 degrees tall
+        BoundingBox boundingBox = new BoundingBox(-10, 10, -10, 10);
+        Set<String> geohashes = Geohash.cover(boundingBox, 1);
+        assertThat(geohashes, is(equalTo(ImmutableSet.of("7", "k", "e", "s"))));
+        assertThat(Geohash.countCovering(boundingBox, 1), is(equalTo(4L)));
+    }
+
+    @Test
+    void cover_wrapsAroundAntimeridian() {
+        BoundingBox boundingBox = new BoundingBox(10, 20, 170, -170);
+        Set<String> geohashes = Geohash.cover(boundingBox, 1);
+        assertThat(geohashes, is(equalTo(ImmutableSet.of("x", "8"))));
+        assertThat(Geohash.countCovering(boundingBox, 1), is(equalTo(2L)));
+    }
+
+    @Test
+    void cover_returnsEveryColumn_whenBoxSpansEveryLongitude() {
+        BoundingBox boundingBox = new BoundingBox(80, 90, -180, 180);
+        Set<String> geohashes = Geohash.cover(boundingBox, 1);
+        assertThat(geohashes, hasSize(8));
+        assertThat(geohashes, hasItem("z"));
+        assertThat(Geohash.countCovering(boundingBox, 1), is(equalTo(8L)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.climbassist.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+class GreatCircleTest {
+
+    @Test
+    void distanceKilometers_returnsZero_forSamePoint() {
+        assertThat(GreatCircle.distanceKilometers(40.0, -105.0, 40.0, -105.0), is(closeTo(0, 1e-9)));
+    }
+
+    @Test
+    void distanceKilometers_returnsKnownDistance() {
+        // Boulder, CO to Yosemite Valley, CA
+        assertThat(GreatCircle.distanceKilometers(40.015, -105.2705, 37.7456, -119.5936), is(closeTo(1264, 5)));
+    }
+
+    @Test
+    void distanceKilometers_returnsHalfCircumference_forAntipodes() {
+        assertThat(GreatCircle.distanceKilometers(0, 0, 0, 180),
+                is(closeTo(Math.PI * GreatCircle.EARTH_RADIUS_KILOMETERS, 1e-6)));
+    }
+}
@@ -0,0 +1,60 @@
+package com.climbassist.common.geo;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PolylineTest {
+
+    private static final List<GeoPoint> POINTS = ImmutableList.of(new GeoPoint(38.5, -120.2),
+            new GeoPoint(40.7, -120.95), new GeoPoint(43.252, -126.453));
+    private static final String ENCODED_POINTS = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+    @Test
+    void encode_returnsEmptyString_forNoPoints() {
+        assertThat(Polyline.encode(ImmutableList.of()), is(equalTo("")));
+    }
+
+    @Test
+    void encode_encodesPoints() {
+        assertThat(Polyline.encode(POINTS), is(equalTo(ENCODED_POINTS)));
+    }
+
+    @Test
+    void decode_decodesPoints() {
+        List<GeoPoint> points = Polyline.decode(ENCODED_POINTS);
+        assertThat(points.size(), is(equalTo(POINTS.size())));
+        for (int i = 0; i < points.size(); i++) {
+            assertThat(points.get(i)
+                    .getLatitude(), is(closeTo(POINTS.get(i)
+                    .getLatitude(), 1e-9)));
+            assertThat(points.get(i)
+                    .getLongitude(), is(closeTo(POINTS.get(i)
+                    .getLongitude(), 1e-9)));
+        }
+    }
+
+    @Test
+    void decode_roundsTripWithEncode_forPointsOnEveryHemisphere() {
+        List<GeoPoint> points = ImmutableList.of(new GeoPoint(-33.86882, 151.20930), new GeoPoint(0, 0),
+                new GeoPoint(64.14660, -21.94260), new GeoPoint(-89.99999, -179.99999));
+        assertThat(Polyline.decode(Polyline.encode(points)), is(equalTo(points)));
+    }
+
+    @Test
+    void decode_throwsIllegalArgumentException_whenPolylineEndsInTheMiddleOfAValue() {
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF~ps|"));
+    }
+
+    @Test
+    void decode_throwsIllegalArgumentException_whenPolylineContainsAnInvalidCharacter() {
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF ps|U"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.climbassist.common.geo;
+
+import com.google.common.testing.NullPointerTester;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuadTreeTest {
+
+    @SuppressWarnings("UnstableApiUsage")
+    @Test
+    void parametersMarkedWithNonNull_throwNullPointerException_forNullValues() {
+        new NullPointerTester().testInstanceMethods(new QuadTree<String>(), NullPointerTester.Visibility.PACKAGE);
+    }
+
+    @Test
+    void query_returnsNothing_whenTreeIsEmpty() {
+        assertThat(new QuadTree<String>().query(0, 0, 1, 1), is(empty()));
+    }
+
+    @Test
+    void query_returnsValuesInsideRectangle_includingItsEdges() {
+        QuadTree<String> quadTree = new QuadTree<>();
+        quadTree.insert(0.1, 0.1, "inside");
+        quadTree.insert(0.2, 0.3, "edge");
+        quadTree.insert(0.5, 0.5, "outside");
+        quadTree.insert(1, 1, "corner");
+        assertThat(quadTree.query(0, 0, 0.2, 0.3), containsInAnyOrder("inside", "edge"));
+        assertThat(quadTree.query(0.9, 0.9, 1, 1), containsInAnyOrder("corner"));
+        assertThat(quadTree.size(), is(equalTo(4)));
+    }
+
+    @Test
+    void query_matchesLinearScan_afterNodesAreSplit() {
+        Random random = new Random(1);
+        QuadTree<Integer> quadTree = new QuadTree<>();
+        double[][] points = new double[5000][];
+        for (int i = 0; i < points.length; i++) {
+            // half of the points are packed close together to force deep splits
+            points[i] = i % 2 == 0 ? new double[]{random.nextDouble(), random.nextDouble()} :
+                    new double[]{0.25 + random.nextDouble() * 1e-6, 0.75 + random.nextDouble() * 1e-6};
+            quadTree.insert(points[i][0], points[i][1], i);
+        }
+        for (int query = 0; query < 100; query++) {
+            double minX = random.nextDouble() * 0.8;
+            double minY = random.nextDouble() * 0.8;
+            double maxX = minX + random.nextDouble() * 0.2;
+            double maxY = minY + random.nextDouble() * 0.2;
+            List<Integer> expected = IntStream.range(0, points.length)
+                    .filter(i -> points[i][0] >= minX && points[i][0] <= maxX && points[i][1] >= minY &&
+                            points[i][1] <= maxY)
+                    .boxed()
+                    .collect(Collectors.toList());
+            assertThat(quadTree.query(minX, minY, maxX, maxY), containsInAnyOrder(expected.toArray()));
+        }
+    }
+
+    @Test
+    void insert_keepsPointsAtTheSamePosition() {
+        QuadTree<Integer> quadTree = new QuadTree<>();
+        IntStream.range(0, 100)
+                .forEach(i -> quadTree.insert(0.5, 0.5, i));
+        assertThat(quadTree.query(0.5, 0.5, 0.5, 0.5)
+                .size(), is(equalTo(100)));
+    }
+
+    @Test
+    void insert_throwsIllegalArgumentException_whenPointIsOutsideOfUnitSquare() {
+        assertThrows(IllegalArgumentException.class, () -> new QuadTree<String>().insert(1.5, 0.5, "value"));
+        assertThrows(IllegalArgumentException.class, () -> new QuadTree<String>().insert(0.5, -0.1, "value"));
+    }
+}
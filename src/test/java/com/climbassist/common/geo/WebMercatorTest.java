@@ -0,0 +1,34 @@
+package com.climbassist.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class WebMercatorTest {
+
+    @Test
+    void toXAndToY_projectCornersAndCenterOfTheMap() {
+        assertThat(WebMercator.toX(-180), is(equalTo(0.0)));
+        assertThat(WebMercator.toX(180), is(equalTo(1.0)));
+        assertThat(WebMercator.toX(0), is(equalTo(0.5)));
+        assertThat(WebMercator.toY(0), is(closeTo(0.5, 1e-12)));
+        assertThat(WebMercator.toY(WebMercator.MAX_LATITUDE), is(closeTo(0, 1e-9)));
+        assertThat(WebMercator.toY(-WebMercator.MAX_LATITUDE), is(closeTo(1, 1e-9)));
+    }
+
+    @Test
+    void toY_clampsLatitudesBeyondTheEdgeOfTheMap() {
+        assertThat(WebMercator.toY(90), is(equalTo(WebMercator.toY(WebMercator.MAX_LATITUDE))));
+        assertThat(WebMercator.toY(-90), is(equalTo(WebMercator.toY(-WebMercator.MAX_LATITUDE))));
+    }
+
+    @Test
+    void toLatitudeAndToLongitude_invertTheProjection() {
+        assertThat(WebMercator.toLatitude(WebMercator.toY(40.015)), is(closeTo(40.015, 1e-9)));
+        assertThat(WebMercator.toLatitude(WebMercator.toY(-33.9)), is(closeTo(-33.9, 1e-9)));
+        assertThat(WebMercator.toLongitude(WebMercator.toX(-105.2705)), is(closeTo(-105.2705, 1e-9)));
+    }
+}
@@ -1,11 +1,21 @@
 package com.climbassist.common.s3;
 
+import com.amazonaws.SdkClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.climbassist.metrics.MetricsEmitter;
 import com.google.common.testing.NullPointerTester;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,25 +24,50 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class S3ProxyTest {
 
     private static final String BUCKET = "bucket";
     private static final String KEY = "key";
+    private static final String METRICS_COMPONENT = "S3Upload:" + BUCKET;
+    private static final String UPLOAD_ID = "upload-1";
     private static final String OBJECT_CONTENT = "this is an object";
     private static final InputStream INPUT_STREAM = IOUtils.toInputStream(OBJECT_CONTENT);
     private static final AmazonS3URI EXPECTED_OBJECT_URI = AmazonS3UriBuilder.buildAmazonS3Uri(BUCKET, KEY);
+    private static final long PART_SIZE_BYTES = S3Proxy.MIN_PART_SIZE_BYTES;
+    // two full parts and a short last one
+    private static final byte[] LARGE_OBJECT_CONTENT = buildContent(2 * PART_SIZE_BYTES + 10);
+    private static final int MAX_PART_ATTEMPTS = 3;
 
     @Mock
     private AmazonS3 mockAmazonS3;
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
 
     private S3Proxy s3Proxy;
 
@@ -40,6 +75,12 @@ class S3ProxyTest {
     void setUp() {
         s3Proxy = S3Proxy.builder()
                 .amazonS3(mockAmazonS3)
+                .executor(MoreExecutors.directExecutor())
+                .metricsEmitter(mockMetricsEmitter)
+                .partSizeBytes(PART_SIZE_BYTES)
+                .partConcurrency(2)
+                .maxPartAttempts(MAX_PART_ATTEMPTS)
+                .partBaseBackoffMillis(0)
                 .build();
     }
 
@@ -50,6 +91,30 @@ class S3ProxyTest {
         nullPointerTester.testInstanceMethods(s3Proxy, NullPointerTester.Visibility.PACKAGE);
     }
 
+    @Test
+    void builder_throwsIllegalArgumentException_whenPartSizeIsUnderS3Minimum() {
+        assertThrows(IllegalArgumentException.class, () -> S3Proxy.builder()
+                .amazonS3(mockAmazonS3)
+                .executor(MoreExecutors.directExecutor())
+                .metricsEmitter(mockMetricsEmitter)
+                .partSizeBytes(S3Proxy.MIN_PART_SIZE_BYTES - 1)
+                .partConcurrency(2)
+                .maxPartAttempts(MAX_PART_ATTEMPTS)
+                .build());
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenPartConcurrencyIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> S3Proxy.builder()
+                .amazonS3(mockAmazonS3)
+                .executor(MoreExecutors.directExecutor())
+                .metricsEmitter(mockMetricsEmitter)
+                .partSizeBytes(PART_SIZE_BYTES)
+                .partConcurrency(0)
+                .maxPartAttempts(MAX_PART_ATTEMPTS)
+                .build());
+    }
+
     @Test
     void putPublicObject_putsObjectWithMetadata() throws IOException {
         assertThat(s3Proxy.putPublicObject(BUCKET, KEY, INPUT_STREAM, OBJECT_CONTENT.length()),
@@ -64,6 +129,133 @@ class S3ProxyTest {
         assertThat((int) putObjectRequest.getMetadata()
                 .getContentLength(), is(equalTo(OBJECT_CONTENT.length())));
         assertThat(putObjectRequest.getCannedAcl(), is(equalTo(CannedAccessControlList.PublicRead)));
+        verify(mockAmazonS3, never()).initiateMultipartUpload(any());
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("duration"), anyDouble());
+        verify(mockMetricsEmitter).emitComponentThroughputMetric(eq(METRICS_COMPONENT), eq("throughput"),
+                anyDouble());
+    }
+
+    @Test
+    void putPublicObject_uploadsInParts_whenObjectIsLargerThanOnePart() throws IOException {
+        List<byte[]> uploadedParts = new ArrayList<>();
+        when(mockAmazonS3.initiateMultipartUpload(any())).thenReturn(buildInitiateMultipartUploadResult());
+        when(mockAmazonS3.uploadPart(any())).thenAnswer(invocation -> {
+            UploadPartRequest uploadPartRequest = invocation.getArgument(0);
+            uploadedParts.add(IOUtils.toByteArray(uploadPartRequest.getInputStream()));
+            return buildUploadPartResult(uploadPartRequest.getPartNumber());
+        });
+
+        assertThat(s3Proxy.putPublicObject(BUCKET, KEY, new ByteArrayInputStream(LARGE_OBJECT_CONTENT),
+                LARGE_OBJECT_CONTENT.length), is(equalTo(EXPECTED_OBJECT_URI)));
+
+        ArgumentCaptor<InitiateMultipartUploadRequest> initiateMultipartUploadRequestArgumentCaptor =
+                ArgumentCaptor.forClass(InitiateMultipartUploadRequest.class);
+        verify(mockAmazonS3).initiateMultipartUpload(initiateMultipartUploadRequestArgumentCaptor.capture());
+        assertThat(initiateMultipartUploadRequestArgumentCaptor.getValue()
+                .getCannedACL(), is(equalTo(CannedAccessControlList.PublicRead)));
+        assertThat(uploadedParts.stream()
+                .map(part -> part.length)
+                .collect(Collectors.toList()), is(equalTo(Arrays.asList((int) PART_SIZE_BYTES, (int) PART_SIZE_BYTES,
+                10))));
+        ByteArrayInputStream reassembledContent = new ByteArrayInputStream(concatenate(uploadedParts));
+        assertThat(IOUtils.contentEquals(reassembledContent, new ByteArrayInputStream(LARGE_OBJECT_CONTENT)),
+                is(true));
+        CompleteMultipartUploadRequest completeMultipartUploadRequest = captureCompleteMultipartUploadRequest();
+        assertThat(completeMultipartUploadRequest.getUploadId(), is(equalTo(UPLOAD_ID)));
+        assertThat(completeMultipartUploadRequest.getPartETags()
+                .stream()
+                .map(PartETag::getPartNumber)
+                .collect(Collectors.toList()), is(equalTo(Arrays.asList(1, 2, 3))));
+        verify(mockAmazonS3, never()).putObject(any());
+        verify(mockMetricsEmitter).emitComponentDurationMetric(eq(METRICS_COMPONENT), eq("duration"), anyDouble());
+    }
+
+    @Test
+    void putPublicObject_retriesFailedPart() throws IOException {
+        AtomicInteger attemptCount = new AtomicInteger();
+        when(mockAmazonS3.initiateMultipartUpload(any())).thenReturn(buildInitiateMultipartUploadResult());
+        when(mockAmazonS3.uploadPart(any())).thenAnswer(invocation -> {
+            UploadPartRequest uploadPartRequest = invocation.getArgument(0);
+            if (uploadPartRequest.getPartNumber() == 2 && attemptCount.incrementAndGet() < MAX_PART_ATTEMPTS) {
+                throw new SdkClientException("Connection reset.");
+            }
+            return buildUploadPartResult(uploadPartRequest.getPartNumber());
+        });
+
+        s3Proxy.putPublicObject(BUCKET, KEY, new ByteArrayInputStream(LARGE_OBJECT_CONTENT),
+                LARGE_OBJECT_CONTENT.length);
+
+        verify(mockAmazonS3, times(3 + MAX_PART_ATTEMPTS - 1)).uploadPart(any());
+        verify(mockMetricsEmitter, times(MAX_PART_ATTEMPTS - 1)).emitComponentCountMetric(METRICS_COMPONENT,
+                "partRetryCount", 1);
+        assertThat(captureCompleteMultipartUploadRequest().getPartETags()
+                .size(), is(equalTo(3)));
+        verify(mockAmazonS3, never()).abortMultipartUpload(any());
+    }
+
+    @Test
+    void putPublicObject_abortsUpload_whenPartFailsOnLastAttempt() {
+        SdkClientException sdkClientException = new SdkClientException("Connection reset.");
+        when(mockAmazonS3.initiateMultipartUpload(any())).thenReturn(buildInitiateMultipartUploadResult());
+        when(mockAmazonS3.uploadPart(any())).thenThrow(sdkClientException);
+
+        SdkClientException thrownException = assertThrows(SdkClientException.class,
+                () -> s3Proxy.putPublicObject(BUCKET, KEY, new ByteArrayInputStream(LARGE_OBJECT_CONTENT),
+                        LARGE_OBJECT_CONTENT.length));
+
+        assertThat(thrownException, is(equalTo(sdkClientException)));
+        // no more parts are started once one has failed
+        verify(mockAmazonS3, times(MAX_PART_ATTEMPTS)).uploadPart(any());
+        verifyAborted();
+        verify(mockAmazonS3, never()).completeMultipartUpload(any());
+    }
+
+    @Test
+    void putPublicObject_abortsUpload_whenStreamEndsEarly() {
+        when(mockAmazonS3.initiateMultipartUpload(any())).thenReturn(buildInitiateMultipartUploadResult());
+        when(mockAmazonS3.uploadPart(any())).thenAnswer(invocation -> buildUploadPartResult(
+                ((UploadPartRequest) invocation.getArgument(0)).getPartNumber()));
+
+        assertThrows(EOFException.class, () -> s3Proxy.putPublicObject(BUCKET, KEY, new ByteArrayInputStream(
+                Arrays.copyOf(LARGE_OBJECT_CONTENT, (int) PART_SIZE_BYTES + 1)), LARGE_OBJECT_CONTENT.length));
+
+        verifyAborted();
+        verify(mockAmazonS3, never()).completeMultipartUpload(any());
+    }
+
+    @Test
+    void putPublicObject_limitsPartsInFlight() throws Exception {
+        int partConcurrency = 2;
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            S3Proxy concurrentS3Proxy = S3Proxy.builder()
+                    .amazonS3(mockAmazonS3)
+                    .executor(executorService)
+                    .metricsEmitter(mockMetricsEmitter)
+                    .partSizeBytes(PART_SIZE_BYTES)
+                    .partConcurrency(partConcurrency)
+                    .maxPartAttempts(MAX_PART_ATTEMPTS)
+                    .partBaseBackoffMillis(0)
+                    .build();
+            AtomicInteger partsInFlight = new AtomicInteger();
+            AtomicInteger maxPartsInFlight = new AtomicInteger();
+            when(mockAmazonS3.initiateMultipartUpload(any())).thenReturn(buildInitiateMultipartUploadResult());
+            when(mockAmazonS3.uploadPart(any())).thenAnswer(invocation -> {
+                maxPartsInFlight.accumulateAndGet(partsInFlight.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                partsInFlight.decrementAndGet();
+                return buildUploadPartResult(((UploadPartRequest) invocation.getArgument(0)).getPartNumber());
+            });
+            byte[] content = buildContent(5 * PART_SIZE_BYTES);
+
+            concurrentS3Proxy.putPublicObject(BUCKET, KEY, new ByteArrayInputStream(content), content.length);
+
+            assertThat(maxPartsInFlight.get(), is(lessThanOrEqualTo(partConcurrency)));
+            assertThat(captureCompleteMultipartUploadRequest().getPartETags()
+                    .size(), is(equalTo(5)));
+        } finally {
+            executorService.shutdownNow();
+        }
     }
 
     @Test
@@ -76,4 +268,53 @@ class S3ProxyTest {
         assertThat(actualDeleteObjectRequest.getBucketName(), is(equalTo(BUCKET)));
         assertThat(actualDeleteObjectRequest.getKey(), is(equalTo(KEY)));
     }
+
+    private CompleteMultipartUploadRequest captureCompleteMultipartUploadRequest() {
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeMultipartUploadRequestArgumentCaptor =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(mockAmazonS3).completeMultipartUpload(completeMultipartUploadRequestArgumentCaptor.capture());
+        return completeMultipartUploadRequestArgumentCaptor.getValue();
+    }
+
+    private void verifyAborted() {
+        ArgumentCaptor<AbortMultipartUploadRequest> abortMultipartUploadRequestArgumentCaptor =
+                ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(mockAmazonS3).abortMultipartUpload(abortMultipartUploadRequestArgumentCaptor.capture());
+        assertThat(abortMultipartUploadRequestArgumentCaptor.getValue()
+                .getUploadId(), is(equalTo(UPLOAD_ID)));
+        verify(mockMetricsEmitter).emitComponentCountMetric(METRICS_COMPONENT, "abortedUploadCount", 1);
+    }
+
+    private static InitiateMultipartUploadResult buildInitiateMultipartUploadResult() {
+        InitiateMultipartUploadResult initiateMultipartUploadResult = new InitiateMultipartUploadResult();
+        initiateMultipartUploadResult.setUploadId(UPLOAD_ID);
+        return initiateMultipartUploadResult;
+    }
+
+    private static UploadPartResult buildUploadPartResult(int partNumber) {
+        UploadPartResult uploadPartResult = new UploadPartResult();
+        uploadPartResult.setPartNumber(partNumber);
+        uploadPartResult.setETag("etag-" + partNumber);
+        return uploadPartResult;
+    }
+
+    private static byte[] buildContent(long length) {
+        byte[] content = new byte[(int) length];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static byte[] concatenate(List<byte[]> parts) {
+        byte[] content = new byte[parts.stream()
+                .mapToInt(part -> part.length)
+                .sum()];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, content, offset, part.length);
+            offset += part.length;
+        }
+        return content;
+    }
 }
@@ -0,0 +1,120 @@
+package com.climbassist.logging;
+
+import com.climbassist.metrics.MetricsEmitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncLogWriterTest {
+
+    @Mock
+    private MetricsEmitter mockMetricsEmitter;
+
+    private AsyncLogWriter asyncLogWriter;
+
+    @BeforeEach
+    void setUp() {
+        asyncLogWriter = AsyncLogWriter.builder()
+                .objectMapper(new ObjectMapper())
+                .metricsEmitter(mockMetricsEmitter)
+                .queueCapacity(1)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncLogWriter.shutdown();
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenQueueCapacityIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> AsyncLogWriter.builder()
+                .objectMapper(new ObjectMapper())
+                .metricsEmitter(mockMetricsEmitter)
+                .queueCapacity(0)
+                .build());
+    }
+
+    @Test
+    void write_throwsNullPointerException_whenRecordSupplierIsNull() {
+        assertThrows(NullPointerException.class, () -> asyncLogWriter.write("Request: ", null));
+    }
+
+    @Test
+    void write_buildsRecordOnBackgroundThread() throws InterruptedException {
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch writtenLatch = new CountDownLatch(1);
+
+        asyncLogWriter.write("Request: ", () -> {
+            threadName.set(Thread.currentThread()
+                    .getName());
+            writtenLatch.countDown();
+            return "record";
+        });
+
+        assertThat(writtenLatch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(threadName.get(), startsWith("AsyncLogWriter-"));
+        assertThat(asyncLogWriter.getDroppedRecordCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    void write_dropsRecord_whenQueueIsFull() throws InterruptedException {
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        // occupy the background thread, then fill the queue
+        asyncLogWriter.write("Request: ", () -> {
+            startedLatch.countDown();
+            try {
+                blockingLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+            return "record";
+        });
+        assertThat(startedLatch.await(5, TimeUnit.SECONDS), is(true));
+        asyncLogWriter.write("Request: ", () -> "record");
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        asyncLogWriter.write("Request: ", () -> {
+            thread.set(Thread.currentThread());
+            return "record";
+        });
+        blockingLatch.countDown();
+
+        assertThat(asyncLogWriter.getDroppedRecordCount(), is(equalTo(1L)));
+        assertThat(thread.get(), is((Thread) null));
+        verify(mockMetricsEmitter).emitComponentCountMetric("AsyncLogWriter", "droppedRecords", 1);
+    }
+
+    @Test
+    void write_keepsWriting_whenRecordFailsToSerialize() throws InterruptedException {
+        CountDownLatch writtenLatch = new CountDownLatch(1);
+        asyncLogWriter.write("Request: ", () -> {
+            throw new IllegalStateException("failure");
+        });
+
+        asyncLogWriter.write("Request: ", () -> {
+            writtenLatch.countDown();
+            return "record";
+        });
+
+        assertThat(writtenLatch.await(5, TimeUnit.SECONDS), is(true));
+    }
+}
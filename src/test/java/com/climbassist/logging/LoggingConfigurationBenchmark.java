@@ -0,0 +1,180 @@
+package com.climbassist.logging;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long the logging done for one request keeps the request thread busy with the production log4j2.xml,
+ * next to the synchronous configuration it replaced, which is kept here as the baseline. This isn't run as part of the
+ * tests; run its main method from the test classpath, optionally passing the numbers of request threads to measure.
+ *
+ * <p>Each simulated request logs a request record, a few plain messages and a response record, like a sampled request
+ * does, with requests sent back to back. Logs are written to a temporary directory. The time it takes to flush what's
+ * still queued when the configuration is stopped is reported separately, along with the share of events that were
+ * written rather than dropped because the queue was full.
+ */
+public class LoggingConfigurationBenchmark {
+
+    private static final int[] DEFAULT_THREAD_COUNTS = {1, 8};
+    private static final int WARM_UP_REQUEST_COUNT = 5_000;
+    private static final int REQUEST_COUNT = 20_000;
+    private static final int EVENTS_PER_REQUEST = 4;
+    private static final String BEFORE_CONFIGURATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<Configuration packages=\"com.climbassist.logging\">\n" +
+            "    <Appenders>\n" +
+            "        <File name=\"FileAppender\" fileName=\"${sys:catalina.base}/logs/application.log\" " +
+            "immediateFlush=\"true\" append=\"false\">\n" +
+            "            <PatternLayout>\n" +
+            "                <Pattern>%X{RequestId} %d{yyy-MM-dd HH:mm:ss.SSS} %-5level %location - %msg%n" +
+            "</Pattern>\n" +
+            "            </PatternLayout>\n" +
+            "        </File>\n" +
+            "        <Rewrite name=\"RedactingRewritePolicy\">\n" +
+            "            <RedactingRewritePolicy/>\n" +
+            "            <AppenderRef ref=\"FileAppender\"/>\n" +
+            "        </Rewrite>\n" +
+            "    </Appenders>\n" +
+            "    <Loggers>\n" +
+            "        <Root level=\"info\">\n" +
+            "            <AppenderRef ref=\"RedactingRewritePolicy\"/>\n" +
+            "        </Root>\n" +
+            "    </Loggers>\n" +
+            "</Configuration>\n";
+    private static final String REQUEST_RECORD = "Request: {\"protocol\":\"HTTP/1.1\",\"method\":\"GET\",\"path\":" +
+            "\"/v1/crags/crag-1\",\"headers\":{\"User-Agent\":[\"Mozilla/5.0\"]},\"userId\":\"user-1\"}";
+    private static final String RESPONSE_RECORD;
+
+    static {
+        StringBuilder walls = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            walls.append(i == 0 ? "" : ",")
+                    .append("{\"wallId\":\"wall-")
+                    .append(i)
+                    .append("\",\"name\":\"Wall ")
+                    .append(i)
+                    .append("\",\"description\":\"Steep orange limestone.\",\"routeCount\":12}");
+        }
+        RESPONSE_RECORD = "Response: {\"duration\":12,\"status\":200,\"headers\":{\"Content-Type\":" +
+                "[\"application/json\"]},\"jsonBody\":{\"data\":{\"cragId\":\"crag-1\",\"walls\":[" + walls + "]}}}";
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] threadCounts = args.length == 0 ? DEFAULT_THREAD_COUNTS : Arrays.stream(args)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        File logDirectory = Files.createTempDirectory("logging-benchmark")
+                .toFile();
+        try {
+            File beforeConfiguration = new File(logDirectory, "log4j2-before.xml");
+            Files.write(beforeConfiguration.toPath(), BEFORE_CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+            URI afterConfiguration = LoggingConfigurationBenchmark.class.getResource("/log4j2.xml")
+                    .toURI();
+
+            System.out.printf("%8s %8s %14s %16s %16s %12s %10s%n", "config", "threads", "requests/s",
+                    "request p50 us", "request p99 us", "drain ms", "written");
+            for (int threadCount : threadCounts) {
+                run("before", beforeConfiguration.toURI(), threadCount, logDirectory);
+                run("after", afterConfiguration, threadCount, logDirectory);
+            }
+        } finally {
+            FileUtils.deleteDirectory(logDirectory);
+        }
+    }
+
+    private static void run(String name, URI configurationLocation, int threadCount, File logDirectory)
+            throws Exception {
+        // the configurations log to ${sys:catalina.base}/logs, so each run gets its own directory
+        File runDirectory = new File(logDirectory, name + "-" + threadCount);
+        System.setProperty("catalina.base", runDirectory.getAbsolutePath());
+        LoggerContext loggerContext = new LoggerContext(name);
+        Configuration configuration = ConfigurationFactory.getInstance()
+                .getConfiguration(loggerContext, name, configurationLocation);
+        loggerContext.start(configuration);
+        Logger logger = loggerContext.getLogger(LoggingConfigurationBenchmark.class.getName());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            runRequests(executorService, logger, threadCount, WARM_UP_REQUEST_COUNT);
+            long startTime = System.nanoTime();
+            long[] requestNanos = runRequests(executorService, logger, threadCount, REQUEST_COUNT);
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            long stopStartTime = System.nanoTime();
+            loggerContext.stop();
+            long drainNanos = System.nanoTime() - stopStartTime;
+
+            Arrays.sort(requestNanos);
+            long writtenEventCount;
+            try (Stream<String> lines = Files.lines(new File(runDirectory, "logs/application.log").toPath())) {
+                writtenEventCount = lines.count();
+            }
+            double loggedEventCount = (double) (WARM_UP_REQUEST_COUNT + REQUEST_COUNT) * EVENTS_PER_REQUEST;
+            System.out.printf("%8s %8d %14.0f %16.1f %16.1f %12.1f %9.1f%%%n", name, threadCount,
+                    requestNanos.length / (elapsedNanos / 1_000_000_000.0), percentile(requestNanos, 0.5) / 1000.0,
+                    percentile(requestNanos, 0.99) / 1000.0, drainNanos / 1_000_000.0,
+                    writtenEventCount * 100 / loggedEventCount);
+        } finally {
+            executorService.shutdownNow();
+            loggerContext.stop();
+        }
+    }
+
+    private static long[] runRequests(ExecutorService executorService, Logger logger, int threadCount,
+                                      int requestCount) throws Exception {
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                long[] requestNanos = new long[requestCount / threadCount];
+                for (int j = 0; j < requestNanos.length; j++) {
+                    long startTime = System.nanoTime();
+                    logRequest(logger, j);
+                    requestNanos[j] = System.nanoTime() - startTime;
+                }
+                return requestNanos;
+            }));
+        }
+        List<Long> allRequestNanos = new ArrayList<>(requestCount);
+        for (Future<long[]> future : futures) {
+            for (long requestNanos : future.get()) {
+                allRequestNanos.add(requestNanos);
+            }
+        }
+        return allRequestNanos.stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private static void logRequest(Logger logger, int requestNumber) {
+        ThreadContext.put("RequestId", UUID.randomUUID()
+                .toString());
+        try {
+            logger.info(REQUEST_RECORD);
+            logger.info("Retrieved crag crag-" + requestNumber + " from the cache.");
+            logger.info("Loaded 20 walls for crag crag-" + requestNumber + ".");
+            logger.info(RESPONSE_RECORD);
+        } finally {
+            ThreadContext.remove("RequestId");
+        }
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        return sortedValues[(int) Math.min(sortedValues.length - 1, Math.floor(sortedValues.length * percentile))];
+    }
+}
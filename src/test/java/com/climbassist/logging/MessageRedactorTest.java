@@ -0,0 +1,63 @@
+package com.climbassist.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class MessageRedactorTest {
+
+    private static final String REDACTED = MessageRedactor.REDACTED;
+
+    @Test
+    void redact_returnsSameMessage_whenNothingIsSensitive() {
+        String message = "Request: {\"path\":\"/v1/crags\",\"jsonBody\":{\"name\":\"Crag 1\",\"type\":\"email\"}}";
+        assertThat(MessageRedactor.redact(message), is(sameInstance(message)));
+    }
+
+    @Test
+    void redact_doesNotRedactNonStringValues() {
+        String message = "{\"email\": null, \"subject\": [\"a\"], \"username\": 1}";
+        assertThat(MessageRedactor.redact(message), is(sameInstance(message)));
+    }
+
+    @Test
+    void redact_doesNotRedactKeysThatOnlyStartWithSensitiveKey() {
+        String message = "{\"emailVerified\": \"true\", \"passwords\": \"x\"}";
+        assertThat(MessageRedactor.redact(message), is(sameInstance(message)));
+    }
+
+    @Test
+    void redact_redactsWholeValue_whenValueHasEscapedQuotes() {
+        assertThat(MessageRedactor.redact("{\"password\":\"han \\\"shot\\\" first\",\"name\":\"Han\"}"),
+                is(equalTo("{\"password\":\"" + REDACTED + "\",\"name\":\"Han\"}")));
+    }
+
+    @Test
+    void redact_redactsToEndOfMessage_whenValueIsNotClosed() {
+        assertThat(MessageRedactor.redact("{\"password\":\"han-sh [content truncated]"),
+                is(equalTo("{\"password\":\"" + REDACTED)));
+    }
+
+    @Test
+    void redact_redactsJsonEscapedInsideString() {
+        String message = "Request: {\"body\":\"{\\\"password\\\": \\\"han \\\\\\\"shot\\\\\\\" first\\\", " +
+                "\\\"email\\\":\\\"han@milleniumfalcon.com\\\"}\"}";
+        assertThat(MessageRedactor.redact(message), is(equalTo("Request: {\"body\":\"{\\\"password\\\": \\\"" +
+                REDACTED + "\\\", \\\"email\\\":\\\"" + REDACTED + "\\\"}\"}")));
+    }
+
+    @Test
+    void redact_redactsToEndOfString_whenEscapedValueIsTruncated() {
+        assertThat(MessageRedactor.redact("{\"body\":\"{\\\"password\\\":\\\"han-sh [content truncated]\"}"),
+                is(equalTo("{\"body\":\"{\\\"password\\\":\\\"" + REDACTED + "\"}")));
+    }
+
+    @Test
+    void redact_redactsAliasInsideJsonString_withoutEatingTheClosingQuote() {
+        assertThat(MessageRedactor.redact("{\"message\":\"User with email han@milleniumfalcon.com\"}"),
+                is(equalTo("{\"message\":\"User with email " + REDACTED + "\"}")));
+    }
+}
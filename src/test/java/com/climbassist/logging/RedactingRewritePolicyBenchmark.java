@@ -0,0 +1,174 @@
+package com.climbassist.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Measures how many log events per second {@link RedactingRewritePolicy} rewrites, next to the three regular expression
+ * passes it used before, which are kept here as the baseline. This isn't run as part of the tests; run its main method
+ * from the test classpath, optionally passing the JSON body sizes in bytes to measure.
+ *
+ * <p>Each run rewrites a mix of events like the ones the application logs: mostly plain messages and request and
+ * response records with nothing sensitive in them, plus sign in requests and alias exceptions that need redacting.
+ */
+public class RedactingRewritePolicyBenchmark {
+
+    private static final int[] DEFAULT_BODY_SIZES = {256, 4_096, 65_536};
+    private static final int EVENT_COUNT = 2_000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 20;
+
+    private static final Pattern JSON_KEY_VALUE_PATTERN = Pattern.compile(
+            "(\"(?:username|email|password|newPassword|emailBody|replyToEmail|subject)\"[\\s]*:[\\s]*\")(?:[^\"]*)" +
+                    "(\")");
+    private static final Pattern ALIAS_EXISTS_PATTERN = Pattern.compile(
+            "(User with (?:username|email) )(?:[^ ]*)( already exists.)");
+    private static final Pattern USER_NOT_FOUND_PATTERN = Pattern.compile(
+            "(User with (?:username|email) )(?:[^ ]*)( does not exist.)");
+    private static final List<Pattern> REGEX_REDACTIONS = Arrays.asList(JSON_KEY_VALUE_PATTERN, ALIAS_EXISTS_PATTERN,
+            USER_NOT_FOUND_PATTERN);
+
+    // the rewritten message lengths are added up here so that the JIT can't skip the rewrites
+    private static volatile long checksum;
+
+    public static void main(String[] args) {
+        int[] bodySizes = args.length == 0 ? DEFAULT_BODY_SIZES : Arrays.stream(args)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        System.out.printf("%10s %16s %16s %14s %14s %10s%n", "body bytes", "regex events/s", "single events/s",
+                "regex MB/s", "single MB/s", "speedup");
+        for (int bodySize : bodySizes) {
+            run(bodySize);
+        }
+    }
+
+    private static void run(int bodySize) {
+        List<LogEvent> logEvents = generateLogEvents(bodySize, new Random(bodySize));
+        long messageBytes = logEvents.stream()
+                .mapToLong(logEvent -> logEvent.getMessage()
+                        .getFormattedMessage()
+                        .length())
+                .sum();
+        RedactingRewritePolicy redactingRewritePolicy = RedactingRewritePolicy.createPolicy();
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            checksum += rewriteWithRegexes(logEvents);
+            checksum += rewriteWithPolicy(redactingRewritePolicy, logEvents);
+        }
+
+        long regexNanos = 0;
+        long singlePassNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startTime = System.nanoTime();
+            checksum += rewriteWithRegexes(logEvents);
+            regexNanos += System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            checksum += rewriteWithPolicy(redactingRewritePolicy, logEvents);
+            singlePassNanos += System.nanoTime() - startTime;
+        }
+
+        double eventCount = (double) EVENT_COUNT * ROUNDS;
+        double megabytes = (double) messageBytes * ROUNDS / (1024 * 1024);
+        System.out.printf("%10d %16.0f %16.0f %14.1f %14.1f %9.1fx%n", bodySize, eventCount / seconds(regexNanos),
+                eventCount / seconds(singlePassNanos), megabytes / seconds(regexNanos),
+                megabytes / seconds(singlePassNanos), (double) regexNanos / singlePassNanos);
+    }
+
+    private static long rewriteWithPolicy(RedactingRewritePolicy redactingRewritePolicy, List<LogEvent> logEvents) {
+        long length = 0;
+        for (LogEvent logEvent : logEvents) {
+            length += redactingRewritePolicy.rewrite(logEvent)
+                    .getMessage()
+                    .getFormattedMessage()
+                    .length();
+        }
+        return length;
+    }
+
+    // this is what RedactingRewritePolicy did before it used MessageRedactor
+    private static long rewriteWithRegexes(List<LogEvent> logEvents) {
+        long length = 0;
+        for (LogEvent logEvent : logEvents) {
+            String message = logEvent.getMessage()
+                    .getFormattedMessage();
+            for (Pattern redaction : REGEX_REDACTIONS) {
+                message = redaction.matcher(message)
+                        .replaceAll("$1<REDACTED>$2");
+            }
+            length += Log4jLogEvent.newBuilder()
+                    .setLoggerName(logEvent.getLoggerName())
+                    .setLevel(logEvent.getLevel())
+                    .setMessage(new SimpleMessage(message))
+                    .setTimeMillis(logEvent.getTimeMillis())
+                    .build()
+                    .getMessage()
+                    .getFormattedMessage()
+                    .length();
+        }
+        return length;
+    }
+
+    private static List<LogEvent> generateLogEvents(int bodySize, Random random) {
+        List<LogEvent> logEvents = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            int kind = random.nextInt(20);
+            String message;
+            if (kind < 8) {
+                message = "Retrieved crag crag-" + random.nextInt(100_000) + " from the cache in " +
+                        random.nextInt(50) + " ms.";
+            }
+            else if (kind < 18) {
+                message = (kind % 2 == 0 ? "Request: " : "Response: ") + "{\"duration\":" + random.nextInt(500) +
+                        ",\"status\":200,\"headers\":{\"Content-Type\":[\"application/json\"]},\"jsonBody\":" +
+                        generateCragJson(bodySize, random) + "}";
+            }
+            else if (kind == 18) {
+                message = "Request: {\"method\":\"POST\",\"path\":\"/v1/user/sign-in\",\"jsonBody\":{\"username\":" +
+                        "\"climber-" + i + "\",\"password\":\"correct-horse-" + i + "\"}}";
+            }
+            else {
+                message = "Caught exception! User with email climber-" + i + "@example.com already exists.";
+            }
+            logEvents.add(Log4jLogEvent.newBuilder()
+                    .setLoggerName(RedactingRewritePolicyBenchmark.class.getName())
+                    .setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage(message))
+                    .setTimeMillis(i)
+                    .build());
+        }
+        return logEvents;
+    }
+
+    private static String generateCragJson(int bodySize, Random random) {
+        StringBuilder json = new StringBuilder("{\"data\":{\"cragId\":\"crag-").append(random.nextInt(100_000))
+                .append("\",\"name\":\"Crag\",\"walls\":[");
+        int wallIndex = 0;
+        while (json.length() < bodySize) {
+            if (wallIndex > 0) {
+                json.append(',');
+            }
+            json.append("{\"wallId\":\"wall-")
+                    .append(wallIndex)
+                    .append("\",\"name\":\"Wall ")
+                    .append(wallIndex)
+                    .append("\",\"description\":\"Steep \\\"orange\\\" limestone.\",\"routeCount\":")
+                    .append(random.nextInt(40))
+                    .append('}');
+            wallIndex++;
+        }
+        return json.append("]}}")
+                .toString();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
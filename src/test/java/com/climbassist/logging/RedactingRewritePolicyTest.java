@@ -4,9 +4,11 @@ import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.spi.DefaultThreadContextStack;
+import org.apache.logging.log4j.util.StringMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -16,6 +18,7 @@ import java.io.IOException;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 class RedactingRewritePolicyTest {
 
@@ -37,13 +40,29 @@ class RedactingRewritePolicyTest {
     @Test
     public void rewrite_doesNothing_whenMessageIsEmpty() {
         LogEvent logEvent = buildLogEvent("");
-        assertThat(redactingRewritePolicy.rewrite(logEvent), is(equalTo(logEvent)));
+        assertThat(redactingRewritePolicy.rewrite(logEvent), is(sameInstance(logEvent)));
     }
 
     @Test
     public void rewrite_doesNothing_whenMessageDoesHaveAnySensitiveFields() {
         LogEvent logEvent = buildLogEvent("this is just some message with nothing sensitive in it");
-        assertThat(redactingRewritePolicy.rewrite(logEvent), is(equalTo(logEvent)));
+        assertThat(redactingRewritePolicy.rewrite(logEvent), is(sameInstance(logEvent)));
+    }
+
+    @Test
+    public void rewrite_keepsContextData_whenMessageIsRedacted() {
+        StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("RequestId", "request-1");
+        LogEvent logEvent = new Log4jLogEvent.Builder(buildLogEvent("{\"password\": \"" + PASSWORD + "\"}"))
+                .setContextData(contextData)
+                .build();
+
+        LogEvent rewrittenLogEvent = redactingRewritePolicy.rewrite(logEvent);
+
+        assertThat(rewrittenLogEvent.getMessage()
+                .getFormattedMessage(), is(equalTo("{\"password\": \"" + EXPECTED_REDACTED_STRING + "\"}")));
+        assertThat(rewrittenLogEvent.getContextData()
+                .getValue("RequestId"), is(equalTo("request-1")));
     }
 
     @Test
@@ -0,0 +1,335 @@
+package com.climbassist.logging;
+
+import com.climbassist.api.user.SessionUtils;
+import com.climbassist.api.user.UserData;
+import com.climbassist.metrics.Metrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RequestResponseLoggingFilterTest {
+
+    private static final String REQUEST_BODY = "{\"name\":\"Crag 1\"}";
+    private static final String RESPONSE_BODY = "{\"data\":{\"cragId\":\"crag-1\"}}";
+    private static final int MAX_BODY_BYTES = 20;
+    private static final int MAX_IN_MEMORY_BODY_BYTES = 1024;
+    // the records have multimaps in them, so they're serialized the way the service's object mapper does
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new GuavaModule());
+
+    @Mock
+    private AsyncLogWriter mockAsyncLogWriter;
+
+    private RequestMappingHandlerMapping requestMappingHandlerMapping;
+    private MockHttpServletRequest mockHttpServletRequest;
+    private MockHttpServletResponse mockHttpServletResponse;
+
+    @BeforeEach
+    void setUp() {
+        StaticApplicationContext staticApplicationContext = new StaticApplicationContext();
+        staticApplicationContext.registerSingleton("testController", TestController.class);
+        requestMappingHandlerMapping = new RequestMappingHandlerMapping();
+        requestMappingHandlerMapping.setApplicationContext(staticApplicationContext);
+        requestMappingHandlerMapping.afterPropertiesSet();
+
+        mockHttpServletRequest = new MockHttpServletRequest("POST", "/v1/crags");
+        mockHttpServletRequest.setServletPath("/v1/crags");
+        mockHttpServletRequest.setProtocol("HTTP/1.1");
+        mockHttpServletRequest.setRemoteAddr("10.0.0.1");
+        mockHttpServletRequest.setQueryString("a=1&b=2");
+        mockHttpServletRequest.setContentType("application/json;charset=UTF-8");
+        mockHttpServletRequest.setContent(REQUEST_BODY.getBytes(StandardCharsets.UTF_8));
+        mockHttpServletRequest.addHeader("User-Agent", "test-agent");
+        mockHttpServletRequest.addHeader("Cookie", "SESSION=secret");
+        mockHttpServletRequest.getSession()
+                .setAttribute(SessionUtils.USER_DATA_SESSION_ATTRIBUTE_NAME, Optional.of(UserData.builder()
+                        .userId("user-1")
+                        .build()));
+        mockHttpServletResponse = new MockHttpServletResponse();
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenDefaultSampleRateIsGreaterThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> buildFilter(ImmutableMap.of(), 1.5));
+    }
+
+    @Test
+    void builder_throwsIllegalArgumentException_whenApiSampleRateIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> buildFilter(ImmutableMap.of("CreateCrag", -0.1), 1.0));
+    }
+
+    @Test
+    void doFilter_logsRequestAndResponse_withAllowListedHeadersAndTruncatedBodies()
+            throws IOException, ServletException {
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+        AtomicReference<String> requestBodySeenByChain = new AtomicReference<>();
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse,
+                (request, response) -> {
+                    requestBodySeenByChain.set(new String(IOUtils.toByteArray(request.getInputStream()),
+                            StandardCharsets.UTF_8));
+                    writeResponse(response);
+                });
+
+        assertThat(requestBodySeenByChain.get(), is(equalTo(REQUEST_BODY)));
+        // the response is written straight through, not cut off at the captured size
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo(RESPONSE_BODY)));
+        LoggableRequest loggableRequest = (LoggableRequest) getRecord("Request: ");
+        assertThat(loggableRequest, is(equalTo(LoggableRequest.builder()
+                .protocol("HTTP/1.1")
+                .sender("10.0.0.1")
+                .method("POST")
+                .path("/v1/crags")
+                .queryString("a=1&b=2")
+                .queryParameters(ImmutableMap.of("a", "1", "b", "2"))
+                .headers(ImmutableListMultimap.of("User-Agent", "test-agent"))
+                .userId("user-1")
+                .jsonBody(OBJECT_MAPPER.readTree(REQUEST_BODY))
+                .build())));
+        LoggableResponse loggableResponse = (LoggableResponse) getRecord("Response: ");
+        assertThat(loggableResponse.getStatus(), is(equalTo(201)));
+        assertThat(loggableResponse.getHeaders(), is(equalTo(ImmutableListMultimap.of("Content-Type",
+                "application/json"))));
+        assertThat(loggableResponse.getJsonBody(), is(nullValue()));
+        assertThat(loggableResponse.getBody(), is(equalTo(
+                RESPONSE_BODY.substring(0, MAX_BODY_BYTES) + RequestResponseLoggingFilter.TRUNCATED_SUFFIX)));
+    }
+
+    @Test
+    void doFilter_logsBodyAsString_whenContentTypeIsNotJson() throws IOException, ServletException {
+        mockHttpServletRequest.setContentType("text/plain");
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+        });
+
+        LoggableRequest loggableRequest = (LoggableRequest) getRecord("Request: ");
+        assertThat(loggableRequest.getBody(), is(equalTo(REQUEST_BODY)));
+        assertThat(loggableRequest.getJsonBody(), is(nullValue()));
+        LoggableResponse loggableResponse = (LoggableResponse) getRecord("Response: ");
+        assertThat(loggableResponse.getBody(), is(nullValue()));
+        assertThat(loggableResponse.getJsonBody(), is(nullValue()));
+    }
+
+    @Test
+    void doFilter_logsRequestBodyAsString_whenJsonBodyIsMalformed() throws IOException, ServletException {
+        String requestBody = "{\"name\":";
+        mockHttpServletRequest.setContent(requestBody.getBytes(StandardCharsets.UTF_8));
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+        });
+
+        LoggableRequest loggableRequest = (LoggableRequest) getRecord("Request: ");
+        assertThat(loggableRequest.getBody(), is(equalTo(requestBody)));
+        assertThat(loggableRequest.getJsonBody(), is(nullValue()));
+    }
+
+    @Test
+    void doFilter_doesNotLetRequestBodyAddFieldsToRecord() throws IOException, ServletException {
+        // a body that would close the jsonBody field and forge a user ID if it were embedded as it is
+        String requestBody = "{},\"userId\":\"user-2\"";
+        mockHttpServletRequest.setContent(requestBody.getBytes(StandardCharsets.UTF_8));
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+        });
+
+        JsonNode record = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsString(getRecord("Request: ")));
+        assertThat(record.get("userId")
+                .asText(), is(equalTo("user-1")));
+        assertThat(record.get("body")
+                .asText(), is(equalTo(requestBody)));
+        assertThat(record.has("jsonBody"), is(false));
+    }
+
+    @Test
+    void doFilter_doesNotLogBody_whenRequestIsMultipart() throws IOException, ServletException {
+        mockHttpServletRequest.setContentType("multipart/form-data; boundary=boundary");
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+        AtomicReference<String> requestBodySeenByChain = new AtomicReference<>();
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse,
+                (request, response) -> requestBodySeenByChain.set(new String(IOUtils.toByteArray(
+                        request.getInputStream()), StandardCharsets.UTF_8)));
+
+        assertThat(requestBodySeenByChain.get(), is(equalTo(REQUEST_BODY)));
+        LoggableRequest loggableRequest = (LoggableRequest) getRecord("Request: ");
+        assertThat(loggableRequest.getBody(), is(nullValue()));
+        assertThat(loggableRequest.getJsonBody(), is(nullValue()));
+    }
+
+    @Test
+    void doFilter_deletesSpooledBody_onlyWhenAsyncRequestCompletes() throws IOException, ServletException {
+        mockHttpServletRequest.setAsyncSupported(true);
+        RequestResponseLoggingFilter requestResponseLoggingFilter = RequestResponseLoggingFilter.builder()
+                .requestMappingHandlerMapping(requestMappingHandlerMapping)
+                .asyncLogWriter(mockAsyncLogWriter)
+                .objectMapper(OBJECT_MAPPER)
+                .apiSampleRates(ImmutableMap.of())
+                .defaultSampleRate(1.0)
+                .requestHeaderAllowList(ImmutableSet.of())
+                .responseHeaderAllowList(ImmutableSet.of())
+                .maxBodyBytes(MAX_BODY_BYTES)
+                .maxInMemoryBodyBytes(0)
+                .build();
+        AtomicReference<ServletRequest> asyncRequest = new AtomicReference<>();
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse,
+                (request, response) -> {
+                    request.startAsync(request, response);
+                    asyncRequest.set(request);
+                });
+
+        assertThat(((LoggableRequest) getRecord("Request: ")).getJsonBody(),
+                is(equalTo(OBJECT_MAPPER.readTree(REQUEST_BODY))));
+        // the body is still readable until the request completes
+        assertThat(new String(IOUtils.toByteArray(asyncRequest.get()
+                .getInputStream()), StandardCharsets.UTF_8), is(equalTo(REQUEST_BODY)));
+        mockHttpServletRequest.getAsyncContext()
+                .complete();
+        assertThrows(NoSuchFileException.class, () -> asyncRequest.get()
+                .getInputStream());
+    }
+
+    @Test
+    void doFilter_doesNotLogOrWrap_whenApiIsNotSampled() throws IOException, ServletException {
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of("CreateCrag", 0.0),
+                1.0);
+        FilterChain filterChain = (request, response) -> {
+            assertThat(request, is(sameInstance(mockHttpServletRequest)));
+            assertThat(response, is(sameInstance(mockHttpServletResponse)));
+        };
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, filterChain);
+
+        verifyNoInteractions(mockAsyncLogWriter);
+    }
+
+    @Test
+    void doFilter_usesDefaultSampleRate_whenApiHasNoSampleRate() throws IOException, ServletException {
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of("GetCrag", 0.0),
+                1.0);
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+        });
+
+        getRecord("Request: ");
+        getRecord("Response: ");
+    }
+
+    @Test
+    void doFilter_doesNotLog_whenRequestIsHealthCheck() throws IOException, ServletException {
+        mockHttpServletRequest.setServletPath("/health");
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse, (request, response) -> {
+        });
+
+        verifyNoInteractions(mockAsyncLogWriter);
+    }
+
+    @Test
+    void doFilter_logsResponseOnAsyncDispatch_whenRequestWentAsync() throws IOException, ServletException {
+        mockHttpServletRequest.setAsyncSupported(true);
+        RequestResponseLoggingFilter requestResponseLoggingFilter = buildFilter(ImmutableMap.of(), 1.0);
+        AtomicReference<ServletRequest> asyncRequest = new AtomicReference<>();
+        AtomicReference<ServletResponse> asyncResponse = new AtomicReference<>();
+        requestResponseLoggingFilter.doFilter(mockHttpServletRequest, mockHttpServletResponse,
+                (request, response) -> {
+                    request.startAsync(request, response);
+                    asyncRequest.set(request);
+                    asyncResponse.set(response);
+                });
+        getRecord("Request: ");
+        assertThat(asyncResponse.get(), is(not(sameInstance(mockHttpServletResponse))));
+
+        mockHttpServletRequest.setAsyncStarted(false);
+        mockHttpServletRequest.setDispatcherType(DispatcherType.ASYNC);
+        requestResponseLoggingFilter.doFilter(asyncRequest.get(), asyncResponse.get(),
+                (request, response) -> writeResponse(response));
+
+        assertThat(mockHttpServletResponse.getContentAsString(), is(equalTo(RESPONSE_BODY)));
+        LoggableResponse loggableResponse = (LoggableResponse) getRecord("Response: ");
+        assertThat(loggableResponse.getStatus(), is(equalTo(201)));
+    }
+
+    private RequestResponseLoggingFilter buildFilter(Map<String, Double> apiSampleRates, double defaultSampleRate) {
+        return RequestResponseLoggingFilter.builder()
+                .requestMappingHandlerMapping(requestMappingHandlerMapping)
+                .asyncLogWriter(mockAsyncLogWriter)
+                .objectMapper(OBJECT_MAPPER)
+                .apiSampleRates(apiSampleRates)
+                .defaultSampleRate(defaultSampleRate)
+                .requestHeaderAllowList(ImmutableSet.of("User-Agent", "Referer"))
+                .responseHeaderAllowList(ImmutableSet.of("Content-Type"))
+                .maxBodyBytes(MAX_BODY_BYTES)
+                .maxInMemoryBodyBytes(MAX_IN_MEMORY_BODY_BYTES)
+                .build();
+    }
+
+    private Object getRecord(String prefix) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Supplier<?>> recordSupplierCaptor = ArgumentCaptor.forClass(Supplier.class);
+        verify(mockAsyncLogWriter).write(eq(prefix), recordSupplierCaptor.capture());
+        return recordSupplierCaptor.getValue()
+                .get();
+    }
+
+    private static void writeResponse(ServletResponse servletResponse) throws IOException {
+        ((HttpServletResponse) servletResponse).setStatus(201);
+        servletResponse.setContentType("application/json");
+        servletResponse.getOutputStream()
+                .write(RESPONSE_BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @RestController
+    private static class TestController {
+
+        @Metrics(api = "CreateCrag")
+        @PostMapping("/v1/crags")
+        public void createCrag() {
+        }
+    }
+}
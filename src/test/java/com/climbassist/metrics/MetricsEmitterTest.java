@@ -26,8 +26,13 @@ class MetricsEmitterTest {
     private static final String EXPECTED_ERROR_METRIC_NAME = "errorCount";
     private static final String EXPECTED_FAULT_METRIC_NAME = "faultCount";
     private static final String EXPECTED_DURATION_METRIC_NAME = "duration";
+    private static final String COMPONENT = "SomeComponent";
+    private static final String COMPONENT_METRIC_NAME = "queueSize";
     private static final Set<Dimension> EXPECTED_DIMENSIONS = ImmutableSet.of(new Dimension().withName("api")
             .withValue(API));
+    private static final Set<Dimension> EXPECTED_COMPONENT_DIMENSIONS = ImmutableSet.of(
+            new Dimension().withName("component")
+                    .withValue(COMPONENT));
 
     @Mock
     private AmazonCloudWatch mockAmazonCloudWatch;
@@ -85,10 +90,59 @@ class MetricsEmitterTest {
                 Optional.of(StandardUnit.Milliseconds)));
     }
 
+    @Test
+    void emitComponentCountMetric_emitsCountMetric() {
+        metricsEmitter.emitComponentCountMetric(COMPONENT, COMPONENT_METRIC_NAME, 12);
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, COMPONENT_METRIC_NAME, 12, Optional.empty()));
+    }
+
+    @Test
+    void emitCacheLookupMetrics_emitsHit_whenLookupIsAHit() {
+        metricsEmitter.emitCacheLookupMetrics(COMPONENT, true);
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, "hitCount", 1, Optional.empty()));
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, "missCount", 0, Optional.empty()));
+    }
+
+    @Test
+    void emitCacheLookupMetrics_emitsMiss_whenLookupIsAMiss() {
+        metricsEmitter.emitCacheLookupMetrics(COMPONENT, false);
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, "hitCount", 0, Optional.empty()));
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, "missCount", 1, Optional.empty()));
+    }
+
+    @Test
+    void emitComponentDurationMetric_emitsDurationMetric() {
+        double duration = 420.69;
+        metricsEmitter.emitComponentDurationMetric(COMPONENT, COMPONENT_METRIC_NAME, duration);
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, COMPONENT_METRIC_NAME, duration,
+                        Optional.of(StandardUnit.Milliseconds)));
+    }
+
+    @Test
+    void emitComponentThroughputMetric_emitsThroughputMetric() {
+        double bytesPerSecond = 1048576.5;
+        metricsEmitter.emitComponentThroughputMetric(COMPONENT, COMPONENT_METRIC_NAME, bytesPerSecond);
+        verify(mockAmazonCloudWatch).putMetricData(
+                buildPutMetricDataRequest(EXPECTED_COMPONENT_DIMENSIONS, COMPONENT_METRIC_NAME, bytesPerSecond,
+                        Optional.of(StandardUnit.BytesSecond)));
+    }
+
     private PutMetricDataRequest buildPutMetricDataRequest(String metricName, double value,
                                                            @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                                                    Optional<StandardUnit> maybeUnit) {
-        MetricDatum metricDatum = new MetricDatum().withDimensions(EXPECTED_DIMENSIONS)
+        return buildPutMetricDataRequest(EXPECTED_DIMENSIONS, metricName, value, maybeUnit);
+    }
+
+    private PutMetricDataRequest buildPutMetricDataRequest(Set<Dimension> dimensions, String metricName, double value,
+                                                           @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+                                                                   Optional<StandardUnit> maybeUnit) {
+        MetricDatum metricDatum = new MetricDatum().withDimensions(dimensions)
                 .withMetricName(metricName)
                 .withValue(value);
         maybeUnit.ifPresent(metricDatum::setUnit);
@@ -0,0 +1,134 @@
+package com.climbassist.wrapper.request;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestWrapperTest {
+
+    private static final String BODY = "{\"name\":\"Crag 1\",\"description\":\"Orange limestone.\"}";
+    private static final int MAX_IN_MEMORY_BYTES = 16;
+
+    private MockHttpServletRequest mockHttpServletRequest;
+
+    @BeforeEach
+    void setUp() {
+        mockHttpServletRequest = new MockHttpServletRequest("POST", "/v1/crags");
+        mockHttpServletRequest.setContentType("application/json");
+        mockHttpServletRequest.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void constructor_throwsIllegalArgumentException_whenMaxInMemoryBytesIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestWrapper(mockHttpServletRequest, -1));
+    }
+
+    @Test
+    void getBody_returnsBodyFromMemory_whenBodyIsUnderThreshold() throws IOException {
+        Set<Path> spoolFilesBefore = listSpoolFiles();
+
+        try (RequestWrapper requestWrapper = new RequestWrapper(mockHttpServletRequest, BODY.length())) {
+            assertThat(listSpoolFiles(), is(equalTo(spoolFilesBefore)));
+            assertThat(requestWrapper.isBodyBuffered(), is(true));
+            assertThat(requestWrapper.getBodyLength(), is(equalTo((long) BODY.length())));
+            assertThat(requestWrapper.getBody(7), is(equalTo(BODY.substring(0, 7))));
+            assertThat(readBody(requestWrapper), is(equalTo(BODY)));
+            // the body can be read more than once
+            assertThat(readBody(requestWrapper), is(equalTo(BODY)));
+        }
+    }
+
+    @Test
+    void getBody_returnsBodyFromSpoolFile_whenBodyIsOverThreshold() throws IOException {
+        Set<Path> spoolFilesBefore = listSpoolFiles();
+
+        RequestWrapper requestWrapper = new RequestWrapper(mockHttpServletRequest, MAX_IN_MEMORY_BYTES);
+        assertThat(getNewSpoolFiles(spoolFilesBefore), hasSize(1));
+        assertThat(requestWrapper.getBodyLength(), is(equalTo((long) BODY.length())));
+        assertThat(requestWrapper.getBody(MAX_IN_MEMORY_BYTES + 4), is(equalTo(BODY.substring(0,
+                MAX_IN_MEMORY_BYTES + 4))));
+        assertThat(requestWrapper.getBody(Integer.MAX_VALUE), is(equalTo(BODY)));
+        assertThat(readBody(requestWrapper), is(equalTo(BODY)));
+
+        requestWrapper.close();
+        assertThat(getNewSpoolFiles(spoolFilesBefore), is(empty()));
+    }
+
+    @Test
+    void getBody_returnsBodyFromSpoolFile_whenContentLengthIsUnknown() throws IOException {
+        MockHttpServletRequest chunkedRequest = new MockHttpServletRequest("POST", "/v1/crag-imports") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunkedRequest.setContentType("application/x-ndjson");
+        chunkedRequest.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+        try (RequestWrapper requestWrapper = new RequestWrapper(chunkedRequest, MAX_IN_MEMORY_BYTES)) {
+            assertThat(requestWrapper.getBodyLength(), is(equalTo((long) BODY.length())));
+            assertThat(readBody(requestWrapper), is(equalTo(BODY)));
+        }
+    }
+
+    @Test
+    void getBody_returnsEmptyBody_whenThereIsNoBody() throws IOException {
+        mockHttpServletRequest.setContent(null);
+
+        try (RequestWrapper requestWrapper = new RequestWrapper(mockHttpServletRequest, MAX_IN_MEMORY_BYTES)) {
+            assertThat(requestWrapper.getBodyLength(), is(equalTo(0L)));
+            assertThat(requestWrapper.getBody(MAX_IN_MEMORY_BYTES), is(equalTo("")));
+            assertThat(readBody(requestWrapper), is(equalTo("")));
+        }
+    }
+
+    @Test
+    void getInputStream_passesBodyThrough_whenBodyIsMultipart() throws IOException {
+        mockHttpServletRequest.setContentType("multipart/form-data; boundary=boundary");
+        Set<Path> spoolFilesBefore = listSpoolFiles();
+
+        try (RequestWrapper requestWrapper = new RequestWrapper(mockHttpServletRequest, 0)) {
+            assertThat(getNewSpoolFiles(spoolFilesBefore), is(empty()));
+            assertThat(requestWrapper.isBodyBuffered(), is(false));
+            assertThat(requestWrapper.getBodyLength(), is(equalTo(0L)));
+            // nothing was read, so the multipart resolver still gets the whole body
+            assertThat(readBody(requestWrapper), is(equalTo(BODY)));
+        }
+    }
+
+    private static String readBody(RequestWrapper requestWrapper) throws IOException {
+        return new String(IOUtils.toByteArray(requestWrapper.getInputStream()), StandardCharsets.UTF_8);
+    }
+
+    private static Set<Path> getNewSpoolFiles(Set<Path> spoolFilesBefore) throws IOException {
+        Set<Path> spoolFiles = listSpoolFiles();
+        spoolFiles.removeAll(spoolFilesBefore);
+        return spoolFiles;
+    }
+
+    private static Set<Path> listSpoolFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return paths.filter(path -> path.getFileName()
+                    .toString()
+                    .startsWith("request-body-"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
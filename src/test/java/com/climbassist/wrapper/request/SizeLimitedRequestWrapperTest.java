@@ -0,0 +1,58 @@
+package com.climbassist.wrapper.request;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SizeLimitedRequestWrapperTest {
+
+    private static final String BODY = "{\"name\":\"Crag 1\"}";
+
+    private MockHttpServletRequest mockHttpServletRequest;
+
+    @BeforeEach
+    void setUp() {
+        mockHttpServletRequest = new MockHttpServletRequest("POST", "/v1/crags");
+        mockHttpServletRequest.setContentType("application/json");
+        mockHttpServletRequest.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        mockHttpServletRequest.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void constructor_throwsIllegalArgumentException_whenMaxBodyBytesIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new SizeLimitedRequestWrapper(mockHttpServletRequest, -1));
+    }
+
+    @Test
+    void getInputStream_readsWholeBody_whenBodyIsAtLimit() throws IOException {
+        SizeLimitedRequestWrapper sizeLimitedRequestWrapper =
+                new SizeLimitedRequestWrapper(mockHttpServletRequest, BODY.length());
+        assertThat(new String(IOUtils.toByteArray(sizeLimitedRequestWrapper.getInputStream()), StandardCharsets.UTF_8),
+                is(equalTo(BODY)));
+    }
+
+    @Test
+    void getInputStream_throwsRequestBodyTooLargeException_whenBodyIsOverLimit() {
+        SizeLimitedRequestWrapper sizeLimitedRequestWrapper =
+                new SizeLimitedRequestWrapper(mockHttpServletRequest, BODY.length() - 1);
+        assertThrows(RequestBodyTooLargeException.class,
+                () -> IOUtils.toByteArray(sizeLimitedRequestWrapper.getInputStream()));
+    }
+
+    @Test
+    void getReader_throwsRequestBodyTooLargeException_whenBodyIsOverLimit() {
+        SizeLimitedRequestWrapper sizeLimitedRequestWrapper =
+                new SizeLimitedRequestWrapper(mockHttpServletRequest, BODY.length() - 1);
+        assertThrows(RequestBodyTooLargeException.class,
+                () -> IOUtils.toString(sizeLimitedRequestWrapper.getReader()));
+    }
+}